@@ -0,0 +1,31 @@
+package mofo.com.pestscout.analytics.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Settings for composing the full farm dashboard. Sections are computed concurrently on {@code threads} workers with
+ * at most {@code queueCapacity} sections waiting. A section that has not finished {@code sectionTimeoutMs} after it
+ * was submitted is dropped from the response and reported as unavailable; {@code sectionTimeoutsMs} overrides the
+ * timeout for individual sections by name, e.g. {@code scoutPerformance}.
+ */
+@Component
+@ConfigurationProperties(prefix = "app.analytics.dashboard")
+@Getter
+@Setter
+public class DashboardProperties {
+
+    private int threads = 8;
+    private int queueCapacity = 100;
+    private long sectionTimeoutMs = 5000;
+    private Map<String, Long> sectionTimeoutsMs = new HashMap<>();
+
+    public long timeoutMsFor(String section) {
+        return sectionTimeoutsMs.getOrDefault(section, sectionTimeoutMs);
+    }
+}
@@ -0,0 +1,29 @@
+package mofo.com.pestscout.analytics.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import mofo.com.pestscout.common.jobs.BackgroundJobProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Settings for background farm exports. Builds run on {@code threads} workers with at most {@code queueCapacity} jobs
+ * waiting in memory; the rest stay pending in the job table until the sweeper offers them again. Finished artifacts
+ * are kept under {@code root} for {@code artifactTtlMs}, which should point at storage shared by every node. A running
+ * job holds a lease of {@code leaseMs} that its node renews while building; only a job whose lease ran out, because
+ * its node stopped, is returned to pending.
+ */
+@Component
+@ConfigurationProperties(prefix = "app.analytics.export-jobs")
+@Getter
+@Setter
+public class ExportJobProperties implements BackgroundJobProperties {
+
+    private String root = "./data/exports";
+    private int threads = 2;
+    private int queueCapacity = 50;
+    private int maxAttempts = 3;
+    private long retryDelayMs = 60000;
+    private long leaseMs = 120000;
+    private long artifactTtlMs = 604800000;
+}
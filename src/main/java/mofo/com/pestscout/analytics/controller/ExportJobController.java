@@ -0,0 +1,50 @@
+package mofo.com.pestscout.analytics.controller;
+
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import mofo.com.pestscout.analytics.dto.ExportJobDto;
+import mofo.com.pestscout.analytics.dto.ExportJobRequest;
+import mofo.com.pestscout.analytics.service.ExportJobService;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.UUID;
+
+/**
+ * Background farm exports: request a document, poll its job, then download the finished artifact.
+ */
+@RestController
+@RequestMapping("/api/analytics/exports")
+@RequiredArgsConstructor
+public class ExportJobController {
+
+    private final ExportJobService exportJobService;
+
+    @PostMapping
+    @PreAuthorize("hasAnyRole('SUPER_ADMIN','FARM_ADMIN','MANAGER')")
+    public ResponseEntity<ExportJobDto> requestExport(@Valid @RequestBody ExportJobRequest request) {
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(exportJobService.requestExport(request));
+    }
+
+    @GetMapping("/{jobId}")
+    @PreAuthorize("hasAnyRole('SUPER_ADMIN','FARM_ADMIN','MANAGER')")
+    public ResponseEntity<ExportJobDto> getJob(@PathVariable UUID jobId) {
+        return ResponseEntity.ok(exportJobService.getJob(jobId));
+    }
+
+    @GetMapping("/{jobId}/download")
+    @PreAuthorize("hasAnyRole('SUPER_ADMIN','FARM_ADMIN','MANAGER')")
+    public ResponseEntity<Resource> download(@PathVariable UUID jobId) {
+        ExportJobService.ExportArtifact artifact = exportJobService.openArtifact(jobId);
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + artifact.fileName() + "\"")
+                .contentType(MediaType.parseMediaType(artifact.mediaType()))
+                .body(new FileSystemResource(artifact.path()));
+    }
+}
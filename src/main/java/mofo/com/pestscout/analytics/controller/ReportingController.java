@@ -2,13 +2,17 @@ package mofo.com.pestscout.analytics.controller;
 
 import lombok.RequiredArgsConstructor;
 import mofo.com.pestscout.analytics.dto.FarmMonthlyReportDto;
+import mofo.com.pestscout.analytics.dto.FarmWeeklyAnalyticsDto;
 import mofo.com.pestscout.analytics.dto.ReportExportRequest;
 import mofo.com.pestscout.analytics.dto.ReportExportResponse;
 import mofo.com.pestscout.analytics.service.ReportExportService;
 import mofo.com.pestscout.analytics.service.ReportingService;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDate;
+import java.util.List;
 import java.util.UUID;
 
 @RestController
@@ -28,6 +32,15 @@ public class ReportingController {
         return ResponseEntity.ok(reportingService.getMonthlyReport(farmId, year, month));
     }
 
+    @GetMapping("/weekly-analytics")
+    public ResponseEntity<List<FarmWeeklyAnalyticsDto>> getWeeklyAnalytics(
+            @RequestParam UUID farmId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to
+    ) {
+        return ResponseEntity.ok(reportingService.getWeeklyAnalytics(farmId, from, to));
+    }
+
     @PostMapping("/export")
     public ResponseEntity<ReportExportResponse> export(@RequestBody ReportExportRequest req) {
         return ResponseEntity.ok(exportService.export(req));
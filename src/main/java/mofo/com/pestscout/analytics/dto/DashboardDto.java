@@ -2,6 +2,9 @@ package mofo.com.pestscout.analytics.dto;
 
 import java.util.List;
 
+/**
+ * The full farm dashboard. Sections named in {@code unavailableSections} timed out or failed and are returned empty.
+ */
 public record DashboardDto(
         DashboardSummaryDto summary,
         List<PestDistributionItemDto> pestDistribution,
@@ -12,7 +15,7 @@ public record DashboardDto(
         List<AlertDto> alerts,
         List<RecommendationDto> recommendations,
         List<FarmComparisonDto> farmComparison,
-        List<ScoutPerformanceDto> scoutPerformance
+        List<ScoutPerformanceDto> scoutPerformance,
+        List<String> unavailableSections
 ) {
 }
-
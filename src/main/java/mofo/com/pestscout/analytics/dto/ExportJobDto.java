@@ -0,0 +1,24 @@
+package mofo.com.pestscout.analytics.dto;
+
+import mofo.com.pestscout.analytics.model.ExportJobStatus;
+import mofo.com.pestscout.analytics.model.ExportType;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+public record ExportJobDto(
+        UUID id,
+        UUID farmId,
+        ExportType exportType,
+        ExportJobStatus status,
+        String fileName,
+        LocalDate startDate,
+        LocalDate endDate,
+        Long sizeBytes,
+        LocalDateTime completedAt,
+        LocalDateTime expiresAt,
+        String downloadUrl,
+        String lastError
+) {
+}
@@ -0,0 +1,19 @@
+package mofo.com.pestscout.analytics.dto;
+
+import jakarta.validation.constraints.NotNull;
+import mofo.com.pestscout.analytics.model.ExportType;
+
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * Request for a background farm export. The date range only applies to session CSV exports; leave both dates empty
+ * to export the farm's full history.
+ */
+public record ExportJobRequest(
+        @NotNull UUID farmId,
+        @NotNull ExportType exportType,
+        LocalDate startDate,
+        LocalDate endDate
+) {
+}
@@ -0,0 +1,92 @@
+package mofo.com.pestscout.analytics.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+import lombok.experimental.SuperBuilder;
+import mofo.com.pestscout.auth.model.Role;
+import mofo.com.pestscout.common.model.BaseEntity;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Durable record of a farm export built in the background. Identical requests share one job through
+ * {@link #dedupKey}, which covers the export type, farm, date range, audience and the farm's data version, so a
+ * document is only rebuilt once the underlying data has changed.
+ */
+@Entity
+@Table(name = "export_jobs", indexes = {
+        @Index(name = "idx_export_jobs_status", columnList = "status, updated_at"),
+        @Index(name = "idx_export_jobs_expires_at", columnList = "expires_at"),
+        @Index(name = "idx_export_jobs_lease", columnList = "status, lease_expires_at")
+}, uniqueConstraints = {
+        @UniqueConstraint(name = "uk_export_jobs_dedup_key", columnNames = "dedup_key")
+})
+@Getter
+@Setter
+@SuperBuilder
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@AllArgsConstructor(access = AccessLevel.PROTECTED)
+public class ExportJob extends BaseEntity {
+
+    @Column(name = "dedup_key", nullable = false, length = 64)
+    private String dedupKey;
+
+    @Column(name = "farm_id", nullable = false)
+    private UUID farmId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "export_type", nullable = false, length = 32)
+    private ExportType exportType;
+
+    @Column(name = "start_date")
+    private LocalDate startDate;
+
+    @Column(name = "end_date")
+    private LocalDate endDate;
+
+    /**
+     * Role whose visibility rules shaped the content, for exports that differ by viewer. Null when everyone with
+     * access sees the same document.
+     */
+    @Enumerated(EnumType.STRING)
+    @Column(name = "audience_role", length = 32)
+    private Role audienceRole;
+
+    @Column(name = "data_version", nullable = false, length = 64)
+    private String dataVersion;
+
+    @Column(name = "file_name", nullable = false)
+    private String fileName;
+
+    @Column(name = "requested_by")
+    private UUID requestedBy;
+
+    @Builder.Default
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false, length = 32)
+    private ExportJobStatus status = ExportJobStatus.PENDING;
+
+    @Builder.Default
+    @Column(name = "attempts", nullable = false)
+    private int attempts = 0;
+
+    @Column(name = "last_error", length = 500)
+    private String lastError;
+
+    @Column(name = "size_bytes")
+    private Long sizeBytes;
+
+    @Column(name = "completed_at")
+    private LocalDateTime completedAt;
+
+    @Column(name = "expires_at")
+    private LocalDateTime expiresAt;
+
+    /**
+     * When the worker building this job stops counting as alive unless it renews the lease. Only set while running.
+     */
+    @Column(name = "lease_expires_at")
+    private LocalDateTime leaseExpiresAt;
+}
@@ -0,0 +1,8 @@
+package mofo.com.pestscout.analytics.model;
+
+public enum ExportJobStatus {
+    PENDING,
+    RUNNING,
+    COMPLETED,
+    FAILED
+}
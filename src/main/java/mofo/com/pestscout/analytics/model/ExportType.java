@@ -0,0 +1,20 @@
+package mofo.com.pestscout.analytics.model;
+
+import lombok.Getter;
+
+/**
+ * Kinds of farm export that can be produced by a background {@link ExportJob}.
+ */
+@Getter
+public enum ExportType {
+    RAW_DATA_PDF("pdf", "application/pdf"),
+    SESSIONS_CSV("csv", "text/csv");
+
+    private final String extension;
+    private final String mediaType;
+
+    ExportType(String extension, String mediaType) {
+        this.extension = extension;
+        this.mediaType = mediaType;
+    }
+}
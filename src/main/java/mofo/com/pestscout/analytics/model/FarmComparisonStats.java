@@ -0,0 +1,50 @@
+package mofo.com.pestscout.analytics.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+import lombok.experimental.SuperBuilder;
+import mofo.com.pestscout.common.model.BaseEntity;
+
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * Completed-session totals for one farm and calendar month, read by the cross-farm comparison. Rows are adjusted
+ * when a session is completed or reopened and recomputed nightly, so comparing farms never scans their observations.
+ */
+@Entity
+@Table(
+        name = "farm_comparison_stats",
+        uniqueConstraints = @UniqueConstraint(
+                name = "uk_farm_comparison_stats_period",
+                columnNames = {"farm_id", "period_start"}
+        )
+)
+@Getter
+@Setter
+@SuperBuilder
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@AllArgsConstructor(access = AccessLevel.PROTECTED)
+public class FarmComparisonStats extends BaseEntity {
+
+    @Column(name = "farm_id", nullable = false)
+    private UUID farmId;
+
+    /**
+     * First day of the month the totals cover.
+     */
+    @Column(name = "period_start", nullable = false)
+    private LocalDate periodStart;
+
+    @Column(name = "session_count", nullable = false)
+    private long sessionCount;
+
+    @Column(name = "observation_rows", nullable = false)
+    private long observationRows;
+
+    @Column(name = "observation_total", nullable = false)
+    private long observationTotal;
+
+    @Column(name = "alert_count", nullable = false)
+    private long alertCount;
+}
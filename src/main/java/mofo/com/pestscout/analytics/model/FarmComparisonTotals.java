@@ -0,0 +1,15 @@
+package mofo.com.pestscout.analytics.model;
+
+import java.util.UUID;
+
+/**
+ * One farm's totals across every stored comparison period.
+ */
+public record FarmComparisonTotals(
+        UUID farmId,
+        String farmName,
+        Long observationRows,
+        Long observationTotal,
+        Long alerts
+) {
+}
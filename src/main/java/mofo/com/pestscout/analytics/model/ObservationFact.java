@@ -0,0 +1,68 @@
+package mofo.com.pestscout.analytics.model;
+
+import mofo.com.pestscout.scouting.model.ObservationCategory;
+import mofo.com.pestscout.scouting.model.ObservationType;
+import mofo.com.pestscout.scouting.model.SpeciesCode;
+
+import java.util.UUID;
+
+/**
+ * The columns of a scouting observation that farm analytics read, with the custom species already joined in.
+ * The derived accessors follow the same rules as the matching ones on
+ * {@link mofo.com.pestscout.scouting.model.ScoutingObservation}.
+ */
+public record ObservationFact(
+        UUID sessionId,
+        SpeciesCode speciesCode,
+        ObservationType observationType,
+        UUID customSpeciesId,
+        ObservationCategory customSpeciesCategory,
+        String customSpeciesName,
+        String speciesIdentifier,
+        Integer count,
+        Integer bayIndex,
+        String bayLabel,
+        Integer benchIndex,
+        String benchLabel
+) {
+
+    public int countOrZero() {
+        return count == null ? 0 : count;
+    }
+
+    public ObservationCategory category() {
+        if (customSpeciesId != null) {
+            return customSpeciesCategory;
+        }
+        if (speciesCode != null) {
+            return speciesCode.getCategory();
+        }
+        return observationType != null ? observationType.getDefaultCategory() : null;
+    }
+
+    public String speciesDisplayName() {
+        if (customSpeciesId != null) {
+            return customSpeciesName;
+        }
+        if (speciesCode != null) {
+            return speciesCode.getDisplayName();
+        }
+        return observationType != null ? observationType.getDefaultDisplayName() : null;
+    }
+
+    public String resolveSpeciesIdentifier() {
+        if (speciesIdentifier != null && !speciesIdentifier.isBlank()) {
+            return speciesIdentifier;
+        }
+        if (customSpeciesId != null) {
+            return "CUSTOM:" + customSpeciesId;
+        }
+        if (speciesCode != null) {
+            return "CODE:" + speciesCode.name();
+        }
+        if (observationType != null) {
+            return "TYPE:" + observationType.name();
+        }
+        return null;
+    }
+}
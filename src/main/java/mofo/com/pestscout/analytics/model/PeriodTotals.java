@@ -0,0 +1,20 @@
+package mofo.com.pestscout.analytics.model;
+
+import java.time.LocalDate;
+
+/**
+ * Completed-session totals for one calendar month, as aggregated from the scouting tables.
+ */
+public record PeriodTotals(
+        Integer year,
+        Integer month,
+        Long sessions,
+        Long observationRows,
+        Long observationTotal,
+        Long alerts
+) {
+
+    public LocalDate periodStart() {
+        return LocalDate.of(year, month, 1);
+    }
+}
@@ -0,0 +1,15 @@
+package mofo.com.pestscout.analytics.model;
+
+import mofo.com.pestscout.scouting.model.RecommendationType;
+
+import java.util.UUID;
+
+/**
+ * One entry of a session's recommendation map.
+ */
+public record RecommendationFact(
+        UUID sessionId,
+        RecommendationType type,
+        String note
+) {
+}
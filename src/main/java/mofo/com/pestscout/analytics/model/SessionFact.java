@@ -0,0 +1,25 @@
+package mofo.com.pestscout.analytics.model;
+
+import mofo.com.pestscout.scouting.model.SessionStatus;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * The columns of a scouting session that farm analytics read, loaded as a flat row instead of an entity graph.
+ */
+public record SessionFact(
+        UUID id,
+        LocalDate sessionDate,
+        SessionStatus status,
+        UUID scoutId,
+        String scoutFirstName,
+        String scoutLastName,
+        String scoutEmail,
+        String greenhouseName,
+        String fieldBlockName,
+        LocalDateTime startedAt,
+        LocalDateTime completedAt
+) {
+}
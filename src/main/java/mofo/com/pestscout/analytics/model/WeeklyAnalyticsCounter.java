@@ -0,0 +1,49 @@
+package mofo.com.pestscout.analytics.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+import lombok.experimental.SuperBuilder;
+import mofo.com.pestscout.common.model.BaseEntity;
+
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * One running total of the weekly farm analytics read model, keyed by farm, ISO week and metric. Rows are adjusted
+ * in the same transaction as the session status change that affects them, so weekly analytics for any range of weeks
+ * are a single indexed read.
+ */
+@Entity
+@Table(
+        name = "farm_weekly_analytics",
+        uniqueConstraints = @UniqueConstraint(
+                name = "uk_farm_weekly_analytics_metric",
+                columnNames = {"farm_id", "week_start", "metric", "metric_key"}
+        )
+)
+@Getter
+@Setter
+@SuperBuilder
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@AllArgsConstructor(access = AccessLevel.PROTECTED)
+public class WeeklyAnalyticsCounter extends BaseEntity {
+
+    @Column(name = "farm_id", nullable = false)
+    private UUID farmId;
+
+    /**
+     * Monday of the ISO week the total covers.
+     */
+    @Column(name = "week_start", nullable = false)
+    private LocalDate weekStart;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "metric", nullable = false, length = 16)
+    private WeeklyAnalyticsMetric metric;
+
+    @Column(name = "metric_key", nullable = false, length = 32)
+    private String metricKey;
+
+    @Column(name = "total", nullable = false)
+    private long total;
+}
@@ -0,0 +1,24 @@
+package mofo.com.pestscout.analytics.model;
+
+/**
+ * What a {@link WeeklyAnalyticsCounter} counts. The counter's key names the status, category or severity level.
+ */
+public enum WeeklyAnalyticsMetric {
+    /**
+     * Sessions in a {@link mofo.com.pestscout.scouting.model.SessionStatus}.
+     */
+    SESSIONS,
+    /**
+     * Summed observation counts of an {@link mofo.com.pestscout.scouting.model.ObservationCategory}.
+     */
+    CATEGORY_TOTAL,
+    /**
+     * Pest and disease observations at a {@link mofo.com.pestscout.scouting.model.SeverityLevel}.
+     */
+    SEVERITY_BUCKET,
+    /**
+     * Marks a farm whose read model has been built, including one without sessions. A single zero row per farm,
+     * dated before any real week.
+     */
+    BUILT
+}
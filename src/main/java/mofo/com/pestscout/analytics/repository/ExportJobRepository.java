@@ -0,0 +1,131 @@
+package mofo.com.pestscout.analytics.repository;
+
+import mofo.com.pestscout.analytics.model.ExportJob;
+import mofo.com.pestscout.analytics.model.ExportJobStatus;
+import mofo.com.pestscout.common.jobs.BackgroundJobRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+@Repository
+public interface ExportJobRepository extends BackgroundJobRepository<ExportJob, ExportJobStatus> {
+
+    Optional<ExportJob> findByDedupKey(String dedupKey);
+
+    List<ExportJob> findTop100ByExpiresAtBeforeOrderByExpiresAtAsc(LocalDateTime cutoff);
+
+    /**
+     * Moves a job from {@code from} to {@code to}, counts the attempt and gives the worker a lease until
+     * {@code leaseUntil}. Returns 0 when another worker got there first, which is how a job that was submitted twice
+     * is only built once. The new attempt number identifies this worker in the later lease updates.
+     */
+    @Transactional
+    @Modifying
+    @Query("""
+            update ExportJob j
+            set j.status = :to, j.attempts = j.attempts + 1, j.leaseExpiresAt = :leaseUntil, j.updatedAt = :now,
+                j.version = j.version + 1
+            where j.id = :id and j.status = :from
+            """)
+    int claim(@Param("id") UUID id,
+              @Param("from") ExportJobStatus from,
+              @Param("to") ExportJobStatus to,
+              @Param("leaseUntil") LocalDateTime leaseUntil,
+              @Param("now") LocalDateTime now);
+
+    /**
+     * Extends the lease of a job this worker is still building. Returns 0 once the job was re-queued or claimed by
+     * another attempt.
+     */
+    @Transactional
+    @Modifying
+    @Query("""
+            update ExportJob j
+            set j.leaseExpiresAt = :leaseUntil, j.updatedAt = :now, j.version = j.version + 1
+            where j.id = :id and j.attempts = :attempt
+              and j.status = mofo.com.pestscout.analytics.model.ExportJobStatus.RUNNING
+            """)
+    int renewLease(@Param("id") UUID id,
+                   @Param("attempt") int attempt,
+                   @Param("leaseUntil") LocalDateTime leaseUntil,
+                   @Param("now") LocalDateTime now);
+
+    /**
+     * Records a finished build, unless the attempt lost its lease and the job moved on without it.
+     */
+    @Transactional
+    @Modifying
+    @Query("""
+            update ExportJob j
+            set j.status = mofo.com.pestscout.analytics.model.ExportJobStatus.COMPLETED,
+                j.sizeBytes = :sizeBytes, j.lastError = null, j.completedAt = :now, j.expiresAt = :expiresAt,
+                j.leaseExpiresAt = null, j.updatedAt = :now, j.version = j.version + 1
+            where j.id = :id and j.attempts = :attempt
+              and j.status = mofo.com.pestscout.analytics.model.ExportJobStatus.RUNNING
+            """)
+    int complete(@Param("id") UUID id,
+                 @Param("attempt") int attempt,
+                 @Param("sizeBytes") long sizeBytes,
+                 @Param("expiresAt") LocalDateTime expiresAt,
+                 @Param("now") LocalDateTime now);
+
+    /**
+     * Records a failed build as {@code to}, either pending for a retry or failed for good, unless the attempt lost
+     * its lease.
+     */
+    @Transactional
+    @Modifying
+    @Query("""
+            update ExportJob j
+            set j.status = :to, j.lastError = :lastError, j.expiresAt = :expiresAt, j.leaseExpiresAt = null,
+                j.updatedAt = :now, j.version = j.version + 1
+            where j.id = :id and j.attempts = :attempt
+              and j.status = mofo.com.pestscout.analytics.model.ExportJobStatus.RUNNING
+            """)
+    int fail(@Param("id") UUID id,
+             @Param("attempt") int attempt,
+             @Param("to") ExportJobStatus to,
+             @Param("lastError") String lastError,
+             @Param("expiresAt") LocalDateTime expiresAt,
+             @Param("now") LocalDateTime now);
+
+    /**
+     * Puts a failed job, or a completed one whose artifact has gone missing, back in the queue with fresh attempts.
+     */
+    @Transactional
+    @Modifying
+    @Query("""
+            update ExportJob j
+            set j.status = mofo.com.pestscout.analytics.model.ExportJobStatus.PENDING,
+                j.attempts = 0, j.lastError = null, j.completedAt = null, j.expiresAt = null, j.leaseExpiresAt = null,
+                j.updatedAt = :now, j.version = j.version + 1
+            where j.id = :id and j.status = :from
+            """)
+    int requeue(@Param("id") UUID id,
+                @Param("from") ExportJobStatus from,
+                @Param("now") LocalDateTime now);
+
+    /**
+     * Returns running jobs whose lease ran out to pending. Jobs claimed before leases existed fall back to their last
+     * update. Export jobs are recovered this way rather than through {@link #resetStale}, which knows nothing of
+     * leases.
+     */
+    @Transactional
+    @Modifying
+    @Query("""
+            update ExportJob j
+            set j.status = mofo.com.pestscout.analytics.model.ExportJobStatus.PENDING, j.leaseExpiresAt = null,
+                j.updatedAt = :now, j.version = j.version + 1
+            where j.status = mofo.com.pestscout.analytics.model.ExportJobStatus.RUNNING
+              and (j.leaseExpiresAt < :now or (j.leaseExpiresAt is null and j.updatedAt < :unleasedBefore))
+            """)
+    int resetExpiredLeases(@Param("unleasedBefore") LocalDateTime unleasedBefore,
+                           @Param("now") LocalDateTime now);
+}
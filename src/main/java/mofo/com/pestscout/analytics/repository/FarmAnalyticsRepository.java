@@ -0,0 +1,114 @@
+package mofo.com.pestscout.analytics.repository;
+
+import mofo.com.pestscout.analytics.model.ObservationFact;
+import mofo.com.pestscout.analytics.model.RecommendationFact;
+import mofo.com.pestscout.analytics.model.SessionFact;
+import mofo.com.pestscout.scouting.model.ScoutingSession;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.Repository;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Farm-wide projections used to build a {@link mofo.com.pestscout.analytics.service.FarmAnalyticsContext}.
+ * Each query reads one table (plus its to-one joins) for the whole farm in a single round trip.
+ * <p>
+ * Observation queries filter on the observation's own farm and session date columns rather than the session's, so
+ * PostgreSQL can prune the session date partitions they do not touch.
+ */
+public interface FarmAnalyticsRepository extends Repository<ScoutingSession, UUID> {
+
+    @Query("""
+            select new mofo.com.pestscout.analytics.model.SessionFact(
+                s.id, s.sessionDate, s.status,
+                scout.id, scout.firstName, scout.lastName, scout.email,
+                greenhouse.name, fieldBlock.name,
+                s.startedAt, s.completedAt)
+            from ScoutingSession s
+            left join s.scout scout
+            left join s.greenhouse greenhouse
+            left join s.fieldBlock fieldBlock
+            where s.farm.id = :farmId
+            order by s.sessionDate, s.id
+            """)
+    List<SessionFact> findSessionFacts(@Param("farmId") UUID farmId);
+
+    @Query("""
+            select new mofo.com.pestscout.analytics.model.SessionFact(
+                s.id, s.sessionDate, s.status,
+                scout.id, scout.firstName, scout.lastName, scout.email,
+                greenhouse.name, fieldBlock.name,
+                s.startedAt, s.completedAt)
+            from ScoutingSession s
+            left join s.scout scout
+            left join s.greenhouse greenhouse
+            left join s.fieldBlock fieldBlock
+            where s.farm.id = :farmId and s.sessionDate between :from and :to
+            order by s.sessionDate, s.id
+            """)
+    List<SessionFact> findSessionFacts(@Param("farmId") UUID farmId,
+                                       @Param("from") LocalDate from,
+                                       @Param("to") LocalDate to);
+
+    @Query("""
+            select new mofo.com.pestscout.analytics.model.ObservationFact(
+                s.id, o.speciesCode, o.observationType,
+                custom.id, custom.category, custom.name, o.speciesIdentifier,
+                o.count, o.bayIndex, o.bayLabel, o.benchIndex, o.benchLabel)
+            from ScoutingObservation o
+            join o.session s
+            left join o.customSpecies custom
+            where o.farmId = :farmId
+            """)
+    List<ObservationFact> findObservationFacts(@Param("farmId") UUID farmId);
+
+    @Query("""
+            select new mofo.com.pestscout.analytics.model.ObservationFact(
+                s.id, o.speciesCode, o.observationType,
+                custom.id, custom.category, custom.name, o.speciesIdentifier,
+                o.count, o.bayIndex, o.bayLabel, o.benchIndex, o.benchLabel)
+            from ScoutingObservation o
+            join o.session s
+            left join o.customSpecies custom
+            where o.farmId = :farmId and o.sessionDate between :from and :to
+            """)
+    List<ObservationFact> findObservationFacts(@Param("farmId") UUID farmId,
+                                               @Param("from") LocalDate from,
+                                               @Param("to") LocalDate to);
+
+    /**
+     * The committed observations of a single session, used to maintain the weekly analytics read model.
+     */
+    @Query("""
+            select new mofo.com.pestscout.analytics.model.ObservationFact(
+                s.id, o.speciesCode, o.observationType,
+                custom.id, custom.category, custom.name, o.speciesIdentifier,
+                o.count, o.bayIndex, o.bayLabel, o.benchIndex, o.benchLabel)
+            from ScoutingObservation o
+            join o.session s
+            left join o.customSpecies custom
+            where s.id = :sessionId
+            """)
+    List<ObservationFact> findSessionObservationFacts(@Param("sessionId") UUID sessionId);
+
+    @Query("""
+            select new mofo.com.pestscout.analytics.model.RecommendationFact(s.id, key(r), value(r))
+            from ScoutingSession s
+            join s.recommendations r
+            where s.farm.id = :farmId
+            """)
+    List<RecommendationFact> findRecommendationFacts(@Param("farmId") UUID farmId);
+
+    @Query("""
+            select new mofo.com.pestscout.analytics.model.RecommendationFact(s.id, key(r), value(r))
+            from ScoutingSession s
+            join s.recommendations r
+            where s.farm.id = :farmId and s.sessionDate between :from and :to
+            """)
+    List<RecommendationFact> findRecommendationFacts(@Param("farmId") UUID farmId,
+                                                     @Param("from") LocalDate from,
+                                                     @Param("to") LocalDate to);
+}
@@ -0,0 +1,142 @@
+package mofo.com.pestscout.analytics.repository;
+
+import mofo.com.pestscout.analytics.model.FarmComparisonStats;
+import mofo.com.pestscout.analytics.model.FarmComparisonTotals;
+import mofo.com.pestscout.analytics.model.PeriodTotals;
+import mofo.com.pestscout.scouting.model.SessionStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+@Repository
+public interface FarmComparisonStatsRepository extends JpaRepository<FarmComparisonStats, UUID> {
+
+    List<FarmComparisonStats> findByFarmId(UUID farmId);
+
+    /**
+     * Every farm with its totals summed over the stored periods. Farms without a stats row are returned with zeros.
+     */
+    @Query("""
+            select new mofo.com.pestscout.analytics.model.FarmComparisonTotals(
+                f.id, f.name,
+                coalesce(sum(s.observationRows), 0L),
+                coalesce(sum(s.observationTotal), 0L),
+                coalesce(sum(s.alertCount), 0L))
+            from Farm f
+            left join FarmComparisonStats s on s.farmId = f.id
+            group by f.id, f.name
+            """)
+    List<FarmComparisonTotals> findFarmTotals();
+
+    /**
+     * The contribution of one session, bucketed into the month of its session date.
+     */
+    @Query("""
+            select new mofo.com.pestscout.analytics.model.PeriodTotals(
+                year(s.sessionDate), month(s.sessionDate),
+                count(distinct s.id),
+                count(o.id),
+                coalesce(sum(o.count), 0L),
+                coalesce(sum(case when o.count >= :alertThreshold then 1L else 0L end), 0L))
+            from ScoutingSession s
+            left join s.observations o
+            where s.id = :sessionId
+            group by year(s.sessionDate), month(s.sessionDate)
+            """)
+    Optional<PeriodTotals> aggregateSession(@Param("sessionId") UUID sessionId,
+                                            @Param("alertThreshold") int alertThreshold);
+
+    /**
+     * A farm's sessions in {@code status}, aggregated per month of session date.
+     */
+    @Query("""
+            select new mofo.com.pestscout.analytics.model.PeriodTotals(
+                year(s.sessionDate), month(s.sessionDate),
+                count(distinct s.id),
+                count(o.id),
+                coalesce(sum(o.count), 0L),
+                coalesce(sum(case when o.count >= :alertThreshold then 1L else 0L end), 0L))
+            from ScoutingSession s
+            left join s.observations o
+            where s.farm.id = :farmId and s.status = :status
+            group by year(s.sessionDate), month(s.sessionDate)
+            """)
+    List<PeriodTotals> aggregateFarm(@Param("farmId") UUID farmId,
+                                     @Param("status") SessionStatus status,
+                                     @Param("alertThreshold") int alertThreshold);
+
+    /**
+     * Creates an all-zero row unless one already exists, so concurrent completions in the same month cannot collide
+     * on the unique key.
+     */
+    @Modifying
+    @Query(value = """
+            INSERT INTO farm_comparison_stats
+                (id, version, farm_id, period_start, session_count, observation_rows, observation_total, alert_count,
+                 created_at, updated_at, deleted, sync_status)
+            VALUES (:id, 0, :farmId, :periodStart, 0, 0, 0, 0, :now, :now, FALSE, 'SYNCED')
+            ON CONFLICT DO NOTHING
+            """, nativeQuery = true)
+    int insertIfAbsent(@Param("id") UUID id,
+                       @Param("farmId") UUID farmId,
+                       @Param("periodStart") LocalDate periodStart,
+                       @Param("now") LocalDateTime now);
+
+    /**
+     * Adds the deltas in place, so concurrent completions serialise on the row instead of overwriting each other.
+     */
+    @Modifying
+    @Query("""
+            update FarmComparisonStats s
+            set s.sessionCount = s.sessionCount + :sessions,
+                s.observationRows = s.observationRows + :observationRows,
+                s.observationTotal = s.observationTotal + :observationTotal,
+                s.alertCount = s.alertCount + :alerts,
+                s.updatedAt = :now
+            where s.farmId = :farmId and s.periodStart = :periodStart
+            """)
+    int increment(@Param("farmId") UUID farmId,
+                  @Param("periodStart") LocalDate periodStart,
+                  @Param("sessions") long sessions,
+                  @Param("observationRows") long observationRows,
+                  @Param("observationTotal") long observationTotal,
+                  @Param("alerts") long alerts,
+                  @Param("now") LocalDateTime now);
+
+    /**
+     * Overwrites a row with recomputed totals. Used by rebuilds, where two overlapping runs write the same values.
+     */
+    @Modifying
+    @Query("""
+            update FarmComparisonStats s
+            set s.sessionCount = :sessions,
+                s.observationRows = :observationRows,
+                s.observationTotal = :observationTotal,
+                s.alertCount = :alerts,
+                s.updatedAt = :now
+            where s.farmId = :farmId and s.periodStart = :periodStart
+            """)
+    int assign(@Param("farmId") UUID farmId,
+               @Param("periodStart") LocalDate periodStart,
+               @Param("sessions") long sessions,
+               @Param("observationRows") long observationRows,
+               @Param("observationTotal") long observationTotal,
+               @Param("alerts") long alerts,
+               @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("delete from FarmComparisonStats s where s.farmId = :farmId")
+    int deleteByFarmId(@Param("farmId") UUID farmId);
+
+    @Modifying
+    @Query("delete from FarmComparisonStats s where s.farmId = :farmId and s.periodStart >= :from")
+    int deleteByFarmIdFrom(@Param("farmId") UUID farmId, @Param("from") LocalDate from);
+}
@@ -0,0 +1,88 @@
+package mofo.com.pestscout.analytics.repository;
+
+import mofo.com.pestscout.analytics.model.WeeklyAnalyticsCounter;
+import mofo.com.pestscout.analytics.model.WeeklyAnalyticsMetric;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface WeeklyAnalyticsCounterRepository extends JpaRepository<WeeklyAnalyticsCounter, UUID> {
+
+    boolean existsByFarmId(UUID farmId);
+
+    List<WeeklyAnalyticsCounter> findByFarmId(UUID farmId);
+
+    @Query("select distinct c.farmId from WeeklyAnalyticsCounter c")
+    List<UUID> findBuiltFarmIds();
+
+    List<WeeklyAnalyticsCounter> findByFarmIdAndWeekStartBetween(UUID farmId, LocalDate from, LocalDate to);
+
+    /**
+     * Creates a zero row unless one already exists, so concurrent transitions in the same week cannot collide on the
+     * unique key.
+     */
+    @Modifying
+    @Query(value = """
+            INSERT INTO farm_weekly_analytics
+                (id, version, farm_id, week_start, metric, metric_key, total, created_at, updated_at, deleted,
+                 sync_status)
+            VALUES (:id, 0, :farmId, :weekStart, :metric, :metricKey, 0, :now, :now, FALSE, 'SYNCED')
+            ON CONFLICT DO NOTHING
+            """, nativeQuery = true)
+    int insertIfAbsent(@Param("id") UUID id,
+                       @Param("farmId") UUID farmId,
+                       @Param("weekStart") LocalDate weekStart,
+                       @Param("metric") String metric,
+                       @Param("metricKey") String metricKey,
+                       @Param("now") LocalDateTime now);
+
+    /**
+     * Adds the delta in place, so concurrent transitions serialise on the row instead of overwriting each other.
+     */
+    @Modifying
+    @Query("""
+            update WeeklyAnalyticsCounter c
+            set c.total = c.total + :delta,
+                c.updatedAt = :now
+            where c.farmId = :farmId and c.weekStart = :weekStart and c.metric = :metric and c.metricKey = :metricKey
+            """)
+    int increment(@Param("farmId") UUID farmId,
+                  @Param("weekStart") LocalDate weekStart,
+                  @Param("metric") WeeklyAnalyticsMetric metric,
+                  @Param("metricKey") String metricKey,
+                  @Param("delta") long delta,
+                  @Param("now") LocalDateTime now);
+
+    /**
+     * Overwrites a row with a recomputed total. Used by rebuilds, where two overlapping runs write the same values.
+     */
+    @Modifying
+    @Query("""
+            update WeeklyAnalyticsCounter c
+            set c.total = :total,
+                c.updatedAt = :now
+            where c.farmId = :farmId and c.weekStart = :weekStart and c.metric = :metric and c.metricKey = :metricKey
+            """)
+    int assign(@Param("farmId") UUID farmId,
+               @Param("weekStart") LocalDate weekStart,
+               @Param("metric") WeeklyAnalyticsMetric metric,
+               @Param("metricKey") String metricKey,
+               @Param("total") long total,
+               @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("delete from WeeklyAnalyticsCounter c where c.farmId = :farmId")
+    int deleteByFarmId(@Param("farmId") UUID farmId);
+
+    @Modifying
+    @Query("delete from WeeklyAnalyticsCounter c where c.farmId = :farmId and c.weekStart >= :from")
+    int deleteByFarmIdFrom(@Param("farmId") UUID farmId, @Param("from") LocalDate from);
+}
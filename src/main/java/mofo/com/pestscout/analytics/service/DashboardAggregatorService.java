@@ -1,64 +1,259 @@
 package mofo.com.pestscout.analytics.service;
 
-import lombok.RequiredArgsConstructor;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import mofo.com.pestscout.analytics.config.DashboardProperties;
 import mofo.com.pestscout.analytics.dto.*;
+import org.springframework.security.concurrent.DelegatingSecurityContextCallable;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
 
+/**
+ * Composes the full farm dashboard.
+ * <p>
+ * The farm's sessions, observations and recommendations are loaded once into a {@link FarmAnalyticsContext}, then
+ * every section is computed concurrently from that snapshot on a bounded worker pool. Each section gets its own
+ * timeout; a section that times out, fails, or cannot be queued is returned empty and named in
+ * {@link DashboardDto#unavailableSections()}, so one slow section degrades the dashboard instead of stalling it.
+ * Section latency is published as {@code analytics.dashboard.section}, tagged by section and outcome, with exactly one
+ * outcome recorded per section and request.
+ */
 @Service
-@RequiredArgsConstructor
+@Slf4j
 public class DashboardAggregatorService {
 
-    private final AnalyticsAccessService analyticsAccessService;
+    private static final String SECTION_TIMER = "analytics.dashboard.section";
+
+    private final FarmAnalyticsContextService contextService;
     private final DashboardService dashboardService;       // your existing summary service
     private final TrendAnalysisService trendService;
     private final ReportingService reportingService;
+    private final DashboardProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final ThreadPoolExecutor executor;
+    private final Timer dashboardTimer;
+
+    public DashboardAggregatorService(FarmAnalyticsContextService contextService,
+                                      DashboardService dashboardService,
+                                      TrendAnalysisService trendService,
+                                      ReportingService reportingService,
+                                      DashboardProperties properties,
+                                      MeterRegistry meterRegistry) {
+        this.contextService = contextService;
+        this.dashboardService = dashboardService;
+        this.trendService = trendService;
+        this.reportingService = reportingService;
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+
+        int threads = Math.max(1, properties.getThreads());
+        AtomicInteger threadCounter = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(
+                threads,
+                threads,
+                0L,
+                TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, properties.getQueueCapacity())),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "dashboard-section-" + threadCounter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy()
+        );
+
+        this.dashboardTimer = Timer.builder("analytics.dashboard")
+                .description("Time spent composing the full farm dashboard")
+                .register(meterRegistry);
+        Gauge.builder("analytics.dashboard.section.queue.depth", executor, pool -> pool.getQueue().size())
+                .description("Dashboard sections waiting for a worker")
+                .register(meterRegistry);
+    }
 
     public DashboardDto getFullDashboard(UUID farmId) {
-        analyticsAccessService.loadFarmAndEnsureAnalyticsAccess(farmId);
+        long started = System.nanoTime();
+
+        // Checks analytics access once for every section below.
+        FarmAnalyticsContext context = contextService.load(farmId);
+
+        // Sections run on pool threads, which need the caller's identity for the checks they still make.
+        SecurityContext securityContext = SecurityContextHolder.getContext();
 
         // 1. Summary
-        DashboardSummaryDto summary = dashboardService.getDashboard(farmId);
+        Section<DashboardSummaryDto> summary =
+                submit("summary", () -> dashboardService.getDashboard(context), null, securityContext);
 
         // 2. Farm-level heatmap for the same week selected by the summary service
-        var heatmap = dashboardService.getDashboardHeatmap(farmId);
+        Section<HeatmapResponse> heatmap =
+                submit("heatmap", () -> dashboardService.getDashboardHeatmap(context), null, securityContext);
 
         // 3. Weekly pest trends (from trend service)
-        List<WeeklyPestTrendDto> weeklyTrends = trendService.getWeeklyPestTrends(farmId);
+        Section<List<WeeklyPestTrendDto>> weeklyTrends =
+                submit("weeklyTrends", () -> trendService.getWeeklyPestTrends(context), List.of(), securityContext);
 
         // 4. Severity trends
-        List<SeverityTrendPointDto> severityTrend = trendService.getSeverityTrend(farmId);
+        Section<List<SeverityTrendPointDto>> severityTrend =
+                submit("severityTrend", () -> trendService.getSeverityTrend(context), List.of(), securityContext);
 
         // 5. Distribution (reporting service)
-        List<PestDistributionItemDto> pestDist = reportingService.getPestDistribution(farmId);
-        List<DiseaseDistributionItemDto> diseaseDist = reportingService.getDiseaseDistribution(farmId);
+        Section<List<PestDistributionItemDto>> pestDist =
+                submit("pestDistribution", () -> reportingService.getPestDistribution(context), List.of(), securityContext);
+        Section<List<DiseaseDistributionItemDto>> diseaseDist =
+                submit("diseaseDistribution", () -> reportingService.getDiseaseDistribution(context), List.of(), securityContext);
 
         // 6. Alerts
-        List<AlertDto> alerts = reportingService.getAlerts(farmId);
+        Section<List<AlertDto>> alerts =
+                submit("alerts", () -> reportingService.getAlerts(context), List.of(), securityContext);
 
         // 7. Recommendations
-        List<RecommendationDto> recs = reportingService.getRecommendations(farmId);
+        Section<List<RecommendationDto>> recs =
+                submit("recommendations", () -> reportingService.getRecommendations(context), List.of(), securityContext);
 
         // 8. Farm comparison
-        List<FarmComparisonDto> farmComparison = reportingService.getFarmComparison();
+        Section<List<FarmComparisonDto>> farmComparison =
+                submit("farmComparison", reportingService::getFarmComparison, List.of(), securityContext);
 
         // 9. Scouts
-        List<ScoutPerformanceDto> scoutPerf = reportingService.getScoutPerformance(farmId);
-
-        return new DashboardDto(
-                summary,
-                pestDist,
-                diseaseDist,
-                weeklyTrends,
-                severityTrend,
-                heatmap.cells(),  // reuse existing DTO
-                alerts,
-                recs,
-                farmComparison,
-                scoutPerf
+        Section<List<ScoutPerformanceDto>> scoutPerf =
+                submit("scoutPerformance", () -> reportingService.getScoutPerformance(context), List.of(), securityContext);
+
+        List<String> unavailable = new ArrayList<>();
+        DashboardDto dashboard = new DashboardDto(
+                summary.await(unavailable),
+                pestDist.await(unavailable),
+                diseaseDist.await(unavailable),
+                weeklyTrends.await(unavailable),
+                severityTrend.await(unavailable),
+                cellsOf(heatmap.await(unavailable)),  // reuse existing DTO
+                alerts.await(unavailable),
+                recs.await(unavailable),
+                farmComparison.await(unavailable),
+                scoutPerf.await(unavailable),
+                List.copyOf(unavailable)
         );
+
+        dashboardTimer.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+        return dashboard;
+    }
+
+    private static List<HeatmapCellResponse> cellsOf(HeatmapResponse heatmap) {
+        return heatmap != null ? heatmap.cells() : List.of();
     }
-}
 
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private <T> Section<T> submit(String name, Supplier<T> work, T fallback, SecurityContext securityContext) {
+        // Claimed by whoever reports the section first: the worker when it finishes, or the caller when it gives up
+        // waiting. A timed-out section that later fails on interruption is therefore not also counted as an error.
+        AtomicBoolean reported = new AtomicBoolean();
+        Callable<T> timed = () -> {
+            long started = System.nanoTime();
+            String outcome = "error";
+            try {
+                T result = work.get();
+                outcome = "success";
+                return result;
+            } finally {
+                if (reported.compareAndSet(false, true)) {
+                    sectionTimer(name, outcome).record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+                }
+            }
+        };
+
+        long timeoutNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(0L, properties.timeoutMsFor(name)));
+        try {
+            Future<T> future = executor.submit(DelegatingSecurityContextCallable.create(timed, securityContext));
+            return new Section<>(name, future, fallback, System.nanoTime() + timeoutNanos, reported);
+        } catch (RejectedExecutionException ex) {
+            log.warn("Dashboard section {} skipped because the section queue is full", name);
+            sectionTimer(name, "rejected").record(0L, TimeUnit.NANOSECONDS);
+            return new Section<>(name, null, fallback, 0L, reported);
+        }
+    }
+
+    private Timer sectionTimer(String name, String outcome) {
+        return Timer.builder(SECTION_TIMER)
+                .description("Time spent computing one section of the full farm dashboard")
+                .tag("section", name)
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    /**
+     * A submitted section and the point in time by which it has to be finished.
+     */
+    private final class Section<T> {
+
+        private final String name;
+        private final Future<T> future;
+        private final T fallback;
+        private final long deadlineNanos;
+        private final AtomicBoolean reported;
+
+        private Section(String name, Future<T> future, T fallback, long deadlineNanos, AtomicBoolean reported) {
+            this.name = name;
+            this.future = future;
+            this.fallback = fallback;
+            this.deadlineNanos = deadlineNanos;
+            this.reported = reported;
+        }
+
+        /**
+         * Returns the section's result, or its empty fallback after adding its name to {@code unavailable}.
+         */
+        T await(List<String> unavailable) {
+            if (future == null) {
+                unavailable.add(name);
+                return fallback;
+            }
+            try {
+                return future.get(Math.max(0L, deadlineNanos - System.nanoTime()), TimeUnit.NANOSECONDS);
+            } catch (TimeoutException ex) {
+                if (!reported.compareAndSet(false, true)) {
+                    // Finished between the deadline and the check; its own outcome is already recorded.
+                    return resultOrFallback(unavailable);
+                }
+                future.cancel(true);
+                log.warn("Dashboard section {} timed out after {} ms", name, properties.timeoutMsFor(name));
+                sectionTimer(name, "timeout").record(properties.timeoutMsFor(name), TimeUnit.MILLISECONDS);
+            } catch (ExecutionException ex) {
+                log.warn("Dashboard section {} failed", name, ex.getCause());
+            } catch (InterruptedException ex) {
+                if (reported.compareAndSet(false, true)) {
+                    sectionTimer(name, "cancelled").record(0L, TimeUnit.NANOSECONDS);
+                }
+                future.cancel(true);
+                Thread.currentThread().interrupt();
+            }
+            unavailable.add(name);
+            return fallback;
+        }
+
+        private T resultOrFallback(List<String> unavailable) {
+            try {
+                return future.get();
+            } catch (ExecutionException ex) {
+                log.warn("Dashboard section {} failed", name, ex.getCause());
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+            unavailable.add(name);
+            return fallback;
+        }
+    }
+}
@@ -2,6 +2,8 @@ package mofo.com.pestscout.analytics.service;
 
 import lombok.RequiredArgsConstructor;
 import mofo.com.pestscout.analytics.dto.*;
+import mofo.com.pestscout.analytics.model.ObservationFact;
+import mofo.com.pestscout.analytics.model.SessionFact;
 import mofo.com.pestscout.farm.dto.FarmResponse;
 import mofo.com.pestscout.farm.service.FarmService;
 import mofo.com.pestscout.scouting.model.ScoutingSession;
@@ -26,6 +28,7 @@ public class DashboardService {
     private final HeatmapService heatmapService;
     private final TrendAnalysisService trendService;
     private final FarmService farmService;
+    private final FarmAnalyticsContextService contextService;
 
     @Transactional(readOnly = true)
     public DashboardOverviewDto getDashboardOverview() {
@@ -53,48 +56,52 @@ public class DashboardService {
 
     @Transactional(readOnly = true)
     public DashboardSummaryDto getDashboard(UUID farmId) {
-        analyticsAccessService.loadFarmAndEnsureAnalyticsAccess(farmId);
+        return getDashboard(contextService.load(farmId));
+    }
 
-        LocalDate today = LocalDate.now();
+    /**
+     * Builds the summary from an already loaded context; only the heat map still goes to the database.
+     */
+    @Transactional(readOnly = true)
+    public DashboardSummaryDto getDashboard(FarmAnalyticsContext context) {
+        LocalDate today = context.today();
         LocalDate weekStart = today.minusDays(6);
 
-        var allSessions = sessionRepo.findByFarmId(farmId);
-        int totalSessions = allSessions.size();
+        List<SessionFact> thisWeek = context.sessionsBetween(weekStart, today);
 
         // Average severity comparisons
-        double avgSeverityThisWeek = calculateAverageSeverity(farmId, weekStart, today);
+        double avgSeverityThisWeek = calculateAverageSeverity(context, thisWeek);
         double avgSeverityLastWeek =
-                calculateAverageSeverity(farmId, weekStart.minusDays(7), weekStart.minusDays(1));
+                calculateAverageSeverity(context, context.sessionsBetween(weekStart.minusDays(7), weekStart.minusDays(1)));
 
-        int activeScouts = (int) sessionRepo.findByFarmIdAndSessionDateBetween(farmId, weekStart, today).stream()
-                .filter(s -> s.getScout() != null)
-                .map(s -> s.getScout().getId())
+        int activeScouts = (int) thisWeek.stream()
+                .map(SessionFact::scoutId)
+                .filter(Objects::nonNull)
                 .distinct()
                 .count();
 
-        int treatmentsApplied = sessionRepo.findByFarmIdAndSessionDateBetween(farmId, weekStart, today).stream()
-                .filter(s -> s.getRecommendations() != null)
-                .mapToInt(s -> s.getRecommendations().size())
+        int treatmentsApplied = thisWeek.stream()
+                .mapToInt(s -> context.recommendations(s.id()).size())
                 .sum();
 
-        var weeklyHeatmap = resolveDashboardHeatmap(farmId, allSessions, today);
+        var weeklyHeatmap = getDashboardHeatmap(context);
         int weekNumber = weeklyHeatmap.week();
 
         // Last 30-day trend for default pest
         var trend = trendService.getPestTrend(
-                farmId,
+                context,
                 "thrips",                 // default until UI selects species
                 today.minusDays(30),
                 today
         );
 
         return new DashboardSummaryDto(
-                farmId,
-                totalSessions,
+                context.farmId(),
+                context.sessions().size(),
                 activeScouts,
                 avgSeverityThisWeek,
                 avgSeverityLastWeek,
-                countPestsDetected(farmId, weekStart, today),
+                sumCounts(context, thisWeek),
                 treatmentsApplied,
                 List.of(new WeeklyHeatmapResponse(
                         weekNumber,
@@ -110,29 +117,44 @@ public class DashboardService {
     @Transactional(readOnly = true)
     public HeatmapResponse getDashboardHeatmap(UUID farmId) {
         analyticsAccessService.loadFarmAndEnsureAnalyticsAccess(farmId);
-        return resolveDashboardHeatmap(farmId, sessionRepo.findByFarmId(farmId), LocalDate.now());
+        List<LocalDate> sessionDates = sessionRepo.findByFarmId(farmId).stream()
+                .map(ScoutingSession::getSessionDate)
+                .toList();
+        return resolveDashboardHeatmap(farmId, sessionDates, LocalDate.now());
+    }
+
+    /**
+     * Returns the context's dashboard heat map, generating it on first use so the summary and the heat map section
+     * share one result.
+     */
+    @Transactional(readOnly = true)
+    public HeatmapResponse getDashboardHeatmap(FarmAnalyticsContext context) {
+        return context.dashboardHeatmap(() -> resolveDashboardHeatmap(
+                context.farmId(),
+                context.sessions().stream().map(SessionFact::sessionDate).toList(),
+                context.today()
+        ));
     }
 
-    private HeatmapResponse resolveDashboardHeatmap(UUID farmId, List<ScoutingSession> sessions, LocalDate today) {
-        WeekFields weekFields = WeekFields.ISO;
-        int requestedWeek = today.get(weekFields.weekOfWeekBasedYear());
-        int requestedYear = today.get(weekFields.weekBasedYear());
+    /**
+     * Uses the current ISO week's heat map, or when that is empty the most recent earlier week that has any sessions.
+     * Candidate weeks come from the session dates, so only weeks with data are generated.
+     */
+    private HeatmapResponse resolveDashboardHeatmap(UUID farmId, List<LocalDate> sessionDates, LocalDate today) {
+        WeekKey requested = WeekKey.of(today);
 
-        HeatmapResponse heatmap = heatmapService.generateHeatmap(farmId, requestedWeek, requestedYear);
+        HeatmapResponse heatmap = heatmapService.generateHeatmap(farmId, requested.week(), requested.year());
         if (!isEmptyHeatmap(heatmap)) {
             return heatmap;
         }
 
-        return sessions.stream()
-                .map(ScoutingSession::getSessionDate)
+        return sessionDates.stream()
                 .filter(Objects::nonNull)
-                .distinct()
                 .sorted(Comparator.reverseOrder())
-                .map(date -> {
-                    int week = date.get(weekFields.weekOfWeekBasedYear());
-                    int year = date.get(weekFields.weekBasedYear());
-                    return heatmapService.generateHeatmap(farmId, week, year);
-                })
+                .map(WeekKey::of)
+                .distinct()
+                .filter(week -> !week.equals(requested))
+                .map(week -> heatmapService.generateHeatmap(farmId, week.week(), week.year()))
                 .filter(candidate -> !isEmptyHeatmap(candidate))
                 .findFirst()
                 .orElse(heatmap);
@@ -157,22 +179,26 @@ public class DashboardService {
         );
     }
 
-    private int countPestsDetected(UUID farmId, LocalDate start, LocalDate end) {
-        return sessionRepo.findByFarmIdAndSessionDateBetween(farmId, start, end).stream()
-                .flatMap(s -> s.getObservations().stream())
-                .mapToInt(o -> o.getCount() == null ? 0 : o.getCount())
+    private int sumCounts(FarmAnalyticsContext context, List<SessionFact> sessions) {
+        return sessions.stream()
+                .flatMap(s -> context.observations(s.id()).stream())
+                .mapToInt(ObservationFact::countOrZero)
                 .sum();
     }
 
-    private double calculateAverageSeverity(UUID farmId, LocalDate from, LocalDate to) {
-        var sessions = sessionRepo.findByFarmIdAndSessionDateBetween(farmId, from, to);
+    private double calculateAverageSeverity(FarmAnalyticsContext context, List<SessionFact> sessions) {
         if (sessions.isEmpty()) return 0;
 
-        int severitySum = sessions.stream()
-                .flatMap(s -> s.getObservations().stream())
-                .mapToInt(o -> o.getCount() == null ? 0 : o.getCount())
-                .sum();
+        return (double) sumCounts(context, sessions) / sessions.size();
+    }
 
-        return (double) severitySum / sessions.size();
+    private record WeekKey(int week, int year) {
+
+        static WeekKey of(LocalDate date) {
+            return new WeekKey(
+                    date.get(WeekFields.ISO.weekOfWeekBasedYear()),
+                    date.get(WeekFields.ISO.weekBasedYear())
+            );
+        }
     }
 }
@@ -0,0 +1,427 @@
+package mofo.com.pestscout.analytics.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import mofo.com.pestscout.analytics.config.ExportJobProperties;
+import mofo.com.pestscout.analytics.dto.ExportJobDto;
+import mofo.com.pestscout.analytics.dto.ExportJobRequest;
+import mofo.com.pestscout.analytics.model.ExportJob;
+import mofo.com.pestscout.analytics.model.ExportJobStatus;
+import mofo.com.pestscout.analytics.model.ExportType;
+import mofo.com.pestscout.analytics.repository.ExportJobRepository;
+import mofo.com.pestscout.analytics.storage.ExportArtifactStore;
+import mofo.com.pestscout.auth.model.Role;
+import mofo.com.pestscout.common.exception.BadRequestException;
+import mofo.com.pestscout.common.exception.ConflictException;
+import mofo.com.pestscout.common.exception.ForbiddenException;
+import mofo.com.pestscout.common.exception.ResourceNotFoundException;
+import mofo.com.pestscout.common.jobs.BackgroundJobQueue;
+import mofo.com.pestscout.common.jobs.BackgroundJobRunner;
+import mofo.com.pestscout.farm.config.LicensePolicyProperties;
+import mofo.com.pestscout.farm.model.Farm;
+import mofo.com.pestscout.farm.repository.FarmRepository;
+import mofo.com.pestscout.farm.security.CurrentUserService;
+import mofo.com.pestscout.farm.security.FarmAccessService;
+import mofo.com.pestscout.scouting.repository.ScoutingObservationRepository;
+import mofo.com.pestscout.scouting.repository.ScoutingSessionRepository;
+import mofo.com.pestscout.scouting.service.ScoutingSessionReportExportService;
+import mofo.com.pestscout.scouting.service.ScoutingSessionService;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Builds farm exports in the background and keeps the finished documents on disk for reuse.
+ * <p>
+ * A request is keyed by export type, farm, date range, audience and the farm's current data version. Requests with the
+ * same key share one {@link ExportJob}, so several managers exporting the same farm at once get the same document
+ * built once, and later requests are served from the cached artifact until the farm's data changes or the artifact
+ * expires. Jobs are queued and claimed by a {@link BackgroundJobRunner}; anything its pool cannot take, or that a
+ * stopped node left behind, is offered again by {@link #resubmitPendingJobs()}. A claim takes a lease that the worker
+ * keeps alive through {@link #renewLeases()} while it builds outside any request; the attempt number taken at claim
+ * time fences the final update, so a worker that lost its lease cannot overwrite a newer attempt.
+ */
+@Service
+@Slf4j
+public class ExportJobService {
+
+    private final ExportJobRepository jobRepository;
+    private final ExportArtifactStore artifactStore;
+    private final RawDataPdfExportService rawDataPdfExportService;
+    private final ScoutingSessionReportExportService sessionReportExportService;
+    private final ScoutingSessionService scoutingSessionService;
+    private final AnalyticsAccessService analyticsAccessService;
+    private final FarmAccessService farmAccessService;
+    private final CurrentUserService currentUserService;
+    private final FarmRepository farmRepository;
+    private final ScoutingSessionRepository sessionRepository;
+    private final ScoutingObservationRepository observationRepository;
+    private final LicensePolicyProperties licensePolicyProperties;
+    private final ExportJobProperties properties;
+    private final BackgroundJobRunner jobs;
+    private final Map<UUID, Integer> building = new ConcurrentHashMap<>();
+    private final Timer buildTimer;
+    private final Counter coalesced;
+    private final Counter failures;
+
+    public ExportJobService(ExportJobRepository jobRepository,
+                            ExportArtifactStore artifactStore,
+                            RawDataPdfExportService rawDataPdfExportService,
+                            ScoutingSessionReportExportService sessionReportExportService,
+                            ScoutingSessionService scoutingSessionService,
+                            AnalyticsAccessService analyticsAccessService,
+                            FarmAccessService farmAccessService,
+                            CurrentUserService currentUserService,
+                            FarmRepository farmRepository,
+                            ScoutingSessionRepository sessionRepository,
+                            ScoutingObservationRepository observationRepository,
+                            LicensePolicyProperties licensePolicyProperties,
+                            ExportJobProperties properties,
+                            MeterRegistry meterRegistry) {
+        this.jobRepository = jobRepository;
+        this.artifactStore = artifactStore;
+        this.rawDataPdfExportService = rawDataPdfExportService;
+        this.sessionReportExportService = sessionReportExportService;
+        this.scoutingSessionService = scoutingSessionService;
+        this.analyticsAccessService = analyticsAccessService;
+        this.farmAccessService = farmAccessService;
+        this.currentUserService = currentUserService;
+        this.farmRepository = farmRepository;
+        this.sessionRepository = sessionRepository;
+        this.observationRepository = observationRepository;
+        this.licensePolicyProperties = licensePolicyProperties;
+        this.properties = properties;
+
+        this.jobs = new BackgroundJobRunner("export-jobs", new ExportJobQueue(), properties, meterRegistry,
+                "exports.jobs");
+
+        this.buildTimer = Timer.builder("exports.jobs.build")
+                .description("Time spent building one export artifact")
+                .register(meterRegistry);
+        this.coalesced = Counter.builder("exports.jobs.coalesced")
+                .description("Export requests served by an existing job instead of a new build")
+                .register(meterRegistry);
+        this.failures = Counter.builder("exports.jobs.failures")
+                .description("Export build attempts that failed")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Checks the caller's access and returns the job that will produce the requested export, starting one only when
+     * no job for the same data exists.
+     */
+    public ExportJobDto requestExport(ExportJobRequest request) {
+        UUID farmId = request.farmId();
+        UUID requestedBy = currentUserService.getCurrentUserId();
+        ExportJob job = switch (request.exportType()) {
+            case RAW_DATA_PDF -> {
+                if (request.startDate() != null || request.endDate() != null) {
+                    throw new BadRequestException("Raw data exports always cover the farm's full history.");
+                }
+                analyticsAccessService.loadFarmAndEnsureAnalyticsAccess(farmId);
+                yield enqueue(farmId, ExportType.RAW_DATA_PDF, null, null, null,
+                        rawDataPdfExportService.fileName(farmId), requestedBy);
+            }
+            case SESSIONS_CSV -> {
+                ScoutingSessionReportExportService.CsvExport export =
+                        sessionReportExportService.prepareFarmExport(farmId, request.startDate(), request.endDate());
+                yield enqueue(farmId, ExportType.SESSIONS_CSV, request.startDate(), request.endDate(),
+                        farmAccessService.getCurrentUserRole(), export.fileName(), requestedBy);
+            }
+        };
+        return toDto(job);
+    }
+
+    public ExportJobDto getJob(UUID jobId) {
+        return toDto(loadAuthorized(jobId));
+    }
+
+    /**
+     * Returns the finished artifact of a job the caller may read.
+     *
+     * @throws ConflictException while the export is still being built or after it failed
+     */
+    public ExportArtifact openArtifact(UUID jobId) {
+        ExportJob job = loadAuthorized(jobId);
+        if (job.getStatus() == ExportJobStatus.FAILED) {
+            throw new ConflictException("Export " + jobId + " failed: " + job.getLastError());
+        }
+        if (job.getStatus() != ExportJobStatus.COMPLETED) {
+            throw new ConflictException("Export " + jobId + " is still being prepared; try again shortly.");
+        }
+        Path path = artifactStore.find(jobId, job.getExportType().getExtension()).orElse(null);
+        if (path == null) {
+            revive(job);
+            throw new ConflictException("Export " + jobId + " is being rebuilt; try again shortly.");
+        }
+        return new ExportArtifact(job.getFileName(), job.getExportType().getMediaType(), path);
+    }
+
+    /**
+     * Link to a ready-made raw data PDF for a farm, used in license expiry notices. Requesting the link starts (or
+     * reuses) the export job, so the document is usually built by the time the recipient opens it.
+     */
+    public String buildDownloadUrl(UUID farmId) {
+        ExportJob job = enqueue(farmId, ExportType.RAW_DATA_PDF, null, null, null,
+                rawDataPdfExportService.fileName(farmId), null);
+        String baseUrl = licensePolicyProperties.getPublicBaseUrl();
+        String path = downloadPath(job.getId());
+        if (baseUrl == null || baseUrl.isBlank()) {
+            return path;
+        }
+        return baseUrl.replaceAll("/+$", "") + path;
+    }
+
+    /**
+     * Re-offers jobs that are still pending after the retry delay, returns running jobs whose lease ran out to pending,
+     * and deletes artifacts past their TTL together with their jobs.
+     */
+    @Scheduled(fixedDelayString = "${app.analytics.export-jobs.sweep-ms:30000}")
+    public void resubmitPendingJobs() {
+        jobs.sweep();
+
+        for (ExportJob job : jobRepository.findTop100ByExpiresAtBeforeOrderByExpiresAtAsc(LocalDateTime.now())) {
+            try {
+                artifactStore.delete(job.getId(), job.getExportType().getExtension());
+                jobRepository.delete(job);
+            } catch (IOException ex) {
+                log.warn("Failed to delete expired export artifact {}: {}", job.getId(), ex.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Renews the lease of every job this node is building, so the sweeper on any node can tell a long build from one
+     * whose node stopped.
+     */
+    @Scheduled(fixedDelayString = "${app.analytics.export-jobs.heartbeat-ms:30000}")
+    public void renewLeases() {
+        LocalDateTime now = LocalDateTime.now();
+        building.forEach((jobId, attempt) -> {
+            if (jobRepository.renewLease(jobId, attempt, leaseUntil(now), now) == 0) {
+                log.warn("Export {} lost its lease while building attempt {}", jobId, attempt);
+            }
+        });
+    }
+
+    void process(UUID jobId) {
+        jobs.process(jobId);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        jobs.shutdown();
+    }
+
+    private void buildJob(UUID jobId) {
+        ExportJob job = jobRepository.findById(jobId).orElse(null);
+        if (job == null) {
+            return;
+        }
+
+        int attempt = job.getAttempts();
+        building.put(jobId, attempt);
+        Timer.Sample sample = Timer.start();
+        try {
+            long size = artifactStore.write(job.getId(), job.getExportType().getExtension(), out -> build(job, out));
+            LocalDateTime completedAt = LocalDateTime.now();
+            if (jobRepository.complete(jobId, attempt, size, artifactExpiry(completedAt), completedAt) == 0) {
+                log.warn("Export {} attempt {} finished after losing its lease; keeping the newer attempt", jobId, attempt);
+                return;
+            }
+            sample.stop(buildTimer);
+            log.info("Built {} export {} for farm {} ({} bytes)", job.getExportType(), jobId, job.getFarmId(), size);
+        } catch (IOException | RuntimeException ex) {
+            failures.increment();
+            boolean exhausted = attempt >= properties.getMaxAttempts();
+            LocalDateTime failedAt = LocalDateTime.now();
+            jobRepository.fail(jobId, attempt, exhausted ? ExportJobStatus.FAILED : ExportJobStatus.PENDING,
+                    BackgroundJobRunner.truncateError(ex.getMessage()), exhausted ? artifactExpiry(failedAt) : null,
+                    failedAt);
+            log.warn("Export {} for farm {} failed (attempt {}{}): {}", jobId, job.getFarmId(), attempt,
+                    exhausted ? ", giving up" : "", ex.getMessage());
+        } finally {
+            building.remove(jobId);
+        }
+    }
+
+    private ExportJob enqueue(UUID farmId,
+                              ExportType type,
+                              LocalDate startDate,
+                              LocalDate endDate,
+                              Role audienceRole,
+                              String fileName,
+                              UUID requestedBy) {
+        String dataVersion = dataVersion(farmId);
+        String dedupKey = sha256(type + "|" + farmId + "|" + startDate + "|" + endDate + "|" + audienceRole
+                + "|" + dataVersion);
+
+        ExportJob existing = jobRepository.findByDedupKey(dedupKey).orElse(null);
+        if (existing == null) {
+            try {
+                ExportJob job = jobRepository.saveAndFlush(ExportJob.builder()
+                        .dedupKey(dedupKey)
+                        .farmId(farmId)
+                        .exportType(type)
+                        .startDate(startDate)
+                        .endDate(endDate)
+                        .audienceRole(audienceRole)
+                        .dataVersion(dataVersion)
+                        .fileName(fileName)
+                        .requestedBy(requestedBy)
+                        .build());
+                jobs.submitAfterCommit(job.getId());
+                return job;
+            } catch (DataIntegrityViolationException ex) {
+                // Another request for the same export won the insert; share its job.
+                existing = jobRepository.findByDedupKey(dedupKey).orElseThrow(() -> ex);
+            }
+        }
+        coalesced.increment();
+        return revive(existing);
+    }
+
+    /**
+     * Re-queues a failed job, or a completed one whose artifact is gone, so a new request gets a fresh build.
+     */
+    private ExportJob revive(ExportJob job) {
+        boolean rebuild = job.getStatus() == ExportJobStatus.FAILED
+                || (job.getStatus() == ExportJobStatus.COMPLETED
+                && artifactStore.find(job.getId(), job.getExportType().getExtension()).isEmpty());
+        if (!rebuild || jobRepository.requeue(job.getId(), job.getStatus(), LocalDateTime.now()) == 0) {
+            return job;
+        }
+        jobs.submitAfterCommit(job.getId());
+        return jobRepository.findById(job.getId()).orElse(job);
+    }
+
+    private void build(ExportJob job, OutputStream out) throws IOException {
+        switch (job.getExportType()) {
+            case RAW_DATA_PDF -> rawDataPdfExportService.writeFarmRawDataPdf(job.getFarmId(), out);
+            case SESSIONS_CSV -> sessionReportExportService.writeFarmCsv(
+                    job.getFarmId(), job.getStartDate(), job.getEndDate(), job.getAudienceRole(), out);
+        }
+    }
+
+    /**
+     * Fingerprint of everything an export reads. Any session or observation write bumps a modification time or a
+     * count, and license changes bump the farm's version, so an unchanged fingerprint means an identical document.
+     */
+    private String dataVersion(UUID farmId) {
+        Farm farm = farmRepository.findById(farmId)
+                .orElseThrow(() -> new ResourceNotFoundException("Farm", "id", farmId));
+        return sha256(farm.getVersion()
+                + "|" + sessionRepository.countByFarmId(farmId)
+                + "|" + sessionRepository.findLatestUpdatedAtByFarmId(farmId).orElse(null)
+                + "|" + observationRepository.countByFarmId(farmId)
+                + "|" + observationRepository.findLatestUpdatedAtByFarmId(farmId).orElse(null));
+    }
+
+    private ExportJob loadAuthorized(UUID jobId) {
+        ExportJob job = jobRepository.findById(jobId)
+                .orElseThrow(() -> new ResourceNotFoundException("ExportJob", "id", jobId));
+        switch (job.getExportType()) {
+            case RAW_DATA_PDF -> analyticsAccessService.loadFarmAndEnsureAnalyticsAccess(job.getFarmId());
+            case SESSIONS_CSV -> {
+                scoutingSessionService.requireFarmExportAccess(job.getFarmId());
+                if (farmAccessService.getCurrentUserRole() != job.getAudienceRole()) {
+                    throw new ForbiddenException("This export was prepared for a different role.");
+                }
+            }
+        }
+        return job;
+    }
+
+    private LocalDateTime leaseUntil(LocalDateTime now) {
+        return now.plusNanos(TimeUnit.MILLISECONDS.toNanos(properties.getLeaseMs()));
+    }
+
+    private LocalDateTime artifactExpiry(LocalDateTime now) {
+        return now.plusNanos(TimeUnit.MILLISECONDS.toNanos(properties.getArtifactTtlMs()));
+    }
+
+    private ExportJobDto toDto(ExportJob job) {
+        return new ExportJobDto(
+                job.getId(),
+                job.getFarmId(),
+                job.getExportType(),
+                job.getStatus(),
+                job.getFileName(),
+                job.getStartDate(),
+                job.getEndDate(),
+                job.getSizeBytes(),
+                job.getCompletedAt(),
+                job.getExpiresAt(),
+                job.getStatus() == ExportJobStatus.COMPLETED ? downloadPath(job.getId()) : null,
+                job.getLastError()
+        );
+    }
+
+    private static String downloadPath(UUID jobId) {
+        return "/api/analytics/exports/" + jobId + "/download";
+    }
+
+    private static String sha256(String value) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(value.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("SHA-256 is not available", ex);
+        }
+    }
+
+    /**
+     * A finished export on disk.
+     */
+    public record ExportArtifact(String fileName, String mediaType, Path path) {
+    }
+
+    private final class ExportJobQueue implements BackgroundJobQueue {
+
+        @Override
+        public boolean claim(UUID jobId, LocalDateTime now) {
+            return jobRepository.claim(jobId, ExportJobStatus.PENDING, ExportJobStatus.RUNNING, leaseUntil(now),
+                    now) > 0;
+        }
+
+        @Override
+        public int resetStalled(LocalDateTime now) {
+            return jobRepository.resetExpiredLeases(
+                    now.minusNanos(TimeUnit.MILLISECONDS.toNanos(properties.getLeaseMs())),
+                    now
+            );
+        }
+
+        @Override
+        public List<UUID> findDue(LocalDateTime retryBefore) {
+            return jobRepository.findTop50ByStatusAndUpdatedAtBeforeOrderByUpdatedAtAsc(
+                            ExportJobStatus.PENDING, retryBefore)
+                    .stream()
+                    .map(ExportJob::getId)
+                    .toList();
+        }
+
+        @Override
+        public void run(UUID jobId) {
+            buildJob(jobId);
+        }
+    }
+}
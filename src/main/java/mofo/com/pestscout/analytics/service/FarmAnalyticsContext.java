@@ -0,0 +1,133 @@
+package mofo.com.pestscout.analytics.service;
+
+import mofo.com.pestscout.analytics.dto.HeatmapResponse;
+import mofo.com.pestscout.analytics.model.ObservationFact;
+import mofo.com.pestscout.analytics.model.RecommendationFact;
+import mofo.com.pestscout.analytics.model.SessionFact;
+
+import java.time.LocalDate;
+import java.util.*;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * Read-only snapshot of a farm's sessions, observations and recommendations, loaded once per request by
+ * {@link FarmAnalyticsContextService} and shared by every dashboard section so none of them goes back to the database
+ * for the same rows.
+ * <p>
+ * A context covers either the farm's whole history or an inclusive session-date window ({@link #from()} and
+ * {@link #to()} are {@code null} for the former). It is immutable apart from the memoized dashboard heat map, so it
+ * can be read from several threads.
+ */
+public final class FarmAnalyticsContext {
+
+    private final UUID farmId;
+    private final String farmName;
+    private final LocalDate today;
+    private final LocalDate from;
+    private final LocalDate to;
+    private final List<SessionFact> sessions;
+    private final Map<UUID, SessionFact> sessionsById;
+    private final List<ObservationFact> observations;
+    private final Map<UUID, List<ObservationFact>> observationsBySession;
+    private final Map<UUID, List<RecommendationFact>> recommendationsBySession;
+
+    private HeatmapResponse dashboardHeatmap;
+
+    public FarmAnalyticsContext(UUID farmId,
+                                String farmName,
+                                LocalDate today,
+                                LocalDate from,
+                                LocalDate to,
+                                List<SessionFact> sessions,
+                                List<ObservationFact> observations,
+                                List<RecommendationFact> recommendations) {
+        this.farmId = farmId;
+        this.farmName = farmName;
+        this.today = today;
+        this.from = from;
+        this.to = to;
+        this.sessions = List.copyOf(sessions);
+        this.sessionsById = this.sessions.stream()
+                .collect(Collectors.toUnmodifiableMap(SessionFact::id, session -> session, (left, right) -> left));
+        this.observations = List.copyOf(observations);
+        this.observationsBySession = this.observations.stream()
+                .collect(Collectors.groupingBy(ObservationFact::sessionId, Collectors.toUnmodifiableList()));
+        this.recommendationsBySession = recommendations.stream()
+                .sorted(Comparator.comparing(RecommendationFact::type))
+                .collect(Collectors.groupingBy(RecommendationFact::sessionId, Collectors.toUnmodifiableList()));
+    }
+
+    public UUID farmId() {
+        return farmId;
+    }
+
+    public String farmName() {
+        return farmName;
+    }
+
+    /**
+     * The date the context was loaded on, so every section agrees on "this week".
+     */
+    public LocalDate today() {
+        return today;
+    }
+
+    public LocalDate from() {
+        return from;
+    }
+
+    public LocalDate to() {
+        return to;
+    }
+
+    public List<SessionFact> sessions() {
+        return sessions;
+    }
+
+    public Optional<SessionFact> session(UUID sessionId) {
+        return Optional.ofNullable(sessionsById.get(sessionId));
+    }
+
+    public List<ObservationFact> observations() {
+        return observations;
+    }
+
+    public List<ObservationFact> observations(UUID sessionId) {
+        return observationsBySession.getOrDefault(sessionId, List.of());
+    }
+
+    public List<RecommendationFact> recommendations(UUID sessionId) {
+        return recommendationsBySession.getOrDefault(sessionId, List.of());
+    }
+
+    /**
+     * Sessions dated within the inclusive range, in date order.
+     */
+    public List<SessionFact> sessionsBetween(LocalDate start, LocalDate end) {
+        return sessions.stream()
+                .filter(session -> session.sessionDate() != null)
+                .filter(session -> !session.sessionDate().isBefore(start) && !session.sessionDate().isAfter(end))
+                .toList();
+    }
+
+    /**
+     * Observations of sessions dated within the inclusive range.
+     */
+    public List<ObservationFact> observationsBetween(LocalDate start, LocalDate end) {
+        return sessionsBetween(start, end).stream()
+                .flatMap(session -> observations(session.id()).stream())
+                .toList();
+    }
+
+    /**
+     * Returns the dashboard heat map, building it with {@code loader} the first time it is asked for. The summary and
+     * the heat map section both show it, so it is only generated once per request.
+     */
+    public synchronized HeatmapResponse dashboardHeatmap(Supplier<HeatmapResponse> loader) {
+        if (dashboardHeatmap == null) {
+            dashboardHeatmap = loader.get();
+        }
+        return dashboardHeatmap;
+    }
+}
@@ -0,0 +1,58 @@
+package mofo.com.pestscout.analytics.service;
+
+import lombok.RequiredArgsConstructor;
+import mofo.com.pestscout.analytics.repository.FarmAnalyticsRepository;
+import mofo.com.pestscout.farm.model.Farm;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * Loads {@link FarmAnalyticsContext} snapshots: three flat projection queries per farm regardless of how many
+ * sessions it has, after a single analytics access check.
+ */
+@Service
+@RequiredArgsConstructor
+public class FarmAnalyticsContextService {
+
+    private final AnalyticsAccessService analyticsAccessService;
+    private final FarmAnalyticsRepository farmAnalyticsRepository;
+
+    /**
+     * Loads the farm's whole history.
+     */
+    @Transactional(readOnly = true)
+    public FarmAnalyticsContext load(UUID farmId) {
+        Farm farm = analyticsAccessService.loadFarmAndEnsureAnalyticsAccess(farmId);
+        return new FarmAnalyticsContext(
+                farmId,
+                farm != null ? farm.getName() : null,
+                LocalDate.now(),
+                null,
+                null,
+                farmAnalyticsRepository.findSessionFacts(farmId),
+                farmAnalyticsRepository.findObservationFacts(farmId),
+                farmAnalyticsRepository.findRecommendationFacts(farmId)
+        );
+    }
+
+    /**
+     * Loads only the sessions dated within the inclusive range, for trend views that look at a fixed window.
+     */
+    @Transactional(readOnly = true)
+    public FarmAnalyticsContext load(UUID farmId, LocalDate from, LocalDate to) {
+        Farm farm = analyticsAccessService.loadFarmAndEnsureAnalyticsAccess(farmId);
+        return new FarmAnalyticsContext(
+                farmId,
+                farm != null ? farm.getName() : null,
+                LocalDate.now(),
+                from,
+                to,
+                farmAnalyticsRepository.findSessionFacts(farmId, from, to),
+                farmAnalyticsRepository.findObservationFacts(farmId, from, to),
+                farmAnalyticsRepository.findRecommendationFacts(farmId, from, to)
+        );
+    }
+}
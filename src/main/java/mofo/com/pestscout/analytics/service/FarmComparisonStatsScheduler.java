@@ -0,0 +1,31 @@
+package mofo.com.pestscout.analytics.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import mofo.com.pestscout.farm.model.Farm;
+import mofo.com.pestscout.farm.repository.FarmRepository;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class FarmComparisonStatsScheduler {
+
+    private final FarmRepository farmRepository;
+    private final FarmComparisonStatsService statsService;
+
+    @Scheduled(cron = "${app.analytics.farm-comparison.rebuild-cron:0 30 2 * * *}")
+    public void rebuildAll() {
+        int rebuilt = 0;
+        for (Farm farm : farmRepository.findAll()) {
+            try {
+                statsService.rebuild(farm.getId());
+                rebuilt++;
+            } catch (RuntimeException ex) {
+                log.warn("Failed to rebuild farm comparison stats for farm {}", farm.getId(), ex);
+            }
+        }
+        log.info("Rebuilt farm comparison stats for {} farm(s).", rebuilt);
+    }
+}
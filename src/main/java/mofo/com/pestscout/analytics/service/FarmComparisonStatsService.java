@@ -0,0 +1,116 @@
+package mofo.com.pestscout.analytics.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import mofo.com.pestscout.analytics.dto.FarmComparisonDto;
+import mofo.com.pestscout.analytics.model.FarmComparisonTotals;
+import mofo.com.pestscout.analytics.model.PeriodTotals;
+import mofo.com.pestscout.analytics.repository.FarmComparisonStatsRepository;
+import mofo.com.pestscout.scouting.config.ScoutingArchiveProperties;
+import mofo.com.pestscout.scouting.model.ScoutingSession;
+import mofo.com.pestscout.scouting.model.SessionStatus;
+import mofo.com.pestscout.scouting.model.SeverityLevel;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Maintains the per-farm, per-month {@code farm_comparison_stats} aggregate behind the cross-farm comparison.
+ * <p>
+ * Only completed sessions count. A session's totals are added when it is completed and taken away again when it is
+ * reopened, in the same transaction as the status change; completed sessions cannot be edited, so the two always
+ * match. {@link #rebuild} recomputes a farm from the scouting tables and runs nightly to correct any drift; months
+ * before the session archive cutoff are left as they are, since their sessions may no longer be in those tables.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class FarmComparisonStatsService {
+
+    private static final int ALERT_THRESHOLD = SeverityLevel.HIGH.getMinInclusive();
+
+    private final FarmComparisonStatsRepository statsRepository;
+    private final ScoutingArchiveProperties archiveProperties;
+
+    /**
+     * Adds a session that has just been completed.
+     */
+    @Transactional
+    public void recordCompleted(ScoutingSession session) {
+        apply(session, 1);
+    }
+
+    /**
+     * Removes a completed session that is about to be reopened.
+     */
+    @Transactional
+    public void recordReopened(ScoutingSession session) {
+        apply(session, -1);
+    }
+
+    /**
+     * Every farm ranked by average observation count, read from the aggregate in one query.
+     */
+    @Transactional(readOnly = true)
+    public List<FarmComparisonDto> getFarmComparison() {
+        return statsRepository.findFarmTotals().stream()
+                .map(FarmComparisonStatsService::toDto)
+                .sorted(Comparator.comparingDouble(FarmComparisonDto::avgSeverity).reversed())
+                .toList();
+    }
+
+    /**
+     * Recomputes every period of the farm from its completed sessions. Runs in its own transaction so the nightly
+     * rebuild commits farm by farm. Overlapping rebuilds write identical totals.
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void rebuild(UUID farmId) {
+        Optional<LocalDate> frozenBefore = archiveProperties.sessionCutoff(LocalDate.now());
+        List<PeriodTotals> periods = statsRepository.aggregateFarm(farmId, SessionStatus.COMPLETED, ALERT_THRESHOLD)
+                .stream()
+                .filter(period -> frozenBefore.isEmpty() || !period.periodStart().isBefore(frozenBefore.get()))
+                .toList();
+
+        if (frozenBefore.isPresent()) {
+            statsRepository.deleteByFarmIdFrom(farmId, frozenBefore.get());
+        } else {
+            statsRepository.deleteByFarmId(farmId);
+        }
+        LocalDateTime now = LocalDateTime.now();
+        for (PeriodTotals period : periods) {
+            statsRepository.insertIfAbsent(UUID.randomUUID(), farmId, period.periodStart(), now);
+            statsRepository.assign(farmId, period.periodStart(), period.sessions(), period.observationRows(),
+                    period.observationTotal(), period.alerts(), now);
+        }
+        log.debug("Rebuilt farm comparison stats for farm {} across {} period(s)", farmId, periods.size());
+    }
+
+    private void apply(ScoutingSession session, int sign) {
+        UUID farmId = session.getFarm().getId();
+        statsRepository.aggregateSession(session.getId(), ALERT_THRESHOLD).ifPresent(totals -> {
+            LocalDateTime now = LocalDateTime.now();
+            statsRepository.insertIfAbsent(UUID.randomUUID(), farmId, totals.periodStart(), now);
+            statsRepository.increment(farmId, totals.periodStart(), sign * totals.sessions(),
+                    sign * totals.observationRows(), sign * totals.observationTotal(), sign * totals.alerts(), now);
+        });
+    }
+
+    private static FarmComparisonDto toDto(FarmComparisonTotals totals) {
+        double averageSeverity = totals.observationRows() == 0
+                ? 0
+                : totals.observationTotal() / (double) totals.observationRows();
+        return new FarmComparisonDto(
+                totals.farmName(),
+                Math.round(averageSeverity * 10.0) / 10.0,
+                Math.toIntExact(totals.observationTotal()),
+                Math.toIntExact(totals.alerts())
+        );
+    }
+}
@@ -1,73 +1,101 @@
 package mofo.com.pestscout.analytics.service;
 
+import jakarta.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
-import mofo.com.pestscout.farm.config.LicensePolicyProperties;
+import mofo.com.pestscout.common.exception.ResourceNotFoundException;
 import mofo.com.pestscout.farm.model.Farm;
+import mofo.com.pestscout.farm.repository.FarmRepository;
 import mofo.com.pestscout.farm.service.LicenseService;
 import mofo.com.pestscout.scouting.model.ObservationCategory;
 import mofo.com.pestscout.scouting.model.ScoutingObservation;
 import mofo.com.pestscout.scouting.model.ScoutingSession;
 import mofo.com.pestscout.scouting.repository.ScoutingObservationRepository;
 import mofo.com.pestscout.scouting.repository.ScoutingSessionRepository;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.time.LocalDate;
-import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.List;
 import java.util.UUID;
 
+/**
+ * Writes a farm's full scouting history as a PDF straight to the response.
+ * <p>
+ * Sessions are read in slices of {@value #SESSION_BATCH_SIZE}, their observations loaded per slice, and the
+ * persistence context cleared after each one, while {@link StreamingPdfWriter} emits each page as soon as it fills.
+ * Memory use therefore depends on the slice size rather than on how much history the farm has.
+ */
 @Service
 @RequiredArgsConstructor
 public class RawDataPdfExportService {
 
+    static final int SESSION_BATCH_SIZE = 200;
+    private static final String TITLE = "PestScout Raw Farm Data Export";
+    private static final Sort NEWEST_FIRST = Sort.by(Sort.Order.desc("sessionDate"), Sort.Order.asc("id"));
+    private static final Sort OLDEST_FIRST = Sort.by(Sort.Order.asc("sessionDate"), Sort.Order.asc("id"));
+
     private final AnalyticsAccessService analyticsAccessService;
     private final ScoutingSessionRepository sessionRepository;
     private final ScoutingObservationRepository observationRepository;
     private final LicenseService licenseService;
-    private final LicensePolicyProperties licensePolicyProperties;
-    private final SimplePdfDocumentBuilder pdfDocumentBuilder = new SimplePdfDocumentBuilder();
+    private final FarmRepository farmRepository;
+    private final EntityManager entityManager;
 
+    /**
+     * Checks access, then asks {@code target} for the stream to write to, so headers can still be set (and errors
+     * still reported normally) up to the point where the first byte is written.
+     */
     @Transactional(readOnly = true)
-    public GeneratedPdfDocument exportFarmRawDataPdf(UUID farmId) {
+    public void exportFarmRawDataPdf(UUID farmId, PdfTarget target) throws IOException {
         Farm farm = analyticsAccessService.loadFarmAndEnsureAnalyticsAccess(farmId);
+        writeRawDataPdf(farm, target.open(fileName(farmId)));
+    }
+
+    /**
+     * Writes the export for a background job. Callers are responsible for having checked access when the job was
+     * requested.
+     */
+    @Transactional(readOnly = true)
+    public void writeFarmRawDataPdf(UUID farmId, OutputStream out) throws IOException {
+        Farm farm = farmRepository.findById(farmId)
+                .orElseThrow(() -> new ResourceNotFoundException("Farm", "id", farmId));
+        writeRawDataPdf(farm, out);
+    }
 
-        List<ScoutingSession> sessions = sessionRepository.findByFarmId(farmId).stream()
-                .sorted(Comparator.comparing(ScoutingSession::getSessionDate, Comparator.nullsLast(Comparator.naturalOrder())).reversed())
-                .toList();
-
-        List<UUID> sessionIds = sessions.stream().map(ScoutingSession::getId).toList();
-        List<ScoutingObservation> observations = sessionIds.isEmpty()
-                ? List.of()
-                : observationRepository.findBySessionIdIn(sessionIds).stream()
-                .sorted(Comparator
-                        .comparing((ScoutingObservation observation) -> observation.getSession().getSessionDate(), Comparator.nullsLast(Comparator.naturalOrder()))
-                        .thenComparing(observation -> observation.getSession().getId())
-                        .thenComparing(ScoutingObservation::getBayIndex, Comparator.nullsLast(Comparator.naturalOrder()))
-                        .thenComparing(ScoutingObservation::getBenchIndex, Comparator.nullsLast(Comparator.naturalOrder()))
-                        .thenComparing(this::speciesSortKey))
-                .toList();
-
-        List<String> lines = new ArrayList<>();
-        lines.add("Farm: " + farm.getName());
-        lines.add("Farm tag: " + safe(farm.getFarmTag()));
-        lines.add("License type: " + safe(farm.getLicenseType()));
-        lines.add("License start date: " + safe(farm.getLicenseStartDate()));
-        lines.add("License expiry date: " + safe(farm.getLicenseExpiryDate()));
-        lines.add("Dashboard access visible until: " + safe(farm.getLicenseGracePeriodEnd()));
-        lines.add("Licensed hectares: " + safe(farm.getLicensedAreaHectares()));
-        lines.add("Effective licensed hectares: " + licenseService.resolveEffectiveLicensedArea(farm));
-        lines.add("Generated on: " + LocalDate.now());
-        lines.add("");
-        lines.add("Sessions");
-        lines.add("-------");
-
-        if (sessions.isEmpty()) {
-            lines.add("No scouting sessions were found for this farm.");
-        } else {
+    public String fileName(UUID farmId) {
+        return "farm-raw-data-" + farmId + "-" + LocalDate.now() + ".pdf";
+    }
+
+    private void writeRawDataPdf(Farm farm, OutputStream out) throws IOException {
+        UUID farmId = farm.getId();
+        StreamingPdfWriter pdf = new StreamingPdfWriter(out, TITLE);
+        pdf.line("Farm: " + farm.getName());
+        pdf.line("Farm tag: " + safe(farm.getFarmTag()));
+        pdf.line("License type: " + safe(farm.getLicenseType()));
+        pdf.line("License start date: " + safe(farm.getLicenseStartDate()));
+        pdf.line("License expiry date: " + safe(farm.getLicenseExpiryDate()));
+        pdf.line("Dashboard access visible until: " + safe(farm.getLicenseGracePeriodEnd()));
+        pdf.line("Licensed hectares: " + safe(farm.getLicensedAreaHectares()));
+        pdf.line("Effective licensed hectares: " + licenseService.resolveEffectiveLicensedArea(farm));
+        pdf.line("Generated on: " + LocalDate.now());
+        pdf.line("");
+        pdf.line("Sessions");
+        pdf.line("-------");
+
+        boolean anySessions = false;
+        Slice<ScoutingSession> sessions;
+        int page = 0;
+        do {
+            sessions = sessionRepository.findSliceByFarmId(farmId, PageRequest.of(page++, SESSION_BATCH_SIZE, NEWEST_FIRST));
             for (ScoutingSession session : sessions) {
-                lines.add(
+                anySessions = true;
+                pdf.line(
                         "Session " + session.getId()
                                 + " | date=" + safe(session.getSessionDate())
                                 + " | status=" + safe(session.getStatus())
@@ -75,21 +103,38 @@ public class RawDataPdfExportService {
                                 + " | scout=" + resolveScout(session)
                 );
                 if (session.getNotes() != null && !session.getNotes().isBlank()) {
-                    lines.add("  notes: " + session.getNotes().trim());
+                    pdf.line("  notes: " + session.getNotes().trim());
                 }
             }
+            entityManager.clear();
+        } while (sessions.hasNext());
+        if (!anySessions) {
+            pdf.line("No scouting sessions were found for this farm.");
         }
 
-        lines.add("");
-        lines.add("Observations");
-        lines.add("------------");
-
-        if (observations.isEmpty()) {
-            lines.add("No observations were found for this farm.");
-        } else {
+        pdf.line("");
+        pdf.line("Observations");
+        pdf.line("------------");
+
+        boolean anyObservations = false;
+        page = 0;
+        do {
+            sessions = sessionRepository.findSliceByFarmId(farmId, PageRequest.of(page++, SESSION_BATCH_SIZE, OLDEST_FIRST));
+            List<UUID> sessionIds = sessions.stream().map(ScoutingSession::getId).toList();
+            List<ScoutingObservation> observations = sessionIds.isEmpty()
+                    ? List.of()
+                    : observationRepository.findBySessionIdIn(sessionIds).stream()
+                    .sorted(Comparator
+                            .comparing((ScoutingObservation observation) -> observation.getSession().getSessionDate(), Comparator.nullsLast(Comparator.naturalOrder()))
+                            .thenComparing(observation -> observation.getSession().getId())
+                            .thenComparing(ScoutingObservation::getBayIndex, Comparator.nullsLast(Comparator.naturalOrder()))
+                            .thenComparing(ScoutingObservation::getBenchIndex, Comparator.nullsLast(Comparator.naturalOrder()))
+                            .thenComparing(this::speciesSortKey))
+                    .toList();
             for (ScoutingObservation observation : observations) {
+                anyObservations = true;
                 ObservationCategory category = observation.getCategory();
-                lines.add(
+                pdf.line(
                         safe(observation.getSession().getSessionDate())
                                 + " | " + safe(observation.getSpeciesDisplayName())
                                 + " | category=" + safe(category != null ? category.name() : observation.getObservationType())
@@ -99,22 +144,16 @@ public class RawDataPdfExportService {
                                 + " | spot=" + safe(observation.getSpotIndex())
                 );
                 if (observation.getNotes() != null && !observation.getNotes().isBlank()) {
-                    lines.add("  notes: " + observation.getNotes().trim());
+                    pdf.line("  notes: " + observation.getNotes().trim());
                 }
             }
+            entityManager.clear();
+        } while (sessions.hasNext());
+        if (!anyObservations) {
+            pdf.line("No observations were found for this farm.");
         }
 
-        String fileName = "farm-raw-data-" + farmId + "-" + LocalDate.now() + ".pdf";
-        byte[] content = pdfDocumentBuilder.build("PestScout Raw Farm Data Export", lines);
-        return new GeneratedPdfDocument(fileName, content);
-    }
-
-    public String buildDownloadUrl(UUID farmId) {
-        String baseUrl = licensePolicyProperties.getPublicBaseUrl();
-        if (baseUrl == null || baseUrl.isBlank()) {
-            return "/api/farms/" + farmId + "/license/raw-data-export.pdf";
-        }
-        return baseUrl.replaceAll("/+$", "") + "/api/farms/" + farmId + "/license/raw-data-export.pdf";
+        pdf.finish();
     }
 
     private String resolveLocation(ScoutingSession session) {
@@ -156,6 +195,11 @@ public class RawDataPdfExportService {
         return identifier == null ? "" : identifier;
     }
 
-    public record GeneratedPdfDocument(String fileName, byte[] content) {
+    /**
+     * Supplies the stream the PDF is written to once its file name is known.
+     */
+    @FunctionalInterface
+    public interface PdfTarget {
+        OutputStream open(String fileName) throws IOException;
     }
 }
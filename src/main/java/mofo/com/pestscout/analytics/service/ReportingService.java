@@ -2,14 +2,16 @@ package mofo.com.pestscout.analytics.service;
 
 import lombok.RequiredArgsConstructor;
 import mofo.com.pestscout.analytics.dto.*;
+import mofo.com.pestscout.analytics.model.ObservationFact;
+import mofo.com.pestscout.analytics.model.RecommendationFact;
+import mofo.com.pestscout.analytics.model.SessionFact;
 import mofo.com.pestscout.farm.model.Farm;
-import mofo.com.pestscout.farm.repository.FarmRepository;
 import mofo.com.pestscout.farm.service.AnalyticsService;
 import mofo.com.pestscout.scouting.dto.ScoutingSessionDetailDto;
 import mofo.com.pestscout.scouting.model.*;
 import mofo.com.pestscout.scouting.repository.ScoutingObservationRepository;
-import mofo.com.pestscout.scouting.repository.ScoutingPhotoAnalysisRepository;
 import mofo.com.pestscout.scouting.repository.ScoutingSessionRepository;
+import mofo.com.pestscout.scouting.service.PhotoAnalysisAccuracyService;
 import mofo.com.pestscout.scouting.service.ScoutingSessionService;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -28,14 +30,15 @@ import java.util.stream.IntStream;
 public class ReportingService {
 
     private final AnalyticsAccessService analyticsAccessService;
-    private final FarmRepository farmRepository;
     private final ScoutingSessionRepository sessionRepository;
     private final ScoutingObservationRepository observationRepository;
-    private final ScoutingPhotoAnalysisRepository photoAnalysisRepository;
+    private final PhotoAnalysisAccuracyService photoAnalysisAccuracyService;
     private final HeatmapService heatmapService;
     private final AnalyticsService analyticsService;
     private final ScoutingSessionService scoutingSessionService;
     private final TrendAnalysisService trendAnalysisService;
+    private final FarmAnalyticsContextService contextService;
+    private final FarmComparisonStatsService farmComparisonStatsService;
 
     /**
      * Full report for a single session.
@@ -105,6 +108,15 @@ public class ReportingService {
     ) {
     }
 
+    /**
+     * Weekly analytics for every ISO week overlapping the inclusive date range, read from the weekly read model.
+     */
+    @Transactional(readOnly = true)
+    public List<FarmWeeklyAnalyticsDto> getWeeklyAnalytics(UUID farmId, LocalDate from, LocalDate to) {
+        analyticsAccessService.loadFarmAndEnsureAnalyticsAccess(farmId);
+        return analyticsService.computeWeeklyAnalytics(farmId, from, to);
+    }
+
     // --------------------------------------------------------------------
     // Additional methods needed by dashboard / reporting (SAFE STUBS)
     // You can fill these with real logic later.
@@ -171,14 +183,11 @@ public class ReportingService {
      */
     @Transactional(readOnly = true)
     public List<PestDistributionItemDto> getPestDistribution(UUID farmId) {
-        analyticsAccessService.loadFarmAndEnsureAnalyticsAccess(farmId);
-        List<ScoutingObservation> observations = allObservationsForFarm(farmId);
-        Map<String, Long> countsBySpecies = observations.stream()
-                .filter(o -> o.getCategory() == ObservationCategory.PEST)
-                .collect(Collectors.groupingBy(
-                        this::speciesName,
-                        Collectors.summingLong(o -> o.getCount() == null ? 0 : o.getCount())
-                ));
+        return getPestDistribution(contextService.load(farmId));
+    }
+
+    public List<PestDistributionItemDto> getPestDistribution(FarmAnalyticsContext context) {
+        Map<String, Long> countsBySpecies = countsBySpecies(context, ObservationCategory.PEST);
 
         long total = countsBySpecies.values().stream().mapToLong(Long::longValue).sum();
         if (total == 0) {
@@ -205,14 +214,11 @@ public class ReportingService {
      */
     @Transactional(readOnly = true)
     public List<DiseaseDistributionItemDto> getDiseaseDistribution(UUID farmId) {
-        analyticsAccessService.loadFarmAndEnsureAnalyticsAccess(farmId);
-        List<ScoutingObservation> observations = allObservationsForFarm(farmId);
-        Map<String, Long> countsBySpecies = observations.stream()
-                .filter(o -> o.getCategory() == ObservationCategory.DISEASE)
-                .collect(Collectors.groupingBy(
-                        this::speciesName,
-                        Collectors.summingLong(o -> o.getCount() == null ? 0 : o.getCount())
-                ));
+        return getDiseaseDistribution(contextService.load(farmId));
+    }
+
+    public List<DiseaseDistributionItemDto> getDiseaseDistribution(FarmAnalyticsContext context) {
+        Map<String, Long> countsBySpecies = countsBySpecies(context, ObservationCategory.DISEASE);
 
         long total = countsBySpecies.values().stream().mapToLong(Long::longValue).sum();
         if (total == 0) {
@@ -239,27 +245,30 @@ public class ReportingService {
      */
     @Transactional(readOnly = true)
     public List<RecommendationDto> getRecommendations(UUID farmId) {
-        analyticsAccessService.loadFarmAndEnsureAnalyticsAccess(farmId);
-        List<ScoutingSession> sessions = sessionRepository.findByFarmId(farmId);
+        return getRecommendations(contextService.load(farmId));
+    }
+
+    public List<RecommendationDto> getRecommendations(FarmAnalyticsContext context) {
         List<RecommendationDto> recommendations = new ArrayList<>();
 
-        for (ScoutingSession session : sessions) {
-            if (session.getRecommendations() == null || session.getRecommendations().isEmpty()) continue;
+        for (SessionFact session : context.sessions()) {
+            List<RecommendationFact> sessionRecommendations = context.recommendations(session.id());
+            if (sessionRecommendations.isEmpty()) continue;
 
-            String scoutName = session.getScout() != null
-                    ? (session.getScout().getFirstName() + " " + session.getScout().getLastName()).trim()
+            String scoutName = session.scoutId() != null
+                    ? (session.scoutFirstName() + " " + session.scoutLastName()).trim()
                     : "Unknown";
-            String location = session.getGreenhouse() != null
-                    ? session.getGreenhouse().getName()
-                    : session.getFieldBlock() != null
-                    ? session.getFieldBlock().getName()
-                    : session.getFarm().getName();
+            String location = session.greenhouseName() != null
+                    ? session.greenhouseName()
+                    : session.fieldBlockName() != null
+                    ? session.fieldBlockName()
+                    : context.farmName();
 
-            String status = session.getStatus() != null ? session.getStatus().name().toLowerCase() : "unknown";
-            String date = session.getSessionDate() != null ? session.getSessionDate().toString() : "";
+            String status = session.status() != null ? session.status().name().toLowerCase() : "unknown";
+            String date = session.sessionDate() != null ? session.sessionDate().toString() : "";
 
-            session.getRecommendations().forEach((type, note) -> {
-                String priority = switch (type) {
+            for (RecommendationFact recommendation : sessionRecommendations) {
+                String priority = switch (recommendation.type()) {
                     case CHEMICAL_SPRAYS -> "critical";
                     case BIOLOGICAL_CONTROL -> "high";
                     case OTHER_METHODS -> "medium";
@@ -268,12 +277,12 @@ public class ReportingService {
                 recommendations.add(new RecommendationDto(
                         scoutName.isBlank() ? "Unknown" : scoutName,
                         location,
-                        note,
+                        recommendation.note(),
                         priority,
                         status,
                         date
                 ));
-            });
+            }
         }
 
         return recommendations;
@@ -284,26 +293,28 @@ public class ReportingService {
      */
     @Transactional(readOnly = true)
     public List<AlertDto> getAlerts(UUID farmId) {
-        analyticsAccessService.loadFarmAndEnsureAnalyticsAccess(farmId);
-        List<ScoutingObservation> observations = allObservationsForFarm(farmId);
+        return getAlerts(contextService.load(farmId));
+    }
 
-        return observations.stream()
-                .filter(o -> o.getCategory() != ObservationCategory.BENEFICIAL)
+    public List<AlertDto> getAlerts(FarmAnalyticsContext context) {
+        return context.observations().stream()
+                .filter(o -> o.category() != ObservationCategory.BENEFICIAL)
                 .map(o -> {
-                    SeverityLevel level = SeverityLevel.fromCount(o.getCount() == null ? 0 : o.getCount());
+                    SeverityLevel level = SeverityLevel.fromCount(o.countOrZero());
                     if (level.ordinal() < SeverityLevel.HIGH.ordinal()) {
                         return null;
                     }
 
-                    String location = "Bay " + (o.getBayLabel() != null ? o.getBayLabel() : o.getBayIndex())
-                            + " - Bench " + (o.getBenchLabel() != null ? o.getBenchLabel() : o.getBenchIndex());
+                    String location = "Bay " + (o.bayLabel() != null ? o.bayLabel() : o.bayIndex())
+                            + " - Bench " + (o.benchLabel() != null ? o.benchLabel() : o.benchIndex());
 
+                    LocalDate sessionDate = context.session(o.sessionId()).map(SessionFact::sessionDate).orElse(null);
                     return new AlertDto(
                             location,
                             speciesName(o),
                             toSeverityLabel(level),
-                            o.getCount() == null ? 0 : o.getCount(),
-                            o.getSession().getSessionDate() != null ? o.getSession().getSessionDate().toString() : ""
+                            o.countOrZero(),
+                            sessionDate != null ? sessionDate.toString() : ""
                     );
                 })
                 .filter(a -> a != null)
@@ -312,44 +323,11 @@ public class ReportingService {
     }
 
     /**
-     * Compares farms based on severity and observation counts.
+     * Compares farms based on severity and observation counts of their completed sessions, read from the
+     * pre-aggregated {@code farm_comparison_stats} table.
      */
-    @Transactional(readOnly = true)
     public List<FarmComparisonDto> getFarmComparison() {
-        List<Farm> farms = farmRepository.findAll();
-
-        return farms.stream()
-                .map(farm -> {
-                    List<ScoutingSession> sessions = sessionRepository.findByFarmId(farm.getId());
-                    if (sessions.isEmpty()) {
-                        return new FarmComparisonDto(farm.getName(), 0, 0, 0);
-                    }
-
-                    List<UUID> sessionIds = sessions.stream().map(ScoutingSession::getId).toList();
-                    List<ScoutingObservation> observations = observationRepository.findBySessionIdIn(sessionIds);
-
-                    int totalObservations = observations.stream()
-                            .mapToInt(o -> o.getCount() == null ? 0 : o.getCount())
-                            .sum();
-
-                    double averageSeverity = observations.isEmpty()
-                            ? 0
-                            : totalObservations / (double) observations.size();
-
-                    int alertCount = (int) observations.stream()
-                            .filter(o -> SeverityLevel.fromCount(o.getCount() == null ? 0 : o.getCount())
-                                    .ordinal() >= SeverityLevel.HIGH.ordinal())
-                            .count();
-
-                    return new FarmComparisonDto(
-                            farm.getName(),
-                            Math.round(averageSeverity * 10.0) / 10.0,
-                            totalObservations,
-                            alertCount
-                    );
-                })
-                .sorted(Comparator.comparingDouble(FarmComparisonDto::avgSeverity).reversed())
-                .toList();
+        return farmComparisonStatsService.getFarmComparison();
     }
 
     /**
@@ -357,76 +335,56 @@ public class ReportingService {
      */
     @Transactional(readOnly = true)
     public List<ScoutPerformanceDto> getScoutPerformance(UUID farmId) {
-        analyticsAccessService.loadFarmAndEnsureAnalyticsAccess(farmId);
-        List<ScoutingSession> sessions = sessionRepository.findByFarmId(farmId);
-        if (sessions.isEmpty()) {
+        return getScoutPerformance(contextService.load(farmId));
+    }
+
+    /**
+     * Scout performance from an already loaded context; only the photo accuracy counters are read separately.
+     */
+    @Transactional(readOnly = true)
+    public List<ScoutPerformanceDto> getScoutPerformance(FarmAnalyticsContext context) {
+        if (context.sessions().isEmpty()) {
             return List.of();
         }
+        UUID farmId = context.farmId();
 
-        List<UUID> sessionIds = sessions.stream().map(ScoutingSession::getId).toList();
-        Map<UUID, List<ScoutingObservation>> observationsBySession = observationRepository.findBySessionIdIn(sessionIds)
-                .stream()
-                .collect(Collectors.groupingBy(o -> o.getSession().getId()));
-
-        Map<UUID, List<ScoutingSession>> sessionsByScout = sessions.stream()
-                .filter(s -> s.getScout() != null)
-                .collect(Collectors.groupingBy(s -> s.getScout().getId()));
+        Map<UUID, List<SessionFact>> sessionsByScout = context.sessions().stream()
+                .filter(s -> s.scoutId() != null)
+                .collect(Collectors.groupingBy(SessionFact::scoutId, LinkedHashMap::new, Collectors.toList()));
 
-        Map<UUID, List<ScoutingPhotoAnalysis>> reviewedAnalysesByScout = photoAnalysisRepository
-                .findByFarmIdAndReviewStatusIn(
-                        farmId,
-                        List.of(PhotoAnalysisReviewStatus.CONFIRMED, PhotoAnalysisReviewStatus.CORRECTED)
-                )
+        if (photoAnalysisAccuracyService.farmCounter(farmId).isEmpty()) {
+            photoAnalysisAccuracyService.rebuild(farmId);
+        }
+        Map<String, PhotoAnalysisAccuracyCounter> accuracyByScout = photoAnalysisAccuracyService
+                .counters(farmId, PhotoAnalysisAccuracyScope.SCOUT)
                 .stream()
-                .filter(analysis -> analysis.getPhoto() != null)
-                .filter(analysis -> analysis.getPhoto().getSession() != null)
-                .filter(analysis -> analysis.getPhoto().getSession().getScout() != null)
-                .collect(Collectors.groupingBy(analysis -> analysis.getPhoto().getSession().getScout().getId()));
+                .collect(Collectors.toMap(PhotoAnalysisAccuracyCounter::getScopeKey, counter -> counter));
 
         List<ScoutPerformanceDto> performance = new ArrayList<>();
 
         for (var entry : sessionsByScout.entrySet()) {
             var scoutSessions = entry.getValue();
-            var scout = scoutSessions.getFirst().getScout();
-            List<ScoutingObservation> scoutObservations = scoutSessions.stream()
-                    .map(ScoutingSession::getId)
-                    .map(observationsBySession::get)
-                    .filter(Objects::nonNull)
-                    .flatMap(List::stream)
-                    .toList();
-            Set<String> observationKeys = scoutObservations.stream()
-                    .map(this::toObservationComparisonKey)
-                    .filter(Objects::nonNull)
-                    .collect(Collectors.toSet());
-
+            var scout = scoutSessions.getFirst();
             int totalObservationCount = scoutSessions.stream()
-                    .map(ScoutingSession::getId)
-                    .map(observationsBySession::get)
-                    .filter(list -> list != null)
-                    .flatMap(List::stream)
-                    .mapToInt(o -> o.getCount() == null ? 0 : o.getCount())
+                    .flatMap(s -> context.observations(s.id()).stream())
+                    .mapToInt(ObservationFact::countOrZero)
                     .sum();
 
-            List<ScoutingPhotoAnalysis> reviewedAnalyses = reviewedAnalysesByScout.getOrDefault(entry.getKey(), List.of());
-            List<ScoutingPhotoAnalysis> comparableAnalyses = reviewedAnalyses.stream()
-                    .filter(this::hasComparableScoutCell)
-                    .toList();
-            long exactMatchCount = comparableAnalyses.stream()
-                    .filter(analysis -> observationKeys.contains(toPhotoComparisonKey(analysis)))
-                    .count();
-            int accuracy = comparableAnalyses.isEmpty()
+            PhotoAnalysisAccuracyCounter scoutAccuracy = accuracyByScout.get(entry.getKey().toString());
+            long comparableCount = scoutAccuracy == null ? 0 : scoutAccuracy.getReviewedCount();
+            int accuracy = comparableCount == 0
                     ? 0
-                    : (int) Math.round((exactMatchCount * 100.0) / comparableAnalyses.size());
+                    : (int) Math.round((scoutAccuracy.getExactMatchCount() * 100.0) / comparableCount);
 
             String avgDuration = averageDuration(scoutSessions);
 
-            String scoutName = (scout.getFirstName() + " " + scout.getLastName()).trim();
+            String scoutName = (scout.scoutFirstName() + " " + scout.scoutLastName()).trim();
             performance.add(new ScoutPerformanceDto(
-                    scoutName.isBlank() ? scout.getEmail() : scoutName,
+                    scoutName.isBlank() ? scout.scoutEmail() : scoutName,
                     totalObservationCount,
                     accuracy,
                     avgDuration,
-                    comparableAnalyses.size()
+                    (int) comparableCount
             ));
         }
 
@@ -435,64 +393,6 @@ public class ReportingService {
                 .toList();
     }
 
-    private boolean hasComparableScoutCell(ScoutingPhotoAnalysis analysis) {
-        return toPhotoComparisonKey(analysis) != null;
-    }
-
-    private String toObservationComparisonKey(ScoutingObservation observation) {
-        if (observation.getSession() == null
-                || observation.getSessionTarget() == null
-                || observation.getBayIndex() == null
-                || observation.getBenchIndex() == null
-                || observation.getSpotIndex() == null
-                || observation.getSpeciesCode() == null) {
-            return null;
-        }
-
-        return observation.getSession().getId()
-                + "|" + observation.getSessionTarget().getId()
-                + "|" + observation.getBayIndex()
-                + "|" + observation.getBenchIndex()
-                + "|" + observation.getSpotIndex()
-                + "|" + observation.getSpeciesCode().name();
-    }
-
-    private String toPhotoComparisonKey(ScoutingPhotoAnalysis analysis) {
-        if (analysis.getReviewedSpeciesCode() == null || analysis.getPhoto() == null) {
-            return null;
-        }
-
-        if (analysis.getPhoto().getObservation() != null
-                && analysis.getPhoto().getObservation().getSession() != null
-                && analysis.getPhoto().getObservation().getSessionTarget() != null
-                && analysis.getPhoto().getObservation().getBayIndex() != null
-                && analysis.getPhoto().getObservation().getBenchIndex() != null
-                && analysis.getPhoto().getObservation().getSpotIndex() != null) {
-            ScoutingObservation observation = analysis.getPhoto().getObservation();
-            return observation.getSession().getId()
-                    + "|" + observation.getSessionTarget().getId()
-                    + "|" + observation.getBayIndex()
-                    + "|" + observation.getBenchIndex()
-                    + "|" + observation.getSpotIndex()
-                    + "|" + analysis.getReviewedSpeciesCode().name();
-        }
-
-        if (analysis.getPhoto().getSession() == null
-                || analysis.getPhoto().getSessionTarget() == null
-                || analysis.getPhoto().getBayIndex() == null
-                || analysis.getPhoto().getBenchIndex() == null
-                || analysis.getPhoto().getSpotIndex() == null) {
-            return null;
-        }
-
-        return analysis.getPhoto().getSession().getId()
-                + "|" + analysis.getPhoto().getSessionTarget().getId()
-                + "|" + analysis.getPhoto().getBayIndex()
-                + "|" + analysis.getPhoto().getBenchIndex()
-                + "|" + analysis.getPhoto().getSpotIndex()
-                + "|" + analysis.getReviewedSpeciesCode().name();
-    }
-
     private int sessionsInPeriod(UUID farmId, LocalDate start, LocalDate end) {
         return sessionRepository.findByFarmIdAndSessionDateBetween(farmId, start, end).size();
     }
@@ -552,17 +452,13 @@ public class ReportingService {
                 .count();
     }
 
-    private List<ScoutingObservation> allObservationsForFarm(UUID farmId) {
-        List<ScoutingSession> sessions = sessionRepository.findByFarmId(farmId);
-        if (sessions.isEmpty()) {
-            return List.of();
-        }
-
-        List<UUID> sessionIds = sessions.stream()
-                .map(ScoutingSession::getId)
-                .toList();
-
-        return observationRepository.findBySessionIdIn(sessionIds);
+    private Map<String, Long> countsBySpecies(FarmAnalyticsContext context, ObservationCategory category) {
+        return context.observations().stream()
+                .filter(o -> o.category() == category)
+                .collect(Collectors.groupingBy(
+                        this::speciesName,
+                        Collectors.summingLong(ObservationFact::countOrZero)
+                ));
     }
 
     private String toSeverityLabel(SeverityLevel level) {
@@ -575,7 +471,7 @@ public class ReportingService {
         };
     }
 
-    private String averageDuration(List<ScoutingSession> sessions) {
+    private String averageDuration(List<SessionFact> sessions) {
         List<Duration> durations = sessions.stream()
                 .map(this::sessionDuration)
                 .filter(d -> d != null)
@@ -598,17 +494,17 @@ public class ReportingService {
         return minutes + "m " + remainingSeconds + "s";
     }
 
-    private Duration sessionDuration(ScoutingSession session) {
-        LocalDateTime start = session.getStartedAt();
-        LocalDateTime end = session.getCompletedAt();
+    private Duration sessionDuration(SessionFact session) {
+        LocalDateTime start = session.startedAt();
+        LocalDateTime end = session.completedAt();
         if (start == null || end == null) {
             return null;
         }
         return Duration.between(start, end);
     }
 
-    private String speciesName(ScoutingObservation observation) {
-        String displayName = observation.getSpeciesDisplayName();
+    private String speciesName(ObservationFact observation) {
+        String displayName = observation.speciesDisplayName();
         return displayName == null ? "Unknown species" : displayName;
     }
 
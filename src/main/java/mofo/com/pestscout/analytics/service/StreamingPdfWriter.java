@@ -0,0 +1,211 @@
+package mofo.com.pestscout.analytics.service;
+
+import java.io.ByteArrayOutputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+
+/**
+ * Minimal PDF writer for plain text exports that streams pages to the output as they fill up.
+ * <p>
+ * Only the current page is held in memory: when it is full its content stream is Flate-compressed and written out
+ * together with its page object, and the byte offset of every object is recorded for the cross-reference table. The
+ * page tree, which has to list every page, is written last. This intentionally supports only the subset needed for
+ * raw-data exports.
+ */
+final class StreamingPdfWriter {
+
+    private static final int MAX_CHARS_PER_LINE = 92;
+    private static final int MAX_LINES_PER_PAGE = 44;
+    private static final int CATALOG_OBJECT = 1;
+    private static final int PAGES_OBJECT = 2;
+    private static final int FONT_OBJECT = 3;
+    private static final int FIRST_PAGE_OBJECT = 4;
+
+    private final CountingOutputStream out;
+    private final List<Long> objectOffsets = new ArrayList<>();
+    private final List<String> currentPage = new ArrayList<>(MAX_LINES_PER_PAGE);
+    private final ByteArrayOutputStream pageBuffer = new ByteArrayOutputStream(8 * 1024);
+    private final Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION);
+    private int pageCount;
+    private boolean finished;
+
+    StreamingPdfWriter(OutputStream target, String title) throws IOException {
+        this.out = new CountingOutputStream(target);
+        write("%PDF-1.4\n%âãÏÓ\n");
+        beginObject(CATALOG_OBJECT);
+        write("<< /Type /Catalog /Pages " + PAGES_OBJECT + " 0 R >>\nendobj\n");
+        beginObject(FONT_OBJECT);
+        write("<< /Type /Font /Subtype /Type1 /BaseFont /Helvetica /Encoding /WinAnsiEncoding >>\nendobj\n");
+
+        line(title);
+        line("");
+    }
+
+    /**
+     * Adds a line of text, wrapping it at the page width. Full pages are written out immediately.
+     */
+    void line(String text) throws IOException {
+        for (String wrapped : wrap(text)) {
+            if (currentPage.size() == MAX_LINES_PER_PAGE) {
+                flushPage();
+            }
+            currentPage.add(wrapped);
+        }
+    }
+
+    /**
+     * Writes the last page, the page tree and the trailer, then flushes the target. The target is left open.
+     */
+    void finish() throws IOException {
+        if (finished) {
+            return;
+        }
+        finished = true;
+        if (!currentPage.isEmpty() || pageCount == 0) {
+            flushPage();
+        }
+
+        beginObject(PAGES_OBJECT);
+        StringBuilder pages = new StringBuilder("<< /Type /Pages /Count ").append(pageCount).append(" /Kids [");
+        for (int i = 0; i < pageCount; i++) {
+            pages.append(pageObjectNumber(i)).append(" 0 R ");
+        }
+        write(pages.append("] >>\nendobj\n").toString());
+
+        long xrefOffset = out.count();
+        StringBuilder xref = new StringBuilder("xref\n0 ").append(objectOffsets.size() + 1).append('\n');
+        xref.append("0000000000 65535 f \n");
+        for (Long offset : objectOffsets) {
+            xref.append(String.format(Locale.ROOT, "%010d 00000 n \n", offset));
+        }
+        xref.append("trailer\n<< /Size ")
+                .append(objectOffsets.size() + 1)
+                .append(" /Root ").append(CATALOG_OBJECT).append(" 0 R >>\nstartxref\n")
+                .append(xrefOffset)
+                .append("\n%%EOF");
+        write(xref.toString());
+        out.flush();
+        deflater.end();
+    }
+
+    private void flushPage() throws IOException {
+        int pageObjectNumber = pageObjectNumber(pageCount);
+        int contentObjectNumber = pageObjectNumber + 1;
+
+        pageBuffer.reset();
+        deflater.reset();
+        try (DeflaterOutputStream compressed = new DeflaterOutputStream(pageBuffer, deflater)) {
+            compressed.write(buildContentStream(currentPage).getBytes(StandardCharsets.ISO_8859_1));
+        }
+
+        beginObject(pageObjectNumber);
+        write("<< /Type /Page /Parent " + PAGES_OBJECT + " 0 R /MediaBox [0 0 612 792] "
+                + "/Resources << /Font << /F1 " + FONT_OBJECT + " 0 R >> >> /Contents "
+                + contentObjectNumber + " 0 R >>\nendobj\n");
+
+        beginObject(contentObjectNumber);
+        write("<< /Length " + pageBuffer.size() + " /Filter /FlateDecode >>\nstream\n");
+        pageBuffer.writeTo(out);
+        write("\nendstream\nendobj\n");
+
+        currentPage.clear();
+        pageCount++;
+    }
+
+    private void beginObject(int objectNumber) throws IOException {
+        while (objectOffsets.size() < objectNumber) {
+            objectOffsets.add(0L);
+        }
+        objectOffsets.set(objectNumber - 1, out.count());
+        write(objectNumber + " 0 obj\n");
+    }
+
+    private void write(String text) throws IOException {
+        out.write(text.getBytes(StandardCharsets.ISO_8859_1));
+    }
+
+    private List<String> wrap(String line) {
+        if (line == null || line.isBlank()) {
+            return List.of("");
+        }
+
+        List<String> wrapped = new ArrayList<>();
+        String remaining = line.trim();
+        while (remaining.length() > MAX_CHARS_PER_LINE) {
+            int breakIndex = remaining.lastIndexOf(' ', MAX_CHARS_PER_LINE);
+            if (breakIndex < 0) {
+                breakIndex = MAX_CHARS_PER_LINE;
+            }
+            wrapped.add(remaining.substring(0, breakIndex).trim());
+            remaining = remaining.substring(breakIndex).trim();
+        }
+        if (!remaining.isEmpty()) {
+            wrapped.add(remaining);
+        }
+        return wrapped;
+    }
+
+    private String buildContentStream(List<String> lines) {
+        StringBuilder stream = new StringBuilder();
+        stream.append("BT\n/F1 10 Tf\n14 TL\n50 760 Td\n");
+        for (String line : lines) {
+            stream.append('(').append(escape(line)).append(") Tj\nT*\n");
+        }
+        stream.append("ET\n");
+        return stream.toString();
+    }
+
+    /**
+     * Escapes PDF string delimiters and replaces characters outside the Latin-1 range the font is encoded for.
+     */
+    private String escape(String value) {
+        StringBuilder escaped = new StringBuilder(value.length());
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '\\', '(', ')' -> escaped.append('\\').append(c);
+                default -> escaped.append(c < 0x20 || c > 0xFF ? '?' : c);
+            }
+        }
+        return escaped.toString();
+    }
+
+    private static int pageObjectNumber(int pageIndex) {
+        return FIRST_PAGE_OBJECT + (pageIndex * 2);
+    }
+
+    /**
+     * Tracks how many bytes have been written so object offsets can be recorded without buffering the document.
+     */
+    private static final class CountingOutputStream extends FilterOutputStream {
+
+        private long count;
+
+        CountingOutputStream(OutputStream target) {
+            super(target);
+        }
+
+        long count() {
+            return count;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+            count += len;
+        }
+    }
+}
@@ -2,6 +2,8 @@ package mofo.com.pestscout.analytics.service;
 
 import lombok.RequiredArgsConstructor;
 import mofo.com.pestscout.analytics.dto.*;
+import mofo.com.pestscout.analytics.model.ObservationFact;
+import mofo.com.pestscout.analytics.model.SessionFact;
 import mofo.com.pestscout.scouting.model.ObservationCategory;
 import mofo.com.pestscout.scouting.model.ScoutingObservation;
 import mofo.com.pestscout.scouting.model.SeverityLevel;
@@ -24,44 +26,36 @@ public class TrendAnalysisService {
     private final ScoutingSessionRepository sessionRepo;
     private final ScoutingObservationRepository obsRepo;
     private final AnalyticsAccessService analyticsAccessService;
+    private final FarmAnalyticsContextService contextService;
 
     @Transactional(readOnly = true)
     public List<WeeklyPestTrendDto> getWeeklyPestTrends(UUID farmId) {
-        analyticsAccessService.loadFarmAndEnsureAnalyticsAccess(farmId);
-        LocalDate today = LocalDate.now();
+        LocalDate windowStart = trendWindowStart(LocalDate.now());
+        return getWeeklyPestTrends(contextService.load(farmId, windowStart, trendWindowEnd(windowStart)));
+    }
+
+    /**
+     * Weekly pest counts for the current ISO week and the six before it, computed from an already loaded context.
+     */
+    public List<WeeklyPestTrendDto> getWeeklyPestTrends(FarmAnalyticsContext context) {
         WeekFields weekFields = WeekFields.ISO;
-        LocalDate startOfCurrentWeek = today.with(weekFields.dayOfWeek(), 1);
-        LocalDate windowStart = startOfCurrentWeek.minusWeeks(6);
-        LocalDate windowEnd = startOfCurrentWeek.plusDays(6);
+        LocalDate windowStart = trendWindowStart(context.today());
+        LocalDate windowEnd = trendWindowEnd(windowStart);
 
-        var sessions = sessionRepo.findByFarmIdAndSessionDateBetween(farmId, windowStart, windowEnd);
+        var sessions = context.sessionsBetween(windowStart, windowEnd);
         if (sessions.isEmpty()) {
             return List.of();
         }
 
-        Map<UUID, WeekBucketKey> sessionWeek = sessions.stream()
-                .collect(Collectors.toMap(
-                        s -> s.getId(),
-                        s -> new WeekBucketKey(
-                                s.getSessionDate().get(weekFields.weekOfWeekBasedYear()),
-                                s.getSessionDate().get(weekFields.weekBasedYear())
-                        )
-                ));
-
-        List<UUID> sessionIds = sessions.stream().map(s -> s.getId()).toList();
-        List<ScoutingObservation> observations = obsRepo.findBySessionIdIn(sessionIds);
-
         Map<WeekBucketKey, PestWeekCounts> weekToCounts = new HashMap<>();
-        for (ScoutingObservation observation : observations) {
-            if (observation.getCategory() != ObservationCategory.PEST) {
-                continue;
+        for (SessionFact session : sessions) {
+            WeekBucketKey weekKey = WeekBucketKey.of(session.sessionDate());
+            for (ObservationFact observation : context.observations(session.id())) {
+                if (observation.category() != ObservationCategory.PEST) {
+                    continue;
+                }
+                weekToCounts.computeIfAbsent(weekKey, k -> new PestWeekCounts()).apply(observation);
             }
-
-            WeekBucketKey weekKey = sessionWeek.get(observation.getSession().getId());
-            if (weekKey == null) continue;
-
-            PestWeekCounts counts = weekToCounts.computeIfAbsent(weekKey, k -> new PestWeekCounts());
-            counts.apply(observation);
         }
 
         return IntStream.rangeClosed(0, 6)
@@ -88,42 +82,33 @@ public class TrendAnalysisService {
 
     @Transactional(readOnly = true)
     public List<SeverityTrendPointDto> getSeverityTrend(UUID farmId) {
-        analyticsAccessService.loadFarmAndEnsureAnalyticsAccess(farmId);
-        LocalDate today = LocalDate.now();
+        LocalDate windowStart = trendWindowStart(LocalDate.now());
+        return getSeverityTrend(contextService.load(farmId, windowStart, trendWindowEnd(windowStart)));
+    }
+
+    /**
+     * Weekly severity buckets for the current ISO week and the six before it, computed from an already loaded context.
+     */
+    public List<SeverityTrendPointDto> getSeverityTrend(FarmAnalyticsContext context) {
         WeekFields weekFields = WeekFields.ISO;
-        LocalDate startOfCurrentWeek = today.with(weekFields.dayOfWeek(), 1);
-        LocalDate windowStart = startOfCurrentWeek.minusWeeks(6);
-        LocalDate windowEnd = startOfCurrentWeek.plusDays(6);
+        LocalDate windowStart = trendWindowStart(context.today());
+        LocalDate windowEnd = trendWindowEnd(windowStart);
 
-        var sessions = sessionRepo.findByFarmIdAndSessionDateBetween(farmId, windowStart, windowEnd);
+        var sessions = context.sessionsBetween(windowStart, windowEnd);
         if (sessions.isEmpty()) {
             return List.of();
         }
 
-        Map<UUID, WeekBucketKey> sessionWeek = sessions.stream()
-                .collect(Collectors.toMap(
-                        s -> s.getId(),
-                        s -> new WeekBucketKey(
-                                s.getSessionDate().get(weekFields.weekOfWeekBasedYear()),
-                                s.getSessionDate().get(weekFields.weekBasedYear())
-                        )
-                ));
-
-        List<UUID> sessionIds = sessions.stream().map(s -> s.getId()).toList();
-        List<ScoutingObservation> observations = obsRepo.findBySessionIdIn(sessionIds);
-
         Map<WeekBucketKey, SeverityWeekCounts> weeklyBuckets = new HashMap<>();
-        for (ScoutingObservation observation : observations) {
-            if (observation.getCategory() == ObservationCategory.BENEFICIAL) {
-                continue;
+        for (SessionFact session : sessions) {
+            WeekBucketKey weekKey = WeekBucketKey.of(session.sessionDate());
+            for (ObservationFact observation : context.observations(session.id())) {
+                if (observation.category() == ObservationCategory.BENEFICIAL) {
+                    continue;
+                }
+                SeverityLevel level = SeverityLevel.fromCount(observation.countOrZero());
+                weeklyBuckets.computeIfAbsent(weekKey, k -> new SeverityWeekCounts()).apply(level);
             }
-
-            WeekBucketKey weekKey = sessionWeek.get(observation.getSession().getId());
-            if (weekKey == null) continue;
-
-            SeverityLevel level = SeverityLevel.fromCount(Optional.ofNullable(observation.getCount()).orElse(0));
-            SeverityWeekCounts buckets = weeklyBuckets.computeIfAbsent(weekKey, k -> new SeverityWeekCounts());
-            buckets.apply(level);
         }
 
         return IntStream.rangeClosed(0, 6)
@@ -232,44 +217,61 @@ public class TrendAnalysisService {
             LocalDate from,
             LocalDate to
     ) {
-        analyticsAccessService.loadFarmAndEnsureAnalyticsAccess(farmId);
-        var sessions = sessionRepo.findByFarmIdAndSessionDateBetween(farmId, from, to);
-        Map<LocalDate, Integer> dateToSeverity = new TreeMap<>();
+        return getPestTrend(contextService.load(farmId, from, to), speciesCode, from, to);
+    }
 
-        for (var session : sessions) {
-            var observations = obsRepo.findBySessionIdIn(List.of(session.getId()));
+    /**
+     * Daily totals for one species between {@code from} and {@code to}, computed from an already loaded context.
+     */
+    public PestTrendResponse getPestTrend(FarmAnalyticsContext context, String speciesCode, LocalDate from, LocalDate to) {
+        Map<LocalDate, Integer> dateToSeverity = new TreeMap<>();
 
-            int total = observations.stream()
-                    .filter(o -> matchesSpeciesQuery(o, speciesCode))
-                    .mapToInt(o -> Optional.ofNullable(o.getCount()).orElse(0))
+        for (SessionFact session : context.sessionsBetween(from, to)) {
+            int total = context.observations(session.id()).stream()
+                    .filter(o -> matchesSpeciesQuery(o.speciesCode(), o.speciesDisplayName(), o.resolveSpeciesIdentifier(), speciesCode))
+                    .mapToInt(ObservationFact::countOrZero)
                     .sum();
 
-            dateToSeverity.merge(session.getSessionDate(), total, Integer::sum);
+            dateToSeverity.merge(session.sessionDate(), total, Integer::sum);
         }
 
         List<TrendPointDto> points = dateToSeverity.entrySet().stream()
                 .map(e -> new TrendPointDto(e.getKey(), e.getValue()))
                 .toList();
 
-        return new PestTrendResponse(farmId, speciesCode, points);
+        return new PestTrendResponse(context.farmId(), speciesCode, points);
+    }
+
+    private static LocalDate trendWindowStart(LocalDate today) {
+        return today.with(WeekFields.ISO.dayOfWeek(), 1).minusWeeks(6);
+    }
+
+    private static LocalDate trendWindowEnd(LocalDate windowStart) {
+        return windowStart.plusWeeks(7).minusDays(1);
     }
 
     private boolean matchesSpeciesQuery(ScoutingObservation observation, String speciesQuery) {
+        return matchesSpeciesQuery(
+                observation.getSpeciesCode(),
+                observation.getSpeciesDisplayName(),
+                observation.resolveSpeciesIdentifier(),
+                speciesQuery
+        );
+    }
+
+    private boolean matchesSpeciesQuery(SpeciesCode speciesCode, String displayName, String identifier, String speciesQuery) {
         if (speciesQuery == null || speciesQuery.isBlank()) {
             return false;
         }
 
-        SpeciesCode speciesCode = observation.getSpeciesCode();
         if (speciesCode != null && speciesCode.name().equalsIgnoreCase(speciesQuery)) {
             return true;
         }
 
-        String displayName = observation.getSpeciesDisplayName();
         if (displayName != null && displayName.equalsIgnoreCase(speciesQuery)) {
             return true;
         }
 
-        String identifier = observation.resolveSpeciesIdentifier();
         return identifier != null && identifier.equalsIgnoreCase(speciesQuery);
     }
 
@@ -300,9 +302,9 @@ public class TrendAnalysisService {
         int fcm;
         int otherPests;
 
-        void apply(ScoutingObservation observation) {
-            int count = Optional.ofNullable(observation.getCount()).orElse(0);
-            SpeciesCode speciesCode = observation.getSpeciesCode();
+        void apply(ObservationFact observation) {
+            int count = observation.countOrZero();
+            SpeciesCode speciesCode = observation.speciesCode();
             if (speciesCode == null) {
                 otherPests += count;
                 return;
@@ -321,6 +323,13 @@ public class TrendAnalysisService {
     }
 
     private record WeekBucketKey(int weekNumber, int year) {
+
+        static WeekBucketKey of(LocalDate date) {
+            return new WeekBucketKey(
+                    date.get(WeekFields.ISO.weekOfWeekBasedYear()),
+                    date.get(WeekFields.ISO.weekBasedYear())
+            );
+        }
     }
 
     private record GreenhouseWeekKey(
@@ -0,0 +1,39 @@
+package mofo.com.pestscout.analytics.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import mofo.com.pestscout.analytics.repository.WeeklyAnalyticsCounterRepository;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.UUID;
+
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class WeeklyAnalyticsDriftScheduler {
+
+    private final WeeklyAnalyticsCounterRepository counterRepository;
+    private final WeeklyAnalyticsService weeklyAnalyticsService;
+    private final MeterRegistry meterRegistry;
+
+    @Scheduled(cron = "${app.analytics.weekly.drift-check-cron:0 45 2 * * *}")
+    public void checkAll() {
+        int checked = 0;
+        int drifted = 0;
+        for (UUID farmId : counterRepository.findBuiltFarmIds()) {
+            try {
+                int counters = weeklyAnalyticsService.repairDrift(farmId);
+                if (counters > 0) {
+                    meterRegistry.counter("analytics.weekly.drift").increment(counters);
+                    drifted++;
+                }
+                checked++;
+            } catch (RuntimeException ex) {
+                log.warn("Failed to check weekly analytics drift for farm {}", farmId, ex);
+            }
+        }
+        log.info("Checked weekly analytics of {} farm(s); repaired drift in {}.", checked, drifted);
+    }
+}
@@ -0,0 +1,302 @@
+package mofo.com.pestscout.analytics.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import mofo.com.pestscout.analytics.model.ObservationFact;
+import mofo.com.pestscout.analytics.model.SessionFact;
+import mofo.com.pestscout.analytics.model.WeeklyAnalyticsCounter;
+import mofo.com.pestscout.analytics.model.WeeklyAnalyticsMetric;
+import mofo.com.pestscout.analytics.repository.FarmAnalyticsRepository;
+import mofo.com.pestscout.analytics.repository.WeeklyAnalyticsCounterRepository;
+import mofo.com.pestscout.scouting.config.ScoutingArchiveProperties;
+import mofo.com.pestscout.scouting.model.ObservationCategory;
+import mofo.com.pestscout.scouting.model.ScoutingSession;
+import mofo.com.pestscout.scouting.model.SessionStatus;
+import mofo.com.pestscout.scouting.model.SeverityLevel;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.WeekFields;
+import java.util.*;
+
+/**
+ * Maintains the weekly farm analytics read model: per farm and ISO week, session counts by status, observation
+ * totals by category and pest/disease severity bucket counts.
+ * <p>
+ * Callers take a {@link SessionSnapshot} before changing a session's date or status and pass it to {@link #record}
+ * with the saved session; only the difference is applied. Committed observations only change when a session is
+ * submitted, so that transition snapshots them as well. A farm is only maintained once it has been built by
+ * {@link #rebuild}, which readers trigger on first access; until then transitions are left to that rebuild. Rebuilds
+ * leave the weeks before the session archive cutoff as they are, since their sessions may no longer be in the
+ * scouting tables.
+ * {@link #repairDrift} recomputes a built farm and rewrites its counters if transitions have drifted from the
+ * scouting tables.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class WeeklyAnalyticsService {
+
+    /**
+     * Week and key of the {@link WeeklyAnalyticsMetric#BUILT} row; the week lies before any data readers query.
+     */
+    static final LocalDate BUILT_MARKER_WEEK = LocalDate.of(1970, 1, 5);
+    static final String BUILT_MARKER_KEY = "FARM";
+
+    private final WeeklyAnalyticsCounterRepository counterRepository;
+    private final FarmAnalyticsRepository farmAnalyticsRepository;
+    private final ScoutingArchiveProperties archiveProperties;
+
+    /**
+     * Monday of the ISO week containing {@code date}.
+     */
+    public static LocalDate weekStart(LocalDate date) {
+        return date.with(WeekFields.ISO.dayOfWeek(), 1);
+    }
+
+    /**
+     * Where the session is currently counted. Must be taken before its date or status is changed.
+     */
+    public SessionSnapshot snapshot(ScoutingSession session) {
+        return new SessionSnapshot(session.getFarm().getId(), weekStartOf(session), session.getStatus(), null);
+    }
+
+    /**
+     * Like {@link #snapshot}, but also captures the session's committed observations. Must be taken before they are
+     * replaced.
+     */
+    public SessionSnapshot snapshotWithObservations(ScoutingSession session) {
+        return new SessionSnapshot(session.getFarm().getId(), weekStartOf(session), session.getStatus(),
+                observationTotals(farmAnalyticsRepository.findSessionObservationFacts(session.getId())));
+    }
+
+    /**
+     * Applies the change from {@code before} (null for a new session) to the current state of {@code after}
+     * (null for a deleted session).
+     */
+    @Transactional
+    public void record(SessionSnapshot before, ScoutingSession after) {
+        UUID farmId = before != null ? before.farmId() : after != null ? after.getFarm().getId() : null;
+        if (farmId == null || !counterRepository.existsByFarmId(farmId)) {
+            // Not built yet; the first read rebuilds the farm from the scouting tables, including this change.
+            return;
+        }
+
+        Map<CounterKey, Long> deltas = new LinkedHashMap<>();
+        LocalDate afterWeek = after != null ? weekStartOf(after) : null;
+
+        if (before != null && before.weekStart() != null) {
+            add(deltas, before.farmId(), before.weekStart(), WeeklyAnalyticsMetric.SESSIONS,
+                    before.status().name(), -1);
+        }
+        if (afterWeek != null) {
+            add(deltas, after.getFarm().getId(), afterWeek, WeeklyAnalyticsMetric.SESSIONS,
+                    after.getStatus().name(), 1);
+        }
+
+        Map<Measure, Long> removed = Map.of();
+        Map<Measure, Long> added = Map.of();
+        if (before != null && before.observations() != null) {
+            removed = before.observations();
+            if (after != null) {
+                added = observationTotals(farmAnalyticsRepository.findSessionObservationFacts(after.getId()));
+            }
+        } else if (before != null && after != null && !Objects.equals(before.weekStart(), afterWeek)) {
+            // Same observations, counted in another week.
+            removed = observationTotals(farmAnalyticsRepository.findSessionObservationFacts(after.getId()));
+            added = removed;
+        }
+        if (before != null && before.weekStart() != null) {
+            removed.forEach((measure, total) ->
+                    add(deltas, before.farmId(), before.weekStart(), measure.metric(), measure.key(), -total));
+        }
+        if (afterWeek != null) {
+            added.forEach((measure, total) ->
+                    add(deltas, after.getFarm().getId(), afterWeek, measure.metric(), measure.key(), total));
+        }
+
+        apply(deltas);
+    }
+
+    /**
+     * True once the farm's read model has been built by a {@link #rebuild}.
+     */
+    @Transactional(readOnly = true)
+    public boolean isInitialized(UUID farmId) {
+        return counterRepository.existsByFarmId(farmId);
+    }
+
+    /**
+     * Every counter of the farm for the ISO weeks starting between {@code fromWeekStart} and {@code toWeekStart}.
+     */
+    @Transactional(readOnly = true)
+    public List<WeeklyAnalyticsCounter> counters(UUID farmId, LocalDate fromWeekStart, LocalDate toWeekStart) {
+        return counterRepository.findByFarmIdAndWeekStartBetween(farmId, fromWeekStart, toWeekStart);
+    }
+
+    /**
+     * Recomputes every counter of the farm from its sessions and committed observations. Runs in its own
+     * transaction so read-only callers can use it to initialise a farm on first access. Overlapping rebuilds write
+     * identical totals. Always leaves the farm's {@link WeeklyAnalyticsMetric#BUILT} row behind, so a farm without
+     * sessions is not rebuilt on every read.
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void rebuild(UUID farmId) {
+        LocalDate frozenBefore = frozenBefore(farmId);
+        Map<CounterKey, Long> totals = computeTotals(farmId, frozenBefore);
+        write(farmId, frozenBefore, totals);
+        log.info("Rebuilt weekly analytics for farm {} ({} counters)", farmId, totals.size());
+    }
+
+    /**
+     * Compares a built farm's counters with totals recomputed from the scouting tables and rewrites them if any
+     * differ. Weeks kept from before the archive cutoff are not compared. Returns the number of counters that had
+     * drifted.
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public int repairDrift(UUID farmId) {
+        if (!counterRepository.existsByFarmId(farmId)) {
+            return 0;
+        }
+        LocalDate frozenBefore = frozenBefore(farmId);
+        Map<CounterKey, Long> expected = computeTotals(farmId, frozenBefore);
+
+        Map<CounterKey, Long> stored = new HashMap<>();
+        for (WeeklyAnalyticsCounter counter : counterRepository.findByFarmId(farmId)) {
+            if (counter.getMetric() == WeeklyAnalyticsMetric.BUILT
+                    || (frozenBefore != null && counter.getWeekStart().isBefore(frozenBefore))) {
+                continue;
+            }
+            stored.put(new CounterKey(farmId, counter.getWeekStart(), counter.getMetric(), counter.getMetricKey()),
+                    counter.getTotal());
+        }
+
+        Set<CounterKey> keys = new HashSet<>(expected.keySet());
+        keys.addAll(stored.keySet());
+        int drifted = 0;
+        for (CounterKey key : keys) {
+            if (expected.getOrDefault(key, 0L) != stored.getOrDefault(key, 0L).longValue()) {
+                drifted++;
+            }
+        }
+        if (drifted > 0) {
+            log.warn("Weekly analytics for farm {} had {} drifted counter(s); rewriting them", farmId, drifted);
+            write(farmId, frozenBefore, expected);
+        }
+        return drifted;
+    }
+
+    /**
+     * First whole week on or after the archive cutoff. Once a farm is built, earlier weeks may have lost sessions to
+     * the archive and are kept as they are; null means every week is recomputed.
+     */
+    private LocalDate frozenBefore(UUID farmId) {
+        return archiveProperties.sessionCutoff(LocalDate.now())
+                .filter(cutoff -> counterRepository.existsByFarmId(farmId))
+                .map(cutoff -> weekStart(cutoff).equals(cutoff) ? cutoff : weekStart(cutoff).plusWeeks(1))
+                .orElse(null);
+    }
+
+    private Map<CounterKey, Long> computeTotals(UUID farmId, LocalDate frozenBefore) {
+        Map<UUID, LocalDate> weekBySession = new HashMap<>();
+        Map<CounterKey, Long> totals = new LinkedHashMap<>();
+        for (SessionFact session : farmAnalyticsRepository.findSessionFacts(farmId)) {
+            if (session.sessionDate() == null) {
+                continue;
+            }
+            LocalDate week = weekStart(session.sessionDate());
+            if (frozenBefore != null && week.isBefore(frozenBefore)) {
+                continue;
+            }
+            weekBySession.put(session.id(), week);
+            add(totals, farmId, week, WeeklyAnalyticsMetric.SESSIONS, session.status().name(), 1);
+        }
+
+        Map<UUID, List<ObservationFact>> observationsBySession = new HashMap<>();
+        for (ObservationFact observation : farmAnalyticsRepository.findObservationFacts(farmId)) {
+            observationsBySession.computeIfAbsent(observation.sessionId(), id -> new ArrayList<>()).add(observation);
+        }
+        observationsBySession.forEach((sessionId, observations) -> {
+            LocalDate week = weekBySession.get(sessionId);
+            if (week != null) {
+                observationTotals(observations).forEach((measure, total) ->
+                        add(totals, farmId, week, measure.metric(), measure.key(), total));
+            }
+        });
+        return totals;
+    }
+
+    private void write(UUID farmId, LocalDate frozenBefore, Map<CounterKey, Long> totals) {
+        if (frozenBefore != null) {
+            counterRepository.deleteByFarmIdFrom(farmId, frozenBefore);
+        } else {
+            counterRepository.deleteByFarmId(farmId);
+        }
+        LocalDateTime now = LocalDateTime.now();
+        // The marker week precedes any archive cutoff, so a partial delete keeps it and this insert is a no-op.
+        counterRepository.insertIfAbsent(UUID.randomUUID(), farmId, BUILT_MARKER_WEEK,
+                WeeklyAnalyticsMetric.BUILT.name(), BUILT_MARKER_KEY, now);
+        totals.forEach((key, total) -> {
+            counterRepository.insertIfAbsent(UUID.randomUUID(), key.farmId(), key.weekStart(), key.metric().name(),
+                    key.key(), now);
+            counterRepository.assign(key.farmId(), key.weekStart(), key.metric(), key.key(), total, now);
+        });
+    }
+
+    private void apply(Map<CounterKey, Long> deltas) {
+        LocalDateTime now = LocalDateTime.now();
+        deltas.forEach((key, delta) -> {
+            if (delta == 0) {
+                return;
+            }
+            counterRepository.insertIfAbsent(UUID.randomUUID(), key.farmId(), key.weekStart(), key.metric().name(),
+                    key.key(), now);
+            counterRepository.increment(key.farmId(), key.weekStart(), key.metric(), key.key(), delta, now);
+        });
+    }
+
+    private static Map<Measure, Long> observationTotals(List<ObservationFact> observations) {
+        Map<Measure, Long> totals = new HashMap<>();
+        for (ObservationFact observation : observations) {
+            ObservationCategory category = observation.category();
+            if (category == null) {
+                continue;
+            }
+            int count = observation.countOrZero();
+            totals.merge(new Measure(WeeklyAnalyticsMetric.CATEGORY_TOTAL, category.name()), (long) count, Long::sum);
+            if (category == ObservationCategory.PEST || category == ObservationCategory.DISEASE) {
+                totals.merge(new Measure(WeeklyAnalyticsMetric.SEVERITY_BUCKET, SeverityLevel.fromCount(count).name()),
+                        1L, Long::sum);
+            }
+        }
+        return totals;
+    }
+
+    private static void add(Map<CounterKey, Long> deltas, UUID farmId, LocalDate weekStart,
+                            WeeklyAnalyticsMetric metric, String key, long delta) {
+        deltas.merge(new CounterKey(farmId, weekStart, metric, key), delta, Long::sum);
+    }
+
+    private static LocalDate weekStartOf(ScoutingSession session) {
+        return session.getSessionDate() != null ? weekStart(session.getSessionDate()) : null;
+    }
+
+    /**
+     * Where a session was counted before a change, and optionally what its committed observations added.
+     */
+    public record SessionSnapshot(UUID farmId, LocalDate weekStart, SessionStatus status,
+                                  Map<Measure, Long> observations) {
+    }
+
+    /**
+     * A metric and key within one week.
+     */
+    public record Measure(WeeklyAnalyticsMetric metric, String key) {
+    }
+
+    private record CounterKey(UUID farmId, LocalDate weekStart, WeeklyAnalyticsMetric metric, String key) {
+    }
+}
@@ -0,0 +1,65 @@
+package mofo.com.pestscout.analytics.storage;
+
+import mofo.com.pestscout.analytics.config.ExportJobProperties;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Finished export documents on disk, one file per job. Artifacts are written through a temporary file and moved into
+ * place, so a reader never sees a partial document and a failed build leaves nothing behind.
+ */
+@Component
+public class ExportArtifactStore {
+
+    private static final int WRITE_BUFFER_BYTES = 64 * 1024;
+
+    private final Path root;
+
+    public ExportArtifactStore(ExportJobProperties properties) {
+        this.root = Path.of(properties.getRoot()).toAbsolutePath().normalize();
+    }
+
+    /**
+     * Streams an artifact into place and returns its size in bytes.
+     */
+    public long write(UUID jobId, String extension, ArtifactWriter writer) throws IOException {
+        Files.createDirectories(root);
+        Path target = pathFor(jobId, extension);
+        Path temp = Files.createTempFile(root, jobId.toString(), ".part");
+        try {
+            try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(temp), WRITE_BUFFER_BYTES)) {
+                writer.writeTo(out);
+            }
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            return Files.size(target);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    public Optional<Path> find(UUID jobId, String extension) {
+        Path path = pathFor(jobId, extension);
+        return Files.isRegularFile(path) ? Optional.of(path) : Optional.empty();
+    }
+
+    public void delete(UUID jobId, String extension) throws IOException {
+        Files.deleteIfExists(pathFor(jobId, extension));
+    }
+
+    private Path pathFor(UUID jobId, String extension) {
+        return root.resolve(jobId + "." + extension);
+    }
+
+    @FunctionalInterface
+    public interface ArtifactWriter {
+        void writeTo(OutputStream out) throws IOException;
+    }
+}
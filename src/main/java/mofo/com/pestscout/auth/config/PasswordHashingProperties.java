@@ -0,0 +1,22 @@
+package mofo.com.pestscout.auth.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Sizing for the dedicated BCrypt worker pool. At most {@code threads} hashes run at once and at most
+ * {@code queueCapacity} more may wait; anything beyond that is rejected with {@code 429} and a
+ * {@code Retry-After} of {@code retryAfterSeconds}, so a login burst cannot tie up every request thread.
+ */
+@Component
+@ConfigurationProperties(prefix = "app.auth.password-hashing")
+@Getter
+@Setter
+public class PasswordHashingProperties {
+
+    private int threads = Runtime.getRuntime().availableProcessors();
+    private int queueCapacity = 64;
+    private long retryAfterSeconds = 2;
+}
@@ -0,0 +1,42 @@
+package mofo.com.pestscout.auth.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import java.util.UUID;
+
+/**
+ * Tuning for the client session event streams. Streams are spread across a fixed number of dispatcher shards so a
+ * slow connection only delays the streams that share its shard, and each stream buffers a bounded number of
+ * undelivered events before it is treated as a slow consumer and closed. A single write that takes longer than
+ * {@code sendTimeoutMs} closes the stream as well.
+ * <p>
+ * The cluster settings control the shared event outbox that lets a node deliver events published by its peers.
+ * {@code clusterCatchUpWindowMs} is how long a gap in the outbox sequence is waited for before it is taken as a
+ * rolled-back insert, so it must cover the longest expected commit delay.
+ */
+@Component
+@ConfigurationProperties(prefix = "app.auth.session-stream")
+@Getter
+@Setter
+public class SessionStreamProperties {
+
+    private int shardCount = 4;
+    private int sendQueueCapacity = 16;
+    private long slowConsumerTimeoutMs = 60000;
+    private long sendTimeoutMs = 10000;
+
+    private boolean clusterEnabled = true;
+    private long clusterCatchUpWindowMs = 10000;
+    private long clusterRetentionMinutes = 10;
+    private String nodeId = UUID.randomUUID().toString();
+
+    public void setNodeId(String nodeId) {
+        if (StringUtils.hasText(nodeId)) {
+            this.nodeId = nodeId.trim();
+        }
+    }
+}
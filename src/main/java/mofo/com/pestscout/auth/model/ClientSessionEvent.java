@@ -0,0 +1,59 @@
+package mofo.com.pestscout.auth.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.*;
+import lombok.experimental.SuperBuilder;
+import mofo.com.pestscout.common.model.BaseEntity;
+import mofo.com.pestscout.common.model.ClusterOutboxEvent;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Outbox row for a session stream event. Rows are written in the same transaction as the session change that caused
+ * them and polled by every node, so the node that holds the affected client's stream can deliver the event.
+ */
+@Entity
+@Table(name = "client_session_events", indexes = {
+        @Index(name = "idx_client_session_events_occurred_at", columnList = "occurred_at"),
+        @Index(name = "idx_client_session_events_sequence", columnList = "sequence_number")
+})
+@Getter
+@Setter
+@SuperBuilder
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@AllArgsConstructor(access = AccessLevel.PROTECTED)
+public class ClientSessionEvent extends BaseEntity implements ClusterOutboxEvent {
+
+    @Column(name = "user_id", nullable = false)
+    private UUID userId;
+
+    @Column(name = "event_type", nullable = false, length = 64)
+    private String eventType;
+
+    @Column(name = "client_session_id", nullable = false, length = 128)
+    private String clientSessionId;
+
+    @Column(name = "active_client_session_id", length = 128)
+    private String activeClientSessionId;
+
+    @Column(name = "sequence_number", insertable = false, updatable = false,
+            columnDefinition = "bigint generated always as identity")
+    private Long sequenceNumber;
+
+    @Column(name = "origin_node_id", nullable = false, length = 128)
+    private String originNodeId;
+
+    @Column(name = "occurred_at", nullable = false)
+    private LocalDateTime occurredAt;
+
+    @Override
+    protected void applyPrePersistDefaults() {
+        if (occurredAt == null) {
+            occurredAt = LocalDateTime.now();
+        }
+    }
+}
@@ -0,0 +1,9 @@
+package mofo.com.pestscout.auth.repository;
+
+import mofo.com.pestscout.auth.model.ClientSessionEvent;
+import mofo.com.pestscout.common.repository.ClusterOutboxRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface ClientSessionEventRepository extends ClusterOutboxRepository<ClientSessionEvent> {
+}
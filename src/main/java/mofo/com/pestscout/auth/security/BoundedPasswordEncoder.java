@@ -0,0 +1,119 @@
+package mofo.com.pestscout.auth.security;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import mofo.com.pestscout.auth.config.PasswordHashingProperties;
+import mofo.com.pestscout.common.exception.TooManyRequestsException;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Runs password hashing and verification on a dedicated, size-bounded pool instead of the calling request thread's
+ * CPU budget. When the pool's wait queue is full the call is rejected immediately with
+ * {@link TooManyRequestsException}, which the API returns as {@code 429} with {@code Retry-After}.
+ */
+public class BoundedPasswordEncoder implements PasswordEncoder, DisposableBean {
+
+    private static final String REJECTION_MESSAGE = "The server is busy verifying other sign-ins. Please retry shortly.";
+
+    private final PasswordEncoder delegate;
+    private final ThreadPoolExecutor executor;
+    private final long retryAfterSeconds;
+    private final Timer encodeTimer;
+    private final Timer matchesTimer;
+    private final Counter rejections;
+
+    public BoundedPasswordEncoder(PasswordEncoder delegate,
+                                  PasswordHashingProperties properties,
+                                  MeterRegistry meterRegistry) {
+        int threads = Math.max(1, properties.getThreads());
+        AtomicInteger threadCounter = new AtomicInteger();
+
+        this.delegate = delegate;
+        this.retryAfterSeconds = Math.max(1L, properties.getRetryAfterSeconds());
+        this.executor = new ThreadPoolExecutor(
+                threads,
+                threads,
+                0L,
+                TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, properties.getQueueCapacity())),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "password-hash-" + threadCounter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy()
+        );
+
+        this.encodeTimer = Timer.builder("auth.password.hash")
+                .description("Time spent computing password hashes on the hashing pool")
+                .tag("operation", "encode")
+                .register(meterRegistry);
+        this.matchesTimer = Timer.builder("auth.password.hash")
+                .description("Time spent computing password hashes on the hashing pool")
+                .tag("operation", "matches")
+                .register(meterRegistry);
+        this.rejections = Counter.builder("auth.password.hash.rejected")
+                .description("Password hashing requests rejected because the hashing queue was full")
+                .register(meterRegistry);
+        Gauge.builder("auth.password.hash.queue.depth", executor, pool -> pool.getQueue().size())
+                .description("Password hashing requests waiting for a worker")
+                .register(meterRegistry);
+        Gauge.builder("auth.password.hash.active", executor, ThreadPoolExecutor::getActiveCount)
+                .description("Password hashing workers currently busy")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return execute(() -> delegate.encode(rawPassword), encodeTimer);
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return execute(() -> delegate.matches(rawPassword, encodedPassword), matchesTimer);
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdownNow();
+    }
+
+    private <T> T execute(Supplier<T> task, Timer timer) {
+        Future<T> future;
+        try {
+            future = executor.submit(() -> timer.record(task));
+        } catch (RejectedExecutionException ex) {
+            rejections.increment();
+            throw new TooManyRequestsException(REJECTION_MESSAGE, retryAfterSeconds);
+        }
+
+        try {
+            return future.get();
+        } catch (InterruptedException ex) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for password hashing", ex);
+        } catch (ExecutionException ex) {
+            Throwable cause = ex.getCause();
+            if (cause instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (cause instanceof Error error) {
+                throw error;
+            }
+            throw new IllegalStateException("Password hashing failed", cause);
+        }
+    }
+}
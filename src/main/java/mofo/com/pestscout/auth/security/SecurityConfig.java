@@ -1,6 +1,8 @@
 package mofo.com.pestscout.auth.security;
 
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.RequiredArgsConstructor;
+import mofo.com.pestscout.auth.config.PasswordHashingProperties;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.ObjectProvider;
@@ -38,11 +40,11 @@ public class SecurityConfig {
 
     /**
      * Password encoder bean
-     * Uses BCrypt with strength 12
+     * Uses BCrypt with strength 12, executed on the bounded password hashing pool
      */
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder(12);
+    public PasswordEncoder passwordEncoder(PasswordHashingProperties passwordHashingProperties, MeterRegistry meterRegistry) {
+        return new BoundedPasswordEncoder(new BCryptPasswordEncoder(12), passwordHashingProperties, meterRegistry);
     }
 
     /**
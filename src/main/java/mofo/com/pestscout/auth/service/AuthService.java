@@ -13,6 +13,7 @@ import mofo.com.pestscout.auth.util.EmailNormalizer;
 import mofo.com.pestscout.common.exception.BadRequestException;
 import mofo.com.pestscout.common.exception.ConflictException;
 import mofo.com.pestscout.common.exception.ResourceNotFoundException;
+import mofo.com.pestscout.common.exception.TooManyRequestsException;
 import mofo.com.pestscout.common.exception.UnauthorizedException;
 import mofo.com.pestscout.farm.model.Farm;
 import mofo.com.pestscout.farm.repository.FarmRepository;
@@ -104,6 +105,7 @@ public class AuthService {
                     .build();
 
         } catch (AuthenticationException e) {
+            rethrowIfHashingRejected(e);
             log.warn("Failed login attempt for email: {}", email);
             throw new BadRequestException("Invalid email or password");
         }
@@ -470,6 +472,7 @@ public class AuthService {
                     new UsernamePasswordAuthenticationToken(user.getEmail(), request.currentPassword())
             );
         } catch (AuthenticationException ex) {
+            rethrowIfHashingRejected(ex);
             throw new BadRequestException("Current password is incorrect");
         }
 
@@ -857,6 +860,16 @@ public class AuthService {
         throw new BadRequestException("Temporary password has expired. Contact a super admin to reactivate your profile.");
     }
 
+    /**
+     * The authentication provider wraps some encoder failures; a hashing pool rejection must still surface as 429
+     * rather than as a bad-credentials response.
+     */
+    private void rethrowIfHashingRejected(AuthenticationException ex) {
+        if (ex.getCause() instanceof TooManyRequestsException rejection) {
+            throw rejection;
+        }
+    }
+
     private boolean requiresCredentialChange(User user) {
         return user != null && user.requiresPasswordChange();
     }
@@ -1,53 +1,141 @@
 package mofo.com.pestscout.auth.service;
 
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
+import mofo.com.pestscout.auth.config.SessionStreamProperties;
 import mofo.com.pestscout.auth.dto.SessionStreamEventResponse;
+import mofo.com.pestscout.auth.model.ClientSessionEvent;
+import mofo.com.pestscout.auth.repository.ClientSessionEventRepository;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.support.TransactionSynchronization;
 import org.springframework.transaction.support.TransactionSynchronizationManager;
 import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
-import java.io.IOException;
 import java.time.Instant;
+import java.util.Map;
 import java.util.UUID;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 
+/**
+ * Pushes session lifecycle events to connected clients over server-sent events.
+ * <p>
+ * Callers never write to an emitter directly: events are offered to a bounded per-connection queue and drained by
+ * the dispatcher shard that owns the connection. A client whose queue overflows, or whose oldest undelivered event
+ * is older than the slow-consumer timeout, is evicted so it cannot hold back the other streams on its shard.
+ * <p>
+ * {@link SseEmitter} serialises {@code send} and {@code complete} on one lock, so a thread completing a stream that is
+ * stuck writing would block on the same socket. Each write therefore runs on its own virtual thread, which the shard
+ * abandons after the send timeout, and streams are completed on a virtual thread rather than by the thread that
+ * closes them.
+ * <p>
+ * Streams are node-local. When clustering is enabled, session replacements are also written to the
+ * {@link ClientSessionEvent} outbox so that {@link ClusterSessionEventRelay} on the node holding the stream can
+ * deliver them.
+ */
 @Service
 @Slf4j
 public class ClientSessionEventService {
 
     private static final long STREAM_TIMEOUT_MILLIS = 0L;
-    private final ConcurrentMap<SessionEmitterKey, SseEmitter> emitters = new ConcurrentHashMap<>();
+    static final String SESSION_REPLACED_EVENT = "session-replaced";
+
+    private final ClientSessionEventRepository eventRepository;
+    private final boolean clusterEnabled;
+    private final String nodeId;
+    private final ConcurrentMap<SessionEmitterKey, SessionConnection> connections = new ConcurrentHashMap<>();
+    private final ExecutorService[] shards;
+    private final ExecutorService streamIo;
+    private final AtomicInteger[] shardQueueDepths;
+    private final int sendQueueCapacity;
+    private final long slowConsumerTimeoutNanos;
+    private final long sendTimeoutNanos;
+    private final Counter queueFullEvictions;
+    private final Counter stalledEvictions;
+    private final Counter sendTimeouts;
+    private final Counter sendFailures;
+
+    public ClientSessionEventService(SessionStreamProperties properties,
+                                     ClientSessionEventRepository eventRepository,
+                                     MeterRegistry meterRegistry) {
+        this.eventRepository = eventRepository;
+        this.clusterEnabled = properties.isClusterEnabled();
+        this.nodeId = properties.getNodeId();
+        int shardCount = Math.max(1, properties.getShardCount());
+        this.sendQueueCapacity = Math.max(1, properties.getSendQueueCapacity());
+        this.slowConsumerTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(1L, properties.getSlowConsumerTimeoutMs()));
+        this.sendTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(1L, properties.getSendTimeoutMs()));
+        this.shards = new ExecutorService[shardCount];
+        this.streamIo = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("session-stream-io-", 0).factory());
+        this.shardQueueDepths = new AtomicInteger[shardCount];
+
+        for (int shard = 0; shard < shardCount; shard++) {
+            String threadName = "session-stream-" + shard;
+            shards[shard] = Executors.newSingleThreadExecutor(runnable -> {
+                Thread thread = new Thread(runnable, threadName);
+                thread.setDaemon(true);
+                return thread;
+            });
+            shardQueueDepths[shard] = new AtomicInteger();
+            Gauge.builder("session.stream.queue.depth", shardQueueDepths[shard], AtomicInteger::get)
+                    .description("Undelivered session stream events buffered on a dispatcher shard")
+                    .tag("shard", String.valueOf(shard))
+                    .register(meterRegistry);
+        }
+
+        Gauge.builder("session.stream.connections", connections, Map::size)
+                .description("Open session event streams on this node")
+                .register(meterRegistry);
+        this.queueFullEvictions = Counter.builder("session.stream.evictions")
+                .description("Session event streams closed because the client could not keep up")
+                .tag("reason", "queue-full")
+                .register(meterRegistry);
+        this.stalledEvictions = Counter.builder("session.stream.evictions")
+                .description("Session event streams closed because the client could not keep up")
+                .tag("reason", "stalled")
+                .register(meterRegistry);
+        this.sendTimeouts = Counter.builder("session.stream.evictions")
+                .description("Session event streams closed because the client could not keep up")
+                .tag("reason", "send-timeout")
+                .register(meterRegistry);
+        this.sendFailures = Counter.builder("session.stream.send.failures")
+                .description("Session event sends that failed and closed the stream")
+                .register(meterRegistry);
+    }
 
     public SseEmitter subscribe(UUID userId, String clientSessionId) {
         SessionEmitterKey key = new SessionEmitterKey(userId, clientSessionId);
-        SseEmitter emitter = new SseEmitter(STREAM_TIMEOUT_MILLIS);
+        SseEmitter emitter = createEmitter();
+        SessionConnection connection = new SessionConnection(key, emitter, shardFor(key));
 
-        SseEmitter previousEmitter = emitters.put(key, emitter);
-        if (previousEmitter != null) {
-            previousEmitter.complete();
+        SessionConnection previousConnection = connections.put(key, connection);
+        if (previousConnection != null) {
+            previousConnection.close();
         }
 
-        emitter.onCompletion(() -> emitters.remove(key, emitter));
+        emitter.onCompletion(() -> release(connection));
         emitter.onTimeout(() -> {
-            emitters.remove(key, emitter);
+            release(connection);
             emitter.complete();
         });
         emitter.onError(ex -> {
             log.debug("Session event stream failed for user {} session {}: {}",
                     userId, clientSessionId, ex.getMessage());
-            emitters.remove(key, emitter);
+            release(connection);
             emitter.complete();
         });
 
-        sendEvent(key, emitter, "connected", new SessionStreamEventResponse(
+        connection.enqueue(new PendingEvent("connected", new SessionStreamEventResponse(
                 "connected",
                 "Session event stream connected",
                 clientSessionId,
                 Instant.now()
-        ), false);
+        ), false));
 
         return emitter;
     }
@@ -60,7 +148,17 @@ public class ClientSessionEventService {
             return;
         }
 
-        Runnable publishTask = () -> publishSessionReplaced(userId, previousClientSessionId, activeClientSessionId);
+        if (clusterEnabled) {
+            eventRepository.save(ClientSessionEvent.builder()
+                    .userId(userId)
+                    .eventType(SESSION_REPLACED_EVENT)
+                    .clientSessionId(previousClientSessionId)
+                    .activeClientSessionId(activeClientSessionId)
+                    .originNodeId(nodeId)
+                    .build());
+        }
+
+        Runnable publishTask = () -> deliverSessionReplaced(userId, previousClientSessionId, activeClientSessionId);
         if (TransactionSynchronizationManager.isSynchronizationActive()
                 && TransactionSynchronizationManager.isActualTransactionActive()) {
             TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
@@ -75,55 +173,252 @@ public class ClientSessionEventService {
         publishTask.run();
     }
 
+    /**
+     * Only enqueues work and hands completions to a virtual thread, so the scheduler thread never blocks on a client
+     * socket, not even one whose write is stuck. A connection that still has
+     * undelivered events does not need a keepalive; if those events have been waiting longer than the slow-consumer
+     * timeout the connection is evicted instead.
+     */
     @Scheduled(fixedDelayString = "${app.auth.session-stream-heartbeat-ms:25000}")
     public void publishHeartbeats() {
-        emitters.forEach((key, emitter) -> sendEvent(key, emitter, "heartbeat", new SessionStreamEventResponse(
-                "heartbeat",
-                "keepalive",
-                key.clientSessionId(),
-                Instant.now()
-        ), false));
+        long now = System.nanoTime();
+        connections.values().forEach(connection -> {
+            if (connection.isStalled(now)) {
+                stalledEvictions.increment();
+                evict(connection, "no progress within the slow-consumer timeout");
+                return;
+            }
+            if (connection.isIdle()) {
+                connection.enqueue(new PendingEvent("heartbeat", new SessionStreamEventResponse(
+                        "heartbeat",
+                        "keepalive",
+                        connection.key.clientSessionId(),
+                        Instant.now()
+                ), false));
+            }
+        });
+    }
+
+    int getOpenConnectionCount() {
+        return connections.size();
+    }
+
+    @PreDestroy
+    void shutdown() {
+        for (ExecutorService shard : shards) {
+            shard.shutdownNow();
+        }
+        streamIo.shutdownNow();
     }
 
-    private void publishSessionReplaced(UUID userId, String previousClientSessionId, String activeClientSessionId) {
-        SessionEmitterKey key = new SessionEmitterKey(userId, previousClientSessionId);
-        SseEmitter emitter = emitters.remove(key);
-        if (emitter == null) {
+    /**
+     * Creates the emitter for a new stream. Overridden in tests to stand in for a client socket.
+     */
+    SseEmitter createEmitter() {
+        return new SseEmitter(STREAM_TIMEOUT_MILLIS);
+    }
+
+    /**
+     * Delivers a session replacement to the stream on this node, if this node holds it. Safe to call for streams
+     * owned by other nodes.
+     */
+    public void deliverSessionReplaced(UUID userId, String previousClientSessionId, String activeClientSessionId) {
+        SessionConnection connection = connections.remove(new SessionEmitterKey(userId, previousClientSessionId));
+        if (connection == null) {
             return;
         }
 
-        sendEvent(key, emitter, "session-replaced", new SessionStreamEventResponse(
-                "session-replaced",
+        connection.enqueue(new PendingEvent(SESSION_REPLACED_EVENT, new SessionStreamEventResponse(
+                SESSION_REPLACED_EVENT,
                 "Your session was opened elsewhere. Please log in again.",
                 activeClientSessionId,
                 Instant.now()
-        ), true);
+        ), true));
+    }
+
+    private int shardFor(SessionEmitterKey key) {
+        return Math.floorMod(key.hashCode(), shards.length);
+    }
+
+    private void release(SessionConnection connection) {
+        connections.remove(connection.key, connection);
+        connection.discardPending();
+    }
+
+    private void evict(SessionConnection connection, String reason) {
+        log.debug("Evicting slow session event stream for user {} session {}: {}",
+                connection.key.userId(), connection.key.clientSessionId(), reason);
+        release(connection);
+        connection.close();
     }
 
-    private void sendEvent(SessionEmitterKey key,
-                           SseEmitter emitter,
-                           String eventName,
-                           SessionStreamEventResponse payload,
-                           boolean completeAfterSend) {
-        try {
-            emitter.send(SseEmitter.event()
-                    .name(eventName)
-                    .data(payload));
-            if (completeAfterSend) {
-                emitter.complete();
+    private record SessionEmitterKey(UUID userId, String clientSessionId) {
+    }
+
+    private record PendingEvent(String name, SessionStreamEventResponse payload, boolean completeAfterSend,
+                                long enqueuedAtNanos) {
+
+        private PendingEvent(String name, SessionStreamEventResponse payload, boolean completeAfterSend) {
+            this(name, payload, completeAfterSend, System.nanoTime());
+        }
+    }
+
+    /**
+     * One open stream. Any thread may enqueue; only the owning shard thread sends, and at most one drain task per
+     * connection is queued on the shard at a time.
+     */
+    private final class SessionConnection {
+
+        private final SessionEmitterKey key;
+        private final SseEmitter emitter;
+        private final int shard;
+        private final BlockingQueue<PendingEvent> pending;
+        private final AtomicBoolean drainScheduled = new AtomicBoolean();
+        private volatile boolean closed;
+
+        private SessionConnection(SessionEmitterKey key, SseEmitter emitter, int shard) {
+            this.key = key;
+            this.emitter = emitter;
+            this.shard = shard;
+            this.pending = new ArrayBlockingQueue<>(sendQueueCapacity);
+        }
+
+        private void enqueue(PendingEvent event) {
+            if (closed) {
+                return;
+            }
+            if (!pending.offer(event)) {
+                queueFullEvictions.increment();
+                evict(this, "send queue full");
+                return;
+            }
+
+            shardQueueDepths[shard].incrementAndGet();
+            scheduleDrain();
+        }
+
+        private boolean isIdle() {
+            return pending.isEmpty();
+        }
+
+        private boolean isStalled(long now) {
+            PendingEvent oldest = pending.peek();
+            return oldest != null && now - oldest.enqueuedAtNanos() > slowConsumerTimeoutNanos;
+        }
+
+        private void scheduleDrain() {
+            if (!drainScheduled.compareAndSet(false, true)) {
+                return;
             }
-        } catch (IOException | IllegalStateException ex) {
-            emitters.remove(key, emitter);
-            log.debug("Closing session event stream for user {} session {} after send failure: {}",
-                    key.userId(), key.clientSessionId(), ex.getMessage());
             try {
-                emitter.completeWithError(ex);
-            } catch (IllegalStateException ignored) {
-                emitter.complete();
+                shards[shard].execute(this::drain);
+            } catch (RejectedExecutionException ex) {
+                drainScheduled.set(false);
+                discardPending();
             }
         }
-    }
 
-    private record SessionEmitterKey(UUID userId, String clientSessionId) {
+        private void drain() {
+            try {
+                PendingEvent event;
+                while (!closed && (event = pending.peek()) != null) {
+                    boolean delivered = send(event);
+                    if (pending.poll() != null) {
+                        shardQueueDepths[shard].decrementAndGet();
+                    }
+                    if (!delivered || event.completeAfterSend()) {
+                        closed = true;
+                    }
+                }
+            } finally {
+                drainScheduled.set(false);
+            }
+
+            if (closed) {
+                discardPending();
+            } else if (!pending.isEmpty()) {
+                scheduleDrain();
+            }
+        }
+
+        /**
+         * Writes the event on its own virtual thread and waits at most the send timeout for it. A write that does
+         * not finish in time is interrupted and the stream closed, so one stuck socket holds its shard for no longer
+         * than the timeout.
+         */
+        private boolean send(PendingEvent event) {
+            Future<?> write;
+            try {
+                write = streamIo.submit(() -> {
+                    emitter.send(SseEmitter.event()
+                            .name(event.name())
+                            .data(event.payload()));
+                    if (event.completeAfterSend()) {
+                        emitter.complete();
+                    }
+                    return null;
+                });
+            } catch (RejectedExecutionException ex) {
+                return false;
+            }
+
+            try {
+                write.get(sendTimeoutNanos, TimeUnit.NANOSECONDS);
+                return true;
+            } catch (TimeoutException ex) {
+                write.cancel(true);
+                sendTimeouts.increment();
+                connections.remove(key, this);
+                log.debug("Closing session event stream for user {} session {}: send did not finish within the timeout",
+                        key.userId(), key.clientSessionId());
+                closeLater(null);
+                return false;
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                write.cancel(true);
+                return false;
+            } catch (ExecutionException ex) {
+                sendFailures.increment();
+                connections.remove(key, this);
+                log.debug("Closing session event stream for user {} session {} after send failure: {}",
+                        key.userId(), key.clientSessionId(), ex.getCause().getMessage());
+                closeLater(ex.getCause());
+                return false;
+            }
+        }
+
+        /**
+         * Marks the stream closed and completes the emitter off the calling thread, since completing waits for any
+         * write still in progress.
+         */
+        private void close() {
+            closed = true;
+            discardPending();
+            closeLater(null);
+        }
+
+        private void closeLater(Throwable failure) {
+            try {
+                streamIo.execute(() -> {
+                    try {
+                        if (failure != null) {
+                            emitter.completeWithError(failure);
+                        } else {
+                            emitter.complete();
+                        }
+                    } catch (IllegalStateException ignored) {
+                        emitter.complete();
+                    }
+                });
+            } catch (RejectedExecutionException ignored) {
+                // Shutting down; the container closes the remaining streams.
+            }
+        }
+
+        private void discardPending() {
+            while (pending.poll() != null) {
+                shardQueueDepths[shard].decrementAndGet();
+            }
+        }
     }
 }
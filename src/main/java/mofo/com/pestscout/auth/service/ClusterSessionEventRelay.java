@@ -0,0 +1,62 @@
+package mofo.com.pestscout.auth.service;
+
+import lombok.extern.slf4j.Slf4j;
+import mofo.com.pestscout.auth.config.SessionStreamProperties;
+import mofo.com.pestscout.auth.model.ClientSessionEvent;
+import mofo.com.pestscout.auth.repository.ClientSessionEventRepository;
+import mofo.com.pestscout.common.service.ClusterOutboxRelay;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Hands session events published by other nodes through the shared session event outbox to the local
+ * {@link ClientSessionEventService}.
+ */
+@Component
+@Slf4j
+public class ClusterSessionEventRelay extends ClusterOutboxRelay<ClientSessionEvent> {
+
+    private final ClientSessionEventService clientSessionEventService;
+    private final SessionStreamProperties properties;
+
+    public ClusterSessionEventRelay(ClientSessionEventRepository eventRepository,
+                                    ClientSessionEventService clientSessionEventService,
+                                    SessionStreamProperties properties) {
+        super(eventRepository, "client_session_events");
+        this.clientSessionEventService = clientSessionEventService;
+        this.properties = properties;
+    }
+
+    @Scheduled(fixedDelayString = "${app.auth.session-stream.cluster-poll-ms:1000}")
+    @Override
+    public void relayPeerEvents() {
+        if (!properties.isClusterEnabled()) {
+            return;
+        }
+        relay(properties.getNodeId(), properties.getClusterCatchUpWindowMs());
+    }
+
+    @Scheduled(fixedDelayString = "${app.auth.session-stream.cluster-cleanup-ms:60000}")
+    @Transactional
+    public void purgeExpiredEvents() {
+        if (!properties.isClusterEnabled()) {
+            return;
+        }
+        purgeOlderThan(properties.getClusterRetentionMinutes());
+    }
+
+    @Override
+    protected void apply(ClientSessionEvent event) {
+        if (ClientSessionEventService.SESSION_REPLACED_EVENT.equals(event.getEventType())) {
+            clientSessionEventService.deliverSessionReplaced(
+                    event.getUserId(),
+                    event.getClientSessionId(),
+                    event.getActiveClientSessionId()
+            );
+        } else {
+            log.debug("Ignoring unsupported session event type {} from node {}",
+                    event.getEventType(), event.getOriginNodeId());
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package mofo.com.pestscout.common.config;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cache.jcache.MissingCacheStrategy;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.Cache;
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import javax.cache.spi.CachingProvider;
+import java.net.URI;
+import java.util.List;
+import java.util.OptionalLong;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Hibernate second-level cache for entities annotated with {@link org.hibernate.annotations.Cache}, served by
+ * hibernate-jcache on Caffeine. Every region is created up front with the configured size bound and time to live,
+ * and Hibernate refuses to start if an entity names a region missing from {@link #REFERENCE_DATA_REGIONS}, so no
+ * cache is ever created unbounded. The query cache stays off: reference data is looked up by id or reached through
+ * associations, which the entity caches already cover.
+ */
+@Configuration
+public class SecondLevelCacheConfig {
+
+    public static final String REGION_FARMS = "reference-data.farms";
+    public static final String REGION_GREENHOUSES = "reference-data.greenhouses";
+    public static final String REGION_FIELD_BLOCKS = "reference-data.field-blocks";
+    public static final String REGION_CUSTOM_SPECIES = "reference-data.custom-species";
+
+    static final List<String> REFERENCE_DATA_REGIONS = List.of(
+            REGION_FARMS,
+            REGION_GREENHOUSES,
+            REGION_FIELD_BLOCKS,
+            REGION_CUSTOM_SPECIES
+    );
+
+    /**
+     * Closed by Hibernate when the session factory shuts down. Each manager gets its own URI so application contexts
+     * sharing a JVM, as tests do, never share regions.
+     */
+    @Bean
+    @ConditionalOnProperty(name = "app.persistence.second-level-cache.enabled", havingValue = "true", matchIfMissing = true)
+    public CacheManager referenceDataCacheManager(SecondLevelCacheProperties properties,
+                                                  ObjectProvider<MeterRegistry> meterRegistry) {
+        CachingProvider provider = Caching.getCachingProvider(CaffeineCachingProvider.class.getName());
+        CacheManager cacheManager = provider.getCacheManager(
+                URI.create("reference-data-" + UUID.randomUUID()),
+                SecondLevelCacheConfig.class.getClassLoader()
+        );
+
+        MeterRegistry registry = meterRegistry.getIfAvailable();
+        for (String region : REFERENCE_DATA_REGIONS) {
+            Cache<Object, Object> cache = cacheManager.createCache(region, regionConfiguration(properties));
+            if (registry != null) {
+                CaffeineCacheMetrics.monitor(registry, cache.unwrap(com.github.benmanes.caffeine.cache.Cache.class), region);
+            }
+        }
+        return cacheManager;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer secondLevelCacheHibernateCustomizer(
+            ObjectProvider<CacheManager> referenceDataCacheManager) {
+        return properties -> {
+            CacheManager cacheManager = referenceDataCacheManager.getIfAvailable();
+            // hibernate-jcache registers itself as the default region factory, so a disabled cache must be switched off
+            properties.put(AvailableSettings.USE_SECOND_LEVEL_CACHE, cacheManager != null);
+            properties.put(AvailableSettings.USE_QUERY_CACHE, false);
+            if (cacheManager != null) {
+                properties.put(AvailableSettings.CACHE_REGION_FACTORY, ConfigSettings.SIMPLE_FACTORY_NAME);
+                properties.put(ConfigSettings.CACHE_MANAGER, cacheManager);
+                properties.put(ConfigSettings.MISSING_CACHE_STRATEGY, MissingCacheStrategy.FAIL.getExternalRepresentation());
+            }
+        };
+    }
+
+    static CaffeineConfiguration<Object, Object> regionConfiguration(SecondLevelCacheProperties properties) {
+        CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+        configuration.setMaximumSize(OptionalLong.of(Math.max(1, properties.getMaxEntriesPerRegion())));
+        if (properties.getTimeToLiveSeconds() > 0) {
+            configuration.setExpireAfterWrite(OptionalLong.of(TimeUnit.SECONDS.toNanos(properties.getTimeToLiveSeconds())));
+        }
+        // Hibernate caches disassembled, immutable entries, so copying them on every read and write buys nothing
+        configuration.setStoreByValue(false);
+        configuration.setNativeStatisticsEnabled(true);
+        return configuration;
+    }
+}
@@ -0,0 +1,40 @@
+package mofo.com.pestscout.common.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import java.util.UUID;
+
+/**
+ * Hibernate second-level cache for farm structure reference data (farms, greenhouses and their layouts, field blocks,
+ * custom species). Each cache region keeps at most {@code maxEntriesPerRegion} entries for {@code timeToLiveSeconds}.
+ * <p>
+ * The cluster settings control the shared invalidation outbox: every node records the reference rows it changes and
+ * evicts the rows changed by its peers. The time to live bounds staleness should an invalidation ever be missed, and
+ * {@code clusterCatchUpWindowMs} is how long a gap in the outbox sequence is waited for before it is taken as a
+ * rolled-back insert, so it must cover the longest expected commit delay.
+ */
+@Component
+@ConfigurationProperties(prefix = "app.persistence.second-level-cache")
+@Getter
+@Setter
+public class SecondLevelCacheProperties {
+
+    private boolean enabled = true;
+    private int maxEntriesPerRegion = 10000;
+    private long timeToLiveSeconds = 600;
+
+    private boolean clusterEnabled = true;
+    private long clusterCatchUpWindowMs = 10000;
+    private long clusterRetentionMinutes = 10;
+    private String nodeId = UUID.randomUUID().toString();
+
+    public void setNodeId(String nodeId) {
+        if (StringUtils.hasText(nodeId)) {
+            this.nodeId = nodeId.trim();
+        }
+    }
+}
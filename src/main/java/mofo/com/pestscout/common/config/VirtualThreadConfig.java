@@ -0,0 +1,82 @@
+package mofo.com.pestscout.common.config;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import mofo.com.pestscout.common.persistence.ConnectionAdmissionDataSource;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.time.Duration;
+
+/**
+ * Extra wiring for the opt-in virtual-thread runtime. Spring Boot already moves Tomcat request handling,
+ * {@code @Scheduled} jobs, and the application task executor onto virtual threads when
+ * {@code spring.threads.virtual.enabled=true}; this configuration adds the connection admission gate and pinning
+ * diagnostics that mode needs.
+ */
+@Configuration
+@ConditionalOnThreading(Threading.VIRTUAL)
+@Slf4j
+public class VirtualThreadConfig {
+
+    private static final int DEFAULT_HIKARI_POOL_SIZE = 10;
+
+    @Bean
+    public static BeanPostProcessor connectionAdmissionPostProcessor(
+            ObjectProvider<VirtualThreadProperties> properties,
+            Environment environment
+    ) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!(bean instanceof DataSource dataSource) || bean instanceof ConnectionAdmissionDataSource) {
+                    return bean;
+                }
+
+                VirtualThreadProperties settings = properties.getObject();
+                int permits = settings.getConnectionPermits() > 0
+                        ? settings.getConnectionPermits()
+                        : environment.getProperty("spring.datasource.hikari.maximum-pool-size", Integer.class,
+                        DEFAULT_HIKARI_POOL_SIZE);
+                log.info("Admitting at most {} concurrent connection checkouts from data source '{}'", permits, beanName);
+                return new ConnectionAdmissionDataSource(dataSource, permits, settings.getConnectionAcquireTimeoutMs());
+            }
+        };
+    }
+
+    @Bean
+    public MeterBinder connectionAdmissionMetrics(DataSource dataSource) {
+        return registry -> {
+            ConnectionAdmissionDataSource admission;
+            try {
+                admission = dataSource.unwrap(ConnectionAdmissionDataSource.class);
+            } catch (SQLException ex) {
+                return;
+            }
+            Gauge.builder("jdbc.connection.admission.waiting", admission, ConnectionAdmissionDataSource::getWaitingThreads)
+                    .description("Threads waiting for a database connection permit")
+                    .register(registry);
+            Gauge.builder("jdbc.connection.admission.available", admission, ConnectionAdmissionDataSource::getAvailablePermits)
+                    .description("Database connection permits currently free")
+                    .register(registry);
+        };
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "app.runtime.virtual-threads.pinning-diagnostics-enabled", havingValue = "true",
+            matchIfMissing = true)
+    public VirtualThreadPinningMonitor virtualThreadPinningMonitor(VirtualThreadProperties properties,
+                                                                   MeterRegistry meterRegistry) {
+        return new VirtualThreadPinningMonitor(Duration.ofMillis(properties.getPinnedThresholdMs()), meterRegistry);
+    }
+}
@@ -0,0 +1,27 @@
+package mofo.com.pestscout.common.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Safeguards applied when the application runs request handling, scheduling, and async work on virtual threads
+ * ({@code spring.threads.virtual.enabled=true}). Virtual threads are cheap enough that thousands can block on the
+ * connection pool at once, so database access is admitted through a fixed number of permits, and pinned carrier
+ * threads are reported so {@code synchronized} hot spots can be found.
+ */
+@Component
+@ConfigurationProperties(prefix = "app.runtime.virtual-threads")
+@Getter
+@Setter
+public class VirtualThreadProperties {
+
+    /**
+     * Concurrent connection checkouts allowed; zero or less falls back to the Hikari maximum pool size.
+     */
+    private int connectionPermits = 0;
+    private long connectionAcquireTimeoutMs = 30000;
+    private boolean pinningDiagnosticsEnabled = true;
+    private long pinnedThresholdMs = 20;
+}
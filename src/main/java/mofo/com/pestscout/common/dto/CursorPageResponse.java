@@ -0,0 +1,12 @@
+package mofo.com.pestscout.common.dto;
+
+import java.util.List;
+
+// common DTO for keyset paging; pass nextCursor back to fetch the following page
+public record CursorPageResponse<T>(
+        List<T> content,
+        int size,
+        String nextCursor,
+        boolean last
+) {
+}
@@ -4,6 +4,7 @@ import jakarta.servlet.http.HttpServletRequest;
 import mofo.com.pestscout.common.dto.ErrorResponse;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.converter.HttpMessageNotReadableException;
@@ -42,7 +43,8 @@ public class GlobalExceptionHandler {
             ConflictException.class,
             ResourceNotFoundException.class,
             ForbiddenException.class,
-            UnauthorizedException.class
+            UnauthorizedException.class,
+            GoneException.class
     })
     public ResponseEntity<ErrorResponse> handleApplicationExceptions(RuntimeException ex, HttpServletRequest request) {
         HttpStatus status = resolveStatus(ex);
@@ -56,6 +58,28 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(status).body(body);
     }
 
+    /**
+     * Translates load-shedding rejections into {@code 429 Too Many Requests} with a {@code Retry-After} header so
+     * clients back off instead of retrying immediately.
+     *
+     * @param ex      exception carrying the suggested retry delay
+     * @param request HTTP request that was not admitted
+     * @return response entity containing the structured error response
+     */
+    @ExceptionHandler(TooManyRequestsException.class)
+    public ResponseEntity<ErrorResponse> handleTooManyRequests(TooManyRequestsException ex, HttpServletRequest request) {
+        LOGGER.warn("Request shed under load [path={}, retryAfter={}s]", request.getRequestURI(), ex.getRetryAfterSeconds());
+        ErrorResponse body = ErrorResponse.builder()
+                .status(HttpStatus.TOO_MANY_REQUESTS.value())
+                .errorCode(ex.getErrorCode())
+                .message(ex.getMessage())
+                .path(request.getRequestURI())
+                .build();
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()))
+                .body(body);
+    }
+
     /**
      * Processes validation errors thrown by Spring MVC binding and translates them into a detailed response object.
      *
@@ -139,6 +163,9 @@ public class GlobalExceptionHandler {
         if (ex instanceof UnauthorizedException) {
             return HttpStatus.UNAUTHORIZED;
         }
+        if (ex instanceof GoneException) {
+            return HttpStatus.GONE;
+        }
         return HttpStatus.INTERNAL_SERVER_ERROR;
     }
 
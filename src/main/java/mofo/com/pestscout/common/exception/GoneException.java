@@ -0,0 +1,33 @@
+package mofo.com.pestscout.common.exception;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Signals that the requested data is no longer available in the form asked for, for example a sync window that
+ * reaches back past rows that have since been archived. Clients should start over rather than retry.
+ */
+public class GoneException extends RuntimeException implements ErrorCodeCarrier {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(GoneException.class);
+
+    /**
+     * Creates a new {@link GoneException} with a client-facing explanation.
+     *
+     * @param message description of what is no longer available and how to recover
+     */
+    public GoneException(String message) {
+        super(message);
+        LOGGER.info("GoneException raised: {}", message);
+    }
+
+    /**
+     * Provides the machine-readable error code for expired resources.
+     *
+     * @return the constant {@code GONE} error code
+     */
+    @Override
+    public String getErrorCode() {
+        return "GONE";
+    }
+}
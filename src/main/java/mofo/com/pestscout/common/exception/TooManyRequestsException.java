@@ -0,0 +1,46 @@
+package mofo.com.pestscout.common.exception;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Signals that the server is shedding load for an expensive operation and the client should retry later. Carries the
+ * suggested back-off so it can be returned as a {@code Retry-After} header.
+ */
+public class TooManyRequestsException extends RuntimeException implements ErrorCodeCarrier {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(TooManyRequestsException.class);
+
+    private final long retryAfterSeconds;
+
+    /**
+     * Creates a new {@link TooManyRequestsException} with a client-facing message and back-off hint.
+     *
+     * @param message           explanation of why the request was not admitted
+     * @param retryAfterSeconds seconds the client should wait before retrying
+     */
+    public TooManyRequestsException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+        LOGGER.warn("TooManyRequestsException raised: {} (retry after {}s)", message, retryAfterSeconds);
+    }
+
+    /**
+     * Returns the number of seconds the client should wait before retrying.
+     *
+     * @return retry delay in seconds
+     */
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+
+    /**
+     * Provides the machine-readable error code associated with load shedding.
+     *
+     * @return the constant {@code TOO_MANY_REQUESTS} error code
+     */
+    @Override
+    public String getErrorCode() {
+        return "TOO_MANY_REQUESTS";
+    }
+}
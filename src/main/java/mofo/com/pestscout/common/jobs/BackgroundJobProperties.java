@@ -0,0 +1,15 @@
+package mofo.com.pestscout.common.jobs;
+
+/**
+ * Worker pool settings shared by every {@link BackgroundJobRunner}. Jobs run on {@code threads} workers with at most
+ * {@code queueCapacity} waiting in memory; the rest stay queued in their job table until the sweeper offers them again
+ * once they are older than {@code retryDelayMs}.
+ */
+public interface BackgroundJobProperties {
+
+    int getThreads();
+
+    int getQueueCapacity();
+
+    long getRetryDelayMs();
+}
@@ -0,0 +1,32 @@
+package mofo.com.pestscout.common.jobs;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * The job table behind a {@link BackgroundJobRunner}.
+ */
+public interface BackgroundJobQueue {
+
+    /**
+     * Moves a queued job to running. Returns false when another worker, on this node or another, got there first,
+     * which is how a job offered twice still runs once.
+     */
+    boolean claim(UUID jobId, LocalDateTime now);
+
+    /**
+     * Returns running jobs abandoned by a stopped worker to the queue and reports how many there were.
+     */
+    int resetStalled(LocalDateTime now);
+
+    /**
+     * Queued jobs last touched before {@code retryBefore}, oldest first.
+     */
+    List<UUID> findDue(LocalDateTime retryBefore);
+
+    /**
+     * Runs a job this worker has claimed.
+     */
+    void run(UUID jobId);
+}
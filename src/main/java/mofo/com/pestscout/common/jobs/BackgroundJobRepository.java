@@ -0,0 +1,38 @@
+package mofo.com.pestscout.common.jobs;
+
+import mofo.com.pestscout.common.model.BaseEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.NoRepositoryBean;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Queries shared by the job tables behind {@link BackgroundJobQueue}. Each table keeps its own claim, since what a
+ * claim records (start time, attempt count, lease) differs per job type.
+ */
+@NoRepositoryBean
+public interface BackgroundJobRepository<J extends BaseEntity, S extends Enum<S>> extends JpaRepository<J, UUID> {
+
+    List<J> findTop50ByStatusAndUpdatedAtBeforeOrderByUpdatedAtAsc(S status, LocalDateTime updatedBefore);
+
+    /**
+     * Moves jobs left in {@code from} since before {@code cutoff} to {@code to}.
+     */
+    @Transactional
+    @Modifying
+    @Query("""
+            update #{#entityName} j
+            set j.status = :to, j.updatedAt = :now
+            where j.status = :from and j.updatedAt < :cutoff
+            """)
+    int resetStale(@Param("from") S from,
+                   @Param("to") S to,
+                   @Param("cutoff") LocalDateTime cutoff,
+                   @Param("now") LocalDateTime now);
+}
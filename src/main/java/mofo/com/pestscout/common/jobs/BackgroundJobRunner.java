@@ -0,0 +1,135 @@
+package mofo.com.pestscout.common.jobs;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs jobs recorded in a database table on a bounded worker pool.
+ * <p>
+ * A job row is written first and handed to the pool once the surrounding transaction commits. If the pool is
+ * saturated, or the node stops before the job runs, the row stays queued and {@link #sweep()} offers it again later.
+ * Workers claim a job through {@link BackgroundJobQueue#claim} before running it, so a job offered twice, or by two
+ * nodes, still runs once. Jobs run outside any transaction.
+ * <p>
+ * Publishes {@code <meterPrefix>.rejected} and {@code <meterPrefix>.queue.depth}.
+ */
+@Slf4j
+public class BackgroundJobRunner {
+
+    private static final int MAX_ERROR_LENGTH = 500;
+
+    private final String name;
+    private final BackgroundJobQueue queue;
+    private final BackgroundJobProperties properties;
+    private final ThreadPoolExecutor executor;
+    private final Counter rejections;
+
+    public BackgroundJobRunner(String name,
+                               BackgroundJobQueue queue,
+                               BackgroundJobProperties properties,
+                               MeterRegistry meterRegistry,
+                               String meterPrefix) {
+        this.name = name;
+        this.queue = queue;
+        this.properties = properties;
+
+        int threads = Math.max(1, properties.getThreads());
+        AtomicInteger threadCounter = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(
+                threads,
+                threads,
+                0L,
+                TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, properties.getQueueCapacity())),
+                runnable -> {
+                    Thread thread = new Thread(runnable, name + "-" + threadCounter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy()
+        );
+
+        this.rejections = Counter.builder(meterPrefix + ".rejected")
+                .description("Jobs left queued in the job table because the worker queue was full")
+                .register(meterRegistry);
+        Gauge.builder(meterPrefix + ".queue.depth", executor, pool -> pool.getQueue().size())
+                .description("Jobs waiting for a worker on this node")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Offers the job to the pool once the current transaction commits, or right away outside a transaction.
+     */
+    public void submitAfterCommit(UUID jobId) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()
+                && TransactionSynchronizationManager.isActualTransactionActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    submit(jobId);
+                }
+            });
+            return;
+        }
+        submit(jobId);
+    }
+
+    /**
+     * Returns stalled jobs to the queue and re-offers the queued jobs older than the retry delay.
+     */
+    public void sweep() {
+        LocalDateTime now = LocalDateTime.now();
+        int reset = queue.resetStalled(now);
+        if (reset > 0) {
+            log.warn("Returned {} stalled {} job(s) to the queue", reset, name);
+        }
+
+        queue.findDue(now.minusNanos(TimeUnit.MILLISECONDS.toNanos(properties.getRetryDelayMs())))
+                .forEach(this::submit);
+    }
+
+    /**
+     * Claims and runs one job on the calling thread; does nothing when the job was already claimed.
+     */
+    public void process(UUID jobId) {
+        if (!queue.claim(jobId, LocalDateTime.now())) {
+            return;
+        }
+        queue.run(jobId);
+    }
+
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Cuts an error message down to what the job tables store.
+     */
+    public static String truncateError(String message) {
+        if (message == null || message.length() <= MAX_ERROR_LENGTH) {
+            return message;
+        }
+        return message.substring(0, MAX_ERROR_LENGTH);
+    }
+
+    private void submit(UUID jobId) {
+        try {
+            executor.execute(() -> process(jobId));
+        } catch (RejectedExecutionException ex) {
+            rejections.increment();
+            log.debug("{} queue full; job {} stays queued for the sweeper", name, jobId);
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package mofo.com.pestscout.common.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.*;
+import lombok.experimental.SuperBuilder;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Outbox row recording that a cached reference entity changed on one node. Every node polls the outbox and evicts
+ * the entity, and its cached collections, from its own second-level cache. Rows written for a bulk statement carry
+ * no entity id and evict every cached row of the entity.
+ */
+@Entity
+@Table(name = "cache_invalidation_events", indexes = {
+        @Index(name = "idx_cache_invalidation_events_occurred_at", columnList = "occurred_at"),
+        @Index(name = "idx_cache_invalidation_events_sequence", columnList = "sequence_number")
+})
+@Getter
+@Setter
+@SuperBuilder
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@AllArgsConstructor(access = AccessLevel.PROTECTED)
+public class CacheInvalidationEvent extends BaseEntity implements ClusterOutboxEvent {
+
+    @Column(name = "entity_name", nullable = false, length = 255)
+    private String entityName;
+
+    @Column(name = "entity_id")
+    private UUID entityId;
+
+    @Column(name = "sequence_number", insertable = false, updatable = false,
+            columnDefinition = "bigint generated always as identity")
+    private Long sequenceNumber;
+
+    @Column(name = "origin_node_id", nullable = false, length = 128)
+    private String originNodeId;
+
+    @Column(name = "occurred_at", nullable = false)
+    private LocalDateTime occurredAt;
+
+    @Override
+    protected void applyPrePersistDefaults() {
+        if (occurredAt == null) {
+            occurredAt = LocalDateTime.now();
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package mofo.com.pestscout.common.model;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Row of a shared outbox that every node polls to pick up the events written by its peers. The sequence number is
+ * assigned by the database on insert and orders the rows independently of the writers' clocks.
+ */
+public interface ClusterOutboxEvent {
+
+    UUID getId();
+
+    Long getSequenceNumber();
+
+    String getOriginNodeId();
+
+    LocalDateTime getOccurredAt();
+}
@@ -0,0 +1,29 @@
+package mofo.com.pestscout.common.monitoring;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Per-request SQL statement budget. Requests that issue more statements than their budget are logged and counted so
+ * N+1 regressions surface before production. Individual endpoints can be given their own budget keyed by
+ * {@code "<METHOD> <uri pattern>"}, for example {@code "GET /api/scouting/sessions/{sessionId}"}.
+ */
+@Component
+@ConfigurationProperties(prefix = "app.persistence.query-budget")
+@Getter
+@Setter
+public class QueryBudgetProperties {
+
+    private boolean enabled = true;
+    private int perRequest = 40;
+    private Map<String, Integer> endpoints = new HashMap<>();
+
+    public int budgetFor(String method, String uriPattern) {
+        return endpoints.getOrDefault(method + " " + uriPattern, perRequest);
+    }
+}
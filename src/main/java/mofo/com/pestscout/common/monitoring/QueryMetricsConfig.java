@@ -0,0 +1,41 @@
+package mofo.com.pestscout.common.monitoring;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import mofo.com.pestscout.common.persistence.QueryCountingStatementInspector;
+import mofo.com.pestscout.common.persistence.QueryRowCountingInterceptor;
+import mofo.com.pestscout.common.persistence.QueryTimingSessionEventListener;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+/**
+ * Installs the Hibernate hooks that feed {@link mofo.com.pestscout.common.persistence.QueryStatistics} and the
+ * request filter that reports them. The filter runs ahead of the security chain so authentication queries count
+ * towards the request.
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.persistence.query-budget.enabled", havingValue = "true", matchIfMissing = true)
+public class QueryMetricsConfig {
+
+    @Bean
+    public HibernatePropertiesCustomizer queryMetricsHibernateCustomizer() {
+        return properties -> {
+            properties.put(AvailableSettings.STATEMENT_INSPECTOR, new QueryCountingStatementInspector());
+            properties.put(AvailableSettings.INTERCEPTOR, new QueryRowCountingInterceptor());
+            properties.put(AvailableSettings.AUTO_SESSION_EVENTS_LISTENER, QueryTimingSessionEventListener.class.getName());
+        };
+    }
+
+    @Bean
+    public FilterRegistrationBean<QueryMetricsFilter> queryMetricsFilter(MeterRegistry meterRegistry,
+                                                                        QueryBudgetProperties properties) {
+        FilterRegistrationBean<QueryMetricsFilter> registration =
+                new FilterRegistrationBean<>(new QueryMetricsFilter(meterRegistry, properties));
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 10);
+        return registration;
+    }
+}
@@ -0,0 +1,83 @@
+package mofo.com.pestscout.common.monitoring;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import mofo.com.pestscout.common.persistence.QueryStatistics;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the SQL work done while serving each HTTP request, including authentication, and exports it per endpoint:
+ * {@code http.server.requests.queries}, {@code http.server.requests.rows} and {@code http.server.requests.jdbc}.
+ * Requests over their {@link QueryBudgetProperties query budget} are logged and counted in
+ * {@code http.server.requests.query.budget.exceeded}. Registered by {@link QueryMetricsConfig}.
+ */
+@RequiredArgsConstructor
+@Slf4j
+public class QueryMetricsFilter extends OncePerRequestFilter {
+
+    private static final String UNMAPPED = "UNMAPPED";
+
+    private final MeterRegistry meterRegistry;
+    private final QueryBudgetProperties properties;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        QueryStatistics.Snapshot start = QueryStatistics.snapshot();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            record(request, QueryStatistics.snapshot().since(start));
+        }
+    }
+
+    private void record(HttpServletRequest request, QueryStatistics.Snapshot usage) {
+        String method = request.getMethod();
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String uri = pattern != null ? pattern.toString() : UNMAPPED;
+
+        DistributionSummary.builder("http.server.requests.queries")
+                .description("SQL statements issued while serving a request")
+                .tags("method", method, "uri", uri)
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(usage.statements());
+        DistributionSummary.builder("http.server.requests.rows")
+                .description("Entity rows loaded while serving a request")
+                .tags("method", method, "uri", uri)
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(usage.rows());
+        Timer.builder("http.server.requests.jdbc")
+                .description("Time spent executing JDBC statements while serving a request")
+                .tags("method", method, "uri", uri)
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(usage.jdbcNanos(), TimeUnit.NANOSECONDS);
+
+        int budget = properties.budgetFor(method, uri);
+        if (usage.statements() > budget) {
+            Counter.builder("http.server.requests.query.budget.exceeded")
+                    .description("Requests that issued more SQL statements than their budget")
+                    .tags("method", method, "uri", uri)
+                    .register(meterRegistry)
+                    .increment();
+            log.warn("Query budget exceeded for {} {}: {} statements (budget {}), {} rows, {} ms in JDBC",
+                    method, uri, usage.statements(), budget, usage.rows(),
+                    TimeUnit.NANOSECONDS.toMillis(usage.jdbcNanos()));
+        }
+    }
+}
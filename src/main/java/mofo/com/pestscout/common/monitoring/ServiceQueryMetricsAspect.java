@@ -0,0 +1,43 @@
+package mofo.com.pestscout.common.monitoring;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import mofo.com.pestscout.common.persistence.QueryStatistics;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * Attributes SQL statements to the {@code @Service} method that issued them, so a hidden lazy load can be traced to
+ * the method that triggered it rather than only to the endpoint. Counts are inclusive of nested service calls and
+ * are only recorded for invocations that touched the database.
+ */
+@Aspect
+@Component
+@ConditionalOnProperty(name = "app.persistence.query-budget.enabled", havingValue = "true", matchIfMissing = true)
+@RequiredArgsConstructor
+public class ServiceQueryMetricsAspect {
+
+    private final MeterRegistry meterRegistry;
+
+    @Around("within(@org.springframework.stereotype.Service mofo.com.pestscout..*)")
+    public Object measure(ProceedingJoinPoint joinPoint) throws Throwable {
+        QueryStatistics.Snapshot start = QueryStatistics.snapshot();
+        try {
+            return joinPoint.proceed();
+        } finally {
+            QueryStatistics.Snapshot usage = QueryStatistics.snapshot().since(start);
+            if (usage.statements() > 0) {
+                DistributionSummary.builder("service.method.queries")
+                        .description("SQL statements issued by a service method, including nested calls")
+                        .tags("class", joinPoint.getSignature().getDeclaringType().getSimpleName(),
+                                "method", joinPoint.getSignature().getName())
+                        .register(meterRegistry)
+                        .record(usage.statements());
+            }
+        }
+    }
+}
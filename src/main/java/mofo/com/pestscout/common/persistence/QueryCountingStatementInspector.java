@@ -0,0 +1,15 @@
+package mofo.com.pestscout.common.persistence;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Counts every SQL statement Hibernate prepares on the current thread. The statement text is returned unchanged.
+ */
+public class QueryCountingStatementInspector implements StatementInspector {
+
+    @Override
+    public String inspect(String sql) {
+        QueryStatistics.recordStatement();
+        return sql;
+    }
+}
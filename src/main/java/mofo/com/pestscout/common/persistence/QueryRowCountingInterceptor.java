@@ -0,0 +1,17 @@
+package mofo.com.pestscout.common.persistence;
+
+import org.hibernate.Interceptor;
+import org.hibernate.type.Type;
+
+/**
+ * Counts entity rows hydrated on the current thread, including rows pulled in by lazy collection and proxy
+ * initialisation, which is where hidden N+1 loads show up.
+ */
+public class QueryRowCountingInterceptor implements Interceptor {
+
+    @Override
+    public boolean onLoad(Object entity, Object id, Object[] state, String[] propertyNames, Type[] types) {
+        QueryStatistics.recordRow();
+        return false;
+    }
+}
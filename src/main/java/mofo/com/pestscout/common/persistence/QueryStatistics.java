@@ -0,0 +1,44 @@
+package mofo.com.pestscout.common.persistence;
+
+/**
+ * Per-thread running totals of the SQL work Hibernate performs: statements issued, entity rows hydrated, and time
+ * spent executing JDBC statements. Totals only ever grow; callers take a {@link Snapshot} before a unit of work and
+ * diff against it afterwards, which lets request-level and method-level measurements nest without coordination.
+ */
+public final class QueryStatistics {
+
+    private static final ThreadLocal<Counters> COUNTERS = ThreadLocal.withInitial(Counters::new);
+
+    private QueryStatistics() {
+    }
+
+    public static Snapshot snapshot() {
+        Counters counters = COUNTERS.get();
+        return new Snapshot(counters.statements, counters.rows, counters.jdbcNanos);
+    }
+
+    static void recordStatement() {
+        COUNTERS.get().statements++;
+    }
+
+    static void recordRow() {
+        COUNTERS.get().rows++;
+    }
+
+    static void recordJdbcNanos(long nanos) {
+        COUNTERS.get().jdbcNanos += nanos;
+    }
+
+    public record Snapshot(long statements, long rows, long jdbcNanos) {
+
+        public Snapshot since(Snapshot start) {
+            return new Snapshot(statements - start.statements, rows - start.rows, jdbcNanos - start.jdbcNanos);
+        }
+    }
+
+    private static final class Counters {
+        private long statements;
+        private long rows;
+        private long jdbcNanos;
+    }
+}
@@ -0,0 +1,33 @@
+package mofo.com.pestscout.common.persistence;
+
+import org.hibernate.SessionEventListener;
+
+/**
+ * Registered for every Hibernate session through {@code hibernate.session.events.auto}; accumulates the time spent
+ * inside JDBC statement and batch execution on the current thread.
+ */
+public class QueryTimingSessionEventListener implements SessionEventListener {
+
+    private long executeStartedAt;
+    private long batchStartedAt;
+
+    @Override
+    public void jdbcExecuteStatementStart() {
+        executeStartedAt = System.nanoTime();
+    }
+
+    @Override
+    public void jdbcExecuteStatementEnd() {
+        QueryStatistics.recordJdbcNanos(System.nanoTime() - executeStartedAt);
+    }
+
+    @Override
+    public void jdbcExecuteBatchStart() {
+        batchStartedAt = System.nanoTime();
+    }
+
+    @Override
+    public void jdbcExecuteBatchEnd() {
+        QueryStatistics.recordJdbcNanos(System.nanoTime() - batchStartedAt);
+    }
+}
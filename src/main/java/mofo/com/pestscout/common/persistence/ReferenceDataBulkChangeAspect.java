@@ -0,0 +1,37 @@
+package mofo.com.pestscout.common.persistence;
+
+import mofo.com.pestscout.common.service.ReferenceDataCacheService;
+import org.aspectj.lang.JoinPoint;
+import org.aspectj.lang.annotation.AfterReturning;
+import org.aspectj.lang.annotation.Aspect;
+import org.hibernate.annotations.Cache;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.core.ResolvableType;
+import org.springframework.data.repository.Repository;
+import org.springframework.stereotype.Component;
+
+/**
+ * Bulk JPQL and native statements bypass {@link ReferenceDataCacheListener}: Hibernate clears the affected cache
+ * regions on this node, but peers would keep serving the old rows. Every {@code @Modifying} query declared on the
+ * repository of a second-level cached entity therefore records a whole-entity invalidation for the other nodes.
+ */
+@Aspect
+@Component
+public class ReferenceDataBulkChangeAspect {
+
+    private final ObjectProvider<ReferenceDataCacheService> cacheService;
+
+    public ReferenceDataBulkChangeAspect(ObjectProvider<ReferenceDataCacheService> cacheService) {
+        this.cacheService = cacheService;
+    }
+
+    @AfterReturning("@annotation(org.springframework.data.jpa.repository.Modifying)")
+    public void recordBulkChange(JoinPoint joinPoint) {
+        Class<?> domainType = ResolvableType.forClass(joinPoint.getSignature().getDeclaringType())
+                .as(Repository.class)
+                .resolveGeneric(0);
+        if (domainType != null && domainType.isAnnotationPresent(Cache.class)) {
+            cacheService.getObject().recordBulkChange(domainType);
+        }
+    }
+}
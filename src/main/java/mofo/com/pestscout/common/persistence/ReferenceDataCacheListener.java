@@ -0,0 +1,73 @@
+package mofo.com.pestscout.common.persistence;
+
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import mofo.com.pestscout.common.config.SecondLevelCacheProperties;
+import mofo.com.pestscout.common.model.BaseEntity;
+import mofo.com.pestscout.common.service.ReferenceDataCacheService;
+import mofo.com.pestscout.common.service.ReferenceDataCacheService.ChangedEntity;
+import org.hibernate.Hibernate;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * Entity listener for second-level cached reference entities. Updates and deletes are collected per transaction and
+ * published to the cache invalidation outbox once the transaction commits, so peers never evict a change that was
+ * rolled back.
+ * <p>
+ * Hibernate asks Spring for the listener instance; the service is looked up lazily because it depends on the entity
+ * manager factory that is still being built when the listener is created.
+ */
+@Component
+public class ReferenceDataCacheListener {
+
+    private static final Object PENDING_CHANGES_KEY = ReferenceDataCacheListener.class.getName() + ".PENDING";
+
+    private final ObjectProvider<ReferenceDataCacheService> cacheService;
+    private final SecondLevelCacheProperties properties;
+
+    public ReferenceDataCacheListener(ObjectProvider<ReferenceDataCacheService> cacheService,
+                                      SecondLevelCacheProperties properties) {
+        this.cacheService = cacheService;
+        this.properties = properties;
+    }
+
+    @PostUpdate
+    @PostRemove
+    public void onChange(BaseEntity entity) {
+        if (!properties.isEnabled() || !properties.isClusterEnabled() || entity.getId() == null) {
+            return;
+        }
+
+        ChangedEntity change = new ChangedEntity(Hibernate.getClass(entity).getName(), entity.getId());
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            cacheService.getObject().publish(Set.of(change));
+            return;
+        }
+
+        @SuppressWarnings("unchecked")
+        Set<ChangedEntity> pending = (Set<ChangedEntity>) TransactionSynchronizationManager.getResource(PENDING_CHANGES_KEY);
+        if (pending == null) {
+            Set<ChangedEntity> changes = new LinkedHashSet<>();
+            TransactionSynchronizationManager.bindResource(PENDING_CHANGES_KEY, changes);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    cacheService.getObject().publish(changes);
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(PENDING_CHANGES_KEY);
+                }
+            });
+            pending = changes;
+        }
+        pending.add(change);
+    }
+}
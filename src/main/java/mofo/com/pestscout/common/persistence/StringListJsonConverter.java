@@ -1,42 +0,0 @@
-package mofo.com.pestscout.common.persistence;
-
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.core.type.TypeReference;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import jakarta.persistence.AttributeConverter;
-import jakarta.persistence.Converter;
-
-import java.io.IOException;
-import java.util.List;
-
-@Converter
-public class StringListJsonConverter implements AttributeConverter<List<String>, String> {
-
-    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
-    private static final TypeReference<List<String>> STRING_LIST_TYPE = new TypeReference<>() {
-    };
-
-    @Override
-    public String convertToDatabaseColumn(List<String> attribute) {
-        if (attribute == null || attribute.isEmpty()) {
-            return "[]";
-        }
-        try {
-            return OBJECT_MAPPER.writeValueAsString(attribute);
-        } catch (JsonProcessingException exception) {
-            throw new IllegalArgumentException("Unable to serialize list of strings.", exception);
-        }
-    }
-
-    @Override
-    public List<String> convertToEntityAttribute(String dbData) {
-        if (dbData == null || dbData.isBlank()) {
-            return List.of();
-        }
-        try {
-            return List.copyOf(OBJECT_MAPPER.readValue(dbData, STRING_LIST_TYPE));
-        } catch (IOException exception) {
-            throw new IllegalArgumentException("Unable to deserialize list of strings.", exception);
-        }
-    }
-}
@@ -0,0 +1,8 @@
+package mofo.com.pestscout.common.repository;
+
+import mofo.com.pestscout.common.model.CacheInvalidationEvent;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface CacheInvalidationEventRepository extends ClusterOutboxRepository<CacheInvalidationEvent> {
+}
@@ -0,0 +1,29 @@
+package mofo.com.pestscout.common.repository;
+
+import mofo.com.pestscout.common.model.BaseEntity;
+import mofo.com.pestscout.common.model.ClusterOutboxEvent;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.NoRepositoryBean;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Queries shared by the cluster outbox tables read by {@link mofo.com.pestscout.common.service.ClusterOutboxRelay}.
+ */
+@NoRepositoryBean
+public interface ClusterOutboxRepository<E extends BaseEntity & ClusterOutboxEvent> extends JpaRepository<E, UUID> {
+
+    List<E> findTop500BySequenceNumberGreaterThanOrderBySequenceNumberAsc(Long sequenceNumber);
+
+    @Query("select max(e.sequenceNumber) from #{#entityName} e")
+    Long findMaxSequenceNumber();
+
+    @Modifying
+    @Query("delete from #{#entityName} e where e.occurredAt < :cutoff")
+    int deleteOccurredBefore(@Param("cutoff") LocalDateTime cutoff);
+}
@@ -0,0 +1,50 @@
+package mofo.com.pestscout.common.service;
+
+import mofo.com.pestscout.common.config.SecondLevelCacheProperties;
+import mofo.com.pestscout.common.model.CacheInvalidationEvent;
+import mofo.com.pestscout.common.repository.CacheInvalidationEventRepository;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Evicts reference data changed by other nodes from the local second-level cache, as recorded in the shared cache
+ * invalidation outbox.
+ */
+@Component
+public class ClusterCacheInvalidationRelay extends ClusterOutboxRelay<CacheInvalidationEvent> {
+
+    private final ReferenceDataCacheService referenceDataCacheService;
+    private final SecondLevelCacheProperties properties;
+
+    public ClusterCacheInvalidationRelay(CacheInvalidationEventRepository eventRepository,
+                                         ReferenceDataCacheService referenceDataCacheService,
+                                         SecondLevelCacheProperties properties) {
+        super(eventRepository, "cache_invalidation_events");
+        this.referenceDataCacheService = referenceDataCacheService;
+        this.properties = properties;
+    }
+
+    @Scheduled(fixedDelayString = "${app.persistence.second-level-cache.cluster-poll-ms:1000}")
+    @Override
+    public void relayPeerEvents() {
+        if (!properties.isEnabled() || !properties.isClusterEnabled()) {
+            return;
+        }
+        relay(properties.getNodeId(), properties.getClusterCatchUpWindowMs());
+    }
+
+    @Scheduled(fixedDelayString = "${app.persistence.second-level-cache.cluster-cleanup-ms:60000}")
+    @Transactional
+    public void purgeExpiredEvents() {
+        if (!properties.isEnabled() || !properties.isClusterEnabled()) {
+            return;
+        }
+        purgeOlderThan(properties.getClusterRetentionMinutes());
+    }
+
+    @Override
+    protected void apply(CacheInvalidationEvent event) {
+        referenceDataCacheService.evict(event.getEntityName(), event.getEntityId());
+    }
+}
@@ -0,0 +1,150 @@
+package mofo.com.pestscout.common.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Wakes the cluster outbox relays as soon as a peer commits new outbox rows, so delivery is not bounded by the poll
+ * interval; the scheduled polls remain the fallback. The outbox tables notify the {@value #CHANNEL} channel with
+ * their table name on insert, and the listener runs the relay reading that table.
+ * <p>
+ * Only active on PostgreSQL. The listener holds its own connection, outside the pool and connection admission, and
+ * reconnects after {@value #RECONNECT_DELAY_MS} ms if it is lost; every relay runs once after each (re)connect to
+ * pick up rows committed while nobody was listening.
+ */
+@Component
+@Slf4j
+public class ClusterOutboxListener implements SmartLifecycle {
+
+    static final String CHANNEL = "cluster_outbox";
+    private static final int WAIT_MS = 1000;
+    private static final long RECONNECT_DELAY_MS = 5000;
+
+    private final List<ClusterOutboxRelay<?>> relays;
+    private final DataSourceProperties dataSourceProperties;
+
+    private volatile boolean running;
+    private volatile Connection connection;
+    private Thread thread;
+
+    public ClusterOutboxListener(List<ClusterOutboxRelay<?>> relays,
+                                 ObjectProvider<DataSourceProperties> dataSourceProperties) {
+        this.relays = relays;
+        this.dataSourceProperties = dataSourceProperties.getIfAvailable();
+    }
+
+    @Override
+    public void start() {
+        if (relays.isEmpty() || dataSourceProperties == null
+                || !dataSourceProperties.determineUrl().startsWith("jdbc:postgresql:")) {
+            return;
+        }
+        running = true;
+        thread = new Thread(this::listen, "cluster-outbox-listener");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        closeConnection();
+        if (thread != null) {
+            thread.interrupt();
+            thread = null;
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private void listen() {
+        while (running) {
+            try (Connection listening = DriverManager.getConnection(
+                    dataSourceProperties.determineUrl(),
+                    dataSourceProperties.determineUsername(),
+                    dataSourceProperties.determinePassword())) {
+                try (Statement statement = listening.createStatement()) {
+                    statement.execute("LISTEN " + CHANNEL);
+                }
+                connection = listening;
+                log.info("Listening for cluster outbox notifications on channel {}", CHANNEL);
+                relayAll();
+
+                PGConnection notifications = listening.unwrap(PGConnection.class);
+                while (running) {
+                    PGNotification[] received = notifications.getNotifications(WAIT_MS);
+                    if (received != null && received.length > 0) {
+                        relayNotified(received);
+                    }
+                }
+            } catch (SQLException ex) {
+                if (!running) {
+                    return;
+                }
+                log.warn("Cluster outbox listener lost its connection; reconnecting in {} ms: {}",
+                        RECONNECT_DELAY_MS, ex.getMessage());
+                try {
+                    Thread.sleep(RECONNECT_DELAY_MS);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            } finally {
+                connection = null;
+            }
+        }
+    }
+
+    private void relayNotified(PGNotification[] received) {
+        // a burst of commits arrives as several notifications per table but needs only one read
+        Set<String> tables = new LinkedHashSet<>();
+        for (PGNotification notification : received) {
+            tables.add(notification.getParameter());
+        }
+        for (ClusterOutboxRelay<?> relay : relays) {
+            if (tables.contains(relay.getTableName())) {
+                relayPeerEvents(relay);
+            }
+        }
+    }
+
+    private void relayAll() {
+        relays.forEach(this::relayPeerEvents);
+    }
+
+    private void relayPeerEvents(ClusterOutboxRelay<?> relay) {
+        try {
+            relay.relayPeerEvents();
+        } catch (RuntimeException ex) {
+            log.warn("Relaying {} after a notification failed; the scheduled poll will retry: {}",
+                    relay.getTableName(), ex.getMessage());
+        }
+    }
+
+    private void closeConnection() {
+        Connection current = connection;
+        if (current != null) {
+            try {
+                current.close();
+            } catch (SQLException ex) {
+                log.debug("Closing the cluster outbox listener connection failed: {}", ex.getMessage());
+            }
+        }
+    }
+}
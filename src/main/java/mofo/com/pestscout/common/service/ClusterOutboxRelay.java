@@ -0,0 +1,97 @@
+package mofo.com.pestscout.common.service;
+
+import lombok.extern.slf4j.Slf4j;
+import mofo.com.pestscout.common.model.BaseEntity;
+import mofo.com.pestscout.common.model.ClusterOutboxEvent;
+import mofo.com.pestscout.common.repository.ClusterOutboxRepository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reads a shared outbox table in database sequence order and applies the events written by other nodes. The relay
+ * keeps the highest sequence number below which every row has been seen. A missing number above it usually belongs
+ * to an insert that has not committed yet, so rows past the gap are applied as they arrive but the mark only moves
+ * over the gap once the catch-up window has passed, by which time the number is taken to be rolled back.
+ * <p>
+ * Subclasses schedule {@link #relayPeerEvents} and {@link #purgeOlderThan} with their own settings and apply each
+ * event; {@link ClusterOutboxListener} also runs {@link #relayPeerEvents} as soon as the table is notified of new rows.
+ */
+@Slf4j
+public abstract class ClusterOutboxRelay<E extends BaseEntity & ClusterOutboxEvent> {
+
+    private final ClusterOutboxRepository<E> eventRepository;
+    private final String tableName;
+
+    // sequence numbers above the mark that were already read, with the time the first of them was seen
+    private final NavigableMap<Long, Long> seenAboveMark = new TreeMap<>();
+    private Long mark;
+
+    protected ClusterOutboxRelay(ClusterOutboxRepository<E> eventRepository, String tableName) {
+        this.eventRepository = eventRepository;
+        this.tableName = tableName;
+    }
+
+    /**
+     * Outbox table this relay reads, which is also the payload of its notifications.
+     */
+    public String getTableName() {
+        return tableName;
+    }
+
+    public abstract void relayPeerEvents();
+
+    protected abstract void apply(E event);
+
+    protected synchronized void relay(String nodeId, long catchUpWindowMs) {
+        if (mark == null) {
+            Long latest = eventRepository.findMaxSequenceNumber();
+            mark = latest == null ? 0L : latest;
+        }
+
+        List<E> events;
+        do {
+            long markBefore = mark;
+            events = eventRepository.findTop500BySequenceNumberGreaterThanOrderBySequenceNumberAsc(mark);
+            long now = System.nanoTime();
+            for (E event : events) {
+                if (seenAboveMark.putIfAbsent(event.getSequenceNumber(), now) != null) {
+                    continue;
+                }
+                if (!nodeId.equals(event.getOriginNodeId())) {
+                    apply(event);
+                }
+            }
+            advanceMark(now, TimeUnit.MILLISECONDS.toNanos(catchUpWindowMs));
+            if (mark == markBefore) {
+                break;
+            }
+        } while (events.size() == 500);
+    }
+
+    private void advanceMark(long now, long catchUpWindowNanos) {
+        while (!seenAboveMark.isEmpty()) {
+            Map.Entry<Long, Long> next = seenAboveMark.firstEntry();
+            if (next.getKey() != mark + 1 && now - next.getValue() < catchUpWindowNanos) {
+                return;
+            }
+            if (next.getKey() != mark + 1) {
+                log.debug("Skipping {} outbox sequence number(s) after {} that never committed.",
+                        next.getKey() - mark - 1, mark);
+            }
+            mark = next.getKey();
+            seenAboveMark.pollFirstEntry();
+        }
+    }
+
+    protected void purgeOlderThan(long retentionMinutes) {
+        int purged = eventRepository.deleteOccurredBefore(LocalDateTime.now().minusMinutes(retentionMinutes));
+        if (purged > 0) {
+            log.debug("Purged {} expired {} row(s).", purged, tableName);
+        }
+    }
+}
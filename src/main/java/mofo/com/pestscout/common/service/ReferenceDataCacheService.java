@@ -0,0 +1,106 @@
+package mofo.com.pestscout.common.service;
+
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import mofo.com.pestscout.common.config.SecondLevelCacheProperties;
+import mofo.com.pestscout.common.model.CacheInvalidationEvent;
+import mofo.com.pestscout.common.repository.CacheInvalidationEventRepository;
+import org.hibernate.Cache;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.persister.entity.EntityPersister;
+import org.hibernate.type.CollectionType;
+import org.hibernate.type.Type;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.UUID;
+
+/**
+ * Keeps the second-level cache of farm structure reference data consistent across nodes. Changes committed on this
+ * node are recorded in the shared invalidation outbox; {@link ClusterCacheInvalidationRelay} replays the changes made
+ * by peers through {@link #evict}. Entity changes arrive through
+ * {@link mofo.com.pestscout.common.persistence.ReferenceDataCacheListener} and bulk statements through
+ * {@link mofo.com.pestscout.common.persistence.ReferenceDataBulkChangeAspect}.
+ */
+@Service
+@Slf4j
+public class ReferenceDataCacheService {
+
+    private final CacheInvalidationEventRepository eventRepository;
+    private final SecondLevelCacheProperties properties;
+    private final SessionFactoryImplementor sessionFactory;
+
+    public ReferenceDataCacheService(CacheInvalidationEventRepository eventRepository,
+                                     SecondLevelCacheProperties properties,
+                                     EntityManagerFactory entityManagerFactory) {
+        this.eventRepository = eventRepository;
+        this.properties = properties;
+        this.sessionFactory = entityManagerFactory.unwrap(SessionFactoryImplementor.class);
+    }
+
+    /**
+     * Records committed changes for the other nodes. Runs in its own transaction because it is called after the
+     * changing transaction has committed.
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void publish(Collection<ChangedEntity> changes) {
+        if (!properties.isEnabled() || !properties.isClusterEnabled() || changes.isEmpty()) {
+            return;
+        }
+        eventRepository.saveAll(changes.stream()
+                .map(change -> CacheInvalidationEvent.builder()
+                        .entityName(change.entityName())
+                        .entityId(change.id())
+                        .originNodeId(properties.getNodeId())
+                        .build())
+                .toList());
+    }
+
+    /**
+     * Records that a bulk JPQL or native statement changed rows of a cached entity, so peers evict every cached row
+     * of it. Joins the caller's transaction, so the outbox row commits together with the statement.
+     */
+    @Transactional
+    public void recordBulkChange(Class<?> entityType) {
+        if (!properties.isEnabled() || !properties.isClusterEnabled()) {
+            return;
+        }
+        eventRepository.save(CacheInvalidationEvent.builder()
+                .entityName(entityType.getName())
+                .originNodeId(properties.getNodeId())
+                .build());
+    }
+
+    /**
+     * Evicts one entity and every cached collection it owns from this node's second-level cache, or every cached row
+     * of the entity and its collections when {@code id} is null.
+     */
+    public void evict(String entityName, UUID id) {
+        EntityPersister persister = sessionFactory.getMappingMetamodel().findEntityDescriptor(entityName);
+        if (persister == null) {
+            log.debug("Ignoring cache invalidation for unknown entity {}", entityName);
+            return;
+        }
+
+        Cache cache = sessionFactory.getCache();
+        if (id == null) {
+            cache.evictEntityData(entityName);
+        } else {
+            cache.evictEntityData(entityName, id);
+        }
+        for (Type type : persister.getPropertyTypes()) {
+            if (type instanceof CollectionType collectionType) {
+                if (id == null) {
+                    cache.evictCollectionData(collectionType.getRole());
+                } else {
+                    cache.evictCollectionData(collectionType.getRole(), id);
+                }
+            }
+        }
+    }
+
+    public record ChangedEntity(String entityName, UUID id) {
+    }
+}
@@ -1,5 +1,6 @@
 package mofo.com.pestscout.farm.controller;
 
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import mofo.com.pestscout.analytics.service.RawDataPdfExportService;
@@ -13,6 +14,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
 import java.util.List;
 import java.util.UUID;
 
@@ -51,14 +53,16 @@ public class FarmLicenseController {
         return ResponseEntity.ok(farmLicenseService.getLicenseHistory(farmId));
     }
 
+    /**
+     * Streams the PDF as it is generated instead of building it in memory first.
+     */
     @GetMapping(value = "/raw-data-export.pdf", produces = MediaType.APPLICATION_PDF_VALUE)
     @PreAuthorize("hasAnyRole('SUPER_ADMIN','FARM_ADMIN','MANAGER')")
-    public ResponseEntity<byte[]> downloadRawDataPdf(@PathVariable UUID farmId) {
-        RawDataPdfExportService.GeneratedPdfDocument document = rawDataPdfExportService.exportFarmRawDataPdf(farmId);
-
-        return ResponseEntity.ok()
-                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + document.fileName() + "\"")
-                .contentType(MediaType.APPLICATION_PDF)
-                .body(document.content());
+    public void downloadRawDataPdf(@PathVariable UUID farmId, HttpServletResponse response) throws IOException {
+        rawDataPdfExportService.exportFarmRawDataPdf(farmId, fileName -> {
+            response.setContentType(MediaType.APPLICATION_PDF_VALUE);
+            response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + fileName + "\"");
+            return response.getOutputStream();
+        });
     }
 }
@@ -5,7 +5,11 @@ import lombok.*;
 import lombok.experimental.SuperBuilder;
 import lombok.extern.slf4j.Slf4j;
 import mofo.com.pestscout.auth.model.User;
+import mofo.com.pestscout.common.config.SecondLevelCacheConfig;
 import mofo.com.pestscout.common.model.BaseEntity;
+import mofo.com.pestscout.common.persistence.ReferenceDataCacheListener;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
@@ -17,6 +21,9 @@ import java.util.List;
  * Licensing, subscription, ownership, and assigned scout are all enforced here.
  */
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = SecondLevelCacheConfig.REGION_FARMS)
+@EntityListeners(ReferenceDataCacheListener.class)
 @Table(
         name = "farms",
         indexes = {
@@ -3,13 +3,22 @@ package mofo.com.pestscout.farm.model;
 import jakarta.persistence.*;
 import lombok.*;
 import lombok.experimental.SuperBuilder;
+import mofo.com.pestscout.common.config.SecondLevelCacheConfig;
 import mofo.com.pestscout.common.model.BaseEntity;
+import mofo.com.pestscout.common.persistence.ReferenceDataCacheListener;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
 
 import java.math.BigDecimal;
 import java.util.ArrayList;
 import java.util.List;
 
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = SecondLevelCacheConfig.REGION_FIELD_BLOCKS)
+@EntityListeners(ReferenceDataCacheListener.class)
 @Table(
         name = "field_blocks",
         indexes = {
@@ -44,9 +53,8 @@ public class FieldBlock extends BaseEntity {
     private String cropType;
 
     @Builder.Default
-    @ElementCollection
-    @CollectionTable(name = "field_block_bay_tags", joinColumns = @JoinColumn(name = "field_block_id"))
-    @Column(name = "bay_tag", length = 255)
+    @JdbcTypeCode(SqlTypes.JSON)
+    @Column(name = "bay_tags", nullable = false)
     private List<String> bayTags = new ArrayList<>();
 
     @Builder.Default
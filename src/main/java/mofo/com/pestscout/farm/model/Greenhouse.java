@@ -3,7 +3,13 @@ package mofo.com.pestscout.farm.model;
 import jakarta.persistence.*;
 import lombok.*;
 import lombok.experimental.SuperBuilder;
+import mofo.com.pestscout.common.config.SecondLevelCacheConfig;
 import mofo.com.pestscout.common.model.BaseEntity;
+import mofo.com.pestscout.common.persistence.ReferenceDataCacheListener;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
 
 import java.math.BigDecimal;
 import java.util.ArrayList;
@@ -11,6 +17,9 @@ import java.util.List;
 import java.util.stream.IntStream;
 
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = SecondLevelCacheConfig.REGION_GREENHOUSES)
+@EntityListeners(ReferenceDataCacheListener.class)
 @Table(
         name = "greenhouses",
         indexes = {
@@ -47,22 +56,20 @@ public class Greenhouse extends BaseEntity {
     @Column(name = "area_hectares", precision = 10, scale = 2)
     private BigDecimal areaHectares;
 
+    // Layout lists are stored inline as JSON so a greenhouse loads and saves as a single row.
     @Builder.Default
-    @ElementCollection
-    @CollectionTable(name = "greenhouse_bay_tags", joinColumns = @JoinColumn(name = "greenhouse_id"))
-    @Column(name = "bay_tag", length = 255)
+    @JdbcTypeCode(SqlTypes.JSON)
+    @Column(name = "bay_tags", nullable = false)
     private List<String> bayTags = new ArrayList<>();
 
     @Builder.Default
-    @ElementCollection
-    @CollectionTable(name = "greenhouse_bench_tags", joinColumns = @JoinColumn(name = "greenhouse_id"))
-    @Column(name = "bench_tag", length = 255)
+    @JdbcTypeCode(SqlTypes.JSON)
+    @Column(name = "bench_tags", nullable = false)
     private List<String> benchTags = new ArrayList<>();
 
     @Builder.Default
-    @ElementCollection
-    @CollectionTable(name = "greenhouse_bays", joinColumns = @JoinColumn(name = "greenhouse_id"))
-    @OrderColumn(name = "position_index")
+    @JdbcTypeCode(SqlTypes.JSON)
+    @Column(name = "bays", nullable = false)
     private List<GreenhouseBayDefinition> bays = new ArrayList<>();
 
     @Builder.Default
@@ -1,17 +1,15 @@
 package mofo.com.pestscout.farm.model;
 
-import jakarta.persistence.Column;
-import jakarta.persistence.Convert;
-import jakarta.persistence.Embeddable;
 import lombok.*;
 import lombok.experimental.SuperBuilder;
-import mofo.com.pestscout.common.persistence.StringListJsonConverter;
 
 import java.util.ArrayList;
 import java.util.List;
 import java.util.stream.IntStream;
 
-@Embeddable
+/**
+ * One bay of a greenhouse layout, stored as an element of the greenhouse's {@code bays} JSON column.
+ */
 @Getter
 @Setter
 @SuperBuilder
@@ -19,15 +17,11 @@ import java.util.stream.IntStream;
 @AllArgsConstructor(access = AccessLevel.PROTECTED)
 public class GreenhouseBayDefinition {
 
-    @Column(name = "bay_tag", nullable = false, length = 255)
     private String bayTag;
 
-    @Column(name = "bed_count", nullable = false)
     private Integer bedCount;
 
     @Builder.Default
-    @Convert(converter = StringListJsonConverter.class)
-    @Column(name = "bed_tags_json", length = 4000)
     private List<String> bedTags = new ArrayList<>();
 
     public List<String> resolvedBedTags() {
@@ -2,20 +2,25 @@ package mofo.com.pestscout.farm.service;
 
 import lombok.RequiredArgsConstructor;
 import mofo.com.pestscout.analytics.dto.FarmWeeklyAnalyticsDto;
+import mofo.com.pestscout.analytics.model.WeeklyAnalyticsCounter;
+import mofo.com.pestscout.analytics.model.WeeklyAnalyticsMetric;
+import mofo.com.pestscout.analytics.service.WeeklyAnalyticsService;
+import mofo.com.pestscout.common.exception.BadRequestException;
 import mofo.com.pestscout.common.exception.ResourceNotFoundException;
 import mofo.com.pestscout.farm.model.Farm;
 import mofo.com.pestscout.farm.repository.FarmRepository;
-import mofo.com.pestscout.scouting.model.*;
-import mofo.com.pestscout.scouting.repository.ScoutingObservationRepository;
-import mofo.com.pestscout.scouting.repository.ScoutingSessionRepository;
+import mofo.com.pestscout.scouting.model.ObservationCategory;
+import mofo.com.pestscout.scouting.model.SessionStatus;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
+import java.time.temporal.IsoFields;
 import java.time.temporal.WeekFields;
 import java.util.*;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
@@ -24,111 +29,93 @@ public class AnalyticsService {
     private static final Logger LOGGER = LoggerFactory.getLogger(AnalyticsService.class);
 
     private final FarmRepository farmRepository;
-    private final ScoutingSessionRepository sessionRepository;
-    private final ScoutingObservationRepository observationRepository;
+    private final WeeklyAnalyticsService weeklyAnalyticsService;
 
     /**
      * Compute basic weekly analytics for a farm:
      * session counts, observation counts and severity distribution.
      *
-     * Cached for 30 minutes since this is an expensive aggregation query.
-     * Cache key includes farmId, week, and year to ensure correct data per time period.
+     * Read from the weekly analytics read model; see {@link WeeklyAnalyticsService}.
      */
     @Transactional(readOnly = true)
-//    @Cacheable(
-//            value = "analytics",
-//            keyGenerator = "tenantAwareKeyGenerator",
-//            unless = "#result == null || #result.totalObservations() == 0"
-//    )
     public FarmWeeklyAnalyticsDto computeWeeklyAnalytics(UUID farmId, int week, int year) {
         LOGGER.info("Computing weekly analytics for farm {} week {} year {}", farmId, week, year);
 
+        LocalDate weekStart = LocalDate.of(year, 1, 4)
+                .with(WeekFields.ISO.weekOfWeekBasedYear(), week)
+                .with(WeekFields.ISO.dayOfWeek(), 1);
+
+        return computeWeeklyAnalytics(farmId, weekStart, weekStart).get(0);
+    }
+
+    /**
+     * Weekly analytics for every ISO week overlapping {@code from}..{@code to}, oldest first, read in one statement.
+     * Weeks without sessions are included with zero totals.
+     */
+    @Transactional(readOnly = true)
+    public List<FarmWeeklyAnalyticsDto> computeWeeklyAnalytics(UUID farmId, LocalDate from, LocalDate to) {
+        if (to.isBefore(from)) {
+            throw new BadRequestException("End date must not be before start date.");
+        }
+
         Farm farm = farmRepository.findById(farmId)
                 .orElseThrow(() -> new ResourceNotFoundException("Farm", "id", farmId));
 
-        WeekFields weekFields = WeekFields.of(Locale.getDefault());
-        LocalDate firstWeekReference = LocalDate.of(year, 1, 4);
-
-        LocalDate weekStart = firstWeekReference
-                .with(weekFields.weekOfWeekBasedYear(), week)
-                .with(weekFields.dayOfWeek(), 1);
-
-        LocalDate weekEnd = weekStart.plusDays(6);
-
-        List<ScoutingSession> sessions = sessionRepository
-                .findByFarmIdAndSessionDateBetween(farmId, weekStart, weekEnd);
-
-        long totalSessions = sessions.size();
-        long completedSessions = sessions.stream()
-                .filter(s -> s.getStatus() == SessionStatus.COMPLETED)
-                .count();
-
-        if (sessions.isEmpty()) {
-            LOGGER.debug("No sessions found for farm {} week {} year {}", farmId, week, year);
-            return new FarmWeeklyAnalyticsDto(
-                    farm.getId(),
-                    farm.getName(),
-                    week,
-                    year,
-                    farm.resolveBayCount(),
-                    farm.resolveBenchesPerBay(),
-                    totalSessions,
-                    completedSessions,
-                    0,
-                    0,
-                    0,
-                    0,
-                    Map.of()
-            );
+        if (!weeklyAnalyticsService.isInitialized(farmId)) {
+            weeklyAnalyticsService.rebuild(farmId);
         }
 
-        List<UUID> sessionIds = sessions.stream()
-                .map(ScoutingSession::getId)
-                .toList();
+        LocalDate firstWeek = WeeklyAnalyticsService.weekStart(from);
+        LocalDate lastWeek = WeeklyAnalyticsService.weekStart(to);
+        Map<LocalDate, List<WeeklyAnalyticsCounter>> countersByWeek = weeklyAnalyticsService
+                .counters(farmId, firstWeek, lastWeek).stream()
+                .collect(Collectors.groupingBy(WeeklyAnalyticsCounter::getWeekStart));
 
-        List<ScoutingObservation> observations =
-                observationRepository.findBySessionIdIn(sessionIds);
+        List<FarmWeeklyAnalyticsDto> weeks = new ArrayList<>();
+        for (LocalDate weekStart = firstWeek; !weekStart.isAfter(lastWeek); weekStart = weekStart.plusWeeks(1)) {
+            weeks.add(toDto(farm, weekStart, countersByWeek.getOrDefault(weekStart, List.of())));
+        }
 
-        long pestObservations = 0;
-        long diseaseObservations = 0;
-        long beneficialObservations = 0;
+        LOGGER.debug("Read {} week(s) of analytics for farm {} from {} to {}", weeks.size(), farmId, from, to);
+        return weeks;
+    }
 
+    private FarmWeeklyAnalyticsDto toDto(Farm farm, LocalDate weekStart, List<WeeklyAnalyticsCounter> counters) {
+        long totalSessions = 0;
+        long completedSessions = 0;
+        Map<ObservationCategory, Long> categoryTotals = new EnumMap<>(ObservationCategory.class);
         Map<String, Long> severityBuckets = new HashMap<>();
 
-        for (ScoutingObservation observation : observations) {
-            int count = observation.getCount() != null ? observation.getCount() : 0;
-            ObservationCategory category = observation.getCategory();
-
-            if (category == ObservationCategory.PEST) {
-                pestObservations += count;
-            } else if (category == ObservationCategory.DISEASE) {
-                diseaseObservations += count;
-            } else if (category == ObservationCategory.BENEFICIAL) {
-                beneficialObservations += count;
+        for (WeeklyAnalyticsCounter counter : counters) {
+            if (counter.getTotal() == 0) {
+                continue;
             }
-
-            if (category == ObservationCategory.PEST || category == ObservationCategory.DISEASE) {
-                SeverityLevel level = SeverityLevel.fromCount(count);
-                severityBuckets.merge(level.name(), 1L, Long::sum);
+            if (counter.getMetric() == WeeklyAnalyticsMetric.SESSIONS) {
+                totalSessions += counter.getTotal();
+                if (SessionStatus.COMPLETED.name().equals(counter.getMetricKey())) {
+                    completedSessions += counter.getTotal();
+                }
+            } else if (counter.getMetric() == WeeklyAnalyticsMetric.CATEGORY_TOTAL) {
+                categoryTotals.merge(ObservationCategory.valueOf(counter.getMetricKey()), counter.getTotal(), Long::sum);
+            } else if (counter.getMetric() == WeeklyAnalyticsMetric.SEVERITY_BUCKET) {
+                severityBuckets.merge(counter.getMetricKey(), counter.getTotal(), Long::sum);
             }
         }
 
-        long totalObservations =
-                pestObservations + diseaseObservations + beneficialObservations;
-
-        LOGGER.debug("Computed analytics for farm {} week {} year {}: {} observations",
-                farmId, week, year, totalObservations);
+        long pestObservations = categoryTotals.getOrDefault(ObservationCategory.PEST, 0L);
+        long diseaseObservations = categoryTotals.getOrDefault(ObservationCategory.DISEASE, 0L);
+        long beneficialObservations = categoryTotals.getOrDefault(ObservationCategory.BENEFICIAL, 0L);
 
         return new FarmWeeklyAnalyticsDto(
                 farm.getId(),
                 farm.getName(),
-                week,
-                year,
+                weekStart.get(IsoFields.WEEK_OF_WEEK_BASED_YEAR),
+                weekStart.get(IsoFields.WEEK_BASED_YEAR),
                 farm.resolveBayCount(),
                 farm.resolveBenchesPerBay(),
                 totalSessions,
                 completedSessions,
-                totalObservations,
+                pestObservations + diseaseObservations + beneficialObservations,
                 pestObservations,
                 diseaseObservations,
                 beneficialObservations,
@@ -2,7 +2,7 @@ package mofo.com.pestscout.farm.service;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import mofo.com.pestscout.analytics.service.RawDataPdfExportService;
+import mofo.com.pestscout.analytics.service.ExportJobService;
 import mofo.com.pestscout.auth.model.Role;
 import mofo.com.pestscout.auth.repository.UserFarmMembershipRepository;
 import mofo.com.pestscout.farm.model.Farm;
@@ -27,7 +27,7 @@ public class LicenseExpiryNotificationService {
     private final FarmLicenseHistoryRepository farmLicenseHistoryRepository;
     private final UserFarmMembershipRepository membershipRepository;
     private final LicenseService licenseService;
-    private final RawDataPdfExportService rawDataPdfExportService;
+    private final ExportJobService exportJobService;
 
     @Transactional(readOnly = true)
     public boolean shouldQueueExpiryNotice(Farm farm) {
@@ -44,7 +44,7 @@ public class LicenseExpiryNotificationService {
             return;
         }
 
-        String downloadUrl = rawDataPdfExportService.buildDownloadUrl(farm.getId());
+        String downloadUrl = exportJobService.buildDownloadUrl(farm.getId());
         recipients.forEach(recipient ->
                 log.info(
                         "Queued license expiry email for farm {} to {}. Subject='PestScout data export reminder'. Download URL={}",
@@ -0,0 +1,25 @@
+package mofo.com.pestscout.scouting.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Monthly session date partitions of the observation and draft tables. The maintenance job keeps
+ * {@code monthsAhead} months of empty partitions ready past the current month, and detaches partitions whose month
+ * ended more than {@code detachAfterMonths} months ago. Detached partitions stay in the database as standalone tables
+ * but are no longer read by the application; {@code 0} keeps every partition attached.
+ * <p>
+ * Only meaningful on PostgreSQL, where the migrations create the partitioned tables.
+ */
+@Component
+@ConfigurationProperties(prefix = "app.scouting.observation-partitions")
+@Getter
+@Setter
+public class ObservationPartitionProperties {
+
+    private boolean enabled = true;
+    private int monthsAhead = 3;
+    private int detachAfterMonths = 0;
+}
@@ -0,0 +1,28 @@
+package mofo.com.pestscout.scouting.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import mofo.com.pestscout.common.jobs.BackgroundJobProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Settings for queued batch photo analysis. Jobs run on {@code threads} workers; jobs that do not fit in the
+ * in-memory queue stay queued in the job table and are re-offered by the sweeper after {@code retryDelayMs}. The
+ * sessions of a job are scored concurrently on a pool of {@code sessionThreads} shared by all running jobs, each
+ * session holding one database connection while it is scored. Date range requests may span at most
+ * {@code maxRangeDays}.
+ */
+@Component
+@ConfigurationProperties(prefix = "app.scouting.analysis-batch")
+@Getter
+@Setter
+public class PhotoAnalysisBatchProperties implements BackgroundJobProperties {
+
+    private int threads = 2;
+    private int queueCapacity = 50;
+    private int sessionThreads = 4;
+    private long retryDelayMs = 30000;
+    private long stalledAfterMs = 1800000;
+    private int maxRangeDays = 92;
+}
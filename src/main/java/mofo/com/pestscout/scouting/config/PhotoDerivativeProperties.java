@@ -0,0 +1,30 @@
+package mofo.com.pestscout.scouting.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import mofo.com.pestscout.common.jobs.BackgroundJobProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Settings for the background thumbnail/preview pipeline. Renders run on {@code threads} workers with at most
+ * {@code queueCapacity} jobs waiting in memory; anything beyond that stays pending in the job table and is picked up
+ * by the sweeper once it is older than {@code retryDelayMs}. A job left running longer than {@code stalledAfterMs}
+ * (for example by a node that stopped mid-render) is returned to pending.
+ */
+@Component
+@ConfigurationProperties(prefix = "app.scouting.photo-derivatives")
+@Getter
+@Setter
+public class PhotoDerivativeProperties implements BackgroundJobProperties {
+
+    private boolean enabled = true;
+    private int threads = 2;
+    private int queueCapacity = 200;
+    private int maxAttempts = 3;
+    private long retryDelayMs = 30000;
+    private long stalledAfterMs = 600000;
+    private int thumbnailMaxPx = 320;
+    private int previewMaxPx = 1280;
+    private float jpegQuality = 0.82f;
+}
@@ -0,0 +1,24 @@
+package mofo.com.pestscout.scouting.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Settings for the local photo blob store. Blobs are written under {@code root}, sharded into two directory levels
+ * by content hash; uploads larger than {@code maxUploadBytes} are rejected while they stream in. Blobs no photo refers
+ * to any more are deleted once they have been unreferenced for {@code orphanGraceMs}. Resumable uploads that see no
+ * new chunk for {@code uploadTtlMs} expire and their partial files are removed.
+ */
+@Component
+@ConfigurationProperties(prefix = "app.scouting.photo-storage")
+@Getter
+@Setter
+public class PhotoStorageProperties {
+
+    private String root = "./data/photos";
+    private long maxUploadBytes = 10L * 1024 * 1024;
+    private long orphanGraceMs = 24L * 60 * 60 * 1000;
+    private long uploadTtlMs = 24L * 60 * 60 * 1000;
+}
@@ -0,0 +1,53 @@
+package mofo.com.pestscout.scouting.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+/**
+ * Hot/cold archival of scouting data. Soft-deleted observations, drafts and photos are archived once they have been
+ * deleted for {@code deletedRetentionDays}; completed sessions are archived once their session date falls before the
+ * first day of the month {@code sessionHorizonMonths} months back ({@code 0} keeps every session hot). Each run moves
+ * at most {@code maxBatchesPerRun} chunks of {@code batchSize} rows per kind, one transaction per chunk.
+ * <p>
+ * Analytics read models keep counting archived sessions, and their nightly rebuilds leave periods before the session
+ * cutoff untouched. Archived rows no longer show up as deletions in incremental sync, so a sync from before the
+ * deleted cutoff is refused and the client has to resync in full.
+ */
+@Component
+@ConfigurationProperties(prefix = "app.scouting.archive")
+@Getter
+@Setter
+public class ScoutingArchiveProperties {
+
+    private boolean enabled = true;
+    private int batchSize = 200;
+    private int maxBatchesPerRun = 50;
+    private int deletedRetentionDays = 30;
+    private int sessionHorizonMonths = 0;
+
+    /**
+     * The deletion time before which soft-deleted rows are archived as of {@code now}, if archival is enabled.
+     */
+    public Optional<LocalDateTime> deletedCutoff(LocalDateTime now) {
+        if (!enabled) {
+            return Optional.empty();
+        }
+        return Optional.of(now.minusDays(Math.max(0, deletedRetentionDays)));
+    }
+
+    /**
+     * The session date before which completed sessions are archived as of {@code today}, if sessions are archived.
+     */
+    public Optional<LocalDate> sessionCutoff(LocalDate today) {
+        if (!enabled || sessionHorizonMonths <= 0) {
+            return Optional.empty();
+        }
+        return Optional.of(today.withDayOfMonth(1).minusMonths(sessionHorizonMonths));
+    }
+}
@@ -0,0 +1,27 @@
+package mofo.com.pestscout.scouting.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Settings for the session audit trail writer. With {@code asyncEnabled}, audit events are queued once the
+ * recording transaction commits and a background writer inserts them {@code batchSize} at a time. At most
+ * {@code queueCapacity} events wait in memory; when the queue is full the caller appends its event to a spill file
+ * under {@code spillDir} instead, which the writer replays once it has caught up. On shutdown the writer drains the
+ * queue for up to {@code shutdownTimeoutMs} and spills whatever is left. {@code spillDir} should be local to the
+ * node.
+ */
+@Component
+@ConfigurationProperties(prefix = "app.scouting.audit")
+@Getter
+@Setter
+public class SessionAuditProperties {
+
+    private boolean asyncEnabled = true;
+    private int queueCapacity = 10000;
+    private int batchSize = 200;
+    private long shutdownTimeoutMs = 10000;
+    private String spillDir = "./data/session-audit-spill";
+}
@@ -3,11 +3,10 @@ package mofo.com.pestscout.scouting.controller;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import mofo.com.pestscout.scouting.dto.ImageAnalysisDtos.PhotoAnalysisAccuracyResponse;
-import mofo.com.pestscout.scouting.dto.ImageAnalysisDtos.PhotoAnalysisResponse;
-import mofo.com.pestscout.scouting.dto.ImageAnalysisDtos.PhotoAnalysisReviewRequest;
-import mofo.com.pestscout.scouting.dto.ImageAnalysisDtos.RunPhotoAnalysisRequest;
+import mofo.com.pestscout.scouting.dto.ImageAnalysisDtos.*;
+import mofo.com.pestscout.scouting.service.PhotoAnalysisBatchService;
 import mofo.com.pestscout.scouting.service.ScoutingImageAnalysisService;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
@@ -21,6 +20,7 @@ import java.util.UUID;
 public class ScoutingImageAnalysisController {
 
     private final ScoutingImageAnalysisService imageAnalysisService;
+    private final PhotoAnalysisBatchService batchService;
 
     @PostMapping("/{photoId}/analysis")
     @PreAuthorize("hasAnyRole('SUPER_ADMIN','FARM_ADMIN','MANAGER','SCOUT')")
@@ -58,4 +58,30 @@ public class ScoutingImageAnalysisController {
         log.info("GET /api/scouting/photos/analysis/accuracy - farm {}", farmId);
         return ResponseEntity.ok(imageAnalysisService.getAccuracy(farmId));
     }
+
+    @PostMapping("/analysis/accuracy/rebuild")
+    @PreAuthorize("hasAnyRole('SUPER_ADMIN','FARM_ADMIN','MANAGER')")
+    public ResponseEntity<PhotoAnalysisAccuracyResponse> rebuildAccuracy(@RequestParam UUID farmId) {
+        log.info("POST /api/scouting/photos/analysis/accuracy/rebuild - farm {}", farmId);
+        return ResponseEntity.ok(imageAnalysisService.rebuildAccuracy(farmId));
+    }
+
+    @PostMapping("/analysis/batches")
+    @PreAuthorize("hasAnyRole('SUPER_ADMIN','FARM_ADMIN','MANAGER')")
+    public ResponseEntity<PhotoAnalysisBatchJobResponse> submitBatchAnalysis(
+            @Valid @RequestBody RunBatchPhotoAnalysisRequest request
+    ) {
+        log.info("POST /api/scouting/photos/analysis/batches - farm {} session {}", request.farmId(), request.sessionId());
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(batchService.submit(request));
+    }
+
+    @GetMapping("/analysis/batches/{jobId}")
+    @PreAuthorize("hasAnyRole('SUPER_ADMIN','FARM_ADMIN','MANAGER','SCOUT')")
+    public ResponseEntity<PhotoAnalysisBatchJobResponse> getBatchAnalysis(
+            @PathVariable UUID jobId,
+            @RequestParam UUID farmId
+    ) {
+        log.debug("GET /api/scouting/photos/analysis/batches/{} - farm {}", jobId, farmId);
+        return ResponseEntity.ok(batchService.getJob(farmId, jobId));
+    }
 }
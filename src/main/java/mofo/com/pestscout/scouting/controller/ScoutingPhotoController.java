@@ -1,18 +1,26 @@
 package mofo.com.pestscout.scouting.controller;
 
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import mofo.com.pestscout.scouting.dto.PhotoMetadataRequest;
 import mofo.com.pestscout.scouting.dto.PhotoUploadConfirmationRequest;
+import mofo.com.pestscout.scouting.dto.PhotoUploadDtos.CreatePhotoUploadRequest;
+import mofo.com.pestscout.scouting.dto.PhotoUploadDtos.PhotoUploadResponse;
 import mofo.com.pestscout.scouting.dto.ScoutingPhotoDto;
+import mofo.com.pestscout.scouting.service.PhotoUploadService;
 import mofo.com.pestscout.scouting.service.ScoutingPhotoService;
 import mofo.com.pestscout.scouting.service.ScoutingSessionService;
+import mofo.com.pestscout.scouting.storage.PhotoContentWriter;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
 import java.util.List;
 import java.util.UUID;
 
@@ -24,6 +32,7 @@ public class ScoutingPhotoController {
 
     private final ScoutingPhotoService photoService;
     private final ScoutingSessionService sessionService;
+    private final PhotoUploadService uploadService;
 
     @GetMapping("/session/{sessionId}")
     @PreAuthorize("hasAnyRole('SUPER_ADMIN','FARM_ADMIN','MANAGER','SCOUT')")
@@ -47,6 +56,78 @@ public class ScoutingPhotoController {
         return ResponseEntity.ok(photoService.confirmUpload(request));
     }
 
+    /**
+     * Accepts the raw image as the request body rather than multipart, so it streams straight to the blob store.
+     */
+    @PutMapping("/session/{sessionId}/{photoId}/content")
+    @PreAuthorize("hasRole('SCOUT')")
+    public ResponseEntity<ScoutingPhotoDto> uploadContent(@PathVariable UUID sessionId,
+                                                          @PathVariable UUID photoId,
+                                                          @RequestHeader(value = HttpHeaders.CONTENT_TYPE, required = false) String contentType,
+                                                          HttpServletRequest request) throws IOException {
+        log.info("PUT /api/scouting/photos/session/{}/{}/content - uploading photo content", sessionId, photoId);
+        return ResponseEntity.ok(photoService.uploadContent(sessionId, photoId, contentType, request.getInputStream()));
+    }
+
+    /**
+     * Starts (or resumes) a chunked upload for a registered photo.
+     */
+    @PostMapping("/uploads")
+    @PreAuthorize("hasRole('SCOUT')")
+    public ResponseEntity<PhotoUploadResponse> createUpload(@Valid @RequestBody CreatePhotoUploadRequest request) {
+        log.info("POST /api/scouting/photos/uploads - starting resumable upload for photo {}", request.localPhotoId());
+        return ResponseEntity.status(HttpStatus.CREATED).body(uploadService.createUpload(request));
+    }
+
+    @GetMapping("/uploads/{uploadId}")
+    @PreAuthorize("hasRole('SCOUT')")
+    public ResponseEntity<PhotoUploadResponse> getUpload(@PathVariable UUID uploadId) {
+        log.debug("GET /api/scouting/photos/uploads/{} - reading upload progress", uploadId);
+        return ResponseEntity.ok(uploadService.getUpload(uploadId));
+    }
+
+    /**
+     * Appends the raw request body at {@code offset}; resending from the last acknowledged offset is safe.
+     */
+    @PutMapping("/uploads/{uploadId}/chunks")
+    @PreAuthorize("hasRole('SCOUT')")
+    public ResponseEntity<PhotoUploadResponse> uploadChunk(@PathVariable UUID uploadId,
+                                                           @RequestParam long offset,
+                                                           HttpServletRequest request) throws IOException {
+        log.debug("PUT /api/scouting/photos/uploads/{}/chunks - receiving chunk at offset {}", uploadId, offset);
+        return ResponseEntity.ok(uploadService.appendChunk(uploadId, offset, request.getInputStream()));
+    }
+
+    @PostMapping("/uploads/{uploadId}/finalize")
+    @PreAuthorize("hasRole('SCOUT')")
+    public ResponseEntity<ScoutingPhotoDto> finalizeUpload(@PathVariable UUID uploadId) {
+        log.info("POST /api/scouting/photos/uploads/{}/finalize - finalizing resumable upload", uploadId);
+        return ResponseEntity.ok(uploadService.finalizeUpload(uploadId));
+    }
+
+    @GetMapping("/session/{sessionId}/{photoId}/content")
+    @PreAuthorize("hasAnyRole('SUPER_ADMIN','FARM_ADMIN','MANAGER','SCOUT')")
+    public void downloadContent(@PathVariable UUID sessionId,
+                                @PathVariable UUID photoId,
+                                HttpServletRequest request,
+                                HttpServletResponse response) throws IOException {
+        log.debug("GET /api/scouting/photos/session/{}/{}/content - downloading photo content", sessionId, photoId);
+        sessionService.requireSessionAccess(sessionId);
+        PhotoContentWriter.write(photoService.openContent(sessionId, photoId), request, response);
+    }
+
+    @GetMapping("/session/{sessionId}/{photoId}/content/{variant}")
+    @PreAuthorize("hasAnyRole('SUPER_ADMIN','FARM_ADMIN','MANAGER','SCOUT')")
+    public void downloadDerivative(@PathVariable UUID sessionId,
+                                   @PathVariable UUID photoId,
+                                   @PathVariable String variant,
+                                   HttpServletRequest request,
+                                   HttpServletResponse response) throws IOException {
+        log.debug("GET /api/scouting/photos/session/{}/{}/content/{} - downloading photo derivative", sessionId, photoId, variant);
+        sessionService.requireSessionAccess(sessionId);
+        PhotoContentWriter.write(photoService.openDerivative(sessionId, photoId, variant), request, response);
+    }
+
     @DeleteMapping("/session/{sessionId}/{photoId}")
     @PreAuthorize("hasRole('SCOUT')")
     public ResponseEntity<Void> deletePhoto(@PathVariable UUID sessionId, @PathVariable UUID photoId) {
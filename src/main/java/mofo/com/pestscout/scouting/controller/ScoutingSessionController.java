@@ -10,8 +10,10 @@ import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import mofo.com.pestscout.common.dto.CursorPageResponse;
 import mofo.com.pestscout.common.dto.ErrorResponse;
 import mofo.com.pestscout.scouting.dto.*;
+import mofo.com.pestscout.scouting.model.SessionStatus;
 import mofo.com.pestscout.scouting.service.ScoutingSessionReportExportService;
 import mofo.com.pestscout.scouting.service.ScoutingSessionService;
 import org.slf4j.Logger;
@@ -23,9 +25,12 @@ import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Set;
 import java.util.UUID;
 
 @RestController
@@ -287,10 +292,21 @@ public class ScoutingSessionController {
 
     @GetMapping
     @PreAuthorize("hasAnyRole('SUPER_ADMIN','FARM_ADMIN','MANAGER','SCOUT')")
-    @Operation(summary = "List visible sessions", description = "Lists scouting sessions visible to the current caller, optionally scoped to one farm.")
-    public ResponseEntity<List<ScoutingSessionDetailDto>> listSessions(@RequestParam(required = false) UUID farmId) {
+    @Operation(
+            summary = "List visible sessions",
+            description = "Lists summaries of the scouting sessions visible to the current caller, newest first, optionally scoped to one farm and filtered by status, scout and session date. Results are keyset paginated: pass the returned nextCursor to fetch the next page. Observations are only returned by the session detail endpoint."
+    )
+    public ResponseEntity<CursorPageResponse<ScoutingSessionSummaryDto>> listSessions(
+            @RequestParam(required = false) UUID farmId,
+            @RequestParam(name = "status", required = false) Set<SessionStatus> statuses,
+            @RequestParam(required = false) UUID scoutId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fromDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate toDate,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
         LOGGER.info("GET /api/scouting/sessions - listing sessions for {}", farmId != null ? "farm " + farmId : "all visible farms");
-        return ResponseEntity.ok(sessionService.listSessions(farmId));
+        return ResponseEntity.ok(sessionService.listSessions(
+                new ScoutingSessionListQuery(farmId, statuses, scoutId, fromDate, toDate, cursor, size)));
     }
 
     @GetMapping("/sync")
@@ -342,13 +358,33 @@ public class ScoutingSessionController {
     @GetMapping(value = {"/{sessionId}/report.csv", "/{sessionId}/export.csv"}, produces = "text/csv")
     @PreAuthorize("hasAnyRole('SUPER_ADMIN','FARM_ADMIN','MANAGER')")
     @Operation(summary = "Download session CSV report", description = "Exports a scouting session report as CSV.")
-    public ResponseEntity<byte[]> downloadSessionReportCsv(@PathVariable UUID sessionId) {
+    public ResponseEntity<StreamingResponseBody> downloadSessionReportCsv(@PathVariable UUID sessionId) {
         LOGGER.info("GET /api/scouting/sessions/{}/report.csv - exporting session report", sessionId);
-        ScoutingSessionReportExportService.GeneratedCsvDocument document = reportExportService.exportSessionCsv(sessionId);
+        return streamCsv(reportExportService.prepareSessionExport(sessionId));
+    }
+
+    @GetMapping(value = "/export.csv", produces = "text/csv")
+    @PreAuthorize("hasAnyRole('SUPER_ADMIN','FARM_ADMIN','MANAGER')")
+    @Operation(
+            summary = "Download farm sessions CSV report",
+            description = "Streams every session of a farm as CSV, optionally limited to an inclusive session date range. "
+                    + "Archived sessions are appended when includeArchived is set."
+    )
+    public ResponseEntity<StreamingResponseBody> downloadFarmSessionsCsv(
+            @RequestParam UUID farmId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+            @RequestParam(defaultValue = "false") boolean includeArchived) {
+        LOGGER.info("GET /api/scouting/sessions/export.csv - exporting sessions for farm {} from {} to {} (archived: {})",
+                farmId, startDate, endDate, includeArchived);
+        return streamCsv(reportExportService.prepareFarmExport(farmId, startDate, endDate, includeArchived));
+    }
 
+    private ResponseEntity<StreamingResponseBody> streamCsv(ScoutingSessionReportExportService.CsvExport export) {
+        StreamingResponseBody body = out -> reportExportService.writeCsv(export, out);
         return ResponseEntity.ok()
-                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + document.fileName() + "\"")
-                .contentType(MediaType.parseMediaType(document.mediaType()))
-                .body(document.content());
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + export.fileName() + "\"")
+                .contentType(MediaType.parseMediaType(export.mediaType()))
+                .body(body);
     }
 }
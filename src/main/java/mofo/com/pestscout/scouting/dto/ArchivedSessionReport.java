@@ -0,0 +1,24 @@
+package mofo.com.pestscout.scouting.dto;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Everything kept of an archived session: its report view as exported, the section names the export resolves from
+ * the farm layout at the time, and the photos and audit trail that were removed with it.
+ */
+public record ArchivedSessionReport(
+        ScoutingSessionDetailDto report,
+        String farmName,
+        List<Section> sections,
+        List<ScoutingPhotoDto> photos,
+        List<ScoutingSessionAuditDto> auditTrail
+) {
+
+    public record Section(
+            UUID targetId,
+            String type,
+            String name
+    ) {
+    }
+}
@@ -2,6 +2,7 @@ package mofo.com.pestscout.scouting.dto;
 
 import jakarta.validation.constraints.NotNull;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.UUID;
@@ -112,4 +113,32 @@ public final class ImageAnalysisDtos {
             double accuracyRate
     ) {
     }
+
+    /**
+     * Scope of a batch analysis: either one session, or every session of the farm dated within the range.
+     */
+    public record RunBatchPhotoAnalysisRequest(
+            @NotNull UUID farmId,
+            UUID sessionId,
+            LocalDate fromDate,
+            LocalDate toDate
+    ) {
+    }
+
+    public record PhotoAnalysisBatchJobResponse(
+            UUID jobId,
+            UUID farmId,
+            UUID sessionId,
+            LocalDate fromDate,
+            LocalDate toDate,
+            String status,
+            long totalPhotos,
+            long processedPhotos,
+            int failedSessions,
+            String lastError,
+            LocalDateTime createdAt,
+            LocalDateTime startedAt,
+            LocalDateTime completedAt
+    ) {
+    }
 }
@@ -2,6 +2,7 @@ package mofo.com.pestscout.scouting.dto;
 
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Pattern;
 import mofo.com.pestscout.scouting.model.PhotoSourceType;
 
 import java.time.LocalDateTime;
@@ -19,7 +20,9 @@ public record PhotoMetadataRequest(
         @NotBlank String localPhotoId,
         String purpose,
         PhotoSourceType sourceType,
-        LocalDateTime capturedAt
+        LocalDateTime capturedAt,
+        @Pattern(regexp = "[0-9a-fA-F]{64}", message = "contentSha256 must be a hex SHA-256 digest")
+        String contentSha256
 ) {
 }
 
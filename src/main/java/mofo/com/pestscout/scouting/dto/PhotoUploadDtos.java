@@ -0,0 +1,41 @@
+package mofo.com.pestscout.scouting.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.Positive;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+public final class PhotoUploadDtos {
+
+    private PhotoUploadDtos() {
+    }
+
+    public record CreatePhotoUploadRequest(
+            @NotNull UUID sessionId,
+            @NotBlank String localPhotoId,
+            @NotBlank String contentType,
+            @Positive long totalBytes,
+            @NotBlank
+            @Pattern(regexp = "[0-9a-fA-F]{64}", message = "contentSha256 must be a hex SHA-256 digest")
+            String contentSha256
+    ) {
+    }
+
+    /**
+     * State of a resumable upload. {@code receivedBytes} is the offset the next chunk should start at.
+     */
+    public record PhotoUploadResponse(
+            UUID uploadId,
+            UUID sessionId,
+            UUID photoId,
+            String localPhotoId,
+            long totalBytes,
+            long receivedBytes,
+            String status,
+            LocalDateTime expiresAt
+    ) {
+    }
+}
@@ -23,7 +23,12 @@ public record ScoutingPhotoDto(
         PhotoSourceType sourceType,
         LocalDateTime capturedAt,
         LocalDateTime updatedAt,
-        SyncStatus syncStatus
+        SyncStatus syncStatus,
+        String contentUrl,
+        String thumbnailUrl,
+        String previewUrl,
+        String contentHash,
+        boolean duplicate
 ) {
 }
 
@@ -0,0 +1,22 @@
+package mofo.com.pestscout.scouting.dto;
+
+import mofo.com.pestscout.scouting.model.SessionStatus;
+
+import java.time.LocalDate;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Filters and page position for listing sessions. Every filter is optional; {@code cursor} is the
+ * {@code nextCursor} of the previous page.
+ */
+public record ScoutingSessionListQuery(
+        UUID farmId,
+        Set<SessionStatus> statuses,
+        UUID scoutId,
+        LocalDate fromDate,
+        LocalDate toDate,
+        String cursor,
+        Integer size
+) {
+}
@@ -1,23 +1,39 @@
 package mofo.com.pestscout.scouting.dto;
 
+import mofo.com.pestscout.common.model.SyncStatus;
 import mofo.com.pestscout.scouting.model.SessionStatus;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.UUID;
 
+/**
+ * One row of a session list. Built straight from the session row by a projection query, so listing never loads
+ * targets, observations or recommendations; open the session to get those.
+ */
 public record ScoutingSessionSummaryDto(
         UUID id,
         Long version,
         UUID farmId,
+        String farmName,
         UUID greenhouseId,
         UUID fieldBlockId,
         LocalDate sessionDate,
+        Integer weekNumber,
         SessionStatus status,
+        SyncStatus syncStatus,
         UUID managerId,
         UUID scoutId,
         String cropType,
-        String cropVariety
+        String cropVariety,
+        boolean remoteStartPending,
+        LocalDateTime updatedAt,
+        boolean openRestricted
 ) {
-}
-
 
+    public ScoutingSessionSummaryDto withOpenRestricted(boolean restricted) {
+        return new ScoutingSessionSummaryDto(id, version, farmId, farmName, greenhouseId, fieldBlockId, sessionDate,
+                weekNumber, status, syncStatus, managerId, scoutId, cropType, cropVariety, remoteStartPending,
+                updatedAt, restricted);
+    }
+}
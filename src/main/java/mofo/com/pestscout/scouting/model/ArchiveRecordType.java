@@ -0,0 +1,14 @@
+package mofo.com.pestscout.scouting.model;
+
+/**
+ * What an archived row was before it left the hot tables.
+ */
+public enum ArchiveRecordType {
+    /**
+     * A completed session past the archive horizon, with its sections, observations, photos and audit trail.
+     */
+    SESSION,
+    OBSERVATION,
+    OBSERVATION_DRAFT,
+    PHOTO
+}
@@ -3,13 +3,20 @@ package mofo.com.pestscout.scouting.model;
 import jakarta.persistence.*;
 import lombok.*;
 import lombok.experimental.SuperBuilder;
+import mofo.com.pestscout.common.config.SecondLevelCacheConfig;
 import mofo.com.pestscout.common.model.BaseEntity;
+import mofo.com.pestscout.common.persistence.ReferenceDataCacheListener;
 import mofo.com.pestscout.farm.model.Farm;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 /**
  * Stores reusable farm-specific custom pests, diseases, and beneficial insects.
  */
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = SecondLevelCacheConfig.REGION_CUSTOM_SPECIES)
+@EntityListeners(ReferenceDataCacheListener.class)
 @Table(
         name = "custom_species_definitions",
         uniqueConstraints = @UniqueConstraint(
@@ -0,0 +1,61 @@
+package mofo.com.pestscout.scouting.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+import lombok.experimental.SuperBuilder;
+import mofo.com.pestscout.common.model.BaseEntity;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+/**
+ * Running photo analysis accuracy totals for one farm, species or scout. Rows are adjusted in the same transaction
+ * that creates or reviews an analysis, so accuracy reads never scan the analyses themselves.
+ */
+@Entity
+@Table(
+        name = "photo_analysis_accuracy_counters",
+        uniqueConstraints = @UniqueConstraint(
+                name = "uk_photo_analysis_accuracy_scope",
+                columnNames = {"farm_id", "scope", "scope_key"}
+        )
+)
+@Getter
+@Setter
+@SuperBuilder
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@AllArgsConstructor(access = AccessLevel.PROTECTED)
+public class PhotoAnalysisAccuracyCounter extends BaseEntity {
+
+    @Column(name = "farm_id", nullable = false)
+    private UUID farmId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "scope", nullable = false, length = 16)
+    private PhotoAnalysisAccuracyScope scope;
+
+    @Column(name = "scope_key", nullable = false, length = 64)
+    private String scopeKey;
+
+    @Column(name = "total_analyses", nullable = false)
+    private long totalAnalyses;
+
+    @Column(name = "pending_review_count", nullable = false)
+    private long pendingReviewCount;
+
+    @Column(name = "reviewed_count", nullable = false)
+    private long reviewedCount;
+
+    @Column(name = "exact_match_count", nullable = false)
+    private long exactMatchCount;
+
+    @Column(name = "corrected_count", nullable = false)
+    private long correctedCount;
+
+    @Builder.Default
+    @Column(name = "confidence_sum", nullable = false, precision = 14, scale = 2)
+    private BigDecimal confidenceSum = BigDecimal.ZERO;
+
+    @Column(name = "confidence_count", nullable = false)
+    private long confidenceCount;
+}
@@ -0,0 +1,19 @@
+package mofo.com.pestscout.scouting.model;
+
+/**
+ * Granularity of a {@link PhotoAnalysisAccuracyCounter} row.
+ */
+public enum PhotoAnalysisAccuracyScope {
+    /**
+     * Whole-farm totals; the scope key is empty.
+     */
+    FARM,
+    /**
+     * Reviewed analyses per reviewed species; the scope key is the species code.
+     */
+    SPECIES,
+    /**
+     * Reviewed cell comparisons per scout; the scope key is the scout's user id.
+     */
+    SCOUT
+}
@@ -0,0 +1,65 @@
+package mofo.com.pestscout.scouting.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+import lombok.experimental.SuperBuilder;
+import mofo.com.pestscout.common.model.BaseEntity;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * A queued request to analyze every not-yet-analyzed photo of one session, or of all farm sessions in a date range.
+ * Progress counters are updated after each session so clients can poll the job.
+ */
+@Entity
+@Table(name = "photo_analysis_batch_jobs", indexes = {
+        @Index(name = "idx_photo_analysis_batch_farm", columnList = "farm_id"),
+        @Index(name = "idx_photo_analysis_batch_status", columnList = "status, updated_at")
+})
+@Getter
+@Setter
+@SuperBuilder
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@AllArgsConstructor(access = AccessLevel.PROTECTED)
+public class PhotoAnalysisBatchJob extends BaseEntity {
+
+    @Column(name = "farm_id", nullable = false)
+    private UUID farmId;
+
+    @Column(name = "session_id")
+    private UUID sessionId;
+
+    @Column(name = "from_date")
+    private LocalDate fromDate;
+
+    @Column(name = "to_date")
+    private LocalDate toDate;
+
+    @Column(name = "requested_by")
+    private UUID requestedBy;
+
+    @Builder.Default
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false, length = 32)
+    private PhotoAnalysisBatchStatus status = PhotoAnalysisBatchStatus.QUEUED;
+
+    @Column(name = "total_photos", nullable = false)
+    private long totalPhotos;
+
+    @Column(name = "processed_photos", nullable = false)
+    private long processedPhotos;
+
+    @Column(name = "failed_sessions", nullable = false)
+    private int failedSessions;
+
+    @Column(name = "last_error", length = 500)
+    private String lastError;
+
+    @Column(name = "started_at")
+    private LocalDateTime startedAt;
+
+    @Column(name = "completed_at")
+    private LocalDateTime completedAt;
+}
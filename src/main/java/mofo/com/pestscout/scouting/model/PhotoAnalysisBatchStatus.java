@@ -0,0 +1,8 @@
+package mofo.com.pestscout.scouting.model;
+
+public enum PhotoAnalysisBatchStatus {
+    QUEUED,
+    RUNNING,
+    COMPLETED,
+    FAILED
+}
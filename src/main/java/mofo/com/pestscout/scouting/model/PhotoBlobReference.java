@@ -0,0 +1,39 @@
+package mofo.com.pestscout.scouting.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+import lombok.experimental.SuperBuilder;
+import mofo.com.pestscout.common.model.BaseEntity;
+
+import java.time.LocalDateTime;
+
+/**
+ * Reference count for one locally stored photo blob. Every live photo whose {@code contentHash} points at the blob
+ * holds one reference; when the last one goes away the blob is stamped {@code unreferencedSince} and its file is
+ * removed by the orphan sweep after a grace period.
+ */
+@Entity
+@Table(
+        name = "photo_blobs",
+        uniqueConstraints = @UniqueConstraint(name = "uk_photo_blobs_content_hash", columnNames = "content_hash"),
+        indexes = @Index(name = "idx_photo_blobs_unreferenced", columnList = "unreferenced_since")
+)
+@Getter
+@Setter
+@SuperBuilder
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@AllArgsConstructor(access = AccessLevel.PROTECTED)
+public class PhotoBlobReference extends BaseEntity {
+
+    @Column(name = "content_hash", nullable = false, length = 64)
+    private String contentHash;
+
+    @Column(name = "size_bytes", nullable = false)
+    private long sizeBytes;
+
+    @Column(name = "reference_count", nullable = false)
+    private long referenceCount;
+
+    @Column(name = "unreferenced_since")
+    private LocalDateTime unreferencedSince;
+}
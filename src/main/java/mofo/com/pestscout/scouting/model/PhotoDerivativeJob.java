@@ -0,0 +1,47 @@
+package mofo.com.pestscout.scouting.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+import lombok.experimental.SuperBuilder;
+import mofo.com.pestscout.common.model.BaseEntity;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Durable record of a pending thumbnail/preview render. Jobs survive restarts, so a photo whose render was queued in
+ * memory when a node stopped is picked up again by the sweeper.
+ */
+@Entity
+@Table(name = "photo_derivative_jobs", indexes = {
+        @Index(name = "idx_photo_derivative_jobs_status", columnList = "status, updated_at"),
+        @Index(name = "idx_photo_derivative_jobs_photo", columnList = "photo_id")
+})
+@Getter
+@Setter
+@SuperBuilder
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@AllArgsConstructor(access = AccessLevel.PROTECTED)
+public class PhotoDerivativeJob extends BaseEntity {
+
+    @Column(name = "photo_id", nullable = false)
+    private UUID photoId;
+
+    @Column(name = "blob_key", nullable = false, length = 64)
+    private String blobKey;
+
+    @Builder.Default
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false, length = 32)
+    private PhotoDerivativeJobStatus status = PhotoDerivativeJobStatus.PENDING;
+
+    @Builder.Default
+    @Column(name = "attempts", nullable = false)
+    private int attempts = 0;
+
+    @Column(name = "last_error", length = 500)
+    private String lastError;
+
+    @Column(name = "completed_at")
+    private LocalDateTime completedAt;
+}
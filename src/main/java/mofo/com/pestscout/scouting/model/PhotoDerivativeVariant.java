@@ -0,0 +1,28 @@
+package mofo.com.pestscout.scouting.model;
+
+import java.util.Arrays;
+import java.util.Optional;
+
+/**
+ * Downscaled renditions generated for every locally stored photo.
+ */
+public enum PhotoDerivativeVariant {
+    THUMBNAIL("thumbnail"),
+    PREVIEW("preview");
+
+    private final String pathSegment;
+
+    PhotoDerivativeVariant(String pathSegment) {
+        this.pathSegment = pathSegment;
+    }
+
+    public String getPathSegment() {
+        return pathSegment;
+    }
+
+    public static Optional<PhotoDerivativeVariant> fromPathSegment(String value) {
+        return Arrays.stream(values())
+                .filter(variant -> variant.pathSegment.equalsIgnoreCase(value))
+                .findFirst();
+    }
+}
@@ -0,0 +1,65 @@
+package mofo.com.pestscout.scouting.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+import lombok.experimental.SuperBuilder;
+import mofo.com.pestscout.common.model.BaseEntity;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * A resumable upload of one photo's bytes. Chunks are appended to a staging file; the row remembers the declared size
+ * and checksum so the upload can be verified when it is finalized, and when it expires if the client never returns.
+ */
+@Entity
+@Table(name = "photo_uploads", indexes = {
+        @Index(name = "idx_photo_uploads_local_photo", columnList = "local_photo_id, status"),
+        @Index(name = "idx_photo_uploads_expiry", columnList = "status, expires_at")
+})
+@Getter
+@Setter
+@SuperBuilder
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@AllArgsConstructor(access = AccessLevel.PROTECTED)
+public class PhotoUpload extends BaseEntity {
+
+    @Column(name = "farm_id", nullable = false)
+    private UUID farmId;
+
+    @Column(name = "session_id", nullable = false)
+    private UUID sessionId;
+
+    @Column(name = "photo_id", nullable = false)
+    private UUID photoId;
+
+    @Column(name = "local_photo_id", nullable = false, length = 100)
+    private String localPhotoId;
+
+    @Column(name = "content_type", nullable = false, length = 100)
+    private String contentType;
+
+    @Column(name = "total_bytes", nullable = false)
+    private long totalBytes;
+
+    @Builder.Default
+    @Column(name = "received_bytes", nullable = false)
+    private long receivedBytes = 0;
+
+    /**
+     * Hex SHA-256 the client computed before uploading; the finished file must hash to the same value.
+     */
+    @Column(name = "content_sha256", nullable = false, length = 64)
+    private String contentSha256;
+
+    @Builder.Default
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false, length = 32)
+    private PhotoUploadStatus status = PhotoUploadStatus.OPEN;
+
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+
+    @Column(name = "completed_at")
+    private LocalDateTime completedAt;
+}
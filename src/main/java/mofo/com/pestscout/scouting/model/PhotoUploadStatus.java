@@ -0,0 +1,7 @@
+package mofo.com.pestscout.scouting.model;
+
+public enum PhotoUploadStatus {
+    OPEN,
+    COMPLETED,
+    EXPIRED
+}
@@ -0,0 +1,57 @@
+package mofo.com.pestscout.scouting.model;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import jakarta.persistence.*;
+import lombok.*;
+import lombok.experimental.SuperBuilder;
+import mofo.com.pestscout.common.model.BaseEntity;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * A scouting row moved out of the hot tables by the archival job. The row is kept as the JSON of the DTO it was
+ * served as, so it can be read back by exports without the hot table's schema or relations.
+ */
+@Entity
+@Table(
+        name = "scouting_archive_records",
+        uniqueConstraints = @UniqueConstraint(
+                name = "uk_scouting_archive_records_source",
+                columnNames = {"record_type", "source_id"}
+        ),
+        indexes = {
+                @Index(name = "idx_scouting_archive_records_farm_type_date",
+                        columnList = "farm_id, record_type, session_date"),
+                @Index(name = "idx_scouting_archive_records_session", columnList = "session_id")
+        }
+)
+@Getter
+@Setter
+@SuperBuilder
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@AllArgsConstructor(access = AccessLevel.PROTECTED)
+public class ScoutingArchiveRecord extends BaseEntity {
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "record_type", nullable = false, length = 32)
+    private ArchiveRecordType recordType;
+
+    @Column(name = "source_id", nullable = false)
+    private UUID sourceId;
+
+    @Column(name = "farm_id", nullable = false)
+    private UUID farmId;
+
+    @Column(name = "session_id", nullable = false)
+    private UUID sessionId;
+
+    @Column(name = "session_date", nullable = false)
+    private LocalDate sessionDate;
+
+    @JdbcTypeCode(SqlTypes.JSON)
+    @Column(name = "payload", nullable = false)
+    private JsonNode payload;
+}
@@ -9,6 +9,7 @@ import lombok.experimental.SuperBuilder;
 import mofo.com.pestscout.common.model.BaseEntity;
 
 import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.util.Locale;
 import java.util.UUID;
 
@@ -19,12 +20,16 @@ import java.util.UUID;
 @Entity
 @Table(
         name = "scouting_observation_drafts",
-        uniqueConstraints = @UniqueConstraint(
-                name = "uk_session_draft_cell_species",
-                columnNames = {"session_id", "session_target_id", "bay_index", "bench_index", "spot_index", "species_identifier"}
-        ),
+        uniqueConstraints = {
+                @UniqueConstraint(
+                        name = "uk_session_draft_cell_species",
+                        columnNames = {"session_id", "session_target_id", "bay_index", "bench_index", "spot_index", "species_identifier", "session_date"}
+                ),
+                @UniqueConstraint(name = "uk_obs_draft_client_request_id", columnNames = {"client_request_id", "session_date"})
+        },
         indexes = {
                 @Index(name = "idx_scouting_observation_drafts_session", columnList = "session_id"),
+                @Index(name = "idx_scouting_observation_drafts_farm_date", columnList = "farm_id, session_date"),
                 @Index(name = "idx_scouting_observation_drafts_custom_species", columnList = "custom_species_id"),
                 @Index(name = "idx_scouting_observation_drafts_local_id", columnList = "local_observation_id")
         }
@@ -44,6 +49,15 @@ public class ScoutingObservationDraft extends BaseEntity {
     @JoinColumn(name = "session_target_id", nullable = false)
     private ScoutingSessionTarget sessionTarget;
 
+    /**
+     * Session farm and date, partitioned the same way as {@link ScoutingObservation}.
+     */
+    @Column(name = "farm_id", nullable = false)
+    private UUID farmId;
+
+    @Column(name = "session_date", nullable = false)
+    private LocalDate sessionDate;
+
     @Enumerated(EnumType.STRING)
     @Column(name = "species_code", length = 50)
     private SpeciesCode speciesCode;
@@ -96,7 +110,7 @@ public class ScoutingObservationDraft extends BaseEntity {
     @Column(name = "notes", length = 2000)
     private String notes;
 
-    @Column(name = "client_request_id", unique = true)
+    @Column(name = "client_request_id")
     private UUID clientRequestId;
 
     @Transient
@@ -140,6 +154,7 @@ public class ScoutingObservationDraft extends BaseEntity {
 
     @Override
     protected void applyPrePersistDefaults() {
+        copySessionPartitionKey();
         if (observationType == null) {
             observationType = ObservationType.fromCategory(getCategory());
         }
@@ -153,4 +168,21 @@ public class ScoutingObservationDraft extends BaseEntity {
                     .toUpperCase(Locale.ROOT);
         }
     }
+
+    @Override
+    protected void applyPreUpdateDefaults() {
+        copySessionPartitionKey();
+    }
+
+    private void copySessionPartitionKey() {
+        if (session == null) {
+            return;
+        }
+        if (session.getFarm() != null) {
+            farmId = session.getFarm().getId();
+        }
+        if (session.getSessionDate() != null) {
+            sessionDate = session.getSessionDate();
+        }
+    }
 }
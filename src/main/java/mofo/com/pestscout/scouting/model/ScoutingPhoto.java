@@ -11,7 +11,8 @@ import java.util.UUID;
 @Entity
 @Table(name = "scouting_photos", indexes = {
         @Index(name = "idx_photo_session", columnList = "session_id"),
-        @Index(name = "idx_photo_local_id", columnList = "local_photo_id")
+        @Index(name = "idx_photo_local_id", columnList = "local_photo_id"),
+        @Index(name = "idx_photo_farm_content_hash", columnList = "farm_id, content_hash")
 }, uniqueConstraints = {
         @UniqueConstraint(name = "uk_photo_farm_local", columnNames = {"farm_id", "local_photo_id"})
 })
@@ -46,6 +47,21 @@ public class ScoutingPhoto extends BaseEntity {
     @Column(name = "object_key", length = 500)
     private String objectKey;
 
+    @Column(name = "content_type", length = 100)
+    private String contentType;
+
+    @Column(name = "content_length")
+    private Long contentLength;
+
+    /**
+     * SHA-256 of the stored bytes, set while the photo holds a reference to a local blob.
+     */
+    @Column(name = "content_hash", length = 64)
+    private String contentHash;
+
+    @Column(name = "derivatives_generated_at")
+    private LocalDateTime derivativesGeneratedAt;
+
     @Builder.Default
     @Enumerated(EnumType.STRING)
     @Column(name = "source_type", nullable = false, length = 32)
@@ -27,7 +27,8 @@ import java.util.Map;
         name = "scouting_sessions",
         indexes = {
                 @Index(name = "idx_scouting_sessions_farm", columnList = "farm_id"),
-                @Index(name = "idx_scouting_sessions_date", columnList = "session_date")
+                @Index(name = "idx_scouting_sessions_date", columnList = "session_date"),
+                @Index(name = "idx_scouting_sessions_farm_date_id", columnList = "farm_id, session_date DESC, id DESC")
         }
 )
 @Getter
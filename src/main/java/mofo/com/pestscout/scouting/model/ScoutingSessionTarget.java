@@ -6,6 +6,8 @@ import lombok.experimental.SuperBuilder;
 import mofo.com.pestscout.common.model.BaseEntity;
 import mofo.com.pestscout.farm.model.FieldBlock;
 import mofo.com.pestscout.farm.model.Greenhouse;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
 
 import java.math.BigDecimal;
 import java.util.ArrayList;
@@ -14,7 +16,8 @@ import java.util.List;
 /**
  * Section-level selection within a scouting session. Each target links the session
  * to a greenhouse or field block and records which bays/benches were chosen so
- * the UI can present separate grids per structure.
+ * the UI can present separate grids per structure. The selected tags are stored
+ * inline as JSON so loading a session's targets needs no per-target queries.
  */
 @Entity
 @Table(name = "scouting_session_targets")
@@ -46,15 +49,13 @@ public class ScoutingSessionTarget extends BaseEntity {
     private Boolean includeAllBenches = Boolean.TRUE;
 
     @Builder.Default
-    @ElementCollection
-    @CollectionTable(name = "scouting_target_bays", joinColumns = @JoinColumn(name = "target_id"))
-    @Column(name = "bay_tag", length = 255)
+    @JdbcTypeCode(SqlTypes.JSON)
+    @Column(name = "bay_tags", nullable = false)
     private List<String> bayTags = new ArrayList<>();
 
     @Builder.Default
-    @ElementCollection
-    @CollectionTable(name = "scouting_target_benches", joinColumns = @JoinColumn(name = "target_id"))
-    @Column(name = "bench_tag", length = 255)
+    @JdbcTypeCode(SqlTypes.JSON)
+    @Column(name = "bench_tags", nullable = false)
     private List<String> benchTags = new ArrayList<>();
 
     @Column(name = "area_hectares", precision = 10, scale = 2)
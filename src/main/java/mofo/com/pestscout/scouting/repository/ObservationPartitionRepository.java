@@ -0,0 +1,33 @@
+package mofo.com.pestscout.scouting.repository;
+
+import mofo.com.pestscout.scouting.model.ScoutingObservation;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.Repository;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Partition maintenance for the session date partitioned tables, backed by the functions created in
+ * {@code R__scouting_observation_partitions.sql}. PostgreSQL only.
+ */
+public interface ObservationPartitionRepository extends Repository<ScoutingObservation, UUID> {
+
+    /**
+     * Creates the missing monthly partitions of {@code table} from the month of {@code fromMonth} through the month of
+     * {@code toMonth}, moving any matching rows out of the default partition. Returns the number of partitions created.
+     */
+    @Query(value = "SELECT scouting_ensure_month_partitions(:tableName, :fromMonth, :toMonth)", nativeQuery = true)
+    int createMonthPartitions(@Param("tableName") String table,
+                              @Param("fromMonth") LocalDate fromMonth,
+                              @Param("toMonth") LocalDate toMonth);
+
+    /**
+     * Detaches every monthly partition of {@code table} that ends on or before {@code before} and returns the names
+     * of the detached tables.
+     */
+    @Query(value = "SELECT scouting_detach_month_partitions(:tableName, :before)", nativeQuery = true)
+    List<String> detachMonthPartitionsBefore(@Param("tableName") String table, @Param("before") LocalDate before);
+}
@@ -0,0 +1,105 @@
+package mofo.com.pestscout.scouting.repository;
+
+import mofo.com.pestscout.scouting.model.PhotoAnalysisAccuracyCounter;
+import mofo.com.pestscout.scouting.model.PhotoAnalysisAccuracyScope;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+@Repository
+public interface PhotoAnalysisAccuracyCounterRepository extends JpaRepository<PhotoAnalysisAccuracyCounter, UUID> {
+
+    Optional<PhotoAnalysisAccuracyCounter> findByFarmIdAndScopeAndScopeKey(UUID farmId,
+                                                                           PhotoAnalysisAccuracyScope scope,
+                                                                           String scopeKey);
+
+    List<PhotoAnalysisAccuracyCounter> findByFarmIdAndScope(UUID farmId, PhotoAnalysisAccuracyScope scope);
+
+    /**
+     * Creates an all-zero counter row unless one already exists, so concurrent first reviews for the same scope
+     * cannot collide on the unique key.
+     */
+    @Modifying
+    @Query(value = """
+            INSERT INTO photo_analysis_accuracy_counters
+                (id, version, farm_id, scope, scope_key, total_analyses, pending_review_count, reviewed_count,
+                 exact_match_count, corrected_count, confidence_sum, confidence_count, created_at, updated_at,
+                 deleted, sync_status)
+            VALUES (:id, 0, :farmId, :scope, :scopeKey, 0, 0, 0, 0, 0, 0, 0, :now, :now, FALSE, 'SYNCED')
+            ON CONFLICT DO NOTHING
+            """, nativeQuery = true)
+    int insertIfAbsent(@Param("id") UUID id,
+                       @Param("farmId") UUID farmId,
+                       @Param("scope") String scope,
+                       @Param("scopeKey") String scopeKey,
+                       @Param("now") LocalDateTime now);
+
+    /**
+     * Adds the deltas in place. The arithmetic runs in the database, so concurrent reviews serialise on the row
+     * instead of overwriting each other.
+     */
+    @Modifying
+    @Query("""
+            update PhotoAnalysisAccuracyCounter c
+            set c.totalAnalyses = c.totalAnalyses + :total,
+                c.pendingReviewCount = c.pendingReviewCount + :pending,
+                c.reviewedCount = c.reviewedCount + :reviewed,
+                c.exactMatchCount = c.exactMatchCount + :exactMatches,
+                c.correctedCount = c.correctedCount + :corrected,
+                c.confidenceSum = c.confidenceSum + :confidenceSum,
+                c.confidenceCount = c.confidenceCount + :confidenceCount,
+                c.updatedAt = :now
+            where c.farmId = :farmId and c.scope = :scope and c.scopeKey = :scopeKey
+            """)
+    int increment(@Param("farmId") UUID farmId,
+                  @Param("scope") PhotoAnalysisAccuracyScope scope,
+                  @Param("scopeKey") String scopeKey,
+                  @Param("total") long total,
+                  @Param("pending") long pending,
+                  @Param("reviewed") long reviewed,
+                  @Param("exactMatches") long exactMatches,
+                  @Param("corrected") long corrected,
+                  @Param("confidenceSum") BigDecimal confidenceSum,
+                  @Param("confidenceCount") long confidenceCount,
+                  @Param("now") LocalDateTime now);
+
+    /**
+     * Overwrites a row with recomputed totals. Used by rebuilds, where two overlapping runs write the same values.
+     */
+    @Modifying
+    @Query("""
+            update PhotoAnalysisAccuracyCounter c
+            set c.totalAnalyses = :total,
+                c.pendingReviewCount = :pending,
+                c.reviewedCount = :reviewed,
+                c.exactMatchCount = :exactMatches,
+                c.correctedCount = :corrected,
+                c.confidenceSum = :confidenceSum,
+                c.confidenceCount = :confidenceCount,
+                c.updatedAt = :now
+            where c.farmId = :farmId and c.scope = :scope and c.scopeKey = :scopeKey
+            """)
+    int assign(@Param("farmId") UUID farmId,
+               @Param("scope") PhotoAnalysisAccuracyScope scope,
+               @Param("scopeKey") String scopeKey,
+               @Param("total") long total,
+               @Param("pending") long pending,
+               @Param("reviewed") long reviewed,
+               @Param("exactMatches") long exactMatches,
+               @Param("corrected") long corrected,
+               @Param("confidenceSum") BigDecimal confidenceSum,
+               @Param("confidenceCount") long confidenceCount,
+               @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("delete from PhotoAnalysisAccuracyCounter c where c.farmId = :farmId")
+    int deleteByFarmId(@Param("farmId") UUID farmId);
+}
@@ -0,0 +1,42 @@
+package mofo.com.pestscout.scouting.repository;
+
+import mofo.com.pestscout.common.jobs.BackgroundJobRepository;
+import mofo.com.pestscout.scouting.model.PhotoAnalysisBatchJob;
+import mofo.com.pestscout.scouting.model.PhotoAnalysisBatchStatus;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Optional;
+import java.util.UUID;
+
+@Repository
+public interface PhotoAnalysisBatchJobRepository extends BackgroundJobRepository<PhotoAnalysisBatchJob, PhotoAnalysisBatchStatus> {
+
+    Optional<PhotoAnalysisBatchJob> findByIdAndFarmId(UUID id, UUID farmId);
+
+    Optional<PhotoAnalysisBatchJob> findFirstByFarmIdAndSessionIdAndStatusIn(
+            UUID farmId,
+            UUID sessionId,
+            Collection<PhotoAnalysisBatchStatus> statuses
+    );
+
+    /**
+     * Moves a queued job to running. Returns 0 when another worker already claimed it.
+     */
+    @Transactional
+    @Modifying
+    @Query("""
+            update PhotoAnalysisBatchJob j
+            set j.status = :to, j.startedAt = :now, j.updatedAt = :now
+            where j.id = :id and j.status = :from
+            """)
+    int claim(@Param("id") UUID id,
+              @Param("from") PhotoAnalysisBatchStatus from,
+              @Param("to") PhotoAnalysisBatchStatus to,
+              @Param("now") LocalDateTime now);
+}
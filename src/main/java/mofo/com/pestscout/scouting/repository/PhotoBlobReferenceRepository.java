@@ -0,0 +1,73 @@
+package mofo.com.pestscout.scouting.repository;
+
+import jakarta.persistence.LockModeType;
+import mofo.com.pestscout.scouting.model.PhotoBlobReference;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+@Repository
+public interface PhotoBlobReferenceRepository extends JpaRepository<PhotoBlobReference, UUID> {
+
+    Optional<PhotoBlobReference> findByContentHash(String contentHash);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select b from PhotoBlobReference b where b.contentHash = :contentHash")
+    Optional<PhotoBlobReference> findByContentHashForUpdate(@Param("contentHash") String contentHash);
+
+    List<PhotoBlobReference> findTop100ByReferenceCountLessThanEqualAndUnreferencedSinceBeforeOrderByUnreferencedSinceAsc(
+            long referenceCount,
+            LocalDateTime unreferencedBefore
+    );
+
+    /**
+     * Creates an unreferenced row for the blob unless one exists, so concurrent uploads of the same bytes do not
+     * collide on the unique key.
+     */
+    @Modifying
+    @Query(value = """
+            INSERT INTO photo_blobs
+                (id, version, content_hash, size_bytes, reference_count, unreferenced_since, created_at, updated_at,
+                 deleted, sync_status)
+            VALUES (:id, 0, :contentHash, :sizeBytes, 0, :now, :now, :now, FALSE, 'SYNCED')
+            ON CONFLICT DO NOTHING
+            """, nativeQuery = true)
+    int insertIfAbsent(@Param("id") UUID id,
+                       @Param("contentHash") String contentHash,
+                       @Param("sizeBytes") long sizeBytes,
+                       @Param("now") LocalDateTime now);
+
+    /**
+     * Adds {@code delta} to the reference count in the database and stamps when the blob became unreferenced.
+     */
+    @Modifying
+    @Query("""
+            update PhotoBlobReference b
+            set b.referenceCount = b.referenceCount + :delta,
+                b.unreferencedSince = case when b.referenceCount + :delta <= 0 then :now else null end,
+                b.updatedAt = :now
+            where b.contentHash = :contentHash
+            """)
+    int adjust(@Param("contentHash") String contentHash,
+               @Param("delta") long delta,
+               @Param("now") LocalDateTime now);
+
+    /**
+     * Removes the row only if nothing re-referenced the blob since it was selected for collection. Callers hold the
+     * row lock from {@link #findByContentHashForUpdate} while the file is deleted.
+     */
+    @Modifying
+    @Query("""
+            delete from PhotoBlobReference b
+            where b.contentHash = :contentHash and b.referenceCount = 0 and b.unreferencedSince < :cutoff
+            """)
+    int deleteIfUnreferenced(@Param("contentHash") String contentHash, @Param("cutoff") LocalDateTime cutoff);
+}
@@ -0,0 +1,33 @@
+package mofo.com.pestscout.scouting.repository;
+
+import mofo.com.pestscout.common.jobs.BackgroundJobRepository;
+import mofo.com.pestscout.scouting.model.PhotoDerivativeJob;
+import mofo.com.pestscout.scouting.model.PhotoDerivativeJobStatus;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Repository
+public interface PhotoDerivativeJobRepository extends BackgroundJobRepository<PhotoDerivativeJob, PhotoDerivativeJobStatus> {
+
+    /**
+     * Moves a job from {@code from} to {@code to}. Returns 0 when another worker got there first, which is how a
+     * job that was submitted twice is only rendered once.
+     */
+    @Transactional
+    @Modifying
+    @Query("""
+            update PhotoDerivativeJob j
+            set j.status = :to, j.attempts = j.attempts + 1, j.updatedAt = :now
+            where j.id = :id and j.status = :from
+            """)
+    int claim(@Param("id") UUID id,
+              @Param("from") PhotoDerivativeJobStatus from,
+              @Param("to") PhotoDerivativeJobStatus to,
+              @Param("now") LocalDateTime now);
+}
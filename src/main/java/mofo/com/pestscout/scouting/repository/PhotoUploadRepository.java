@@ -0,0 +1,53 @@
+package mofo.com.pestscout.scouting.repository;
+
+import mofo.com.pestscout.scouting.model.PhotoUpload;
+import mofo.com.pestscout.scouting.model.PhotoUploadStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+@Repository
+public interface PhotoUploadRepository extends JpaRepository<PhotoUpload, UUID> {
+
+    Optional<PhotoUpload> findFirstByFarmIdAndLocalPhotoIdAndStatus(UUID farmId, String localPhotoId, PhotoUploadStatus status);
+
+    List<PhotoUpload> findTop100ByStatusAndExpiresAtBeforeOrderByExpiresAtAsc(PhotoUploadStatus status, LocalDateTime cutoff);
+
+    /**
+     * Records the bytes received so far and pushes the expiry out while the client is still making progress.
+     */
+    @Transactional
+    @Modifying
+    @Query("""
+            update PhotoUpload u
+            set u.receivedBytes = :received, u.expiresAt = :expiresAt, u.updatedAt = :now
+            where u.id = :id and u.status = mofo.com.pestscout.scouting.model.PhotoUploadStatus.OPEN
+            """)
+    int recordProgress(@Param("id") UUID id,
+                       @Param("received") long received,
+                       @Param("expiresAt") LocalDateTime expiresAt,
+                       @Param("now") LocalDateTime now);
+
+    /**
+     * Moves an upload from {@code from} to {@code to}. Returns 0 when it was finalized or expired concurrently.
+     */
+    @Transactional
+    @Modifying
+    @Query("""
+            update PhotoUpload u
+            set u.status = :to, u.completedAt = :now, u.updatedAt = :now
+            where u.id = :id and u.status = :from
+            """)
+    int transition(@Param("id") UUID id,
+                   @Param("from") PhotoUploadStatus from,
+                   @Param("to") PhotoUploadStatus to,
+                   @Param("now") LocalDateTime now);
+}
@@ -0,0 +1,55 @@
+package mofo.com.pestscout.scouting.repository;
+
+import jakarta.persistence.QueryHint;
+import mofo.com.pestscout.scouting.model.ArchiveRecordType;
+import mofo.com.pestscout.scouting.model.ScoutingArchiveRecord;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDate;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+/**
+ * Read access to archived scouting rows, for exports that ask for archived data.
+ */
+public interface ScoutingArchiveRecordRepository extends JpaRepository<ScoutingArchiveRecord, UUID> {
+
+    Optional<ScoutingArchiveRecord> findByRecordTypeAndSourceId(ArchiveRecordType recordType, UUID sourceId);
+
+    /**
+     * Forward-only cursor over a farm's archived rows of one type, oldest session first. Must be consumed inside a
+     * transaction and closed.
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "100"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("""
+            select r from ScoutingArchiveRecord r
+            where r.farmId = :farmId and r.recordType = :recordType
+            order by r.sessionDate asc, r.sessionId asc
+            """)
+    Stream<ScoutingArchiveRecord> streamByFarmIdAndRecordType(@Param("farmId") UUID farmId,
+                                                              @Param("recordType") ArchiveRecordType recordType);
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "100"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("""
+            select r from ScoutingArchiveRecord r
+            where r.farmId = :farmId and r.recordType = :recordType
+              and r.sessionDate between :startDate and :endDate
+            order by r.sessionDate asc, r.sessionId asc
+            """)
+    Stream<ScoutingArchiveRecord> streamByFarmIdAndRecordTypeAndSessionDateBetween(
+            @Param("farmId") UUID farmId,
+            @Param("recordType") ArchiveRecordType recordType,
+            @Param("startDate") LocalDate startDate,
+            @Param("endDate") LocalDate endDate);
+}
@@ -1,8 +1,13 @@
 package mofo.com.pestscout.scouting.repository;
 
 import mofo.com.pestscout.scouting.model.ScoutingObservationDraft;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
@@ -11,7 +16,17 @@ import java.util.UUID;
 public interface ScoutingObservationDraftRepository extends JpaRepository<ScoutingObservationDraft, UUID> {
     List<ScoutingObservationDraft> findBySessionId(UUID sessionId);
 
-    List<ScoutingObservationDraft> findBySessionIdInAndUpdatedAtAfter(List<UUID> sessionIds, LocalDateTime since);
+    /**
+     * Drafts of one scout's sessions on a farm changed since the given time, read through the denormalised farm column
+     * instead of an id list of every session on the farm.
+     */
+    @Query("""
+            select d from ScoutingObservationDraft d
+            where d.farmId = :farmId and d.updatedAt > :since and d.session.scout.id = :scoutId
+            """)
+    List<ScoutingObservationDraft> findByFarmIdAndScoutIdAndUpdatedAtAfter(@Param("farmId") UUID farmId,
+                                                                         @Param("scoutId") UUID scoutId,
+                                                                         @Param("since") LocalDateTime since);
 
     Optional<ScoutingObservationDraft> findByIdAndSessionId(UUID observationDraftId, UUID sessionId);
 
@@ -28,5 +43,16 @@ public interface ScoutingObservationDraftRepository extends JpaRepository<Scouti
 
     boolean existsBySessionId(UUID sessionId);
 
+    @Modifying(flushAutomatically = true)
+    @Query("""
+            update ScoutingObservationDraft d
+            set d.sessionDate = :sessionDate
+            where d.session.id = :sessionId and d.sessionDate <> :sessionDate
+            """)
+    int updateSessionDate(@Param("sessionId") UUID sessionId, @Param("sessionDate") LocalDate sessionDate);
+
     void deleteBySessionId(UUID sessionId);
+
+    List<ScoutingObservationDraft> findByDeletedTrueAndDeletedAtBeforeOrderByDeletedAtAsc(LocalDateTime cutoff,
+                                                                                           Limit limit);
 }
@@ -2,8 +2,13 @@ package mofo.com.pestscout.scouting.repository;
 
 import mofo.com.pestscout.scouting.model.ScoutingObservation;
 import mofo.com.pestscout.scouting.model.SpeciesCode;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.Collection;
 import java.util.List;
@@ -57,5 +62,39 @@ public interface ScoutingObservationRepository extends JpaRepository<ScoutingObs
 
     Optional<ScoutingObservation> findByClientRequestId(UUID clientRequestId);
 
-    List<ScoutingObservation> findBySessionIdInAndUpdatedAtAfter(Collection<UUID> sessionIds, LocalDateTime updatedAfter);
+    /**
+     * Observations of a farm changed since the given time, read through the denormalised farm column instead of an
+     * id list of every session on the farm.
+     */
+    List<ScoutingObservation> findByFarmIdAndUpdatedAtAfter(UUID farmId, LocalDateTime updatedAfter);
+
+    @Query("select count(o) from ScoutingObservation o where o.farmId = :farmId")
+    long countByFarmId(@Param("farmId") UUID farmId);
+
+    @Query("select max(o.updatedAt) from ScoutingObservation o where o.farmId = :farmId")
+    Optional<LocalDateTime> findLatestUpdatedAtByFarmId(@Param("farmId") UUID farmId);
+
+    /**
+     * Moves a session's observations to its new session date, and with it into the matching partition. Rows loaded
+     * into the persistence context pick the new date up from their session when they are next flushed.
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("""
+            update ScoutingObservation o
+            set o.sessionDate = :sessionDate
+            where o.session.id = :sessionId and o.sessionDate <> :sessionDate
+            """)
+    int updateSessionDate(@Param("sessionId") UUID sessionId, @Param("sessionDate") LocalDate sessionDate);
+
+    boolean existsBySessionIdAndSessionTargetIdAndBayIndexAndBenchIndexAndSpotIndexAndSpeciesCode(UUID sessionId,
+                                                                                                  UUID sessionTargetId,
+                                                                                                  Integer bayIndex,
+                                                                                                  Integer benchIndex,
+                                                                                                  Integer spotIndex,
+                                                                                                  SpeciesCode speciesCode);
+
+    /**
+     * Soft-deleted observations past the retention cutoff, oldest deletion first, for the archival job.
+     */
+    List<ScoutingObservation> findByDeletedTrueAndDeletedAtBeforeOrderByDeletedAtAsc(LocalDateTime cutoff, Limit limit);
 }
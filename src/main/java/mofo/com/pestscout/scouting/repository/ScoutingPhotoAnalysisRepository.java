@@ -3,6 +3,9 @@ package mofo.com.pestscout.scouting.repository;
 import mofo.com.pestscout.scouting.model.PhotoAnalysisReviewStatus;
 import mofo.com.pestscout.scouting.model.ScoutingPhotoAnalysis;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.util.Collection;
 import java.util.List;
@@ -13,7 +16,13 @@ public interface ScoutingPhotoAnalysisRepository extends JpaRepository<ScoutingP
 
     Optional<ScoutingPhotoAnalysis> findByPhoto_Id(UUID photoId);
 
+    List<ScoutingPhotoAnalysis> findByPhoto_IdIn(Collection<UUID> photoIds);
+
     List<ScoutingPhotoAnalysis> findByFarmId(UUID farmId);
 
     List<ScoutingPhotoAnalysis> findByFarmIdAndReviewStatusIn(UUID farmId, Collection<PhotoAnalysisReviewStatus> reviewStatuses);
+
+    @Modifying
+    @Query("delete from ScoutingPhotoAnalysis a where a.photo.id in :photoIds")
+    int deleteByPhotoIdIn(@Param("photoIds") Collection<UUID> photoIds);
 }
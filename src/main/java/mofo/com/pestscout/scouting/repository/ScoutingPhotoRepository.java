@@ -2,8 +2,15 @@ package mofo.com.pestscout.scouting.repository;
 
 import mofo.com.pestscout.common.model.SyncStatus;
 import mofo.com.pestscout.scouting.model.ScoutingPhoto;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -20,8 +27,54 @@ public interface ScoutingPhotoRepository extends JpaRepository<ScoutingPhoto, UU
 
     Optional<ScoutingPhoto> findByIdAndSessionId(UUID photoId, UUID sessionId);
 
+    @Query("""
+            select p from ScoutingPhoto p
+            join fetch p.session s
+            where p.id = :photoId and s.id = :sessionId
+            """)
+    Optional<ScoutingPhoto> findWithSessionByIdAndSessionId(@Param("photoId") UUID photoId,
+                                                           @Param("sessionId") UUID sessionId);
+
     List<ScoutingPhoto> findByFarmId(UUID farmId);
 
+    List<ScoutingPhoto> findBySessionIdAndContentHashAndDeletedFalse(UUID sessionId, String contentHash);
+
+    Optional<ScoutingPhoto> findFirstByFarmIdAndContentHashAndDeletedFalse(UUID farmId, String contentHash);
+
+    @Query("""
+            select p from ScoutingPhoto p
+            left join fetch p.observation
+            where p.session.id = :sessionId
+              and p.farmId = :farmId
+              and p.deleted = false
+              and not exists (select a.id from ScoutingPhotoAnalysis a where a.photo = p)
+            order by p.createdAt asc
+            """)
+    List<ScoutingPhoto> findUnanalyzedBySessionId(@Param("sessionId") UUID sessionId, @Param("farmId") UUID farmId);
+
+    @Query("""
+            select count(p) from ScoutingPhoto p
+            where p.session.id in :sessionIds
+              and p.deleted = false
+              and not exists (select a.id from ScoutingPhotoAnalysis a where a.photo = p)
+            """)
+    long countUnanalyzedBySessionIdIn(@Param("sessionIds") Collection<UUID> sessionIds);
+
+    /**
+     * Only marks the photo when it still points at the rendered blob, so a render that finishes after the photo was
+     * re-uploaded does not advertise stale derivatives.
+     */
+    @Transactional
+    @Modifying
+    @Query("""
+            update ScoutingPhoto p
+            set p.derivativesGeneratedAt = :generatedAt
+            where p.id = :photoId and p.objectKey = :blobKey
+            """)
+    int markDerivativesGenerated(@Param("photoId") UUID photoId,
+                                 @Param("blobKey") String blobKey,
+                                 @Param("generatedAt") LocalDateTime generatedAt);
+
     long countBySessionIdAndSessionTarget_IdAndBayIndexAndBenchIndexAndSpotIndexAndDeletedFalse(
             UUID sessionId,
             UUID sessionTargetId,
@@ -31,5 +84,13 @@ public interface ScoutingPhotoRepository extends JpaRepository<ScoutingPhoto, UU
     );
 
     long countBySyncStatus(SyncStatus syncStatus);
-}
 
+    List<ScoutingPhoto> findByDeletedTrueAndDeletedAtBeforeOrderByDeletedAtAsc(LocalDateTime cutoff, Limit limit);
+
+    /**
+     * Detaches photos from observations that are about to be removed from the hot table.
+     */
+    @Modifying
+    @Query("update ScoutingPhoto p set p.observation = null where p.observation.id in :observationIds")
+    int clearObservation(@Param("observationIds") Collection<UUID> observationIds);
+}
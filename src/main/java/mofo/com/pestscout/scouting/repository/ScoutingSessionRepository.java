@@ -1,22 +1,31 @@
 package mofo.com.pestscout.scouting.repository;
 
+import jakarta.persistence.QueryHint;
 import mofo.com.pestscout.common.model.SyncStatus;
 import mofo.com.pestscout.scouting.model.ScoutingSession;
 import mofo.com.pestscout.scouting.model.SessionStatus;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 /**
  * Data access for scouting sessions.
  */
-public interface ScoutingSessionRepository extends JpaRepository<ScoutingSession, UUID> {
+public interface ScoutingSessionRepository extends JpaRepository<ScoutingSession, UUID>,
+        ScoutingSessionSummaryRepository {
 
     boolean existsByFarmId(UUID farmId);
 
@@ -32,6 +41,36 @@ public interface ScoutingSessionRepository extends JpaRepository<ScoutingSession
      */
     Page<ScoutingSession> findByFarmId(UUID farmId, Pageable pageable);
 
+    /**
+     * Walk a farm's sessions page by page without counting them first.
+     * Used by exports that stream the whole history.
+     */
+    Slice<ScoutingSession> findSliceByFarmId(UUID farmId, Pageable pageable);
+
+    /**
+     * Forward-only cursor over a farm's sessions, oldest first, for streaming exports.
+     * Must be consumed inside a transaction and closed; rows are fetched in batches rather than all at once.
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "100"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("select s from ScoutingSession s where s.farm.id = :farmId order by s.sessionDate asc, s.id asc")
+    Stream<ScoutingSession> streamByFarmId(@Param("farmId") UUID farmId);
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "100"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("""
+            select s from ScoutingSession s
+            where s.farm.id = :farmId and s.sessionDate between :startDate and :endDate
+            order by s.sessionDate asc, s.id asc
+            """)
+    Stream<ScoutingSession> streamByFarmIdAndSessionDateBetween(@Param("farmId") UUID farmId,
+                                                                @Param("startDate") LocalDate startDate,
+                                                                @Param("endDate") LocalDate endDate);
+
     /**
      * Load a session by id and verify that it belongs to the given farm.
      * Used in service-level authorization checks.
@@ -48,6 +87,17 @@ public interface ScoutingSessionRepository extends JpaRepository<ScoutingSession
             LocalDate endDate
     );
 
+    @Query("""
+            select s.id from ScoutingSession s
+            where s.farm.id = :farmId
+              and s.sessionDate between :startDate and :endDate
+              and s.deleted = false
+            order by s.sessionDate asc
+            """)
+    List<UUID> findIdsByFarmIdAndSessionDateBetween(@Param("farmId") UUID farmId,
+                                                    @Param("startDate") LocalDate startDate,
+                                                    @Param("endDate") LocalDate endDate);
+
     /**
      * Count how many sessions a farm has in a given status
      * (for example, completed vs draft sessions).
@@ -61,7 +111,21 @@ public interface ScoutingSessionRepository extends JpaRepository<ScoutingSession
 
     long countBySyncStatus(SyncStatus syncStatus);
 
-    List<ScoutingSession> findByFarmIdAndScoutIdAndStatus(UUID farmId, UUID scoutId, SessionStatus status);
-}
+    long countByFarmId(UUID farmId);
+
+    /**
+     * Latest modification time across a farm's sessions; with {@link #countByFarmId} it tells export caches whether
+     * anything changed.
+     */
+    @Query("select max(s.updatedAt) from ScoutingSession s where s.farm.id = :farmId")
+    Optional<LocalDateTime> findLatestUpdatedAtByFarmId(@Param("farmId") UUID farmId);
 
+    List<ScoutingSession> findByFarmIdAndScoutIdAndStatus(UUID farmId, UUID scoutId, SessionStatus status);
 
+    /**
+     * Sessions in {@code status} dated before {@code before}, oldest first, for the archival job.
+     */
+    List<ScoutingSession> findByStatusAndSessionDateBeforeOrderBySessionDateAscIdAsc(SessionStatus status,
+                                                                                     LocalDate before,
+                                                                                     Limit limit);
+}
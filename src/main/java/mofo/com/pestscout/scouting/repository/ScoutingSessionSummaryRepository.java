@@ -0,0 +1,31 @@
+package mofo.com.pestscout.scouting.repository;
+
+import mofo.com.pestscout.scouting.dto.ScoutingSessionSummaryDto;
+import mofo.com.pestscout.scouting.model.SessionStatus;
+import org.springframework.data.domain.Limit;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Session list query, built per call so that only the filters actually supplied reach the SQL.
+ */
+public interface ScoutingSessionSummaryRepository {
+
+    /**
+     * One page of session summaries, newest first, ordered by (session date, id) so the last row of a page is the
+     * keyset the next page starts after. Null filters match every session; {@code scoutView} applies the rule that
+     * scouts only see drafts that have a pending remote start.
+     */
+    List<ScoutingSessionSummaryDto> findSummaries(UUID farmId,
+                                                  UUID scoutId,
+                                                  Collection<SessionStatus> statuses,
+                                                  LocalDate fromDate,
+                                                  LocalDate toDate,
+                                                  boolean scoutView,
+                                                  LocalDate afterDate,
+                                                  UUID afterId,
+                                                  Limit limit);
+}
@@ -0,0 +1,104 @@
+package mofo.com.pestscout.scouting.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.*;
+import lombok.RequiredArgsConstructor;
+import mofo.com.pestscout.farm.model.Farm;
+import mofo.com.pestscout.scouting.dto.ScoutingSessionSummaryDto;
+import mofo.com.pestscout.scouting.model.ScoutingSession;
+import mofo.com.pestscout.scouting.model.SessionStatus;
+import org.springframework.data.domain.Limit;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Criteria implementation of {@link ScoutingSessionSummaryRepository}. Optional filters are left out of the query
+ * rather than written as {@code :param is null or ...}: PostgreSQL cannot infer the type of an untyped null UUID
+ * parameter, and the {@code or} branches keep the planner off the (farm, session date, id) index.
+ */
+@RequiredArgsConstructor
+class ScoutingSessionSummaryRepositoryImpl implements ScoutingSessionSummaryRepository {
+
+    private final EntityManager entityManager;
+
+    @Override
+    public List<ScoutingSessionSummaryDto> findSummaries(UUID farmId,
+                                                         UUID scoutId,
+                                                         Collection<SessionStatus> statuses,
+                                                         LocalDate fromDate,
+                                                         LocalDate toDate,
+                                                         boolean scoutView,
+                                                         LocalDate afterDate,
+                                                         UUID afterId,
+                                                         Limit limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<ScoutingSessionSummaryDto> query = cb.createQuery(ScoutingSessionSummaryDto.class);
+        Root<ScoutingSession> session = query.from(ScoutingSession.class);
+        Join<ScoutingSession, Farm> farm = session.join("farm");
+
+        Path<LocalDate> sessionDate = session.get("sessionDate");
+        Path<UUID> id = session.get("id");
+        Path<SessionStatus> status = session.get("status");
+        Path<Object> remoteStartRequestedAt = session.get("remoteStartRequestedAt");
+
+        query.select(cb.construct(ScoutingSessionSummaryDto.class,
+                id,
+                session.get("version"),
+                farm.get("id"),
+                farm.get("name"),
+                session.get("greenhouse").get("id"),
+                session.get("fieldBlock").get("id"),
+                sessionDate,
+                session.get("weekNumber"),
+                status,
+                session.get("syncStatus"),
+                session.get("manager").get("id"),
+                session.get("scout").get("id"),
+                session.get("cropType"),
+                session.get("cropVariety"),
+                cb.<Boolean>selectCase()
+                        .when(cb.isNotNull(remoteStartRequestedAt), true)
+                        .otherwise(false),
+                session.get("updatedAt"),
+                cb.literal(false)));
+
+        List<Predicate> where = new ArrayList<>();
+        where.add(status.in(statuses));
+        if (farmId != null) {
+            where.add(cb.equal(farm.get("id"), farmId));
+        }
+        if (scoutId != null) {
+            where.add(cb.equal(session.get("scout").get("id"), scoutId));
+        }
+        if (fromDate != null) {
+            where.add(cb.greaterThanOrEqualTo(sessionDate, fromDate));
+        }
+        if (toDate != null) {
+            where.add(cb.lessThanOrEqualTo(sessionDate, toDate));
+        }
+        if (scoutView) {
+            where.add(cb.or(
+                    cb.notEqual(status, SessionStatus.DRAFT),
+                    cb.isNotNull(remoteStartRequestedAt)));
+        }
+        if (afterDate != null) {
+            where.add(cb.or(
+                    cb.lessThan(sessionDate, afterDate),
+                    cb.and(cb.equal(sessionDate, afterDate), cb.lessThan(id, afterId))));
+        }
+
+        query.where(where.toArray(Predicate[]::new))
+                .orderBy(cb.desc(sessionDate), cb.desc(id));
+
+        TypedQuery<ScoutingSessionSummaryDto> typed = entityManager.createQuery(query);
+        if (limit != null && limit.isLimited()) {
+            typed.setMaxResults(limit.max());
+        }
+        return typed.getResultList();
+    }
+}
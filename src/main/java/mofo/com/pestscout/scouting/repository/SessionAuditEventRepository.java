@@ -2,10 +2,17 @@ package mofo.com.pestscout.scouting.repository;
 
 import mofo.com.pestscout.scouting.model.SessionAuditEvent;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.util.List;
 import java.util.UUID;
 
 public interface SessionAuditEventRepository extends JpaRepository<SessionAuditEvent, UUID> {
     List<SessionAuditEvent> findBySessionIdOrderByOccurredAtAsc(UUID sessionId);
+
+    @Modifying
+    @Query("delete from SessionAuditEvent e where e.session.id = :sessionId")
+    int deleteBySessionId(@Param("sessionId") UUID sessionId);
 }
@@ -28,6 +28,7 @@ public class CustomSpeciesService {
     private final CustomSpeciesDefinitionRepository customSpeciesDefinitionRepository;
     private final FarmRepository farmRepository;
     private final FarmAccessService farmAccessService;
+    private final SpeciesKeywordMatcherCache keywordMatchers;
 
     @Transactional(readOnly = true)
     public List<CustomSpeciesDto> listFarmCustomSpecies(UUID farmId, ObservationCategory category) {
@@ -71,6 +72,7 @@ public class CustomSpeciesService {
             results.add(mapToDto(definition));
         }
 
+        keywordMatchers.evict(farmId);
         return results;
     }
 
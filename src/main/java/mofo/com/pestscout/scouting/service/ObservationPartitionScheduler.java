@@ -0,0 +1,33 @@
+package mofo.com.pestscout.scouting.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import mofo.com.pestscout.scouting.config.ObservationPartitionProperties;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ObservationPartitionScheduler {
+
+    private final ObservationPartitionService partitionService;
+    private final ObservationPartitionProperties properties;
+
+    @Scheduled(cron = "${app.scouting.observation-partitions.maintenance-cron:0 15 2 * * *}")
+    public void maintainAll() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        LocalDate today = LocalDate.now();
+        for (String table : ObservationPartitionService.PARTITIONED_TABLES) {
+            try {
+                partitionService.maintain(table, today);
+            } catch (RuntimeException ex) {
+                log.warn("Failed to maintain partitions of {}", table, ex);
+            }
+        }
+    }
+}
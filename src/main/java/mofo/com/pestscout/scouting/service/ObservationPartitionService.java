@@ -0,0 +1,47 @@
+package mofo.com.pestscout.scouting.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import mofo.com.pestscout.scouting.config.ObservationPartitionProperties;
+import mofo.com.pestscout.scouting.repository.ObservationPartitionRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Keeps the monthly session date partitions of the observation tables ahead of incoming data and detaches the ones
+ * past the retention window.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ObservationPartitionService {
+
+    static final List<String> PARTITIONED_TABLES = List.of("scouting_observations", "scouting_observation_drafts");
+
+    private final ObservationPartitionRepository partitionRepository;
+    private final ObservationPartitionProperties properties;
+
+    /**
+     * Runs maintenance for one partitioned table as of {@code today}.
+     */
+    @Transactional
+    public void maintain(String table, LocalDate today) {
+        LocalDate currentMonth = today.withDayOfMonth(1);
+        int created = partitionRepository.createMonthPartitions(
+                table, currentMonth, currentMonth.plusMonths(Math.max(0, properties.getMonthsAhead())));
+        if (created > 0) {
+            log.info("Created {} monthly partition(s) for {}.", created, table);
+        }
+
+        if (properties.getDetachAfterMonths() > 0) {
+            LocalDate cutoff = currentMonth.minusMonths(properties.getDetachAfterMonths());
+            List<String> detached = partitionRepository.detachMonthPartitionsBefore(table, cutoff);
+            if (!detached.isEmpty()) {
+                log.info("Detached partition(s) {} from {}.", detached, table);
+            }
+        }
+    }
+}
@@ -0,0 +1,313 @@
+package mofo.com.pestscout.scouting.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import mofo.com.pestscout.scouting.model.*;
+import mofo.com.pestscout.scouting.repository.PhotoAnalysisAccuracyCounterRepository;
+import mofo.com.pestscout.scouting.repository.ScoutingObservationRepository;
+import mofo.com.pestscout.scouting.repository.ScoutingPhotoAnalysisRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.*;
+
+/**
+ * Maintains the per-farm, per-species and per-scout photo analysis accuracy counters.
+ * <p>
+ * Callers take a {@link Contribution} of an analysis before changing it and pass it to {@link #record} with the
+ * saved result; only the difference is applied, so re-reviews and re-analyses keep the totals exact. Scout counters
+ * follow the scouting report definition: a reviewed photo is comparable when it is pinned to a cell, and correct when
+ * the scout recorded the reviewed species in that cell. They are evaluated when the review is recorded; a
+ * {@link #rebuild} re-derives everything from the analyses if observations were edited afterwards.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class PhotoAnalysisAccuracyService {
+
+    private static final String FARM_KEY = "";
+
+    private final PhotoAnalysisAccuracyCounterRepository counterRepository;
+    private final ScoutingPhotoAnalysisRepository analysisRepository;
+    private final ScoutingObservationRepository observationRepository;
+
+    /**
+     * What the analysis currently adds to the counters. Must be taken before the analysis is modified.
+     */
+    public Contribution contributionOf(ScoutingPhotoAnalysis analysis) {
+        ScoutOutcome scout = ScoutOutcome.NONE;
+        if (isReviewed(analysis.getReviewStatus())) {
+            PhotoCell cell = PhotoCell.of(analysis);
+            if (cell != null) {
+                scout = new ScoutOutcome(cell.scoutId(), true, observationRepository
+                        .existsBySessionIdAndSessionTargetIdAndBayIndexAndBenchIndexAndSpotIndexAndSpeciesCode(
+                                cell.sessionId(),
+                                cell.sessionTargetId(),
+                                cell.bayIndex(),
+                                cell.benchIndex(),
+                                cell.spotIndex(),
+                                analysis.getReviewedSpeciesCode()
+                        ));
+            }
+        }
+        return new Contribution(
+                analysis.getFarmId(),
+                analysis.getReviewStatus(),
+                analysis.getPredictedSpeciesCode(),
+                analysis.getReviewedSpeciesCode(),
+                analysis.getPredictedConfidence(),
+                scout
+        );
+    }
+
+    /**
+     * Applies the change from {@code before} (null for a new analysis) to the current state of {@code after}.
+     */
+    @Transactional
+    public void record(Contribution before, ScoutingPhotoAnalysis after) {
+        Map<CounterKey, CounterDelta> deltas = new TreeMap<>();
+        if (before != null) {
+            before.addTo(deltas, -1);
+        }
+        contributionOf(after).addTo(deltas, 1);
+        apply(deltas);
+    }
+
+    /**
+     * Takes analyses that are about to be removed, e.g. by archival, out of the counters.
+     */
+    @Transactional
+    public void remove(Collection<Contribution> removed) {
+        Map<CounterKey, CounterDelta> deltas = new TreeMap<>();
+        removed.forEach(contribution -> contribution.addTo(deltas, -1));
+        apply(deltas);
+    }
+
+    /**
+     * Counts freshly created analyses that are all still pending review.
+     */
+    @Transactional
+    public void recordNewAnalyses(UUID farmId, int count) {
+        if (count == 0) {
+            return;
+        }
+        CounterDelta delta = new CounterDelta();
+        delta.total = count;
+        delta.pending = count;
+        apply(Map.of(new CounterKey(farmId, PhotoAnalysisAccuracyScope.FARM, FARM_KEY), delta));
+    }
+
+    @Transactional(readOnly = true)
+    public Optional<PhotoAnalysisAccuracyCounter> farmCounter(UUID farmId) {
+        return counterRepository.findByFarmIdAndScopeAndScopeKey(farmId, PhotoAnalysisAccuracyScope.FARM, FARM_KEY);
+    }
+
+    @Transactional(readOnly = true)
+    public List<PhotoAnalysisAccuracyCounter> counters(UUID farmId, PhotoAnalysisAccuracyScope scope) {
+        return counterRepository.findByFarmIdAndScope(farmId, scope);
+    }
+
+    /**
+     * Recomputes every counter of the farm from its analyses. Runs in its own transaction so read-only callers can
+     * use it to initialise a farm's counters on first access. Overlapping rebuilds write identical totals.
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public PhotoAnalysisAccuracyCounter rebuild(UUID farmId) {
+        List<ScoutingPhotoAnalysis> analyses = analysisRepository.findByFarmId(farmId);
+
+        Set<String> observedCells = new HashSet<>();
+        List<UUID> reviewedSessionIds = analyses.stream()
+                .filter(analysis -> isReviewed(analysis.getReviewStatus()))
+                .map(PhotoCell::of)
+                .filter(Objects::nonNull)
+                .map(PhotoCell::sessionId)
+                .distinct()
+                .toList();
+        if (!reviewedSessionIds.isEmpty()) {
+            for (ScoutingObservation observation : observationRepository.findBySessionIdIn(reviewedSessionIds)) {
+                if (observation.getSessionTarget() != null && observation.getSpeciesCode() != null) {
+                    observedCells.add(cellKey(observation.getSession().getId(), observation.getSessionTarget().getId(),
+                            observation.getBayIndex(), observation.getBenchIndex(), observation.getSpotIndex(),
+                            observation.getSpeciesCode()));
+                }
+            }
+        }
+
+        Map<CounterKey, CounterDelta> totals = new TreeMap<>();
+        totals.put(new CounterKey(farmId, PhotoAnalysisAccuracyScope.FARM, FARM_KEY), new CounterDelta());
+        for (ScoutingPhotoAnalysis analysis : analyses) {
+            ScoutOutcome scout = ScoutOutcome.NONE;
+            PhotoCell cell = isReviewed(analysis.getReviewStatus()) ? PhotoCell.of(analysis) : null;
+            if (cell != null) {
+                scout = new ScoutOutcome(cell.scoutId(), true, observedCells.contains(cellKey(cell.sessionId(),
+                        cell.sessionTargetId(), cell.bayIndex(), cell.benchIndex(), cell.spotIndex(),
+                        analysis.getReviewedSpeciesCode())));
+            }
+            new Contribution(farmId, analysis.getReviewStatus(), analysis.getPredictedSpeciesCode(),
+                    analysis.getReviewedSpeciesCode(), analysis.getPredictedConfidence(), scout)
+                    .addTo(totals, 1);
+        }
+
+        counterRepository.deleteByFarmId(farmId);
+        LocalDateTime now = LocalDateTime.now();
+        totals.forEach((key, total) -> {
+            counterRepository.insertIfAbsent(UUID.randomUUID(), key.farmId(), key.scope().name(), key.scopeKey(), now);
+            counterRepository.assign(key.farmId(), key.scope(), key.scopeKey(), total.total, total.pending,
+                    total.reviewed, total.exactMatches, total.corrected, total.confidenceSum, total.confidenceCount,
+                    now);
+        });
+        log.info("Rebuilt photo analysis accuracy counters for farm {} from {} analyses", farmId, analyses.size());
+
+        return counterRepository.findByFarmIdAndScopeAndScopeKey(farmId, PhotoAnalysisAccuracyScope.FARM, FARM_KEY)
+                .orElseThrow();
+    }
+
+    private void apply(Map<CounterKey, CounterDelta> deltas) {
+        LocalDateTime now = LocalDateTime.now();
+        deltas.forEach((key, delta) -> {
+            if (delta.isZero()) {
+                return;
+            }
+            counterRepository.insertIfAbsent(UUID.randomUUID(), key.farmId(), key.scope().name(), key.scopeKey(), now);
+            counterRepository.increment(key.farmId(), key.scope(), key.scopeKey(), delta.total, delta.pending,
+                    delta.reviewed, delta.exactMatches, delta.corrected, delta.confidenceSum, delta.confidenceCount,
+                    now);
+        });
+    }
+
+    private static boolean isReviewed(PhotoAnalysisReviewStatus status) {
+        return status == PhotoAnalysisReviewStatus.CONFIRMED || status == PhotoAnalysisReviewStatus.CORRECTED;
+    }
+
+    private static String cellKey(UUID sessionId, UUID sessionTargetId, Integer bayIndex, Integer benchIndex,
+                                  Integer spotIndex, SpeciesCode speciesCode) {
+        return sessionId + "|" + sessionTargetId + "|" + bayIndex + "|" + benchIndex + "|" + spotIndex + "|"
+                + speciesCode.name();
+    }
+
+    /**
+     * The counter increments one analysis is responsible for.
+     */
+    public record Contribution(UUID farmId,
+                               PhotoAnalysisReviewStatus reviewStatus,
+                               SpeciesCode predictedSpeciesCode,
+                               SpeciesCode reviewedSpeciesCode,
+                               BigDecimal predictedConfidence,
+                               ScoutOutcome scout) {
+
+        private void addTo(Map<CounterKey, CounterDelta> deltas, int sign) {
+            CounterDelta farm = deltas.computeIfAbsent(
+                    new CounterKey(farmId, PhotoAnalysisAccuracyScope.FARM, FARM_KEY), key -> new CounterDelta());
+            farm.total += sign;
+            if (reviewStatus == PhotoAnalysisReviewStatus.PENDING_REVIEW) {
+                farm.pending += sign;
+            }
+            if (!isReviewed(reviewStatus)) {
+                return;
+            }
+
+            boolean exactMatch = predictedSpeciesCode != null && predictedSpeciesCode == reviewedSpeciesCode;
+            farm.reviewed += sign;
+            farm.exactMatches += exactMatch ? sign : 0;
+            farm.corrected += reviewStatus == PhotoAnalysisReviewStatus.CORRECTED ? sign : 0;
+            if (predictedConfidence != null) {
+                farm.confidenceSum = farm.confidenceSum.add(sign < 0 ? predictedConfidence.negate() : predictedConfidence);
+                farm.confidenceCount += sign;
+            }
+
+            if (reviewedSpeciesCode != null) {
+                CounterDelta species = deltas.computeIfAbsent(
+                        new CounterKey(farmId, PhotoAnalysisAccuracyScope.SPECIES, reviewedSpeciesCode.name()),
+                        key -> new CounterDelta());
+                species.reviewed += sign;
+                species.exactMatches += exactMatch ? sign : 0;
+            }
+
+            if (scout.comparable()) {
+                CounterDelta scoutDelta = deltas.computeIfAbsent(
+                        new CounterKey(farmId, PhotoAnalysisAccuracyScope.SCOUT, scout.scoutId().toString()),
+                        key -> new CounterDelta());
+                scoutDelta.reviewed += sign;
+                scoutDelta.exactMatches += scout.matched() ? sign : 0;
+            }
+        }
+    }
+
+    public record ScoutOutcome(UUID scoutId, boolean comparable, boolean matched) {
+
+        static final ScoutOutcome NONE = new ScoutOutcome(null, false, false);
+    }
+
+    /**
+     * The scouting cell a reviewed photo is pinned to, preferring the linked observation's cell, plus the scout of
+     * that session.
+     */
+    private record PhotoCell(UUID scoutId, UUID sessionId, UUID sessionTargetId, Integer bayIndex, Integer benchIndex,
+                             Integer spotIndex) {
+
+        static PhotoCell of(ScoutingPhotoAnalysis analysis) {
+            ScoutingPhoto photo = analysis.getPhoto();
+            if (analysis.getReviewedSpeciesCode() == null || photo == null || photo.getSession() == null
+                    || photo.getSession().getScout() == null) {
+                return null;
+            }
+            UUID scoutId = photo.getSession().getScout().getId();
+
+            ScoutingObservation observation = photo.getObservation();
+            if (observation != null
+                    && observation.getSession() != null
+                    && observation.getSessionTarget() != null
+                    && observation.getBayIndex() != null
+                    && observation.getBenchIndex() != null
+                    && observation.getSpotIndex() != null) {
+                return new PhotoCell(scoutId, observation.getSession().getId(), observation.getSessionTarget().getId(),
+                        observation.getBayIndex(), observation.getBenchIndex(), observation.getSpotIndex());
+            }
+
+            if (photo.getSessionTarget() == null
+                    || photo.getBayIndex() == null
+                    || photo.getBenchIndex() == null
+                    || photo.getSpotIndex() == null) {
+                return null;
+            }
+            return new PhotoCell(scoutId, photo.getSession().getId(), photo.getSessionTarget().getId(),
+                    photo.getBayIndex(), photo.getBenchIndex(), photo.getSpotIndex());
+        }
+    }
+
+    private record CounterKey(UUID farmId, PhotoAnalysisAccuracyScope scope, String scopeKey)
+            implements Comparable<CounterKey> {
+
+        private static final Comparator<CounterKey> ORDER = Comparator
+                .comparing(CounterKey::farmId)
+                .thenComparing(CounterKey::scope)
+                .thenComparing(CounterKey::scopeKey);
+
+        /**
+         * Rows are always touched in the same order so two concurrent reviews cannot deadlock on each other.
+         */
+        @Override
+        public int compareTo(CounterKey other) {
+            return ORDER.compare(this, other);
+        }
+    }
+
+    private static final class CounterDelta {
+
+        private long total;
+        private long pending;
+        private long reviewed;
+        private long exactMatches;
+        private long corrected;
+        private BigDecimal confidenceSum = BigDecimal.ZERO;
+        private long confidenceCount;
+
+        private boolean isZero() {
+            return total == 0 && pending == 0 && reviewed == 0 && exactMatches == 0 && corrected == 0
+                    && confidenceSum.signum() == 0 && confidenceCount == 0;
+        }
+    }
+}
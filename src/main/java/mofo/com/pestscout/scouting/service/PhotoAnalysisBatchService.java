@@ -0,0 +1,312 @@
+package mofo.com.pestscout.scouting.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import mofo.com.pestscout.common.exception.BadRequestException;
+import mofo.com.pestscout.common.exception.ResourceNotFoundException;
+import mofo.com.pestscout.common.jobs.BackgroundJobQueue;
+import mofo.com.pestscout.common.jobs.BackgroundJobRunner;
+import mofo.com.pestscout.farm.security.CurrentUserService;
+import mofo.com.pestscout.scouting.config.PhotoAnalysisBatchProperties;
+import mofo.com.pestscout.scouting.dto.ImageAnalysisDtos.PhotoAnalysisBatchJobResponse;
+import mofo.com.pestscout.scouting.dto.ImageAnalysisDtos.RunBatchPhotoAnalysisRequest;
+import mofo.com.pestscout.scouting.model.PhotoAnalysisBatchJob;
+import mofo.com.pestscout.scouting.model.PhotoAnalysisBatchStatus;
+import mofo.com.pestscout.scouting.repository.PhotoAnalysisBatchJobRepository;
+import mofo.com.pestscout.scouting.repository.ScoutingPhotoRepository;
+import mofo.com.pestscout.scouting.repository.ScoutingSessionRepository;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs photo analysis for whole sessions in the background.
+ * <p>
+ * A batch job hands its sessions to a session pool shared by all running jobs, so a long date range is scored
+ * several sessions at a time. For each session the observations are loaded once and every photo without an analysis
+ * is scored and saved in a single transaction, so a 200-photo session costs a handful of queries instead of one
+ * observation reload per photo. Only the job's own worker writes the job row: it records each session's result as it
+ * finishes. Jobs are queued, claimed and recovered by a {@link BackgroundJobRunner}.
+ */
+@Service
+@Slf4j
+public class PhotoAnalysisBatchService {
+
+    private static final List<PhotoAnalysisBatchStatus> ACTIVE_STATUSES =
+            List.of(PhotoAnalysisBatchStatus.QUEUED, PhotoAnalysisBatchStatus.RUNNING);
+
+    private final PhotoAnalysisBatchJobRepository jobRepository;
+    private final ScoutingSessionRepository sessionRepository;
+    private final ScoutingPhotoRepository photoRepository;
+    private final ScoutingImageAnalysisService imageAnalysisService;
+    private final ScoutingAnalysisAccessService accessService;
+    private final CurrentUserService currentUserService;
+    private final PhotoAnalysisBatchProperties properties;
+    private final BackgroundJobRunner jobs;
+    private final ThreadPoolExecutor sessionExecutor;
+    private final Timer jobTimer;
+    private final Counter analyzedPhotos;
+
+    public PhotoAnalysisBatchService(PhotoAnalysisBatchJobRepository jobRepository,
+                                     ScoutingSessionRepository sessionRepository,
+                                     ScoutingPhotoRepository photoRepository,
+                                     ScoutingImageAnalysisService imageAnalysisService,
+                                     ScoutingAnalysisAccessService accessService,
+                                     CurrentUserService currentUserService,
+                                     PhotoAnalysisBatchProperties properties,
+                                     MeterRegistry meterRegistry) {
+        this.jobRepository = jobRepository;
+        this.sessionRepository = sessionRepository;
+        this.photoRepository = photoRepository;
+        this.imageAnalysisService = imageAnalysisService;
+        this.accessService = accessService;
+        this.currentUserService = currentUserService;
+        this.properties = properties;
+
+        this.jobs = new BackgroundJobRunner("photo-analysis-batch", new BatchJobQueue(), properties, meterRegistry,
+                "photo.analysis.batch");
+
+        int sessionThreads = Math.max(1, properties.getSessionThreads());
+        AtomicInteger threadCounter = new AtomicInteger();
+        this.sessionExecutor = new ThreadPoolExecutor(
+                sessionThreads,
+                sessionThreads,
+                0L,
+                TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "photo-analysis-session-" + threadCounter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }
+        );
+
+        this.jobTimer = Timer.builder("photo.analysis.batch.duration")
+                .description("Time taken to run one batch photo analysis job")
+                .register(meterRegistry);
+        this.analyzedPhotos = Counter.builder("photo.analysis.batch.photos")
+                .description("Photos analyzed by batch jobs")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Queues a batch job. A request for a session that already has a queued or running job returns that job instead
+     * of starting a second one over the same photos.
+     */
+    @Transactional
+    public PhotoAnalysisBatchJobResponse submit(RunBatchPhotoAnalysisRequest request) {
+        UUID farmId = request.farmId();
+        accessService.loadFarmAndEnsureManager(farmId);
+
+        if (request.sessionId() != null) {
+            sessionRepository.findByIdAndFarmId(request.sessionId(), farmId)
+                    .orElseThrow(() -> new ResourceNotFoundException("ScoutingSession", "id", request.sessionId()));
+            PhotoAnalysisBatchJob active = jobRepository
+                    .findFirstByFarmIdAndSessionIdAndStatusIn(farmId, request.sessionId(), ACTIVE_STATUSES)
+                    .orElse(null);
+            if (active != null) {
+                return toResponse(active);
+            }
+        } else {
+            validateRange(request);
+        }
+
+        PhotoAnalysisBatchJob job = jobRepository.save(PhotoAnalysisBatchJob.builder()
+                .farmId(farmId)
+                .sessionId(request.sessionId())
+                .fromDate(request.sessionId() == null ? request.fromDate() : null)
+                .toDate(request.sessionId() == null ? request.toDate() : null)
+                .requestedBy(currentUserService.getCurrentUserId())
+                .build());
+        jobs.submitAfterCommit(job.getId());
+        log.info("Queued batch photo analysis {} for farm {}", job.getId(), farmId);
+        return toResponse(job);
+    }
+
+    @Transactional(readOnly = true)
+    public PhotoAnalysisBatchJobResponse getJob(UUID farmId, UUID jobId) {
+        accessService.loadFarmAndEnsureViewer(farmId);
+        return jobRepository.findByIdAndFarmId(jobId, farmId)
+                .map(this::toResponse)
+                .orElseThrow(() -> new ResourceNotFoundException("PhotoAnalysisBatchJob", "id", jobId));
+    }
+
+    @Scheduled(fixedDelayString = "${app.scouting.analysis-batch.sweep-ms:30000}")
+    public void resubmitQueuedJobs() {
+        jobs.sweep();
+    }
+
+    void run(UUID jobId) {
+        jobs.process(jobId);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        jobs.shutdown();
+        sessionExecutor.shutdownNow();
+    }
+
+    private void analyze(UUID jobId) {
+        PhotoAnalysisBatchJob job = jobRepository.findById(jobId).orElse(null);
+        if (job == null) {
+            return;
+        }
+
+        Timer.Sample sample = Timer.start();
+        try {
+            List<UUID> sessionIds = job.getSessionId() != null
+                    ? List.of(job.getSessionId())
+                    : sessionRepository.findIdsByFarmIdAndSessionDateBetween(job.getFarmId(), job.getFromDate(), job.getToDate());
+
+            job.setTotalPhotos(sessionIds.isEmpty() ? 0 : photoRepository.countUnanalyzedBySessionIdIn(sessionIds));
+            job.setProcessedPhotos(0);
+            job.setFailedSessions(0);
+            job = scoreSessions(jobRepository.save(job), sessionIds);
+
+            job.setStatus(PhotoAnalysisBatchStatus.COMPLETED);
+            job.setCompletedAt(LocalDateTime.now());
+            jobRepository.save(job);
+            log.info("Batch photo analysis {} analyzed {} photos across {} sessions", jobId,
+                    job.getProcessedPhotos(), sessionIds.size());
+        } catch (InterruptedException ex) {
+            // Left running: the sweeper returns the job to the queue once it counts as stalled
+            Thread.currentThread().interrupt();
+            log.info("Batch photo analysis {} interrupted", jobId);
+        } catch (RuntimeException ex) {
+            job.setStatus(PhotoAnalysisBatchStatus.FAILED);
+            job.setCompletedAt(LocalDateTime.now());
+            job.setLastError(BackgroundJobRunner.truncateError(ex.getMessage()));
+            jobRepository.save(job);
+            log.error("Batch photo analysis {} failed", jobId, ex);
+        } finally {
+            sample.stop(jobTimer);
+        }
+    }
+
+    /**
+     * Scores the sessions on the session pool and records each result on the job as it completes. Sessions not yet
+     * started when the worker stops are cancelled; sessions already being scored finish their transaction.
+     */
+    private PhotoAnalysisBatchJob scoreSessions(PhotoAnalysisBatchJob job, List<UUID> sessionIds)
+            throws InterruptedException {
+        UUID farmId = job.getFarmId();
+        CompletionService<SessionOutcome> completion = new ExecutorCompletionService<>(sessionExecutor);
+        List<Future<SessionOutcome>> pending = new ArrayList<>(sessionIds.size());
+        try {
+            for (UUID sessionId : sessionIds) {
+                pending.add(completion.submit(() -> scoreSession(farmId, sessionId)));
+            }
+            for (int i = 0; i < pending.size(); i++) {
+                SessionOutcome outcome = outcomeOf(completion.take());
+                if (outcome.error() == null) {
+                    analyzedPhotos.increment(outcome.analyzed());
+                    job.setProcessedPhotos(job.getProcessedPhotos() + outcome.analyzed());
+                } else {
+                    job.setFailedSessions(job.getFailedSessions() + 1);
+                    job.setLastError(BackgroundJobRunner.truncateError(
+                            "Session " + outcome.sessionId() + ": " + outcome.error().getMessage()));
+                    log.warn("Batch photo analysis {} failed for session {}: {}", job.getId(), outcome.sessionId(),
+                            outcome.error().getMessage());
+                }
+                job = jobRepository.save(job);
+            }
+        } finally {
+            pending.forEach(future -> future.cancel(false));
+        }
+        return job;
+    }
+
+    private SessionOutcome scoreSession(UUID farmId, UUID sessionId) {
+        try {
+            int analyzed = imageAnalysisService.analyzeUnscoredSessionPhotos(farmId, sessionId);
+            return new SessionOutcome(sessionId, analyzed, null);
+        } catch (RuntimeException ex) {
+            return new SessionOutcome(sessionId, 0, ex);
+        }
+    }
+
+    private static SessionOutcome outcomeOf(Future<SessionOutcome> future) throws InterruptedException {
+        try {
+            return future.get();
+        } catch (ExecutionException ex) {
+            throw new IllegalStateException("Session scoring failed", ex.getCause());
+        }
+    }
+
+    private void validateRange(RunBatchPhotoAnalysisRequest request) {
+        if (request.fromDate() == null || request.toDate() == null) {
+            throw new BadRequestException("Batch analysis requires a sessionId or both fromDate and toDate.");
+        }
+        if (request.toDate().isBefore(request.fromDate())) {
+            throw new BadRequestException("toDate must not be before fromDate.");
+        }
+        if (ChronoUnit.DAYS.between(request.fromDate(), request.toDate()) >= properties.getMaxRangeDays()) {
+            throw new BadRequestException("Batch analysis can cover at most " + properties.getMaxRangeDays() + " days.");
+        }
+    }
+
+    private PhotoAnalysisBatchJobResponse toResponse(PhotoAnalysisBatchJob job) {
+        return new PhotoAnalysisBatchJobResponse(
+                job.getId(),
+                job.getFarmId(),
+                job.getSessionId(),
+                job.getFromDate(),
+                job.getToDate(),
+                job.getStatus().name(),
+                job.getTotalPhotos(),
+                job.getProcessedPhotos(),
+                job.getFailedSessions(),
+                job.getLastError(),
+                job.getCreatedAt(),
+                job.getStartedAt(),
+                job.getCompletedAt()
+        );
+    }
+
+    private record SessionOutcome(UUID sessionId, int analyzed, RuntimeException error) {
+    }
+
+    private final class BatchJobQueue implements BackgroundJobQueue {
+
+        @Override
+        public boolean claim(UUID jobId, LocalDateTime now) {
+            return jobRepository.claim(jobId, PhotoAnalysisBatchStatus.QUEUED, PhotoAnalysisBatchStatus.RUNNING,
+                    now) > 0;
+        }
+
+        @Override
+        public int resetStalled(LocalDateTime now) {
+            return jobRepository.resetStale(
+                    PhotoAnalysisBatchStatus.RUNNING,
+                    PhotoAnalysisBatchStatus.QUEUED,
+                    now.minus(properties.getStalledAfterMs(), ChronoUnit.MILLIS),
+                    now
+            );
+        }
+
+        @Override
+        public List<UUID> findDue(LocalDateTime retryBefore) {
+            return jobRepository.findTop50ByStatusAndUpdatedAtBeforeOrderByUpdatedAtAsc(
+                            PhotoAnalysisBatchStatus.QUEUED, retryBefore)
+                    .stream()
+                    .map(PhotoAnalysisBatchJob::getId)
+                    .toList();
+        }
+
+        @Override
+        public void run(UUID jobId) {
+            analyze(jobId);
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package mofo.com.pestscout.scouting.service;
+
+import lombok.RequiredArgsConstructor;
+import mofo.com.pestscout.scouting.model.PhotoBlobReference;
+import mofo.com.pestscout.scouting.repository.PhotoBlobReferenceRepository;
+import mofo.com.pestscout.scouting.storage.PhotoBlobStore;
+import mofo.com.pestscout.scouting.storage.PhotoDerivativeCache;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+
+/**
+ * Deletes one orphaned blob, each in its own transaction. The reference row is locked and re-checked before the file
+ * goes. Uploads take their reference before moving bytes into the store, so one that races the sweep waits for it to
+ * finish and then recreates both the row and the file, rather than ending up pointing at bytes the sweep just removed.
+ */
+@Component
+@RequiredArgsConstructor
+public class PhotoBlobCollector {
+
+    private final PhotoBlobReferenceRepository referenceRepository;
+    private final PhotoBlobStore photoBlobStore;
+    private final PhotoDerivativeCache derivativeCache;
+
+    /**
+     * Returns whether the blob was collected. A failed file delete keeps the row, so the next sweep retries it.
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public boolean collect(String contentHash, LocalDateTime cutoff) throws IOException {
+        PhotoBlobReference blob = referenceRepository.findByContentHashForUpdate(contentHash).orElse(null);
+        if (blob == null
+                || blob.getReferenceCount() != 0
+                || blob.getUnreferencedSince() == null
+                || !blob.getUnreferencedSince().isBefore(cutoff)) {
+            return false;
+        }
+
+        photoBlobStore.delete(contentHash);
+        derivativeCache.evict(contentHash);
+        return referenceRepository.deleteIfUnreferenced(contentHash, cutoff) > 0;
+    }
+}
@@ -0,0 +1,79 @@
+package mofo.com.pestscout.scouting.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import mofo.com.pestscout.scouting.config.PhotoStorageProperties;
+import mofo.com.pestscout.scouting.model.PhotoBlobReference;
+import mofo.com.pestscout.scouting.repository.PhotoBlobReferenceRepository;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Counts how many photos share each stored blob and removes blobs nobody refers to.
+ * <p>
+ * Because blobs are keyed by content hash, the same image uploaded for several photos, sessions or retries is stored
+ * once. Deleting one of those photos must not remove the file, so every photo that points at a blob holds a reference
+ * and the file is only collected after the count has stayed at zero for the configured grace period.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class PhotoBlobReferenceService {
+
+    private final PhotoBlobReferenceRepository referenceRepository;
+    private final PhotoBlobCollector collector;
+    private final PhotoStorageProperties properties;
+
+    /**
+     * Adds a reference, creating the row if the blob has none yet or the sweep removed it while this call waited on
+     * its lock.
+     */
+    @Transactional
+    public void acquire(String contentHash, long sizeBytes) {
+        LocalDateTime now = LocalDateTime.now();
+        if (referenceRepository.adjust(contentHash, 1, now) == 0) {
+            referenceRepository.insertIfAbsent(UUID.randomUUID(), contentHash, sizeBytes, now);
+            referenceRepository.adjust(contentHash, 1, now);
+        }
+    }
+
+    @Transactional
+    public void release(String contentHash) {
+        if (contentHash == null) {
+            return;
+        }
+        referenceRepository.adjust(contentHash, -1, LocalDateTime.now());
+    }
+
+    /**
+     * Deletes blobs and their derivatives once they have been unreferenced for the grace period. Each blob is
+     * re-checked under a row lock by {@link PhotoBlobCollector}, so a blob picked up again in the meantime is kept.
+     */
+    @Scheduled(fixedDelayString = "${app.scouting.photo-storage.orphan-sweep-ms:3600000}")
+    public void collectOrphans() {
+        LocalDateTime cutoff = LocalDateTime.now().minus(properties.getOrphanGraceMs(), ChronoUnit.MILLIS);
+        List<PhotoBlobReference> orphans = referenceRepository
+                .findTop100ByReferenceCountLessThanEqualAndUnreferencedSinceBeforeOrderByUnreferencedSinceAsc(0, cutoff);
+
+        int collected = 0;
+        for (PhotoBlobReference orphan : orphans) {
+            try {
+                if (collector.collect(orphan.getContentHash(), cutoff)) {
+                    collected++;
+                }
+            } catch (IOException ex) {
+                log.warn("Failed to delete orphaned photo blob {}: {}", orphan.getContentHash(), ex.getMessage());
+            }
+        }
+        if (collected > 0) {
+            log.info("Collected {} orphaned photo blobs", collected);
+        }
+    }
+}
@@ -0,0 +1,219 @@
+package mofo.com.pestscout.scouting.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import mofo.com.pestscout.common.jobs.BackgroundJobQueue;
+import mofo.com.pestscout.common.jobs.BackgroundJobRunner;
+import mofo.com.pestscout.scouting.config.PhotoDerivativeProperties;
+import mofo.com.pestscout.scouting.model.PhotoDerivativeJob;
+import mofo.com.pestscout.scouting.model.PhotoDerivativeJobStatus;
+import mofo.com.pestscout.scouting.model.PhotoDerivativeVariant;
+import mofo.com.pestscout.scouting.model.ScoutingPhoto;
+import mofo.com.pestscout.scouting.repository.PhotoDerivativeJobRepository;
+import mofo.com.pestscout.scouting.repository.ScoutingPhotoRepository;
+import mofo.com.pestscout.scouting.storage.PhotoBlob;
+import mofo.com.pestscout.scouting.storage.PhotoBlobStore;
+import mofo.com.pestscout.scouting.storage.PhotoDerivativeCache;
+import mofo.com.pestscout.scouting.storage.PhotoDerivativeRenderer;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Generates thumbnails and previews for locally stored photos in the background.
+ * <p>
+ * Every render is first recorded as a {@link PhotoDerivativeJob} and run by a {@link BackgroundJobRunner}, which hands
+ * it to a bounded worker pool once the surrounding transaction commits and has {@link #resubmitPendingJobs()} offer
+ * it again if the pool was saturated or the node stopped first. A claim counts the attempt, so a failed render is
+ * retried until {@code maxAttempts}. Renders run outside any transaction.
+ */
+@Service
+@Slf4j
+public class PhotoDerivativeService {
+
+    private final PhotoDerivativeJobRepository jobRepository;
+    private final ScoutingPhotoRepository photoRepository;
+    private final PhotoBlobStore photoBlobStore;
+    private final PhotoDerivativeCache derivativeCache;
+    private final PhotoDerivativeRenderer renderer;
+    private final PhotoDerivativeProperties properties;
+    private final BackgroundJobRunner jobs;
+    private final Timer renderTimer;
+    private final Counter failures;
+
+    public PhotoDerivativeService(PhotoDerivativeJobRepository jobRepository,
+                                  ScoutingPhotoRepository photoRepository,
+                                  PhotoBlobStore photoBlobStore,
+                                  PhotoDerivativeCache derivativeCache,
+                                  PhotoDerivativeRenderer renderer,
+                                  PhotoDerivativeProperties properties,
+                                  MeterRegistry meterRegistry) {
+        this.jobRepository = jobRepository;
+        this.photoRepository = photoRepository;
+        this.photoBlobStore = photoBlobStore;
+        this.derivativeCache = derivativeCache;
+        this.renderer = renderer;
+        this.properties = properties;
+
+        this.jobs = new BackgroundJobRunner("photo-derivatives", new DerivativeJobQueue(), properties, meterRegistry,
+                "photo.derivatives");
+
+        this.renderTimer = Timer.builder("photo.derivatives.render")
+                .description("Time spent rendering all derivatives of one photo")
+                .register(meterRegistry);
+        this.failures = Counter.builder("photo.derivatives.failures")
+                .description("Derivative render attempts that failed")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Records a derivative job for the photo's current blob and submits it after commit. When every rendition for
+     * the blob is already cached (the same bytes were uploaded before) the photo is marked ready immediately.
+     */
+    @Transactional
+    public void schedule(ScoutingPhoto photo) {
+        String blobKey = photo.getObjectKey();
+        if (!properties.isEnabled() || blobKey == null || !isStoredLocally(blobKey)) {
+            return;
+        }
+
+        if (allVariantsCached(blobKey)) {
+            LocalDateTime now = LocalDateTime.now();
+            photo.setDerivativesGeneratedAt(now);
+            photoRepository.markDerivativesGenerated(photo.getId(), blobKey, now);
+            return;
+        }
+
+        PhotoDerivativeJob job = jobRepository.save(PhotoDerivativeJob.builder()
+                .photoId(photo.getId())
+                .blobKey(blobKey)
+                .build());
+        jobs.submitAfterCommit(job.getId());
+    }
+
+    /**
+     * Re-offers jobs that are still pending after the retry delay, including failed attempts that have retries
+     * left, and returns abandoned running jobs to pending.
+     */
+    @Scheduled(fixedDelayString = "${app.scouting.photo-derivatives.sweep-ms:30000}")
+    public void resubmitPendingJobs() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+
+        jobs.sweep();
+    }
+
+    void process(UUID jobId) {
+        jobs.process(jobId);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        jobs.shutdown();
+    }
+
+    private void renderJob(UUID jobId) {
+        PhotoDerivativeJob job = jobRepository.findById(jobId).orElse(null);
+        if (job == null) {
+            return;
+        }
+
+        Timer.Sample sample = Timer.start();
+        try {
+            render(job.getBlobKey());
+            LocalDateTime completedAt = LocalDateTime.now();
+            job.setStatus(PhotoDerivativeJobStatus.COMPLETED);
+            job.setCompletedAt(completedAt);
+            job.setLastError(null);
+            jobRepository.save(job);
+            photoRepository.markDerivativesGenerated(job.getPhotoId(), job.getBlobKey(), completedAt);
+            sample.stop(renderTimer);
+        } catch (IOException | RuntimeException ex) {
+            failures.increment();
+            boolean exhausted = job.getAttempts() >= properties.getMaxAttempts();
+            job.setStatus(exhausted ? PhotoDerivativeJobStatus.FAILED : PhotoDerivativeJobStatus.PENDING);
+            job.setLastError(BackgroundJobRunner.truncateError(ex.getMessage()));
+            jobRepository.save(job);
+            log.warn("Derivative render for photo {} failed (attempt {}{}): {}", job.getPhotoId(), job.getAttempts(),
+                    exhausted ? ", giving up" : "", ex.getMessage());
+        }
+    }
+
+    private void render(String blobKey) throws IOException {
+        PhotoBlob source = photoBlobStore.open(blobKey)
+                .orElseThrow(() -> new IOException("Photo blob " + blobKey + " is no longer stored"));
+        for (PhotoDerivativeVariant variant : PhotoDerivativeVariant.values()) {
+            if (!derivativeCache.contains(blobKey, variant)) {
+                derivativeCache.put(blobKey, variant, renderer.render(source, maxDimension(variant)));
+            }
+        }
+    }
+
+    private int maxDimension(PhotoDerivativeVariant variant) {
+        return switch (variant) {
+            case THUMBNAIL -> properties.getThumbnailMaxPx();
+            case PREVIEW -> properties.getPreviewMaxPx();
+        };
+    }
+
+    private boolean allVariantsCached(String blobKey) {
+        for (PhotoDerivativeVariant variant : PhotoDerivativeVariant.values()) {
+            if (!derivativeCache.contains(blobKey, variant)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean isStoredLocally(String blobKey) {
+        try {
+            return photoBlobStore.open(blobKey).isPresent();
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    private final class DerivativeJobQueue implements BackgroundJobQueue {
+
+        @Override
+        public boolean claim(UUID jobId, LocalDateTime now) {
+            return jobRepository.claim(jobId, PhotoDerivativeJobStatus.PENDING, PhotoDerivativeJobStatus.RUNNING,
+                    now) > 0;
+        }
+
+        @Override
+        public int resetStalled(LocalDateTime now) {
+            return jobRepository.resetStale(
+                    PhotoDerivativeJobStatus.RUNNING,
+                    PhotoDerivativeJobStatus.PENDING,
+                    now.minusNanos(TimeUnit.MILLISECONDS.toNanos(properties.getStalledAfterMs())),
+                    now
+            );
+        }
+
+        @Override
+        public List<UUID> findDue(LocalDateTime retryBefore) {
+            return jobRepository.findTop50ByStatusAndUpdatedAtBeforeOrderByUpdatedAtAsc(
+                            PhotoDerivativeJobStatus.PENDING, retryBefore)
+                    .stream()
+                    .map(PhotoDerivativeJob::getId)
+                    .toList();
+        }
+
+        @Override
+        public void run(UUID jobId) {
+            renderJob(jobId);
+        }
+    }
+}
@@ -0,0 +1,243 @@
+package mofo.com.pestscout.scouting.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import mofo.com.pestscout.common.exception.BadRequestException;
+import mofo.com.pestscout.common.exception.ConflictException;
+import mofo.com.pestscout.common.exception.ResourceNotFoundException;
+import mofo.com.pestscout.scouting.config.PhotoStorageProperties;
+import mofo.com.pestscout.scouting.dto.PhotoUploadDtos.CreatePhotoUploadRequest;
+import mofo.com.pestscout.scouting.dto.PhotoUploadDtos.PhotoUploadResponse;
+import mofo.com.pestscout.scouting.dto.ScoutingPhotoDto;
+import mofo.com.pestscout.scouting.model.PhotoUpload;
+import mofo.com.pestscout.scouting.model.PhotoUploadStatus;
+import mofo.com.pestscout.scouting.model.ScoutingPhoto;
+import mofo.com.pestscout.scouting.repository.PhotoUploadRepository;
+import mofo.com.pestscout.scouting.storage.PhotoUploadStaging;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Resumable photo uploads for scouts on unreliable connections.
+ * <p>
+ * A client creates an upload for a registered photo, declaring its size and SHA-256, then sends the bytes in chunks
+ * at explicit offsets. If the connection drops, {@link #getUpload} reports how many bytes arrived and the client
+ * resends only the rest. Finalizing verifies the checksum, moves the staged file into the blob store and confirms the
+ * photo through {@link ScoutingPhotoService#confirmResumableUpload}, which takes the blob reference in the same
+ * transaction. Chunk calls are not transactional, so no database connection is held while bytes stream in.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class PhotoUploadService {
+
+    private final PhotoUploadRepository uploadRepository;
+    private final ScoutingPhotoService photoService;
+    private final PhotoUploadStaging staging;
+    private final PhotoStorageProperties properties;
+
+    /**
+     * Starts an upload, or returns the open one for the same photo and checksum so a client that restarted can
+     * carry on where it left off.
+     */
+    public PhotoUploadResponse createUpload(CreatePhotoUploadRequest request) {
+        if (request.totalBytes() > properties.getMaxUploadBytes()) {
+            throw new BadRequestException("Photo exceeds the maximum upload size of " + properties.getMaxUploadBytes() + " bytes.");
+        }
+        if (!request.contentType().toLowerCase(Locale.ROOT).startsWith("image/")) {
+            throw new BadRequestException("Photo content must be uploaded with an image/* content type.");
+        }
+
+        ScoutingPhoto photo = photoService.loadPhotoForUpload(request.sessionId(), request.localPhotoId());
+        String checksum = request.contentSha256().toLowerCase(Locale.ROOT);
+
+        PhotoUpload open = uploadRepository
+                .findFirstByFarmIdAndLocalPhotoIdAndStatus(photo.getFarmId(), photo.getLocalPhotoId(), PhotoUploadStatus.OPEN)
+                .orElse(null);
+        if (open != null) {
+            if (open.getContentSha256().equals(checksum) && open.getTotalBytes() == request.totalBytes()) {
+                return toResponse(open, receivedBytes(open.getId()));
+            }
+            expire(open);
+        }
+
+        PhotoUpload upload = uploadRepository.save(PhotoUpload.builder()
+                .farmId(photo.getFarmId())
+                .sessionId(request.sessionId())
+                .photoId(photo.getId())
+                .localPhotoId(photo.getLocalPhotoId())
+                .contentType(request.contentType())
+                .totalBytes(request.totalBytes())
+                .contentSha256(checksum)
+                .expiresAt(nextExpiry(LocalDateTime.now()))
+                .build());
+        log.info("Started resumable upload {} for photo {} ({} bytes)", upload.getId(), photo.getId(), request.totalBytes());
+        return toResponse(upload, 0);
+    }
+
+    public PhotoUploadResponse getUpload(UUID uploadId) {
+        PhotoUpload upload = loadAuthorized(uploadId);
+        long received = upload.getStatus() == PhotoUploadStatus.OPEN
+                ? receivedBytes(uploadId)
+                : upload.getReceivedBytes();
+        return toResponse(upload, received);
+    }
+
+    /**
+     * Writes one chunk at {@code offset}. Bytes that arrived before a dropped connection are kept, so the next
+     * attempt can start from {@link PhotoUploadResponse#receivedBytes()}.
+     */
+    public PhotoUploadResponse appendChunk(UUID uploadId, long offset, InputStream content) {
+        PhotoUpload upload = loadOpen(uploadId);
+
+        long received;
+        try {
+            received = staging.append(uploadId, offset, upload.getTotalBytes(), content);
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Failed to store chunk for upload " + uploadId, ex);
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        uploadRepository.recordProgress(uploadId, received, nextExpiry(now), now);
+        upload.setReceivedBytes(received);
+        return toResponse(upload, received);
+    }
+
+    /**
+     * Verifies and stores the finished upload and confirms the photo. Calling it again after a success returns the
+     * confirmed photo, even once the session no longer accepts photo changes; a checksum mismatch discards the staged
+     * bytes so the client starts the upload over.
+     */
+    public ScoutingPhotoDto finalizeUpload(UUID uploadId) {
+        PhotoUpload upload = uploadRepository.findById(uploadId)
+                .orElseThrow(() -> new ResourceNotFoundException("PhotoUpload", "id", uploadId));
+        if (upload.getStatus() == PhotoUploadStatus.COMPLETED) {
+            return photoService.getUploadedPhoto(upload.getSessionId(), upload.getLocalPhotoId());
+        }
+        photoService.loadPhotoForUpload(upload.getSessionId(), upload.getLocalPhotoId());
+        if (upload.getStatus() == PhotoUploadStatus.EXPIRED) {
+            throw new ConflictException("Upload " + uploadId + " has expired; start a new upload.");
+        }
+
+        // Always hash the staged bytes, even when a blob with this checksum already exists: knowing a hash must not
+        // be enough to attach someone else's photo.
+        Optional<ScoutingPhotoDto> photo;
+        try {
+            long received = staging.size(uploadId);
+            if (received != upload.getTotalBytes()) {
+                throw new ConflictException("Upload " + uploadId + " has received " + received + " of "
+                        + upload.getTotalBytes() + " bytes.");
+            }
+            photo = photoService.confirmResumableUpload(upload, staging.path(uploadId));
+        } catch (BadRequestException ex) {
+            restart(uploadId);
+            throw ex;
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Failed to finalize upload " + uploadId, ex);
+        }
+
+        if (photo.isEmpty()) {
+            // A concurrent finalize or the expiry sweep got there first.
+            PhotoUpload current = uploadRepository.findById(uploadId).orElse(upload);
+            if (current.getStatus() != PhotoUploadStatus.COMPLETED) {
+                throw new ConflictException("Upload " + uploadId + " has expired; start a new upload.");
+            }
+            return photoService.getUploadedPhoto(upload.getSessionId(), upload.getLocalPhotoId());
+        }
+        log.info("Finalized resumable upload {} for photo {}", uploadId, upload.getPhotoId());
+        return photo.get();
+    }
+
+    /**
+     * Expires uploads that have not received a chunk within the TTL and deletes their partial files.
+     */
+    @Scheduled(fixedDelayString = "${app.scouting.photo-storage.upload-sweep-ms:900000}")
+    public void expireStaleUploads() {
+        int expired = 0;
+        for (PhotoUpload upload : uploadRepository.findTop100ByStatusAndExpiresAtBeforeOrderByExpiresAtAsc(
+                PhotoUploadStatus.OPEN, LocalDateTime.now())) {
+            if (expire(upload)) {
+                expired++;
+            }
+        }
+        if (expired > 0) {
+            log.info("Expired {} abandoned photo uploads", expired);
+        }
+    }
+
+    private void restart(UUID uploadId) {
+        try {
+            staging.discard(uploadId);
+        } catch (IOException ex) {
+            log.warn("Failed to delete staged bytes for upload {}: {}", uploadId, ex.getMessage());
+        }
+        LocalDateTime now = LocalDateTime.now();
+        uploadRepository.recordProgress(uploadId, 0, nextExpiry(now), now);
+    }
+
+    private boolean expire(PhotoUpload upload) {
+        if (uploadRepository.transition(upload.getId(), PhotoUploadStatus.OPEN, PhotoUploadStatus.EXPIRED,
+                LocalDateTime.now()) == 0) {
+            return false;
+        }
+        try {
+            staging.discard(upload.getId());
+        } catch (IOException ex) {
+            log.warn("Failed to delete staged bytes for upload {}: {}", upload.getId(), ex.getMessage());
+        }
+        return true;
+    }
+
+    private PhotoUpload loadOpen(UUID uploadId) {
+        PhotoUpload upload = loadAuthorized(uploadId);
+        if (upload.getStatus() == PhotoUploadStatus.OPEN && upload.getExpiresAt().isBefore(LocalDateTime.now())) {
+            expire(upload);
+            throw new ConflictException("Upload " + uploadId + " has expired; start a new upload.");
+        }
+        if (upload.getStatus() != PhotoUploadStatus.OPEN) {
+            throw new ConflictException("Upload " + uploadId + " is " + upload.getStatus().name().toLowerCase(Locale.ROOT) + ".");
+        }
+        return upload;
+    }
+
+    private PhotoUpload loadAuthorized(UUID uploadId) {
+        PhotoUpload upload = uploadRepository.findById(uploadId)
+                .orElseThrow(() -> new ResourceNotFoundException("PhotoUpload", "id", uploadId));
+        photoService.loadPhotoForUpload(upload.getSessionId(), upload.getLocalPhotoId());
+        return upload;
+    }
+
+    private long receivedBytes(UUID uploadId) {
+        try {
+            return staging.size(uploadId);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    private LocalDateTime nextExpiry(LocalDateTime now) {
+        return now.plus(properties.getUploadTtlMs(), ChronoUnit.MILLIS);
+    }
+
+    private PhotoUploadResponse toResponse(PhotoUpload upload, long receivedBytes) {
+        return new PhotoUploadResponse(
+                upload.getId(),
+                upload.getSessionId(),
+                upload.getPhotoId(),
+                upload.getLocalPhotoId(),
+                upload.getTotalBytes(),
+                receivedBytes,
+                upload.getStatus().name(),
+                upload.getExpiresAt()
+        );
+    }
+}
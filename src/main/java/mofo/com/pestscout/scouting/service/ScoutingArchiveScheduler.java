@@ -0,0 +1,54 @@
+package mofo.com.pestscout.scouting.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import mofo.com.pestscout.scouting.config.ScoutingArchiveProperties;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.function.IntSupplier;
+
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ScoutingArchiveScheduler {
+
+    private final ScoutingArchiveService archiveService;
+    private final ScoutingArchiveProperties properties;
+
+    @Scheduled(cron = "${app.scouting.archive.cron:0 45 1 * * *}")
+    public void archiveAll() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        archive("deleted observations", () -> archiveService.archiveDeletedObservations(now));
+        archive("deleted observation drafts", () -> archiveService.archiveDeletedDrafts(now));
+        archive("deleted photos", () -> archiveService.archiveDeletedPhotos(now));
+
+        Optional<LocalDate> cutoff = properties.sessionCutoff(now.toLocalDate());
+        cutoff.ifPresent(date -> archive("completed sessions before " + date, () -> archiveService.archiveSessions(date)));
+    }
+
+    private void archive(String kind, IntSupplier chunk) {
+        int archived = 0;
+        try {
+            for (int batch = 0; batch < Math.max(1, properties.getMaxBatchesPerRun()); batch++) {
+                int moved = chunk.getAsInt();
+                archived += moved;
+                if (moved < Math.max(1, properties.getBatchSize())) {
+                    break;
+                }
+            }
+        } catch (RuntimeException ex) {
+            log.warn("Failed to archive {} after {} row(s)", kind, archived, ex);
+            return;
+        }
+        if (archived > 0) {
+            log.info("Archived {} {}.", archived, kind);
+        }
+    }
+}
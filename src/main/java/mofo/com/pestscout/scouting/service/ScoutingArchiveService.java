@@ -0,0 +1,230 @@
+package mofo.com.pestscout.scouting.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import mofo.com.pestscout.common.service.CacheService;
+import mofo.com.pestscout.scouting.config.ScoutingArchiveProperties;
+import mofo.com.pestscout.scouting.dto.ArchivedSessionReport;
+import mofo.com.pestscout.scouting.model.*;
+import mofo.com.pestscout.scouting.repository.*;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+/**
+ * Moves cold scouting rows out of the hot tables into {@code scouting_archive_records}.
+ * <p>
+ * Soft-deleted observations, drafts and photos are archived once they have been deleted for the retention window,
+ * and completed sessions once they fall behind the session horizon. Each {@code archive*} call moves one chunk in its
+ * own transaction and returns how many rows it moved, so the scheduler can keep calling until a chunk comes back
+ * short. A session is archived as the report it exported at the time, together with its photos and audit trail, and
+ * can still be exported from the archive. Archived photos keep their metadata only: their analyses leave the accuracy
+ * counters and their blob references are released, so content no other photo uses is collected.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ScoutingArchiveService {
+
+    private final ScoutingArchiveRecordRepository archiveRepository;
+    private final ScoutingSessionRepository sessionRepository;
+    private final ScoutingObservationRepository observationRepository;
+    private final ScoutingObservationDraftRepository draftRepository;
+    private final ScoutingPhotoRepository photoRepository;
+    private final ScoutingPhotoAnalysisRepository photoAnalysisRepository;
+    private final SessionAuditEventRepository auditEventRepository;
+    private final ScoutingSessionService scoutingSessionService;
+    private final ScoutingPhotoService scoutingPhotoService;
+    private final PhotoAnalysisAccuracyService accuracyService;
+    private final PhotoBlobReferenceService blobReferences;
+    private final CacheService cacheService;
+    private final ScoutingArchiveProperties properties;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Archives and removes one chunk of observations soft-deleted before the retention window.
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public int archiveDeletedObservations(LocalDateTime now) {
+        List<ScoutingObservation> observations = observationRepository
+                .findByDeletedTrueAndDeletedAtBeforeOrderByDeletedAtAsc(deletedCutoff(now), chunk());
+        if (observations.isEmpty()) {
+            return 0;
+        }
+        for (ScoutingObservation observation : observations) {
+            save(ArchiveRecordType.OBSERVATION, observation.getId(), observation.getSession(),
+                    scoutingSessionService.mapToObservationDto(observation, true));
+        }
+        photoRepository.clearObservation(observations.stream().map(ScoutingObservation::getId).toList());
+        observationRepository.deleteAllInBatch(observations);
+        return observations.size();
+    }
+
+    /**
+     * Archives and removes one chunk of observation drafts soft-deleted before the retention window.
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public int archiveDeletedDrafts(LocalDateTime now) {
+        List<ScoutingObservationDraft> drafts = draftRepository
+                .findByDeletedTrueAndDeletedAtBeforeOrderByDeletedAtAsc(deletedCutoff(now), chunk());
+        if (drafts.isEmpty()) {
+            return 0;
+        }
+        for (ScoutingObservationDraft draft : drafts) {
+            save(ArchiveRecordType.OBSERVATION_DRAFT, draft.getId(), draft.getSession(),
+                    scoutingSessionService.mapToObservationDto(draft, true));
+        }
+        draftRepository.deleteAllInBatch(drafts);
+        return drafts.size();
+    }
+
+    /**
+     * Archives and removes one chunk of photos soft-deleted before the retention window. Deleting a photo already
+     * released its blob reference; its analysis is taken out of the accuracy counters here.
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public int archiveDeletedPhotos(LocalDateTime now) {
+        List<ScoutingPhoto> photos = photoRepository
+                .findByDeletedTrueAndDeletedAtBeforeOrderByDeletedAtAsc(deletedCutoff(now), chunk());
+        if (photos.isEmpty()) {
+            return 0;
+        }
+        for (ScoutingPhoto photo : photos) {
+            save(ArchiveRecordType.PHOTO, photo.getId(), photo.getSession(), scoutingPhotoService.toDto(photo));
+        }
+        removePhotos(photos);
+        return photos.size();
+    }
+
+    /**
+     * Archives and removes one chunk of completed sessions dated before {@code cutoff}, oldest first. The session's
+     * soft-deleted observations are archived alongside it so nothing is lost when the session goes.
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public int archiveSessions(LocalDate cutoff) {
+        List<ScoutingSession> sessions = sessionRepository.findByStatusAndSessionDateBeforeOrderBySessionDateAscIdAsc(
+                SessionStatus.COMPLETED, cutoff, chunk());
+        for (ScoutingSession session : sessions) {
+            archiveSession(session);
+        }
+        return sessions.size();
+    }
+
+    /**
+     * The archived report of a session, if the session has been archived.
+     */
+    @Transactional(readOnly = true)
+    public Optional<ArchivedSessionReport> findArchivedSession(UUID sessionId) {
+        return archiveRepository.findByRecordTypeAndSourceId(ArchiveRecordType.SESSION, sessionId)
+                .map(this::toSessionReport);
+    }
+
+    /**
+     * Forward-only cursor over a farm's archived session reports, oldest first, optionally limited to an inclusive
+     * date range. Must be consumed inside a transaction and closed.
+     */
+    @Transactional(readOnly = true)
+    public Stream<ArchivedSessionReport> streamArchivedSessions(UUID farmId, LocalDate startDate, LocalDate endDate) {
+        Stream<ScoutingArchiveRecord> records = startDate != null
+                ? archiveRepository.streamByFarmIdAndRecordTypeAndSessionDateBetween(
+                farmId, ArchiveRecordType.SESSION, startDate, endDate)
+                : archiveRepository.streamByFarmIdAndRecordType(farmId, ArchiveRecordType.SESSION);
+        return records.map(this::toSessionReport);
+    }
+
+    private void archiveSession(ScoutingSession session) {
+        UUID sessionId = session.getId();
+        List<ScoutingPhoto> photos = photoRepository.findBySessionId(sessionId);
+        ArchivedSessionReport report = new ArchivedSessionReport(
+                scoutingSessionService.archiveDetail(session),
+                session.getFarm().getName(),
+                ScoutingSessionReportExportService.sectionsOf(session),
+                photos.stream().filter(photo -> !photo.isDeleted()).map(scoutingPhotoService::toDto).toList(),
+                auditEventRepository.findBySessionIdOrderByOccurredAtAsc(sessionId).stream()
+                        .map(scoutingSessionService::mapToAuditDto)
+                        .toList()
+        );
+        save(ArchiveRecordType.SESSION, sessionId, session, report);
+
+        for (ScoutingObservation observation : session.getObservations()) {
+            if (observation.isDeleted()) {
+                save(ArchiveRecordType.OBSERVATION, observation.getId(), session,
+                        scoutingSessionService.mapToObservationDto(observation, true));
+            }
+        }
+        for (ScoutingPhoto photo : photos) {
+            if (photo.isDeleted()) {
+                save(ArchiveRecordType.PHOTO, photo.getId(), session, scoutingPhotoService.toDto(photo));
+            }
+        }
+
+        if (!photos.isEmpty()) {
+            removePhotos(photos);
+        }
+        auditEventRepository.deleteBySessionId(sessionId);
+        draftRepository.deleteBySessionId(sessionId);
+        sessionRepository.delete(session);
+        cacheService.evictSessionCachesAfterCommit(session.getFarm().getId(), sessionId);
+        log.debug("Archived scouting session {} dated {}", sessionId, session.getSessionDate());
+    }
+
+    /**
+     * Deletes the photos and their analyses, taking the analyses out of the accuracy counters and releasing the blob
+     * references live photos still hold. Must run before the photos' observations are deleted, as the scout counters
+     * are evaluated against them.
+     */
+    private void removePhotos(List<ScoutingPhoto> photos) {
+        List<UUID> photoIds = photos.stream().map(ScoutingPhoto::getId).toList();
+        List<ScoutingPhotoAnalysis> analyses = photoAnalysisRepository.findByPhoto_IdIn(photoIds);
+        if (!analyses.isEmpty()) {
+            accuracyService.remove(analyses.stream().map(accuracyService::contributionOf).toList());
+            photoAnalysisRepository.deleteByPhotoIdIn(photoIds);
+        }
+        photoRepository.deleteAllInBatch(photos);
+        photos.stream()
+                .map(ScoutingPhoto::getContentHash)
+                .filter(Objects::nonNull)
+                .forEach(blobReferences::release);
+    }
+
+    private void save(ArchiveRecordType type, UUID sourceId, ScoutingSession session, Object payload) {
+        // A chunk that failed after writing its archive rows is retried in full, so overwrite rather than duplicate.
+        ScoutingArchiveRecord record = archiveRepository.findByRecordTypeAndSourceId(type, sourceId)
+                .orElseGet(() -> ScoutingArchiveRecord.builder()
+                        .recordType(type)
+                        .sourceId(sourceId)
+                        .build());
+        record.setFarmId(session.getFarm().getId());
+        record.setSessionId(session.getId());
+        record.setSessionDate(session.getSessionDate());
+        record.setPayload(objectMapper.valueToTree(payload));
+        archiveRepository.save(record);
+    }
+
+    private ArchivedSessionReport toSessionReport(ScoutingArchiveRecord record) {
+        try {
+            return objectMapper.treeToValue(record.getPayload(), ArchivedSessionReport.class);
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Archived session " + record.getSourceId() + " could not be read", ex);
+        }
+    }
+
+    private LocalDateTime deletedCutoff(LocalDateTime now) {
+        return now.minusDays(Math.max(0, properties.getDeletedRetentionDays()));
+    }
+
+    private Limit chunk() {
+        return Limit.of(Math.max(1, properties.getBatchSize()));
+    }
+}
@@ -29,46 +29,48 @@ public class ScoutingImageAnalysisService {
     private final ScoutingPhotoRepository photoRepository;
     private final ScoutingObservationRepository observationRepository;
     private final ScoutingPhotoAnalysisRepository analysisRepository;
+    private final SpeciesKeywordMatcherCache keywordMatchers;
+    private final PhotoAnalysisAccuracyService accuracyService;
 
     @Transactional
     public PhotoAnalysisResponse analyzePhoto(UUID farmId, UUID photoId) {
         accessService.loadFarmAndEnsureViewer(farmId);
         ScoutingPhoto photo = loadPhoto(photoId, farmId);
+        SessionObservationIndex index = SessionObservationIndex.of(
+                observationRepository.findBySessionId(photo.getSession().getId()));
+
+        ScoutingPhotoAnalysis existing = analysisRepository.findByPhoto_Id(photoId).orElse(null);
+        PhotoAnalysisAccuracyService.Contribution before = existing == null
+                ? null
+                : accuracyService.contributionOf(existing);
+
+        ScoutingPhotoAnalysis analysis = analysisRepository.save(
+                score(photo, farmId, index, keywordMatchers.forFarm(farmId), existing));
+        accuracyService.record(before, analysis);
+        return toResponse(analysis);
+    }
 
-        List<ResolvedCandidate> resolvedCandidates = resolveCandidates(photo);
-        ResolvedCandidate topCandidate = resolvedCandidates.getFirst();
-        boolean requiresHumanReview = topCandidate.confidence() < 0.82d
-                || photo.getObservation() == null
-                || resolveSourceType(photo) == PhotoSourceType.DRONE;
-
-        ScoutingPhotoAnalysis analysis = analysisRepository.findByPhoto_Id(photoId)
-                .orElseGet(() -> ScoutingPhotoAnalysis.builder()
-                        .photo(photo)
-                        .farmId(farmId)
-                        .build());
-
-        analysis.setPhoto(photo);
-        analysis.setFarmId(farmId);
-        analysis.setProvider(PROVIDER);
-        analysis.setModelVersion(MODEL_VERSION);
-        analysis.setSummary(buildSummary(photo, topCandidate));
-        analysis.setPredictedSpeciesCode(topCandidate.speciesCode());
-        analysis.setPredictedConfidence(toDecimal(topCandidate.confidence()));
-        analysis.setCandidates(new ArrayList<>(resolvedCandidates.stream()
-                .map(candidate -> new ScoutingPhotoAnalysisCandidate(
-                        candidate.speciesCode(),
-                        toDecimal(candidate.confidence()),
-                        candidate.rationale()
-                ))
-                .toList()));
-
-        if (analysis.getReviewStatus() == null || analysis.getReviewedSpeciesCode() == null) {
-            analysis.setReviewStatus(PhotoAnalysisReviewStatus.PENDING_REVIEW);
+    /**
+     * Scores every photo of a session that has no analysis yet, loading the session's observations once for all of
+     * them and saving the results together. Performs no access checks: callers must have authorized the farm.
+     *
+     * @return the number of photos analyzed
+     */
+    @Transactional
+    int analyzeUnscoredSessionPhotos(UUID farmId, UUID sessionId) {
+        List<ScoutingPhoto> photos = photoRepository.findUnanalyzedBySessionId(sessionId, farmId);
+        if (photos.isEmpty()) {
+            return 0;
         }
-        analysis.setReviewRequired(analysis.getReviewStatus() == PhotoAnalysisReviewStatus.PENDING_REVIEW && requiresHumanReview);
 
-        ScoutingPhotoAnalysis saved = analysisRepository.save(analysis);
-        return toResponse(saved);
+        SessionObservationIndex index = SessionObservationIndex.of(observationRepository.findBySessionId(sessionId));
+        SpeciesKeywordMatcher keywordMatcher = keywordMatchers.forFarm(farmId);
+        List<ScoutingPhotoAnalysis> analyses = photos.stream()
+                .map(photo -> score(photo, farmId, index, keywordMatcher, null))
+                .toList();
+        analysisRepository.saveAll(analyses);
+        accuracyService.recordNewAnalyses(farmId, analyses.size());
+        return analyses.size();
     }
 
     @Transactional
@@ -94,6 +96,7 @@ public class ScoutingImageAnalysisService {
                             .orElseThrow(() -> new ResourceNotFoundException("ScoutingPhotoAnalysis", "photoId", photoId));
                 });
 
+        PhotoAnalysisAccuracyService.Contribution before = accuracyService.contributionOf(analysis);
         User reviewer = currentUserService.getCurrentUser();
         SpeciesCode reviewedSpeciesCode = request.speciesCode();
         analysis.setReviewedSpeciesCode(reviewedSpeciesCode);
@@ -106,66 +109,57 @@ public class ScoutingImageAnalysisService {
         analysis.setReviewNotes(request.reviewNotes());
         analysis.setReviewRequired(false);
 
-        return toResponse(analysisRepository.save(analysis));
+        ScoutingPhotoAnalysis reviewed = analysisRepository.save(analysis);
+        accuracyService.record(before, reviewed);
+        return toResponse(reviewed);
     }
 
+    /**
+     * Reads the farm's maintained accuracy counters. Counters for a farm that has never been read are built from its
+     * analyses on first access.
+     */
     @Transactional(readOnly = true)
     public PhotoAnalysisAccuracyResponse getAccuracy(UUID farmId) {
         accessService.loadFarmAndEnsureManager(farmId);
 
-        List<ScoutingPhotoAnalysis> allAnalyses = analysisRepository.findByFarmId(farmId);
-        List<ScoutingPhotoAnalysis> reviewedAnalyses = analysisRepository.findByFarmIdAndReviewStatusIn(
-                farmId,
-                List.of(PhotoAnalysisReviewStatus.CONFIRMED, PhotoAnalysisReviewStatus.CORRECTED)
-        );
-
-        long pendingReviewCount = allAnalyses.stream()
-                .filter(analysis -> analysis.getReviewStatus() == PhotoAnalysisReviewStatus.PENDING_REVIEW)
-                .count();
+        PhotoAnalysisAccuracyCounter farmCounter = accuracyService.farmCounter(farmId)
+                .orElseGet(() -> accuracyService.rebuild(farmId));
+        return toAccuracyResponse(farmId, farmCounter,
+                accuracyService.counters(farmId, PhotoAnalysisAccuracyScope.SPECIES));
+    }
 
-        long exactMatchCount = reviewedAnalyses.stream()
-                .filter(this::isExactMatch)
-                .count();
+    /**
+     * Recomputes the farm's accuracy counters from its analyses, e.g. after observations were edited retroactively.
+     */
+    public PhotoAnalysisAccuracyResponse rebuildAccuracy(UUID farmId) {
+        accessService.loadFarmAndEnsureManager(farmId);
 
-        long correctedCount = reviewedAnalyses.stream()
-                .filter(analysis -> analysis.getReviewStatus() == PhotoAnalysisReviewStatus.CORRECTED)
-                .count();
+        PhotoAnalysisAccuracyCounter farmCounter = accuracyService.rebuild(farmId);
+        return toAccuracyResponse(farmId, farmCounter,
+                accuracyService.counters(farmId, PhotoAnalysisAccuracyScope.SPECIES));
+    }
 
-        double accuracyRate = reviewedAnalyses.isEmpty()
+    private PhotoAnalysisAccuracyResponse toAccuracyResponse(UUID farmId,
+                                                             PhotoAnalysisAccuracyCounter farmCounter,
+                                                             List<PhotoAnalysisAccuracyCounter> speciesCounters) {
+        long reviewedCount = farmCounter.getReviewedCount();
+        double accuracyRate = reviewedCount == 0
+                ? 0.0d
+                : round(farmCounter.getExactMatchCount() / (double) reviewedCount);
+        double averagePredictedConfidence = farmCounter.getConfidenceCount() == 0
                 ? 0.0d
-                : round(exactMatchCount / (double) reviewedAnalyses.size());
-
-        OptionalDouble averageConfidence = reviewedAnalyses.stream()
-                .map(ScoutingPhotoAnalysis::getPredictedConfidence)
-                .filter(Objects::nonNull)
-                .mapToDouble(BigDecimal::doubleValue)
-                .average();
-        double averagePredictedConfidence = averageConfidence.isPresent()
-                ? round(averageConfidence.getAsDouble())
-                : 0.0d;
-
-        List<PhotoAnalysisAccuracyBySpecies> speciesBreakdown = reviewedAnalyses.stream()
-                .filter(analysis -> analysis.getReviewedSpeciesCode() != null)
-                .collect(
-                        LinkedHashMap<SpeciesCode, List<ScoutingPhotoAnalysis>>::new,
-                        (accumulator, analysis) -> accumulator
-                                .computeIfAbsent(analysis.getReviewedSpeciesCode(), key -> new ArrayList<>())
-                                .add(analysis),
-                        LinkedHashMap::putAll
-                )
-                .entrySet().stream()
-                .map(entry -> {
-                    long reviewedCount = entry.getValue().size();
-                    long correctCount = entry.getValue().stream()
-                            .filter(this::isExactMatch)
-                            .count();
-                    SpeciesCode speciesCode = entry.getKey();
+                : round(farmCounter.getConfidenceSum().doubleValue() / farmCounter.getConfidenceCount());
+
+        List<PhotoAnalysisAccuracyBySpecies> speciesBreakdown = speciesCounters.stream()
+                .filter(counter -> counter.getReviewedCount() > 0)
+                .map(counter -> {
+                    SpeciesCode speciesCode = SpeciesCode.valueOf(counter.getScopeKey());
                     return new PhotoAnalysisAccuracyBySpecies(
                             speciesCode.name(),
                             speciesCode.getDisplayName(),
-                            reviewedCount,
-                            correctCount,
-                            reviewedCount == 0 ? 0.0d : round(correctCount / (double) reviewedCount)
+                            counter.getReviewedCount(),
+                            counter.getExactMatchCount(),
+                            round(counter.getExactMatchCount() / (double) counter.getReviewedCount())
                     );
                 })
                 .sorted(Comparator.comparing(PhotoAnalysisAccuracyBySpecies::reviewedCount).reversed())
@@ -175,17 +169,57 @@ public class ScoutingImageAnalysisService {
                 farmId,
                 PROVIDER,
                 MODEL_VERSION,
-                allAnalyses.size(),
-                pendingReviewCount,
-                reviewedAnalyses.size(),
-                exactMatchCount,
-                correctedCount,
+                farmCounter.getTotalAnalyses(),
+                farmCounter.getPendingReviewCount(),
+                reviewedCount,
+                farmCounter.getExactMatchCount(),
+                farmCounter.getCorrectedCount(),
                 accuracyRate,
                 averagePredictedConfidence,
                 speciesBreakdown
         );
     }
 
+    private ScoutingPhotoAnalysis score(ScoutingPhoto photo,
+                                        UUID farmId,
+                                        SessionObservationIndex index,
+                                        SpeciesKeywordMatcher keywordMatcher,
+                                        ScoutingPhotoAnalysis existing) {
+        List<ResolvedCandidate> resolvedCandidates = resolveCandidates(photo, index, keywordMatcher);
+        ResolvedCandidate topCandidate = resolvedCandidates.getFirst();
+        boolean requiresHumanReview = topCandidate.confidence() < 0.82d
+                || photo.getObservation() == null
+                || resolveSourceType(photo) == PhotoSourceType.DRONE;
+
+        ScoutingPhotoAnalysis analysis = existing != null
+                ? existing
+                : ScoutingPhotoAnalysis.builder()
+                .photo(photo)
+                .farmId(farmId)
+                .build();
+
+        analysis.setPhoto(photo);
+        analysis.setFarmId(farmId);
+        analysis.setProvider(PROVIDER);
+        analysis.setModelVersion(MODEL_VERSION);
+        analysis.setSummary(buildSummary(photo, topCandidate));
+        analysis.setPredictedSpeciesCode(topCandidate.speciesCode());
+        analysis.setPredictedConfidence(toDecimal(topCandidate.confidence()));
+        analysis.setCandidates(new ArrayList<>(resolvedCandidates.stream()
+                .map(candidate -> new ScoutingPhotoAnalysisCandidate(
+                        candidate.speciesCode(),
+                        toDecimal(candidate.confidence()),
+                        candidate.rationale()
+                ))
+                .toList()));
+
+        if (analysis.getReviewStatus() == null || analysis.getReviewedSpeciesCode() == null) {
+            analysis.setReviewStatus(PhotoAnalysisReviewStatus.PENDING_REVIEW);
+        }
+        analysis.setReviewRequired(analysis.getReviewStatus() == PhotoAnalysisReviewStatus.PENDING_REVIEW && requiresHumanReview);
+        return analysis;
+    }
+
     private ScoutingPhoto loadPhoto(UUID photoId, UUID farmId) {
         ScoutingPhoto photo = photoRepository.findById(photoId)
                 .orElseThrow(() -> new ResourceNotFoundException("ScoutingPhoto", "id", photoId));
@@ -197,12 +231,10 @@ public class ScoutingImageAnalysisService {
         return photo;
     }
 
-    private List<ResolvedCandidate> resolveCandidates(ScoutingPhoto photo) {
-        List<ScoutingObservation> sessionObservations = observationRepository.findBySessionId(photo.getSession().getId());
-        List<ScoutingObservation> cellObservations = sessionObservations.stream()
-                .filter(observation -> belongsToSameCell(photo, observation))
-                .toList();
-        List<ScoutingObservation> contextualObservations = cellObservations.isEmpty() ? sessionObservations : cellObservations;
+    private List<ResolvedCandidate> resolveCandidates(ScoutingPhoto photo,
+                                                      SessionObservationIndex index,
+                                                      SpeciesKeywordMatcher keywordMatcher) {
+        List<ScoutingObservation> cellObservations = index.cellObservations(photo);
         EnumMap<SpeciesCode, CandidateAccumulator> candidates = new EnumMap<>(SpeciesCode.class);
 
         if (photo.getObservation() != null && photo.getObservation().getSpeciesCode() != null) {
@@ -216,28 +248,18 @@ public class ScoutingImageAnalysisService {
             );
         }
 
-        String metadata = normalizeText(
+        SpeciesKeywordMatcher.KeywordMatches keywordMatches = keywordMatcher.match(
                 photo.getPurpose(),
                 photo.getObjectKey(),
                 photo.getLocalPhotoId(),
                 resolveSourceType(photo).name()
         );
+        keywordMatches.forEachSpecies((speciesCode, rationale) ->
+                upsertCandidate(candidates, speciesCode, 0.19d, rationale));
 
-        keywordSpecies().forEach((speciesCode, keywords) -> {
-            for (String keyword : keywords) {
-                if (metadata.contains(keyword)) {
-                    upsertCandidate(
-                            candidates,
-                            speciesCode,
-                            0.19d,
-                            "Photo metadata contains keyword '" + keyword + "'."
-                    );
-                    break;
-                }
-            }
-        });
-
-        Map<SpeciesCode, Integer> sessionCounts = aggregateCountsBySpecies(contextualObservations);
+        Map<SpeciesCode, Integer> sessionCounts = cellObservations.isEmpty()
+                ? index.sessionCounts()
+                : aggregateCountsBySpecies(cellObservations);
         int totalSessionCount = sessionCounts.values().stream().mapToInt(Integer::intValue).sum();
         sessionCounts.entrySet().stream()
                 .sorted(Map.Entry.<SpeciesCode, Integer>comparingByValue().reversed())
@@ -259,7 +281,7 @@ public class ScoutingImageAnalysisService {
         if (candidates.isEmpty()) {
             upsertCandidate(
                     candidates,
-                    fallbackSpecies(metadata),
+                    keywordMatches.hasDiseaseHint() ? SpeciesCode.DISEASE_OTHER : SpeciesCode.PEST_OTHER,
                     0.34d,
                     "No strong heuristic match was found in photo metadata or linked observations."
             );
@@ -272,25 +294,7 @@ public class ScoutingImageAnalysisService {
                 .toList();
     }
 
-    private boolean belongsToSameCell(ScoutingPhoto photo, ScoutingObservation observation) {
-        if (photo.getSessionTarget() == null
-                || photo.getBayIndex() == null
-                || photo.getBenchIndex() == null
-                || photo.getSpotIndex() == null
-                || observation.getSessionTarget() == null
-                || observation.getBayIndex() == null
-                || observation.getBenchIndex() == null
-                || observation.getSpotIndex() == null) {
-            return false;
-        }
-
-        return Objects.equals(photo.getSessionTarget().getId(), observation.getSessionTarget().getId())
-                && Objects.equals(photo.getBayIndex(), observation.getBayIndex())
-                && Objects.equals(photo.getBenchIndex(), observation.getBenchIndex())
-                && Objects.equals(photo.getSpotIndex(), observation.getSpotIndex());
-    }
-
-    private Map<SpeciesCode, Integer> aggregateCountsBySpecies(List<ScoutingObservation> observations) {
+    private static Map<SpeciesCode, Integer> aggregateCountsBySpecies(List<ScoutingObservation> observations) {
         Map<SpeciesCode, Integer> counts = new LinkedHashMap<>();
         for (ScoutingObservation observation : observations) {
             if (observation.getSpeciesCode() == null) {
@@ -305,31 +309,6 @@ public class ScoutingImageAnalysisService {
         return counts;
     }
 
-    private Map<SpeciesCode, List<String>> keywordSpecies() {
-        Map<SpeciesCode, List<String>> keywords = new EnumMap<>(SpeciesCode.class);
-        keywords.put(SpeciesCode.THRIPS, List.of("thrip", "silvering", "streak"));
-        keywords.put(SpeciesCode.RED_SPIDER_MITE, List.of("red spider", "mite", "webbing"));
-        keywords.put(SpeciesCode.WHITEFLIES, List.of("whitefly", "whiteflies", "honeydew"));
-        keywords.put(SpeciesCode.MEALYBUGS, List.of("mealy", "cottony", "wax"));
-        keywords.put(SpeciesCode.CATERPILLARS, List.of("caterpillar", "larva", "chewed"));
-        keywords.put(SpeciesCode.FALSE_CODLING_MOTH, List.of("codling", "fcm", "fruit entry"));
-        keywords.put(SpeciesCode.DOWNY_MILDEW, List.of("downy", "angular lesion"));
-        keywords.put(SpeciesCode.POWDERY_MILDEW, List.of("powdery", "white powder"));
-        keywords.put(SpeciesCode.BOTRYTIS, List.of("botrytis", "grey mold", "gray mold"));
-        keywords.put(SpeciesCode.BACTERIAL_WILT, List.of("wilt", "vascular"));
-        return keywords;
-    }
-
-    private SpeciesCode fallbackSpecies(String metadata) {
-        if (metadata.contains("disease")
-                || metadata.contains("mildew")
-                || metadata.contains("wilt")
-                || metadata.contains("mold")) {
-            return SpeciesCode.DISEASE_OTHER;
-        }
-        return SpeciesCode.PEST_OTHER;
-    }
-
     private void upsertCandidate(
             Map<SpeciesCode, CandidateAccumulator> candidates,
             SpeciesCode speciesCode,
@@ -346,19 +325,6 @@ public class ScoutingImageAnalysisService {
                 + " based on " + sourceLabel + " metadata and recent session observations.";
     }
 
-    private String normalizeText(String... values) {
-        StringBuilder builder = new StringBuilder();
-        for (String value : values) {
-            if (value != null && !value.isBlank()) {
-                if (!builder.isEmpty()) {
-                    builder.append(' ');
-                }
-                builder.append(value.trim().toLowerCase(Locale.ROOT));
-            }
-        }
-        return builder.toString();
-    }
-
     private PhotoAnalysisResponse toResponse(ScoutingPhotoAnalysis analysis) {
         SpeciesCode predictedSpeciesCode = analysis.getPredictedSpeciesCode();
         SpeciesCode reviewedSpeciesCode = analysis.getReviewedSpeciesCode();
@@ -446,12 +412,6 @@ public class ScoutingImageAnalysisService {
         return photo.getSourceType() != null ? photo.getSourceType() : PhotoSourceType.SCOUT_HANDHELD;
     }
 
-    private boolean isExactMatch(ScoutingPhotoAnalysis analysis) {
-        return analysis.getPredictedSpeciesCode() != null
-                && analysis.getReviewedSpeciesCode() != null
-                && analysis.getPredictedSpeciesCode() == analysis.getReviewedSpeciesCode();
-    }
-
     private BigDecimal toDecimal(double value) {
         return BigDecimal.valueOf(value).setScale(2, RoundingMode.HALF_UP);
     }
@@ -462,6 +422,61 @@ public class ScoutingImageAnalysisService {
                 .doubleValue();
     }
 
+    /**
+     * A session's observations grouped by scouting cell, with the session-wide species totals precomputed, so
+     * scoring many photos from one session does not rescan or reload its observations per photo.
+     */
+    private static final class SessionObservationIndex {
+
+        private final Map<CellKey, List<ScoutingObservation>> observationsByCell;
+        private final Map<SpeciesCode, Integer> sessionCounts;
+
+        private SessionObservationIndex(Map<CellKey, List<ScoutingObservation>> observationsByCell,
+                                        Map<SpeciesCode, Integer> sessionCounts) {
+            this.observationsByCell = observationsByCell;
+            this.sessionCounts = sessionCounts;
+        }
+
+        private static SessionObservationIndex of(List<ScoutingObservation> observations) {
+            Map<CellKey, List<ScoutingObservation>> byCell = new HashMap<>();
+            for (ScoutingObservation observation : observations) {
+                CellKey key = CellKey.of(
+                        observation.getSessionTarget(),
+                        observation.getBayIndex(),
+                        observation.getBenchIndex(),
+                        observation.getSpotIndex()
+                );
+                if (key != null) {
+                    byCell.computeIfAbsent(key, ignored -> new ArrayList<>()).add(observation);
+                }
+            }
+            return new SessionObservationIndex(byCell, aggregateCountsBySpecies(observations));
+        }
+
+        private List<ScoutingObservation> cellObservations(ScoutingPhoto photo) {
+            CellKey key = CellKey.of(photo.getSessionTarget(), photo.getBayIndex(), photo.getBenchIndex(), photo.getSpotIndex());
+            return key == null ? List.of() : observationsByCell.getOrDefault(key, List.of());
+        }
+
+        private Map<SpeciesCode, Integer> sessionCounts() {
+            return sessionCounts;
+        }
+    }
+
+    private record CellKey(UUID sessionTargetId, Integer bayIndex, Integer benchIndex, Integer spotIndex) {
+
+        /**
+         * Returns {@code null} unless the cell is fully specified; partially located photos and observations never
+         * share a cell.
+         */
+        private static CellKey of(ScoutingSessionTarget target, Integer bayIndex, Integer benchIndex, Integer spotIndex) {
+            if (target == null || bayIndex == null || benchIndex == null || spotIndex == null) {
+                return null;
+            }
+            return new CellKey(target.getId(), bayIndex, benchIndex, spotIndex);
+        }
+    }
+
     private record ResolvedCandidate(SpeciesCode speciesCode, double confidence, String rationale) {
     }
 
@@ -13,15 +13,29 @@ import mofo.com.pestscout.scouting.dto.PhotoMetadataRequest;
 import mofo.com.pestscout.scouting.dto.PhotoUploadConfirmationRequest;
 import mofo.com.pestscout.scouting.dto.ScoutingPhotoDto;
 import mofo.com.pestscout.scouting.model.*;
+import mofo.com.pestscout.scouting.repository.PhotoUploadRepository;
 import mofo.com.pestscout.scouting.repository.ScoutingObservationRepository;
 import mofo.com.pestscout.scouting.repository.ScoutingPhotoRepository;
 import mofo.com.pestscout.scouting.repository.ScoutingSessionRepository;
 import mofo.com.pestscout.scouting.repository.ScoutingSessionTargetRepository;
+import mofo.com.pestscout.scouting.storage.PhotoBlob;
+import mofo.com.pestscout.scouting.storage.PhotoBlobStore;
+import mofo.com.pestscout.scouting.storage.PhotoContent;
+import mofo.com.pestscout.scouting.storage.PhotoDerivativeCache;
+import mofo.com.pestscout.scouting.storage.StagedPhotoBlob;
+import mofo.com.pestscout.scouting.storage.StoredPhotoBlob;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
 import java.util.Comparator;
 import java.util.List;
+import java.util.Locale;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -31,6 +45,7 @@ import java.util.UUID;
 public class ScoutingPhotoService {
 
     private static final int MAX_ACTIVE_PHOTOS_PER_CELL = 5;
+    private static final String CONTENT_URL_PREFIX = "/api/scouting/photos/session/";
 
     private final ScoutingSessionRepository sessionRepository;
     private final ScoutingObservationRepository observationRepository;
@@ -38,6 +53,11 @@ public class ScoutingPhotoService {
     private final ScoutingSessionTargetRepository sessionTargetRepository;
     private final FarmAccessService farmAccessService;
     private final CurrentUserService currentUserService;
+    private final PhotoBlobStore photoBlobStore;
+    private final PhotoDerivativeCache derivativeCache;
+    private final PhotoDerivativeService derivativeService;
+    private final PhotoBlobReferenceService blobReferences;
+    private final PhotoUploadRepository uploadRepository;
 
     @Transactional
     public ScoutingPhotoDto registerMetadata(PhotoMetadataRequest request) {
@@ -62,9 +82,22 @@ public class ScoutingPhotoService {
             context = resolveContextFromRequest(session, request);
         }
 
+        Optional<ScoutingPhoto> existing = photoRepository.findByLocalPhotoIdAndDeletedFalse(request.localPhotoId());
+        String contentHash = request.contentSha256() != null
+                ? request.contentSha256().toLowerCase(Locale.ROOT)
+                : null;
+        if (contentHash != null && existing.isEmpty()) {
+            // A retried capture may arrive under a fresh local id; the bytes are what identify it.
+            Optional<ScoutingPhoto> duplicate = firstOtherWithContent(session.getId(), contentHash, null);
+            if (duplicate.isPresent()) {
+                log.info("Photo {} for session {} duplicates photo {}; not registering it again",
+                        request.localPhotoId(), session.getId(), duplicate.get().getId());
+                return toDto(duplicate.get(), true);
+            }
+        }
+
         assertPhotoLimitNotExceeded(session.getId(), request.localPhotoId(), context);
 
-        Optional<ScoutingPhoto> existing = photoRepository.findByLocalPhotoIdAndDeletedFalse(request.localPhotoId());
         if (existing.isPresent()) {
             ScoutingPhoto photo = existing.get();
             enforceSameSession(session, photo);
@@ -88,8 +121,26 @@ public class ScoutingPhotoService {
                 .build();
 
         photo.setSyncStatus(SyncStatus.PENDING_UPLOAD);
+        ScoutingPhoto donor = contentHash != null
+                ? photoRepository.findFirstByFarmIdAndContentHashAndDeletedFalse(photo.getFarmId(), contentHash)
+                .filter(candidate -> isStoredLocally(contentHash))
+                .orElse(null)
+                : null;
+        if (donor != null) {
+            photo.setObjectKey(contentHash);
+            photo.setContentHash(contentHash);
+            photo.setContentType(donor.getContentType());
+            photo.setContentLength(donor.getContentLength());
+            photo.setSyncStatus(SyncStatus.SYNCED);
+        }
 
         ScoutingPhoto saved = photoRepository.save(photo);
+        if (donor != null) {
+            blobReferences.acquire(contentHash, donor.getContentLength() != null ? donor.getContentLength() : 0);
+            derivativeService.schedule(saved);
+            log.info("Photo {} reuses stored content {} already uploaded for photo {}", saved.getId(), contentHash,
+                    donor.getId());
+        }
         log.info("Registered photo metadata {} for session {} by user {}", saved.getId(), session.getId(), currentUserService.getCurrentUserId());
         return toDto(saved);
     }
@@ -106,25 +157,233 @@ public class ScoutingPhotoService {
 
     @Transactional
     public ScoutingPhotoDto confirmUpload(PhotoUploadConfirmationRequest request) {
-        ScoutingPhoto photo = photoRepository.findByLocalPhotoIdAndDeletedFalse(request.localPhotoId())
-                .orElseThrow(() -> new ResourceNotFoundException("ScoutingPhoto", "localPhotoId", request.localPhotoId()));
+        return confirmUpload(request, null);
+    }
+
+    /**
+     * Confirms an upload and, when the object key names a blob in the local store, takes a reference on it and
+     * records its size. {@code contentType} is applied when known, as it is for resumable uploads.
+     */
+    @Transactional
+    public ScoutingPhotoDto confirmUpload(PhotoUploadConfirmationRequest request, String contentType) {
+        ScoutingPhoto photo = loadPhotoForConfirmation(request.sessionId(), request.localPhotoId());
+
+        boolean keyChanged = !request.objectKey().equals(photo.getObjectKey());
+        String releasedHash = replaceObjectKey(photo, request.objectKey());
+        PhotoBlob localBlob = keyChanged ? openLocally(request.objectKey()) : null;
+        if (localBlob != null) {
+            photo.setContentHash(request.objectKey());
+            photo.setContentLength(localBlob.size());
+        }
+        if (contentType != null) {
+            photo.setContentType(contentType);
+        }
+        photo.setSyncStatus(SyncStatus.SYNCED);
 
-        enforceSameSession(request.sessionId(), photo);
+        ScoutingPhoto saved = photoRepository.save(photo);
+        if (localBlob != null) {
+            blobReferences.acquire(request.objectKey(), localBlob.size());
+        }
+        blobReferences.release(releasedHash);
+        derivativeService.schedule(saved);
+        log.info("Confirmed upload for photo {} (session {})", saved.getId(), saved.getSession().getId());
+        return toDto(saved);
+    }
+
+    /**
+     * Finalizes a fully staged resumable upload in one transaction: claims the upload, takes the blob reference,
+     * moves the staged file into the store and confirms the photo. The reference is held before the file lands in the
+     * store, so the orphan sweep cannot collect the blob in between, and any failure rolls the claim and the
+     * reference back together. Returns empty when a concurrent call already claimed or expired the upload.
+     *
+     * @throws BadRequestException when the staged bytes do not match the declared checksum
+     */
+    @Transactional
+    public Optional<ScoutingPhotoDto> confirmResumableUpload(PhotoUpload upload, Path staged) throws IOException {
+        if (uploadRepository.transition(upload.getId(), PhotoUploadStatus.OPEN, PhotoUploadStatus.COMPLETED,
+                LocalDateTime.now()) == 0) {
+            return Optional.empty();
+        }
+        ScoutingPhoto photo = loadPhotoForConfirmation(upload.getSessionId(), upload.getLocalPhotoId());
+
+        String contentHash = upload.getContentSha256();
+        boolean alreadyHeld = contentHash.equals(photo.getContentHash());
+        if (!alreadyHeld) {
+            blobReferences.acquire(contentHash, upload.getTotalBytes());
+        }
+        StoredPhotoBlob blob = photoBlobStore.adopt(staged, contentHash);
+
+        String releasedHash = replaceObjectKey(photo, contentHash);
+        photo.setContentHash(contentHash);
+        photo.setContentLength(blob.sizeBytes());
+        photo.setContentType(upload.getContentType());
+        photo.setSyncStatus(SyncStatus.SYNCED);
+
+        ScoutingPhoto saved = photoRepository.save(photo);
+        if (!contentHash.equals(releasedHash)) {
+            blobReferences.release(releasedHash);
+        }
+        derivativeService.schedule(saved);
+        log.info("Confirmed resumable upload {} for photo {} (session {})",
+                upload.getId(), saved.getId(), saved.getSession().getId());
+        return Optional.of(toDto(saved));
+    }
+
+    /**
+     * Returns the photo a completed upload confirmed. Only read access is checked, so a client retrying a finalize
+     * after the session was submitted still gets its photo back.
+     */
+    @Transactional(readOnly = true)
+    public ScoutingPhotoDto getUploadedPhoto(UUID sessionId, String localPhotoId) {
+        ScoutingPhoto photo = photoRepository.findByLocalPhotoIdAndDeletedFalse(localPhotoId)
+                .orElseThrow(() -> new ResourceNotFoundException("ScoutingPhoto", "localPhotoId", localPhotoId));
+
+        enforceSameSession(sessionId, photo);
+        enforceAssignedScout(photo.getSession());
+        return toDto(photo);
+    }
+
+    /**
+     * Loads a photo for a resumable upload, applying the same checks as a direct upload.
+     */
+    @Transactional(readOnly = true)
+    public ScoutingPhoto loadPhotoForUpload(UUID sessionId, String localPhotoId) {
+        ScoutingPhoto photo = photoRepository.findByLocalPhotoIdAndDeletedFalse(localPhotoId)
+                .orElseThrow(() -> new ResourceNotFoundException("ScoutingPhoto", "localPhotoId", localPhotoId));
+
+        enforceSameSession(sessionId, photo);
         enforceAssignedScout(photo.getSession());
         ensureSessionAllowsPhotoChanges(photo.getSession());
+        return photo;
+    }
 
-        if (photo.getSession().getStatus() == SessionStatus.COMPLETED) {
-            throw new ForbiddenException("Scouts cannot confirm photo uploads for completed sessions.");
+    /**
+     * Streams the photo bytes into the blob store and attaches the content key to the photo. Deliberately not
+     * transactional: the upload can take as long as the client's connection needs, so no database connection is held
+     * while bytes arrive. The photo is loaded with its session up front and saved once the blob is written; the
+     * entity version guards against a concurrent change in between.
+     */
+    public ScoutingPhotoDto uploadContent(UUID sessionId, UUID photoId, String contentType, InputStream content) {
+        ScoutingPhoto photo = photoRepository.findWithSessionByIdAndSessionId(photoId, sessionId)
+                .filter(existing -> !existing.isDeleted())
+                .orElseThrow(() -> new ResourceNotFoundException("ScoutingPhoto", "id", photoId));
+
+        enforceAssignedScout(photo.getSession());
+        ensureSessionAllowsPhotoChanges(photo.getSession());
+
+        if (contentType == null || !contentType.toLowerCase().startsWith("image/")) {
+            throw new BadRequestException("Photo content must be uploaded with an image/* content type.");
         }
 
-        photo.setObjectKey(request.objectKey());
+        StagedPhotoBlob staged;
+        try {
+            staged = photoBlobStore.stage(content);
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Failed to store content for photo " + photoId, ex);
+        }
+        try {
+            return attachContent(sessionId, photo, contentType, staged);
+        } finally {
+            try {
+                Files.deleteIfExists(staged.file());
+            } catch (IOException ex) {
+                log.warn("Failed to remove staged upload {} for photo {}", staged.file(), photoId, ex);
+            }
+        }
+    }
+
+    private ScoutingPhotoDto attachContent(UUID sessionId, ScoutingPhoto photo, String contentType,
+                                           StagedPhotoBlob staged) {
+        UUID photoId = photo.getId();
+        Optional<ScoutingPhoto> duplicate = firstOtherWithContent(sessionId, staged.key(), photoId);
+        if (duplicate.isPresent()) {
+            String releasedHash = photo.getContentHash();
+            photo.markDeleted();
+            photo.setContentHash(null);
+            photoRepository.save(photo);
+            blobReferences.release(releasedHash);
+            log.info("Content uploaded for photo {} duplicates photo {} in session {}; keeping the original",
+                    photoId, duplicate.get().getId(), sessionId);
+            return toDto(duplicate.get(), true);
+        }
+
+        if (staged.key().equals(photo.getContentHash())) {
+            return toDto(photo);
+        }
+
+        // Take the new reference before the bytes land in the store and before saving: the orphan sweep locks the
+        // reference row, so it either finishes before this acquire (and the commit below rewrites the file) or sees
+        // the reference and keeps the blob. Releasing first could let it collect bytes a saved photo still points at.
+        blobReferences.acquire(staged.key(), staged.sizeBytes());
+        StoredPhotoBlob blob;
+        try {
+            blob = photoBlobStore.commit(staged);
+        } catch (IOException ex) {
+            blobReferences.release(staged.key());
+            throw new UncheckedIOException("Failed to store content for photo " + photoId, ex);
+        }
+
+        String releasedHash = replaceObjectKey(photo, blob.key());
+        photo.setContentHash(blob.key());
+        photo.setContentType(contentType);
+        photo.setContentLength(blob.sizeBytes());
         photo.setSyncStatus(SyncStatus.SYNCED);
 
-        ScoutingPhoto saved = photoRepository.save(photo);
-        log.info("Confirmed upload for photo {} (session {})", saved.getId(), saved.getSession().getId());
+        ScoutingPhoto saved;
+        try {
+            saved = photoRepository.save(photo);
+        } catch (RuntimeException ex) {
+            blobReferences.release(blob.key());
+            throw ex;
+        }
+        blobReferences.release(releasedHash);
+        derivativeService.schedule(saved);
+        log.info("Stored {} bytes of content for photo {} (session {})", blob.sizeBytes(), photoId, sessionId);
         return toDto(saved);
     }
 
+    /**
+     * Opens the stored bytes of a photo for download. Photos whose object key points outside the local blob store
+     * are reported as not found.
+     */
+    @Transactional(readOnly = true)
+    public PhotoContent openContent(UUID sessionId, UUID photoId) {
+        ScoutingPhoto photo = photoRepository.findByIdAndSessionId(photoId, sessionId)
+                .filter(existing -> !existing.isDeleted())
+                .orElseThrow(() -> new ResourceNotFoundException("ScoutingPhoto", "id", photoId));
+
+        try {
+            return photoBlobStore.open(photo.getObjectKey())
+                    .map(blob -> new PhotoContent(blob, photo.getContentType() != null
+                            ? photo.getContentType()
+                            : "application/octet-stream"))
+                    .orElseThrow(() -> new ResourceNotFoundException("ScoutingPhotoContent", "id", photoId));
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Failed to open content for photo " + photoId, ex);
+        }
+    }
+
+    /**
+     * Opens a cached thumbnail or preview. Derivatives are rendered in the background after upload, so this reports
+     * not found until the render has finished; clients should fall back to the full content in the meantime.
+     */
+    @Transactional(readOnly = true)
+    public PhotoContent openDerivative(UUID sessionId, UUID photoId, String variantName) {
+        PhotoDerivativeVariant variant = PhotoDerivativeVariant.fromPathSegment(variantName)
+                .orElseThrow(() -> new BadRequestException("Unknown photo derivative: " + variantName));
+        ScoutingPhoto photo = photoRepository.findByIdAndSessionId(photoId, sessionId)
+                .filter(existing -> !existing.isDeleted())
+                .orElseThrow(() -> new ResourceNotFoundException("ScoutingPhoto", "id", photoId));
+
+        try {
+            return derivativeCache.open(photo.getObjectKey(), variant)
+                    .map(blob -> new PhotoContent(blob, "image/jpeg"))
+                    .orElseThrow(() -> new ResourceNotFoundException("ScoutingPhotoDerivative", variant.getPathSegment(), photoId));
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Failed to open " + variant.getPathSegment() + " for photo " + photoId, ex);
+        }
+    }
+
     @Transactional
     public void deletePhoto(UUID sessionId, UUID photoId) {
         ScoutingSession session = sessionRepository.findById(sessionId)
@@ -140,9 +399,59 @@ public class ScoutingPhotoService {
             return;
         }
 
+        String releasedHash = photo.getContentHash();
         photo.markDeleted();
+        photo.setContentHash(null);
         photo.setSyncStatus(SyncStatus.PENDING_UPLOAD);
         photoRepository.save(photo);
+        blobReferences.release(releasedHash);
+    }
+
+    /**
+     * Points the photo at a new object key. Returns the content hash whose reference the photo gave up, if any, so
+     * the caller can release it once the photo is saved.
+     */
+    private String replaceObjectKey(ScoutingPhoto photo, String objectKey) {
+        if (objectKey.equals(photo.getObjectKey())) {
+            return null;
+        }
+        String releasedHash = photo.getContentHash();
+        photo.setDerivativesGeneratedAt(null);
+        photo.setContentHash(null);
+        photo.setObjectKey(objectKey);
+        return releasedHash;
+    }
+
+    private ScoutingPhoto loadPhotoForConfirmation(UUID sessionId, String localPhotoId) {
+        ScoutingPhoto photo = photoRepository.findByLocalPhotoIdAndDeletedFalse(localPhotoId)
+                .orElseThrow(() -> new ResourceNotFoundException("ScoutingPhoto", "localPhotoId", localPhotoId));
+
+        enforceSameSession(sessionId, photo);
+        enforceAssignedScout(photo.getSession());
+        ensureSessionAllowsPhotoChanges(photo.getSession());
+
+        if (photo.getSession().getStatus() == SessionStatus.COMPLETED) {
+            throw new ForbiddenException("Scouts cannot confirm photo uploads for completed sessions.");
+        }
+        return photo;
+    }
+
+    private Optional<ScoutingPhoto> firstOtherWithContent(UUID sessionId, String contentHash, UUID excludedPhotoId) {
+        return photoRepository.findBySessionIdAndContentHashAndDeletedFalse(sessionId, contentHash).stream()
+                .filter(candidate -> !candidate.getId().equals(excludedPhotoId))
+                .min(Comparator.comparing(ScoutingPhoto::getCreatedAt, Comparator.nullsLast(Comparator.naturalOrder())));
+    }
+
+    private boolean isStoredLocally(String contentHash) {
+        return openLocally(contentHash) != null;
+    }
+
+    private PhotoBlob openLocally(String key) {
+        try {
+            return photoBlobStore.open(key).orElse(null);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
     }
 
     private void enforceAssignedScout(ScoutingSession session) {
@@ -235,7 +544,11 @@ public class ScoutingPhotoService {
         return PhotoSourceType.SCOUT_HANDHELD;
     }
 
-    private ScoutingPhotoDto toDto(ScoutingPhoto photo) {
+    ScoutingPhotoDto toDto(ScoutingPhoto photo) {
+        return toDto(photo, false);
+    }
+
+    private ScoutingPhotoDto toDto(ScoutingPhoto photo, boolean duplicate) {
         return new ScoutingPhotoDto(
                 photo.getId(),
                 photo.getSession().getId(),
@@ -253,10 +566,20 @@ public class ScoutingPhotoService {
                 photo.getSourceType(),
                 photo.getCapturedAt(),
                 photo.getUpdatedAt(),
-                photo.getSyncStatus()
+                photo.getSyncStatus(),
+                photo.getContentLength() != null ? contentUrl(photo, null) : null,
+                photo.getDerivativesGeneratedAt() != null ? contentUrl(photo, PhotoDerivativeVariant.THUMBNAIL) : null,
+                photo.getDerivativesGeneratedAt() != null ? contentUrl(photo, PhotoDerivativeVariant.PREVIEW) : null,
+                photo.getContentHash(),
+                duplicate
         );
     }
 
+    private String contentUrl(ScoutingPhoto photo, PhotoDerivativeVariant variant) {
+        String url = CONTENT_URL_PREFIX + photo.getSession().getId() + "/" + photo.getId() + "/content";
+        return variant == null ? url : url + "/" + variant.getPathSegment();
+    }
+
     private record PhotoAttachmentContext(
             ScoutingSessionTarget sessionTarget,
             Integer bayIndex,
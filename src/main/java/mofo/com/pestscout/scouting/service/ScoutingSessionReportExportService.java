@@ -1,7 +1,11 @@
 package mofo.com.pestscout.scouting.service;
 
+import jakarta.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
+import mofo.com.pestscout.auth.model.Role;
+import mofo.com.pestscout.common.exception.BadRequestException;
 import mofo.com.pestscout.common.exception.ResourceNotFoundException;
+import mofo.com.pestscout.farm.security.FarmAccessService;
 import mofo.com.pestscout.scouting.dto.*;
 import mofo.com.pestscout.scouting.model.ScoutingSession;
 import mofo.com.pestscout.scouting.model.ScoutingSessionTarget;
@@ -9,43 +13,251 @@ import mofo.com.pestscout.scouting.repository.ScoutingSessionRepository;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
 import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
 import java.util.*;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
+/**
+ * Session report CSV exports for one session, a date range, or a farm's whole history.
+ * <p>
+ * Exports are prepared and written in two steps so the controller can return a streaming body: {@code prepare*}
+ * checks access and names the file, {@link #writeCsv} then runs on the response thread. Farm exports walk sessions
+ * through a forward-only cursor and write each session's rows before the next one is read, clearing the persistence
+ * context as they go, so output starts immediately and memory stays flat however many years are exported.
+ * <p>
+ * Sessions moved to the archive are exported from their archived report: a single session export falls back to the
+ * archive when the session is no longer in the hot tables, and farm exports append archived sessions on request.
+ */
 @Service
 @RequiredArgsConstructor
 public class ScoutingSessionReportExportService {
 
     private static final String CSV_MEDIA_TYPE = "text/csv";
     private static final String UTF8_BOM = "\uFEFF";
+    private static final int CLEAR_EVERY_SESSIONS = 50;
+
+    private static final String[] HEADER = {
+            "session_id",
+            "session_date",
+            "week_number",
+            "status",
+            "farm_id",
+            "farm_name",
+            "manager_id",
+            "scout_id",
+            "crop",
+            "variety",
+            "temperature_celsius",
+            "relative_humidity_percent",
+            "observation_time",
+            "observation_timezone",
+            "weather_notes",
+            "session_notes",
+            "recommendations",
+            "section_target_id",
+            "section_type",
+            "section_name",
+            "section_area_hectares",
+            "covered_bays",
+            "total_bays",
+            "covered_beds",
+            "total_beds",
+            "section_fully_covered",
+            "species_code",
+            "custom_species_id",
+            "species_name",
+            "category",
+            "bay_index",
+            "bay_id",
+            "bed_index",
+            "bed_id",
+            "spot_index",
+            "count",
+            "observation_notes",
+            "observation_updated_at"
+    };
+    private static final int FIRST_SECTION_COLUMN = 17;
+    private static final int FIRST_OBSERVATION_COLUMN = 26;
 
     private final ScoutingSessionService scoutingSessionService;
     private final ScoutingSessionRepository sessionRepository;
+    private final EntityManager entityManager;
+    private final FarmAccessService farmAccessService;
+    private final ScoutingArchiveService archiveService;
 
     @Transactional(readOnly = true)
-    public GeneratedCsvDocument exportSessionCsv(UUID sessionId) {
+    public CsvExport prepareSessionExport(UUID sessionId) {
+        if (!sessionRepository.existsById(sessionId)) {
+            ArchivedSessionReport archived = loadArchivedSessionForExport(sessionId);
+            return new CsvExport(sessionFileName(sessionId, archived.report().sessionDate()),
+                    archived.report().farmId(), sessionId, null, null);
+        }
         // Reuse the existing session access rules so only permitted farm roles can export.
-        ScoutingSessionDetailDto report = scoutingSessionService.getSession(sessionId);
-        ScoutingSession session = sessionRepository.findById(sessionId)
+        ScoutingSession session = scoutingSessionService.loadSessionForExport(sessionId);
+        return new CsvExport(sessionFileName(sessionId, session.getSessionDate()),
+                session.getFarm().getId(), sessionId, null, null);
+    }
+
+    /**
+     * Prepares an export of every session of a farm, optionally limited to an inclusive date range.
+     */
+    @Transactional(readOnly = true)
+    public CsvExport prepareFarmExport(UUID farmId, LocalDate startDate, LocalDate endDate) {
+        return prepareFarmExport(farmId, startDate, endDate, false);
+    }
+
+    /**
+     * As {@link #prepareFarmExport(UUID, LocalDate, LocalDate)}, also exporting archived sessions when
+     * {@code includeArchived} is set.
+     */
+    @Transactional(readOnly = true)
+    public CsvExport prepareFarmExport(UUID farmId, LocalDate startDate, LocalDate endDate, boolean includeArchived) {
+        if ((startDate == null) != (endDate == null)) {
+            throw new BadRequestException("Provide both startDate and endDate, or neither to export all sessions.");
+        }
+        if (startDate != null && endDate.isBefore(startDate)) {
+            throw new BadRequestException("endDate must not be before startDate.");
+        }
+        scoutingSessionService.requireFarmExportAccess(farmId);
+        String suffix = startDate != null ? startDate + "-to-" + endDate : "all";
+        return new CsvExport("scouting-sessions-" + farmId + "-" + suffix + ".csv",
+                farmId, null, startDate, endDate, includeArchived);
+    }
+
+    /**
+     * Writes the export to {@code out}. Access is checked again because this runs on the response thread.
+     */
+    @Transactional(readOnly = true)
+    public void writeCsv(CsvExport export, OutputStream out) throws IOException {
+        if (export.sessionId() != null) {
+            if (!sessionRepository.existsById(export.sessionId())) {
+                ArchivedSessionReport archived = loadArchivedSessionForExport(export.sessionId());
+                CsvRowWriter rows = start(out);
+                writeReport(archived.report(), archived.farmName(), sectionsById(archived.sections()), rows);
+                rows.flush();
+                return;
+            }
+            ScoutingSession session = scoutingSessionService.loadSessionForExport(export.sessionId());
+            CsvRowWriter rows = start(out);
+            Optional<ScoutingSessionDetailDto> report = scoutingSessionService.exportDetail(session);
+            if (report.isPresent()) {
+                writeSession(session, report.get(), rows);
+            }
+            rows.flush();
+            return;
+        }
+        scoutingSessionService.requireFarmExportAccess(export.farmId());
+        writeFarmCsv(export.farmId(), export.startDate(), export.endDate(), export.includeArchived(),
+                farmAccessService.getCurrentUserRole(), out);
+    }
+
+    /**
+     * Writes a farm export as seen by a viewer with {@code viewerRole}, without checking the current user's access.
+     * Used by background export jobs, which check access when the job is requested.
+     */
+    @Transactional(readOnly = true)
+    public void writeFarmCsv(UUID farmId, LocalDate startDate, LocalDate endDate, Role viewerRole, OutputStream out)
+            throws IOException {
+        writeFarmCsv(farmId, startDate, endDate, false, viewerRole, out);
+    }
+
+    /**
+     * As {@link #writeFarmCsv(UUID, LocalDate, LocalDate, Role, OutputStream)}, followed by the farm's archived
+     * sessions when {@code includeArchived} is set. Archived sessions were completed, so every farm viewer sees them.
+     */
+    @Transactional(readOnly = true)
+    public void writeFarmCsv(UUID farmId, LocalDate startDate, LocalDate endDate, boolean includeArchived,
+                             Role viewerRole, OutputStream out) throws IOException {
+        CsvRowWriter rows = start(out);
+        try (Stream<ScoutingSession> sessions = startDate != null
+                ? sessionRepository.streamByFarmIdAndSessionDateBetween(farmId, startDate, endDate)
+                : sessionRepository.streamByFarmId(farmId)) {
+            int written = 0;
+            for (Iterator<ScoutingSession> it = sessions.iterator(); it.hasNext(); ) {
+                ScoutingSession session = it.next();
+                Optional<ScoutingSessionDetailDto> report = scoutingSessionService.exportDetail(session, viewerRole);
+                if (report.isPresent()) {
+                    writeSession(session, report.get(), rows);
+                }
+                if (++written % CLEAR_EVERY_SESSIONS == 0) {
+                    rows.flush();
+                    entityManager.clear();
+                }
+            }
+        }
+        if (includeArchived) {
+            try (Stream<ArchivedSessionReport> archived =
+                         archiveService.streamArchivedSessions(farmId, startDate, endDate)) {
+                int written = 0;
+                for (Iterator<ArchivedSessionReport> it = archived.iterator(); it.hasNext(); ) {
+                    ArchivedSessionReport report = it.next();
+                    writeReport(report.report(), report.farmName(), sectionsById(report.sections()), rows);
+                    if (++written % CLEAR_EVERY_SESSIONS == 0) {
+                        rows.flush();
+                        entityManager.clear();
+                    }
+                }
+            }
+        }
+        rows.flush();
+    }
+
+    /**
+     * Section names and types of a session's targets, as the export shows them.
+     */
+    static List<ArchivedSessionReport.Section> sectionsOf(ScoutingSession session) {
+        return session.getTargets().stream()
+                .map(ScoutingSessionReportExportService::toSection)
+                .toList();
+    }
+
+    private ArchivedSessionReport loadArchivedSessionForExport(UUID sessionId) {
+        ArchivedSessionReport archived = archiveService.findArchivedSession(sessionId)
                 .orElseThrow(() -> new ResourceNotFoundException("ScoutingSession", "id", sessionId));
+        scoutingSessionService.requireFarmExportAccess(archived.report().farmId());
+        return archived;
+    }
+
+    private static String sessionFileName(UUID sessionId, LocalDate sessionDate) {
+        String suffix = sessionDate != null ? sessionDate.toString() : "undated";
+        return "scouting-session-" + sessionId + "-" + suffix + ".csv";
+    }
 
-        String content = UTF8_BOM + buildCsv(session, report);
-        return new GeneratedCsvDocument(
-                buildFileName(report.id(), report.sessionDate()),
-                content.getBytes(StandardCharsets.UTF_8)
-        );
+    private CsvRowWriter start(OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 64 * 1024);
+        writer.write(UTF8_BOM);
+        CsvRowWriter rows = new CsvRowWriter(writer);
+        rows.write(HEADER);
+        return rows;
     }
 
-    private String buildCsv(ScoutingSession session, ScoutingSessionDetailDto report) {
-        Map<UUID, SectionMeta> sectionMetadata = session.getTargets().stream()
+    private void writeSession(ScoutingSession session, ScoutingSessionDetailDto report, CsvRowWriter rows) throws IOException {
+        writeReport(report, session.getFarm().getName(), sectionsById(sectionsOf(session)), rows);
+    }
+
+    private Map<UUID, ArchivedSessionReport.Section> sectionsById(List<ArchivedSessionReport.Section> sections) {
+        if (sections == null) {
+            return Map.of();
+        }
+        return sections.stream()
                 .collect(Collectors.toMap(
-                        ScoutingSessionTarget::getId,
-                        this::toSectionMeta,
+                        ArchivedSessionReport.Section::targetId,
+                        section -> section,
                         (left, right) -> left,
                         LinkedHashMap::new
                 ));
+    }
+
+    private void writeReport(ScoutingSessionDetailDto report, String farmName,
+                             Map<UUID, ArchivedSessionReport.Section> sectionMetadata, CsvRowWriter rows)
+            throws IOException {
 
         String recommendationSummary = report.recommendations() == null
                 ? ""
@@ -53,193 +265,69 @@ public class ScoutingSessionReportExportService {
                 .map(this::formatRecommendation)
                 .collect(Collectors.joining(" | "));
 
-        List<String> lines = new ArrayList<>();
-        lines.add(csvRow(
-                "session_id",
-                "session_date",
-                "week_number",
-                "status",
-                "farm_id",
-                "farm_name",
-                "manager_id",
-                "scout_id",
-                "crop",
-                "variety",
-                "temperature_celsius",
-                "relative_humidity_percent",
-                "observation_time",
-                "observation_timezone",
-                "weather_notes",
-                "session_notes",
-                "recommendations",
-                "section_target_id",
-                "section_type",
-                "section_name",
-                "section_area_hectares",
-                "covered_bays",
-                "total_bays",
-                "covered_beds",
-                "total_beds",
-                "section_fully_covered",
-                "species_code",
-                "custom_species_id",
-                "species_name",
-                "category",
-                "bay_index",
-                "bay_id",
-                "bed_index",
-                "bed_id",
-                "spot_index",
-                "count",
-                "observation_notes",
-                "observation_updated_at"
-        ));
+        Object[] row = rows.buffer();
+        Arrays.fill(row, null);
+        row[0] = report.id();
+        row[1] = report.sessionDate();
+        row[2] = report.weekNumber();
+        row[3] = report.status();
+        row[4] = report.farmId();
+        row[5] = farmName;
+        row[6] = report.managerId();
+        row[7] = report.scoutId();
+        row[8] = report.crop();
+        row[9] = report.variety();
+        row[10] = report.temperatureCelsius();
+        row[11] = report.relativeHumidityPercent();
+        row[12] = report.observationTime();
+        row[13] = report.observationTimezone();
+        row[14] = report.weatherNotes();
+        row[15] = report.notes();
+        row[16] = recommendationSummary;
 
         if (report.sections() == null || report.sections().isEmpty()) {
-            lines.add(csvRow(
-                    report.id(),
-                    report.sessionDate(),
-                    report.weekNumber(),
-                    report.status(),
-                    report.farmId(),
-                    session.getFarm().getName(),
-                    report.managerId(),
-                    report.scoutId(),
-                    report.crop(),
-                    report.variety(),
-                    report.temperatureCelsius(),
-                    report.relativeHumidityPercent(),
-                    report.observationTime(),
-                    report.observationTimezone(),
-                    report.weatherNotes(),
-                    report.notes(),
-                    recommendationSummary,
-                    null,
-                    null,
-                    null,
-                    null,
-                    null,
-                    null,
-                    null,
-                    null,
-                    null,
-                    null,
-                    null,
-                    null,
-                    null,
-                    null,
-                    null,
-                    null,
-                    null,
-                    null,
-                    null,
-                    null,
-                    null
-            ));
-            return String.join(System.lineSeparator(), lines);
+            rows.write(row);
+            return;
         }
 
         for (ScoutingSessionSectionDto section : report.sections()) {
-            SectionMeta sectionMeta = sectionMetadata.getOrDefault(section.targetId(), SectionMeta.empty());
+            ArchivedSessionReport.Section sectionMeta = sectionMetadata.get(section.targetId());
             ScoutingSectionCoverageDto coverage = section.coverage();
+            Arrays.fill(row, FIRST_SECTION_COLUMN, row.length, null);
+            row[17] = section.targetId();
+            row[18] = sectionMeta != null ? sectionMeta.type() : "";
+            row[19] = sectionMeta != null ? sectionMeta.name() : "";
+            row[20] = section.areaHectares();
+            row[21] = coverageValue(coverage, true, true);
+            row[22] = coverageValue(coverage, true, false);
+            row[23] = coverageValue(coverage, false, true);
+            row[24] = coverageValue(coverage, false, false);
+            row[25] = coverage == null ? null : coverage.fullyCovered();
+
             List<ScoutingObservationDto> observations = section.observations() == null
                     ? List.of()
                     : section.observations();
-
             if (observations.isEmpty()) {
-                lines.add(csvRow(
-                        report.id(),
-                        report.sessionDate(),
-                        report.weekNumber(),
-                        report.status(),
-                        report.farmId(),
-                        session.getFarm().getName(),
-                        report.managerId(),
-                        report.scoutId(),
-                        report.crop(),
-                        report.variety(),
-                        report.temperatureCelsius(),
-                        report.relativeHumidityPercent(),
-                        report.observationTime(),
-                        report.observationTimezone(),
-                        report.weatherNotes(),
-                        report.notes(),
-                        recommendationSummary,
-                        section.targetId(),
-                        sectionMeta.type(),
-                        sectionMeta.name(),
-                        section.areaHectares(),
-                        coverageValue(coverage, true, true),
-                        coverageValue(coverage, true, false),
-                        coverageValue(coverage, false, true),
-                        coverageValue(coverage, false, false),
-                        coverage == null ? null : coverage.fullyCovered(),
-                        null,
-                        null,
-                        null,
-                        null,
-                        null,
-                        null,
-                        null,
-                        null,
-                        null,
-                        null,
-                        null,
-                        null
-                ));
+                rows.write(row);
                 continue;
             }
 
             for (ScoutingObservationDto observation : observations) {
-                lines.add(csvRow(
-                        report.id(),
-                        report.sessionDate(),
-                        report.weekNumber(),
-                        report.status(),
-                        report.farmId(),
-                        session.getFarm().getName(),
-                        report.managerId(),
-                        report.scoutId(),
-                        report.crop(),
-                        report.variety(),
-                        report.temperatureCelsius(),
-                        report.relativeHumidityPercent(),
-                        report.observationTime(),
-                        report.observationTimezone(),
-                        report.weatherNotes(),
-                        report.notes(),
-                        recommendationSummary,
-                        section.targetId(),
-                        sectionMeta.type(),
-                        sectionMeta.name(),
-                        section.areaHectares(),
-                        coverageValue(coverage, true, true),
-                        coverageValue(coverage, true, false),
-                        coverageValue(coverage, false, true),
-                        coverageValue(coverage, false, false),
-                        coverage == null ? null : coverage.fullyCovered(),
-                        observation.speciesCode(),
-                        observation.customSpeciesId(),
-                        observation.speciesDisplayName(),
-                        observation.category(),
-                        observation.bayIndex(),
-                        observation.bayTag(),
-                        observation.benchIndex(),
-                        observation.benchTag(),
-                        observation.spotIndex(),
-                        observation.count(),
-                        observation.notes(),
-                        observation.updatedAt()
-                ));
+                row[FIRST_OBSERVATION_COLUMN] = observation.speciesCode();
+                row[27] = observation.customSpeciesId();
+                row[28] = observation.speciesDisplayName();
+                row[29] = observation.category();
+                row[30] = observation.bayIndex();
+                row[31] = observation.bayTag();
+                row[32] = observation.benchIndex();
+                row[33] = observation.benchTag();
+                row[34] = observation.spotIndex();
+                row[35] = observation.count();
+                row[36] = observation.notes();
+                row[37] = observation.updatedAt();
+                rows.write(row);
             }
         }
-
-        return String.join(System.lineSeparator(), lines);
-    }
-
-    private String buildFileName(UUID sessionId, LocalDate sessionDate) {
-        String suffix = sessionDate != null ? sessionDate.toString() : "undated";
-        return "scouting-session-" + sessionId + "-" + suffix + ".csv";
     }
 
     private String formatRecommendation(RecommendationEntryDto recommendation) {
@@ -249,14 +337,14 @@ public class ScoutingSessionReportExportService {
         return recommendation.type().name() + ": " + nullSafe(recommendation.text());
     }
 
-    private SectionMeta toSectionMeta(ScoutingSessionTarget target) {
+    private static ArchivedSessionReport.Section toSection(ScoutingSessionTarget target) {
         if (target.getGreenhouse() != null) {
-            return new SectionMeta("GREENHOUSE", target.getGreenhouse().getName());
+            return new ArchivedSessionReport.Section(target.getId(), "GREENHOUSE", target.getGreenhouse().getName());
         }
         if (target.getFieldBlock() != null) {
-            return new SectionMeta("FIELD", target.getFieldBlock().getName());
+            return new ArchivedSessionReport.Section(target.getId(), "FIELD", target.getFieldBlock().getName());
         }
-        return SectionMeta.empty();
+        return new ArchivedSessionReport.Section(target.getId(), "", "");
     }
 
     private Integer coverageValue(ScoutingSectionCoverageDto coverage, boolean bayMetric, boolean coveredMetric) {
@@ -269,42 +357,76 @@ public class ScoutingSessionReportExportService {
         return coveredMetric ? coverage.coveredBedCount() : coverage.totalBedCount();
     }
 
-    private String csvRow(Object... values) {
-        return java.util.Arrays.stream(values)
-                .map(this::toCsvCell)
-                .collect(Collectors.joining(","));
-    }
-
-    private String toCsvCell(Object value) {
-        String normalized = sanitizeForSpreadsheet(nullSafe(value));
-        return "\"" + normalized.replace("\"", "\"\"") + "\"";
-    }
-
-    private String nullSafe(Object value) {
+    private static String nullSafe(Object value) {
         return value == null ? "" : String.valueOf(value);
     }
 
-    private String sanitizeForSpreadsheet(String value) {
-        if (value == null || value.isEmpty()) {
-            return "";
-        }
-        char firstChar = value.charAt(0);
-        if (firstChar == '=' || firstChar == '+' || firstChar == '-' || firstChar == '@'
-                || firstChar == '\t' || firstChar == '\r') {
-            return "'" + value;
+    /**
+     * Describes a prepared export; pass it back to {@link #writeCsv} to produce the content.
+     */
+    public record CsvExport(String fileName, UUID farmId, UUID sessionId, LocalDate startDate, LocalDate endDate,
+                            boolean includeArchived) {
+
+        public CsvExport(String fileName, UUID farmId, UUID sessionId, LocalDate startDate, LocalDate endDate) {
+            this(fileName, farmId, sessionId, startDate, endDate, false);
         }
-        return value;
-    }
 
-    public record GeneratedCsvDocument(String fileName, byte[] content) {
         public String mediaType() {
             return CSV_MEDIA_TYPE;
         }
     }
 
-    private record SectionMeta(String type, String name) {
-        private static SectionMeta empty() {
-            return new SectionMeta("", "");
+    /**
+     * Formats rows into one reused buffer and writes them out, so a long export does not allocate a string per row.
+     */
+    private static final class CsvRowWriter {
+
+        private final Writer writer;
+        private final Object[] row = new Object[HEADER.length];
+        private final StringBuilder line = new StringBuilder(512);
+
+        private CsvRowWriter(Writer writer) {
+            this.writer = writer;
+        }
+
+        Object[] buffer() {
+            return row;
+        }
+
+        void flush() throws IOException {
+            writer.flush();
+        }
+
+        void write(Object[] values) throws IOException {
+            line.setLength(0);
+            for (int i = 0; i < values.length; i++) {
+                if (i > 0) {
+                    line.append(',');
+                }
+                appendCell(values[i]);
+            }
+            line.append(System.lineSeparator());
+            writer.append(line);
+        }
+
+        private void appendCell(Object value) {
+            String text = nullSafe(value);
+            line.append('"');
+            if (!text.isEmpty()) {
+                char firstChar = text.charAt(0);
+                if (firstChar == '=' || firstChar == '+' || firstChar == '-' || firstChar == '@'
+                        || firstChar == '\t' || firstChar == '\r') {
+                    line.append('\'');
+                }
+            }
+            for (int i = 0; i < text.length(); i++) {
+                char c = text.charAt(i);
+                if (c == '"') {
+                    line.append('"');
+                }
+                line.append(c);
+            }
+            line.append('"');
         }
     }
 }
@@ -3,13 +3,17 @@ package mofo.com.pestscout.scouting.service;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import mofo.com.pestscout.analytics.dto.SessionTargetRequest;
+import mofo.com.pestscout.analytics.service.FarmComparisonStatsService;
+import mofo.com.pestscout.analytics.service.WeeklyAnalyticsService;
 import mofo.com.pestscout.auth.model.Role;
 import mofo.com.pestscout.auth.model.User;
 import mofo.com.pestscout.auth.repository.UserFarmMembershipRepository;
 import mofo.com.pestscout.auth.repository.UserRepository;
+import mofo.com.pestscout.common.dto.CursorPageResponse;
 import mofo.com.pestscout.common.exception.BadRequestException;
 import mofo.com.pestscout.common.exception.ConflictException;
 import mofo.com.pestscout.common.exception.ForbiddenException;
+import mofo.com.pestscout.common.exception.GoneException;
 import mofo.com.pestscout.common.exception.ResourceNotFoundException;
 import mofo.com.pestscout.common.model.SyncStatus;
 import mofo.com.pestscout.common.service.CacheService;
@@ -22,9 +26,11 @@ import mofo.com.pestscout.farm.repository.GreenhouseRepository;
 import mofo.com.pestscout.farm.security.CurrentUserService;
 import mofo.com.pestscout.farm.security.FarmAccessService;
 import mofo.com.pestscout.farm.service.LicenseService;
+import mofo.com.pestscout.scouting.config.ScoutingArchiveProperties;
 import mofo.com.pestscout.scouting.dto.*;
 import mofo.com.pestscout.scouting.model.*;
 import mofo.com.pestscout.scouting.repository.*;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -44,6 +50,8 @@ import java.util.stream.Collectors;
 public class ScoutingSessionService {
 
     private static final UUID UNASSIGNED_USER_ID = new UUID(0L, 0L);
+    private static final int DEFAULT_SESSION_PAGE_SIZE = 50;
+    private static final int MAX_SESSION_PAGE_SIZE = 200;
 
     private final ScoutingSessionRepository sessionRepository;
     private final ScoutingObservationRepository observationRepository;
@@ -60,7 +68,10 @@ public class ScoutingSessionService {
     private final LicenseService licenseService;
     private final CacheService cacheService;
     private final SessionAuditService sessionAuditService;
+    private final FarmComparisonStatsService farmComparisonStatsService;
+    private final WeeklyAnalyticsService weeklyAnalyticsService;
     private final CustomSpeciesDefinitionRepository customSpeciesDefinitionRepository;
+    private final ScoutingArchiveProperties archiveProperties;
 
     /**
      * Create a new scouting session for a farm.
@@ -125,6 +136,7 @@ public class ScoutingSessionService {
         normalizePlanningStatus(session);
 
         ScoutingSession saved = sessionRepository.save(session);
+        weeklyAnalyticsService.record(null, saved);
         log.info("Created scouting session {} for farm {}", saved.getId(), farm.getId());
         sessionAuditService.record(saved, SessionAuditAction.SESSION_CREATED, request.comment(),
                 request.deviceId(), request.deviceType(), request.location(), request.actorName());
@@ -149,10 +161,17 @@ public class ScoutingSessionService {
         ensureSessionEditableForMetadata(session);
 
         assertNotStale(request.version(), session.getVersion(), "ScoutingSession");
+        WeeklyAnalyticsService.SessionSnapshot before = weeklyAnalyticsService.snapshot(session);
 
         if (request.sessionDate() != null) {
+            boolean dateChanged = !request.sessionDate().equals(session.getSessionDate());
             session.setSessionDate(request.sessionDate());
             session.setWeekNumber(resolveWeekNumber(request.sessionDate(), request.weekNumber()));
+            if (dateChanged) {
+                // Observations carry the session date as their partition key.
+                observationRepository.updateSessionDate(session.getId(), request.sessionDate());
+                observationDraftRepository.updateSessionDate(session.getId(), request.sessionDate());
+            }
         }
         if (request.weekNumber() != null) {
             session.setWeekNumber(request.weekNumber());
@@ -220,6 +239,7 @@ public class ScoutingSessionService {
         normalizePlanningStatus(session);
         session.setSyncStatus(SyncStatus.PENDING_UPLOAD);
         ScoutingSession saved = sessionRepository.save(session);
+        weeklyAnalyticsService.record(before, saved);
         log.info("Updated scouting session {}", saved.getId());
         sessionAuditService.record(saved, SessionAuditAction.SESSION_EDITED, request.comment(),
                 request.deviceId(), request.deviceType(), request.location(), request.actorName());
@@ -273,7 +293,9 @@ public class ScoutingSessionService {
             throw new BadRequestException("Only draft or new scouting sessions can be deleted.");
         }
 
+        WeeklyAnalyticsService.SessionSnapshot before = weeklyAnalyticsService.snapshot(session);
         sessionRepository.delete(session);
+        weeklyAnalyticsService.record(before, null);
         cacheService.evictSessionCachesAfterCommit(session.getFarm().getId(), sessionId);
     }
 
@@ -312,6 +334,7 @@ public class ScoutingSessionService {
         resolvedTargets.forEach(target -> reusedSession.addTarget(buildTarget(target)));
 
         ScoutingSession saved = sessionRepository.save(reusedSession);
+        weeklyAnalyticsService.record(null, saved);
         log.info("Reused scouting session {} into draft {}", sourceSession.getId(), saved.getId());
         sessionAuditService.record(saved, SessionAuditAction.SESSION_REUSED, null, null, null, null, null);
         cacheService.evictSessionCachesAfterCommit(farm.getId(), saved.getId());
@@ -414,12 +437,14 @@ public class ScoutingSessionService {
             session.setStartedAt(LocalDateTime.now());
         }
 
+        WeeklyAnalyticsService.SessionSnapshot before = weeklyAnalyticsService.snapshotWithObservations(session);
         promoteDraftObservationsToCommitted(session);
         SessionStateMachine.assertTransition(session.getStatus(), SessionStatus.SUBMITTED, role);
         session.markSubmitted(Boolean.TRUE.equals(request.confirmationAcknowledged()));
         session.setSyncStatus(SyncStatus.PENDING_UPLOAD);
 
         ScoutingSession saved = sessionRepository.save(session);
+        weeklyAnalyticsService.record(before, saved);
         sessionAuditService.record(saved, SessionAuditAction.SESSION_SUBMITTED, request.comment(), request.deviceId(), request.deviceType(), request.location(), request.actorName());
         cacheService.evictSessionCachesAfterCommit(session.getFarm().getId(), sessionId);
         return mapToDetailDto(saved);
@@ -456,10 +481,13 @@ public class ScoutingSessionService {
         }
 
         SessionStateMachine.assertTransition(session.getStatus(), SessionStatus.COMPLETED, role);
+        WeeklyAnalyticsService.SessionSnapshot before = weeklyAnalyticsService.snapshot(session);
         session.markCompleted(session.isConfirmationAcknowledged());
         session.setSyncStatus(SyncStatus.PENDING_UPLOAD);
 
         ScoutingSession saved = sessionRepository.save(session);
+        farmComparisonStatsService.recordCompleted(saved);
+        weeklyAnalyticsService.record(before, saved);
         sessionAuditService.record(saved, SessionAuditAction.SESSION_COMPLETED, request.comment(), request.deviceId(), request.deviceType(), request.location(), request.actorName());
         cacheService.evictSessionCachesAfterCommit(session.getFarm().getId(), sessionId);
         return mapToDetailDto(saved);
@@ -480,11 +508,14 @@ public class ScoutingSessionService {
         }
 
         SessionStateMachine.assertTransition(session.getStatus(), SessionStatus.REOPENED, farmAccessService.getCurrentUserRole());
+        farmComparisonStatsService.recordReopened(session);
+        WeeklyAnalyticsService.SessionSnapshot before = weeklyAnalyticsService.snapshot(session);
         session.markReopened(request != null ? request.comment() : null);
         session.setSyncStatus(SyncStatus.PENDING_UPLOAD);
         seedDraftObservationsFromCommitted(session);
 
         ScoutingSession saved = sessionRepository.save(session);
+        weeklyAnalyticsService.record(before, saved);
         sessionAuditService.record(saved, SessionAuditAction.SESSION_REOPENED,
                 request != null ? request.comment() : null,
                 request != null ? request.deviceId() : null,
@@ -791,56 +822,133 @@ public class ScoutingSessionService {
     }
 
     /**
-     * List all sessions for a farm, newest first.
+     * Checks that the current user may open the session, without building its detail view. Used by per-request
+     * endpoints such as photo content downloads.
      */
     @Transactional(readOnly = true)
-//    @Cacheable(
-//            value = "sessions-list",
-//            keyGenerator = "tenantAwareKeyGenerator",
-//            unless = "#result == null || #result.isEmpty()"
-//    )
-    public List<ScoutingSessionDetailDto> listSessions(UUID farmId) {
+    public void requireSessionAccess(UUID sessionId) {
+        loadSessionForExport(sessionId);
+    }
+
+    /**
+     * Loads a session for a report export, applying the same rules as opening it.
+     */
+    @Transactional(readOnly = true)
+    public ScoutingSession loadSessionForExport(UUID sessionId) {
+        ScoutingSession session = sessionRepository.findById(sessionId)
+                .orElseThrow(() -> new ResourceNotFoundException("ScoutingSession", "id", sessionId));
+        enforceSessionOpenAccess(session);
+        return session;
+    }
+
+    /**
+     * Checks that the current user may export every session of a farm they are allowed to open.
+     */
+    @Transactional(readOnly = true)
+    public Farm requireFarmExportAccess(UUID farmId) {
+        Farm farm = farmRepository.findById(farmId)
+                .orElseThrow(() -> new ResourceNotFoundException("Farm", "id", farmId));
+        requireSessionViewerAccess(farm);
+        return farm;
+    }
+
+    /**
+     * Full report view of a session for farm-wide exports, or empty when the caller could not open the session
+     * itself (for example an in-progress session seen by a manager).
+     */
+    Optional<ScoutingSessionDetailDto> exportDetail(ScoutingSession session) {
+        return exportDetail(session, farmAccessService.getCurrentUserRole());
+    }
+
+    /**
+     * As {@link #exportDetail(ScoutingSession)}, but for a viewer with the given role rather than the current user,
+     * so background exports apply the visibility rules of whoever requested them.
+     */
+    Optional<ScoutingSessionDetailDto> exportDetail(ScoutingSession session, Role viewerRole) {
+        if (isRestrictedInProgressFor(viewerRole, session)
+                || (viewerRole == Role.SUPER_ADMIN && !isVisibleToSuperAdmin(session))) {
+            return Optional.empty();
+        }
+        return Optional.of(mapToDetailDto(session));
+    }
+
+    /**
+     * Full report view of a session as it is kept once the session is archived.
+     */
+    ScoutingSessionDetailDto archiveDetail(ScoutingSession session) {
+        return mapToDetailDto(session);
+    }
+
+    /**
+     * Lists session summaries visible to the caller, newest first, one keyset page at a time. Filters are applied in
+     * the query and no observations are loaded; open a session to see its sections.
+     */
+    @Transactional(readOnly = true)
+    public CursorPageResponse<ScoutingSessionSummaryDto> listSessions(ScoutingSessionListQuery query) {
         Role role = farmAccessService.getCurrentUserRole();
+        UUID farmId = query.farmId();
 
         if (farmId == null) {
             if (role != Role.SUPER_ADMIN) {
                 throw new BadRequestException("Parameter 'farmId' is required unless the current user is a super admin.");
             }
-
-            return sessionRepository.findAll().stream()
-                    .sorted(Comparator
-                            .comparing(ScoutingSession::getSessionDate, Comparator.nullsLast(Comparator.reverseOrder()))
-                            .thenComparing(session -> session.getFarm() != null ? session.getFarm().getName() : "", String.CASE_INSENSITIVE_ORDER))
-                    .map(this::mapToViewerDetailDto)
-                    .collect(Collectors.toList());
+        } else {
+            Farm farm = farmRepository.findById(farmId)
+                    .orElseThrow(() -> new ResourceNotFoundException("Farm", "id", farmId));
+            if (role != Role.SCOUT) {
+                requireSessionViewerAccess(farm);
+            }
         }
 
-        Farm farm = farmRepository.findById(farmId)
-                .orElseThrow(() -> new ResourceNotFoundException("Farm", "id", farmId));
-
-        if (role == Role.SCOUT) {
-            UUID currentUserId = currentUserService.getCurrentUserId();
-            return sessionRepository.findByFarmId(farmId).stream()
-                    .filter(session -> session.getScout() != null && currentUserId.equals(session.getScout().getId()))
-                    .filter(this::isVisibleToScout)
-                    .sorted(Comparator.comparing(ScoutingSession::getSessionDate).reversed())
-                    .map(this::mapToViewerDetailDto)
-                    .collect(Collectors.toList());
+        if (query.fromDate() != null && query.toDate() != null && query.toDate().isBefore(query.fromDate())) {
+            throw new BadRequestException("toDate must not be before fromDate.");
         }
 
-        requireSessionViewerAccess(farm);
+        // Scouts only ever see their own sessions, whatever scout filter they pass.
+        boolean scoutView = role == Role.SCOUT;
+        UUID scoutId = scoutView ? currentUserService.getCurrentUserId() : query.scoutId();
+        Set<SessionStatus> statuses = query.statuses() == null || query.statuses().isEmpty()
+                ? EnumSet.allOf(SessionStatus.class)
+                : query.statuses();
+        int size = query.size() == null ? DEFAULT_SESSION_PAGE_SIZE
+                : Math.min(Math.max(query.size(), 1), MAX_SESSION_PAGE_SIZE);
+        SessionListCursor after = SessionListCursor.decode(query.cursor());
 
-        return sessionRepository.findByFarmId(farmId).stream()
-                .sorted(Comparator.comparing(ScoutingSession::getSessionDate).reversed())
-                .map(this::mapToViewerDetailDto)
-                .collect(Collectors.toList());
+        List<ScoutingSessionSummaryDto> rows = sessionRepository.findSummaries(
+                farmId,
+                scoutId,
+                statuses,
+                query.fromDate(),
+                query.toDate(),
+                scoutView,
+                after != null ? after.sessionDate() : null,
+                after != null ? after.sessionId() : null,
+                Limit.of(size + 1)
+        );
+
+        boolean last = rows.size() <= size;
+        List<ScoutingSessionSummaryDto> page = (last ? rows : rows.subList(0, size)).stream()
+                .map(summary -> summary.withOpenRestricted(isRestrictedInProgressFor(role, summary.status())))
+                .toList();
+        String nextCursor = last ? null
+                : new SessionListCursor(page.getLast().sessionDate(), page.getLast().id()).encode();
+        return new CursorPageResponse<>(page, size, nextCursor, last);
     }
 
+    /**
+     * Sessions and observations changed after {@code since}. Deletions are only reported while the soft-deleted rows
+     * are still in the hot tables, so a {@code since} older than the archival cutoff is answered with 410 and the
+     * client has to resync in full.
+     */
     @Transactional(readOnly = true)
     public ScoutingSyncResponse syncChanges(UUID farmId, LocalDateTime since, boolean includeDeleted) {
         if (since == null) {
             throw new BadRequestException("Parameter 'since' is required for sync.");
         }
+        Optional<LocalDateTime> deletedCutoff = archiveProperties.deletedCutoff(LocalDateTime.now());
+        if (deletedCutoff.isPresent() && since.isBefore(deletedCutoff.get())) {
+            throw new GoneException("Changes since " + since + " are no longer tracked; a full resync is required.");
+        }
 
         Farm farm = farmRepository.findById(farmId)
                 .orElseThrow(() -> new ResourceNotFoundException("Farm", "id", farmId));
@@ -852,14 +960,8 @@ public class ScoutingSessionService {
                     .filter(session -> session.getScout() != null && currentUserId.equals(session.getScout().getId()))
                     .toList();
 
-            List<UUID> farmSessionIds = sessionRepository.findByFarmId(farmId).stream()
-                    .filter(session -> session.getScout() != null && currentUserId.equals(session.getScout().getId()))
-                    .map(ScoutingSession::getId)
-                    .toList();
-
-            List<ScoutingObservationDraft> changedObservations = farmSessionIds.isEmpty()
-                    ? List.of()
-                    : observationDraftRepository.findBySessionIdInAndUpdatedAtAfter(farmSessionIds, since);
+            List<ScoutingObservationDraft> changedObservations =
+                    observationDraftRepository.findByFarmIdAndScoutIdAndUpdatedAtAfter(farmId, currentUserId, since);
 
             Set<UUID> touchedSessionIds = new HashSet<>();
             updatedSessions.forEach(session -> touchedSessionIds.add(session.getId()));
@@ -883,13 +985,7 @@ public class ScoutingSessionService {
         requireSessionViewerAccess(farm);
 
         List<ScoutingSession> updatedSessions = sessionRepository.findByFarmIdAndUpdatedAtAfter(farmId, since);
-        List<UUID> farmSessionIds = sessionRepository.findByFarmId(farmId).stream()
-                .map(ScoutingSession::getId)
-                .toList();
-
-        List<ScoutingObservation> changedObservations = farmSessionIds.isEmpty()
-                ? List.of()
-                : observationRepository.findBySessionIdInAndUpdatedAtAfter(farmSessionIds, since);
+        List<ScoutingObservation> changedObservations = observationRepository.findByFarmIdAndUpdatedAtAfter(farmId, since);
 
         Set<UUID> touchedSessionIds = new HashSet<>();
         updatedSessions.forEach(session -> touchedSessionIds.add(session.getId()));
@@ -924,24 +1020,28 @@ public class ScoutingSessionService {
                 .orElseThrow(() -> new ResourceNotFoundException("ScoutingSession", "id", sessionId));
 
         return auditEventRepository.findBySessionIdOrderByOccurredAtAsc(sessionId).stream()
-                .map(event -> new ScoutingSessionAuditDto(
-                        event.getId(),
-                        sessionId,
-                        event.getAction(),
-                        event.getActorId(),
-                        event.getActorName(),
-                        event.getActorEmail(),
-                        event.getActorRole(),
-                        event.getDeviceId(),
-                        event.getDeviceType(),
-                        event.getLocation(),
-                        event.getComment(),
-                        event.getOccurredAt(),
-                        event.getSyncStatus()
-                ))
+                .map(this::mapToAuditDto)
                 .toList();
     }
 
+    ScoutingSessionAuditDto mapToAuditDto(SessionAuditEvent event) {
+        return new ScoutingSessionAuditDto(
+                event.getId(),
+                event.getSession().getId(),
+                event.getAction(),
+                event.getActorId(),
+                event.getActorName(),
+                event.getActorEmail(),
+                event.getActorRole(),
+                event.getDeviceId(),
+                event.getDeviceType(),
+                event.getLocation(),
+                event.getComment(),
+                event.getOccurredAt(),
+                event.getSyncStatus()
+        );
+    }
+
     /**
      * Count how many sessions a farm completed in the current calendar week.
      */
@@ -1015,12 +1115,14 @@ public class ScoutingSessionService {
                                                           String actorName) {
         validateSessionCanBeStartedByScout(session);
 
+        WeeklyAnalyticsService.SessionSnapshot before = weeklyAnalyticsService.snapshot(session);
         session.markStarted();
         session.setSyncStatus(SyncStatus.PENDING_UPLOAD);
 
         markOtherInProgressSessionsIncomplete(session);
 
         ScoutingSession saved = sessionRepository.save(session);
+        weeklyAnalyticsService.record(before, saved);
         sessionAuditService.record(saved, SessionAuditAction.SESSION_STARTED, comment, deviceId, deviceType, location, actorName);
         cacheService.evictSessionCachesAfterCommit(session.getFarm().getId(), session.getId());
         return mapToDetailDto(saved);
@@ -1071,11 +1173,12 @@ public class ScoutingSessionService {
                 .filter(other -> !other.getId().equals(session.getId()))
                 .forEach(other -> {
                     SessionStateMachine.assertTransition(other.getStatus(), SessionStatus.INCOMPLETE, farmAccessService.getCurrentUserRole());
+                    WeeklyAnalyticsService.SessionSnapshot before = weeklyAnalyticsService.snapshot(other);
                     other.markIncomplete();
                     other.setSyncStatus(SyncStatus.PENDING_UPLOAD);
                     sessionAuditService.record(other, SessionAuditAction.SESSION_MARKED_INCOMPLETE,
                             "New session started while another was open", null, null, null, null);
-                    sessionRepository.save(other);
+                    weeklyAnalyticsService.record(before, sessionRepository.save(other));
                 });
     }
 
@@ -1094,9 +1197,16 @@ public class ScoutingSessionService {
     }
 
     private boolean isRestrictedInProgressForViewer(ScoutingSession session) {
-        Role role = farmAccessService.getCurrentUserRole();
+        return isRestrictedInProgressFor(farmAccessService.getCurrentUserRole(), session);
+    }
+
+    private boolean isRestrictedInProgressFor(Role role, ScoutingSession session) {
+        return isRestrictedInProgressFor(role, session.getStatus());
+    }
+
+    private boolean isRestrictedInProgressFor(Role role, SessionStatus status) {
         return (role == Role.SUPER_ADMIN || role == Role.FARM_ADMIN || role == Role.MANAGER)
-                && session.getStatus() == SessionStatus.IN_PROGRESS;
+                && status == SessionStatus.IN_PROGRESS;
     }
 
     private void requireScoutRole(String message) {
@@ -1519,10 +1629,6 @@ public class ScoutingSessionService {
         return mapToDetailDto(session, false);
     }
 
-    private ScoutingSessionDetailDto mapToViewerDetailDto(ScoutingSession session) {
-        return mapToViewerDetailDto(session, false);
-    }
-
     private ScoutingSessionDetailDto mapToViewerDetailDto(ScoutingSession session, boolean includeDeletedObservations) {
         if (isRestrictedInProgressForViewer(session)) {
             return mapToRestrictedInProgressDto(session);
@@ -1702,15 +1808,16 @@ public class ScoutingSessionService {
     }
 
     private boolean shouldUseDraftObservations(ScoutingSession session) {
-        return farmAccessService.getCurrentUserRole() == Role.SCOUT
-                && session.getStatus() != SessionStatus.COMPLETED
-                && session.getStatus() != SessionStatus.CANCELLED;
+        // Status first: completed sessions are also mapped by background jobs, which have no current user.
+        return session.getStatus() != SessionStatus.COMPLETED
+                && session.getStatus() != SessionStatus.CANCELLED
+                && farmAccessService.getCurrentUserRole() == Role.SCOUT;
     }
 
     /**
      * Convert an observation entity into a DTO for the API.
      */
-    private ScoutingObservationDto mapToObservationDto(ScoutingObservation observation, boolean includeDeleted) {
+    ScoutingObservationDto mapToObservationDto(ScoutingObservation observation, boolean includeDeleted) {
         if (observation == null) {
             throw new IllegalArgumentException("Observation must not be null");
         }
@@ -1755,7 +1862,7 @@ public class ScoutingSessionService {
         return mapToObservationDto(observation, false);
     }
 
-    private ScoutingObservationDto mapToObservationDto(ScoutingObservationDraft observation, boolean includeDeleted) {
+    ScoutingObservationDto mapToObservationDto(ScoutingObservationDraft observation, boolean includeDeleted) {
         if (observation == null) {
             throw new IllegalArgumentException("Observation draft must not be null");
         }
@@ -0,0 +1,214 @@
+package mofo.com.pestscout.scouting.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import mofo.com.pestscout.scouting.config.SessionAuditProperties;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+
+/**
+ * Bounded in-memory buffer between session requests and the audit table.
+ * <p>
+ * A single background writer takes whatever has queued up, up to the batch size, and inserts it in one transaction,
+ * so under load events are written in large batches and an idle queue costs nothing. If a batch fails, its events are
+ * retried one at a time so a single bad event (for example one whose session has since been archived) cannot take
+ * the others with it. When the queue is full the caller appends its event to a {@link SessionAuditSpill} on local disk
+ * instead, and events still queued at shutdown are spilled the same way. The writer replays the spill whenever it
+ * catches up with the queue, including after a restart, so only events that cannot be written at all are dropped.
+ * <p>
+ * Meters: {@code session.audit.queue.depth}, {@code session.audit.write.lag} (time from the event to its insert),
+ * {@code session.audit.overflow} (events spilled because the queue was full) and {@code session.audit.dropped}.
+ */
+@Component
+@Slf4j
+public class SessionAuditQueue {
+
+    private static final long POLL_TIMEOUT_MILLIS = 500;
+
+    private final SessionAuditWriter writer;
+    private final SessionAuditSpill spill;
+    private final BlockingQueue<QueuedEvent> queue;
+    private final int batchSize;
+    private final long shutdownTimeoutMs;
+    private final ExecutorService executor;
+    private final Timer writeLag;
+    private final Counter overflow;
+    private final Counter dropped;
+    private volatile boolean running = true;
+
+    public SessionAuditQueue(SessionAuditWriter writer,
+                             SessionAuditProperties properties,
+                             ObjectMapper objectMapper,
+                             MeterRegistry meterRegistry) {
+        this.writer = writer;
+        this.spill = new SessionAuditSpill(Path.of(properties.getSpillDir()), objectMapper);
+        this.queue = new ArrayBlockingQueue<>(Math.max(1, properties.getQueueCapacity()));
+        this.batchSize = Math.max(1, properties.getBatchSize());
+        this.shutdownTimeoutMs = Math.max(0L, properties.getShutdownTimeoutMs());
+
+        Gauge.builder("session.audit.queue.depth", queue, BlockingQueue::size)
+                .description("Session audit events waiting to be written")
+                .register(meterRegistry);
+        this.writeLag = Timer.builder("session.audit.write.lag")
+                .description("Time from queueing a session audit event to its insert")
+                .register(meterRegistry);
+        this.overflow = Counter.builder("session.audit.overflow")
+                .description("Session audit events spilled to disk because the queue was full")
+                .register(meterRegistry);
+        this.dropped = Counter.builder("session.audit.dropped")
+                .description("Session audit events that could not be written")
+                .register(meterRegistry);
+
+        this.executor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "session-audit-writer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        if (properties.isAsyncEnabled()) {
+            executor.execute(this::drainLoop);
+        }
+    }
+
+    /**
+     * Queues an event for the background writer, or spills it to disk if the queue is full or the writer has
+     * stopped.
+     */
+    public void enqueue(SessionAuditService.PendingAuditEvent event) {
+        QueuedEvent queued = new QueuedEvent(event, System.nanoTime());
+        if (running && queue.offer(queued)) {
+            return;
+        }
+        overflow.increment();
+        spill(List.of(queued));
+    }
+
+    int depth() {
+        return queue.size();
+    }
+
+    @PreDestroy
+    void shutdown() {
+        running = false;
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(shutdownTimeoutMs, TimeUnit.MILLISECONDS)) {
+                executor.shutdownNow();
+            }
+        } catch (InterruptedException ex) {
+            executor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+        List<QueuedEvent> remaining = new ArrayList<>();
+        queue.drainTo(remaining);
+        if (!remaining.isEmpty()) {
+            log.info("Spilling {} session audit event(s) still queued at shutdown", remaining.size());
+            spill(remaining);
+        }
+    }
+
+    private void drainLoop() {
+        List<QueuedEvent> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                QueuedEvent first = queue.poll(POLL_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+                if (first != null) {
+                    batch.add(first);
+                    queue.drainTo(batch, batchSize - 1);
+                    writeBatch(batch);
+                }
+                if (running && queue.isEmpty()) {
+                    replaySpill();
+                }
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException ex) {
+                log.warn("Session audit writer failed", ex);
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    /**
+     * Writes spilled events once the queue has been caught up with. Events that made it to disk keep their original
+     * time, so the lag meter covers the time they spent spilled.
+     */
+    private void replaySpill() {
+        if (!spill.hasPending()) {
+            return;
+        }
+        try {
+            for (Path file : spill.seal()) {
+                int unreadable = spill.replay(file, batchSize, events -> writeBatch(events.stream()
+                        .map(SessionAuditQueue::replayed)
+                        .toList()));
+                dropped.increment(unreadable);
+            }
+        } catch (IOException ex) {
+            log.warn("Session audit spill could not be replayed: {}", ex.getMessage());
+        }
+    }
+
+    /**
+     * Appends events to the spill, or writes them on the calling thread if the disk refuses them.
+     */
+    private void spill(List<QueuedEvent> events) {
+        try {
+            spill.append(events.stream().map(QueuedEvent::event).toList());
+        } catch (IOException ex) {
+            log.warn("Session audit spill failed, writing {} event(s) directly: {}", events.size(), ex.getMessage());
+            writeEach(events);
+        }
+    }
+
+    private void writeBatch(List<QueuedEvent> batch) {
+        try {
+            writer.write(batch.stream().map(QueuedEvent::event).toList());
+            recordLag(batch);
+        } catch (RuntimeException ex) {
+            log.debug("Session audit batch of {} failed, retrying one at a time: {}", batch.size(), ex.getMessage());
+            writeEach(batch);
+        }
+    }
+
+    private void writeEach(List<QueuedEvent> events) {
+        for (QueuedEvent queued : events) {
+            try {
+                writer.write(List.of(queued.event()));
+                recordLag(List.of(queued));
+            } catch (RuntimeException ex) {
+                dropped.increment();
+                log.warn("Dropped session audit event {} for session {}: {}",
+                        queued.event().action(), queued.event().sessionId(), ex.getMessage());
+            }
+        }
+    }
+
+    private void recordLag(List<QueuedEvent> written) {
+        long now = System.nanoTime();
+        for (QueuedEvent queued : written) {
+            writeLag.record(now - queued.enqueuedAtNanos(), TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private static QueuedEvent replayed(SessionAuditService.PendingAuditEvent event) {
+        long age = Math.max(0L, Duration.between(event.occurredAt(), LocalDateTime.now()).toNanos());
+        return new QueuedEvent(event, System.nanoTime() - age);
+    }
+
+    private record QueuedEvent(SessionAuditService.PendingAuditEvent event, long enqueuedAtNanos) {
+    }
+}
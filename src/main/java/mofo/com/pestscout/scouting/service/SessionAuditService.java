@@ -2,19 +2,30 @@ package mofo.com.pestscout.scouting.service;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import mofo.com.pestscout.auth.model.Role;
 import mofo.com.pestscout.auth.model.User;
 import mofo.com.pestscout.common.model.SyncStatus;
+import mofo.com.pestscout.farm.model.Farm;
 import mofo.com.pestscout.farm.security.CurrentUserService;
+import mofo.com.pestscout.scouting.config.SessionAuditProperties;
 import mofo.com.pestscout.scouting.model.SessionAuditAction;
 import mofo.com.pestscout.scouting.model.SessionAuditEvent;
 import mofo.com.pestscout.scouting.model.ScoutingSession;
 import mofo.com.pestscout.scouting.repository.SessionAuditEventRepository;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.time.LocalDateTime;
 import java.util.Optional;
+import java.util.UUID;
 
+/**
+ * Records who did what to a scouting session. The actor is resolved on the request thread, but by default the insert
+ * is handed to {@link SessionAuditQueue} once the surrounding transaction commits, so session transitions and viewer
+ * access do not wait on the audit table. Events of a rolled-back transaction are never written.
+ */
 @Service
 @RequiredArgsConstructor
 @Slf4j
@@ -22,6 +33,8 @@ public class SessionAuditService {
 
     private final SessionAuditEventRepository auditRepository;
     private final CurrentUserService currentUserService;
+    private final SessionAuditQueue auditQueue;
+    private final SessionAuditProperties properties;
 
     @Transactional
     public void record(ScoutingSession session,
@@ -39,23 +52,77 @@ public class SessionAuditService {
                         Optional.ofNullable(actor.getFirstName()).orElse(""),
                         Optional.ofNullable(actor.getLastName()).orElse("")).trim());
 
-        SessionAuditEvent event = SessionAuditEvent.builder()
-                .session(session)
-                .farm(session.getFarm())
-                .action(action)
-                .actorName(actorName.isBlank() ? actor.getEmail() : actorName)
-                .actorId(actor.getId())
-                .actorEmail(actor.getEmail())
-                .actorRole(actor.getRole())
-                .deviceId(deviceId)
-                .deviceType(deviceType)
-                .location(location)
-                .comment(comment)
-                .occurredAt(LocalDateTime.now())
-                .syncStatus(SyncStatus.PENDING_UPLOAD)
-                .build();
-
-        auditRepository.save(event);
+        PendingAuditEvent event = new PendingAuditEvent(
+                session.getId(),
+                session.getFarm().getId(),
+                action,
+                actorName.isBlank() ? actor.getEmail() : actorName,
+                actor.getId(),
+                actor.getEmail(),
+                actor.getRole(),
+                deviceId,
+                deviceType,
+                location,
+                comment,
+                LocalDateTime.now(),
+                SyncStatus.PENDING_UPLOAD
+        );
+
+        if (!properties.isAsyncEnabled()) {
+            auditRepository.save(event.toEntity(session, session.getFarm()));
+        } else {
+            enqueueAfterCommit(event);
+        }
         log.debug("Recorded audit event {} for session {}", action, session.getId());
     }
+
+    private void enqueueAfterCommit(PendingAuditEvent event) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()
+                && TransactionSynchronizationManager.isActualTransactionActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    auditQueue.enqueue(event);
+                }
+            });
+            return;
+        }
+        auditQueue.enqueue(event);
+    }
+
+    /**
+     * Audit event detached from the persistence context, safe to hand to another thread.
+     */
+    public record PendingAuditEvent(UUID sessionId,
+                                    UUID farmId,
+                                    SessionAuditAction action,
+                                    String actorName,
+                                    UUID actorId,
+                                    String actorEmail,
+                                    Role actorRole,
+                                    String deviceId,
+                                    String deviceType,
+                                    String location,
+                                    String comment,
+                                    LocalDateTime occurredAt,
+                                    SyncStatus syncStatus) {
+
+        SessionAuditEvent toEntity(ScoutingSession session, Farm farm) {
+            return SessionAuditEvent.builder()
+                    .session(session)
+                    .farm(farm)
+                    .action(action)
+                    .actorName(actorName)
+                    .actorId(actorId)
+                    .actorEmail(actorEmail)
+                    .actorRole(actorRole)
+                    .deviceId(deviceId)
+                    .deviceType(deviceType)
+                    .location(location)
+                    .comment(comment)
+                    .occurredAt(occurredAt)
+                    .syncStatus(syncStatus)
+                    .build();
+        }
+    }
 }
@@ -0,0 +1,132 @@
+package mofo.com.pestscout.scouting.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Append-only files on local disk for session audit events the queue could not hold.
+ * <p>
+ * Events are appended to {@code current.jsonl}, one JSON document per line. The writer seals that file by renaming it,
+ * replays sealed files oldest first and deletes each once its events were handed on, so files left by a stopped node
+ * are picked up when it starts again. A crash while replaying a file can write some of its events twice; a line cut
+ * short by a crash while appending is skipped.
+ */
+@Slf4j
+class SessionAuditSpill {
+
+    private static final String CURRENT_FILE = "current.jsonl";
+    private static final String SEALED_PREFIX = "sealed-";
+    private static final String SEALED_SUFFIX = ".jsonl";
+
+    private final Path dir;
+    private final ObjectMapper objectMapper;
+    private final AtomicLong sealedCounter = new AtomicLong();
+    private volatile boolean pending;
+
+    SessionAuditSpill(Path dir, ObjectMapper objectMapper) {
+        this.dir = dir.toAbsolutePath().normalize();
+        this.objectMapper = objectMapper;
+        this.pending = hasFiles();
+    }
+
+    synchronized void append(List<SessionAuditService.PendingAuditEvent> events) throws IOException {
+        Files.createDirectories(dir);
+        try (BufferedWriter out = Files.newBufferedWriter(dir.resolve(CURRENT_FILE), StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+            for (SessionAuditService.PendingAuditEvent event : events) {
+                out.write(objectMapper.writeValueAsString(event));
+                out.newLine();
+            }
+        }
+        pending = true;
+    }
+
+    boolean hasPending() {
+        return pending;
+    }
+
+    /**
+     * Seals the file being appended to and returns every sealed file, oldest first.
+     */
+    synchronized List<Path> seal() throws IOException {
+        pending = false;
+        Path current = dir.resolve(CURRENT_FILE);
+        if (Files.exists(current)) {
+            String name = "%s%020d-%06d%s".formatted(SEALED_PREFIX, System.currentTimeMillis(),
+                    sealedCounter.incrementAndGet() % 1_000_000, SEALED_SUFFIX);
+            Files.move(current, dir.resolve(name), StandardCopyOption.ATOMIC_MOVE);
+        }
+        if (!Files.isDirectory(dir)) {
+            return List.of();
+        }
+        try (Stream<Path> files = Files.list(dir)) {
+            return files
+                    .filter(file -> {
+                        String name = file.getFileName().toString();
+                        return name.startsWith(SEALED_PREFIX) && name.endsWith(SEALED_SUFFIX);
+                    })
+                    .sorted()
+                    .toList();
+        }
+    }
+
+    /**
+     * Hands the events of a sealed file to {@code sink} {@code batchSize} at a time, deletes the file and returns the
+     * number of lines that could not be read.
+     */
+    int replay(Path file, int batchSize, Consumer<List<SessionAuditService.PendingAuditEvent>> sink) throws IOException {
+        int unreadable = 0;
+        List<SessionAuditService.PendingAuditEvent> batch = new ArrayList<>(batchSize);
+        try (BufferedReader in = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = in.readLine()) != null) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                try {
+                    batch.add(objectMapper.readValue(line, SessionAuditService.PendingAuditEvent.class));
+                } catch (JsonProcessingException ex) {
+                    unreadable++;
+                    log.warn("Skipping unreadable session audit spill line in {}: {}", file, ex.getOriginalMessage());
+                    continue;
+                }
+                if (batch.size() == batchSize) {
+                    sink.accept(List.copyOf(batch));
+                    batch.clear();
+                }
+            }
+        }
+        if (!batch.isEmpty()) {
+            sink.accept(List.copyOf(batch));
+        }
+        Files.delete(file);
+        return unreadable;
+    }
+
+    private boolean hasFiles() {
+        if (!Files.isDirectory(dir)) {
+            return false;
+        }
+        try (Stream<Path> files = Files.list(dir)) {
+            return files.findAny().isPresent();
+        } catch (IOException ex) {
+            log.warn("Could not list session audit spill directory {}: {}", dir, ex.getMessage());
+            return false;
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package mofo.com.pestscout.scouting.service;
+
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import mofo.com.pestscout.farm.model.Farm;
+import mofo.com.pestscout.scouting.model.ScoutingSession;
+import mofo.com.pestscout.scouting.model.SessionAuditEvent;
+import mofo.com.pestscout.scouting.repository.SessionAuditEventRepository;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+/**
+ * Inserts audit events in one transaction. The inserts go out as JDBC batches, which the PostgreSQL driver rewrites
+ * into multi-row statements.
+ */
+@Component
+@RequiredArgsConstructor
+public class SessionAuditWriter {
+
+    private final SessionAuditEventRepository auditRepository;
+    private final EntityManager entityManager;
+
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void write(List<SessionAuditService.PendingAuditEvent> events) {
+        auditRepository.saveAll(events.stream().map(this::toEntity).toList());
+    }
+
+    private SessionAuditEvent toEntity(SessionAuditService.PendingAuditEvent event) {
+        return event.toEntity(
+                entityManager.getReference(ScoutingSession.class, event.sessionId()),
+                entityManager.getReference(Farm.class, event.farmId()));
+    }
+}
@@ -0,0 +1,38 @@
+package mofo.com.pestscout.scouting.service;
+
+import mofo.com.pestscout.common.exception.BadRequestException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Position in a session list: the (session date, id) of the last row of the previous page, encoded as an opaque
+ * URL-safe token.
+ */
+record SessionListCursor(LocalDate sessionDate, UUID sessionId) {
+
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    String encode() {
+        return ENCODER.encodeToString((sessionDate + "|" + sessionId).getBytes(StandardCharsets.UTF_8));
+    }
+
+    static SessionListCursor decode(String token) {
+        if (token == null || token.isBlank()) {
+            return null;
+        }
+        try {
+            String[] parts = new String(DECODER.decode(token.trim()), StandardCharsets.UTF_8).split("\\|", 2);
+            if (parts.length != 2) {
+                throw new BadRequestException("Invalid session list cursor.");
+            }
+            return new SessionListCursor(LocalDate.parse(parts[0]), UUID.fromString(parts[1]));
+        } catch (IllegalArgumentException | DateTimeParseException ex) {
+            throw new BadRequestException("Invalid session list cursor.");
+        }
+    }
+}
@@ -0,0 +1,266 @@
+package mofo.com.pestscout.scouting.service;
+
+import mofo.com.pestscout.scouting.model.CustomSpeciesDefinition;
+import mofo.com.pestscout.scouting.model.ObservationCategory;
+import mofo.com.pestscout.scouting.model.SpeciesCode;
+
+import java.util.*;
+
+/**
+ * Aho–Corasick automaton over the species keywords used by photo analysis heuristics.
+ * <p>
+ * The automaton is compiled once and is immutable, so one instance can be shared by every thread scoring photos for
+ * the same farm. {@link #match} reads the metadata fields character by character, lower-casing as it goes, and finds
+ * every keyword in a single pass without concatenating or copying the input.
+ */
+public final class SpeciesKeywordMatcher {
+
+    private static final char FIELD_SEPARATOR = ' ';
+    private static final int[] NO_OUTPUT = new int[0];
+    private static final List<String> DISEASE_HINTS = List.of("disease", "mildew", "wilt", "mold");
+
+    private final Keyword[] keywords;
+    private final char[][] edgeChars;
+    private final int[][] edgeTargets;
+    private final int[] failure;
+    private final int[][] outputs;
+
+    private SpeciesKeywordMatcher(Keyword[] keywords, char[][] edgeChars, int[][] edgeTargets, int[] failure,
+                                  int[][] outputs) {
+        this.keywords = keywords;
+        this.edgeChars = edgeChars;
+        this.edgeTargets = edgeTargets;
+        this.failure = failure;
+        this.outputs = outputs;
+    }
+
+    /**
+     * Built-in keywords followed by the farm's custom species names. Custom pests, diseases and beneficials map onto
+     * the matching "other" species code.
+     */
+    public static SpeciesKeywordMatcher forFarm(List<CustomSpeciesDefinition> customSpecies) {
+        List<Keyword> keywords = new ArrayList<>(builtInKeywords());
+        for (CustomSpeciesDefinition definition : customSpecies) {
+            String name = definition.getNormalizedName();
+            if (name == null || name.isBlank()) {
+                continue;
+            }
+            keywords.add(new Keyword(
+                    name.trim().toLowerCase(Locale.ROOT),
+                    otherSpeciesCode(definition.getCategory()),
+                    "Photo metadata mentions farm species '" + definition.getName() + "'.",
+                    false
+            ));
+        }
+        return compile(keywords);
+    }
+
+    static SpeciesKeywordMatcher builtIn() {
+        return compile(builtInKeywords());
+    }
+
+    /**
+     * Scans the fields as if they were trimmed and joined with single spaces. For every species the earliest
+     * declared keyword that occurs wins, mirroring a per-species "first matching keyword" loop.
+     */
+    public KeywordMatches match(String... fields) {
+        int[] bestBySpecies = new int[SpeciesCode.values().length];
+        Arrays.fill(bestBySpecies, -1);
+        boolean[] diseaseHint = {false};
+
+        int state = 0;
+        boolean started = false;
+        for (String field : fields) {
+            if (field == null) {
+                continue;
+            }
+            int start = 0;
+            int end = field.length();
+            while (start < end && Character.isWhitespace(field.charAt(start))) {
+                start++;
+            }
+            while (end > start && Character.isWhitespace(field.charAt(end - 1))) {
+                end--;
+            }
+            if (start == end) {
+                continue;
+            }
+            if (started) {
+                state = step(state, FIELD_SEPARATOR);
+                record(state, bestBySpecies, diseaseHint);
+            }
+            started = true;
+            for (int i = start; i < end; i++) {
+                state = step(state, Character.toLowerCase(field.charAt(i)));
+                record(state, bestBySpecies, diseaseHint);
+            }
+        }
+        return new KeywordMatches(keywords, bestBySpecies, diseaseHint[0]);
+    }
+
+    private int step(int state, char c) {
+        while (true) {
+            int index = Arrays.binarySearch(edgeChars[state], c);
+            if (index >= 0) {
+                return edgeTargets[state][index];
+            }
+            if (state == 0) {
+                return 0;
+            }
+            state = failure[state];
+        }
+    }
+
+    private void record(int state, int[] bestBySpecies, boolean[] diseaseHint) {
+        for (int keywordIndex : outputs[state]) {
+            Keyword keyword = keywords[keywordIndex];
+            if (keyword.hintOnly()) {
+                diseaseHint[0] = true;
+                continue;
+            }
+            int slot = keyword.speciesCode().ordinal();
+            if (bestBySpecies[slot] < 0 || keywordIndex < bestBySpecies[slot]) {
+                bestBySpecies[slot] = keywordIndex;
+            }
+        }
+    }
+
+    private static SpeciesKeywordMatcher compile(List<Keyword> declared) {
+        List<Keyword> keywords = new ArrayList<>(declared);
+        for (String hint : DISEASE_HINTS) {
+            keywords.add(new Keyword(hint, SpeciesCode.DISEASE_OTHER, null, true));
+        }
+
+        List<TreeMap<Character, Integer>> trie = new ArrayList<>();
+        List<List<Integer>> nodeOutputs = new ArrayList<>();
+        trie.add(new TreeMap<>());
+        nodeOutputs.add(new ArrayList<>());
+        for (int k = 0; k < keywords.size(); k++) {
+            int node = 0;
+            for (char c : keywords.get(k).text().toCharArray()) {
+                Integer next = trie.get(node).get(c);
+                if (next == null) {
+                    next = trie.size();
+                    trie.add(new TreeMap<>());
+                    nodeOutputs.add(new ArrayList<>());
+                    trie.get(node).put(c, next);
+                }
+                node = next;
+            }
+            nodeOutputs.get(node).add(k);
+        }
+
+        int size = trie.size();
+        char[][] edgeChars = new char[size][];
+        int[][] edgeTargets = new int[size][];
+        for (int node = 0; node < size; node++) {
+            TreeMap<Character, Integer> edges = trie.get(node);
+            edgeChars[node] = new char[edges.size()];
+            edgeTargets[node] = new int[edges.size()];
+            int i = 0;
+            for (Map.Entry<Character, Integer> edge : edges.entrySet()) {
+                edgeChars[node][i] = edge.getKey();
+                edgeTargets[node][i] = edge.getValue();
+                i++;
+            }
+        }
+
+        int[] failure = new int[size];
+        ArrayDeque<Integer> queue = new ArrayDeque<>(trie.getFirst().values());
+        while (!queue.isEmpty()) {
+            int node = queue.poll();
+            for (Map.Entry<Character, Integer> edge : trie.get(node).entrySet()) {
+                int child = edge.getValue();
+                int fallback = failure[node];
+                while (fallback != 0 && !trie.get(fallback).containsKey(edge.getKey())) {
+                    fallback = failure[fallback];
+                }
+                Integer target = trie.get(fallback).get(edge.getKey());
+                failure[child] = target != null && target != child ? target : 0;
+                nodeOutputs.get(child).addAll(nodeOutputs.get(failure[child]));
+                queue.add(child);
+            }
+        }
+
+        int[][] outputs = new int[size][];
+        for (int node = 0; node < size; node++) {
+            List<Integer> found = nodeOutputs.get(node);
+            outputs[node] = found.isEmpty() ? NO_OUTPUT : found.stream().mapToInt(Integer::intValue).toArray();
+        }
+
+        return new SpeciesKeywordMatcher(keywords.toArray(Keyword[]::new), edgeChars, edgeTargets, failure, outputs);
+    }
+
+    private static List<Keyword> builtInKeywords() {
+        List<Keyword> keywords = new ArrayList<>();
+        addBuiltIn(keywords, SpeciesCode.THRIPS, "thrip", "silvering", "streak");
+        addBuiltIn(keywords, SpeciesCode.RED_SPIDER_MITE, "red spider", "mite", "webbing");
+        addBuiltIn(keywords, SpeciesCode.WHITEFLIES, "whitefly", "whiteflies", "honeydew");
+        addBuiltIn(keywords, SpeciesCode.MEALYBUGS, "mealy", "cottony", "wax");
+        addBuiltIn(keywords, SpeciesCode.CATERPILLARS, "caterpillar", "larva", "chewed");
+        addBuiltIn(keywords, SpeciesCode.FALSE_CODLING_MOTH, "codling", "fcm", "fruit entry");
+        addBuiltIn(keywords, SpeciesCode.DOWNY_MILDEW, "downy", "angular lesion");
+        addBuiltIn(keywords, SpeciesCode.POWDERY_MILDEW, "powdery", "white powder");
+        addBuiltIn(keywords, SpeciesCode.BOTRYTIS, "botrytis", "grey mold", "gray mold");
+        addBuiltIn(keywords, SpeciesCode.BACTERIAL_WILT, "wilt", "vascular");
+        return keywords;
+    }
+
+    private static void addBuiltIn(List<Keyword> keywords, SpeciesCode speciesCode, String... texts) {
+        for (String text : texts) {
+            keywords.add(new Keyword(text, speciesCode, "Photo metadata contains keyword '" + text + "'.", false));
+        }
+    }
+
+    private static SpeciesCode otherSpeciesCode(ObservationCategory category) {
+        return switch (category) {
+            case PEST -> SpeciesCode.PEST_OTHER;
+            case DISEASE -> SpeciesCode.DISEASE_OTHER;
+            case BENEFICIAL -> SpeciesCode.BENEFICIAL_OTHER;
+        };
+    }
+
+    record Keyword(String text, SpeciesCode speciesCode, String rationale, boolean hintOnly) {
+    }
+
+    /**
+     * Result of one {@link #match} call.
+     */
+    public static final class KeywordMatches {
+
+        private final Keyword[] keywords;
+        private final int[] bestBySpecies;
+        private final boolean diseaseHint;
+
+        private KeywordMatches(Keyword[] keywords, int[] bestBySpecies, boolean diseaseHint) {
+            this.keywords = keywords;
+            this.bestBySpecies = bestBySpecies;
+            this.diseaseHint = diseaseHint;
+        }
+
+        /**
+         * Calls {@code consumer} once per matched species, in species declaration order, with the rationale of the
+         * winning keyword.
+         */
+        public void forEachSpecies(MatchConsumer consumer) {
+            SpeciesCode[] codes = SpeciesCode.values();
+            for (int slot = 0; slot < bestBySpecies.length; slot++) {
+                if (bestBySpecies[slot] >= 0) {
+                    consumer.accept(codes[slot], keywords[bestBySpecies[slot]].rationale());
+                }
+            }
+        }
+
+        /**
+         * Whether the text mentions a generic disease word, used when nothing more specific matched.
+         */
+        public boolean hasDiseaseHint() {
+            return diseaseHint;
+        }
+    }
+
+    @FunctionalInterface
+    public interface MatchConsumer {
+        void accept(SpeciesCode speciesCode, String rationale);
+    }
+}
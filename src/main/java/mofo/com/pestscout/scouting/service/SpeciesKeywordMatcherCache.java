@@ -0,0 +1,45 @@
+package mofo.com.pestscout.scouting.service;
+
+import lombok.RequiredArgsConstructor;
+import mofo.com.pestscout.scouting.repository.CustomSpeciesDefinitionRepository;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Keeps one compiled {@link SpeciesKeywordMatcher} per farm. Entries are dropped when the farm's custom species change
+ * on this node and expire after a few minutes so definitions added through another node are picked up as well.
+ */
+@Component
+@RequiredArgsConstructor
+public class SpeciesKeywordMatcherCache {
+
+    private static final Duration TIME_TO_LIVE = Duration.ofMinutes(5);
+
+    private final CustomSpeciesDefinitionRepository customSpeciesDefinitionRepository;
+
+    private final ConcurrentMap<UUID, CachedMatcher> matchers = new ConcurrentHashMap<>();
+
+    public SpeciesKeywordMatcher forFarm(UUID farmId) {
+        long now = System.nanoTime();
+        CachedMatcher cached = matchers.get(farmId);
+        if (cached != null && now - cached.loadedAtNanos() < TIME_TO_LIVE.toNanos()) {
+            return cached.matcher();
+        }
+
+        SpeciesKeywordMatcher matcher = SpeciesKeywordMatcher.forFarm(
+                customSpeciesDefinitionRepository.findByFarmIdOrderByCategoryAscNameAsc(farmId));
+        matchers.put(farmId, new CachedMatcher(matcher, now));
+        return matcher;
+    }
+
+    public void evict(UUID farmId) {
+        matchers.remove(farmId);
+    }
+
+    private record CachedMatcher(SpeciesKeywordMatcher matcher, long loadedAtNanos) {
+    }
+}
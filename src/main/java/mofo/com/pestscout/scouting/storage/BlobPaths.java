@@ -0,0 +1,27 @@
+package mofo.com.pestscout.scouting.storage;
+
+import java.nio.file.Path;
+import java.util.regex.Pattern;
+
+/**
+ * Shared layout for files keyed by content hash: two directory levels taken from the start of the hash keep any one
+ * directory small even with millions of photos.
+ */
+final class BlobPaths {
+
+    private static final Pattern CONTENT_KEY = Pattern.compile("[0-9a-f]{64}");
+
+    private BlobPaths() {
+    }
+
+    /**
+     * Only hex SHA-256 keys map to files, which also keeps arbitrary object keys from escaping the store root.
+     */
+    static boolean isContentKey(String key) {
+        return key != null && CONTENT_KEY.matcher(key).matches();
+    }
+
+    static Path sharded(Path root, String key, String fileName) {
+        return root.resolve(key.substring(0, 2)).resolve(key.substring(2, 4)).resolve(fileName);
+    }
+}
@@ -0,0 +1,81 @@
+package mofo.com.pestscout.scouting.storage;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Optional;
+
+/**
+ * A blob backed by a local file.
+ */
+record FileSystemPhotoBlob(String key, Path path, long size) implements PhotoBlob {
+
+    private static final int COPY_BUFFER_SIZE = 64 * 1024;
+
+    static Optional<PhotoBlob> open(String key, Path path) throws IOException {
+        if (!Files.isRegularFile(path)) {
+            return Optional.empty();
+        }
+        return Optional.of(new FileSystemPhotoBlob(key, path, Files.size(path)));
+    }
+
+    @Override
+    public Optional<Path> localPath() {
+        return Optional.of(path);
+    }
+
+    @Override
+    public InputStream openStream() throws IOException {
+        return Files.newInputStream(path);
+    }
+
+    /**
+     * Uses {@link FileChannel#transferTo}, which may move fewer bytes than asked per call, so it loops until the
+     * requested range is written. A call that moves nothing does not say why, so the rest of the range is copied
+     * through a buffer instead, which fails rather than spinning if the target stops accepting bytes.
+     */
+    @Override
+    public void transferTo(long position, long count, WritableByteChannel target) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long offset = position;
+            long remaining = count;
+            while (remaining > 0) {
+                long transferred = channel.transferTo(offset, remaining, target);
+                if (transferred <= 0) {
+                    if (offset >= channel.size()) {
+                        throw new IOException("Photo blob " + key + " is shorter than expected");
+                    }
+                    copyBuffered(channel, offset, remaining, target);
+                    return;
+                }
+                offset += transferred;
+                remaining -= transferred;
+            }
+        }
+    }
+
+    private void copyBuffered(FileChannel channel, long offset, long remaining, WritableByteChannel target)
+            throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate((int) Math.min(remaining, COPY_BUFFER_SIZE));
+        while (remaining > 0) {
+            buffer.clear().limit((int) Math.min(remaining, buffer.capacity()));
+            int read = channel.read(buffer, offset);
+            if (read < 0) {
+                throw new IOException("Photo blob " + key + " is shorter than expected");
+            }
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                if (target.write(buffer) <= 0) {
+                    throw new IOException("Target stopped accepting bytes of photo blob " + key);
+                }
+            }
+            offset += read;
+            remaining -= read;
+        }
+    }
+}
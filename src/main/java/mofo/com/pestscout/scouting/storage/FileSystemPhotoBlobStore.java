@@ -0,0 +1,142 @@
+package mofo.com.pestscout.scouting.storage;
+
+import lombok.extern.slf4j.Slf4j;
+import mofo.com.pestscout.common.exception.BadRequestException;
+import mofo.com.pestscout.scouting.config.PhotoStorageProperties;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Optional;
+
+/**
+ * Stores photos on the local filesystem as {@code root/ab/cd/abcd...}, keyed by SHA-256. Uploads are hashed while
+ * they stream into a temporary file under {@code root/incoming} and then moved into place, so a reader never sees a
+ * partially written blob and identical uploads collapse onto one file.
+ */
+@Component
+@Slf4j
+public class FileSystemPhotoBlobStore implements PhotoBlobStore {
+
+    private static final int COPY_BUFFER_BYTES = 64 * 1024;
+
+    private final Path root;
+    private final Path incoming;
+    private final long maxUploadBytes;
+
+    public FileSystemPhotoBlobStore(PhotoStorageProperties properties) {
+        this.root = Path.of(properties.getRoot()).toAbsolutePath().normalize();
+        this.incoming = root.resolve("incoming");
+        this.maxUploadBytes = properties.getMaxUploadBytes();
+    }
+
+    @Override
+    public StoredPhotoBlob store(InputStream content) throws IOException {
+        StagedPhotoBlob staged = stage(content);
+        try {
+            return commit(staged);
+        } finally {
+            Files.deleteIfExists(staged.file());
+        }
+    }
+
+    @Override
+    public StagedPhotoBlob stage(InputStream content) throws IOException {
+        Files.createDirectories(incoming);
+        Path temp = Files.createTempFile(incoming, "upload-", ".part");
+        try {
+            MessageDigest digest = sha256();
+            long size = 0;
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+                byte[] buffer = new byte[COPY_BUFFER_BYTES];
+                int read;
+                while ((read = content.read(buffer)) != -1) {
+                    size += read;
+                    if (size > maxUploadBytes) {
+                        throw new BadRequestException("Photo exceeds the maximum upload size of " + maxUploadBytes + " bytes.");
+                    }
+                    digest.update(buffer, 0, read);
+                    ByteBuffer chunk = ByteBuffer.wrap(buffer, 0, read);
+                    while (chunk.hasRemaining()) {
+                        channel.write(chunk);
+                    }
+                }
+                channel.force(true);
+            }
+            return new StagedPhotoBlob(temp, HexFormat.of().formatHex(digest.digest()), size);
+        } catch (IOException | RuntimeException ex) {
+            Files.deleteIfExists(temp);
+            throw ex;
+        }
+    }
+
+    @Override
+    public StoredPhotoBlob commit(StagedPhotoBlob staged) throws IOException {
+        Path target = pathFor(staged.key());
+        if (Files.exists(target)) {
+            Files.deleteIfExists(staged.file());
+        } else {
+            Files.createDirectories(target.getParent());
+            Files.move(staged.file(), target, StandardCopyOption.ATOMIC_MOVE);
+            log.debug("Stored photo blob {} ({} bytes)", staged.key(), staged.sizeBytes());
+        }
+        return new StoredPhotoBlob(staged.key(), staged.sizeBytes());
+    }
+
+    @Override
+    public StoredPhotoBlob adopt(Path staged, String expectedKey) throws IOException {
+        MessageDigest digest = sha256();
+        long size = 0;
+        try (InputStream in = Files.newInputStream(staged)) {
+            byte[] buffer = new byte[COPY_BUFFER_BYTES];
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                size += read;
+                digest.update(buffer, 0, read);
+            }
+        }
+
+        String key = HexFormat.of().formatHex(digest.digest());
+        if (!key.equals(expectedKey)) {
+            throw new BadRequestException("Uploaded photo does not match its SHA-256 checksum.");
+        }
+        return commit(new StagedPhotoBlob(staged, key, size));
+    }
+
+    @Override
+    public Optional<PhotoBlob> open(String key) throws IOException {
+        if (!BlobPaths.isContentKey(key)) {
+            return Optional.empty();
+        }
+        return FileSystemPhotoBlob.open(key, pathFor(key));
+    }
+
+    @Override
+    public boolean delete(String key) throws IOException {
+        if (!BlobPaths.isContentKey(key)) {
+            return false;
+        }
+        return Files.deleteIfExists(pathFor(key));
+    }
+
+    private Path pathFor(String key) {
+        return BlobPaths.sharded(root, key, key);
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("SHA-256 is not available", ex);
+        }
+    }
+}
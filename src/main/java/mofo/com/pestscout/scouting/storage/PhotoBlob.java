@@ -0,0 +1,29 @@
+package mofo.com.pestscout.scouting.storage;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+import java.util.Optional;
+
+/**
+ * Read handle for a stored photo.
+ */
+public interface PhotoBlob {
+
+    String key();
+
+    long size();
+
+    /**
+     * The backing file when the blob lives on the local filesystem, so the servlet container can send it directly.
+     */
+    Optional<Path> localPath();
+
+    InputStream openStream() throws IOException;
+
+    /**
+     * Copies {@code count} bytes starting at {@code position} to {@code target}.
+     */
+    void transferTo(long position, long count, WritableByteChannel target) throws IOException;
+}
@@ -0,0 +1,54 @@
+package mofo.com.pestscout.scouting.storage;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.util.Optional;
+
+/**
+ * Byte storage for scouting photos. Blobs are content addressed: the key is the hex SHA-256 of the bytes, so a blob
+ * never changes once written and the key doubles as a strong ETag.
+ */
+public interface PhotoBlobStore {
+
+    /**
+     * Streams {@code content} into the store without holding the whole image in memory.
+     *
+     * @throws mofo.com.pestscout.common.exception.BadRequestException when the content exceeds the upload limit
+     */
+    StoredPhotoBlob store(InputStream content) throws IOException;
+
+    /**
+     * Streams {@code content} into a staging file and hashes it without making it visible in the store, so the caller
+     * can take the blob reference before the bytes land. The caller must {@link #commit} the result or delete its
+     * file.
+     *
+     * @throws mofo.com.pestscout.common.exception.BadRequestException when the content exceeds the upload limit
+     */
+    StagedPhotoBlob stage(InputStream content) throws IOException;
+
+    /**
+     * Moves a staged blob into the store, or drops the staged file when the blob is already present.
+     */
+    StoredPhotoBlob commit(StagedPhotoBlob staged) throws IOException;
+
+    /**
+     * Moves a fully staged upload into the store. The file is hashed first and only adopted when the hash equals
+     * {@code expectedKey}; on success the staged file is consumed.
+     *
+     * @throws mofo.com.pestscout.common.exception.BadRequestException when the staged bytes do not match the key
+     */
+    StoredPhotoBlob adopt(Path staged, String expectedKey) throws IOException;
+
+    /**
+     * Opens a previously stored blob, or returns empty when the key is unknown to this store.
+     */
+    Optional<PhotoBlob> open(String key) throws IOException;
+
+    /**
+     * Removes a blob. Callers must make sure no photo refers to it any more.
+     *
+     * @return whether a blob was removed
+     */
+    boolean delete(String key) throws IOException;
+}
@@ -0,0 +1,14 @@
+package mofo.com.pestscout.scouting.storage;
+
+/**
+ * A photo's stored bytes together with the metadata needed to serve them.
+ */
+public record PhotoContent(PhotoBlob blob, String contentType) {
+
+    /**
+     * Strong entity tag. Blobs are content addressed, so the key only changes when the bytes do.
+     */
+    public String etag() {
+        return "\"" + blob.key() + "\"";
+    }
+}
@@ -0,0 +1,143 @@
+package mofo.com.pestscout.scouting.storage;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.file.Path;
+import java.util.Optional;
+
+/**
+ * Writes stored photo bytes to a servlet response with conditional GET and single byte-range support.
+ * <p>
+ * When the container advertises sendfile support (Tomcat's NIO connectors do) and the blob is a local file, the
+ * transfer is handed to the container so the bytes go from the page cache to the socket without being copied through
+ * the JVM. Otherwise the blob is copied with {@link PhotoBlob#transferTo}.
+ */
+public final class PhotoContentWriter {
+
+    static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+    static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    private static final String CACHE_CONTROL = "private, no-cache";
+
+    private PhotoContentWriter() {
+    }
+
+    public static void write(PhotoContent content, HttpServletRequest request, HttpServletResponse response)
+            throws IOException {
+        String etag = content.etag();
+        response.setHeader(HttpHeaders.ETAG, etag);
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+        response.setHeader(HttpHeaders.CACHE_CONTROL, CACHE_CONTROL);
+
+        if (matchesAny(request.getHeader(HttpHeaders.IF_NONE_MATCH), etag)) {
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return;
+        }
+
+        long size = content.blob().size();
+        long start = 0;
+        long end = size - 1;
+        int status = HttpServletResponse.SC_OK;
+
+        String rangeHeader = request.getHeader(HttpHeaders.RANGE);
+        String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+        if (rangeHeader != null && (ifRange == null || ifRange.trim().equals(etag))) {
+            ByteRange range = ByteRange.parse(rangeHeader, size);
+            if (range == ByteRange.UNSATISFIABLE) {
+                response.setStatus(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + size);
+                return;
+            }
+            if (range != null) {
+                start = range.start();
+                end = range.end();
+                status = HttpServletResponse.SC_PARTIAL_CONTENT;
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + size);
+            }
+        }
+
+        long length = end - start + 1;
+        response.setStatus(status);
+        response.setContentType(content.contentType());
+        response.setContentLengthLong(length);
+
+        if ("HEAD".equals(request.getMethod()) || length <= 0) {
+            return;
+        }
+
+        Optional<Path> localPath = content.blob().localPath();
+        if (localPath.isPresent() && Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))) {
+            request.setAttribute(SENDFILE_FILENAME, localPath.get().toString());
+            request.setAttribute(SENDFILE_START, start);
+            request.setAttribute(SENDFILE_END, end + 1);
+            return;
+        }
+
+        content.blob().transferTo(start, length, Channels.newChannel(response.getOutputStream()));
+    }
+
+    private static boolean matchesAny(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if (tag.equals("*") || tag.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Inclusive byte range. Multi-range requests and malformed headers parse to {@code null}, which means the full
+     * body is served, as RFC 9110 allows.
+     */
+    record ByteRange(long start, long end) {
+
+        static final ByteRange UNSATISFIABLE = new ByteRange(-1, -1);
+
+        static ByteRange parse(String header, long size) {
+            String value = header.trim();
+            if (!value.startsWith("bytes=") || value.indexOf(',') >= 0) {
+                return null;
+            }
+            String spec = value.substring("bytes=".length()).trim();
+            int dash = spec.indexOf('-');
+            if (dash < 0) {
+                return null;
+            }
+            try {
+                String first = spec.substring(0, dash).trim();
+                String last = spec.substring(dash + 1).trim();
+                if (first.isEmpty()) {
+                    long suffix = Long.parseLong(last);
+                    if (suffix <= 0 || size == 0) {
+                        return UNSATISFIABLE;
+                    }
+                    return new ByteRange(Math.max(0, size - suffix), size - 1);
+                }
+                long start = Long.parseLong(first);
+                long end = last.isEmpty() ? Long.MAX_VALUE : Long.parseLong(last);
+                if (start < 0 || end < start) {
+                    return null;
+                }
+                if (start >= size) {
+                    return UNSATISFIABLE;
+                }
+                return new ByteRange(start, Math.min(end, size - 1));
+            } catch (NumberFormatException ex) {
+                return null;
+            }
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package mofo.com.pestscout.scouting.storage;
+
+import mofo.com.pestscout.scouting.config.PhotoStorageProperties;
+import mofo.com.pestscout.scouting.model.PhotoDerivativeVariant;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Optional;
+
+/**
+ * Disk cache of rendered derivatives, stored next to the blob store under {@code root/derivatives/<variant>} and
+ * keyed by the source blob's content hash. Because the key is the source content, photos that share bytes share
+ * derivatives and a cached rendition never goes stale.
+ */
+@Component
+public class PhotoDerivativeCache {
+
+    private final Path root;
+
+    public PhotoDerivativeCache(PhotoStorageProperties properties) {
+        this.root = Path.of(properties.getRoot()).toAbsolutePath().normalize().resolve("derivatives");
+    }
+
+    public Optional<PhotoBlob> open(String blobKey, PhotoDerivativeVariant variant) throws IOException {
+        if (!BlobPaths.isContentKey(blobKey)) {
+            return Optional.empty();
+        }
+        return FileSystemPhotoBlob.open(blobKey + "-" + variant.getPathSegment(), pathFor(blobKey, variant));
+    }
+
+    public boolean contains(String blobKey, PhotoDerivativeVariant variant) {
+        return BlobPaths.isContentKey(blobKey) && Files.isRegularFile(pathFor(blobKey, variant));
+    }
+
+    /**
+     * Writes through a temporary file so readers only ever see complete renditions.
+     */
+    public void put(String blobKey, PhotoDerivativeVariant variant, byte[] jpeg) throws IOException {
+        if (!BlobPaths.isContentKey(blobKey)) {
+            throw new IllegalArgumentException("Not a content key: " + blobKey);
+        }
+        Path target = pathFor(blobKey, variant);
+        Files.createDirectories(target.getParent());
+        Path temp = Files.createTempFile(target.getParent(), blobKey, ".part");
+        try {
+            Files.write(temp, jpeg);
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    /**
+     * Drops every rendition of a blob, used when the source blob itself is collected.
+     */
+    public void evict(String blobKey) throws IOException {
+        if (!BlobPaths.isContentKey(blobKey)) {
+            return;
+        }
+        for (PhotoDerivativeVariant variant : PhotoDerivativeVariant.values()) {
+            Files.deleteIfExists(pathFor(blobKey, variant));
+        }
+    }
+
+    private Path pathFor(String blobKey, PhotoDerivativeVariant variant) {
+        return BlobPaths.sharded(root.resolve(variant.getPathSegment()), blobKey, blobKey + ".jpg");
+    }
+}
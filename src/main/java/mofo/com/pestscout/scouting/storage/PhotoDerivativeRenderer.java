@@ -0,0 +1,99 @@
+package mofo.com.pestscout.scouting.storage;
+
+import mofo.com.pestscout.scouting.config.PhotoDerivativeProperties;
+import org.springframework.stereotype.Component;
+
+import javax.imageio.*;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.util.Iterator;
+
+/**
+ * Renders downscaled JPEG renditions of stored photos.
+ * <p>
+ * Decoding a full-resolution phone or drone image costs far more memory than the output needs, so the decoder is
+ * asked to subsample while reading: the image is decoded at no less than twice the target size and then smoothed
+ * down to it. Peak memory per render therefore depends on the target size rather than on the camera.
+ */
+@Component
+public class PhotoDerivativeRenderer {
+
+    private final float jpegQuality;
+
+    public PhotoDerivativeRenderer(PhotoDerivativeProperties properties) {
+        this.jpegQuality = Math.clamp(properties.getJpegQuality(), 0.1f, 1.0f);
+    }
+
+    public byte[] render(PhotoBlob source, int maxDimension) throws IOException {
+        BufferedImage decoded = decodeSubsampled(source, maxDimension);
+        return encodeJpeg(scale(decoded, maxDimension));
+    }
+
+    private BufferedImage decodeSubsampled(PhotoBlob source, int maxDimension) throws IOException {
+        // Local blobs are decoded straight from the file; anything else goes through ImageIO's stream cache.
+        Path localPath = source.localPath().orElse(null);
+        try (InputStream in = localPath == null ? source.openStream() : null;
+             ImageInputStream input = ImageIO.createImageInputStream(localPath != null ? localPath.toFile() : in)) {
+            if (input == null) {
+                throw new IOException("Photo " + source.key() + " could not be opened for decoding");
+            }
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(input);
+            if (!readers.hasNext()) {
+                throw new IOException("Photo " + source.key() + " is not in a supported image format");
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(input, true, true);
+                int longestSide = Math.max(reader.getWidth(0), reader.getHeight(0));
+                int subsampling = Math.max(1, longestSide / (maxDimension * 2));
+                ImageReadParam param = reader.getDefaultReadParam();
+                param.setSourceSubsampling(subsampling, subsampling, 0, 0);
+                return reader.read(0, param);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    private BufferedImage scale(BufferedImage image, int maxDimension) {
+        int width = image.getWidth();
+        int height = image.getHeight();
+        double ratio = Math.min(1.0d, (double) maxDimension / Math.max(width, height));
+        int targetWidth = Math.max(1, (int) Math.round(width * ratio));
+        int targetHeight = Math.max(1, (int) Math.round(height * ratio));
+
+        BufferedImage scaled = new BufferedImage(targetWidth, targetHeight, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = scaled.createGraphics();
+        try {
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            graphics.setColor(Color.WHITE);
+            graphics.fillRect(0, 0, targetWidth, targetHeight);
+            graphics.drawImage(image, 0, 0, targetWidth, targetHeight, null);
+        } finally {
+            graphics.dispose();
+        }
+        return scaled;
+    }
+
+    private byte[] encodeJpeg(BufferedImage image) throws IOException {
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (ImageOutputStream output = ImageIO.createImageOutputStream(out)) {
+            writer.setOutput(output);
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            param.setCompressionQuality(jpegQuality);
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+        return out.toByteArray();
+    }
+}
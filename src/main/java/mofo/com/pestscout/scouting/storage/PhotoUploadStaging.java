@@ -0,0 +1,100 @@
+package mofo.com.pestscout.scouting.storage;
+
+import mofo.com.pestscout.common.exception.BadRequestException;
+import mofo.com.pestscout.common.exception.ConflictException;
+import mofo.com.pestscout.scouting.config.PhotoStorageProperties;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.UUID;
+
+/**
+ * Partial files for resumable photo uploads, kept under {@code root/uploads} next to the blob store so a finished
+ * upload can be moved into place without copying. The length of the file is the number of bytes received, so a
+ * client that lost its connection resumes from whatever actually reached the disk.
+ */
+@Component
+public class PhotoUploadStaging {
+
+    private static final int COPY_BUFFER_BYTES = 64 * 1024;
+
+    private final Path uploads;
+
+    public PhotoUploadStaging(PhotoStorageProperties properties) {
+        this.uploads = Path.of(properties.getRoot()).toAbsolutePath().normalize().resolve("uploads");
+    }
+
+    public Path path(UUID uploadId) {
+        return uploads.resolve(uploadId + ".part");
+    }
+
+    public long size(UUID uploadId) throws IOException {
+        Path path = path(uploadId);
+        return Files.exists(path) ? Files.size(path) : 0;
+    }
+
+    /**
+     * Writes a chunk starting at {@code offset}. Bytes at or beyond the offset are replaced, so a chunk whose
+     * acknowledgement was lost can simply be sent again; an offset past the received length is rejected because it
+     * would leave a gap.
+     *
+     * @return the number of bytes received after the chunk
+     * @throws ConflictException   when the offset is ahead of the received bytes or another chunk is being written
+     * @throws BadRequestException when the chunk would grow the upload past {@code totalBytes}
+     */
+    public long append(UUID uploadId, long offset, long totalBytes, InputStream content) throws IOException {
+        Files.createDirectories(uploads);
+        try (FileChannel channel = FileChannel.open(path(uploadId), StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+             FileLock ignored = lock(channel, uploadId)) {
+            long received = channel.size();
+            if (offset < 0 || offset > received) {
+                throw new ConflictException("Upload " + uploadId + " has received " + received
+                        + " bytes; the next chunk must start at or before that offset.");
+            }
+            channel.truncate(offset);
+            channel.position(offset);
+
+            long position = offset;
+            byte[] buffer = new byte[COPY_BUFFER_BYTES];
+            int read;
+            while ((read = content.read(buffer)) != -1) {
+                position += read;
+                if (position > totalBytes) {
+                    channel.truncate(offset);
+                    throw new BadRequestException("Chunk runs past the declared upload size of " + totalBytes + " bytes.");
+                }
+                ByteBuffer chunk = ByteBuffer.wrap(buffer, 0, read);
+                while (chunk.hasRemaining()) {
+                    channel.write(chunk);
+                }
+            }
+            channel.force(false);
+            return position;
+        }
+    }
+
+    public void discard(UUID uploadId) throws IOException {
+        Files.deleteIfExists(path(uploadId));
+    }
+
+    private static FileLock lock(FileChannel channel, UUID uploadId) throws IOException {
+        FileLock lock;
+        try {
+            lock = channel.tryLock();
+        } catch (OverlappingFileLockException ex) {
+            lock = null;
+        }
+        if (lock == null) {
+            throw new ConflictException("Another chunk for upload " + uploadId + " is still being written.");
+        }
+        return lock;
+    }
+}
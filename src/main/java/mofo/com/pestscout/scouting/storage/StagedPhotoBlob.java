@@ -0,0 +1,13 @@
+package mofo.com.pestscout.scouting.storage;
+
+import java.nio.file.Path;
+
+/**
+ * Photo bytes written to a staging file and hashed, but not yet part of a {@link PhotoBlobStore}.
+ *
+ * @param file      staging file holding the bytes
+ * @param key       content hash the blob will be stored under
+ * @param sizeBytes number of bytes staged
+ */
+public record StagedPhotoBlob(Path file, String key, long sizeBytes) {
+}
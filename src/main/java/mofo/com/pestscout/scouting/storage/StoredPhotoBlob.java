@@ -0,0 +1,10 @@
+package mofo.com.pestscout.scouting.storage;
+
+/**
+ * Result of writing a photo to a {@link PhotoBlobStore}.
+ *
+ * @param key       content hash that identifies the blob
+ * @param sizeBytes number of bytes stored
+ */
+public record StoredPhotoBlob(String key, long sizeBytes) {
+}
@@ -1,4 +1,3 @@
--- Compatibility repeatable migration kept for environments that applied the
--- original Flyway description before the file was renamed.
-ALTER TABLE farms
-    ADD COLUMN IF NOT EXISTS organic BOOLEAN NOT NULL DEFAULT FALSE;
+-- Compatibility stub retained so previously applied repeatable migration entries
+-- continue to resolve after the actual SQL moved to
+-- R__post_initial_farm_organic_label.sql.
@@ -0,0 +1,61 @@
+CREATE TABLE IF NOT EXISTS export_jobs
+(
+    id UUID PRIMARY KEY DEFAULT public.uuid_generate_v4(),
+    version BIGINT NOT NULL DEFAULT 0,
+    dedup_key VARCHAR(64) NOT NULL,
+    farm_id UUID NOT NULL REFERENCES farms (id) ON DELETE CASCADE,
+    export_type VARCHAR(32) NOT NULL,
+    start_date DATE,
+    end_date DATE,
+    audience_role VARCHAR(32),
+    data_version VARCHAR(64) NOT NULL,
+    file_name VARCHAR(255) NOT NULL,
+    requested_by UUID,
+    status VARCHAR(32) NOT NULL DEFAULT 'PENDING',
+    attempts INTEGER NOT NULL DEFAULT 0,
+    last_error VARCHAR(500),
+    size_bytes BIGINT,
+    completed_at TIMESTAMP WITH TIME ZONE,
+    expires_at TIMESTAMP WITH TIME ZONE,
+    created_at TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    deleted BOOLEAN NOT NULL DEFAULT FALSE,
+    deleted_at TIMESTAMP WITH TIME ZONE,
+    sync_status VARCHAR(32) NOT NULL DEFAULT 'SYNCED',
+    CONSTRAINT uk_export_jobs_dedup_key UNIQUE (dedup_key)
+);
+
+-- Tables created before completed_at and expires_at carried a time zone; existing values are read in the session
+-- time zone, which is how the application wrote them.
+DO $$
+BEGIN
+    IF EXISTS (SELECT 1
+               FROM information_schema.columns
+               WHERE table_name = 'export_jobs'
+                 AND column_name = 'completed_at'
+                 AND data_type = 'timestamp without time zone') THEN
+        ALTER TABLE export_jobs
+            ALTER COLUMN completed_at TYPE TIMESTAMP WITH TIME ZONE;
+    END IF;
+    IF EXISTS (SELECT 1
+               FROM information_schema.columns
+               WHERE table_name = 'export_jobs'
+                 AND column_name = 'expires_at'
+                 AND data_type = 'timestamp without time zone') THEN
+        ALTER TABLE export_jobs
+            ALTER COLUMN expires_at TYPE TIMESTAMP WITH TIME ZONE;
+    END IF;
+END $$;
+
+CREATE INDEX IF NOT EXISTS idx_export_jobs_status
+    ON export_jobs (status, updated_at);
+
+CREATE INDEX IF NOT EXISTS idx_export_jobs_expires_at
+    ON export_jobs (expires_at);
+
+-- Running jobs hold a lease their node renews while building; the sweeper only re-queues jobs whose lease ran out.
+ALTER TABLE export_jobs
+    ADD COLUMN IF NOT EXISTS lease_expires_at TIMESTAMP WITH TIME ZONE;
+
+CREATE INDEX IF NOT EXISTS idx_export_jobs_lease
+    ON export_jobs (status, lease_expires_at);
@@ -0,0 +1,31 @@
+CREATE TABLE IF NOT EXISTS farm_comparison_stats
+(
+    id UUID PRIMARY KEY DEFAULT public.uuid_generate_v4(),
+    version BIGINT NOT NULL DEFAULT 0,
+    farm_id UUID NOT NULL REFERENCES farms (id) ON DELETE CASCADE,
+    period_start DATE NOT NULL,
+    session_count BIGINT NOT NULL DEFAULT 0,
+    observation_rows BIGINT NOT NULL DEFAULT 0,
+    observation_total BIGINT NOT NULL DEFAULT 0,
+    alert_count BIGINT NOT NULL DEFAULT 0,
+    created_at TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    deleted BOOLEAN NOT NULL DEFAULT FALSE,
+    deleted_at TIMESTAMP WITH TIME ZONE,
+    sync_status VARCHAR(32) NOT NULL DEFAULT 'SYNCED',
+    CONSTRAINT uk_farm_comparison_stats_period UNIQUE (farm_id, period_start)
+);
+
+-- Seed existing completed sessions; afterwards completions, reopenings and the nightly rebuild keep it current.
+INSERT INTO farm_comparison_stats (farm_id, period_start, session_count, observation_rows, observation_total, alert_count)
+SELECT s.farm_id,
+       date_trunc('month', s.session_date)::date,
+       COUNT(DISTINCT s.id),
+       COUNT(o.id),
+       COALESCE(SUM(o.count_value), 0),
+       COUNT(o.id) FILTER (WHERE o.count_value >= 11)
+FROM scouting_sessions s
+         LEFT JOIN scouting_observations o ON o.session_id = s.id
+WHERE s.status = 'COMPLETED'
+GROUP BY s.farm_id, date_trunc('month', s.session_date)
+ON CONFLICT (farm_id, period_start) DO NOTHING;
@@ -0,0 +1,46 @@
+CREATE TABLE IF NOT EXISTS cache_invalidation_events
+(
+    id UUID PRIMARY KEY DEFAULT public.uuid_generate_v4(),
+    version BIGINT NOT NULL DEFAULT 0,
+    entity_name VARCHAR(255) NOT NULL,
+    entity_id UUID,
+    origin_node_id VARCHAR(128) NOT NULL,
+    occurred_at TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    created_at TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    deleted BOOLEAN NOT NULL DEFAULT FALSE,
+    deleted_at TIMESTAMP WITH TIME ZONE,
+    sync_status VARCHAR(32) NOT NULL DEFAULT 'SYNCED'
+);
+
+-- A row without an entity id records a bulk statement and evicts every cached row of the entity.
+ALTER TABLE cache_invalidation_events
+    ALTER COLUMN entity_id DROP NOT NULL;
+
+CREATE INDEX IF NOT EXISTS idx_cache_invalidation_events_occurred_at
+    ON cache_invalidation_events (occurred_at);
+
+-- Relays read the outbox in the order rows were inserted, which the database numbers itself, instead of by the clock
+-- of the node that wrote them.
+ALTER TABLE cache_invalidation_events
+    ADD COLUMN IF NOT EXISTS sequence_number BIGINT GENERATED ALWAYS AS IDENTITY;
+
+CREATE INDEX IF NOT EXISTS idx_cache_invalidation_events_sequence
+    ON cache_invalidation_events (sequence_number);
+
+-- Wakes the relay of every node as soon as new outbox rows commit; polling remains the fallback. The payload names the
+-- table, so client_session_events shares the function and channel.
+CREATE OR REPLACE FUNCTION notify_cluster_outbox() RETURNS trigger AS
+$$
+BEGIN
+    PERFORM pg_notify('cluster_outbox', TG_TABLE_NAME);
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+DROP TRIGGER IF EXISTS trg_cache_invalidation_events_notify ON cache_invalidation_events;
+CREATE TRIGGER trg_cache_invalidation_events_notify
+    AFTER INSERT
+    ON cache_invalidation_events
+    FOR EACH STATEMENT
+EXECUTE FUNCTION notify_cluster_outbox();
@@ -156,13 +156,23 @@ ALTER TABLE scouting_observations
 CREATE INDEX IF NOT EXISTS idx_obs_custom_species
     ON scouting_observations (custom_species_id);
 
-ALTER TABLE scouting_observations
-DROP
-CONSTRAINT IF EXISTS uk_session_cell_species;
-
-ALTER TABLE scouting_observations
-    ADD CONSTRAINT uk_session_cell_species
-        UNIQUE (session_id, session_target_id, bay_index, bench_index, spot_index, species_identifier);
+-- Once R__scouting_observation_partitions.sql has partitioned the table it owns this key, which then also covers
+-- session_date.
+DO
+$$
+BEGIN
+    IF EXISTS (SELECT 1 FROM pg_partitioned_table WHERE partrelid = to_regclass('scouting_observations')) THEN
+        RETURN;
+    END IF;
+
+    ALTER TABLE scouting_observations
+        DROP CONSTRAINT IF EXISTS uk_session_cell_species;
+
+    ALTER TABLE scouting_observations
+        ADD CONSTRAINT uk_session_cell_species
+            UNIQUE (session_id, session_target_id, bay_index, bench_index, spot_index, species_identifier);
+END;
+$$;
 
 ALTER TABLE scouting_observations
 DROP
@@ -0,0 +1,16 @@
+CREATE TABLE IF NOT EXISTS farm_weekly_analytics
+(
+    id UUID PRIMARY KEY DEFAULT public.uuid_generate_v4(),
+    version BIGINT NOT NULL DEFAULT 0,
+    farm_id UUID NOT NULL REFERENCES farms (id) ON DELETE CASCADE,
+    week_start DATE NOT NULL,
+    metric VARCHAR(16) NOT NULL,
+    metric_key VARCHAR(32) NOT NULL,
+    total BIGINT NOT NULL DEFAULT 0,
+    created_at TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    deleted BOOLEAN NOT NULL DEFAULT FALSE,
+    deleted_at TIMESTAMP WITH TIME ZONE,
+    sync_status VARCHAR(32) NOT NULL DEFAULT 'SYNCED',
+    CONSTRAINT uk_farm_weekly_analytics_metric UNIQUE (farm_id, week_start, metric, metric_key)
+);
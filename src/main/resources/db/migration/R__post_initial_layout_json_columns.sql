@@ -0,0 +1,100 @@
+-- Layout tag lists and bay definitions move from per-row collection tables to JSONB columns on their owning row.
+-- Existing rows are copied across once, then the collection tables are dropped; re-running is a no-op.
+
+ALTER TABLE greenhouses
+    ADD COLUMN IF NOT EXISTS bay_tags JSONB NOT NULL DEFAULT '[]'::jsonb,
+    ADD COLUMN IF NOT EXISTS bench_tags JSONB NOT NULL DEFAULT '[]'::jsonb,
+    ADD COLUMN IF NOT EXISTS bays JSONB NOT NULL DEFAULT '[]'::jsonb;
+
+ALTER TABLE field_blocks
+    ADD COLUMN IF NOT EXISTS bay_tags JSONB NOT NULL DEFAULT '[]'::jsonb;
+
+ALTER TABLE scouting_session_targets
+    ADD COLUMN IF NOT EXISTS bay_tags JSONB NOT NULL DEFAULT '[]'::jsonb,
+    ADD COLUMN IF NOT EXISTS bench_tags JSONB NOT NULL DEFAULT '[]'::jsonb;
+
+-- The tag tables have no order column, so their rows never had a guaranteed order. Tags are sorted by value, with a
+-- trailing number compared numerically so generated tags keep their sequence (Bay 2 before Bay 10); bays keep the
+-- order recorded in position_index.
+DO $$
+BEGIN
+    IF to_regclass('greenhouse_bay_tags') IS NOT NULL THEN
+        UPDATE greenhouses g
+        SET bay_tags = t.tags
+        FROM (SELECT greenhouse_id,
+                     jsonb_agg(bay_tag ORDER BY regexp_replace(bay_tag, '\d+$', ''),
+                                                substring(bay_tag FROM '\d+$')::numeric NULLS FIRST,
+                                                bay_tag) AS tags
+              FROM greenhouse_bay_tags
+              GROUP BY greenhouse_id) t
+        WHERE t.greenhouse_id = g.id;
+        DROP TABLE greenhouse_bay_tags;
+    END IF;
+
+    IF to_regclass('greenhouse_bench_tags') IS NOT NULL THEN
+        UPDATE greenhouses g
+        SET bench_tags = t.tags
+        FROM (SELECT greenhouse_id,
+                     jsonb_agg(bench_tag ORDER BY regexp_replace(bench_tag, '\d+$', ''),
+                                                  substring(bench_tag FROM '\d+$')::numeric NULLS FIRST,
+                                                  bench_tag) AS tags
+              FROM greenhouse_bench_tags
+              GROUP BY greenhouse_id) t
+        WHERE t.greenhouse_id = g.id;
+        DROP TABLE greenhouse_bench_tags;
+    END IF;
+
+    IF to_regclass('greenhouse_bays') IS NOT NULL THEN
+        UPDATE greenhouses g
+        SET bays = b.bays
+        FROM (SELECT greenhouse_id,
+                     jsonb_agg(jsonb_build_object(
+                             'bayTag', bay_tag,
+                             'bedCount', bed_count,
+                             'bedTags', COALESCE(NULLIF(bed_tags_json, '')::jsonb, '[]'::jsonb)
+                               ) ORDER BY position_index) AS bays
+              FROM greenhouse_bays
+              GROUP BY greenhouse_id) b
+        WHERE b.greenhouse_id = g.id;
+        DROP TABLE greenhouse_bays;
+    END IF;
+
+    IF to_regclass('field_block_bay_tags') IS NOT NULL THEN
+        UPDATE field_blocks f
+        SET bay_tags = t.tags
+        FROM (SELECT field_block_id,
+                     jsonb_agg(bay_tag ORDER BY regexp_replace(bay_tag, '\d+$', ''),
+                                                substring(bay_tag FROM '\d+$')::numeric NULLS FIRST,
+                                                bay_tag) AS tags
+              FROM field_block_bay_tags
+              GROUP BY field_block_id) t
+        WHERE t.field_block_id = f.id;
+        DROP TABLE field_block_bay_tags;
+    END IF;
+
+    IF to_regclass('scouting_target_bays') IS NOT NULL THEN
+        UPDATE scouting_session_targets st
+        SET bay_tags = t.tags
+        FROM (SELECT target_id,
+                     jsonb_agg(bay_tag ORDER BY regexp_replace(bay_tag, '\d+$', ''),
+                                                substring(bay_tag FROM '\d+$')::numeric NULLS FIRST,
+                                                bay_tag) AS tags
+              FROM scouting_target_bays
+              GROUP BY target_id) t
+        WHERE t.target_id = st.id;
+        DROP TABLE scouting_target_bays;
+    END IF;
+
+    IF to_regclass('scouting_target_benches') IS NOT NULL THEN
+        UPDATE scouting_session_targets st
+        SET bench_tags = t.tags
+        FROM (SELECT target_id,
+                     jsonb_agg(bench_tag ORDER BY regexp_replace(bench_tag, '\d+$', ''),
+                                                  substring(bench_tag FROM '\d+$')::numeric NULLS FIRST,
+                                                  bench_tag) AS tags
+              FROM scouting_target_benches
+              GROUP BY target_id) t
+        WHERE t.target_id = st.id;
+        DROP TABLE scouting_target_benches;
+    END IF;
+END $$;
@@ -0,0 +1,29 @@
+-- Cold storage for scouting rows moved out of the hot tables by the archival job, kept as the JSON they were served as.
+CREATE TABLE IF NOT EXISTS scouting_archive_records
+(
+    id UUID PRIMARY KEY DEFAULT public.uuid_generate_v4(),
+    version BIGINT NOT NULL DEFAULT 0,
+    record_type VARCHAR(32) NOT NULL,
+    source_id UUID NOT NULL,
+    farm_id UUID NOT NULL REFERENCES farms (id) ON DELETE CASCADE,
+    session_id UUID NOT NULL,
+    session_date DATE NOT NULL,
+    payload JSONB NOT NULL,
+    created_at TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    deleted BOOLEAN NOT NULL DEFAULT FALSE,
+    deleted_at TIMESTAMP WITH TIME ZONE,
+    sync_status VARCHAR(32) NOT NULL DEFAULT 'SYNCED',
+    CONSTRAINT uk_scouting_archive_records_source UNIQUE (record_type, source_id)
+);
+
+CREATE INDEX IF NOT EXISTS idx_scouting_archive_records_farm_type_date
+    ON scouting_archive_records (farm_id, record_type, session_date);
+
+CREATE INDEX IF NOT EXISTS idx_scouting_archive_records_session
+    ON scouting_archive_records (session_id);
+
+-- The archival job pages through soft-deleted photos oldest first; the observation tables are indexed with their
+-- partitions.
+CREATE INDEX IF NOT EXISTS idx_photo_deleted_at
+    ON scouting_photos (deleted_at) WHERE deleted;
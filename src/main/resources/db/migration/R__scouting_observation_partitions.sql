@@ -0,0 +1,379 @@
+-- Observations and observation drafts are range-partitioned by session date, one partition per month plus a default
+-- partition for anything outside the prepared months. Every row carries its session's farm and date so farm and date
+-- filters prune partitions without joining scouting_sessions.
+--
+-- PostgreSQL requires the partition key in every unique constraint, so the primary key becomes (id, session_date) and
+-- the cell and client request keys gain session_date. Both already imply the date through the session, but a client
+-- request id must stay unique on its own, so the unpartitioned scouting_client_request_keys table holds every id in
+-- use and triggers keep it in step with both tables. A foreign key cannot reference a partitioned table through id
+-- alone either, so scouting_photos.observation_id, the only foreign key into scouting_observations, is replaced by
+-- two triggers that enforce the same rule: one rejects a photo pointing at an observation that does not exist
+-- (SQLSTATE 23503, as the foreign key did) and key-share locks the observation until the photo commits, the other
+-- clears the reference when the observation is deleted, which is what the old ON DELETE SET NULL did. Any other
+-- foreign key into the table stops the conversion instead of being dropped.
+--
+-- The first run copies the existing rows into the partitioned tables; re-running is a no-op.
+
+ALTER TABLE scouting_observations
+    ADD COLUMN IF NOT EXISTS farm_id UUID,
+    ADD COLUMN IF NOT EXISTS session_date DATE;
+
+UPDATE scouting_observations o
+SET farm_id      = s.farm_id,
+    session_date = s.session_date
+FROM scouting_sessions s
+WHERE s.id = o.session_id
+  AND (o.farm_id IS NULL OR o.session_date IS NULL);
+
+ALTER TABLE scouting_observations
+    ALTER COLUMN farm_id SET NOT NULL,
+    ALTER COLUMN session_date SET NOT NULL;
+
+ALTER TABLE scouting_observation_drafts
+    ADD COLUMN IF NOT EXISTS farm_id UUID,
+    ADD COLUMN IF NOT EXISTS session_date DATE;
+
+UPDATE scouting_observation_drafts d
+SET farm_id      = s.farm_id,
+    session_date = s.session_date
+FROM scouting_sessions s
+WHERE s.id = d.session_id
+  AND (d.farm_id IS NULL OR d.session_date IS NULL);
+
+ALTER TABLE scouting_observation_drafts
+    ALTER COLUMN farm_id SET NOT NULL,
+    ALTER COLUMN session_date SET NOT NULL;
+
+-- Creates the partition of p_parent for the month containing p_month, named <parent>_pYYYY_MM. Rows of that month
+-- already in the default partition are moved into the new partition first, since PostgreSQL refuses to create a
+-- partition whose range overlaps rows held by the default. The moved rows are copied into a standalone table that is
+-- attached afterwards, so the parent's row triggers do not fire for rows that are only changing partition.
+CREATE OR REPLACE FUNCTION scouting_create_month_partition(p_parent TEXT, p_month DATE)
+    RETURNS BOOLEAN
+    LANGUAGE plpgsql
+AS
+$$
+DECLARE
+    v_start     DATE := date_trunc('month', p_month)::date;
+    v_end       DATE := (date_trunc('month', p_month) + INTERVAL '1 month')::date;
+    v_partition TEXT := p_parent || '_p' || to_char(date_trunc('month', p_month), 'YYYY_MM');
+    v_default   TEXT := p_parent || '_default';
+    v_move      BOOLEAN := FALSE;
+BEGIN
+    IF to_regclass(v_partition) IS NOT NULL THEN
+        RETURN FALSE;
+    END IF;
+
+    IF to_regclass(v_default) IS NOT NULL THEN
+        EXECUTE format('SELECT EXISTS (SELECT 1 FROM %I WHERE session_date >= %L AND session_date < %L)',
+                       v_default, v_start, v_end)
+            INTO v_move;
+    END IF;
+
+    IF NOT v_move THEN
+        EXECUTE format('CREATE TABLE %I PARTITION OF %I FOR VALUES FROM (%L) TO (%L)',
+                       v_partition, p_parent, v_start, v_end);
+        RETURN TRUE;
+    END IF;
+
+    EXECUTE format('ALTER TABLE %I DETACH PARTITION %I', p_parent, v_default);
+    EXECUTE format('CREATE TABLE %I (LIKE %I INCLUDING DEFAULTS INCLUDING CONSTRAINTS)', v_partition, p_parent);
+    EXECUTE format('INSERT INTO %I SELECT * FROM %I WHERE session_date >= %L AND session_date < %L',
+                   v_partition, v_default, v_start, v_end);
+    EXECUTE format('DELETE FROM %I WHERE session_date >= %L AND session_date < %L',
+                   v_default, v_start, v_end);
+    EXECUTE format('ALTER TABLE %I ATTACH PARTITION %I FOR VALUES FROM (%L) TO (%L)',
+                   p_parent, v_partition, v_start, v_end);
+    EXECUTE format('ALTER TABLE %I ATTACH PARTITION %I DEFAULT', p_parent, v_default);
+
+    RETURN TRUE;
+END;
+$$;
+
+-- Creates every missing monthly partition of p_parent from the month of p_from through the month of p_to and returns
+-- how many were created. Does nothing for a table that is not partitioned.
+CREATE OR REPLACE FUNCTION scouting_ensure_month_partitions(p_parent TEXT, p_from DATE, p_to DATE)
+    RETURNS INTEGER
+    LANGUAGE plpgsql
+AS
+$$
+DECLARE
+    v_month   DATE := date_trunc('month', COALESCE(p_from, CURRENT_DATE))::date;
+    v_created INTEGER := 0;
+BEGIN
+    IF NOT EXISTS (SELECT 1 FROM pg_partitioned_table WHERE partrelid = to_regclass(p_parent)) THEN
+        RETURN 0;
+    END IF;
+
+    WHILE v_month <= COALESCE(p_to, CURRENT_DATE) LOOP
+        IF scouting_create_month_partition(p_parent, v_month) THEN
+            v_created := v_created + 1;
+        END IF;
+        v_month := (v_month + INTERVAL '1 month')::date;
+    END LOOP;
+
+    RETURN v_created;
+END;
+$$;
+
+-- Detaches every monthly partition of p_parent whose month ends on or before p_before and returns the detached table
+-- names. The tables are kept; dropping or archiving them is left to the operator.
+CREATE OR REPLACE FUNCTION scouting_detach_month_partitions(p_parent TEXT, p_before DATE)
+    RETURNS SETOF TEXT
+    LANGUAGE plpgsql
+AS
+$$
+DECLARE
+    v_partition TEXT;
+BEGIN
+    IF NOT EXISTS (SELECT 1 FROM pg_partitioned_table WHERE partrelid = to_regclass(p_parent)) THEN
+        RETURN;
+    END IF;
+
+    FOR v_partition IN
+        SELECT c.relname
+        FROM pg_inherits i
+                 JOIN pg_class c ON c.oid = i.inhrelid
+        WHERE i.inhparent = to_regclass(p_parent)
+          AND c.relname ~ ('^' || p_parent || '_p[0-9]{4}_[0-9]{2}$')
+        ORDER BY c.relname
+        LOOP
+            IF (to_date(right(v_partition, 7), 'YYYY_MM') + INTERVAL '1 month')::date <= p_before THEN
+                EXECUTE format('ALTER TABLE %I DETACH PARTITION %I', p_parent, v_partition);
+                RETURN NEXT v_partition;
+            END IF;
+        END LOOP;
+END;
+$$;
+
+CREATE OR REPLACE FUNCTION clear_photo_observation_reference()
+    RETURNS TRIGGER
+    LANGUAGE plpgsql
+AS
+$$
+BEGIN
+    UPDATE scouting_photos SET observation_id = NULL WHERE observation_id = OLD.id;
+    RETURN OLD;
+END;
+$$;
+
+-- Stands in for the foreign key from scouting_photos.observation_id. The key-share lock blocks a concurrent delete of
+-- the observation until the photo's transaction ends, as the foreign key's own check did.
+CREATE OR REPLACE FUNCTION check_photo_observation_reference()
+    RETURNS TRIGGER
+    LANGUAGE plpgsql
+AS
+$$
+BEGIN
+    PERFORM 1 FROM scouting_observations WHERE id = NEW.observation_id FOR KEY SHARE;
+    IF NOT FOUND THEN
+        RAISE EXCEPTION 'scouting_photos.observation_id % does not reference an observation', NEW.observation_id
+            USING ERRCODE = 'foreign_key_violation', CONSTRAINT = 'fk_photo_observation', TABLE = 'scouting_photos';
+    END IF;
+    RETURN NEW;
+END;
+$$;
+
+DO
+$$
+DECLARE
+    v_fk RECORD;
+BEGIN
+    IF EXISTS (SELECT 1 FROM pg_partitioned_table WHERE partrelid = to_regclass('scouting_observations')) THEN
+        RETURN;
+    END IF;
+
+    FOR v_fk IN
+        SELECT conrelid::regclass AS table_name, conname
+        FROM pg_constraint
+        WHERE contype = 'f'
+          AND confrelid = to_regclass('scouting_observations')
+        LOOP
+            IF v_fk.table_name::text <> 'scouting_photos' THEN
+                RAISE EXCEPTION 'Foreign key % on % references scouting_observations and has no replacement after '
+                    'partitioning', v_fk.conname, v_fk.table_name;
+            END IF;
+            EXECUTE format('ALTER TABLE %s DROP CONSTRAINT %I', v_fk.table_name, v_fk.conname);
+        END LOOP;
+
+    ALTER TABLE scouting_observations RENAME TO scouting_observations_unpartitioned;
+
+    CREATE TABLE scouting_observations
+    (
+        LIKE scouting_observations_unpartitioned INCLUDING DEFAULTS INCLUDING CONSTRAINTS
+    ) PARTITION BY RANGE (session_date);
+
+    CREATE TABLE scouting_observations_default PARTITION OF scouting_observations DEFAULT;
+
+    PERFORM scouting_ensure_month_partitions('scouting_observations',
+                                             (SELECT min(session_date) FROM scouting_observations_unpartitioned),
+                                             (CURRENT_DATE + INTERVAL '3 months')::date);
+
+    INSERT INTO scouting_observations SELECT * FROM scouting_observations_unpartitioned;
+
+    DROP TABLE scouting_observations_unpartitioned;
+
+    ALTER TABLE scouting_observations
+        ADD CONSTRAINT scouting_observations_pkey PRIMARY KEY (id, session_date),
+        ADD CONSTRAINT uk_obs_client_request_id UNIQUE (client_request_id, session_date),
+        ADD CONSTRAINT uk_session_cell_species
+            UNIQUE (session_id, session_target_id, bay_index, bench_index, spot_index, species_identifier, session_date),
+        ADD CONSTRAINT fk_obs_session
+            FOREIGN KEY (session_id) REFERENCES scouting_sessions (id) ON DELETE CASCADE,
+        ADD CONSTRAINT fk_obs_session_target
+            FOREIGN KEY (session_target_id) REFERENCES scouting_session_targets (id) ON DELETE CASCADE,
+        ADD CONSTRAINT fk_obs_custom_species
+            FOREIGN KEY (custom_species_id) REFERENCES custom_species_definitions (id) ON DELETE SET NULL;
+
+    CREATE TRIGGER trg_obs_updated
+        BEFORE UPDATE
+        ON scouting_observations
+        FOR EACH ROW
+    EXECUTE FUNCTION update_updated_at_column();
+
+    CREATE TRIGGER trg_obs_clear_photo_reference
+        AFTER DELETE
+        ON scouting_observations
+        FOR EACH ROW
+    EXECUTE FUNCTION clear_photo_observation_reference();
+END;
+$$;
+
+DO
+$$
+BEGIN
+    IF EXISTS (SELECT 1 FROM pg_partitioned_table WHERE partrelid = to_regclass('scouting_observation_drafts')) THEN
+        RETURN;
+    END IF;
+
+    ALTER TABLE scouting_observation_drafts RENAME TO scouting_observation_drafts_unpartitioned;
+
+    CREATE TABLE scouting_observation_drafts
+    (
+        LIKE scouting_observation_drafts_unpartitioned INCLUDING DEFAULTS INCLUDING CONSTRAINTS
+    ) PARTITION BY RANGE (session_date);
+
+    CREATE TABLE scouting_observation_drafts_default PARTITION OF scouting_observation_drafts DEFAULT;
+
+    PERFORM scouting_ensure_month_partitions('scouting_observation_drafts',
+                                             (SELECT min(session_date) FROM scouting_observation_drafts_unpartitioned),
+                                             (CURRENT_DATE + INTERVAL '3 months')::date);
+
+    INSERT INTO scouting_observation_drafts SELECT * FROM scouting_observation_drafts_unpartitioned;
+
+    DROP TABLE scouting_observation_drafts_unpartitioned;
+
+    ALTER TABLE scouting_observation_drafts
+        ADD CONSTRAINT scouting_observation_drafts_pkey PRIMARY KEY (id, session_date),
+        ADD CONSTRAINT uk_obs_draft_client_request_id UNIQUE (client_request_id, session_date),
+        ADD CONSTRAINT uk_session_draft_cell_species
+            UNIQUE (session_id, session_target_id, bay_index, bench_index, spot_index, species_identifier, session_date),
+        ADD CONSTRAINT fk_obs_draft_session
+            FOREIGN KEY (session_id) REFERENCES scouting_sessions (id) ON DELETE CASCADE,
+        ADD CONSTRAINT fk_obs_draft_session_target
+            FOREIGN KEY (session_target_id) REFERENCES scouting_session_targets (id) ON DELETE CASCADE,
+        ADD CONSTRAINT fk_obs_draft_custom_species
+            FOREIGN KEY (custom_species_id) REFERENCES custom_species_definitions (id);
+END;
+$$;
+
+CREATE TABLE IF NOT EXISTS scouting_client_request_keys
+(
+    table_name        VARCHAR(64) NOT NULL,
+    client_request_id UUID        NOT NULL,
+    row_id            UUID        NOT NULL,
+    CONSTRAINT pk_scouting_client_request_keys PRIMARY KEY (table_name, client_request_id)
+);
+
+-- Claims NEW.client_request_id for the table named by the first trigger argument and releases OLD's. A row moved to
+-- another partition by a session date change fires the delete and insert triggers, which release and reclaim its id.
+CREATE OR REPLACE FUNCTION scouting_track_client_request_key()
+    RETURNS TRIGGER
+    LANGUAGE plpgsql
+AS
+$$
+BEGIN
+    IF TG_OP IN ('UPDATE', 'DELETE') AND OLD.client_request_id IS NOT NULL THEN
+        DELETE
+        FROM scouting_client_request_keys
+        WHERE table_name = TG_ARGV[0]
+          AND client_request_id = OLD.client_request_id
+          AND row_id = OLD.id;
+    END IF;
+    IF TG_OP IN ('INSERT', 'UPDATE') AND NEW.client_request_id IS NOT NULL THEN
+        INSERT INTO scouting_client_request_keys (table_name, client_request_id, row_id)
+        VALUES (TG_ARGV[0], NEW.client_request_id, NEW.id);
+    END IF;
+    RETURN NULL;
+END;
+$$;
+
+INSERT INTO scouting_client_request_keys (table_name, client_request_id, row_id)
+SELECT 'scouting_observations', client_request_id, id
+FROM scouting_observations
+WHERE client_request_id IS NOT NULL
+ON CONFLICT DO NOTHING;
+
+INSERT INTO scouting_client_request_keys (table_name, client_request_id, row_id)
+SELECT 'scouting_observation_drafts', client_request_id, id
+FROM scouting_observation_drafts
+WHERE client_request_id IS NOT NULL
+ON CONFLICT DO NOTHING;
+
+DROP TRIGGER IF EXISTS trg_obs_client_request_key ON scouting_observations;
+CREATE TRIGGER trg_obs_client_request_key
+    AFTER INSERT OR DELETE
+    ON scouting_observations
+    FOR EACH ROW
+EXECUTE FUNCTION scouting_track_client_request_key('scouting_observations');
+
+DROP TRIGGER IF EXISTS trg_obs_client_request_key_update ON scouting_observations;
+CREATE TRIGGER trg_obs_client_request_key_update
+    AFTER UPDATE OF client_request_id
+    ON scouting_observations
+    FOR EACH ROW
+    WHEN (OLD.client_request_id IS DISTINCT FROM NEW.client_request_id)
+EXECUTE FUNCTION scouting_track_client_request_key('scouting_observations');
+
+DROP TRIGGER IF EXISTS trg_obs_draft_client_request_key ON scouting_observation_drafts;
+CREATE TRIGGER trg_obs_draft_client_request_key
+    AFTER INSERT OR DELETE
+    ON scouting_observation_drafts
+    FOR EACH ROW
+EXECUTE FUNCTION scouting_track_client_request_key('scouting_observation_drafts');
+
+DROP TRIGGER IF EXISTS trg_obs_draft_client_request_key_update ON scouting_observation_drafts;
+CREATE TRIGGER trg_obs_draft_client_request_key_update
+    AFTER UPDATE OF client_request_id
+    ON scouting_observation_drafts
+    FOR EACH ROW
+    WHEN (OLD.client_request_id IS DISTINCT FROM NEW.client_request_id)
+EXECUTE FUNCTION scouting_track_client_request_key('scouting_observation_drafts');
+
+CREATE INDEX IF NOT EXISTS idx_obs_session ON scouting_observations (session_id);
+CREATE INDEX IF NOT EXISTS idx_obs_species ON scouting_observations (species_code);
+CREATE INDEX IF NOT EXISTS idx_obs_custom_species ON scouting_observations (custom_species_id);
+CREATE INDEX IF NOT EXISTS idx_scouting_observations_local_id ON scouting_observations (local_observation_id);
+CREATE INDEX IF NOT EXISTS idx_scouting_observations_farm_date ON scouting_observations (farm_id, session_date);
+-- The archival job pages through soft-deleted rows oldest first.
+CREATE INDEX IF NOT EXISTS idx_obs_deleted_at ON scouting_observations (deleted_at) WHERE deleted;
+
+CREATE INDEX IF NOT EXISTS idx_scouting_observation_drafts_session ON scouting_observation_drafts (session_id);
+CREATE INDEX IF NOT EXISTS idx_scouting_observation_drafts_custom_species
+    ON scouting_observation_drafts (custom_species_id);
+CREATE INDEX IF NOT EXISTS idx_scouting_observation_drafts_local_id
+    ON scouting_observation_drafts (local_observation_id);
+CREATE INDEX IF NOT EXISTS idx_scouting_observation_drafts_farm_date
+    ON scouting_observation_drafts (farm_id, session_date);
+CREATE INDEX IF NOT EXISTS idx_scouting_observation_drafts_deleted_at
+    ON scouting_observation_drafts (deleted_at) WHERE deleted;
+
+DROP TRIGGER IF EXISTS trg_photo_check_observation ON scouting_photos;
+CREATE TRIGGER trg_photo_check_observation
+    BEFORE INSERT OR UPDATE OF observation_id
+    ON scouting_photos
+    FOR EACH ROW
+    WHEN (NEW.observation_id IS NOT NULL)
+EXECUTE FUNCTION check_photo_observation_reference();
+
+CREATE INDEX IF NOT EXISTS idx_photo_observation ON scouting_photos (observation_id);
@@ -0,0 +1,100 @@
+CREATE TABLE IF NOT EXISTS photo_analysis_accuracy_counters
+(
+    id UUID PRIMARY KEY DEFAULT public.uuid_generate_v4(),
+    version BIGINT NOT NULL DEFAULT 0,
+    farm_id UUID NOT NULL REFERENCES farms (id) ON DELETE CASCADE,
+    scope VARCHAR(16) NOT NULL,
+    scope_key VARCHAR(64) NOT NULL DEFAULT '',
+    total_analyses BIGINT NOT NULL DEFAULT 0,
+    pending_review_count BIGINT NOT NULL DEFAULT 0,
+    reviewed_count BIGINT NOT NULL DEFAULT 0,
+    exact_match_count BIGINT NOT NULL DEFAULT 0,
+    corrected_count BIGINT NOT NULL DEFAULT 0,
+    confidence_sum NUMERIC(14, 2) NOT NULL DEFAULT 0,
+    confidence_count BIGINT NOT NULL DEFAULT 0,
+    created_at TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    deleted BOOLEAN NOT NULL DEFAULT FALSE,
+    deleted_at TIMESTAMP WITH TIME ZONE,
+    sync_status VARCHAR(32) NOT NULL DEFAULT 'SYNCED',
+    CONSTRAINT uk_photo_analysis_accuracy_scope UNIQUE (farm_id, scope, scope_key)
+);
+
+-- Seed existing analyses the same way PhotoAnalysisAccuracyService.rebuild derives them, so the incremental updates
+-- after deploy start from the real totals instead of a zero row.
+INSERT INTO photo_analysis_accuracy_counters (farm_id, scope, scope_key, total_analyses, pending_review_count,
+                                              reviewed_count, exact_match_count, corrected_count, confidence_sum,
+                                              confidence_count)
+SELECT a.farm_id,
+       'FARM',
+       '',
+       COUNT(*),
+       COUNT(*) FILTER (WHERE a.review_status = 'PENDING_REVIEW'),
+       COUNT(*) FILTER (WHERE a.review_status IN ('CONFIRMED', 'CORRECTED')),
+       COUNT(*) FILTER (WHERE a.review_status IN ('CONFIRMED', 'CORRECTED')
+           AND a.predicted_species_code = a.reviewed_species_code),
+       COUNT(*) FILTER (WHERE a.review_status = 'CORRECTED'),
+       COALESCE(SUM(a.predicted_confidence) FILTER (WHERE a.review_status IN ('CONFIRMED', 'CORRECTED')), 0),
+       COUNT(a.predicted_confidence) FILTER (WHERE a.review_status IN ('CONFIRMED', 'CORRECTED'))
+FROM scouting_photo_analyses a
+GROUP BY a.farm_id
+ON CONFLICT (farm_id, scope, scope_key) DO NOTHING;
+
+INSERT INTO photo_analysis_accuracy_counters (farm_id, scope, scope_key, reviewed_count, exact_match_count)
+SELECT a.farm_id,
+       'SPECIES',
+       a.reviewed_species_code,
+       COUNT(*),
+       COUNT(*) FILTER (WHERE a.predicted_species_code = a.reviewed_species_code)
+FROM scouting_photo_analyses a
+WHERE a.review_status IN ('CONFIRMED', 'CORRECTED')
+  AND a.reviewed_species_code IS NOT NULL
+GROUP BY a.farm_id, a.reviewed_species_code
+ON CONFLICT (farm_id, scope, scope_key) DO NOTHING;
+
+-- A reviewed photo counts for its session's scout when it is pinned to a cell, and matches when the scout recorded
+-- the reviewed species in that cell. As in PhotoAnalysisAccuracyService.PhotoCell, the linked observation's cell is
+-- used only when all of its fields are set, otherwise the photo's own cell as a whole; cells are never mixed field by
+-- field. Like the service, soft-deleted analyses, photos and observations are not filtered out, so the seed agrees
+-- with the counts the service keeps incrementally.
+WITH reviewed_cells AS (SELECT a.farm_id,
+                               s.scout_id,
+                               a.reviewed_species_code,
+                               CASE WHEN oc.complete THEN o.session_id ELSE p.session_id END               AS session_id,
+                               CASE WHEN oc.complete THEN o.session_target_id ELSE p.session_target_id END AS session_target_id,
+                               CASE WHEN oc.complete THEN o.bay_index ELSE p.bay_index END                 AS bay_index,
+                               CASE WHEN oc.complete THEN o.bench_index ELSE p.bench_index END             AS bench_index,
+                               CASE WHEN oc.complete THEN o.spot_index ELSE p.spot_index END               AS spot_index
+                        FROM scouting_photo_analyses a
+                                 JOIN scouting_photos p ON p.id = a.photo_id
+                                 JOIN scouting_sessions s ON s.id = p.session_id
+                                 LEFT JOIN scouting_observations o ON o.id = p.observation_id
+                                 CROSS JOIN LATERAL (SELECT o.session_id IS NOT NULL
+                                                                AND o.session_target_id IS NOT NULL
+                                                                AND o.bay_index IS NOT NULL
+                                                                AND o.bench_index IS NOT NULL
+                                                                AND o.spot_index IS NOT NULL AS complete) oc
+                        WHERE a.review_status IN ('CONFIRMED', 'CORRECTED')
+                          AND a.reviewed_species_code IS NOT NULL
+                          AND s.scout_id IS NOT NULL)
+INSERT
+INTO photo_analysis_accuracy_counters (farm_id, scope, scope_key, reviewed_count, exact_match_count)
+SELECT c.farm_id,
+       'SCOUT',
+       c.scout_id::text,
+       COUNT(*),
+       COUNT(*) FILTER (WHERE EXISTS (SELECT 1
+                                      FROM scouting_observations m
+                                      WHERE m.session_id = c.session_id
+                                        AND m.session_target_id = c.session_target_id
+                                        AND m.bay_index = c.bay_index
+                                        AND m.bench_index = c.bench_index
+                                        AND m.spot_index = c.spot_index
+                                        AND m.species_code = c.reviewed_species_code))
+FROM reviewed_cells c
+WHERE c.session_target_id IS NOT NULL
+  AND c.bay_index IS NOT NULL
+  AND c.bench_index IS NOT NULL
+  AND c.spot_index IS NOT NULL
+GROUP BY c.farm_id, c.scout_id
+ON CONFLICT (farm_id, scope, scope_key) DO NOTHING;
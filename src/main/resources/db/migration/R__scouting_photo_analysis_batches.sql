@@ -0,0 +1,28 @@
+CREATE TABLE IF NOT EXISTS photo_analysis_batch_jobs
+(
+    id UUID PRIMARY KEY DEFAULT public.uuid_generate_v4(),
+    version BIGINT NOT NULL DEFAULT 0,
+    farm_id UUID NOT NULL REFERENCES farms (id) ON DELETE CASCADE,
+    session_id UUID REFERENCES scouting_sessions (id) ON DELETE CASCADE,
+    from_date DATE,
+    to_date DATE,
+    requested_by UUID,
+    status VARCHAR(32) NOT NULL DEFAULT 'QUEUED',
+    total_photos BIGINT NOT NULL DEFAULT 0,
+    processed_photos BIGINT NOT NULL DEFAULT 0,
+    failed_sessions INTEGER NOT NULL DEFAULT 0,
+    last_error VARCHAR(500),
+    started_at TIMESTAMP WITH TIME ZONE,
+    completed_at TIMESTAMP WITH TIME ZONE,
+    created_at TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    deleted BOOLEAN NOT NULL DEFAULT FALSE,
+    deleted_at TIMESTAMP WITH TIME ZONE,
+    sync_status VARCHAR(32) NOT NULL DEFAULT 'SYNCED'
+);
+
+CREATE INDEX IF NOT EXISTS idx_photo_analysis_batch_farm
+    ON photo_analysis_batch_jobs (farm_id);
+
+CREATE INDEX IF NOT EXISTS idx_photo_analysis_batch_status
+    ON photo_analysis_batch_jobs (status, updated_at);
@@ -0,0 +1,56 @@
+-- content_length comes from R__scouting_photo_blob_store.sql, which runs after this script on a new database.
+ALTER TABLE scouting_photos
+    ADD COLUMN IF NOT EXISTS content_hash VARCHAR(64),
+    ADD COLUMN IF NOT EXISTS content_length BIGINT;
+
+CREATE INDEX IF NOT EXISTS idx_photo_farm_content_hash
+    ON scouting_photos (farm_id, content_hash);
+
+CREATE TABLE IF NOT EXISTS photo_blobs
+(
+    id UUID PRIMARY KEY DEFAULT public.uuid_generate_v4(),
+    version BIGINT NOT NULL DEFAULT 0,
+    content_hash VARCHAR(64) NOT NULL,
+    size_bytes BIGINT NOT NULL DEFAULT 0,
+    reference_count BIGINT NOT NULL DEFAULT 0,
+    unreferenced_since TIMESTAMP WITH TIME ZONE,
+    created_at TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    deleted BOOLEAN NOT NULL DEFAULT FALSE,
+    deleted_at TIMESTAMP WITH TIME ZONE,
+    sync_status VARCHAR(32) NOT NULL DEFAULT 'SYNCED',
+    CONSTRAINT uk_photo_blobs_content_hash UNIQUE (content_hash)
+);
+
+-- Tables created before unreferenced_since carried a time zone; existing values are read in the session time zone,
+-- which is how the application wrote them.
+DO $$
+BEGIN
+    IF EXISTS (SELECT 1
+               FROM information_schema.columns
+               WHERE table_name = 'photo_blobs'
+                 AND column_name = 'unreferenced_since'
+                 AND data_type = 'timestamp without time zone') THEN
+        ALTER TABLE photo_blobs
+            ALTER COLUMN unreferenced_since TYPE TIMESTAMP WITH TIME ZONE;
+    END IF;
+END $$;
+
+CREATE INDEX IF NOT EXISTS idx_photo_blobs_unreferenced
+    ON photo_blobs (unreferenced_since);
+
+-- Photos uploaded through the local blob store before hashes were tracked already use the hash as their key.
+UPDATE scouting_photos
+SET content_hash = object_key
+WHERE content_hash IS NULL
+  AND deleted = FALSE
+  AND content_length IS NOT NULL
+  AND object_key ~ '^[0-9a-f]{64}$';
+
+INSERT INTO photo_blobs (content_hash, size_bytes, reference_count)
+SELECT content_hash, MAX(content_length), COUNT(*)
+FROM scouting_photos
+WHERE content_hash IS NOT NULL
+  AND deleted = FALSE
+GROUP BY content_hash
+ON CONFLICT (content_hash) DO NOTHING;
@@ -0,0 +1,5 @@
+ALTER TABLE scouting_photos
+    ADD COLUMN IF NOT EXISTS content_type VARCHAR (100);
+
+ALTER TABLE scouting_photos
+    ADD COLUMN IF NOT EXISTS content_length BIGINT;
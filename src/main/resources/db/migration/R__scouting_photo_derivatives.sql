@@ -0,0 +1,25 @@
+ALTER TABLE scouting_photos
+    ADD COLUMN IF NOT EXISTS derivatives_generated_at TIMESTAMP WITH TIME ZONE;
+
+CREATE TABLE IF NOT EXISTS photo_derivative_jobs
+(
+    id UUID PRIMARY KEY DEFAULT public.uuid_generate_v4(),
+    version BIGINT NOT NULL DEFAULT 0,
+    photo_id UUID NOT NULL REFERENCES scouting_photos (id) ON DELETE CASCADE,
+    blob_key VARCHAR(64) NOT NULL,
+    status VARCHAR(32) NOT NULL DEFAULT 'PENDING',
+    attempts INTEGER NOT NULL DEFAULT 0,
+    last_error VARCHAR(500),
+    completed_at TIMESTAMP WITH TIME ZONE,
+    created_at TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    deleted BOOLEAN NOT NULL DEFAULT FALSE,
+    deleted_at TIMESTAMP WITH TIME ZONE,
+    sync_status VARCHAR(32) NOT NULL DEFAULT 'SYNCED'
+);
+
+CREATE INDEX IF NOT EXISTS idx_photo_derivative_jobs_status
+    ON photo_derivative_jobs (status, updated_at);
+
+CREATE INDEX IF NOT EXISTS idx_photo_derivative_jobs_photo
+    ON photo_derivative_jobs (photo_id);
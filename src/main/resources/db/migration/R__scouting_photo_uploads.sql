@@ -0,0 +1,49 @@
+CREATE TABLE IF NOT EXISTS photo_uploads
+(
+    id UUID PRIMARY KEY DEFAULT public.uuid_generate_v4(),
+    version BIGINT NOT NULL DEFAULT 0,
+    farm_id UUID NOT NULL REFERENCES farms (id) ON DELETE CASCADE,
+    session_id UUID NOT NULL,
+    photo_id UUID NOT NULL,
+    local_photo_id VARCHAR(100) NOT NULL,
+    content_type VARCHAR(100) NOT NULL,
+    total_bytes BIGINT NOT NULL,
+    received_bytes BIGINT NOT NULL DEFAULT 0,
+    content_sha256 VARCHAR(64) NOT NULL,
+    status VARCHAR(32) NOT NULL DEFAULT 'OPEN',
+    expires_at TIMESTAMP WITH TIME ZONE NOT NULL,
+    completed_at TIMESTAMP WITH TIME ZONE,
+    created_at TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    deleted BOOLEAN NOT NULL DEFAULT FALSE,
+    deleted_at TIMESTAMP WITH TIME ZONE,
+    sync_status VARCHAR(32) NOT NULL DEFAULT 'SYNCED'
+);
+
+-- Tables created before expires_at and completed_at carried a time zone; existing values are read in the session
+-- time zone, which is how the application wrote them.
+DO $$
+BEGIN
+    IF EXISTS (SELECT 1
+               FROM information_schema.columns
+               WHERE table_name = 'photo_uploads'
+                 AND column_name = 'expires_at'
+                 AND data_type = 'timestamp without time zone') THEN
+        ALTER TABLE photo_uploads
+            ALTER COLUMN expires_at TYPE TIMESTAMP WITH TIME ZONE;
+    END IF;
+    IF EXISTS (SELECT 1
+               FROM information_schema.columns
+               WHERE table_name = 'photo_uploads'
+                 AND column_name = 'completed_at'
+                 AND data_type = 'timestamp without time zone') THEN
+        ALTER TABLE photo_uploads
+            ALTER COLUMN completed_at TYPE TIMESTAMP WITH TIME ZONE;
+    END IF;
+END $$;
+
+CREATE INDEX IF NOT EXISTS idx_photo_uploads_local_photo
+    ON photo_uploads (local_photo_id, status);
+
+CREATE INDEX IF NOT EXISTS idx_photo_uploads_expiry
+    ON photo_uploads (status, expires_at);
@@ -0,0 +1,7 @@
+-- Serves session lists newest first and their keyset pagination on (session_date, id).
+CREATE INDEX IF NOT EXISTS idx_scouting_sessions_farm_date_id
+    ON scouting_sessions (farm_id, session_date DESC, id DESC);
+
+-- The super admin list spans every farm, so it cannot use the farm-leading index above.
+CREATE INDEX IF NOT EXISTS idx_scouting_sessions_date_id
+    ON scouting_sessions (session_date DESC, id DESC);
@@ -0,0 +1,35 @@
+CREATE TABLE IF NOT EXISTS client_session_events
+(
+    id UUID PRIMARY KEY DEFAULT public.uuid_generate_v4(),
+    version BIGINT NOT NULL DEFAULT 0,
+    user_id UUID NOT NULL,
+    event_type VARCHAR(64) NOT NULL,
+    client_session_id VARCHAR(128) NOT NULL,
+    active_client_session_id VARCHAR(128),
+    origin_node_id VARCHAR(128) NOT NULL,
+    occurred_at TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    created_at TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    deleted BOOLEAN NOT NULL DEFAULT FALSE,
+    deleted_at TIMESTAMP WITH TIME ZONE,
+    sync_status VARCHAR(32) NOT NULL DEFAULT 'SYNCED'
+);
+
+CREATE INDEX IF NOT EXISTS idx_client_session_events_occurred_at
+    ON client_session_events (occurred_at);
+
+-- Relays read the outbox in the order rows were inserted, which the database numbers itself, instead of by the clock
+-- of the node that wrote them.
+ALTER TABLE client_session_events
+    ADD COLUMN IF NOT EXISTS sequence_number BIGINT GENERATED ALWAYS AS IDENTITY;
+
+CREATE INDEX IF NOT EXISTS idx_client_session_events_sequence
+    ON client_session_events (sequence_number);
+
+-- notify_cluster_outbox() is defined with the cache invalidation outbox, which migrates first.
+DROP TRIGGER IF EXISTS trg_client_session_events_notify ON client_session_events;
+CREATE TRIGGER trg_client_session_events_notify
+    AFTER INSERT
+    ON client_session_events
+    FOR EACH STATEMENT
+EXECUTE FUNCTION notify_cluster_outbox();
@@ -7,6 +7,7 @@ import mofo.com.pestscout.auth.model.Role;
 import mofo.com.pestscout.auth.model.User;
 import mofo.com.pestscout.auth.repository.PasswordResetTokenRepository;
 import mofo.com.pestscout.auth.repository.UserRepository;
+import mofo.com.pestscout.common.persistence.QueryBudget;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
@@ -87,6 +88,33 @@ class AuthIntegrationTest {
                 .andExpect(jsonPath("$.user.role").value(Role.MANAGER.name()));
     }
 
+    @Test
+    void loginStaysWithinQueryBudget() throws Exception {
+        String uniqueEmail = "budget+" + UUID.randomUUID() + "@example.com";
+
+        RegisterRequest registerRequest = RegisterRequest.builder()
+                .email(uniqueEmail)
+                .password("password123")
+                .firstName("Budget")
+                .lastName("Tester")
+                .phoneNumber("555-0103")
+                .country("Kenya")
+                .role(Role.MANAGER)
+                .build();
+
+        mockMvc.perform(post("/api/auth/register")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(registerRequest)))
+                .andExpect(status().isCreated());
+
+        LoginRequest loginRequest = new LoginRequest(uniqueEmail, "password123");
+
+        QueryBudget.assertMaxStatements(10, () -> mockMvc.perform(post("/api/auth/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(loginRequest)))
+                .andExpect(status().isOk()));
+    }
+
     @Test
     void registerRejectsCaseInsensitiveDuplicateEmail() throws Exception {
         String uniqueEmail = "integration+" + UUID.randomUUID() + "@example.com";
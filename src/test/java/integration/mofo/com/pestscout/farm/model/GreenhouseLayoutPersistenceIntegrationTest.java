@@ -0,0 +1,86 @@
+package integration.mofo.com.pestscout.farm.model;
+
+import jakarta.persistence.EntityManager;
+import mofo.com.pestscout.PestscoutApplication;
+import mofo.com.pestscout.common.persistence.QueryBudget;
+import mofo.com.pestscout.common.persistence.QueryStatistics;
+import mofo.com.pestscout.farm.model.*;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(classes = PestscoutApplication.class)
+@ActiveProfiles("test")
+@Transactional
+class GreenhouseLayoutPersistenceIntegrationTest {
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Test
+    void layoutLoadsAndSavesWithTheGreenhouseRow() throws Exception {
+        Greenhouse greenhouse = Greenhouse.builder()
+                .farm(persistFarm())
+                .name("House 1")
+                .bayTags(new ArrayList<>(List.of("B1", "B2")))
+                .benchTags(new ArrayList<>(List.of("Bed 1")))
+                .bays(new ArrayList<>(List.of(
+                        GreenhouseBayDefinition.builder().bayTag("B1").bedCount(2).bedTags(List.of("N", "S")).build(),
+                        GreenhouseBayDefinition.builder().bayTag("B2").bedCount(1).build()
+                )))
+                .build();
+        entityManager.persist(greenhouse);
+        entityManager.flush();
+        entityManager.clear();
+        entityManager.getEntityManagerFactory().getCache().evictAll();
+
+        Greenhouse[] loaded = new Greenhouse[1];
+        QueryStatistics.Snapshot load = QueryBudget.measure(() -> {
+            loaded[0] = entityManager.find(Greenhouse.class, greenhouse.getId());
+            assertThat(loaded[0].getBayTags()).containsExactly("B1", "B2");
+            assertThat(loaded[0].getBenchTags()).containsExactly("Bed 1");
+            assertThat(loaded[0].getBays()).extracting(GreenhouseBayDefinition::getBayTag).containsExactly("B1", "B2");
+            assertThat(loaded[0].getBays().get(0).getBedTags()).containsExactly("N", "S");
+        });
+        assertThat(load.statements()).isEqualTo(1);
+
+        QueryStatistics.Snapshot save = QueryBudget.measure(() -> {
+            List<GreenhouseBayDefinition> bays = new ArrayList<>(loaded[0].getBays());
+            bays.add(GreenhouseBayDefinition.builder().bayTag("B3").bedCount(4).build());
+            loaded[0].setBays(bays);
+            loaded[0].setBayTags(new ArrayList<>(List.of("B1", "B2", "B3")));
+            entityManager.flush();
+        });
+        assertThat(save.statements()).isEqualTo(1);
+
+        entityManager.clear();
+        entityManager.getEntityManagerFactory().getCache().evictAll();
+        Greenhouse reloaded = entityManager.find(Greenhouse.class, greenhouse.getId());
+        assertThat(reloaded.getBays()).extracting(GreenhouseBayDefinition::getBayTag).containsExactly("B1", "B2", "B3");
+        assertThat(reloaded.getBayTags()).containsExactly("B1", "B2", "B3");
+    }
+
+    private Farm persistFarm() {
+        Farm farm = Farm.builder()
+                .name("Layout Farm")
+                .slug("layout-farm-" + UUID.randomUUID())
+                .subscriptionStatus(SubscriptionStatus.ACTIVE)
+                .subscriptionTier(SubscriptionTier.BASIC)
+                .licenseType(LicenseType.TRIAL)
+                .licenseExtensionMonths(0)
+                .licensedAreaHectares(BigDecimal.TEN)
+                .structureType(FarmStructureType.GREENHOUSE)
+                .build();
+        entityManager.persist(farm);
+        return farm;
+    }
+}
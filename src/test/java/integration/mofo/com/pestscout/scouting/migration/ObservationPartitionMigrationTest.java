@@ -0,0 +1,292 @@
+package integration.mofo.com.pestscout.scouting.migration;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.*;
+import java.time.LocalDate;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Runs the Flyway migrations against a real PostgreSQL, which the H2 test profile cannot stand in for: repeatable
+ * migration ordering on an empty database, the one-off conversion of populated observation tables into partitioned
+ * ones, and a second run of that conversion.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+class ObservationPartitionMigrationTest {
+
+    private static final String PARTITION_MIGRATION = "R__scouting_observation_partitions.sql";
+
+    @Container
+    private static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @TempDir
+    Path migrations;
+
+    @Test
+    void migratesAnEmptyDatabase() throws Exception {
+        String url = createDatabase("fresh");
+        copyMigrations(true);
+
+        flyway(url).migrate();
+
+        try (Connection connection = connect(url)) {
+            assertThat(isPartitioned(connection, "scouting_observations")).isTrue();
+            assertThat(isPartitioned(connection, "scouting_observation_drafts")).isTrue();
+            assertThat(count(connection, "select count(*) from information_schema.tables where table_name in "
+                    + "('export_jobs', 'farm_comparison_stats', 'farm_weekly_analytics', 'cache_invalidation_events')"))
+                    .isEqualTo(4);
+            assertThat(count(connection, "select count(*) from pg_indexes where indexname = 'idx_scouting_sessions_date_id'"))
+                    .isEqualTo(1);
+            assertThat(single(connection, "select data_type from information_schema.columns "
+                    + "where table_name = 'photo_blobs' and column_name = ?", "unreferenced_since"))
+                    .isEqualTo("timestamp with time zone");
+        }
+    }
+
+    @Test
+    void convertsPopulatedTablesAndKeepsClientRequestIdsUnique() throws Exception {
+        String url = createDatabase("populated");
+        copyMigrations(false);
+        flyway(url).migrate();
+
+        UUID farmId = UUID.randomUUID();
+        UUID sessionId = UUID.randomUUID();
+        UUID otherSessionId = UUID.randomUUID();
+        UUID targetId = UUID.randomUUID();
+        UUID otherTargetId = UUID.randomUUID();
+        UUID observationId = UUID.randomUUID();
+        UUID photoId = UUID.randomUUID();
+        UUID draftId = UUID.randomUUID();
+        UUID requestId = UUID.randomUUID();
+        try (Connection connection = connect(url)) {
+            UUID greenhouseId = UUID.randomUUID();
+            execute(connection, """
+                    insert into farms (id, farm_tag, name, external_id, slug, subscription_status, subscription_tier,
+                                       licensed_area_hectares, structure_type)
+                    values (?, 'PART-1', 'Partition Farm', ?, 'partition-farm', 'ACTIVE', 'BASIC', 10, 'GREENHOUSE')
+                    """, farmId, farmId.toString());
+            execute(connection, "insert into greenhouses (id, farm_id, name) values (?, ?, 'House 1')",
+                    greenhouseId, farmId);
+            execute(connection, "insert into scouting_sessions (id, farm_id, session_date) values (?, ?, ?)",
+                    sessionId, farmId, Date.valueOf(LocalDate.of(2024, 3, 6)));
+            execute(connection, "insert into scouting_sessions (id, farm_id, session_date) values (?, ?, ?)",
+                    otherSessionId, farmId, Date.valueOf(LocalDate.of(2024, 5, 6)));
+            execute(connection, "insert into scouting_session_targets (id, session_id, greenhouse_id) values (?, ?, ?)",
+                    targetId, sessionId, greenhouseId);
+            execute(connection, "insert into scouting_session_targets (id, session_id, greenhouse_id) values (?, ?, ?)",
+                    otherTargetId, otherSessionId, greenhouseId);
+            execute(connection, """
+                    insert into scouting_observations (id, session_id, session_target_id, species_code,
+                                                       species_identifier, observation_type, lifecycle_status,
+                                                       bay_index, bench_index, spot_index, count_value,
+                                                       client_request_id)
+                    values (?, ?, ?, 'THRIPS', 'THRIPS', 'SUSPECTED_PEST', 'SYNCED', 1, 1, 1, 4, ?)
+                    """, observationId, sessionId, targetId, requestId);
+            execute(connection, """
+                    insert into scouting_photos (id, session_id, observation_id, farm_id, local_photo_id)
+                    values (?, ?, ?, ?, 'photo-1')
+                    """, photoId, sessionId, observationId, farmId);
+            execute(connection, """
+                    insert into scouting_observation_drafts (id, created_at, sync_status, session_id,
+                                                             session_target_id, species_code, species_identifier,
+                                                             observation_type, lifecycle_status, bay_index,
+                                                             bench_index, spot_index, count_value, client_request_id)
+                    values (?, now(), 'PENDING_UPLOAD', ?, ?, 'THRIPS', 'THRIPS', 'SUSPECTED_PEST', 'DRAFT', 1, 1,
+                            1, 4, ?)
+                    """, draftId, sessionId, targetId, requestId);
+        }
+
+        copyPartitionMigration();
+        flyway(url).migrate();
+
+        try (Connection connection = connect(url)) {
+            assertThat(isPartitioned(connection, "scouting_observations")).isTrue();
+            assertThat(isPartitioned(connection, "scouting_observation_drafts")).isTrue();
+            assertThat(single(connection, "select tableoid::regclass::text from scouting_observations where id = ?",
+                    observationId)).isEqualTo("scouting_observations_p2024_03");
+            assertThat(single(connection, "select farm_id::text from scouting_observation_drafts where id = ?",
+                    draftId)).isEqualTo(farmId.toString());
+            assertThat(count(connection, "select count(*) from scouting_client_request_keys")).isEqualTo(2);
+
+            // A retried draft carrying the same client request id must not land in another session's partition.
+            assertThatThrownBy(() -> execute(connection, """
+                    insert into scouting_observation_drafts (id, created_at, sync_status, session_id,
+                                                             session_target_id, species_code, species_identifier,
+                                                             observation_type, lifecycle_status, bay_index,
+                                                             bench_index, spot_index, count_value, session_date,
+                                                             farm_id, client_request_id)
+                    values (?, now(), 'PENDING_UPLOAD', ?, ?, 'THRIPS', 'THRIPS', 'SUSPECTED_PEST', 'DRAFT', 1, 1,
+                            1, 4, ?, ?, ?)
+                    """, UUID.randomUUID(), otherSessionId, otherTargetId, Date.valueOf(LocalDate.of(2024, 5, 6)),
+                    farmId, requestId))
+                    .isInstanceOf(SQLException.class)
+                    .hasMessageContaining("pk_scouting_client_request_keys");
+
+            // Moving the draft to another month's partition keeps its id claimed exactly once.
+            execute(connection, "update scouting_observation_drafts set session_date = ? where id = ?",
+                    Date.valueOf(LocalDate.of(2024, 5, 6)), draftId);
+            assertThat(count(connection, "select count(*) from scouting_client_request_keys "
+                    + "where table_name = 'scouting_observation_drafts'")).isEqualTo(1);
+
+            // The photo's foreign key is gone; the trigger standing in for it rejects a dangling reference.
+            assertThatThrownBy(() -> execute(connection, """
+                    insert into scouting_photos (id, session_id, observation_id, farm_id, local_photo_id)
+                    values (?, ?, ?, ?, 'photo-2')
+                    """, UUID.randomUUID(), sessionId, UUID.randomUUID(), farmId))
+                    .isInstanceOf(SQLException.class)
+                    .satisfies(ex -> assertThat(((SQLException) ex).getSQLState()).isEqualTo("23503"));
+        }
+
+        // A second run must find the tables converted and leave rows, partitions and request keys alone.
+        long partitions;
+        try (Connection connection = connect(url)) {
+            partitions = count(connection, "select count(*) from pg_inherits "
+                    + "where inhparent = 'scouting_observations'::regclass");
+            execute(connection, "update flyway_schema_history set checksum = checksum + 1 where script = ?",
+                    PARTITION_MIGRATION);
+        }
+        flyway(url).migrate();
+        try (Connection connection = connect(url)) {
+            assertThat(count(connection, "select count(*) from flyway_schema_history where script = '"
+                    + PARTITION_MIGRATION + "' and success")).isEqualTo(2);
+            assertThat(count(connection, "select count(*) from pg_inherits "
+                    + "where inhparent = 'scouting_observations'::regclass")).isEqualTo(partitions);
+            assertThat(count(connection, "select count(*) from scouting_observations")).isEqualTo(1);
+            assertThat(count(connection, "select count(*) from scouting_client_request_keys")).isEqualTo(2);
+
+            execute(connection, "delete from scouting_observations where id = ?", observationId);
+            assertThat(single(connection, "select observation_id::text from scouting_photos where id = ?", photoId))
+                    .isNull();
+            assertThat(count(connection, "select count(*) from scouting_client_request_keys "
+                    + "where table_name = 'scouting_observations'")).isZero();
+        }
+    }
+
+    @Test
+    void preparingAMonthMovesDefaultPartitionRowsWithoutReclaimingTheirRequestIds() throws Exception {
+        String url = createDatabase("far_future");
+        copyMigrations(true);
+        flyway(url).migrate();
+
+        UUID farmId = UUID.randomUUID();
+        UUID sessionId = UUID.randomUUID();
+        UUID targetId = UUID.randomUUID();
+        UUID greenhouseId = UUID.randomUUID();
+        LocalDate sessionDate = LocalDate.now().plusYears(2).withDayOfMonth(10);
+        try (Connection connection = connect(url)) {
+            execute(connection, """
+                    insert into farms (id, farm_tag, name, external_id, slug, subscription_status, subscription_tier,
+                                       licensed_area_hectares, structure_type)
+                    values (?, 'PART-2', 'Future Farm', ?, 'future-farm', 'ACTIVE', 'BASIC', 10, 'GREENHOUSE')
+                    """, farmId, farmId.toString());
+            execute(connection, "insert into greenhouses (id, farm_id, name) values (?, ?, 'House 1')",
+                    greenhouseId, farmId);
+            execute(connection, "insert into scouting_sessions (id, farm_id, session_date) values (?, ?, ?)",
+                    sessionId, farmId, Date.valueOf(sessionDate));
+            execute(connection, "insert into scouting_session_targets (id, session_id, greenhouse_id) values (?, ?, ?)",
+                    targetId, sessionId, greenhouseId);
+            execute(connection, """
+                    insert into scouting_observations (id, session_id, session_target_id, species_code,
+                                                       species_identifier, observation_type, lifecycle_status,
+                                                       bay_index, bench_index, spot_index, count_value,
+                                                       session_date, farm_id, client_request_id)
+                    values (?, ?, ?, 'THRIPS', 'THRIPS', 'SUSPECTED_PEST', 'SYNCED', 1, 1, 1, 4, ?, ?, ?)
+                    """, UUID.randomUUID(), sessionId, targetId, Date.valueOf(sessionDate), farmId, UUID.randomUUID());
+            assertThat(count(connection, "select count(*) from scouting_observations_default")).isEqualTo(1);
+
+            assertThat(single(connection, "select scouting_ensure_month_partitions('scouting_observations', ?, ?)",
+                    Date.valueOf(sessionDate), Date.valueOf(sessionDate))).isEqualTo("1");
+
+            assertThat(count(connection, "select count(*) from scouting_observations_default")).isZero();
+            assertThat(count(connection, "select count(*) from scouting_observations")).isEqualTo(1);
+            assertThat(count(connection, "select count(*) from scouting_client_request_keys")).isEqualTo(1);
+        }
+    }
+
+    private String createDatabase(String name) throws SQLException {
+        try (Connection connection = connect(POSTGRES.getJdbcUrl());
+             Statement statement = connection.createStatement()) {
+            statement.execute("create database " + name);
+        }
+        return POSTGRES.getJdbcUrl().replace("/" + POSTGRES.getDatabaseName(), "/" + name);
+    }
+
+    private Flyway flyway(String url) {
+        return Flyway.configure()
+                .dataSource(url, POSTGRES.getUsername(), POSTGRES.getPassword())
+                .locations("filesystem:" + migrations)
+                .load();
+    }
+
+    private void copyMigrations(boolean includePartitions) throws IOException {
+        for (Resource resource : new PathMatchingResourcePatternResolver().getResources("classpath:db/migration/*.sql")) {
+            if (includePartitions || !PARTITION_MIGRATION.equals(resource.getFilename())) {
+                copy(resource);
+            }
+        }
+    }
+
+    private void copyPartitionMigration() throws IOException {
+        copy(new PathMatchingResourcePatternResolver().getResource("classpath:db/migration/" + PARTITION_MIGRATION));
+    }
+
+    private void copy(Resource resource) throws IOException {
+        try (InputStream in = resource.getInputStream()) {
+            Files.copy(in, migrations.resolve(resource.getFilename()));
+        }
+    }
+
+    private static Connection connect(String url) throws SQLException {
+        return DriverManager.getConnection(url, POSTGRES.getUsername(), POSTGRES.getPassword());
+    }
+
+    private static boolean isPartitioned(Connection connection, String table) throws SQLException {
+        return count(connection, "select count(*) from pg_partitioned_table where partrelid = to_regclass('"
+                + table + "')") == 1;
+    }
+
+    private static void execute(Connection connection, String sql, Object... parameters) throws SQLException {
+        try (PreparedStatement statement = prepare(connection, sql, parameters)) {
+            statement.executeUpdate();
+        }
+    }
+
+    private static long count(Connection connection, String sql) throws SQLException {
+        try (PreparedStatement statement = prepare(connection, sql);
+             ResultSet rows = statement.executeQuery()) {
+            rows.next();
+            return rows.getLong(1);
+        }
+    }
+
+    private static String single(Connection connection, String sql, Object... parameters) throws SQLException {
+        try (PreparedStatement statement = prepare(connection, sql, parameters);
+             ResultSet rows = statement.executeQuery()) {
+            rows.next();
+            return rows.getString(1);
+        }
+    }
+
+    private static PreparedStatement prepare(Connection connection, String sql, Object... parameters)
+            throws SQLException {
+        PreparedStatement statement = connection.prepareStatement(sql);
+        for (int i = 0; i < parameters.length; i++) {
+            statement.setObject(i + 1, parameters[i]);
+        }
+        return statement;
+    }
+}
@@ -0,0 +1,91 @@
+package integration.mofo.com.pestscout.scouting.repository;
+
+import jakarta.persistence.EntityManager;
+import mofo.com.pestscout.PestscoutApplication;
+import mofo.com.pestscout.farm.model.*;
+import mofo.com.pestscout.scouting.dto.ScoutingSessionSummaryDto;
+import mofo.com.pestscout.scouting.model.ScoutingSession;
+import mofo.com.pestscout.scouting.model.SessionStatus;
+import mofo.com.pestscout.scouting.repository.ScoutingSessionRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Limit;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(classes = PestscoutApplication.class)
+@ActiveProfiles("test")
+@Transactional
+class ScoutingSessionSummaryQueryIntegrationTest {
+
+    private static final EnumSet<SessionStatus> ALL_STATUSES = EnumSet.allOf(SessionStatus.class);
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private ScoutingSessionRepository sessionRepository;
+
+    @Test
+    void pagesNewestFirstByKeysetAndAppliesFilters() {
+        Farm farm = persistFarm();
+        ScoutingSession oldest = persistSession(farm, LocalDate.of(2024, 1, 1), SessionStatus.COMPLETED);
+        ScoutingSession middle = persistSession(farm, LocalDate.of(2024, 2, 1), SessionStatus.DRAFT);
+        ScoutingSession newest = persistSession(farm, LocalDate.of(2024, 3, 1), SessionStatus.COMPLETED);
+        entityManager.flush();
+        entityManager.clear();
+
+        List<ScoutingSessionSummaryDto> firstPage = sessionRepository.findSummaries(
+                farm.getId(), null, ALL_STATUSES, null, null, false, null, null, Limit.of(2));
+        assertThat(firstPage).extracting(ScoutingSessionSummaryDto::id).containsExactly(newest.getId(), middle.getId());
+        assertThat(firstPage.getFirst().farmName()).isEqualTo("Listing Farm");
+
+        ScoutingSessionSummaryDto lastRow = firstPage.getLast();
+        List<ScoutingSessionSummaryDto> secondPage = sessionRepository.findSummaries(
+                farm.getId(), null, ALL_STATUSES, null, null, false, lastRow.sessionDate(), lastRow.id(), Limit.of(2));
+        assertThat(secondPage).extracting(ScoutingSessionSummaryDto::id).containsExactly(oldest.getId());
+
+        List<ScoutingSessionSummaryDto> completedInRange = sessionRepository.findSummaries(
+                farm.getId(), null, EnumSet.of(SessionStatus.COMPLETED), LocalDate.of(2024, 2, 1),
+                LocalDate.of(2024, 12, 31), false, null, null, Limit.of(10));
+        assertThat(completedInRange).extracting(ScoutingSessionSummaryDto::id).containsExactly(newest.getId());
+
+        List<ScoutingSessionSummaryDto> scoutView = sessionRepository.findSummaries(
+                farm.getId(), null, ALL_STATUSES, null, null, true, null, null, Limit.of(10));
+        assertThat(scoutView).extracting(ScoutingSessionSummaryDto::id).containsExactly(newest.getId(), oldest.getId());
+    }
+
+    private Farm persistFarm() {
+        Farm farm = Farm.builder()
+                .name("Listing Farm")
+                .slug("listing-farm-" + UUID.randomUUID())
+                .subscriptionStatus(SubscriptionStatus.ACTIVE)
+                .subscriptionTier(SubscriptionTier.BASIC)
+                .licenseType(LicenseType.TRIAL)
+                .licenseExtensionMonths(0)
+                .licensedAreaHectares(BigDecimal.TEN)
+                .structureType(FarmStructureType.GREENHOUSE)
+                .build();
+        entityManager.persist(farm);
+        return farm;
+    }
+
+    private ScoutingSession persistSession(Farm farm, LocalDate sessionDate, SessionStatus status) {
+        ScoutingSession session = ScoutingSession.builder()
+                .farm(farm)
+                .sessionDate(sessionDate)
+                .status(status)
+                .build();
+        entityManager.persist(session);
+        return session;
+    }
+}
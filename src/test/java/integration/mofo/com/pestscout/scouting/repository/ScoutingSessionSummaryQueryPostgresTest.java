@@ -0,0 +1,116 @@
+package integration.mofo.com.pestscout.scouting.repository;
+
+import jakarta.persistence.EntityManager;
+import mofo.com.pestscout.PestscoutApplication;
+import mofo.com.pestscout.farm.model.*;
+import mofo.com.pestscout.scouting.dto.ScoutingSessionSummaryDto;
+import mofo.com.pestscout.scouting.model.ScoutingSession;
+import mofo.com.pestscout.scouting.model.SessionStatus;
+import mofo.com.pestscout.scouting.repository.ScoutingSessionRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Limit;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.annotation.Transactional;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs the session list query on PostgreSQL, which rejects untyped null UUID parameters that H2 accepts.
+ */
+@SpringBootTest(classes = PestscoutApplication.class)
+@ActiveProfiles("test")
+@Testcontainers(disabledWithoutDocker = true)
+@Transactional
+class ScoutingSessionSummaryQueryPostgresTest {
+
+    private static final EnumSet<SessionStatus> ALL_STATUSES = EnumSet.allOf(SessionStatus.class);
+
+    @Container
+    private static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @DynamicPropertySource
+    static void postgres(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", POSTGRES::getJdbcUrl);
+        registry.add("spring.datasource.username", POSTGRES::getUsername);
+        registry.add("spring.datasource.password", POSTGRES::getPassword);
+        registry.add("spring.datasource.driver-class-name", POSTGRES::getDriverClassName);
+        registry.add("spring.jpa.properties.hibernate.dialect", () -> "org.hibernate.dialect.PostgreSQLDialect");
+    }
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private ScoutingSessionRepository sessionRepository;
+
+    @Test
+    void listsAcrossFarmsAndPagesByKeysetWithoutOptionalFilters() {
+        Farm north = persistFarm("North Farm");
+        Farm south = persistFarm("South Farm");
+        ScoutingSession oldest = persistSession(north, LocalDate.of(2024, 1, 1), SessionStatus.COMPLETED, null);
+        ScoutingSession middle = persistSession(south, LocalDate.of(2024, 2, 1), SessionStatus.DRAFT, null);
+        ScoutingSession newest = persistSession(north, LocalDate.of(2024, 3, 1), SessionStatus.DRAFT,
+                LocalDateTime.of(2024, 2, 28, 8, 0));
+        entityManager.flush();
+        entityManager.clear();
+
+        List<ScoutingSessionSummaryDto> firstPage = sessionRepository.findSummaries(
+                null, null, ALL_STATUSES, null, null, false, null, null, Limit.of(2));
+        assertThat(firstPage).extracting(ScoutingSessionSummaryDto::id).containsExactly(newest.getId(), middle.getId());
+        assertThat(firstPage.getFirst().remoteStartPending()).isTrue();
+
+        ScoutingSessionSummaryDto lastRow = firstPage.getLast();
+        List<ScoutingSessionSummaryDto> secondPage = sessionRepository.findSummaries(
+                null, null, ALL_STATUSES, null, null, false, lastRow.sessionDate(), lastRow.id(), Limit.of(2));
+        assertThat(secondPage).extracting(ScoutingSessionSummaryDto::id).containsExactly(oldest.getId());
+
+        List<ScoutingSessionSummaryDto> scoutView = sessionRepository.findSummaries(
+                null, null, ALL_STATUSES, LocalDate.of(2024, 1, 15), null, true, null, null, Limit.of(10));
+        assertThat(scoutView).extracting(ScoutingSessionSummaryDto::id).containsExactly(newest.getId());
+
+        List<ScoutingSessionSummaryDto> southOnly = sessionRepository.findSummaries(
+                south.getId(), null, ALL_STATUSES, null, null, false, null, null, Limit.of(10));
+        assertThat(southOnly).extracting(ScoutingSessionSummaryDto::farmName).containsExactly("South Farm");
+    }
+
+    private Farm persistFarm(String name) {
+        Farm farm = Farm.builder()
+                .name(name)
+                .slug("listing-farm-" + UUID.randomUUID())
+                .subscriptionStatus(SubscriptionStatus.ACTIVE)
+                .subscriptionTier(SubscriptionTier.BASIC)
+                .licenseType(LicenseType.TRIAL)
+                .licenseExtensionMonths(0)
+                .licensedAreaHectares(BigDecimal.TEN)
+                .structureType(FarmStructureType.GREENHOUSE)
+                .build();
+        entityManager.persist(farm);
+        return farm;
+    }
+
+    private ScoutingSession persistSession(Farm farm, LocalDate sessionDate, SessionStatus status,
+                                           LocalDateTime remoteStartRequestedAt) {
+        ScoutingSession session = ScoutingSession.builder()
+                .farm(farm)
+                .sessionDate(sessionDate)
+                .status(status)
+                .remoteStartRequestedAt(remoteStartRequestedAt)
+                .build();
+        entityManager.persist(session);
+        return session;
+    }
+}
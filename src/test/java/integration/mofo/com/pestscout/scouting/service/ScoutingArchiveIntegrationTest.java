@@ -0,0 +1,174 @@
+package integration.mofo.com.pestscout.scouting.service;
+
+import jakarta.persistence.EntityManager;
+import mofo.com.pestscout.PestscoutApplication;
+import mofo.com.pestscout.auth.model.Role;
+import mofo.com.pestscout.farm.model.*;
+import mofo.com.pestscout.scouting.dto.ArchivedSessionReport;
+import mofo.com.pestscout.scouting.model.*;
+import mofo.com.pestscout.scouting.repository.ScoutingArchiveRecordRepository;
+import mofo.com.pestscout.scouting.repository.ScoutingObservationRepository;
+import mofo.com.pestscout.scouting.repository.ScoutingSessionRepository;
+import mofo.com.pestscout.scouting.service.ScoutingArchiveService;
+import mofo.com.pestscout.scouting.service.ScoutingSessionReportExportService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Archival commits chunk by chunk in its own transactions, so this test commits its fixture and removes it afterwards
+ * instead of rolling back.
+ */
+@SpringBootTest(classes = PestscoutApplication.class)
+@ActiveProfiles("test")
+class ScoutingArchiveIntegrationTest {
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ScoutingArchiveService archiveService;
+
+    @Autowired
+    private ScoutingSessionReportExportService reportExportService;
+
+    @Autowired
+    private ScoutingSessionRepository sessionRepository;
+
+    @Autowired
+    private ScoutingObservationRepository observationRepository;
+
+    @Autowired
+    private ScoutingArchiveRecordRepository archiveRepository;
+
+    private UUID farmId;
+
+    @AfterEach
+    void removeFixture() {
+        if (farmId == null) {
+            return;
+        }
+        transactionTemplate.executeWithoutResult(status -> {
+            entityManager.createQuery("delete from ScoutingArchiveRecord r where r.farmId = :farmId")
+                    .setParameter("farmId", farmId)
+                    .executeUpdate();
+            sessionRepository.findAll().stream()
+                    .filter(session -> session.getFarm().getId().equals(farmId))
+                    .forEach(sessionRepository::delete);
+            entityManager.flush();
+            entityManager.createQuery("delete from Greenhouse g where g.farm.id = :farmId")
+                    .setParameter("farmId", farmId)
+                    .executeUpdate();
+            entityManager.remove(entityManager.find(Farm.class, farmId));
+        });
+    }
+
+    @Test
+    void movesColdRowsToTheArchiveAndKeepsThemExportable() throws Exception {
+        LocalDateTime now = LocalDateTime.now();
+        Fixture fixture = transactionTemplate.execute(status -> {
+            Farm farm = persistFarm();
+            Greenhouse greenhouse = Greenhouse.builder().farm(farm).name("House 1").build();
+            entityManager.persist(greenhouse);
+
+            ScoutingSession oldSession = persistSession(farm, greenhouse, LocalDate.of(2023, 3, 6));
+            ScoutingObservation archivedWithSession = persistObservation(oldSession, "last season");
+
+            ScoutingSession currentSession = persistSession(farm, greenhouse, now.toLocalDate());
+            ScoutingObservation deleted = persistObservation(currentSession, "removed");
+            deleted.markDeleted();
+            deleted.setDeletedAt(now.minusDays(40));
+            return new Fixture(farm.getId(), oldSession.getId(), archivedWithSession.getId(), currentSession.getId(),
+                    deleted.getId());
+        });
+        farmId = fixture.farmId();
+
+        assertThat(archiveService.archiveDeletedObservations(now)).isEqualTo(1);
+        assertThat(observationRepository.findById(fixture.deletedObservationId())).isEmpty();
+        assertThat(archiveRepository.findByRecordTypeAndSourceId(
+                ArchiveRecordType.OBSERVATION, fixture.deletedObservationId())).isPresent();
+
+        assertThat(archiveService.archiveSessions(LocalDate.of(2024, 1, 1))).isEqualTo(1);
+        assertThat(sessionRepository.existsById(fixture.oldSessionId())).isFalse();
+        assertThat(observationRepository.findById(fixture.oldObservationId())).isEmpty();
+        assertThat(sessionRepository.existsById(fixture.currentSessionId())).isTrue();
+
+        ArchivedSessionReport archived = archiveService.findArchivedSession(fixture.oldSessionId()).orElseThrow();
+        assertThat(archived.farmName()).isEqualTo("Archive Farm");
+        assertThat(archived.sections()).extracting(ArchivedSessionReport.Section::name).containsExactly("House 1");
+        assertThat(archived.report().sections().getFirst().observations())
+                .extracting("notes")
+                .containsExactly("last season");
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        reportExportService.writeFarmCsv(fixture.farmId(), null, null, true, Role.FARM_ADMIN, out);
+        String csv = out.toString(StandardCharsets.UTF_8);
+        assertThat(csv).contains(fixture.oldSessionId().toString(), fixture.currentSessionId().toString());
+        assertThat(csv).contains("\"last season\"", "\"House 1\"");
+    }
+
+    private Farm persistFarm() {
+        Farm farm = Farm.builder()
+                .name("Archive Farm")
+                .slug("archive-farm-" + UUID.randomUUID())
+                .subscriptionStatus(SubscriptionStatus.ACTIVE)
+                .subscriptionTier(SubscriptionTier.BASIC)
+                .licenseType(LicenseType.TRIAL)
+                .licenseExtensionMonths(0)
+                .licensedAreaHectares(BigDecimal.TEN)
+                .structureType(FarmStructureType.GREENHOUSE)
+                .build();
+        entityManager.persist(farm);
+        return farm;
+    }
+
+    private ScoutingSession persistSession(Farm farm, Greenhouse greenhouse, LocalDate sessionDate) {
+        ScoutingSession session = ScoutingSession.builder()
+                .farm(farm)
+                .sessionDate(sessionDate)
+                .status(SessionStatus.COMPLETED)
+                .build();
+        session.addTarget(ScoutingSessionTarget.builder()
+                .session(session)
+                .greenhouse(greenhouse)
+                .build());
+        entityManager.persist(session);
+        return session;
+    }
+
+    private ScoutingObservation persistObservation(ScoutingSession session, String notes) {
+        ScoutingObservation observation = ScoutingObservation.builder()
+                .session(session)
+                .sessionTarget(session.getTargets().getFirst())
+                .speciesCode(SpeciesCode.THRIPS)
+                .speciesIdentifier(SpeciesCode.THRIPS.name())
+                .bayIndex(1)
+                .benchIndex(1)
+                .spotIndex(1)
+                .count(3)
+                .notes(notes)
+                .build();
+        session.getObservations().add(observation);
+        entityManager.persist(observation);
+        return observation;
+    }
+
+    private record Fixture(UUID farmId, UUID oldSessionId, UUID oldObservationId, UUID currentSessionId,
+                           UUID deletedObservationId) {
+    }
+}
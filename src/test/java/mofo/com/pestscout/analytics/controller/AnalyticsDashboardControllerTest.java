@@ -7,6 +7,7 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.util.List;
 import java.util.UUID;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -21,7 +22,7 @@ class AnalyticsDashboardControllerTest {
     @Test
     void getFullDashboardDelegatesToAggregator() {
         UUID farmId = UUID.randomUUID();
-        DashboardDto dto = new DashboardDto(null, null, null, null, null, null, null, null, null, null);
+        DashboardDto dto = new DashboardDto(null, null, null, null, null, null, null, null, null, null, List.of());
 
         when(dashboardAggregatorService.getFullDashboard(farmId)).thenReturn(dto);
 
@@ -2,6 +2,7 @@ package mofo.com.pestscout.analytics.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import mofo.com.pestscout.analytics.dto.FarmMonthlyReportDto;
+import mofo.com.pestscout.analytics.dto.FarmWeeklyAnalyticsDto;
 import mofo.com.pestscout.analytics.dto.ReportExportRequest;
 import mofo.com.pestscout.analytics.dto.ReportExportResponse;
 import mofo.com.pestscout.analytics.service.ReportExportService;
@@ -17,6 +18,7 @@ import org.springframework.test.web.servlet.MockMvc;
 
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 import static org.mockito.ArgumentMatchers.any;
@@ -78,6 +80,28 @@ class ReportingControllerTest {
                 .andExpect(jsonPath("$.month").value(3));
     }
 
+    @Test
+    void returnsWeeklyAnalyticsForRange() throws Exception {
+        UUID farmId = UUID.randomUUID();
+        LocalDate from = LocalDate.of(2024, 3, 4);
+        LocalDate to = LocalDate.of(2024, 3, 17);
+        List<FarmWeeklyAnalyticsDto> weeks = List.of(
+                new FarmWeeklyAnalyticsDto(farmId, "Farm", 10, 2024, 1, 1, 2, 1, 5, 5, 0, 0, Map.of("LOW", 1L)),
+                new FarmWeeklyAnalyticsDto(farmId, "Farm", 11, 2024, 1, 1, 0, 0, 0, 0, 0, 0, Map.of())
+        );
+
+        when(reportingService.getWeeklyAnalytics(farmId, from, to)).thenReturn(weeks);
+
+        mockMvc.perform(get("/api/analytics/reports/weekly-analytics")
+                        .param("farmId", farmId.toString())
+                        .param("from", "2024-03-04")
+                        .param("to", "2024-03-17"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[0].week").value(10))
+                .andExpect(jsonPath("$[0].totalSessions").value(2));
+    }
+
     @Test
     void exportsReport() throws Exception {
         ReportExportRequest request = new ReportExportRequest(UUID.randomUUID(), 2024, 3, ReportExportRequest.ExportFormat.PDF);
@@ -129,7 +129,7 @@ class TrendControllerTest {
                         .param("to", "2024-01-31"))
                 .andExpect(status().isBadRequest());
 
-        verify(trendAnalysisService, never()).getPestTrend(any(), any(), any(), any());
+        verify(trendAnalysisService, never()).getPestTrend(any(UUID.class), any(), any(), any());
     }
 
     @Test
@@ -144,7 +144,7 @@ class TrendControllerTest {
                         .param("to", "2024-01-31"))
                 .andExpect(status().isBadRequest());
 
-        verify(trendAnalysisService, never()).getPestTrend(any(), any(), any(), any());
+        verify(trendAnalysisService, never()).getPestTrend(any(UUID.class), any(), any(), any());
     }
 
     @Test
@@ -213,7 +213,7 @@ class TrendControllerTest {
         mockMvc.perform(get("/api/analytics/trend/weekly"))
                 .andExpect(status().isBadRequest());
 
-        verify(trendAnalysisService, never()).getWeeklyPestTrends(any());
+        verify(trendAnalysisService, never()).getWeeklyPestTrends(any(UUID.class));
     }
 
     @Test
@@ -225,7 +225,7 @@ class TrendControllerTest {
                         .param("farmId", "not-a-uuid"))
                 .andExpect(status().isBadRequest());
 
-        verify(trendAnalysisService, never()).getWeeklyPestTrends(any());
+        verify(trendAnalysisService, never()).getWeeklyPestTrends(any(UUID.class));
     }
 
     @Test
@@ -299,7 +299,7 @@ class TrendControllerTest {
                         .param("to", "2024-01-31"))
                 .andExpect(status().isUnauthorized());
 
-        verify(trendAnalysisService, never()).getPestTrend(any(), any(), any(), any());
+        verify(trendAnalysisService, never()).getPestTrend(any(UUID.class), any(), any(), any());
     }
 
     @Test
@@ -310,7 +310,7 @@ class TrendControllerTest {
                         .param("farmId", farmId.toString()))
                 .andExpect(status().isUnauthorized());
 
-        verify(trendAnalysisService, never()).getWeeklyPestTrends(any());
+        verify(trendAnalysisService, never()).getWeeklyPestTrends(any(UUID.class));
     }
 
     @Test
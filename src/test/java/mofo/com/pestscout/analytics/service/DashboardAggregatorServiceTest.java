@@ -1,28 +1,37 @@
 package mofo.com.pestscout.analytics.service;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import mofo.com.pestscout.analytics.config.DashboardProperties;
 import mofo.com.pestscout.analytics.dto.*;
 import mofo.com.pestscout.scouting.model.SeverityLevel;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.time.LocalDate;
 import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 /**
  * Tests for {@link DashboardAggregatorService} to ensure the composed dashboard pulls data from
- * every collaborating service.
+ * every collaborating service, all fed from one shared farm context, and degrades section by section.
  */
 @ExtendWith(MockitoExtension.class)
 class DashboardAggregatorServiceTest {
 
     @Mock
-    private AnalyticsAccessService analyticsAccessService;
+    private FarmAnalyticsContextService contextService;
 
     @Mock
     private DashboardService dashboardService;
@@ -33,9 +42,29 @@ class DashboardAggregatorServiceTest {
     @Mock
     private ReportingService reportingService;
 
-    @InjectMocks
+    private final DashboardProperties properties = new DashboardProperties();
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
     private DashboardAggregatorService aggregatorService;
 
+    @BeforeEach
+    void setUp() {
+        aggregatorService = new DashboardAggregatorService(
+                contextService,
+                dashboardService,
+                trendAnalysisService,
+                reportingService,
+                properties,
+                meterRegistry
+        );
+    }
+
+    @AfterEach
+    void tearDown() {
+        aggregatorService.shutdown();
+    }
+
     /**
      * Aggregates every section of the dashboard and asserts each collaborator contributes to the
      * final DTO.
@@ -85,17 +114,18 @@ class DashboardAggregatorServiceTest {
         FarmComparisonDto farmComparison = new FarmComparisonDto("Farm", 2.0, 1, 3);
         ScoutPerformanceDto scoutPerformance = new ScoutPerformanceDto("Scout", 3, 90, "5m", 4);
 
-        when(analyticsAccessService.loadFarmAndEnsureAnalyticsAccess(farmId)).thenReturn(null);
-        when(dashboardService.getDashboard(farmId)).thenReturn(summaryDto);
-        when(dashboardService.getDashboardHeatmap(farmId)).thenReturn(heatmap);
-        when(trendAnalysisService.getWeeklyPestTrends(farmId)).thenReturn(List.of(weeklyTrend));
-        when(trendAnalysisService.getSeverityTrend(farmId)).thenReturn(List.of(severityTrendPoint));
-        when(reportingService.getPestDistribution(farmId)).thenReturn(List.of(pestDistribution));
-        when(reportingService.getDiseaseDistribution(farmId)).thenReturn(List.of(diseaseDistribution));
-        when(reportingService.getAlerts(farmId)).thenReturn(List.of(alert));
-        when(reportingService.getRecommendations(farmId)).thenReturn(List.of(recommendation));
+        FarmAnalyticsContext context = FarmAnalyticsContextFixtures.context(farmId, "Farm", LocalDate.now(), List.of(), List.of());
+        when(contextService.load(farmId)).thenReturn(context);
+        when(dashboardService.getDashboard(context)).thenReturn(summaryDto);
+        when(dashboardService.getDashboardHeatmap(context)).thenReturn(heatmap);
+        when(trendAnalysisService.getWeeklyPestTrends(context)).thenReturn(List.of(weeklyTrend));
+        when(trendAnalysisService.getSeverityTrend(context)).thenReturn(List.of(severityTrendPoint));
+        when(reportingService.getPestDistribution(context)).thenReturn(List.of(pestDistribution));
+        when(reportingService.getDiseaseDistribution(context)).thenReturn(List.of(diseaseDistribution));
+        when(reportingService.getAlerts(context)).thenReturn(List.of(alert));
+        when(reportingService.getRecommendations(context)).thenReturn(List.of(recommendation));
         when(reportingService.getFarmComparison()).thenReturn(List.of(farmComparison));
-        when(reportingService.getScoutPerformance(farmId)).thenReturn(List.of(scoutPerformance));
+        when(reportingService.getScoutPerformance(context)).thenReturn(List.of(scoutPerformance));
 
         DashboardDto dashboard = aggregatorService.getFullDashboard(farmId);
 
@@ -109,5 +139,90 @@ class DashboardAggregatorServiceTest {
         assertThat(dashboard.recommendations()).containsExactly(recommendation);
         assertThat(dashboard.farmComparison()).containsExactly(farmComparison);
         assertThat(dashboard.scoutPerformance()).containsExactly(scoutPerformance);
+        assertThat(dashboard.unavailableSections()).isEmpty();
+        verify(contextService, times(1)).load(farmId);
+        assertThat(meterRegistry.get("analytics.dashboard.section")
+                .tags("section", "scoutPerformance", "outcome", "success")
+                .timer()
+                .count()).isEqualTo(1);
+    }
+
+    /**
+     * A section that misses its timeout is returned empty and flagged while the other sections still arrive.
+     */
+    @Test
+    void getFullDashboard_flagsSlowSectionAndReturnsTheRest() throws Exception {
+        UUID farmId = UUID.randomUUID();
+        properties.getSectionTimeoutsMs().put("scoutPerformance", 50L);
+        FarmAnalyticsContext context = stubEmptySections(farmId);
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch finished = new CountDownLatch(1);
+        when(reportingService.getScoutPerformance(context)).thenAnswer(invocation -> {
+            try {
+                release.await(5, TimeUnit.SECONDS);
+                return List.of(new ScoutPerformanceDto("Scout", 3, 90, "5m", 4));
+            } finally {
+                finished.countDown();
+            }
+        });
+        AlertDto alert = new AlertDto("alert", "thrips", "HIGH", 1, "2026-03-12");
+        when(reportingService.getAlerts(context)).thenReturn(List.of(alert));
+
+        try {
+            DashboardDto dashboard = aggregatorService.getFullDashboard(farmId);
+
+            assertThat(dashboard.scoutPerformance()).isEmpty();
+            assertThat(dashboard.unavailableSections()).containsExactly("scoutPerformance");
+            assertThat(dashboard.alerts()).containsExactly(alert);
+            assertThat(meterRegistry.get("analytics.dashboard.section")
+                    .tags("section", "scoutPerformance", "outcome", "timeout")
+                    .timer()
+                    .count()).isEqualTo(1);
+
+            // The cancelled worker is interrupted and fails, but the section was already reported as a timeout.
+            assertThat(finished.await(5, TimeUnit.SECONDS)).isTrue();
+            Thread.sleep(100);
+            assertThat(meterRegistry.find("analytics.dashboard.section")
+                    .tags("section", "scoutPerformance")
+                    .timers()).hasSize(1);
+        } finally {
+            release.countDown();
+        }
+    }
+
+    /**
+     * A section that throws is returned empty and flagged instead of failing the whole dashboard.
+     */
+    @Test
+    void getFullDashboard_flagsFailedSection() {
+        UUID farmId = UUID.randomUUID();
+        FarmAnalyticsContext context = stubEmptySections(farmId);
+        when(reportingService.getFarmComparison()).thenThrow(new IllegalStateException("boom"));
+
+        DashboardDto dashboard = aggregatorService.getFullDashboard(farmId);
+
+        assertThat(dashboard.farmComparison()).isEmpty();
+        assertThat(dashboard.unavailableSections()).containsExactly("farmComparison");
+        assertThat(dashboard.summary()).isNotNull();
+        verify(reportingService).getScoutPerformance(context);
+    }
+
+    private FarmAnalyticsContext stubEmptySections(UUID farmId) {
+        FarmAnalyticsContext context = FarmAnalyticsContextFixtures.context(farmId, "Farm", LocalDate.now(), List.of(), List.of());
+        HeatmapResponse heatmap = HeatmapResponse.builder().farmId(farmId).cells(List.of()).sections(List.of()).build();
+        DashboardSummaryDto summary = new DashboardSummaryDto(farmId, 0, 0, 0, 0, 0, 0, List.of(), List.of());
+
+        when(contextService.load(farmId)).thenReturn(context);
+        lenient().when(dashboardService.getDashboard(context)).thenReturn(summary);
+        lenient().when(dashboardService.getDashboardHeatmap(context)).thenReturn(heatmap);
+        lenient().when(trendAnalysisService.getWeeklyPestTrends(context)).thenReturn(List.of());
+        lenient().when(trendAnalysisService.getSeverityTrend(context)).thenReturn(List.of());
+        lenient().when(reportingService.getPestDistribution(context)).thenReturn(List.of());
+        lenient().when(reportingService.getDiseaseDistribution(context)).thenReturn(List.of());
+        lenient().when(reportingService.getAlerts(context)).thenReturn(List.of());
+        lenient().when(reportingService.getRecommendations(context)).thenReturn(List.of());
+        lenient().when(reportingService.getFarmComparison()).thenReturn(List.of());
+        lenient().when(reportingService.getScoutPerformance(context)).thenReturn(List.of());
+        return context;
     }
 }
@@ -20,8 +20,11 @@ import java.time.temporal.WeekFields;
 import java.util.List;
 import java.util.UUID;
 
+import static mofo.com.pestscout.analytics.service.FarmAnalyticsContextFixtures.context;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 /**
@@ -46,6 +49,9 @@ class DashboardServiceTest {
     @Mock
     private FarmService farmService;
 
+    @Mock
+    private FarmAnalyticsContextService contextService;
+
     @InjectMocks
     private DashboardService dashboardService;
 
@@ -56,8 +62,6 @@ class DashboardServiceTest {
     @Test
     void getDashboard_returnsSummaryWithHeatmapAndTrend() {
         UUID farmId = UUID.randomUUID();
-        Farm farm = new Farm();
-        farm.setId(farmId);
         LocalDate today = LocalDate.now();
         int week = today.get(WeekFields.ISO.weekOfWeekBasedYear());
         int year = today.getYear();
@@ -76,12 +80,10 @@ class DashboardServiceTest {
 
         PestTrendResponse pestTrend = new PestTrendResponse(farmId, "thrips", List.of());
 
-        when(analyticsAccessService.loadFarmAndEnsureAnalyticsAccess(farmId)).thenReturn(farm);
-        when(sessionRepository.findByFarmId(farmId)).thenReturn(List.of());
-        when(sessionRepository.findByFarmIdAndSessionDateBetween(farmId, today.minusDays(6), today))
-                .thenReturn(List.of());
+        FarmAnalyticsContext context = context(farmId, "Farm", today, List.of(), List.of());
+        when(contextService.load(farmId)).thenReturn(context);
         when(heatmapService.generateHeatmap(farmId, week, year)).thenReturn(heatmap);
-        when(trendAnalysisService.getPestTrend(farmId, "thrips", today.minusDays(30), today))
+        when(trendAnalysisService.getPestTrend(context, "thrips", today.minusDays(30), today))
                 .thenReturn(pestTrend);
 
         DashboardSummaryDto summary = dashboardService.getDashboard(farmId);
@@ -148,13 +150,11 @@ class DashboardServiceTest {
                 .severityLegend(List.of())
                 .build();
 
-        when(analyticsAccessService.loadFarmAndEnsureAnalyticsAccess(farmId)).thenReturn(farm);
-        when(sessionRepository.findByFarmId(farmId)).thenReturn(List.of(priorSession));
-        when(sessionRepository.findByFarmIdAndSessionDateBetween(farmId, today.minusDays(6), today))
-                .thenReturn(List.of());
+        FarmAnalyticsContext context = context(farmId, "Farm", today, List.of(priorSession), List.of());
+        when(contextService.load(farmId)).thenReturn(context);
         when(heatmapService.generateHeatmap(farmId, currentWeek, currentYear)).thenReturn(emptyCurrent);
         when(heatmapService.generateHeatmap(eq(farmId), eq(fallbackWeek), eq(fallbackYear))).thenReturn(fallback);
-        when(trendAnalysisService.getPestTrend(farmId, "thrips", today.minusDays(30), today))
+        when(trendAnalysisService.getPestTrend(context, "thrips", today.minusDays(30), today))
                 .thenReturn(new PestTrendResponse(farmId, "thrips", List.of()));
 
         DashboardSummaryDto summary = dashboardService.getDashboard(farmId);
@@ -163,6 +163,40 @@ class DashboardServiceTest {
         assertThat(summary.currentWeekHeatmap().getFirst().weekNumber()).isEqualTo(fallbackWeek);
     }
 
+    /**
+     * The summary and the heat map section show the same heat map, so a shared context only generates it once.
+     */
+    @Test
+    void getDashboardHeatmap_reusesHeatmapGeneratedForSummary() {
+        UUID farmId = UUID.randomUUID();
+        LocalDate today = LocalDate.now();
+        int week = today.get(WeekFields.ISO.weekOfWeekBasedYear());
+        int year = today.get(WeekFields.ISO.weekBasedYear());
+
+        HeatmapResponse heatmap = HeatmapResponse.builder()
+                .farmId(farmId)
+                .farmName("Farm")
+                .week(week)
+                .year(year)
+                .bayCount(0)
+                .benchesPerBay(0)
+                .cells(List.of())
+                .sections(List.of())
+                .severityLegend(List.of())
+                .build();
+
+        FarmAnalyticsContext context = context(farmId, "Farm", today, List.of(), List.of());
+        when(heatmapService.generateHeatmap(farmId, week, year)).thenReturn(heatmap);
+        when(trendAnalysisService.getPestTrend(context, "thrips", today.minusDays(30), today))
+                .thenReturn(new PestTrendResponse(farmId, "thrips", List.of()));
+
+        dashboardService.getDashboard(context);
+        HeatmapResponse shared = dashboardService.getDashboardHeatmap(context);
+
+        assertThat(shared).isSameAs(heatmap);
+        verify(heatmapService, times(1)).generateHeatmap(farmId, week, year);
+    }
+
     @Test
     void getDashboardOverview_returnsFarmCardsAndExpiryAlerts() {
         FarmResponse expiringFarm = new FarmResponse(
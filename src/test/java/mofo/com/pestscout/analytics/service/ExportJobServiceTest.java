@@ -0,0 +1,291 @@
+package mofo.com.pestscout.analytics.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import mofo.com.pestscout.analytics.config.ExportJobProperties;
+import mofo.com.pestscout.analytics.dto.ExportJobDto;
+import mofo.com.pestscout.analytics.dto.ExportJobRequest;
+import mofo.com.pestscout.analytics.model.ExportJob;
+import mofo.com.pestscout.analytics.model.ExportJobStatus;
+import mofo.com.pestscout.analytics.model.ExportType;
+import mofo.com.pestscout.analytics.repository.ExportJobRepository;
+import mofo.com.pestscout.analytics.storage.ExportArtifactStore;
+import mofo.com.pestscout.auth.model.Role;
+import mofo.com.pestscout.common.exception.ConflictException;
+import mofo.com.pestscout.common.exception.ForbiddenException;
+import mofo.com.pestscout.farm.config.LicensePolicyProperties;
+import mofo.com.pestscout.farm.model.Farm;
+import mofo.com.pestscout.farm.repository.FarmRepository;
+import mofo.com.pestscout.farm.security.CurrentUserService;
+import mofo.com.pestscout.farm.security.FarmAccessService;
+import mofo.com.pestscout.scouting.repository.ScoutingObservationRepository;
+import mofo.com.pestscout.scouting.repository.ScoutingSessionRepository;
+import mofo.com.pestscout.scouting.service.ScoutingSessionReportExportService;
+import mofo.com.pestscout.scouting.service.ScoutingSessionService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.*;
+
+class ExportJobServiceTest {
+
+    @TempDir
+    Path root;
+
+    private final UUID farmId = UUID.randomUUID();
+
+    private ExportJobRepository jobRepository;
+    private ExportArtifactStore artifactStore;
+    private RawDataPdfExportService rawDataPdfExportService;
+    private ScoutingSessionReportExportService sessionReportExportService;
+    private ScoutingSessionService scoutingSessionService;
+    private AnalyticsAccessService analyticsAccessService;
+    private FarmAccessService farmAccessService;
+    private ScoutingSessionRepository sessionRepository;
+    private ExportJobProperties properties;
+    private LicensePolicyProperties licensePolicyProperties;
+    private ExportJobService service;
+
+    @BeforeEach
+    void setUp() {
+        properties = new ExportJobProperties();
+        properties.setRoot(root.toString());
+        properties.setMaxAttempts(2);
+        licensePolicyProperties = new LicensePolicyProperties();
+
+        jobRepository = mock(ExportJobRepository.class);
+        artifactStore = new ExportArtifactStore(properties);
+        rawDataPdfExportService = mock(RawDataPdfExportService.class);
+        sessionReportExportService = mock(ScoutingSessionReportExportService.class);
+        scoutingSessionService = mock(ScoutingSessionService.class);
+        analyticsAccessService = mock(AnalyticsAccessService.class);
+        farmAccessService = mock(FarmAccessService.class);
+        CurrentUserService currentUserService = mock(CurrentUserService.class);
+        FarmRepository farmRepository = mock(FarmRepository.class);
+        sessionRepository = mock(ScoutingSessionRepository.class);
+        ScoutingObservationRepository observationRepository = mock(ScoutingObservationRepository.class);
+
+        Farm farm = Farm.builder().id(farmId).name("North Farm").build();
+        farm.setVersion(4L);
+        when(farmRepository.findById(farmId)).thenReturn(Optional.of(farm));
+        when(sessionRepository.countByFarmId(farmId)).thenReturn(12L);
+        when(sessionRepository.findLatestUpdatedAtByFarmId(farmId))
+                .thenReturn(Optional.of(LocalDateTime.of(2026, 3, 18, 10, 0)));
+        when(rawDataPdfExportService.fileName(farmId)).thenReturn("farm-raw-data-" + farmId + ".pdf");
+        when(jobRepository.saveAndFlush(any(ExportJob.class))).thenAnswer(invocation -> withId(invocation.getArgument(0)));
+
+        service = new ExportJobService(jobRepository, artifactStore, rawDataPdfExportService, sessionReportExportService,
+                scoutingSessionService, analyticsAccessService, farmAccessService, currentUserService, farmRepository,
+                sessionRepository, observationRepository, licensePolicyProperties, properties, new SimpleMeterRegistry());
+    }
+
+    @AfterEach
+    void tearDown() {
+        service.shutdown();
+    }
+
+    @Test
+    void requestExport_coalescesIdenticalRequestsOntoOneJob() {
+        ExportJob[] saved = new ExportJob[1];
+        when(jobRepository.saveAndFlush(any(ExportJob.class))).thenAnswer(invocation -> {
+            saved[0] = withId(invocation.getArgument(0));
+            return saved[0];
+        });
+        when(jobRepository.findByDedupKey(any()))
+                .thenReturn(Optional.empty())
+                .thenAnswer(invocation -> Optional.of(saved[0]));
+
+        ExportJobDto first = service.requestExport(new ExportJobRequest(farmId, ExportType.RAW_DATA_PDF, null, null));
+        ExportJobDto second = service.requestExport(new ExportJobRequest(farmId, ExportType.RAW_DATA_PDF, null, null));
+
+        assertThat(second.id()).isEqualTo(first.id());
+        verify(jobRepository, times(1)).saveAndFlush(any(ExportJob.class));
+        verify(analyticsAccessService, times(2)).loadFarmAndEnsureAnalyticsAccess(farmId);
+    }
+
+    @Test
+    void requestExport_startsNewJobOnceFarmDataChanges() {
+        when(jobRepository.findByDedupKey(any())).thenReturn(Optional.empty());
+
+        service.requestExport(new ExportJobRequest(farmId, ExportType.RAW_DATA_PDF, null, null));
+        when(sessionRepository.countByFarmId(farmId)).thenReturn(13L);
+        service.requestExport(new ExportJobRequest(farmId, ExportType.RAW_DATA_PDF, null, null));
+
+        ArgumentCaptor<String> keys = ArgumentCaptor.forClass(String.class);
+        verify(jobRepository, times(2)).findByDedupKey(keys.capture());
+        assertThat(keys.getAllValues().get(0)).isNotEqualTo(keys.getAllValues().get(1));
+    }
+
+    @Test
+    void requestExport_sharesJobWhenConcurrentInsertWins() {
+        ExportJob winner = withId(pendingJob(ExportType.RAW_DATA_PDF, null));
+        when(jobRepository.findByDedupKey(any()))
+                .thenReturn(Optional.empty())
+                .thenReturn(Optional.of(winner));
+        when(jobRepository.saveAndFlush(any(ExportJob.class)))
+                .thenThrow(new DataIntegrityViolationException("uk_export_jobs_dedup_key"));
+
+        ExportJobDto dto = service.requestExport(new ExportJobRequest(farmId, ExportType.RAW_DATA_PDF, null, null));
+
+        assertThat(dto.id()).isEqualTo(winner.getId());
+    }
+
+    @Test
+    void requestExport_requeuesFailedJob() {
+        ExportJob failed = withId(pendingJob(ExportType.RAW_DATA_PDF, null));
+        failed.setStatus(ExportJobStatus.FAILED);
+        when(jobRepository.findByDedupKey(any())).thenReturn(Optional.of(failed));
+        when(jobRepository.requeue(eq(failed.getId()), eq(ExportJobStatus.FAILED), any())).thenReturn(1);
+
+        service.requestExport(new ExportJobRequest(farmId, ExportType.RAW_DATA_PDF, null, null));
+
+        verify(jobRepository).requeue(eq(failed.getId()), eq(ExportJobStatus.FAILED), any());
+        verify(jobRepository, never()).saveAndFlush(any(ExportJob.class));
+    }
+
+    @Test
+    void process_writesArtifactAndCompletesJob() throws Exception {
+        ExportJob job = claimedJob(ExportType.SESSIONS_CSV, Role.MANAGER, 1);
+        job.setStartDate(LocalDate.of(2026, 1, 1));
+        job.setEndDate(LocalDate.of(2026, 6, 30));
+        doAnswer(invocation -> {
+            invocation.<OutputStream>getArgument(4).write("session_id\n".getBytes(StandardCharsets.UTF_8));
+            return null;
+        }).when(sessionReportExportService).writeFarmCsv(eq(farmId), eq(job.getStartDate()), eq(job.getEndDate()),
+                eq(Role.MANAGER), any());
+        when(jobRepository.complete(eq(job.getId()), eq(1), eq(11L), any(), any())).thenReturn(1);
+
+        service.process(job.getId());
+
+        ArgumentCaptor<LocalDateTime> expiresAt = ArgumentCaptor.forClass(LocalDateTime.class);
+        verify(jobRepository).complete(eq(job.getId()), eq(1), eq(11L), expiresAt.capture(), any());
+        assertThat(expiresAt.getValue()).isAfter(LocalDateTime.now());
+        verify(jobRepository, never()).save(any(ExportJob.class));
+        Path artifact = artifactStore.find(job.getId(), "csv").orElseThrow();
+        assertThat(Files.readString(artifact)).isEqualTo("session_id\n");
+    }
+
+    @Test
+    void process_returnsJobToPendingUntilAttemptsAreExhausted() throws Exception {
+        ExportJob job = claimedJob(ExportType.RAW_DATA_PDF, null, 1);
+        doThrow(new IOException("disk full")).when(rawDataPdfExportService).writeFarmRawDataPdf(eq(farmId), any());
+
+        service.process(job.getId());
+        verify(jobRepository).fail(eq(job.getId()), eq(1), eq(ExportJobStatus.PENDING), eq("disk full"), isNull(), any());
+
+        job.setAttempts(2);
+        service.process(job.getId());
+        verify(jobRepository).fail(eq(job.getId()), eq(2), eq(ExportJobStatus.FAILED), eq("disk full"),
+                any(LocalDateTime.class), any());
+        assertThat(artifactStore.find(job.getId(), "pdf")).isEmpty();
+    }
+
+    @Test
+    void process_renewsTheLeaseWhileBuilding() throws Exception {
+        ExportJob job = claimedJob(ExportType.RAW_DATA_PDF, null, 1);
+        doAnswer(invocation -> {
+            service.renewLeases();
+            return null;
+        }).when(rawDataPdfExportService).writeFarmRawDataPdf(eq(farmId), any());
+        when(jobRepository.renewLease(eq(job.getId()), eq(1), any(), any())).thenReturn(1);
+
+        service.process(job.getId());
+        service.renewLeases();
+
+        verify(jobRepository, times(1)).renewLease(eq(job.getId()), eq(1), any(), any());
+    }
+
+    @Test
+    void process_skipsJobClaimedElsewhere() throws Exception {
+        UUID jobId = UUID.randomUUID();
+        when(jobRepository.claim(eq(jobId), eq(ExportJobStatus.PENDING), eq(ExportJobStatus.RUNNING), any(), any()))
+                .thenReturn(0);
+
+        service.process(jobId);
+
+        verify(jobRepository, never()).findById(any());
+        verify(rawDataPdfExportService, never()).writeFarmRawDataPdf(any(), any());
+    }
+
+    @Test
+    void resubmitPendingJobs_onlyResetsJobsWhoseLeaseExpired() {
+        service.resubmitPendingJobs();
+
+        ArgumentCaptor<LocalDateTime> unleasedBefore = ArgumentCaptor.forClass(LocalDateTime.class);
+        ArgumentCaptor<LocalDateTime> now = ArgumentCaptor.forClass(LocalDateTime.class);
+        verify(jobRepository).resetExpiredLeases(unleasedBefore.capture(), now.capture());
+        assertThat(unleasedBefore.getValue()).isEqualTo(now.getValue().minusNanos(properties.getLeaseMs() * 1_000_000));
+    }
+
+    @Test
+    void openArtifact_rejectsPendingJobAndOtherAudiences() {
+        ExportJob pending = withId(pendingJob(ExportType.SESSIONS_CSV, Role.SUPER_ADMIN));
+        when(jobRepository.findById(pending.getId())).thenReturn(Optional.of(pending));
+
+        when(farmAccessService.getCurrentUserRole()).thenReturn(Role.SUPER_ADMIN);
+        assertThatThrownBy(() -> service.openArtifact(pending.getId())).isInstanceOf(ConflictException.class);
+
+        when(farmAccessService.getCurrentUserRole()).thenReturn(Role.MANAGER);
+        assertThatThrownBy(() -> service.openArtifact(pending.getId())).isInstanceOf(ForbiddenException.class);
+    }
+
+    @Test
+    void buildDownloadUrl_pointsAtJobArtifact() {
+        licensePolicyProperties.setPublicBaseUrl("https://pestscout.example.com/");
+        when(jobRepository.findByDedupKey(any())).thenReturn(Optional.empty());
+
+        String url = service.buildDownloadUrl(farmId);
+
+        ArgumentCaptor<ExportJob> saved = ArgumentCaptor.forClass(ExportJob.class);
+        verify(jobRepository).saveAndFlush(saved.capture());
+        assertThat(url).isEqualTo("https://pestscout.example.com/api/analytics/exports/" + saved.getValue().getId() + "/download");
+        assertThat(saved.getValue().getRequestedBy()).isNull();
+        verifyNoInteractions(analyticsAccessService);
+    }
+
+    private ExportJob claimedJob(ExportType type, Role audience, int attempts) {
+        ExportJob job = withId(pendingJob(type, audience));
+        job.setStatus(ExportJobStatus.RUNNING);
+        job.setAttempts(attempts);
+        when(jobRepository.claim(eq(job.getId()), eq(ExportJobStatus.PENDING), eq(ExportJobStatus.RUNNING), any(), any()))
+                .thenReturn(1);
+        when(jobRepository.findById(job.getId())).thenReturn(Optional.of(job));
+        return job;
+    }
+
+    private ExportJob pendingJob(ExportType type, Role audience) {
+        return ExportJob.builder()
+                .dedupKey("k".repeat(64))
+                .farmId(farmId)
+                .exportType(type)
+                .audienceRole(audience)
+                .dataVersion("v".repeat(64))
+                .fileName("export." + type.getExtension())
+                .build();
+    }
+
+    private static ExportJob withId(ExportJob job) {
+        if (job.getId() == null) {
+            job.setId(UUID.randomUUID());
+        }
+        return job;
+    }
+}
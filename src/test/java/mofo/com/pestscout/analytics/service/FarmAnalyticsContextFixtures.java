@@ -0,0 +1,74 @@
+package mofo.com.pestscout.analytics.service;
+
+import mofo.com.pestscout.analytics.model.ObservationFact;
+import mofo.com.pestscout.analytics.model.RecommendationFact;
+import mofo.com.pestscout.analytics.model.SessionFact;
+import mofo.com.pestscout.scouting.model.ScoutingObservation;
+import mofo.com.pestscout.scouting.model.ScoutingSession;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Builds {@link FarmAnalyticsContext} snapshots from entity fixtures, mirroring the projections
+ * {@link mofo.com.pestscout.analytics.repository.FarmAnalyticsRepository} selects.
+ */
+final class FarmAnalyticsContextFixtures {
+
+    private FarmAnalyticsContextFixtures() {
+    }
+
+    static FarmAnalyticsContext context(UUID farmId,
+                                        String farmName,
+                                        LocalDate today,
+                                        List<ScoutingSession> sessions,
+                                        List<ScoutingObservation> observations) {
+        return new FarmAnalyticsContext(
+                farmId,
+                farmName,
+                today,
+                null,
+                null,
+                sessions.stream().map(FarmAnalyticsContextFixtures::sessionFact).toList(),
+                observations.stream().map(FarmAnalyticsContextFixtures::observationFact).toList(),
+                sessions.stream()
+                        .flatMap(session -> session.getRecommendations().entrySet().stream()
+                                .map(entry -> new RecommendationFact(session.getId(), entry.getKey(), entry.getValue())))
+                        .toList()
+        );
+    }
+
+    static SessionFact sessionFact(ScoutingSession session) {
+        return new SessionFact(
+                session.getId(),
+                session.getSessionDate(),
+                session.getStatus(),
+                session.getScout() != null ? session.getScout().getId() : null,
+                session.getScout() != null ? session.getScout().getFirstName() : null,
+                session.getScout() != null ? session.getScout().getLastName() : null,
+                session.getScout() != null ? session.getScout().getEmail() : null,
+                session.getGreenhouse() != null ? session.getGreenhouse().getName() : null,
+                session.getFieldBlock() != null ? session.getFieldBlock().getName() : null,
+                session.getStartedAt(),
+                session.getCompletedAt()
+        );
+    }
+
+    static ObservationFact observationFact(ScoutingObservation observation) {
+        return new ObservationFact(
+                observation.getSession().getId(),
+                observation.getSpeciesCode(),
+                observation.getObservationType(),
+                observation.getCustomSpecies() != null ? observation.getCustomSpecies().getId() : null,
+                observation.getCustomSpecies() != null ? observation.getCustomSpecies().getCategory() : null,
+                observation.getCustomSpecies() != null ? observation.getCustomSpecies().getName() : null,
+                observation.getSpeciesIdentifier(),
+                observation.getCount(),
+                observation.getBayIndex(),
+                observation.getBayLabel(),
+                observation.getBenchIndex(),
+                observation.getBenchLabel()
+        );
+    }
+}
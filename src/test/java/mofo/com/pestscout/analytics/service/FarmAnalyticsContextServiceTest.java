@@ -0,0 +1,119 @@
+package mofo.com.pestscout.analytics.service;
+
+import mofo.com.pestscout.analytics.dto.HeatmapResponse;
+import mofo.com.pestscout.analytics.model.ObservationFact;
+import mofo.com.pestscout.analytics.model.RecommendationFact;
+import mofo.com.pestscout.analytics.model.SessionFact;
+import mofo.com.pestscout.analytics.repository.FarmAnalyticsRepository;
+import mofo.com.pestscout.farm.model.Farm;
+import mofo.com.pestscout.scouting.model.RecommendationType;
+import mofo.com.pestscout.scouting.model.SessionStatus;
+import mofo.com.pestscout.scouting.model.SpeciesCode;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class FarmAnalyticsContextServiceTest {
+
+    @Mock
+    private AnalyticsAccessService analyticsAccessService;
+
+    @Mock
+    private FarmAnalyticsRepository farmAnalyticsRepository;
+
+    @InjectMocks
+    private FarmAnalyticsContextService contextService;
+
+    @Test
+    void load_indexesSessionsObservationsAndRecommendationsOnce() {
+        UUID farmId = UUID.randomUUID();
+        Farm farm = new Farm();
+        farm.setId(farmId);
+        farm.setName("Alpha");
+
+        SessionFact older = session(LocalDate.of(2024, 1, 1));
+        SessionFact newer = session(LocalDate.of(2024, 1, 8));
+        ObservationFact thrips = observation(newer.id(), SpeciesCode.THRIPS, 4);
+        ObservationFact whiteflies = observation(newer.id(), SpeciesCode.WHITEFLIES, 2);
+
+        when(analyticsAccessService.loadFarmAndEnsureAnalyticsAccess(farmId)).thenReturn(farm);
+        when(farmAnalyticsRepository.findSessionFacts(farmId)).thenReturn(List.of(older, newer));
+        when(farmAnalyticsRepository.findObservationFacts(farmId)).thenReturn(List.of(thrips, whiteflies));
+        when(farmAnalyticsRepository.findRecommendationFacts(farmId)).thenReturn(List.of(
+                new RecommendationFact(newer.id(), RecommendationType.OTHER_METHODS, "Sticky traps"),
+                new RecommendationFact(newer.id(), RecommendationType.CHEMICAL_SPRAYS, "Spray")
+        ));
+
+        FarmAnalyticsContext context = contextService.load(farmId);
+
+        verify(analyticsAccessService).loadFarmAndEnsureAnalyticsAccess(farmId);
+        assertThat(context.farmName()).isEqualTo("Alpha");
+        assertThat(context.sessions()).containsExactly(older, newer);
+        assertThat(context.observations(newer.id())).containsExactly(thrips, whiteflies);
+        assertThat(context.observations(older.id())).isEmpty();
+        assertThat(context.recommendations(newer.id()))
+                .extracting(RecommendationFact::type)
+                .containsExactly(RecommendationType.CHEMICAL_SPRAYS, RecommendationType.OTHER_METHODS);
+        assertThat(context.sessionsBetween(LocalDate.of(2024, 1, 5), LocalDate.of(2024, 1, 8))).containsExactly(newer);
+        assertThat(context.observationsBetween(LocalDate.of(2024, 1, 1), LocalDate.of(2024, 1, 7))).isEmpty();
+    }
+
+    @Test
+    void load_withWindowQueriesOnlyThatRange() {
+        UUID farmId = UUID.randomUUID();
+        LocalDate from = LocalDate.of(2024, 3, 4);
+        LocalDate to = LocalDate.of(2024, 4, 21);
+
+        when(farmAnalyticsRepository.findSessionFacts(farmId, from, to)).thenReturn(List.of());
+        when(farmAnalyticsRepository.findObservationFacts(farmId, from, to)).thenReturn(List.of());
+        when(farmAnalyticsRepository.findRecommendationFacts(farmId, from, to)).thenReturn(List.of());
+
+        FarmAnalyticsContext context = contextService.load(farmId, from, to);
+
+        assertThat(context.from()).isEqualTo(from);
+        assertThat(context.to()).isEqualTo(to);
+        assertThat(context.sessions()).isEmpty();
+    }
+
+    @Test
+    void dashboardHeatmap_isGeneratedOnlyOnce() {
+        FarmAnalyticsContext context = new FarmAnalyticsContext(
+                UUID.randomUUID(), "Alpha", LocalDate.now(), null, null, List.of(), List.of(), List.of());
+        HeatmapResponse heatmap = HeatmapResponse.builder().cells(List.of()).sections(List.of()).build();
+        AtomicInteger loads = new AtomicInteger();
+
+        HeatmapResponse first = context.dashboardHeatmap(() -> {
+            loads.incrementAndGet();
+            return heatmap;
+        });
+        HeatmapResponse second = context.dashboardHeatmap(() -> {
+            loads.incrementAndGet();
+            return heatmap;
+        });
+
+        assertThat(first).isSameAs(second);
+        assertThat(loads).hasValue(1);
+    }
+
+    private SessionFact session(LocalDate date) {
+        return new SessionFact(UUID.randomUUID(), date, SessionStatus.COMPLETED,
+                null, null, null, null, null, null, null, null);
+    }
+
+    private ObservationFact observation(UUID sessionId, SpeciesCode speciesCode, int count) {
+        return new ObservationFact(sessionId, speciesCode, null, null, null, null,
+                "CODE:" + speciesCode.name(), count, 1, null, 1, null);
+    }
+}
@@ -0,0 +1,130 @@
+package mofo.com.pestscout.analytics.service;
+
+import mofo.com.pestscout.analytics.model.FarmComparisonTotals;
+import mofo.com.pestscout.analytics.model.PeriodTotals;
+import mofo.com.pestscout.analytics.repository.FarmComparisonStatsRepository;
+import mofo.com.pestscout.farm.model.Farm;
+import mofo.com.pestscout.scouting.config.ScoutingArchiveProperties;
+import mofo.com.pestscout.scouting.model.ScoutingSession;
+import mofo.com.pestscout.scouting.model.SessionStatus;
+import mofo.com.pestscout.scouting.model.SeverityLevel;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class FarmComparisonStatsServiceTest {
+
+    private static final int ALERT_THRESHOLD = SeverityLevel.HIGH.getMinInclusive();
+
+    @Mock
+    private FarmComparisonStatsRepository statsRepository;
+
+    @Mock
+    private ScoutingArchiveProperties archiveProperties;
+
+    @InjectMocks
+    private FarmComparisonStatsService statsService;
+
+    @Test
+    void recordCompleted_addsSessionTotalsToItsMonth() {
+        ScoutingSession session = session();
+        when(statsRepository.aggregateSession(session.getId(), ALERT_THRESHOLD))
+                .thenReturn(Optional.of(new PeriodTotals(2026, 3, 1L, 4L, 30L, 1L)));
+
+        statsService.recordCompleted(session);
+
+        LocalDate march = LocalDate.of(2026, 3, 1);
+        verify(statsRepository).insertIfAbsent(any(UUID.class), eq(session.getFarm().getId()), eq(march), any());
+        verify(statsRepository).increment(eq(session.getFarm().getId()), eq(march), eq(1L), eq(4L), eq(30L), eq(1L),
+                any());
+    }
+
+    @Test
+    void recordReopened_subtractsSessionTotals() {
+        ScoutingSession session = session();
+        when(statsRepository.aggregateSession(session.getId(), ALERT_THRESHOLD))
+                .thenReturn(Optional.of(new PeriodTotals(2026, 3, 1L, 4L, 30L, 1L)));
+
+        statsService.recordReopened(session);
+
+        verify(statsRepository).increment(eq(session.getFarm().getId()), eq(LocalDate.of(2026, 3, 1)), eq(-1L),
+                eq(-4L), eq(-30L), eq(-1L), any());
+    }
+
+    @Test
+    void rebuild_replacesFarmRowsWithRecomputedPeriods() {
+        UUID farmId = UUID.randomUUID();
+        when(statsRepository.aggregateFarm(farmId, SessionStatus.COMPLETED, ALERT_THRESHOLD)).thenReturn(List.of(
+                new PeriodTotals(2026, 1, 2L, 5L, 12L, 0L),
+                new PeriodTotals(2026, 2, 1L, 3L, 40L, 2L)
+        ));
+
+        statsService.rebuild(farmId);
+
+        var inOrder = inOrder(statsRepository);
+        inOrder.verify(statsRepository).deleteByFarmId(farmId);
+        inOrder.verify(statsRepository).assign(eq(farmId), eq(LocalDate.of(2026, 1, 1)), eq(2L), eq(5L), eq(12L),
+                eq(0L), any());
+        inOrder.verify(statsRepository).assign(eq(farmId), eq(LocalDate.of(2026, 2, 1)), eq(1L), eq(3L), eq(40L),
+                eq(2L), any());
+    }
+
+    @Test
+    void rebuild_leavesMonthsBeforeTheArchiveCutoffUntouched() {
+        UUID farmId = UUID.randomUUID();
+        LocalDate cutoff = LocalDate.of(2026, 2, 1);
+        when(archiveProperties.sessionCutoff(any())).thenReturn(Optional.of(cutoff));
+        when(statsRepository.aggregateFarm(farmId, SessionStatus.COMPLETED, ALERT_THRESHOLD)).thenReturn(List.of(
+                new PeriodTotals(2026, 1, 1L, 2L, 3L, 0L),
+                new PeriodTotals(2026, 2, 1L, 3L, 40L, 2L)
+        ));
+
+        statsService.rebuild(farmId);
+
+        verify(statsRepository).deleteByFarmIdFrom(farmId, cutoff);
+        verify(statsRepository, never()).deleteByFarmId(any());
+        verify(statsRepository).assign(eq(farmId), eq(cutoff), eq(1L), eq(3L), eq(40L), eq(2L), any());
+        verify(statsRepository, never()).assign(eq(farmId), eq(LocalDate.of(2026, 1, 1)), anyLong(), anyLong(),
+                anyLong(), anyLong(), any());
+    }
+
+    @Test
+    void getFarmComparison_ranksFarmsByAverageSeverity() {
+        when(statsRepository.findFarmTotals()).thenReturn(List.of(
+                new FarmComparisonTotals(UUID.randomUUID(), "Quiet", 0L, 0L, 0L),
+                new FarmComparisonTotals(UUID.randomUUID(), "Alpha", 3L, 35L, 1L),
+                new FarmComparisonTotals(UUID.randomUUID(), "Beta", 2L, 4L, 0L)
+        ));
+
+        var comparisons = statsService.getFarmComparison();
+
+        assertThat(comparisons).extracting("farm").containsExactly("Alpha", "Beta", "Quiet");
+        assertThat(comparisons.get(0).avgSeverity()).isEqualTo(11.7);
+        assertThat(comparisons.get(0).observations()).isEqualTo(35);
+        assertThat(comparisons.get(0).alerts()).isEqualTo(1);
+        assertThat(comparisons.get(2).avgSeverity()).isZero();
+    }
+
+    private static ScoutingSession session() {
+        Farm farm = new Farm();
+        farm.setId(UUID.randomUUID());
+        return ScoutingSession.builder()
+                .id(UUID.randomUUID())
+                .farm(farm)
+                .build();
+    }
+}
@@ -1,9 +1,10 @@
 package mofo.com.pestscout.analytics.service;
 
-import mofo.com.pestscout.farm.config.LicensePolicyProperties;
+import jakarta.persistence.EntityManager;
 import mofo.com.pestscout.farm.model.Farm;
 import mofo.com.pestscout.farm.model.LicenseType;
 import mofo.com.pestscout.farm.model.SubscriptionStatus;
+import mofo.com.pestscout.farm.repository.FarmRepository;
 import mofo.com.pestscout.farm.service.LicenseService;
 import mofo.com.pestscout.scouting.model.*;
 import mofo.com.pestscout.scouting.repository.ScoutingObservationRepository;
@@ -13,20 +14,27 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.SliceImpl;
 
+import java.io.ByteArrayOutputStream;
 import java.math.BigDecimal;
 import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
 import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.atomic.AtomicReference;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
 class RawDataPdfExportServiceTest {
 
-    private final LicensePolicyProperties licensePolicyProperties = new LicensePolicyProperties();
     @Mock
     private AnalyticsAccessService analyticsAccessService;
     @Mock
@@ -35,6 +43,10 @@ class RawDataPdfExportServiceTest {
     private ScoutingObservationRepository observationRepository;
     @Mock
     private LicenseService licenseService;
+    @Mock
+    private FarmRepository farmRepository;
+    @Mock
+    private EntityManager entityManager;
     private RawDataPdfExportService rawDataPdfExportService;
 
     @BeforeEach
@@ -44,12 +56,13 @@ class RawDataPdfExportServiceTest {
                 sessionRepository,
                 observationRepository,
                 licenseService,
-                licensePolicyProperties
+                farmRepository,
+                entityManager
         );
     }
 
     @Test
-    void exportFarmRawDataPdf_returnsPdfBytesAndFileName() {
+    void exportFarmRawDataPdf_streamsPdfWithFileName() throws Exception {
         UUID farmId = UUID.randomUUID();
         Farm farm = Farm.builder()
                 .id(farmId)
@@ -86,14 +99,23 @@ class RawDataPdfExportServiceTest {
                 .build();
 
         when(analyticsAccessService.loadFarmAndEnsureAnalyticsAccess(farmId)).thenReturn(farm);
-        when(sessionRepository.findByFarmId(farmId)).thenReturn(List.of(session));
+        when(sessionRepository.findSliceByFarmId(eq(farmId), any(Pageable.class)))
+                .thenReturn(new SliceImpl<>(List.of(session)));
         when(observationRepository.findBySessionIdIn(List.of(session.getId()))).thenReturn(List.of(observation));
         when(licenseService.resolveEffectiveLicensedArea(farm)).thenReturn(new BigDecimal("12.00"));
 
-        RawDataPdfExportService.GeneratedPdfDocument document = rawDataPdfExportService.exportFarmRawDataPdf(farmId);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        AtomicReference<String> fileName = new AtomicReference<>();
+        rawDataPdfExportService.exportFarmRawDataPdf(farmId, name -> {
+            fileName.set(name);
+            return out;
+        });
 
-        assertThat(document.fileName()).startsWith("farm-raw-data-" + farmId);
-        assertThat(new String(document.content(), 0, 8, StandardCharsets.US_ASCII)).startsWith("%PDF-1.4");
-        assertThat(document.content().length).isGreaterThan(200);
+        byte[] content = out.toByteArray();
+        assertThat(fileName.get()).startsWith("farm-raw-data-" + farmId);
+        assertThat(new String(content, 0, 8, StandardCharsets.US_ASCII)).startsWith("%PDF-1.4");
+        assertThat(new String(content, StandardCharsets.ISO_8859_1)).endsWith("%%EOF");
+        assertThat(content.length).isGreaterThan(200);
+        verify(entityManager, times(2)).clear();
     }
 }
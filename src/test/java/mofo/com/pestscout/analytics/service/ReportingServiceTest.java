@@ -1,17 +1,17 @@
 package mofo.com.pestscout.analytics.service;
 
+import mofo.com.pestscout.analytics.dto.FarmComparisonDto;
 import mofo.com.pestscout.analytics.dto.FarmMonthlyReportDto;
 import mofo.com.pestscout.analytics.dto.FarmWeeklyAnalyticsDto;
 import mofo.com.pestscout.analytics.dto.HeatmapResponse;
 import mofo.com.pestscout.common.model.SyncStatus;
 import mofo.com.pestscout.farm.model.Farm;
-import mofo.com.pestscout.farm.repository.FarmRepository;
 import mofo.com.pestscout.farm.service.AnalyticsService;
 import mofo.com.pestscout.scouting.dto.ScoutingSessionDetailDto;
 import mofo.com.pestscout.scouting.model.*;
 import mofo.com.pestscout.scouting.repository.ScoutingObservationRepository;
-import mofo.com.pestscout.scouting.repository.ScoutingPhotoAnalysisRepository;
 import mofo.com.pestscout.scouting.repository.ScoutingSessionRepository;
+import mofo.com.pestscout.scouting.service.PhotoAnalysisAccuracyService;
 import mofo.com.pestscout.scouting.service.ScoutingSessionService;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -27,11 +27,13 @@ import java.time.LocalTime;
 import java.util.EnumMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.UUID;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -40,9 +42,6 @@ class ReportingServiceTest {
     @Mock
     private AnalyticsAccessService analyticsAccessService;
 
-    @Mock
-    private FarmRepository farmRepository;
-
     @Mock
     private ScoutingSessionRepository sessionRepository;
 
@@ -50,7 +49,7 @@ class ReportingServiceTest {
     private ScoutingObservationRepository observationRepository;
 
     @Mock
-    private ScoutingPhotoAnalysisRepository photoAnalysisRepository;
+    private PhotoAnalysisAccuracyService photoAnalysisAccuracyService;
 
     @Mock
     private HeatmapService heatmapService;
@@ -64,6 +63,12 @@ class ReportingServiceTest {
     @Mock
     private TrendAnalysisService trendAnalysisService;
 
+    @Mock
+    private FarmAnalyticsContextService contextService;
+
+    @Mock
+    private FarmComparisonStatsService farmComparisonStatsService;
+
     @InjectMocks
     private ReportingService reportingService;
 
@@ -174,13 +179,11 @@ class ReportingServiceTest {
     void getPestDistribution_ordersByCountAndCalculatesSeverity() {
         UUID farmId = UUID.randomUUID();
         ScoutingSession session = buildSession(farmId, UUID.randomUUID());
-        allowAnalyticsAccess(farmId);
 
         ScoutingObservation thrips = buildObservation(session, SpeciesCode.THRIPS, 10);
         ScoutingObservation whiteflies = buildObservation(session, SpeciesCode.WHITEFLIES, 5);
 
-        when(sessionRepository.findByFarmId(farmId)).thenReturn(List.of(session));
-        when(observationRepository.findBySessionIdIn(List.of(session.getId()))).thenReturn(List.of(whiteflies, thrips));
+        allowContext(farmId, List.of(session), List.of(whiteflies, thrips));
 
         var distribution = reportingService.getPestDistribution(farmId);
 
@@ -197,11 +200,9 @@ class ReportingServiceTest {
     void getDiseaseDistribution_returnsPercentagesForDiseaseSpecies() {
         UUID farmId = UUID.randomUUID();
         ScoutingSession session = buildSession(farmId, UUID.randomUUID());
-        allowAnalyticsAccess(farmId);
         ScoutingObservation powdery = buildObservation(session, SpeciesCode.POWDERY_MILDEW, 3);
 
-        when(sessionRepository.findByFarmId(farmId)).thenReturn(List.of(session));
-        when(observationRepository.findBySessionIdIn(List.of(session.getId()))).thenReturn(List.of(powdery));
+        allowContext(farmId, List.of(session), List.of(powdery));
 
         var distribution = reportingService.getDiseaseDistribution(farmId);
 
@@ -218,7 +219,6 @@ class ReportingServiceTest {
     @Test
     void getRecommendations_flattensSessionRecommendations() {
         UUID farmId = UUID.randomUUID();
-        allowAnalyticsAccess(farmId);
         Farm farm = new Farm();
         farm.setName("Farm");
         ScoutingSession session = ScoutingSession.builder()
@@ -230,7 +230,7 @@ class ReportingServiceTest {
                 .build();
         session.getRecommendations().put(RecommendationType.CHEMICAL_SPRAYS, "Spray");
 
-        when(sessionRepository.findByFarmId(farmId)).thenReturn(List.of(session));
+        allowContext(farmId, List.of(session), List.of());
 
         var recommendations = reportingService.getRecommendations(farmId);
 
@@ -248,12 +248,10 @@ class ReportingServiceTest {
     void getAlerts_filtersNonCriticalObservations() {
         UUID farmId = UUID.randomUUID();
         ScoutingSession session = buildSession(farmId, UUID.randomUUID());
-        allowAnalyticsAccess(farmId);
         ScoutingObservation benign = buildObservation(session, SpeciesCode.BENEFICIAL_PP, 50);
         ScoutingObservation alertObs = buildObservation(session, SpeciesCode.THRIPS, SeverityLevel.HIGH.minThreshold());
 
-        when(sessionRepository.findByFarmId(farmId)).thenReturn(List.of(session));
-        when(observationRepository.findBySessionIdIn(List.of(session.getId()))).thenReturn(List.of(alertObs, benign));
+        allowContext(farmId, List.of(session), List.of(alertObs, benign));
 
         var alerts = reportingService.getAlerts(farmId);
 
@@ -264,72 +262,41 @@ class ReportingServiceTest {
     }
 
     /**
-     * Exercises the farm comparison pipeline including severity averages and alert counts.
+     * Ensures the comparison is served from the pre-aggregated stats instead of scanning every farm.
      */
     @Test
-    void getFarmComparison_ranksByAverageSeverity() {
-        UUID farmId = UUID.randomUUID();
-        Farm farm = new Farm();
-        farm.setId(farmId);
-        farm.setName("Alpha");
-
-        ScoutingSession session = buildSession(farmId, UUID.randomUUID());
-        ScoutingObservation observation = buildObservation(session, SpeciesCode.THRIPS, SeverityLevel.HIGH.minThreshold());
-
-        when(farmRepository.findAll()).thenReturn(List.of(farm));
-        when(sessionRepository.findByFarmId(farmId)).thenReturn(List.of(session));
-        when(observationRepository.findBySessionIdIn(List.of(session.getId()))).thenReturn(List.of(observation));
+    void getFarmComparison_readsAggregatedStats() {
+        FarmComparisonDto alpha = new FarmComparisonDto("Alpha", 11.0, 11, 1);
+        when(farmComparisonStatsService.getFarmComparison()).thenReturn(List.of(alpha));
 
-        var comparisons = reportingService.getFarmComparison();
-
-        assertThat(comparisons).singleElement().satisfies(dto -> {
-            assertThat(dto.farm()).isEqualTo("Alpha");
-            assertThat(dto.avgSeverity()).isEqualTo((double) SeverityLevel.HIGH.minThreshold());
-            assertThat(dto.alerts()).isEqualTo(1);
-        });
+        assertThat(reportingService.getFarmComparison()).containsExactly(alpha);
+        verifyNoInteractions(sessionRepository, observationRepository);
     }
 
     /**
-     * Confirms scout performance uses reviewed cell-photo comparisons against the scout's recorded observation.
+     * Confirms scout performance reads the scout's maintained cell-comparison accuracy counter.
      */
     @Test
     void getScoutPerformance_usesReviewedPhotoAnalysesForAccuracy() {
         UUID farmId = UUID.randomUUID();
         ScoutingSession session = buildSession(farmId, UUID.randomUUID());
-        allowAnalyticsAccess(farmId);
         session.setStatus(SessionStatus.COMPLETED);
         session.setStartedAt(LocalDateTime.now().minusMinutes(5));
         session.setCompletedAt(session.getStartedAt().plus(Duration.ofMinutes(5)));
 
         ScoutingObservation observation = buildObservation(session, SpeciesCode.WHITEFLIES, 2);
-        ScoutingPhoto photo = ScoutingPhoto.builder()
-                .id(UUID.randomUUID())
-                .session(session)
-                .observation(observation)
-                .sessionTarget(observation.getSessionTarget())
-                .farmId(farmId)
-                .bayIndex(observation.getBayIndex())
-                .benchIndex(observation.getBenchIndex())
-                .spotIndex(observation.getSpotIndex())
-                .localPhotoId("photo-1")
-                .build();
-        ScoutingPhotoAnalysis analysis = ScoutingPhotoAnalysis.builder()
-                .id(UUID.randomUUID())
-                .photo(photo)
+        PhotoAnalysisAccuracyCounter scoutAccuracy = PhotoAnalysisAccuracyCounter.builder()
                 .farmId(farmId)
-                .provider("heuristic-local-v1")
-                .modelVersion("heuristic-local-v1")
-                .predictedSpeciesCode(SpeciesCode.WHITEFLIES)
-                .reviewedSpeciesCode(SpeciesCode.WHITEFLIES)
-                .reviewStatus(PhotoAnalysisReviewStatus.CONFIRMED)
+                .scope(PhotoAnalysisAccuracyScope.SCOUT)
+                .scopeKey(session.getScout().getId().toString())
+                .reviewedCount(1)
+                .exactMatchCount(1)
                 .build();
 
-        when(sessionRepository.findByFarmId(farmId)).thenReturn(List.of(session));
-        when(observationRepository.findBySessionIdIn(List.of(session.getId()))).thenReturn(List.of(observation));
-        when(photoAnalysisRepository.findByFarmIdAndReviewStatusIn(
-                farmId,
-                List.of(PhotoAnalysisReviewStatus.CONFIRMED, PhotoAnalysisReviewStatus.CORRECTED)
-        )).thenReturn(List.of(analysis));
+        allowContext(farmId, List.of(session), List.of(observation));
+        when(photoAnalysisAccuracyService.farmCounter(farmId)).thenReturn(Optional.of(scoutAccuracy));
+        when(photoAnalysisAccuracyService.counters(farmId, PhotoAnalysisAccuracyScope.SCOUT))
+                .thenReturn(List.of(scoutAccuracy));
 
         var performance = reportingService.getScoutPerformance(farmId);
 
@@ -345,15 +312,11 @@ class ReportingServiceTest {
     void getScoutPerformance_withoutReviewedPhotoAnalyses_returnsZeroAccuracy() {
         UUID farmId = UUID.randomUUID();
         ScoutingSession session = buildSession(farmId, UUID.randomUUID());
-        allowAnalyticsAccess(farmId);
         session.setStatus(SessionStatus.COMPLETED);
 
-        when(sessionRepository.findByFarmId(farmId)).thenReturn(List.of(session));
-        when(observationRepository.findBySessionIdIn(List.of(session.getId()))).thenReturn(List.of());
-        when(photoAnalysisRepository.findByFarmIdAndReviewStatusIn(
-                farmId,
-                List.of(PhotoAnalysisReviewStatus.CONFIRMED, PhotoAnalysisReviewStatus.CORRECTED)
-        )).thenReturn(List.of());
+        allowContext(farmId, List.of(session), List.of());
+        when(photoAnalysisAccuracyService.farmCounter(farmId)).thenReturn(Optional.empty());
+        when(photoAnalysisAccuracyService.counters(farmId, PhotoAnalysisAccuracyScope.SCOUT)).thenReturn(List.of());
 
         var performance = reportingService.getScoutPerformance(farmId);
 
@@ -376,10 +339,9 @@ class ReportingServiceTest {
                 .build();
     }
 
-    private void allowAnalyticsAccess(UUID farmId) {
-        Farm farm = new Farm();
-        farm.setId(farmId);
-        when(analyticsAccessService.loadFarmAndEnsureAnalyticsAccess(farmId)).thenReturn(farm);
+    private void allowContext(UUID farmId, List<ScoutingSession> sessions, List<ScoutingObservation> observations) {
+        when(contextService.load(farmId))
+                .thenReturn(FarmAnalyticsContextFixtures.context(farmId, "Farm", LocalDate.now(), sessions, observations));
     }
 
     private ScoutingObservation buildObservation(ScoutingSession session, SpeciesCode code, int count) {
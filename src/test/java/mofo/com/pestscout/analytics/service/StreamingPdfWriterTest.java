@@ -0,0 +1,62 @@
+package mofo.com.pestscout.analytics.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.Inflater;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class StreamingPdfWriterTest {
+
+    @Test
+    void finish_writesCrossReferenceOffsetsThatPointAtEachObject() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        StreamingPdfWriter writer = new StreamingPdfWriter(out, "Export");
+        for (int i = 0; i < 100; i++) {
+            writer.line("Observation line " + i);
+        }
+        writer.finish();
+
+        String pdf = out.toString(StandardCharsets.ISO_8859_1);
+        int startxref = Integer.parseInt(pdf.substring(pdf.lastIndexOf("startxref\n") + 10, pdf.lastIndexOf("\n%%EOF")));
+        assertThat(pdf.substring(startxref)).startsWith("xref\n");
+
+        Matcher entries = Pattern.compile("(\\d{10}) 00000 n ").matcher(pdf.substring(startxref));
+        int objectNumber = 1;
+        while (entries.find()) {
+            int offset = Integer.parseInt(entries.group(1));
+            assertThat(pdf.substring(offset)).startsWith(objectNumber + " 0 obj\n");
+            objectNumber++;
+        }
+        // Catalog, page tree and font plus a page and content stream for each of the three pages.
+        assertThat(objectNumber - 1).isEqualTo(9);
+        assertThat(pdf).contains("/Type /Pages /Count 3");
+    }
+
+    @Test
+    void line_compressesContentStreamsWithFlate() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        StreamingPdfWriter writer = new StreamingPdfWriter(out, "Export");
+        writer.line("Thrips (hotspot) near vents");
+        writer.finish();
+
+        byte[] bytes = out.toByteArray();
+        String pdf = new String(bytes, StandardCharsets.ISO_8859_1);
+        Matcher header = Pattern.compile("<< /Length (\\d+) /Filter /FlateDecode >>\nstream\n").matcher(pdf);
+        assertThat(header.find()).isTrue();
+        int length = Integer.parseInt(header.group(1));
+
+        Inflater inflater = new Inflater();
+        inflater.setInput(bytes, header.end(), length);
+        byte[] inflated = new byte[4096];
+        int size = inflater.inflate(inflated);
+        assertThat(inflater.finished()).isTrue();
+        assertThat(new String(inflated, 0, size, StandardCharsets.ISO_8859_1))
+                .contains("(Export) Tj")
+                .contains("(Thrips \\(hotspot\\) near vents) Tj");
+    }
+}
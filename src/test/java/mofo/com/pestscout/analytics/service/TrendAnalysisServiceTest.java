@@ -17,6 +17,7 @@ import java.time.temporal.WeekFields;
 import java.util.List;
 import java.util.UUID;
 
+import static mofo.com.pestscout.analytics.service.FarmAnalyticsContextFixtures.context;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.Mockito.when;
 
@@ -32,11 +33,14 @@ class TrendAnalysisServiceTest {
     @Mock
     private AnalyticsAccessService analyticsAccessService;
 
+    @Mock
+    private FarmAnalyticsContextService contextService;
+
     private TrendAnalysisService service;
 
     @Test
     void aggregatesWeeklyPestTrendsAcrossWindow() {
-        service = new TrendAnalysisService(sessionRepository, observationRepository, analyticsAccessService);
+        service = new TrendAnalysisService(sessionRepository, observationRepository, analyticsAccessService, contextService);
         UUID farmId = UUID.randomUUID();
         LocalDate referenceMonday = LocalDate.of(2024, 6, 3); // Monday for deterministic week numbers
 
@@ -45,11 +49,8 @@ class TrendAnalysisServiceTest {
         ScoutingObservation redSpider = observation(session, SpeciesCode.RED_SPIDER_MITE, 2);
 
         mockCurrentDate(referenceMonday, () -> {
-            when(analyticsAccessService.loadFarmAndEnsureAnalyticsAccess(farmId)).thenReturn(null);
-            when(sessionRepository.findByFarmIdAndSessionDateBetween(Mockito.eq(farmId), Mockito.any(), Mockito.any()))
-                    .thenReturn(List.of(session));
-            when(observationRepository.findBySessionIdIn(List.of(session.getId())))
-                    .thenReturn(List.of(thrips, redSpider));
+            when(contextService.load(Mockito.eq(farmId), Mockito.any(), Mockito.any()))
+                    .thenReturn(context(farmId, "Farm", referenceMonday, List.of(session), List.of(thrips, redSpider)));
 
             List<WeeklyPestTrendDto> result = service.getWeeklyPestTrends(farmId);
 
@@ -71,7 +72,7 @@ class TrendAnalysisServiceTest {
 
     @Test
     void aggregatesSeverityTrendByWeek() {
-        service = new TrendAnalysisService(sessionRepository, observationRepository, analyticsAccessService);
+        service = new TrendAnalysisService(sessionRepository, observationRepository, analyticsAccessService, contextService);
         UUID farmId = UUID.randomUUID();
         LocalDate referenceMonday = LocalDate.of(2024, 6, 3);
 
@@ -84,11 +85,8 @@ class TrendAnalysisServiceTest {
                 observation(session, SpeciesCode.MEALYBUGS, SeverityLevel.HIGH);
 
         mockCurrentDate(referenceMonday, () -> {
-            when(analyticsAccessService.loadFarmAndEnsureAnalyticsAccess(farmId)).thenReturn(null);
-            when(sessionRepository.findByFarmIdAndSessionDateBetween(Mockito.eq(farmId), Mockito.any(), Mockito.any()))
-                    .thenReturn(List.of(session));
-            when(observationRepository.findBySessionIdIn(List.of(session.getId())))
-                    .thenReturn(List.of(lowSeverity, highSeverity));
+            when(contextService.load(Mockito.eq(farmId), Mockito.any(), Mockito.any()))
+                    .thenReturn(context(farmId, "Farm", referenceMonday, List.of(session), List.of(lowSeverity, highSeverity)));
 
             List<SeverityTrendPointDto> trend = service.getSeverityTrend(farmId);
             WeekFields weekFields = WeekFields.ISO;
@@ -109,7 +107,7 @@ class TrendAnalysisServiceTest {
 
     @Test
     void buildsPestTrendResponseAcrossSessions() {
-        service = new TrendAnalysisService(sessionRepository, observationRepository, analyticsAccessService);
+        service = new TrendAnalysisService(sessionRepository, observationRepository, analyticsAccessService, contextService);
         UUID farmId = UUID.randomUUID();
         LocalDate start = LocalDate.of(2024, 1, 1);
         LocalDate end = LocalDate.of(2024, 1, 31);
@@ -121,13 +119,8 @@ class TrendAnalysisServiceTest {
         ScoutingObservation obs2 = observation(second, SpeciesCode.WHITEFLIES, 6);
         ScoutingObservation differentSpecies = observation(second, SpeciesCode.THRIPS, 10);
 
-        when(analyticsAccessService.loadFarmAndEnsureAnalyticsAccess(farmId)).thenReturn(null);
-        when(sessionRepository.findByFarmIdAndSessionDateBetween(farmId, start, end))
-                .thenReturn(List.of(first, second));
-        when(observationRepository.findBySessionIdIn(List.of(first.getId())))
-                .thenReturn(List.of(obs1));
-        when(observationRepository.findBySessionIdIn(List.of(second.getId())))
-                .thenReturn(List.of(obs2, differentSpecies));
+        when(contextService.load(farmId, start, end))
+                .thenReturn(context(farmId, "Farm", end, List.of(first, second), List.of(obs1, obs2, differentSpecies)));
 
         PestTrendResponse response = service.getPestTrend(farmId, "WHITEFLIES", start, end);
 
@@ -140,7 +133,7 @@ class TrendAnalysisServiceTest {
 
     @Test
     void aggregatesGreenhouseWeeklyCountsForSelectedPest() {
-        service = new TrendAnalysisService(sessionRepository, observationRepository, analyticsAccessService);
+        service = new TrendAnalysisService(sessionRepository, observationRepository, analyticsAccessService, contextService);
         UUID farmId = UUID.randomUUID();
         LocalDate sessionDate = LocalDate.of(2024, 6, 3);
 
@@ -0,0 +1,255 @@
+package mofo.com.pestscout.analytics.service;
+
+import mofo.com.pestscout.analytics.model.ObservationFact;
+import mofo.com.pestscout.analytics.model.SessionFact;
+import mofo.com.pestscout.analytics.model.WeeklyAnalyticsCounter;
+import mofo.com.pestscout.analytics.model.WeeklyAnalyticsMetric;
+import mofo.com.pestscout.analytics.repository.FarmAnalyticsRepository;
+import mofo.com.pestscout.analytics.repository.WeeklyAnalyticsCounterRepository;
+import mofo.com.pestscout.farm.model.Farm;
+import mofo.com.pestscout.scouting.config.ScoutingArchiveProperties;
+import mofo.com.pestscout.scouting.model.ScoutingSession;
+import mofo.com.pestscout.scouting.model.SessionStatus;
+import mofo.com.pestscout.scouting.model.SpeciesCode;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class WeeklyAnalyticsServiceTest {
+
+    private static final LocalDate MONDAY = LocalDate.of(2026, 3, 2);
+
+    @Mock
+    private WeeklyAnalyticsCounterRepository counterRepository;
+
+    @Mock
+    private FarmAnalyticsRepository farmAnalyticsRepository;
+
+    @Mock
+    private ScoutingArchiveProperties archiveProperties;
+
+    @InjectMocks
+    private WeeklyAnalyticsService weeklyAnalyticsService;
+
+    @Test
+    void record_movesSessionCountBetweenStatuses() {
+        ScoutingSession session = session(MONDAY.plusDays(3), SessionStatus.SUBMITTED);
+        UUID farmId = session.getFarm().getId();
+        when(counterRepository.existsByFarmId(farmId)).thenReturn(true);
+
+        WeeklyAnalyticsService.SessionSnapshot before = weeklyAnalyticsService.snapshot(session);
+        session.setStatus(SessionStatus.COMPLETED);
+        weeklyAnalyticsService.record(before, session);
+
+        verify(counterRepository).increment(eq(farmId), eq(MONDAY), eq(WeeklyAnalyticsMetric.SESSIONS),
+                eq("SUBMITTED"), eq(-1L), any());
+        verify(counterRepository).increment(eq(farmId), eq(MONDAY), eq(WeeklyAnalyticsMetric.SESSIONS),
+                eq("COMPLETED"), eq(1L), any());
+        verify(farmAnalyticsRepository, never()).findSessionObservationFacts(any());
+    }
+
+    @Test
+    void record_replacesObservationTotalsOnSubmit() {
+        ScoutingSession session = session(MONDAY, SessionStatus.IN_PROGRESS);
+        UUID farmId = session.getFarm().getId();
+        when(counterRepository.existsByFarmId(farmId)).thenReturn(true);
+        when(farmAnalyticsRepository.findSessionObservationFacts(session.getId()))
+                .thenReturn(List.of(observation(session.getId(), SpeciesCode.THRIPS, 4)))
+                .thenReturn(List.of(
+                        observation(session.getId(), SpeciesCode.THRIPS, 12),
+                        observation(session.getId(), SpeciesCode.BOTRYTIS, 2)));
+
+        WeeklyAnalyticsService.SessionSnapshot before = weeklyAnalyticsService.snapshotWithObservations(session);
+        session.setStatus(SessionStatus.SUBMITTED);
+        weeklyAnalyticsService.record(before, session);
+
+        verify(counterRepository).increment(eq(farmId), eq(MONDAY), eq(WeeklyAnalyticsMetric.CATEGORY_TOTAL),
+                eq("PEST"), eq(8L), any());
+        verify(counterRepository).increment(eq(farmId), eq(MONDAY), eq(WeeklyAnalyticsMetric.CATEGORY_TOTAL),
+                eq("DISEASE"), eq(2L), any());
+        // One LOW observation became a HIGH one, and a new LOW one was added: LOW is unchanged.
+        verify(counterRepository).increment(eq(farmId), eq(MONDAY), eq(WeeklyAnalyticsMetric.SEVERITY_BUCKET),
+                eq("HIGH"), eq(1L), any());
+        verify(counterRepository, never()).increment(any(), any(), eq(WeeklyAnalyticsMetric.SEVERITY_BUCKET),
+                eq("LOW"), anyLong(), any());
+    }
+
+    @Test
+    void record_movesObservationsWhenSessionDateChangesWeek() {
+        ScoutingSession session = session(MONDAY, SessionStatus.REOPENED);
+        UUID farmId = session.getFarm().getId();
+        when(counterRepository.existsByFarmId(farmId)).thenReturn(true);
+        when(farmAnalyticsRepository.findSessionObservationFacts(session.getId()))
+                .thenReturn(List.of(observation(session.getId(), SpeciesCode.THRIPS, 3)));
+
+        WeeklyAnalyticsService.SessionSnapshot before = weeklyAnalyticsService.snapshot(session);
+        session.setSessionDate(MONDAY.plusWeeks(1));
+        weeklyAnalyticsService.record(before, session);
+
+        verify(counterRepository).increment(eq(farmId), eq(MONDAY), eq(WeeklyAnalyticsMetric.CATEGORY_TOTAL),
+                eq("PEST"), eq(-3L), any());
+        verify(counterRepository).increment(eq(farmId), eq(MONDAY.plusWeeks(1)),
+                eq(WeeklyAnalyticsMetric.CATEGORY_TOTAL), eq("PEST"), eq(3L), any());
+    }
+
+    @Test
+    void record_leavesUnbuiltFarmsToTheirFirstRebuild() {
+        ScoutingSession session = session(MONDAY, SessionStatus.DRAFT);
+        when(counterRepository.existsByFarmId(session.getFarm().getId())).thenReturn(false);
+
+        weeklyAnalyticsService.record(null, session);
+
+        verify(counterRepository, never()).increment(any(), any(), any(), any(), anyLong(), any());
+    }
+
+    @Test
+    void rebuild_assignsTotalsPerWeek() {
+        UUID farmId = UUID.randomUUID();
+        UUID first = UUID.randomUUID();
+        UUID second = UUID.randomUUID();
+        when(farmAnalyticsRepository.findSessionFacts(farmId)).thenReturn(List.of(
+                sessionFact(first, MONDAY.plusDays(6), SessionStatus.COMPLETED),
+                sessionFact(second, MONDAY.plusDays(7), SessionStatus.COMPLETED)
+        ));
+        when(farmAnalyticsRepository.findObservationFacts(farmId)).thenReturn(List.of(
+                observation(first, SpeciesCode.THRIPS, 2),
+                observation(first, SpeciesCode.THRIPS, 5)
+        ));
+
+        weeklyAnalyticsService.rebuild(farmId);
+
+        verify(counterRepository).deleteByFarmId(farmId);
+        verify(counterRepository).assign(eq(farmId), eq(MONDAY), eq(WeeklyAnalyticsMetric.SESSIONS),
+                eq("COMPLETED"), eq(1L), any());
+        verify(counterRepository).assign(eq(farmId), eq(MONDAY.plusWeeks(1)), eq(WeeklyAnalyticsMetric.SESSIONS),
+                eq("COMPLETED"), eq(1L), any());
+        verify(counterRepository).assign(eq(farmId), eq(MONDAY), eq(WeeklyAnalyticsMetric.CATEGORY_TOTAL),
+                eq("PEST"), eq(7L), any());
+        verify(counterRepository).assign(eq(farmId), eq(MONDAY), eq(WeeklyAnalyticsMetric.SEVERITY_BUCKET),
+                eq("LOW"), eq(2L), any());
+    }
+
+    @Test
+    void rebuild_keepsWeeksBeforeTheArchiveCutoffOnceBuilt() {
+        UUID farmId = UUID.randomUUID();
+        UUID archivedWeek = UUID.randomUUID();
+        UUID hotWeek = UUID.randomUUID();
+        // Cutoff mid-week: the week it falls in still holds archived sessions, so counting resumes the week after.
+        when(archiveProperties.sessionCutoff(any())).thenReturn(Optional.of(MONDAY.plusDays(3)));
+        when(counterRepository.existsByFarmId(farmId)).thenReturn(true);
+        when(farmAnalyticsRepository.findSessionFacts(farmId)).thenReturn(List.of(
+                sessionFact(archivedWeek, MONDAY.plusDays(4), SessionStatus.COMPLETED),
+                sessionFact(hotWeek, MONDAY.plusDays(7), SessionStatus.COMPLETED)
+        ));
+        when(farmAnalyticsRepository.findObservationFacts(farmId)).thenReturn(List.of(
+                observation(archivedWeek, SpeciesCode.THRIPS, 2)
+        ));
+
+        weeklyAnalyticsService.rebuild(farmId);
+
+        verify(counterRepository).deleteByFarmIdFrom(farmId, MONDAY.plusWeeks(1));
+        verify(counterRepository, never()).deleteByFarmId(any());
+        verify(counterRepository).assign(eq(farmId), eq(MONDAY.plusWeeks(1)), eq(WeeklyAnalyticsMetric.SESSIONS),
+                eq("COMPLETED"), eq(1L), any());
+        verify(counterRepository, never()).assign(eq(farmId), eq(MONDAY), any(), any(), anyLong(), any());
+    }
+
+    @Test
+    void rebuild_marksFarmWithoutSessionsAsBuilt() {
+        UUID farmId = UUID.randomUUID();
+
+        weeklyAnalyticsService.rebuild(farmId);
+
+        verify(counterRepository).insertIfAbsent(any(), eq(farmId), eq(WeeklyAnalyticsService.BUILT_MARKER_WEEK),
+                eq(WeeklyAnalyticsMetric.BUILT.name()), eq(WeeklyAnalyticsService.BUILT_MARKER_KEY), any());
+        verify(counterRepository, never()).assign(any(), any(), any(), any(), anyLong(), any());
+    }
+
+    @Test
+    void repairDrift_rewritesCountersThatDifferFromTheScoutingTables() {
+        UUID farmId = UUID.randomUUID();
+        UUID sessionId = UUID.randomUUID();
+        when(counterRepository.existsByFarmId(farmId)).thenReturn(true);
+        when(farmAnalyticsRepository.findSessionFacts(farmId)).thenReturn(List.of(
+                sessionFact(sessionId, MONDAY, SessionStatus.COMPLETED)));
+        when(counterRepository.findByFarmId(farmId)).thenReturn(List.of(
+                builtMarker(farmId),
+                counter(farmId, MONDAY, WeeklyAnalyticsMetric.SESSIONS, "COMPLETED", 1),
+                counter(farmId, MONDAY, WeeklyAnalyticsMetric.SESSIONS, "SUBMITTED", 1)));
+
+        int drifted = weeklyAnalyticsService.repairDrift(farmId);
+
+        assertThat(drifted).isEqualTo(1);
+        verify(counterRepository).deleteByFarmId(farmId);
+        verify(counterRepository).assign(eq(farmId), eq(MONDAY), eq(WeeklyAnalyticsMetric.SESSIONS),
+                eq("COMPLETED"), eq(1L), any());
+    }
+
+    @Test
+    void repairDrift_leavesMatchingCountersAlone() {
+        UUID farmId = UUID.randomUUID();
+        UUID sessionId = UUID.randomUUID();
+        when(counterRepository.existsByFarmId(farmId)).thenReturn(true);
+        when(farmAnalyticsRepository.findSessionFacts(farmId)).thenReturn(List.of(
+                sessionFact(sessionId, MONDAY, SessionStatus.COMPLETED)));
+        when(counterRepository.findByFarmId(farmId)).thenReturn(List.of(
+                builtMarker(farmId),
+                counter(farmId, MONDAY, WeeklyAnalyticsMetric.SESSIONS, "COMPLETED", 1),
+                counter(farmId, MONDAY, WeeklyAnalyticsMetric.SESSIONS, "DRAFT", 0)));
+
+        int drifted = weeklyAnalyticsService.repairDrift(farmId);
+
+        assertThat(drifted).isZero();
+        verify(counterRepository, never()).deleteByFarmId(any());
+        verify(counterRepository, never()).assign(any(), any(), any(), any(), anyLong(), any());
+    }
+
+    private static ScoutingSession session(LocalDate sessionDate, SessionStatus status) {
+        Farm farm = new Farm();
+        farm.setId(UUID.randomUUID());
+        return ScoutingSession.builder()
+                .id(UUID.randomUUID())
+                .farm(farm)
+                .sessionDate(sessionDate)
+                .status(status)
+                .build();
+    }
+
+    private static WeeklyAnalyticsCounter builtMarker(UUID farmId) {
+        return counter(farmId, WeeklyAnalyticsService.BUILT_MARKER_WEEK, WeeklyAnalyticsMetric.BUILT,
+                WeeklyAnalyticsService.BUILT_MARKER_KEY, 0);
+    }
+
+    private static WeeklyAnalyticsCounter counter(UUID farmId, LocalDate weekStart, WeeklyAnalyticsMetric metric,
+                                                  String key, long total) {
+        return WeeklyAnalyticsCounter.builder()
+                .farmId(farmId)
+                .weekStart(weekStart)
+                .metric(metric)
+                .metricKey(key)
+                .total(total)
+                .build();
+    }
+
+    private static SessionFact sessionFact(UUID id, LocalDate sessionDate, SessionStatus status) {
+        return new SessionFact(id, sessionDate, status, null, null, null, null, null, null, null, null);
+    }
+
+    private static ObservationFact observation(UUID sessionId, SpeciesCode speciesCode, int count) {
+        return new ObservationFact(sessionId, speciesCode, null, null, null, null, null, count, 1, null, 1, null);
+    }
+}
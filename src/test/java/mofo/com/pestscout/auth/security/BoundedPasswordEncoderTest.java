@@ -0,0 +1,79 @@
+package mofo.com.pestscout.auth.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import mofo.com.pestscout.auth.config.PasswordHashingProperties;
+import mofo.com.pestscout.common.exception.TooManyRequestsException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class BoundedPasswordEncoderTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private BoundedPasswordEncoder encoder;
+
+    @AfterEach
+    void tearDown() {
+        if (encoder != null) {
+            encoder.destroy();
+        }
+    }
+
+    @Test
+    void matches_delegatesAndRecordsLatency() {
+        PasswordEncoder delegate = mock(PasswordEncoder.class);
+        when(delegate.matches("secret", "hash")).thenReturn(true);
+        encoder = new BoundedPasswordEncoder(delegate, properties(1, 1), meterRegistry);
+
+        assertThat(encoder.matches("secret", "hash")).isTrue();
+        assertThat(meterRegistry.get("auth.password.hash").tag("operation", "matches").timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    void matches_rejectsWithRetryAfterWhenQueueIsFull() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch started = new CountDownLatch(1);
+        PasswordEncoder delegate = mock(PasswordEncoder.class);
+        when(delegate.matches(any(), anyString())).thenAnswer(invocation -> {
+            started.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return true;
+        });
+        encoder = new BoundedPasswordEncoder(delegate, properties(1, 1), meterRegistry);
+
+        CompletableFuture<Boolean> running = CompletableFuture.supplyAsync(() -> encoder.matches("a", "hash"));
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+        CompletableFuture<Boolean> queued = CompletableFuture.supplyAsync(() -> encoder.matches("b", "hash"));
+        while (meterRegistry.get("auth.password.hash.queue.depth").gauge().value() < 1) {
+            Thread.onSpinWait();
+        }
+
+        assertThatThrownBy(() -> encoder.matches("c", "hash"))
+                .isInstanceOf(TooManyRequestsException.class)
+                .satisfies(ex -> assertThat(((TooManyRequestsException) ex).getRetryAfterSeconds()).isEqualTo(3));
+        assertThat(meterRegistry.get("auth.password.hash.rejected").counter().count()).isEqualTo(1);
+
+        release.countDown();
+        assertThat(running.get(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(queued.get(5, TimeUnit.SECONDS)).isTrue();
+    }
+
+    private PasswordHashingProperties properties(int threads, int queueCapacity) {
+        PasswordHashingProperties properties = new PasswordHashingProperties();
+        properties.setThreads(threads);
+        properties.setQueueCapacity(queueCapacity);
+        properties.setRetryAfterSeconds(3);
+        return properties;
+    }
+}
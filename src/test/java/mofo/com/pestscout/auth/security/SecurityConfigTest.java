@@ -1,5 +1,7 @@
 package mofo.com.pestscout.auth.security;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import mofo.com.pestscout.auth.config.PasswordHashingProperties;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
@@ -8,7 +10,6 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.web.cors.CorsConfigurationSource;
 
@@ -40,10 +41,12 @@ class SecurityConfigTest {
     private SecurityConfig securityConfig;
 
     @Test
-    void passwordEncoder_usesBCrypt() {
-        PasswordEncoder encoder = securityConfig.passwordEncoder();
-        assertThat(encoder).isInstanceOf(BCryptPasswordEncoder.class);
-        assertThat(encoder.matches("secret", encoder.encode("secret"))).isTrue();
+    void passwordEncoder_usesBCryptOnBoundedHashingPool() {
+        PasswordEncoder encoder = securityConfig.passwordEncoder(new PasswordHashingProperties(), new SimpleMeterRegistry());
+        assertThat(encoder).isInstanceOf(BoundedPasswordEncoder.class);
+        String encoded = encoder.encode("secret");
+        assertThat(encoded).startsWith("$2a$12$");
+        assertThat(encoder.matches("secret", encoded)).isTrue();
     }
 
     @Test
@@ -0,0 +1,222 @@
+package mofo.com.pestscout.auth.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import mofo.com.pestscout.auth.config.SessionStreamProperties;
+import mofo.com.pestscout.auth.model.ClientSessionEvent;
+import mofo.com.pestscout.auth.repository.ClientSessionEventRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class ClientSessionEventServiceTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private ClientSessionEventRepository eventRepository;
+    private ClientSessionEventService service;
+
+    @BeforeEach
+    void setUp() {
+        SessionStreamProperties properties = new SessionStreamProperties();
+        properties.setShardCount(2);
+        properties.setSendQueueCapacity(4);
+        properties.setNodeId("node-a");
+        meterRegistry = new SimpleMeterRegistry();
+        eventRepository = mock(ClientSessionEventRepository.class);
+        service = new ClientSessionEventService(properties, eventRepository, meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        service.shutdown();
+    }
+
+    @Test
+    void subscribe_replacesExistingStreamForSameClientSession() {
+        UUID userId = UUID.randomUUID();
+
+        SseEmitter first = service.subscribe(userId, "tab-1");
+        SseEmitter second = service.subscribe(userId, "tab-1");
+
+        assertThat(second).isNotSameAs(first);
+        assertThat(service.getOpenConnectionCount()).isEqualTo(1);
+        assertThat(meterRegistry.get("session.stream.connections").gauge().value()).isEqualTo(1.0);
+    }
+
+    @Test
+    void notifySessionReplacedAfterCommit_removesReplacedStreamOnly() {
+        UUID userId = UUID.randomUUID();
+        service.subscribe(userId, "old-session");
+        service.subscribe(userId, "other-tab");
+
+        service.notifySessionReplacedAfterCommit(userId, "old-session", "new-session");
+
+        assertThat(service.getOpenConnectionCount()).isEqualTo(1);
+    }
+
+    @Test
+    void notifySessionReplacedAfterCommit_ignoresUnchangedSession() {
+        UUID userId = UUID.randomUUID();
+        service.subscribe(userId, "same-session");
+
+        service.notifySessionReplacedAfterCommit(userId, "same-session", "same-session");
+
+        assertThat(service.getOpenConnectionCount()).isEqualTo(1);
+        verify(eventRepository, never()).save(any());
+    }
+
+    @Test
+    void notifySessionReplacedAfterCommit_writesOutboxRowForPeerNodes() {
+        UUID userId = UUID.randomUUID();
+
+        service.notifySessionReplacedAfterCommit(userId, "old-session", "new-session");
+
+        ArgumentCaptor<ClientSessionEvent> captor = ArgumentCaptor.forClass(ClientSessionEvent.class);
+        verify(eventRepository).save(captor.capture());
+        assertThat(captor.getValue().getUserId()).isEqualTo(userId);
+        assertThat(captor.getValue().getClientSessionId()).isEqualTo("old-session");
+        assertThat(captor.getValue().getActiveClientSessionId()).isEqualTo("new-session");
+        assertThat(captor.getValue().getOriginNodeId()).isEqualTo("node-a");
+    }
+
+    @Test
+    void deliverSessionReplaced_ignoresStreamsHeldByOtherNodes() {
+        service.subscribe(UUID.randomUUID(), "tab-1");
+
+        service.deliverSessionReplaced(UUID.randomUUID(), "unknown-session", "new-session");
+
+        assertThat(service.getOpenConnectionCount()).isEqualTo(1);
+    }
+
+    @Test
+    void publishHeartbeats_keepsHealthyStreamsOpen() {
+        service.subscribe(UUID.randomUUID(), "tab-1");
+        service.subscribe(UUID.randomUUID(), "tab-2");
+
+        service.publishHeartbeats();
+
+        assertThat(service.getOpenConnectionCount()).isEqualTo(2);
+        assertThat(meterRegistry.get("session.stream.evictions").tag("reason", "stalled").counter().count())
+                .isZero();
+    }
+
+    @Test
+    void publishHeartbeats_returnsWhileAStalledStreamIsStuckInSend() throws Exception {
+        service.shutdown();
+        CountDownLatch sendStarted = new CountDownLatch(1);
+        CountDownLatch releaseSend = new CountDownLatch(1);
+        BlockingEmitter emitter = new BlockingEmitter(sendStarted, releaseSend);
+        SessionStreamProperties properties = new SessionStreamProperties();
+        properties.setShardCount(1);
+        properties.setSlowConsumerTimeoutMs(1);
+        properties.setSendTimeoutMs(60000);
+        service = new ClientSessionEventService(properties, eventRepository, meterRegistry) {
+            @Override
+            SseEmitter createEmitter() {
+                return emitter;
+            }
+        };
+
+        try {
+            service.subscribe(UUID.randomUUID(), "tab-1");
+            assertThat(sendStarted.await(5, TimeUnit.SECONDS)).isTrue();
+            Thread.sleep(5);
+
+            assertTimeoutPreemptively(Duration.ofSeconds(2), () -> service.publishHeartbeats());
+
+            assertThat(service.getOpenConnectionCount()).isZero();
+            assertThat(meterRegistry.get("session.stream.evictions").tag("reason", "stalled").counter().count())
+                    .isEqualTo(1.0);
+        } finally {
+            releaseSend.countDown();
+        }
+        assertThat(emitter.completed.await(5, TimeUnit.SECONDS)).isTrue();
+    }
+
+    @Test
+    void send_closesStreamWhoseWriteOutlastsTheSendTimeout() throws Exception {
+        service.shutdown();
+        CountDownLatch sendStarted = new CountDownLatch(1);
+        CountDownLatch releaseSend = new CountDownLatch(1);
+        BlockingEmitter emitter = new BlockingEmitter(sendStarted, releaseSend);
+        SessionStreamProperties properties = new SessionStreamProperties();
+        properties.setShardCount(1);
+        properties.setSendTimeoutMs(50);
+        service = new ClientSessionEventService(properties, eventRepository, meterRegistry) {
+            @Override
+            SseEmitter createEmitter() {
+                return emitter;
+            }
+        };
+
+        try {
+            service.subscribe(UUID.randomUUID(), "tab-1");
+
+            assertThat(emitter.completed.await(5, TimeUnit.SECONDS)).isTrue();
+            assertThat(service.getOpenConnectionCount()).isZero();
+            assertThat(meterRegistry.get("session.stream.evictions").tag("reason", "send-timeout").counter().count())
+                    .isEqualTo(1.0);
+        } finally {
+            releaseSend.countDown();
+        }
+    }
+
+    /**
+     * Stands in for a client whose socket stops reading: {@code send} blocks, and like {@link SseEmitter} it holds
+     * the lock that {@code complete} needs while it does.
+     */
+    private static final class BlockingEmitter extends SseEmitter {
+
+        private final ReentrantLock writeLock = new ReentrantLock();
+        private final CountDownLatch sendStarted;
+        private final CountDownLatch releaseSend;
+        private final CountDownLatch completed = new CountDownLatch(1);
+
+        private BlockingEmitter(CountDownLatch sendStarted, CountDownLatch releaseSend) {
+            this.sendStarted = sendStarted;
+            this.releaseSend = releaseSend;
+        }
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            writeLock.lock();
+            try {
+                sendStarted.countDown();
+                releaseSend.await();
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                throw new IOException("write interrupted", ex);
+            } finally {
+                writeLock.unlock();
+            }
+        }
+
+        @Override
+        public void complete() {
+            writeLock.lock();
+            try {
+                completed.countDown();
+            } finally {
+                writeLock.unlock();
+            }
+        }
+
+        @Override
+        public void completeWithError(Throwable ex) {
+            complete();
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package mofo.com.pestscout.auth.service;
+
+import mofo.com.pestscout.auth.config.SessionStreamProperties;
+import mofo.com.pestscout.auth.model.ClientSessionEvent;
+import mofo.com.pestscout.auth.repository.ClientSessionEventRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ClusterSessionEventRelayTest {
+
+    @Mock
+    private ClientSessionEventRepository eventRepository;
+
+    @Mock
+    private ClientSessionEventService clientSessionEventService;
+
+    private SessionStreamProperties properties;
+    private ClusterSessionEventRelay relay;
+
+    @BeforeEach
+    void setUp() {
+        properties = new SessionStreamProperties();
+        properties.setNodeId("node-a");
+        relay = new ClusterSessionEventRelay(eventRepository, clientSessionEventService, properties);
+    }
+
+    @Test
+    void relayPeerEvents_deliversEachPeerEventOnce() {
+        UUID userId = UUID.randomUUID();
+        ClientSessionEvent event = ClientSessionEvent.builder()
+                .id(UUID.randomUUID())
+                .sequenceNumber(8L)
+                .userId(userId)
+                .eventType(ClientSessionEventService.SESSION_REPLACED_EVENT)
+                .clientSessionId("old-session")
+                .activeClientSessionId("new-session")
+                .originNodeId("node-b")
+                .occurredAt(LocalDateTime.now())
+                .build();
+        when(eventRepository.findMaxSequenceNumber()).thenReturn(7L);
+        when(eventRepository.findTop500BySequenceNumberGreaterThanOrderBySequenceNumberAsc(7L))
+                .thenReturn(List.of(event));
+
+        relay.relayPeerEvents();
+        relay.relayPeerEvents();
+
+        verify(clientSessionEventService, times(1)).deliverSessionReplaced(userId, "old-session", "new-session");
+    }
+
+    @Test
+    void relayPeerEvents_skipsPollingWhenClusterDisabled() {
+        properties.setClusterEnabled(false);
+
+        relay.relayPeerEvents();
+
+        verifyNoInteractions(eventRepository, clientSessionEventService);
+    }
+}
@@ -0,0 +1,74 @@
+package mofo.com.pestscout.common.config;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+
+import javax.cache.Cache;
+import javax.cache.CacheManager;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class SecondLevelCacheConfigTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private CacheManager cacheManager;
+
+    @AfterEach
+    void tearDown() {
+        if (cacheManager != null) {
+            cacheManager.close();
+        }
+    }
+
+    @Test
+    void referenceDataCacheManager_createsEveryRegionBoundedAndExpiring() {
+        SecondLevelCacheProperties properties = new SecondLevelCacheProperties();
+        properties.setMaxEntriesPerRegion(500);
+        properties.setTimeToLiveSeconds(60);
+
+        cacheManager = new SecondLevelCacheConfig().referenceDataCacheManager(properties, meterRegistryProvider());
+
+        for (String region : SecondLevelCacheConfig.REFERENCE_DATA_REGIONS) {
+            Cache<Object, Object> cache = cacheManager.getCache(region);
+            assertThat(cache).as(region).isNotNull();
+            @SuppressWarnings("unchecked")
+            CaffeineConfiguration<Object, Object> configuration = cache.getConfiguration(CaffeineConfiguration.class);
+            assertThat(configuration.getMaximumSize()).hasValue(500);
+            assertThat(configuration.getExpireAfterWrite()).hasValue(TimeUnit.SECONDS.toNanos(60));
+            assertThat(configuration.isStoreByValue()).isFalse();
+        }
+    }
+
+    @Test
+    void referenceDataCacheManager_publishesRegionHitsAndMisses() {
+        cacheManager = new SecondLevelCacheConfig()
+                .referenceDataCacheManager(new SecondLevelCacheProperties(), meterRegistryProvider());
+        Cache<Object, Object> farms = cacheManager.getCache(SecondLevelCacheConfig.REGION_FARMS);
+
+        farms.get("missing");
+        farms.put("farm-a", "cached");
+        farms.get("farm-a");
+
+        assertThat(meterRegistry.get("cache.gets")
+                .tag("cache", SecondLevelCacheConfig.REGION_FARMS)
+                .tag("result", "hit")
+                .functionCounter().count()).isEqualTo(1.0);
+        assertThat(meterRegistry.get("cache.gets")
+                .tag("cache", SecondLevelCacheConfig.REGION_FARMS)
+                .tag("result", "miss")
+                .functionCounter().count()).isEqualTo(1.0);
+    }
+
+    @SuppressWarnings("unchecked")
+    private ObjectProvider<io.micrometer.core.instrument.MeterRegistry> meterRegistryProvider() {
+        ObjectProvider<io.micrometer.core.instrument.MeterRegistry> provider = mock(ObjectProvider.class);
+        when(provider.getIfAvailable()).thenReturn(meterRegistry);
+        return provider;
+    }
+}
@@ -2,6 +2,7 @@ package mofo.com.pestscout.common.exception;
 
 import mofo.com.pestscout.common.dto.ErrorResponse;
 import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.mock.web.MockHttpServletRequest;
 import org.springframework.security.access.AccessDeniedException;
@@ -44,4 +45,29 @@ class GlobalExceptionHandlerTest {
         assertThat(body.getErrorCode()).isEqualTo("METHOD_NOT_ALLOWED");
         assertThat(body.getPath()).isEqualTo("/api/scouting/sessions/123/observations/456");
     }
+
+    @Test
+    void mapsLoadSheddingToTooManyRequestsWithRetryAfter() {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/auth/login");
+
+        var response = handler.handleTooManyRequests(new TooManyRequestsException("busy", 2), request);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.TOO_MANY_REQUESTS);
+        assertThat(response.getHeaders().getFirst(HttpHeaders.RETRY_AFTER)).isEqualTo("2");
+        ErrorResponse body = response.getBody();
+        assertThat(body).isNotNull();
+        assertThat(body.getErrorCode()).isEqualTo("TOO_MANY_REQUESTS");
+    }
+
+    @Test
+    void mapsGoneToHttpGone() {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/scouting/sessions/sync");
+
+        var response = handler.handleApplicationExceptions(new GoneException("resync"), request);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.GONE);
+        ErrorResponse body = response.getBody();
+        assertThat(body).isNotNull();
+        assertThat(body.getErrorCode()).isEqualTo("GONE");
+    }
 }
@@ -0,0 +1,102 @@
+package mofo.com.pestscout.common.jobs;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class BackgroundJobRunnerTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final BackgroundJobQueue queue = mock(BackgroundJobQueue.class);
+    private BackgroundJobRunner runner;
+
+    @AfterEach
+    void tearDown() {
+        if (runner != null) {
+            runner.shutdown();
+        }
+    }
+
+    @Test
+    void process_runsOnlyClaimedJobs() {
+        UUID claimed = UUID.randomUUID();
+        UUID taken = UUID.randomUUID();
+        when(queue.claim(eq(claimed), any())).thenReturn(true);
+        runner = runner(1, 1);
+
+        runner.process(claimed);
+        runner.process(taken);
+
+        verify(queue).run(claimed);
+        verify(queue, never()).run(taken);
+    }
+
+    @Test
+    void sweep_resetsStalledJobsAndOffersDueJobsAfterRetryDelay() throws Exception {
+        UUID due = UUID.randomUUID();
+        CountDownLatch ran = new CountDownLatch(1);
+        when(queue.findDue(any())).thenReturn(List.of(due));
+        when(queue.claim(eq(due), any())).thenReturn(true);
+        doAnswer(invocation -> {
+            ran.countDown();
+            return null;
+        }).when(queue).run(due);
+        runner = runner(1, 1);
+
+        LocalDateTime before = LocalDateTime.now();
+        runner.sweep();
+
+        verify(queue).resetStalled(any());
+        verify(queue).findDue(argThat(retryBefore -> !retryBefore.isBefore(before.minusSeconds(30))
+                && retryBefore.isBefore(LocalDateTime.now().minusSeconds(29))));
+        assertThat(ran.await(5, TimeUnit.SECONDS)).isTrue();
+    }
+
+    @Test
+    void submitAfterCommit_leavesJobQueuedWhenPoolIsFull() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(queue.claim(any(), any())).thenReturn(true);
+        doAnswer(invocation -> {
+            started.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return null;
+        }).when(queue).run(any());
+        runner = runner(1, 1);
+
+        runner.submitAfterCommit(UUID.randomUUID());
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+        runner.submitAfterCommit(UUID.randomUUID());
+        runner.submitAfterCommit(UUID.randomUUID());
+
+        assertThat(meterRegistry.get("test.jobs.queue.depth").gauge().value()).isEqualTo(1);
+        assertThat(meterRegistry.get("test.jobs.rejected").counter().count()).isEqualTo(1);
+        release.countDown();
+    }
+
+    @Test
+    void truncateError_capsLongMessages() {
+        assertThat(BackgroundJobRunner.truncateError("x".repeat(600))).hasSize(500);
+        assertThat(BackgroundJobRunner.truncateError("short")).isEqualTo("short");
+        assertThat(BackgroundJobRunner.truncateError(null)).isNull();
+    }
+
+    private BackgroundJobRunner runner(int threads, int queueCapacity) {
+        BackgroundJobProperties properties = mock(BackgroundJobProperties.class);
+        when(properties.getThreads()).thenReturn(threads);
+        when(properties.getQueueCapacity()).thenReturn(queueCapacity);
+        when(properties.getRetryDelayMs()).thenReturn(30000L);
+        return new BackgroundJobRunner("test-jobs", queue, properties, meterRegistry, "test.jobs");
+    }
+}
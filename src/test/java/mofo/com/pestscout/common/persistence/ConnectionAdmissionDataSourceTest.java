@@ -0,0 +1,55 @@
+package mofo.com.pestscout.common.persistence;
+
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.*;
+
+class ConnectionAdmissionDataSourceTest {
+
+    @Test
+    void getConnection_timesOutWhenAllPermitsAreCheckedOut() throws SQLException {
+        DataSource target = mock(DataSource.class);
+        when(target.getConnection()).thenAnswer(invocation -> mock(Connection.class));
+        ConnectionAdmissionDataSource dataSource = new ConnectionAdmissionDataSource(target, 1, 10);
+
+        Connection first = dataSource.getConnection();
+
+        assertThat(dataSource.getAvailablePermits()).isZero();
+        assertThatThrownBy(dataSource::getConnection).isInstanceOf(SQLTransientConnectionException.class);
+
+        first.close();
+        assertThat(dataSource.getAvailablePermits()).isEqualTo(1);
+    }
+
+    @Test
+    void close_releasesPermitOnlyOnce() throws SQLException {
+        DataSource target = mock(DataSource.class);
+        Connection physical = mock(Connection.class);
+        when(target.getConnection()).thenReturn(physical);
+        ConnectionAdmissionDataSource dataSource = new ConnectionAdmissionDataSource(target, 2, 10);
+
+        Connection connection = dataSource.getConnection();
+        connection.close();
+        connection.close();
+
+        assertThat(dataSource.getAvailablePermits()).isEqualTo(2);
+        verify(physical, times(2)).close();
+    }
+
+    @Test
+    void getConnection_returnsPermitWhenPoolFails() throws SQLException {
+        DataSource target = mock(DataSource.class);
+        when(target.getConnection()).thenThrow(new SQLException("pool exhausted"));
+        ConnectionAdmissionDataSource dataSource = new ConnectionAdmissionDataSource(target, 1, 10);
+
+        assertThatThrownBy(dataSource::getConnection).hasMessage("pool exhausted");
+        assertThat(dataSource.getAvailablePermits()).isEqualTo(1);
+    }
+}
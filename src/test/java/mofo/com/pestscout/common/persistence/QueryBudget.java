@@ -0,0 +1,33 @@
+package mofo.com.pestscout.common.persistence;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Test helper for asserting how much SQL a block of code issues. Works in any test that runs against the real
+ * Hibernate session factory (for example {@code @SpringBootTest} with MockMvc), because the counts come from the
+ * statement inspector registered by the application.
+ */
+public final class QueryBudget {
+
+    private QueryBudget() {
+    }
+
+    public static QueryStatistics.Snapshot measure(ThrowingRunnable action) throws Exception {
+        QueryStatistics.Snapshot start = QueryStatistics.snapshot();
+        action.run();
+        return QueryStatistics.snapshot().since(start);
+    }
+
+    public static QueryStatistics.Snapshot assertMaxStatements(long maxStatements, ThrowingRunnable action) throws Exception {
+        QueryStatistics.Snapshot usage = measure(action);
+        assertThat(usage.statements())
+                .as("SQL statements issued (budget %d)", maxStatements)
+                .isLessThanOrEqualTo(maxStatements);
+        return usage;
+    }
+
+    @FunctionalInterface
+    public interface ThrowingRunnable {
+        void run() throws Exception;
+    }
+}
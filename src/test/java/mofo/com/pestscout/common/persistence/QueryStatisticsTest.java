@@ -0,0 +1,34 @@
+package mofo.com.pestscout.common.persistence;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class QueryStatisticsTest {
+
+    private final QueryCountingStatementInspector inspector = new QueryCountingStatementInspector();
+    private final QueryRowCountingInterceptor interceptor = new QueryRowCountingInterceptor();
+
+    @Test
+    void snapshotsDiffStatementsAndRowsRecordedOnCurrentThread() throws Exception {
+        QueryStatistics.Snapshot usage = QueryBudget.measure(() -> {
+            assertThat(inspector.inspect("select 1")).isEqualTo("select 1");
+            inspector.inspect("select 2");
+            interceptor.onLoad(new Object(), (Object) 1L, new Object[0], new String[0], null);
+        });
+
+        assertThat(usage.statements()).isEqualTo(2);
+        assertThat(usage.rows()).isEqualTo(1);
+    }
+
+    @Test
+    void nestedMeasurementsAreIndependent() throws Exception {
+        QueryStatistics.Snapshot outer = QueryBudget.measure(() -> {
+            inspector.inspect("select 1");
+            QueryStatistics.Snapshot inner = QueryBudget.assertMaxStatements(1, () -> inspector.inspect("select 2"));
+            assertThat(inner.statements()).isEqualTo(1);
+        });
+
+        assertThat(outer.statements()).isEqualTo(2);
+    }
+}
@@ -0,0 +1,83 @@
+package mofo.com.pestscout.common.persistence;
+
+import mofo.com.pestscout.common.service.ReferenceDataCacheService;
+import mofo.com.pestscout.farm.model.Greenhouse;
+import mofo.com.pestscout.scouting.model.ScoutingPhoto;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.Repository;
+
+import java.util.UUID;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class ReferenceDataBulkChangeAspectTest {
+
+    private ReferenceDataCacheService cacheService;
+    private ReferenceDataBulkChangeAspect aspect;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        cacheService = mock(ReferenceDataCacheService.class);
+        ObjectProvider<ReferenceDataCacheService> provider = mock(ObjectProvider.class);
+        when(provider.getObject()).thenReturn(cacheService);
+        aspect = new ReferenceDataBulkChangeAspect(provider);
+    }
+
+    @Test
+    void modifyingQueryOnCachedEntityRecordsBulkChange() {
+        GreenhouseBulkRepository repository = advise(GreenhouseBulkRepository.class, 0);
+
+        repository.renameAll("north");
+        repository.countByName("north");
+
+        verify(cacheService, times(1)).recordBulkChange(Greenhouse.class);
+    }
+
+    @Test
+    void modifyingQueryOnUncachedEntityIsIgnored() {
+        PhotoBulkRepository repository = advise(PhotoBulkRepository.class, 1);
+
+        repository.clearAll("photo");
+
+        verify(cacheService, never()).recordBulkChange(any());
+    }
+
+    /**
+     * Like Spring Data, answers the query methods from a JDK proxy that declares none of them.
+     */
+    private <T> T advise(Class<T> repositoryType, int result) {
+        ProxyFactory repositoryProxy = new ProxyFactory();
+        repositoryProxy.addInterface(repositoryType);
+        repositoryProxy.addAdvice((MethodInterceptor) invocation -> result);
+
+        AspectJProxyFactory factory = new AspectJProxyFactory(repositoryProxy.getProxy());
+        factory.addInterface(repositoryType);
+        factory.addAspect(aspect);
+        return factory.getProxy();
+    }
+
+    interface GreenhouseBulkRepository extends Repository<Greenhouse, UUID> {
+
+        @Modifying
+        @Query("update Greenhouse g set g.name = :name")
+        int renameAll(String name);
+
+        int countByName(String name);
+    }
+
+    interface PhotoBulkRepository extends Repository<ScoutingPhoto, UUID> {
+
+        @Modifying
+        @Query("update ScoutingPhoto p set p.deleted = true where p.localPhotoId = :name")
+        int clearAll(String name);
+    }
+}
@@ -0,0 +1,109 @@
+package mofo.com.pestscout.common.service;
+
+import mofo.com.pestscout.common.config.SecondLevelCacheProperties;
+import mofo.com.pestscout.common.model.CacheInvalidationEvent;
+import mofo.com.pestscout.common.repository.CacheInvalidationEventRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ClusterCacheInvalidationRelayTest {
+
+    @Mock
+    private CacheInvalidationEventRepository eventRepository;
+
+    @Mock
+    private ReferenceDataCacheService referenceDataCacheService;
+
+    private SecondLevelCacheProperties properties;
+    private ClusterCacheInvalidationRelay relay;
+
+    private static final String GREENHOUSE = "mofo.com.pestscout.farm.model.Greenhouse";
+
+    @BeforeEach
+    void setUp() {
+        properties = new SecondLevelCacheProperties();
+        properties.setNodeId("node-a");
+        relay = new ClusterCacheInvalidationRelay(eventRepository, referenceDataCacheService, properties);
+    }
+
+    @Test
+    void relayPeerEvents_evictsEachPeerChangeOnceAndSkipsOwnChanges() {
+        UUID greenhouseId = UUID.randomUUID();
+        UUID ownGreenhouseId = UUID.randomUUID();
+        when(eventRepository.findMaxSequenceNumber()).thenReturn(4L);
+        when(eventRepository.findTop500BySequenceNumberGreaterThanOrderBySequenceNumberAsc(4L))
+                .thenReturn(List.of(event(5L, "node-b", greenhouseId), event(6L, "node-a", ownGreenhouseId)));
+
+        relay.relayPeerEvents();
+        relay.relayPeerEvents();
+
+        verify(referenceDataCacheService, times(1)).evict(GREENHOUSE, greenhouseId);
+        verify(referenceDataCacheService, never()).evict(GREENHOUSE, ownGreenhouseId);
+        verify(eventRepository).findTop500BySequenceNumberGreaterThanOrderBySequenceNumberAsc(6L);
+    }
+
+    @Test
+    void relayPeerEvents_waitsForSequenceGapBeforeMovingPastIt() {
+        UUID lateId = UUID.randomUUID();
+        UUID earlyId = UUID.randomUUID();
+        CacheInvalidationEvent late = event(1L, "node-b", lateId);
+        CacheInvalidationEvent early = event(2L, "node-c", earlyId);
+        when(eventRepository.findMaxSequenceNumber()).thenReturn(null);
+        when(eventRepository.findTop500BySequenceNumberGreaterThanOrderBySequenceNumberAsc(0L))
+                .thenReturn(List.of(early))
+                .thenReturn(List.of(late, early));
+
+        relay.relayPeerEvents();
+        relay.relayPeerEvents();
+        relay.relayPeerEvents();
+
+        verify(referenceDataCacheService, times(1)).evict(GREENHOUSE, earlyId);
+        verify(referenceDataCacheService, times(1)).evict(GREENHOUSE, lateId);
+        verify(eventRepository, times(2)).findTop500BySequenceNumberGreaterThanOrderBySequenceNumberAsc(0L);
+        verify(eventRepository).findTop500BySequenceNumberGreaterThanOrderBySequenceNumberAsc(2L);
+    }
+
+    @Test
+    void relayPeerEvents_movesPastGapOnceCatchUpWindowHasPassed() {
+        properties.setClusterCatchUpWindowMs(0);
+        when(eventRepository.findMaxSequenceNumber()).thenReturn(0L);
+        when(eventRepository.findTop500BySequenceNumberGreaterThanOrderBySequenceNumberAsc(0L))
+                .thenReturn(List.of(event(3L, "node-b", UUID.randomUUID())));
+
+        relay.relayPeerEvents();
+        relay.relayPeerEvents();
+
+        verify(eventRepository).findTop500BySequenceNumberGreaterThanOrderBySequenceNumberAsc(0L);
+        verify(eventRepository).findTop500BySequenceNumberGreaterThanOrderBySequenceNumberAsc(3L);
+    }
+
+    @Test
+    void relayPeerEvents_skipsPollingWhenClusterDisabled() {
+        properties.setClusterEnabled(false);
+
+        relay.relayPeerEvents();
+
+        verifyNoInteractions(eventRepository, referenceDataCacheService);
+    }
+
+    private static CacheInvalidationEvent event(long sequenceNumber, String originNodeId, UUID entityId) {
+        return CacheInvalidationEvent.builder()
+                .id(UUID.randomUUID())
+                .sequenceNumber(sequenceNumber)
+                .entityName(GREENHOUSE)
+                .entityId(entityId)
+                .originNodeId(originNodeId)
+                .occurredAt(LocalDateTime.now())
+                .build();
+    }
+}
@@ -1,28 +1,27 @@
 package mofo.com.pestscout.farm.service;
 
 import mofo.com.pestscout.analytics.dto.FarmWeeklyAnalyticsDto;
+import mofo.com.pestscout.analytics.model.WeeklyAnalyticsCounter;
+import mofo.com.pestscout.analytics.model.WeeklyAnalyticsMetric;
+import mofo.com.pestscout.analytics.service.WeeklyAnalyticsService;
 import mofo.com.pestscout.common.exception.ResourceNotFoundException;
 import mofo.com.pestscout.farm.model.Farm;
 import mofo.com.pestscout.farm.model.FarmStructureType;
 import mofo.com.pestscout.farm.repository.FarmRepository;
-import mofo.com.pestscout.scouting.model.ObservationCategory;
-import mofo.com.pestscout.scouting.model.ScoutingObservation;
-import mofo.com.pestscout.scouting.model.ScoutingSession;
-import mofo.com.pestscout.scouting.model.SessionStatus;
-import mofo.com.pestscout.scouting.repository.ScoutingObservationRepository;
-import mofo.com.pestscout.scouting.repository.ScoutingSessionRepository;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.time.LocalDate;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
-import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -32,10 +31,7 @@ class AnalyticsServiceTest {
     private FarmRepository farmRepository;
 
     @Mock
-    private ScoutingSessionRepository sessionRepository;
-
-    @Mock
-    private ScoutingObservationRepository observationRepository;
+    private WeeklyAnalyticsService weeklyAnalyticsService;
 
     @Test
     void computeWeeklyAnalyticsReturnsEmptyResponseWhenNoSessions() {
@@ -48,15 +44,17 @@ class AnalyticsServiceTest {
                 .defaultBenchesPerBay(3)
                 .build();
 
+        LocalDate weekStart = LocalDate.of(2024, 1, 29);
         when(farmRepository.findById(farmId)).thenReturn(Optional.of(farm));
-        when(sessionRepository.findByFarmIdAndSessionDateBetween(any(), any(), any()))
-                .thenReturn(List.of());
+        when(weeklyAnalyticsService.isInitialized(farmId)).thenReturn(true);
+        when(weeklyAnalyticsService.counters(farmId, weekStart, weekStart)).thenReturn(List.of());
 
-        AnalyticsService service =
-                new AnalyticsService(farmRepository, sessionRepository, observationRepository);
+        AnalyticsService service = new AnalyticsService(farmRepository, weeklyAnalyticsService);
 
         FarmWeeklyAnalyticsDto dto = service.computeWeeklyAnalytics(farmId, 5, 2024);
 
+        assertThat(dto.week()).isEqualTo(5);
+        assertThat(dto.year()).isEqualTo(2024);
         assertThat(dto.totalSessions()).isZero();
         assertThat(dto.totalObservations()).isZero();
         assertThat(dto.bayCount()).isEqualTo(2);
@@ -74,51 +72,60 @@ class AnalyticsServiceTest {
                 .defaultBenchesPerBay(1)
                 .build();
 
-        ScoutingSession session = new ScoutingSession();
-        session.setId(UUID.randomUUID());
-        session.setStatus(SessionStatus.COMPLETED);
-
-        ScoutingObservation pest = new ScoutingObservation() {
-            @Override
-            public ObservationCategory getCategory() {
-                return ObservationCategory.PEST;
-            }
-        };
-        pest.setCount(3);
-
-        ScoutingObservation disease = new ScoutingObservation() {
-            @Override
-            public ObservationCategory getCategory() {
-                return ObservationCategory.DISEASE;
-            }
-        };
-        disease.setCount(2);
-
-        ScoutingObservation beneficial = new ScoutingObservation() {
-            @Override
-            public ObservationCategory getCategory() {
-                return ObservationCategory.BENEFICIAL;
-            }
-        };
-        beneficial.setCount(1);
-
+        LocalDate weekStart = LocalDate.of(2024, 2, 5);
         when(farmRepository.findById(farmId)).thenReturn(Optional.of(farm));
-        when(sessionRepository.findByFarmIdAndSessionDateBetween(any(), any(), any()))
-                .thenReturn(List.of(session));
-        when(observationRepository.findBySessionIdIn(any()))
-                .thenReturn(List.of(pest, disease, beneficial));
-
-        AnalyticsService service =
-                new AnalyticsService(farmRepository, sessionRepository, observationRepository);
+        when(weeklyAnalyticsService.isInitialized(farmId)).thenReturn(true);
+        when(weeklyAnalyticsService.counters(farmId, weekStart, weekStart)).thenReturn(List.of(
+                counter(farmId, weekStart, WeeklyAnalyticsMetric.SESSIONS, "COMPLETED", 1),
+                counter(farmId, weekStart, WeeklyAnalyticsMetric.SESSIONS, "IN_PROGRESS", 1),
+                counter(farmId, weekStart, WeeklyAnalyticsMetric.CATEGORY_TOTAL, "PEST", 3),
+                counter(farmId, weekStart, WeeklyAnalyticsMetric.CATEGORY_TOTAL, "DISEASE", 2),
+                counter(farmId, weekStart, WeeklyAnalyticsMetric.CATEGORY_TOTAL, "BENEFICIAL", 1),
+                counter(farmId, weekStart, WeeklyAnalyticsMetric.SEVERITY_BUCKET, "LOW", 2),
+                counter(farmId, weekStart, WeeklyAnalyticsMetric.SEVERITY_BUCKET, "HIGH", 0)
+        ));
+
+        AnalyticsService service = new AnalyticsService(farmRepository, weeklyAnalyticsService);
 
         FarmWeeklyAnalyticsDto dto = service.computeWeeklyAnalytics(farmId, 6, 2024);
 
-        assertThat(dto.totalSessions()).isEqualTo(1);
+        assertThat(dto.totalSessions()).isEqualTo(2);
         assertThat(dto.completedSessions()).isEqualTo(1);
         assertThat(dto.pestObservations()).isEqualTo(3);
         assertThat(dto.diseaseObservations()).isEqualTo(2);
         assertThat(dto.beneficialObservations()).isEqualTo(1);
         assertThat(dto.totalObservations()).isEqualTo(6);
+        assertThat(dto.severityBuckets()).containsExactlyEntriesOf(Map.of("LOW", 2L));
+    }
+
+    @Test
+    void computeWeeklyAnalyticsBuildsReadModelOnFirstAccessAndFillsEmptyWeeks() {
+        UUID farmId = UUID.randomUUID();
+        Farm farm = Farm.builder()
+                .id(farmId)
+                .name("Range Farm")
+                .structureType(FarmStructureType.GREENHOUSE)
+                .defaultBayCount(1)
+                .defaultBenchesPerBay(1)
+                .build();
+
+        LocalDate firstWeek = LocalDate.of(2024, 12, 23);
+        LocalDate lastWeek = LocalDate.of(2025, 1, 6);
+        when(farmRepository.findById(farmId)).thenReturn(Optional.of(farm));
+        when(weeklyAnalyticsService.isInitialized(farmId)).thenReturn(false);
+        when(weeklyAnalyticsService.counters(farmId, firstWeek, lastWeek)).thenReturn(List.of(
+                counter(farmId, lastWeek, WeeklyAnalyticsMetric.SESSIONS, "SUBMITTED", 2)
+        ));
+
+        AnalyticsService service = new AnalyticsService(farmRepository, weeklyAnalyticsService);
+
+        List<FarmWeeklyAnalyticsDto> weeks =
+                service.computeWeeklyAnalytics(farmId, LocalDate.of(2024, 12, 25), LocalDate.of(2025, 1, 8));
+
+        verify(weeklyAnalyticsService).rebuild(farmId);
+        assertThat(weeks).extracting(FarmWeeklyAnalyticsDto::week).containsExactly(52, 1, 2);
+        assertThat(weeks).extracting(FarmWeeklyAnalyticsDto::year).containsExactly(2024, 2025, 2025);
+        assertThat(weeks).extracting(FarmWeeklyAnalyticsDto::totalSessions).containsExactly(0L, 0L, 2L);
     }
 
     @Test
@@ -126,10 +133,20 @@ class AnalyticsServiceTest {
         UUID farmId = UUID.randomUUID();
         when(farmRepository.findById(farmId)).thenReturn(Optional.empty());
 
-        AnalyticsService service =
-                new AnalyticsService(farmRepository, sessionRepository, observationRepository);
+        AnalyticsService service = new AnalyticsService(farmRepository, weeklyAnalyticsService);
 
         assertThatThrownBy(() -> service.computeWeeklyAnalytics(farmId, 1, 2024))
                 .isInstanceOf(ResourceNotFoundException.class);
     }
+
+    private static WeeklyAnalyticsCounter counter(UUID farmId, LocalDate weekStart, WeeklyAnalyticsMetric metric,
+                                                  String key, long total) {
+        return WeeklyAnalyticsCounter.builder()
+                .farmId(farmId)
+                .weekStart(weekStart)
+                .metric(metric)
+                .metricKey(key)
+                .total(total)
+                .build();
+    }
 }
@@ -4,6 +4,7 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import mofo.com.pestscout.auth.security.JwtTokenProvider;
 import mofo.com.pestscout.scouting.dto.ImageAnalysisDtos.*;
 import mofo.com.pestscout.scouting.model.SpeciesCode;
+import mofo.com.pestscout.scouting.service.PhotoAnalysisBatchService;
 import mofo.com.pestscout.scouting.service.ScoutingImageAnalysisService;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -35,6 +36,9 @@ class ScoutingImageAnalysisControllerTest {
     @MockitoBean
     private ScoutingImageAnalysisService imageAnalysisService;
 
+    @MockitoBean
+    private PhotoAnalysisBatchService batchService;
+
     @MockitoBean
     private JwtTokenProvider jwtTokenProvider;
 
@@ -140,6 +144,42 @@ class ScoutingImageAnalysisControllerTest {
                 .andExpect(jsonPath("$.accuracyRate").value(0.8));
     }
 
+    @Test
+    void queuesBatchAnalysisForSession() throws Exception {
+        UUID farmId = UUID.randomUUID();
+        UUID sessionId = UUID.randomUUID();
+        RunBatchPhotoAnalysisRequest request = new RunBatchPhotoAnalysisRequest(farmId, sessionId, null, null);
+
+        when(batchService.submit(request)).thenReturn(new PhotoAnalysisBatchJobResponse(
+                UUID.randomUUID(), farmId, sessionId, null, null, "QUEUED",
+                0, 0, 0, null, LocalDateTime.now(), null, null
+        ));
+
+        mockMvc.perform(post("/api/scouting/photos/analysis/batches")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isAccepted())
+                .andExpect(jsonPath("$.status").value("QUEUED"))
+                .andExpect(jsonPath("$.sessionId").value(sessionId.toString()));
+    }
+
+    @Test
+    void returnsBatchAnalysisProgress() throws Exception {
+        UUID farmId = UUID.randomUUID();
+        UUID jobId = UUID.randomUUID();
+
+        when(batchService.getJob(farmId, jobId)).thenReturn(new PhotoAnalysisBatchJobResponse(
+                jobId, farmId, UUID.randomUUID(), null, null, "RUNNING",
+                200, 120, 0, null, LocalDateTime.now(), LocalDateTime.now(), null
+        ));
+
+        mockMvc.perform(get("/api/scouting/photos/analysis/batches/{jobId}", jobId)
+                        .param("farmId", farmId.toString()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalPhotos").value(200))
+                .andExpect(jsonPath("$.processedPhotos").value(120));
+    }
+
     private PhotoAnalysisResponse buildAnalysisResponse(UUID farmId, UUID photoId) {
         return new PhotoAnalysisResponse(
                 farmId,
@@ -3,6 +3,7 @@ package mofo.com.pestscout.scouting.controller;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import mofo.com.pestscout.analytics.dto.SessionTargetRequest;
 import mofo.com.pestscout.auth.security.JwtTokenProvider;
+import mofo.com.pestscout.common.dto.CursorPageResponse;
 import mofo.com.pestscout.common.model.SyncStatus;
 import mofo.com.pestscout.scouting.dto.*;
 import mofo.com.pestscout.scouting.model.ObservationLifecycleStatus;
@@ -18,15 +19,20 @@ import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
 import java.util.List;
+import java.util.Set;
 import java.util.UUID;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -534,12 +540,14 @@ class ScoutingSessionControllerTest {
 
     @Test
     void listsSessionsWithoutFarmIdForSuperAdminView() throws Exception {
-        UUID sessionId = UUID.randomUUID();
         UUID farmId = UUID.randomUUID();
-        ScoutingSessionDetailDto detail = new ScoutingSessionDetailDto(
-                sessionId,
+        ScoutingSessionSummaryDto summary = new ScoutingSessionSummaryDto(
+                UUID.randomUUID(),
                 1L,
                 farmId,
+                "Farm A",
+                null,
+                null,
                 LocalDate.of(2024, 3, 5),
                 10,
                 SessionStatus.IN_PROGRESS,
@@ -548,37 +556,48 @@ class ScoutingSessionControllerTest {
                 UUID.randomUUID(),
                 "Tomatoes",
                 "Cherry",
-                null,
-                null,
-                null,
-                null,
-                null,
-                List.of(),
-                List.of(),
-                null,
-                null,
-                null,
-                null,
                 false,
-                null,
-                null,
                 LocalDateTime.now(),
-                false,
-                null,
-                List.of(),
-                List.of(),
-                "Farm A",
-                2024,
-                "2024-W10",
                 true
         );
 
-        when(sessionService.listSessions(null)).thenReturn(List.of(detail));
+        when(sessionService.listSessions(new ScoutingSessionListQuery(null, null, null, null, null, null, null)))
+                .thenReturn(new CursorPageResponse<>(List.of(summary), 50, null, true));
 
         mockMvc.perform(get("/api/scouting/sessions"))
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$[0].farmName").value("Farm A"))
-                .andExpect(jsonPath("$[0].openRestricted").value(true));
+                .andExpect(jsonPath("$.content[0].farmName").value("Farm A"))
+                .andExpect(jsonPath("$.content[0].openRestricted").value(true))
+                .andExpect(jsonPath("$.last").value(true));
+    }
+
+    @Test
+    void listsSessionsWithFiltersAndCursor() throws Exception {
+        UUID farmId = UUID.randomUUID();
+        UUID scoutId = UUID.randomUUID();
+        ScoutingSessionListQuery query = new ScoutingSessionListQuery(
+                farmId,
+                Set.of(SessionStatus.COMPLETED, SessionStatus.INCOMPLETE),
+                scoutId,
+                LocalDate.of(2024, 1, 1),
+                LocalDate.of(2024, 6, 30),
+                "next-page",
+                20
+        );
+        when(sessionService.listSessions(query))
+                .thenReturn(new CursorPageResponse<>(List.of(), 20, "following-page", false));
+
+        mockMvc.perform(get("/api/scouting/sessions")
+                        .param("farmId", farmId.toString())
+                        .param("status", "COMPLETED", "INCOMPLETE")
+                        .param("scoutId", scoutId.toString())
+                        .param("fromDate", "2024-01-01")
+                        .param("toDate", "2024-06-30")
+                        .param("cursor", "next-page")
+                        .param("size", "20"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.nextCursor").value("following-page"))
+                .andExpect(jsonPath("$.last").value(false));
     }
 
     @Test
@@ -653,17 +672,48 @@ class ScoutingSessionControllerTest {
     void downloadsSessionReportCsv() throws Exception {
         UUID sessionId = UUID.randomUUID();
         byte[] content = "session_id,status\n123,COMPLETED\n".getBytes();
+        ScoutingSessionReportExportService.CsvExport export = new ScoutingSessionReportExportService.CsvExport(
+                "scouting-session-" + sessionId + ".csv", UUID.randomUUID(), sessionId, null, null);
 
-        when(reportExportService.exportSessionCsv(sessionId))
-                .thenReturn(new ScoutingSessionReportExportService.GeneratedCsvDocument(
-                        "scouting-session-" + sessionId + ".csv",
-                        content
-                ));
+        when(reportExportService.prepareSessionExport(sessionId)).thenReturn(export);
+        doAnswer(invocation -> {
+            invocation.<java.io.OutputStream>getArgument(1).write(content);
+            return null;
+        }).when(reportExportService).writeCsv(eq(export), any());
 
-        mockMvc.perform(get("/api/scouting/sessions/{sessionId}/report.csv", sessionId))
+        MvcResult result = mockMvc.perform(get("/api/scouting/sessions/{sessionId}/report.csv", sessionId))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
                 .andExpect(status().isOk())
                 .andExpect(header().string("Content-Disposition", "attachment; filename=\"scouting-session-" + sessionId + ".csv\""))
                 .andExpect(header().string("Content-Type", "text/csv"))
                 .andExpect(org.springframework.test.web.servlet.result.MockMvcResultMatchers.content().bytes(content));
     }
+
+    @Test
+    void downloadsFarmSessionsCsvForDateRange() throws Exception {
+        UUID farmId = UUID.randomUUID();
+        LocalDate start = LocalDate.of(2026, 1, 1);
+        LocalDate end = LocalDate.of(2026, 6, 30);
+        ScoutingSessionReportExportService.CsvExport export = new ScoutingSessionReportExportService.CsvExport(
+                "scouting-sessions-" + farmId + "-2026-01-01-to-2026-06-30.csv", farmId, null, start, end);
+
+        when(reportExportService.prepareFarmExport(farmId, start, end, false)).thenReturn(export);
+
+        MvcResult result = mockMvc.perform(get("/api/scouting/sessions/export.csv")
+                        .param("farmId", farmId.toString())
+                        .param("startDate", "2026-01-01")
+                        .param("endDate", "2026-06-30"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Disposition",
+                        "attachment; filename=\"scouting-sessions-" + farmId + "-2026-01-01-to-2026-06-30.csv\""));
+
+        verify(reportExportService).writeCsv(eq(export), any());
+    }
 }
@@ -42,6 +42,9 @@ class CustomSpeciesServiceTest {
     @Mock
     private FarmAccessService farmAccessService;
 
+    @Mock
+    private SpeciesKeywordMatcherCache keywordMatchers;
+
     @InjectMocks
     private CustomSpeciesService customSpeciesService;
 
@@ -0,0 +1,54 @@
+package mofo.com.pestscout.scouting.service;
+
+import mofo.com.pestscout.scouting.config.ObservationPartitionProperties;
+import mofo.com.pestscout.scouting.repository.ObservationPartitionRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ObservationPartitionServiceTest {
+
+    @Mock
+    private ObservationPartitionRepository partitionRepository;
+
+    private ObservationPartitionProperties properties;
+    private ObservationPartitionService partitionService;
+
+    @BeforeEach
+    void setUp() {
+        properties = new ObservationPartitionProperties();
+        partitionService = new ObservationPartitionService(partitionRepository, properties);
+    }
+
+    @Test
+    void maintain_createsPartitionsFromCurrentMonthThroughMonthsAhead() {
+        properties.setMonthsAhead(2);
+
+        partitionService.maintain("scouting_observations", LocalDate.of(2026, 10, 18));
+
+        verify(partitionRepository).createMonthPartitions(
+                "scouting_observations", LocalDate.of(2026, 10, 1), LocalDate.of(2026, 12, 1));
+        verify(partitionRepository, never()).detachMonthPartitionsBefore(anyString(), any());
+    }
+
+    @Test
+    void maintain_detachesMonthsPastTheRetentionWindow() {
+        properties.setDetachAfterMonths(24);
+        when(partitionRepository.detachMonthPartitionsBefore("scouting_observations", LocalDate.of(2024, 10, 1)))
+                .thenReturn(List.of("scouting_observations_p2024_09"));
+
+        partitionService.maintain("scouting_observations", LocalDate.of(2026, 10, 18));
+
+        verify(partitionRepository).detachMonthPartitionsBefore("scouting_observations", LocalDate.of(2024, 10, 1));
+    }
+}
@@ -0,0 +1,132 @@
+package mofo.com.pestscout.scouting.service;
+
+import mofo.com.pestscout.scouting.model.*;
+import mofo.com.pestscout.scouting.repository.PhotoAnalysisAccuracyCounterRepository;
+import mofo.com.pestscout.scouting.repository.ScoutingObservationRepository;
+import mofo.com.pestscout.scouting.repository.ScoutingPhotoAnalysisRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PhotoAnalysisAccuracyServiceTest {
+
+    @Mock
+    private PhotoAnalysisAccuracyCounterRepository counterRepository;
+
+    @Mock
+    private ScoutingPhotoAnalysisRepository analysisRepository;
+
+    @Mock
+    private ScoutingObservationRepository observationRepository;
+
+    @InjectMocks
+    private PhotoAnalysisAccuracyService accuracyService;
+
+    private UUID farmId;
+
+    @BeforeEach
+    void setUp() {
+        farmId = UUID.randomUUID();
+    }
+
+    @Test
+    void record_newPendingAnalysisOnlyTouchesFarmTotals() {
+        accuracyService.record(null, analysis(PhotoAnalysisReviewStatus.PENDING_REVIEW, SpeciesCode.THRIPS, null, "0.91"));
+
+        verify(counterRepository).increment(eq(farmId), eq(PhotoAnalysisAccuracyScope.FARM), eq(""),
+                eq(1L), eq(1L), eq(0L), eq(0L), eq(0L), argThat(sum -> sum.signum() == 0), eq(0L), any());
+        verify(counterRepository, times(1)).insertIfAbsent(any(), any(), any(), any(), any());
+    }
+
+    @Test
+    void record_reReviewMovesCountsBetweenSpecies() {
+        ScoutingPhotoAnalysis analysis = analysis(
+                PhotoAnalysisReviewStatus.CONFIRMED, SpeciesCode.THRIPS, SpeciesCode.THRIPS, "0.88");
+        PhotoAnalysisAccuracyService.Contribution before = accuracyService.contributionOf(analysis);
+
+        analysis.setReviewStatus(PhotoAnalysisReviewStatus.CORRECTED);
+        analysis.setReviewedSpeciesCode(SpeciesCode.WHITEFLIES);
+        accuracyService.record(before, analysis);
+
+        verify(counterRepository).increment(eq(farmId), eq(PhotoAnalysisAccuracyScope.FARM), eq(""),
+                eq(0L), eq(0L), eq(0L), eq(-1L), eq(1L), argThat(sum -> sum.signum() == 0), eq(0L), any());
+        verify(counterRepository).increment(eq(farmId), eq(PhotoAnalysisAccuracyScope.SPECIES), eq("THRIPS"),
+                eq(0L), eq(0L), eq(-1L), eq(-1L), eq(0L), any(), eq(0L), any());
+        verify(counterRepository).increment(eq(farmId), eq(PhotoAnalysisAccuracyScope.SPECIES), eq("WHITEFLIES"),
+                eq(0L), eq(0L), eq(1L), eq(0L), eq(0L), any(), eq(0L), any());
+        verifyNoInteractions(observationRepository);
+    }
+
+    @Test
+    void remove_takesArchivedAnalysesOutOfTheCounters() {
+        ScoutingPhotoAnalysis analysis = analysis(
+                PhotoAnalysisReviewStatus.CONFIRMED, SpeciesCode.THRIPS, SpeciesCode.THRIPS, "0.88");
+
+        accuracyService.remove(List.of(accuracyService.contributionOf(analysis)));
+
+        verify(counterRepository).increment(eq(farmId), eq(PhotoAnalysisAccuracyScope.FARM), eq(""),
+                eq(-1L), eq(0L), eq(-1L), eq(-1L), eq(0L), argThat(sum -> sum.signum() < 0), eq(-1L), any());
+        verify(counterRepository).increment(eq(farmId), eq(PhotoAnalysisAccuracyScope.SPECIES), eq("THRIPS"),
+                eq(0L), eq(0L), eq(-1L), eq(-1L), eq(0L), any(), eq(0L), any());
+    }
+
+    @Test
+    void record_unchangedContributionWritesNothing() {
+        ScoutingPhotoAnalysis analysis = analysis(
+                PhotoAnalysisReviewStatus.CONFIRMED, SpeciesCode.THRIPS, SpeciesCode.THRIPS, "0.88");
+
+        accuracyService.record(accuracyService.contributionOf(analysis), analysis);
+
+        verifyNoInteractions(counterRepository);
+    }
+
+    @Test
+    void rebuild_recomputesTotalsFromAnalyses() {
+        PhotoAnalysisAccuracyCounter rebuilt = PhotoAnalysisAccuracyCounter.builder().farmId(farmId).build();
+        when(analysisRepository.findByFarmId(farmId)).thenReturn(List.of(
+                analysis(PhotoAnalysisReviewStatus.PENDING_REVIEW, SpeciesCode.THRIPS, null, "0.91"),
+                analysis(PhotoAnalysisReviewStatus.CONFIRMED, SpeciesCode.THRIPS, SpeciesCode.THRIPS, "0.88"),
+                analysis(PhotoAnalysisReviewStatus.CORRECTED, SpeciesCode.THRIPS, SpeciesCode.WHITEFLIES, "0.72")
+        ));
+        when(counterRepository.findByFarmIdAndScopeAndScopeKey(farmId, PhotoAnalysisAccuracyScope.FARM, ""))
+                .thenReturn(Optional.of(rebuilt));
+
+        accuracyService.rebuild(farmId);
+
+        verify(counterRepository).deleteByFarmId(farmId);
+        verify(counterRepository).assign(eq(farmId), eq(PhotoAnalysisAccuracyScope.FARM), eq(""),
+                eq(3L), eq(1L), eq(2L), eq(1L), eq(1L), eq(new BigDecimal("1.60")), eq(2L), any());
+        verify(counterRepository).assign(eq(farmId), eq(PhotoAnalysisAccuracyScope.SPECIES), eq("THRIPS"),
+                eq(0L), eq(0L), eq(1L), eq(1L), eq(0L), any(), eq(0L), any());
+        verify(counterRepository).assign(eq(farmId), eq(PhotoAnalysisAccuracyScope.SPECIES), eq("WHITEFLIES"),
+                eq(0L), eq(0L), eq(1L), eq(0L), eq(0L), any(), eq(0L), any());
+    }
+
+    private ScoutingPhotoAnalysis analysis(PhotoAnalysisReviewStatus status,
+                                           SpeciesCode predicted,
+                                           SpeciesCode reviewed,
+                                           String confidence) {
+        return ScoutingPhotoAnalysis.builder()
+                .photo(ScoutingPhoto.builder().farmId(farmId).build())
+                .farmId(farmId)
+                .provider("heuristic-local-v1")
+                .modelVersion("heuristic-local-v1")
+                .reviewStatus(status)
+                .predictedSpeciesCode(predicted)
+                .reviewedSpeciesCode(reviewed)
+                .predictedConfidence(new BigDecimal(confidence))
+                .build();
+    }
+}
@@ -0,0 +1,155 @@
+package mofo.com.pestscout.scouting.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import mofo.com.pestscout.common.exception.BadRequestException;
+import mofo.com.pestscout.farm.security.CurrentUserService;
+import mofo.com.pestscout.scouting.config.PhotoAnalysisBatchProperties;
+import mofo.com.pestscout.scouting.dto.ImageAnalysisDtos.PhotoAnalysisBatchJobResponse;
+import mofo.com.pestscout.scouting.dto.ImageAnalysisDtos.RunBatchPhotoAnalysisRequest;
+import mofo.com.pestscout.scouting.model.PhotoAnalysisBatchJob;
+import mofo.com.pestscout.scouting.model.PhotoAnalysisBatchStatus;
+import mofo.com.pestscout.scouting.model.ScoutingSession;
+import mofo.com.pestscout.scouting.repository.PhotoAnalysisBatchJobRepository;
+import mofo.com.pestscout.scouting.repository.ScoutingPhotoRepository;
+import mofo.com.pestscout.scouting.repository.ScoutingSessionRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class PhotoAnalysisBatchServiceTest {
+
+    private final UUID farmId = UUID.randomUUID();
+
+    private PhotoAnalysisBatchJobRepository jobRepository;
+    private ScoutingSessionRepository sessionRepository;
+    private ScoutingPhotoRepository photoRepository;
+    private ScoutingImageAnalysisService imageAnalysisService;
+    private PhotoAnalysisBatchService service;
+
+    @BeforeEach
+    void setUp() {
+        jobRepository = mock(PhotoAnalysisBatchJobRepository.class);
+        sessionRepository = mock(ScoutingSessionRepository.class);
+        photoRepository = mock(ScoutingPhotoRepository.class);
+        imageAnalysisService = mock(ScoutingImageAnalysisService.class);
+        when(jobRepository.save(any(PhotoAnalysisBatchJob.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        service = new PhotoAnalysisBatchService(jobRepository, sessionRepository, photoRepository, imageAnalysisService,
+                mock(ScoutingAnalysisAccessService.class), mock(CurrentUserService.class),
+                new PhotoAnalysisBatchProperties(), new SimpleMeterRegistry());
+    }
+
+    @AfterEach
+    void tearDown() {
+        service.shutdown();
+    }
+
+    @Test
+    void run_analyzesEachSessionOnceAndRecordsProgress() {
+        UUID first = UUID.randomUUID();
+        UUID second = UUID.randomUUID();
+        PhotoAnalysisBatchJob job = claimedJob(null, LocalDate.of(2026, 5, 1), LocalDate.of(2026, 5, 31));
+        when(sessionRepository.findIdsByFarmIdAndSessionDateBetween(farmId, job.getFromDate(), job.getToDate()))
+                .thenReturn(List.of(first, second));
+        when(photoRepository.countUnanalyzedBySessionIdIn(List.of(first, second))).thenReturn(7L);
+        when(imageAnalysisService.analyzeUnscoredSessionPhotos(farmId, first)).thenReturn(4);
+        when(imageAnalysisService.analyzeUnscoredSessionPhotos(farmId, second)).thenReturn(3);
+
+        service.run(job.getId());
+
+        assertThat(job.getStatus()).isEqualTo(PhotoAnalysisBatchStatus.COMPLETED);
+        assertThat(job.getTotalPhotos()).isEqualTo(7);
+        assertThat(job.getProcessedPhotos()).isEqualTo(7);
+        assertThat(job.getFailedSessions()).isZero();
+        verify(imageAnalysisService, times(1)).analyzeUnscoredSessionPhotos(farmId, first);
+    }
+
+    @Test
+    void run_scoresSessionsConcurrently() {
+        UUID first = UUID.randomUUID();
+        UUID second = UUID.randomUUID();
+        PhotoAnalysisBatchJob job = claimedJob(null, LocalDate.of(2026, 5, 1), LocalDate.of(2026, 5, 31));
+        when(sessionRepository.findIdsByFarmIdAndSessionDateBetween(farmId, job.getFromDate(), job.getToDate()))
+                .thenReturn(List.of(first, second));
+        when(photoRepository.countUnanalyzedBySessionIdIn(List.of(first, second))).thenReturn(2L);
+        // Each session waits for the other to start, so the job only finishes if both are scored at once
+        CyclicBarrier bothStarted = new CyclicBarrier(2);
+        when(imageAnalysisService.analyzeUnscoredSessionPhotos(eq(farmId), any())).thenAnswer(invocation -> {
+            bothStarted.await(5, TimeUnit.SECONDS);
+            return 1;
+        });
+
+        service.run(job.getId());
+
+        assertThat(job.getStatus()).isEqualTo(PhotoAnalysisBatchStatus.COMPLETED);
+        assertThat(job.getProcessedPhotos()).isEqualTo(2);
+        assertThat(job.getFailedSessions()).isZero();
+    }
+
+    @Test
+    void run_continuesPastFailingSession() {
+        UUID sessionId = UUID.randomUUID();
+        PhotoAnalysisBatchJob job = claimedJob(sessionId, null, null);
+        when(photoRepository.countUnanalyzedBySessionIdIn(List.of(sessionId))).thenReturn(2L);
+        when(imageAnalysisService.analyzeUnscoredSessionPhotos(farmId, sessionId))
+                .thenThrow(new IllegalStateException("constraint violation"));
+
+        service.run(job.getId());
+
+        assertThat(job.getStatus()).isEqualTo(PhotoAnalysisBatchStatus.COMPLETED);
+        assertThat(job.getFailedSessions()).isEqualTo(1);
+        assertThat(job.getLastError()).contains("constraint violation");
+    }
+
+    @Test
+    void submit_returnsActiveJobForSameSession() {
+        UUID sessionId = UUID.randomUUID();
+        PhotoAnalysisBatchJob active = PhotoAnalysisBatchJob.builder()
+                .id(UUID.randomUUID())
+                .farmId(farmId)
+                .sessionId(sessionId)
+                .status(PhotoAnalysisBatchStatus.RUNNING)
+                .build();
+        when(sessionRepository.findByIdAndFarmId(sessionId, farmId)).thenReturn(Optional.of(mock(ScoutingSession.class)));
+        when(jobRepository.findFirstByFarmIdAndSessionIdAndStatusIn(eq(farmId), eq(sessionId), any()))
+                .thenReturn(Optional.of(active));
+
+        PhotoAnalysisBatchJobResponse response = service.submit(new RunBatchPhotoAnalysisRequest(farmId, sessionId, null, null));
+
+        assertThat(response.jobId()).isEqualTo(active.getId());
+        verify(jobRepository, never()).save(any());
+    }
+
+    @Test
+    void submit_rejectsRequestWithoutScope() {
+        assertThatThrownBy(() -> service.submit(new RunBatchPhotoAnalysisRequest(farmId, null, null, null)))
+                .isInstanceOf(BadRequestException.class);
+    }
+
+    private PhotoAnalysisBatchJob claimedJob(UUID sessionId, LocalDate fromDate, LocalDate toDate) {
+        PhotoAnalysisBatchJob job = PhotoAnalysisBatchJob.builder()
+                .id(UUID.randomUUID())
+                .farmId(farmId)
+                .sessionId(sessionId)
+                .fromDate(fromDate)
+                .toDate(toDate)
+                .status(PhotoAnalysisBatchStatus.RUNNING)
+                .build();
+        when(jobRepository.claim(eq(job.getId()), any(), any(), any())).thenReturn(1);
+        when(jobRepository.findById(job.getId())).thenReturn(Optional.of(job));
+        return job;
+    }
+}
@@ -0,0 +1,84 @@
+package mofo.com.pestscout.scouting.service;
+
+import mofo.com.pestscout.scouting.model.PhotoBlobReference;
+import mofo.com.pestscout.scouting.repository.PhotoBlobReferenceRepository;
+import mofo.com.pestscout.scouting.storage.PhotoBlobStore;
+import mofo.com.pestscout.scouting.storage.PhotoDerivativeCache;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PhotoBlobCollectorTest {
+
+    private static final String HASH = "c".repeat(64);
+    private static final LocalDateTime CUTOFF = LocalDateTime.of(2024, 6, 1, 0, 0);
+
+    @Mock
+    private PhotoBlobReferenceRepository referenceRepository;
+
+    @Mock
+    private PhotoBlobStore photoBlobStore;
+
+    @Mock
+    private PhotoDerivativeCache derivativeCache;
+
+    @InjectMocks
+    private PhotoBlobCollector collector;
+
+    @Test
+    void collect_deletesTheFileBeforeTheLockedRow() throws Exception {
+        when(referenceRepository.findByContentHashForUpdate(HASH))
+                .thenReturn(Optional.of(blob(0, CUTOFF.minusDays(1))));
+        when(referenceRepository.deleteIfUnreferenced(HASH, CUTOFF)).thenReturn(1);
+
+        assertThat(collector.collect(HASH, CUTOFF)).isTrue();
+
+        InOrder order = inOrder(referenceRepository, photoBlobStore);
+        order.verify(referenceRepository).findByContentHashForUpdate(HASH);
+        order.verify(photoBlobStore).delete(HASH);
+        order.verify(referenceRepository).deleteIfUnreferenced(HASH, CUTOFF);
+        verify(derivativeCache).evict(HASH);
+    }
+
+    @Test
+    void collect_keepsABlobReferencedAgainBeforeTheLockWasTaken() throws Exception {
+        when(referenceRepository.findByContentHashForUpdate(HASH)).thenReturn(Optional.of(blob(1, null)));
+
+        assertThat(collector.collect(HASH, CUTOFF)).isFalse();
+
+        verify(photoBlobStore, never()).delete(any());
+        verify(referenceRepository, never()).deleteIfUnreferenced(any(), any());
+    }
+
+    @Test
+    void collect_keepsTheRowWhenTheFileCannotBeDeleted() throws Exception {
+        when(referenceRepository.findByContentHashForUpdate(HASH))
+                .thenReturn(Optional.of(blob(0, CUTOFF.minusDays(1))));
+        when(photoBlobStore.delete(HASH)).thenThrow(new IOException("busy"));
+
+        assertThatThrownBy(() -> collector.collect(HASH, CUTOFF)).isInstanceOf(IOException.class);
+
+        verify(referenceRepository, never()).deleteIfUnreferenced(any(), any());
+    }
+
+    private PhotoBlobReference blob(long referenceCount, LocalDateTime unreferencedSince) {
+        return PhotoBlobReference.builder()
+                .contentHash(HASH)
+                .referenceCount(referenceCount)
+                .unreferencedSince(unreferencedSince)
+                .build();
+    }
+}
@@ -0,0 +1,153 @@
+package mofo.com.pestscout.scouting.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import mofo.com.pestscout.scouting.config.PhotoDerivativeProperties;
+import mofo.com.pestscout.scouting.config.PhotoStorageProperties;
+import mofo.com.pestscout.scouting.model.PhotoDerivativeJob;
+import mofo.com.pestscout.scouting.model.PhotoDerivativeJobStatus;
+import mofo.com.pestscout.scouting.model.PhotoDerivativeVariant;
+import mofo.com.pestscout.scouting.model.ScoutingPhoto;
+import mofo.com.pestscout.scouting.repository.PhotoDerivativeJobRepository;
+import mofo.com.pestscout.scouting.repository.ScoutingPhotoRepository;
+import mofo.com.pestscout.scouting.storage.*;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class PhotoDerivativeServiceTest {
+
+    @TempDir
+    Path root;
+
+    private PhotoDerivativeJobRepository jobRepository;
+    private ScoutingPhotoRepository photoRepository;
+    private FileSystemPhotoBlobStore blobStore;
+    private PhotoDerivativeCache derivativeCache;
+    private PhotoDerivativeProperties properties;
+    private PhotoDerivativeService service;
+
+    @BeforeEach
+    void setUp() {
+        PhotoStorageProperties storageProperties = new PhotoStorageProperties();
+        storageProperties.setRoot(root.toString());
+        properties = new PhotoDerivativeProperties();
+        properties.setThumbnailMaxPx(100);
+        properties.setPreviewMaxPx(400);
+        properties.setMaxAttempts(2);
+
+        jobRepository = mock(PhotoDerivativeJobRepository.class);
+        photoRepository = mock(ScoutingPhotoRepository.class);
+        blobStore = new FileSystemPhotoBlobStore(storageProperties);
+        derivativeCache = new PhotoDerivativeCache(storageProperties);
+        service = new PhotoDerivativeService(jobRepository, photoRepository, blobStore, derivativeCache,
+                new PhotoDerivativeRenderer(properties), properties, new SimpleMeterRegistry());
+    }
+
+    @AfterEach
+    void tearDown() {
+        service.shutdown();
+    }
+
+    @Test
+    void process_rendersBoundedRenditionsAndMarksPhoto() throws Exception {
+        StoredPhotoBlob blob = blobStore.store(jpeg(1600, 1200));
+        PhotoDerivativeJob job = claimedJob(blob.key(), 1);
+
+        service.process(job.getId());
+
+        assertThat(dimensions(PhotoDerivativeVariant.THUMBNAIL, blob.key())).containsExactly(100, 75);
+        assertThat(dimensions(PhotoDerivativeVariant.PREVIEW, blob.key())).containsExactly(400, 300);
+        assertThat(job.getStatus()).isEqualTo(PhotoDerivativeJobStatus.COMPLETED);
+        verify(photoRepository).markDerivativesGenerated(eq(job.getPhotoId()), eq(blob.key()), any());
+    }
+
+    @Test
+    void process_returnsJobToPendingUntilAttemptsAreExhausted() throws Exception {
+        PhotoDerivativeJob job = claimedJob("c".repeat(64), 1);
+
+        service.process(job.getId());
+        assertThat(job.getStatus()).isEqualTo(PhotoDerivativeJobStatus.PENDING);
+        assertThat(job.getLastError()).contains("no longer stored");
+
+        job.setAttempts(2);
+        service.process(job.getId());
+        assertThat(job.getStatus()).isEqualTo(PhotoDerivativeJobStatus.FAILED);
+        verify(photoRepository, never()).markDerivativesGenerated(any(), any(), any());
+    }
+
+    @Test
+    void process_skipsJobClaimedByAnotherWorker() {
+        UUID jobId = UUID.randomUUID();
+        when(jobRepository.claim(eq(jobId), any(), any(), any())).thenReturn(0);
+
+        service.process(jobId);
+
+        verify(jobRepository, never()).findById(any());
+    }
+
+    @Test
+    void schedule_marksPhotoReadyWithoutJobWhenDerivativesAreAlreadyCached() throws Exception {
+        StoredPhotoBlob blob = blobStore.store(jpeg(200, 200));
+        for (PhotoDerivativeVariant variant : PhotoDerivativeVariant.values()) {
+            derivativeCache.put(blob.key(), variant, new byte[]{1});
+        }
+        ScoutingPhoto photo = ScoutingPhoto.builder().id(UUID.randomUUID()).objectKey(blob.key()).build();
+
+        service.schedule(photo);
+
+        assertThat(photo.getDerivativesGeneratedAt()).isNotNull();
+        verify(jobRepository, never()).save(any());
+        verify(photoRepository).markDerivativesGenerated(eq(photo.getId()), eq(blob.key()), any());
+    }
+
+    @Test
+    void schedule_ignoresPhotosStoredOutsideTheBlobStore() {
+        ScoutingPhoto photo = ScoutingPhoto.builder().id(UUID.randomUUID()).objectKey("photos/session/photo-1.jpg").build();
+
+        service.schedule(photo);
+
+        verifyNoInteractions(jobRepository, photoRepository);
+    }
+
+    private PhotoDerivativeJob claimedJob(String blobKey, int attempts) {
+        PhotoDerivativeJob job = PhotoDerivativeJob.builder()
+                .id(UUID.randomUUID())
+                .photoId(UUID.randomUUID())
+                .blobKey(blobKey)
+                .status(PhotoDerivativeJobStatus.RUNNING)
+                .attempts(attempts)
+                .build();
+        when(jobRepository.claim(eq(job.getId()), any(), any(), any())).thenReturn(1);
+        when(jobRepository.findById(job.getId())).thenReturn(Optional.of(job));
+        return job;
+    }
+
+    private Integer[] dimensions(PhotoDerivativeVariant variant, String blobKey) throws Exception {
+        PhotoBlob derivative = derivativeCache.open(blobKey, variant).orElseThrow();
+        try (InputStream in = derivative.openStream()) {
+            BufferedImage image = ImageIO.read(in);
+            return new Integer[]{image.getWidth(), image.getHeight()};
+        }
+    }
+
+    private static InputStream jpeg(int width, int height) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB), "jpeg", out);
+        return new ByteArrayInputStream(out.toByteArray());
+    }
+}
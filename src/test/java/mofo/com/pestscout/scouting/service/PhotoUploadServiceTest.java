@@ -0,0 +1,200 @@
+package mofo.com.pestscout.scouting.service;
+
+import mofo.com.pestscout.common.exception.BadRequestException;
+import mofo.com.pestscout.common.exception.ConflictException;
+import mofo.com.pestscout.scouting.config.PhotoStorageProperties;
+import mofo.com.pestscout.scouting.dto.PhotoUploadDtos.CreatePhotoUploadRequest;
+import mofo.com.pestscout.scouting.dto.PhotoUploadDtos.PhotoUploadResponse;
+import mofo.com.pestscout.scouting.dto.ScoutingPhotoDto;
+import mofo.com.pestscout.scouting.model.PhotoUpload;
+import mofo.com.pestscout.scouting.model.PhotoUploadStatus;
+import mofo.com.pestscout.scouting.model.ScoutingPhoto;
+import mofo.com.pestscout.scouting.repository.PhotoUploadRepository;
+import mofo.com.pestscout.scouting.storage.PhotoUploadStaging;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class PhotoUploadServiceTest {
+
+    private static final String CHECKSUM = "a".repeat(64);
+
+    @Mock
+    private PhotoUploadRepository uploadRepository;
+
+    @Mock
+    private ScoutingPhotoService photoService;
+
+    @Mock
+    private PhotoUploadStaging staging;
+
+    private PhotoUploadService service;
+    private ScoutingPhoto photo;
+    private final UUID sessionId = UUID.randomUUID();
+
+    @BeforeEach
+    void setUp() {
+        PhotoStorageProperties properties = new PhotoStorageProperties();
+        service = new PhotoUploadService(uploadRepository, photoService, staging, properties);
+        photo = ScoutingPhoto.builder()
+                .id(UUID.randomUUID())
+                .farmId(UUID.randomUUID())
+                .localPhotoId("photo-1")
+                .build();
+    }
+
+    @Test
+    void createUpload_resumesOpenUploadForSameContent() throws Exception {
+        PhotoUpload open = upload(PhotoUploadStatus.OPEN);
+        when(photoService.loadPhotoForUpload(sessionId, "photo-1")).thenReturn(photo);
+        when(uploadRepository.findFirstByFarmIdAndLocalPhotoIdAndStatus(photo.getFarmId(), "photo-1", PhotoUploadStatus.OPEN))
+                .thenReturn(Optional.of(open));
+        when(staging.size(open.getId())).thenReturn(600L);
+
+        PhotoUploadResponse response = service.createUpload(
+                new CreatePhotoUploadRequest(sessionId, "photo-1", "image/jpeg", 1000, CHECKSUM.toUpperCase()));
+
+        assertThat(response.uploadId()).isEqualTo(open.getId());
+        assertThat(response.receivedBytes()).isEqualTo(600);
+        verify(uploadRepository, never()).save(any());
+    }
+
+    @Test
+    void createUpload_rejectsUploadsLargerThanTheLimit() {
+        assertThatThrownBy(() -> service.createUpload(
+                new CreatePhotoUploadRequest(sessionId, "photo-1", "image/jpeg", 11L * 1024 * 1024, CHECKSUM)))
+                .isInstanceOf(BadRequestException.class);
+    }
+
+    @Test
+    void appendChunk_recordsProgressAndExtendsExpiry() throws Exception {
+        PhotoUpload open = upload(PhotoUploadStatus.OPEN);
+        InputStream content = InputStream.nullInputStream();
+        when(uploadRepository.findById(open.getId())).thenReturn(Optional.of(open));
+        when(staging.append(open.getId(), 600, 1000, content)).thenReturn(1000L);
+
+        PhotoUploadResponse response = service.appendChunk(open.getId(), 600, content);
+
+        assertThat(response.receivedBytes()).isEqualTo(1000);
+        verify(photoService).loadPhotoForUpload(sessionId, "photo-1");
+        verify(uploadRepository).recordProgress(eq(open.getId()), eq(1000L), any(LocalDateTime.class), any(LocalDateTime.class));
+    }
+
+    @Test
+    void finalizeUpload_confirmsStagedBlobInOneTransaction() throws Exception {
+        PhotoUpload open = upload(PhotoUploadStatus.OPEN);
+        Path staged = Path.of("staged.part");
+        ScoutingPhotoDto confirmed = mock(ScoutingPhotoDto.class);
+        when(uploadRepository.findById(open.getId())).thenReturn(Optional.of(open));
+        when(staging.size(open.getId())).thenReturn(1000L);
+        when(staging.path(open.getId())).thenReturn(staged);
+        when(photoService.confirmResumableUpload(open, staged)).thenReturn(Optional.of(confirmed));
+
+        assertThat(service.finalizeUpload(open.getId())).isSameAs(confirmed);
+        verify(photoService).loadPhotoForUpload(sessionId, "photo-1");
+    }
+
+    @Test
+    void finalizeUpload_whenAlreadyCompleted_returnsThePhotoWithoutChangeChecks() throws Exception {
+        PhotoUpload completed = upload(PhotoUploadStatus.COMPLETED);
+        ScoutingPhotoDto confirmed = mock(ScoutingPhotoDto.class);
+        when(uploadRepository.findById(completed.getId())).thenReturn(Optional.of(completed));
+        when(photoService.getUploadedPhoto(sessionId, "photo-1")).thenReturn(confirmed);
+
+        assertThat(service.finalizeUpload(completed.getId())).isSameAs(confirmed);
+        verify(photoService, never()).loadPhotoForUpload(any(), any());
+        verify(photoService, never()).confirmResumableUpload(any(), any());
+        verify(staging, never()).size(any());
+    }
+
+    @Test
+    void finalizeUpload_whenConcurrentFinalizeWon_returnsThePhoto() throws Exception {
+        PhotoUpload open = upload(PhotoUploadStatus.OPEN);
+        Path staged = Path.of("staged.part");
+        ScoutingPhotoDto confirmed = mock(ScoutingPhotoDto.class);
+        when(uploadRepository.findById(open.getId()))
+                .thenReturn(Optional.of(open), Optional.of(upload(PhotoUploadStatus.COMPLETED)));
+        when(staging.size(open.getId())).thenReturn(1000L);
+        when(staging.path(open.getId())).thenReturn(staged);
+        when(photoService.confirmResumableUpload(open, staged)).thenReturn(Optional.empty());
+        when(photoService.getUploadedPhoto(sessionId, "photo-1")).thenReturn(confirmed);
+
+        assertThat(service.finalizeUpload(open.getId())).isSameAs(confirmed);
+    }
+
+    @Test
+    void finalizeUpload_withMissingBytes_reportsConflict() throws Exception {
+        PhotoUpload open = upload(PhotoUploadStatus.OPEN);
+        when(uploadRepository.findById(open.getId())).thenReturn(Optional.of(open));
+        when(staging.size(open.getId())).thenReturn(600L);
+
+        assertThatThrownBy(() -> service.finalizeUpload(open.getId()))
+                .isInstanceOf(ConflictException.class)
+                .hasMessageContaining("600 of 1000");
+        verify(photoService, never()).confirmResumableUpload(any(), any());
+    }
+
+    @Test
+    void finalizeUpload_withChecksumMismatch_restartsUpload() throws Exception {
+        PhotoUpload open = upload(PhotoUploadStatus.OPEN);
+        Path staged = Path.of("staged.part");
+        when(uploadRepository.findById(open.getId())).thenReturn(Optional.of(open));
+        when(staging.size(open.getId())).thenReturn(1000L);
+        when(staging.path(open.getId())).thenReturn(staged);
+        when(photoService.confirmResumableUpload(open, staged)).thenThrow(new BadRequestException("checksum"));
+
+        assertThatThrownBy(() -> service.finalizeUpload(open.getId()))
+                .isInstanceOf(BadRequestException.class);
+        verify(staging).discard(open.getId());
+        verify(uploadRepository).recordProgress(eq(open.getId()), eq(0L), any(LocalDateTime.class), any(LocalDateTime.class));
+    }
+
+    @Test
+    void expireStaleUploads_discardsPartialFiles() throws Exception {
+        PhotoUpload stale = upload(PhotoUploadStatus.OPEN);
+        when(uploadRepository.findTop100ByStatusAndExpiresAtBeforeOrderByExpiresAtAsc(eq(PhotoUploadStatus.OPEN), any()))
+                .thenReturn(List.of(stale));
+        when(uploadRepository.transition(eq(stale.getId()), eq(PhotoUploadStatus.OPEN), eq(PhotoUploadStatus.EXPIRED), any()))
+                .thenReturn(1);
+
+        service.expireStaleUploads();
+
+        verify(staging).discard(stale.getId());
+        verify(staging, never()).append(any(), anyLong(), anyLong(), any());
+    }
+
+    private PhotoUpload upload(PhotoUploadStatus status) {
+        return PhotoUpload.builder()
+                .id(UUID.randomUUID())
+                .farmId(photo.getFarmId())
+                .sessionId(sessionId)
+                .photoId(photo.getId())
+                .localPhotoId("photo-1")
+                .contentType("image/jpeg")
+                .totalBytes(1000)
+                .contentSha256(CHECKSUM)
+                .status(status)
+                .expiresAt(LocalDateTime.now().plusHours(1))
+                .build();
+    }
+}
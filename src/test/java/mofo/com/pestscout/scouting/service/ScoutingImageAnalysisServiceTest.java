@@ -14,6 +14,7 @@ import mofo.com.pestscout.scouting.repository.ScoutingPhotoRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
@@ -27,6 +28,10 @@ import java.util.UUID;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -47,6 +52,12 @@ class ScoutingImageAnalysisServiceTest {
     @Mock
     private ScoutingPhotoAnalysisRepository analysisRepository;
 
+    @Mock
+    private SpeciesKeywordMatcherCache keywordMatchers;
+
+    @Mock
+    private PhotoAnalysisAccuracyService accuracyService;
+
     @InjectMocks
     private ScoutingImageAnalysisService imageAnalysisService;
 
@@ -111,6 +122,8 @@ class ScoutingImageAnalysisServiceTest {
                 .build();
         photo.setId(photoId);
 
+
+        lenient().when(keywordMatchers.forFarm(farmId)).thenReturn(SpeciesKeywordMatcher.builtIn());
     }
 
     @Test
@@ -153,6 +166,33 @@ class ScoutingImageAnalysisServiceTest {
         assertThat(response.candidates().getFirst().confidence()).isGreaterThanOrEqualTo(0.90d);
     }
 
+    @Test
+    @SuppressWarnings("unchecked")
+    void analyzeUnscoredSessionPhotos_loadsSessionObservationsOnceForAllPhotos() {
+        ScoutingPhoto dronePhoto = ScoutingPhoto.builder()
+                .session(session)
+                .farmId(farmId)
+                .localPhotoId("drone-01")
+                .purpose("Whitefly honeydew on upper canopy")
+                .sourceType(PhotoSourceType.DRONE)
+                .build();
+        dronePhoto.setId(UUID.randomUUID());
+
+        when(photoRepository.findUnanalyzedBySessionId(sessionId, farmId)).thenReturn(List.of(photo, dronePhoto));
+        when(observationRepository.findBySessionId(sessionId)).thenReturn(List.of(linkedObservation));
+
+        int analyzed = imageAnalysisService.analyzeUnscoredSessionPhotos(farmId, sessionId);
+
+        assertThat(analyzed).isEqualTo(2);
+        verify(observationRepository, times(1)).findBySessionId(sessionId);
+        ArgumentCaptor<List<ScoutingPhotoAnalysis>> saved = ArgumentCaptor.forClass(List.class);
+        verify(analysisRepository).saveAll(saved.capture());
+        assertThat(saved.getValue())
+                .extracting(ScoutingPhotoAnalysis::getPhoto)
+                .containsExactly(photo, dronePhoto);
+        assertThat(saved.getValue().get(0).getPredictedSpeciesCode()).isEqualTo(SpeciesCode.THRIPS);
+    }
+
     @Test
     void reviewPhotoAnalysis_marksCorrectedAndStoresReviewer() {
         ScoutingPhotoAnalysis existingAnalysis = ScoutingPhotoAnalysis.builder()
@@ -192,45 +232,72 @@ class ScoutingImageAnalysisServiceTest {
     }
 
     @Test
-    void getAccuracy_aggregatesReviewedPredictions() {
-        ScoutingPhotoAnalysis pending = ScoutingPhotoAnalysis.builder()
+    void reviewPhotoAnalysis_recordsCounterChangeAgainstPreviousState() {
+        ScoutingPhotoAnalysis existingAnalysis = ScoutingPhotoAnalysis.builder()
                 .photo(photo)
                 .farmId(farmId)
                 .provider("heuristic-local-v1")
                 .modelVersion("heuristic-local-v1")
-                .reviewStatus(PhotoAnalysisReviewStatus.PENDING_REVIEW)
                 .predictedSpeciesCode(SpeciesCode.THRIPS)
-                .predictedConfidence(new BigDecimal("0.91"))
+                .reviewStatus(PhotoAnalysisReviewStatus.PENDING_REVIEW)
                 .build();
+        existingAnalysis.setId(UUID.randomUUID());
+        PhotoAnalysisAccuracyService.Contribution pending = new PhotoAnalysisAccuracyService.Contribution(
+                farmId, PhotoAnalysisReviewStatus.PENDING_REVIEW, SpeciesCode.THRIPS, null, null, null);
 
-        ScoutingPhotoAnalysis confirmed = ScoutingPhotoAnalysis.builder()
-                .photo(photo)
+        when(accessService.loadFarmAndEnsureManager(farmId)).thenReturn(farm);
+        when(photoRepository.findById(photoId)).thenReturn(Optional.of(photo));
+        when(analysisRepository.findByPhoto_Id(photoId)).thenReturn(Optional.of(existingAnalysis));
+        when(accuracyService.contributionOf(existingAnalysis)).thenReturn(pending);
+        when(currentUserService.getCurrentUser()).thenReturn(manager);
+        when(analysisRepository.save(existingAnalysis)).thenReturn(existingAnalysis);
+
+        imageAnalysisService.reviewPhotoAnalysis(
+                photoId,
+                new PhotoAnalysisReviewRequest(farmId, SpeciesCode.THRIPS, null)
+        );
+
+        verify(accuracyService).record(pending, existingAnalysis);
+        assertThat(existingAnalysis.getReviewStatus()).isEqualTo(PhotoAnalysisReviewStatus.CONFIRMED);
+    }
+
+    @Test
+    void getAccuracy_readsMaintainedCounters() {
+        PhotoAnalysisAccuracyCounter farmCounter = PhotoAnalysisAccuracyCounter.builder()
                 .farmId(farmId)
-                .provider("heuristic-local-v1")
-                .modelVersion("heuristic-local-v1")
-                .reviewStatus(PhotoAnalysisReviewStatus.CONFIRMED)
-                .predictedSpeciesCode(SpeciesCode.THRIPS)
-                .reviewedSpeciesCode(SpeciesCode.THRIPS)
-                .predictedConfidence(new BigDecimal("0.88"))
+                .scope(PhotoAnalysisAccuracyScope.FARM)
+                .scopeKey("")
+                .totalAnalyses(3)
+                .pendingReviewCount(1)
+                .reviewedCount(2)
+                .exactMatchCount(1)
+                .correctedCount(1)
+                .confidenceSum(new BigDecimal("1.60"))
+                .confidenceCount(2)
                 .build();
-
-        ScoutingPhotoAnalysis corrected = ScoutingPhotoAnalysis.builder()
-                .photo(photo)
+        PhotoAnalysisAccuracyCounter thrips = PhotoAnalysisAccuracyCounter.builder()
                 .farmId(farmId)
-                .provider("heuristic-local-v1")
-                .modelVersion("heuristic-local-v1")
-                .reviewStatus(PhotoAnalysisReviewStatus.CORRECTED)
-                .predictedSpeciesCode(SpeciesCode.THRIPS)
-                .reviewedSpeciesCode(SpeciesCode.WHITEFLIES)
-                .predictedConfidence(new BigDecimal("0.72"))
+                .scope(PhotoAnalysisAccuracyScope.SPECIES)
+                .scopeKey("THRIPS")
+                .reviewedCount(1)
+                .exactMatchCount(1)
+                .build();
+        PhotoAnalysisAccuracyCounter whiteflies = PhotoAnalysisAccuracyCounter.builder()
+                .farmId(farmId)
+                .scope(PhotoAnalysisAccuracyScope.SPECIES)
+                .scopeKey("WHITEFLIES")
+                .reviewedCount(1)
+                .build();
+        PhotoAnalysisAccuracyCounter emptied = PhotoAnalysisAccuracyCounter.builder()
+                .farmId(farmId)
+                .scope(PhotoAnalysisAccuracyScope.SPECIES)
+                .scopeKey("MEALYBUGS")
                 .build();
 
         when(accessService.loadFarmAndEnsureManager(farmId)).thenReturn(farm);
-        when(analysisRepository.findByFarmId(farmId)).thenReturn(List.of(pending, confirmed, corrected));
-        when(analysisRepository.findByFarmIdAndReviewStatusIn(
-                farmId,
-                List.of(PhotoAnalysisReviewStatus.CONFIRMED, PhotoAnalysisReviewStatus.CORRECTED)
-        )).thenReturn(List.of(confirmed, corrected));
+        when(accuracyService.farmCounter(farmId)).thenReturn(Optional.of(farmCounter));
+        when(accuracyService.counters(farmId, PhotoAnalysisAccuracyScope.SPECIES))
+                .thenReturn(List.of(thrips, whiteflies, emptied));
 
         PhotoAnalysisAccuracyResponse response = imageAnalysisService.getAccuracy(farmId);
 
@@ -242,5 +309,6 @@ class ScoutingImageAnalysisServiceTest {
         assertThat(response.accuracyRate()).isEqualTo(0.50d);
         assertThat(response.averagePredictedConfidence()).isEqualTo(0.80d);
         assertThat(response.speciesBreakdown()).hasSize(2);
+        verify(analysisRepository, never()).findByFarmId(farmId);
     }
 }
@@ -12,26 +12,42 @@ import mofo.com.pestscout.scouting.dto.PhotoMetadataRequest;
 import mofo.com.pestscout.scouting.dto.PhotoUploadConfirmationRequest;
 import mofo.com.pestscout.scouting.dto.ScoutingPhotoDto;
 import mofo.com.pestscout.scouting.model.*;
+import mofo.com.pestscout.scouting.repository.PhotoUploadRepository;
 import mofo.com.pestscout.scouting.repository.ScoutingObservationRepository;
 import mofo.com.pestscout.scouting.repository.ScoutingPhotoRepository;
 import mofo.com.pestscout.scouting.repository.ScoutingSessionRepository;
 import mofo.com.pestscout.scouting.repository.ScoutingSessionTargetRepository;
+import mofo.com.pestscout.scouting.storage.PhotoBlob;
+import mofo.com.pestscout.scouting.storage.PhotoBlobStore;
+import mofo.com.pestscout.scouting.storage.PhotoDerivativeCache;
+import mofo.com.pestscout.scouting.storage.StagedPhotoBlob;
+import mofo.com.pestscout.scouting.storage.StoredPhotoBlob;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.file.Path;
 import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -56,6 +72,21 @@ class ScoutingPhotoServiceTest {
     @Mock
     private CurrentUserService currentUserService;
 
+    @Mock
+    private PhotoBlobStore photoBlobStore;
+
+    @Mock
+    private PhotoDerivativeCache derivativeCache;
+
+    @Mock
+    private PhotoDerivativeService derivativeService;
+
+    @Mock
+    private PhotoBlobReferenceService blobReferences;
+
+    @Mock
+    private PhotoUploadRepository uploadRepository;
+
     @InjectMocks
     private ScoutingPhotoService scoutingPhotoService;
 
@@ -116,7 +147,8 @@ class ScoutingPhotoServiceTest {
                 "photo-1",
                 "Leaf close-up",
                 null,
-                LocalDateTime.now()
+                LocalDateTime.now(),
+                null
         );
 
         when(farmAccessService.getCurrentUserRole()).thenReturn(Role.SCOUT);
@@ -159,7 +191,8 @@ class ScoutingPhotoServiceTest {
                 "photo-remark-1",
                 "Hotspot in remarks",
                 null,
-                LocalDateTime.now()
+                LocalDateTime.now(),
+                null
         );
 
         when(farmAccessService.getCurrentUserRole()).thenReturn(Role.SCOUT);
@@ -197,7 +230,8 @@ class ScoutingPhotoServiceTest {
                 "photo-1",
                 "Leaf close-up",
                 null,
-                LocalDateTime.now()
+                LocalDateTime.now(),
+                null
         );
 
         when(farmAccessService.getCurrentUserRole()).thenReturn(Role.MANAGER);
@@ -239,6 +273,73 @@ class ScoutingPhotoServiceTest {
         assertThat(result.syncStatus()).isEqualTo(SyncStatus.SYNCED);
     }
 
+    @Test
+    void confirmUpload_WithLocallyStoredBlob_TakesReferenceAndRecordsSize() throws Exception {
+        String key = "f".repeat(64);
+        ScoutingPhoto photo = ScoutingPhoto.builder()
+                .id(UUID.randomUUID())
+                .session(session)
+                .farmId(session.getFarm().getId())
+                .localPhotoId("photo-1")
+                .build();
+        PhotoBlob blob = mock(PhotoBlob.class);
+
+        when(farmAccessService.getCurrentUserRole()).thenReturn(Role.SCOUT);
+        when(currentUserService.getCurrentUserId()).thenReturn(scout.getId());
+        when(photoRepository.findByLocalPhotoIdAndDeletedFalse("photo-1")).thenReturn(Optional.of(photo));
+        when(photoBlobStore.open(key)).thenReturn(Optional.of(blob));
+        when(blob.size()).thenReturn(2048L);
+        when(photoRepository.save(any(ScoutingPhoto.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        ScoutingPhotoDto result = scoutingPhotoService.confirmUpload(
+                new PhotoUploadConfirmationRequest(session.getId(), "photo-1", key), "image/png");
+
+        assertThat(result.contentHash()).isEqualTo(key);
+        assertThat(photo.getContentLength()).isEqualTo(2048L);
+        assertThat(photo.getContentType()).isEqualTo("image/png");
+        verify(blobReferences).acquire(key, 2048L);
+    }
+
+    @Test
+    void confirmResumableUpload_TakesReferenceBeforeAdoptingTheStagedFile() throws Exception {
+        String key = "e".repeat(64);
+        Path staged = Path.of("staged.part");
+        PhotoUpload upload = resumableUpload(key);
+        ScoutingPhoto photo = ScoutingPhoto.builder()
+                .id(upload.getPhotoId())
+                .session(session)
+                .farmId(session.getFarm().getId())
+                .localPhotoId("photo-1")
+                .build();
+
+        when(uploadRepository.transition(eq(upload.getId()), eq(PhotoUploadStatus.OPEN), eq(PhotoUploadStatus.COMPLETED), any()))
+                .thenReturn(1);
+        when(farmAccessService.getCurrentUserRole()).thenReturn(Role.SCOUT);
+        when(currentUserService.getCurrentUserId()).thenReturn(scout.getId());
+        when(photoRepository.findByLocalPhotoIdAndDeletedFalse("photo-1")).thenReturn(Optional.of(photo));
+        when(photoBlobStore.adopt(staged, key)).thenReturn(new StoredPhotoBlob(key, 1000));
+        when(photoRepository.save(any(ScoutingPhoto.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        Optional<ScoutingPhotoDto> result = scoutingPhotoService.confirmResumableUpload(upload, staged);
+
+        assertThat(result).get().extracting(ScoutingPhotoDto::contentHash).isEqualTo(key);
+        assertThat(photo.getContentType()).isEqualTo("image/jpeg");
+        InOrder order = inOrder(uploadRepository, blobReferences, photoBlobStore, photoRepository);
+        order.verify(uploadRepository).transition(eq(upload.getId()), eq(PhotoUploadStatus.OPEN), eq(PhotoUploadStatus.COMPLETED), any());
+        order.verify(blobReferences).acquire(key, 1000L);
+        order.verify(photoBlobStore).adopt(staged, key);
+        order.verify(photoRepository).save(photo);
+    }
+
+    @Test
+    void confirmResumableUpload_WhenAlreadyClaimed_LeavesTheBlobAlone() throws Exception {
+        PhotoUpload upload = resumableUpload("e".repeat(64));
+
+        assertThat(scoutingPhotoService.confirmResumableUpload(upload, Path.of("staged.part"))).isEmpty();
+        verify(blobReferences, never()).acquire(any(), anyLong());
+        verify(photoBlobStore, never()).adopt(any(), any());
+    }
+
     @Test
     void registerMetadata_WithFiveExistingCellPhotos_ThrowsBadRequestException() {
         PhotoMetadataRequest request = new PhotoMetadataRequest(
@@ -253,7 +354,8 @@ class ScoutingPhotoServiceTest {
                 "photo-6",
                 "Leaf close-up",
                 null,
-                LocalDateTime.now()
+                LocalDateTime.now(),
+                null
         );
 
         when(farmAccessService.getCurrentUserRole()).thenReturn(Role.SCOUT);
@@ -269,4 +371,183 @@ class ScoutingPhotoServiceTest {
                 .isInstanceOf(BadRequestException.class)
                 .hasMessageContaining("at most 5 active photos");
     }
+
+    @Test
+    void uploadContent_StoresBlobAndAttachesContentKey() throws Exception {
+        ScoutingPhoto photo = ScoutingPhoto.builder()
+                .id(UUID.randomUUID())
+                .session(session)
+                .farmId(session.getFarm().getId())
+                .localPhotoId("photo-1")
+                .build();
+        photo.setSyncStatus(SyncStatus.PENDING_UPLOAD);
+        InputStream content = new ByteArrayInputStream(new byte[]{1, 2, 3});
+        String key = "b".repeat(64);
+
+        when(farmAccessService.getCurrentUserRole()).thenReturn(Role.SCOUT);
+        when(currentUserService.getCurrentUserId()).thenReturn(scout.getId());
+        when(photoRepository.findWithSessionByIdAndSessionId(photo.getId(), session.getId())).thenReturn(Optional.of(photo));
+        StagedPhotoBlob staged = new StagedPhotoBlob(Path.of("upload-1.part"), key, 3);
+        when(photoBlobStore.stage(content)).thenReturn(staged);
+        when(photoBlobStore.commit(staged)).thenReturn(new StoredPhotoBlob(key, 3));
+        when(photoRepository.save(any(ScoutingPhoto.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        ScoutingPhotoDto result = scoutingPhotoService.uploadContent(session.getId(), photo.getId(), "image/jpeg", content);
+
+        assertThat(result.objectKey()).isEqualTo(key);
+        assertThat(result.syncStatus()).isEqualTo(SyncStatus.SYNCED);
+        assertThat(result.contentUrl()).isEqualTo(
+                "/api/scouting/photos/session/" + session.getId() + "/" + photo.getId() + "/content");
+        assertThat(result.thumbnailUrl()).isNull();
+        assertThat(photo.getContentType()).isEqualTo("image/jpeg");
+        assertThat(photo.getContentLength()).isEqualTo(3L);
+        assertThat(result.contentHash()).isEqualTo(key);
+        assertThat(result.duplicate()).isFalse();
+        // The reference must be held before the bytes land, or an orphan sweep in between could delete them.
+        InOrder inOrder = inOrder(blobReferences, photoBlobStore);
+        inOrder.verify(blobReferences).acquire(key, 3);
+        inOrder.verify(photoBlobStore).commit(staged);
+        verify(derivativeService).schedule(photo);
+    }
+
+    @Test
+    void uploadContent_WithContentAlreadyInSession_KeepsOriginalAndReportsDuplicate() throws Exception {
+        String key = "c".repeat(64);
+        ScoutingPhoto original = ScoutingPhoto.builder()
+                .id(UUID.randomUUID())
+                .session(session)
+                .farmId(session.getFarm().getId())
+                .localPhotoId("photo-1")
+                .objectKey(key)
+                .contentHash(key)
+                .build();
+        ScoutingPhoto retry = ScoutingPhoto.builder()
+                .id(UUID.randomUUID())
+                .session(session)
+                .farmId(session.getFarm().getId())
+                .localPhotoId("photo-1-retry")
+                .build();
+        InputStream content = new ByteArrayInputStream(new byte[]{1, 2, 3});
+
+        when(farmAccessService.getCurrentUserRole()).thenReturn(Role.SCOUT);
+        when(currentUserService.getCurrentUserId()).thenReturn(scout.getId());
+        when(photoRepository.findWithSessionByIdAndSessionId(retry.getId(), session.getId())).thenReturn(Optional.of(retry));
+        when(photoBlobStore.stage(content)).thenReturn(new StagedPhotoBlob(Path.of("upload-2.part"), key, 3));
+        when(photoRepository.findBySessionIdAndContentHashAndDeletedFalse(session.getId(), key))
+                .thenReturn(List.of(original));
+
+        ScoutingPhotoDto result = scoutingPhotoService.uploadContent(session.getId(), retry.getId(), "image/jpeg", content);
+
+        assertThat(result.id()).isEqualTo(original.getId());
+        assertThat(result.duplicate()).isTrue();
+        assertThat(retry.isDeleted()).isTrue();
+        verify(photoRepository).save(retry);
+        verify(blobReferences, never()).acquire(any(), anyLong());
+        verify(derivativeService, never()).schedule(any());
+    }
+
+    @Test
+    void registerMetadata_WithContentHashAlreadyInSession_ReturnsExistingPhoto() {
+        String hash = "d".repeat(64);
+        ScoutingPhoto original = ScoutingPhoto.builder()
+                .id(UUID.randomUUID())
+                .session(session)
+                .farmId(session.getFarm().getId())
+                .localPhotoId("photo-1")
+                .objectKey(hash)
+                .contentHash(hash)
+                .build();
+        PhotoMetadataRequest request = new PhotoMetadataRequest(
+                session.getId(), null, null, null, null, null, null, null,
+                "photo-1-retry", "Leaf close-up", null, LocalDateTime.now(), hash.toUpperCase()
+        );
+
+        when(farmAccessService.getCurrentUserRole()).thenReturn(Role.SCOUT);
+        when(currentUserService.getCurrentUserId()).thenReturn(scout.getId());
+        when(sessionRepository.findById(session.getId())).thenReturn(Optional.of(session));
+        when(photoRepository.findByLocalPhotoIdAndDeletedFalse("photo-1-retry")).thenReturn(Optional.empty());
+        when(photoRepository.findBySessionIdAndContentHashAndDeletedFalse(session.getId(), hash))
+                .thenReturn(List.of(original));
+
+        ScoutingPhotoDto result = scoutingPhotoService.registerMetadata(request);
+
+        assertThat(result.id()).isEqualTo(original.getId());
+        assertThat(result.duplicate()).isTrue();
+        verify(photoRepository, never()).save(any());
+    }
+
+    @Test
+    void registerMetadata_WithContentStoredForAnotherSession_LinksExistingBlob() throws Exception {
+        String hash = "e".repeat(64);
+        ScoutingPhoto donor = ScoutingPhoto.builder()
+                .id(UUID.randomUUID())
+                .farmId(session.getFarm().getId())
+                .localPhotoId("other-session-photo")
+                .objectKey(hash)
+                .contentHash(hash)
+                .contentType("image/jpeg")
+                .contentLength(42L)
+                .build();
+        PhotoMetadataRequest request = new PhotoMetadataRequest(
+                session.getId(), null, null, null, null, null, null, null,
+                "photo-2", "Leaf close-up", null, LocalDateTime.now(), hash
+        );
+
+        when(farmAccessService.getCurrentUserRole()).thenReturn(Role.SCOUT);
+        when(currentUserService.getCurrentUserId()).thenReturn(scout.getId());
+        when(sessionRepository.findById(session.getId())).thenReturn(Optional.of(session));
+        when(photoRepository.findByLocalPhotoIdAndDeletedFalse("photo-2")).thenReturn(Optional.empty());
+        when(photoRepository.findBySessionIdAndContentHashAndDeletedFalse(session.getId(), hash)).thenReturn(List.of());
+        when(photoRepository.findFirstByFarmIdAndContentHashAndDeletedFalse(session.getFarm().getId(), hash))
+                .thenReturn(Optional.of(donor));
+        when(photoBlobStore.open(hash)).thenReturn(Optional.of(mock(PhotoBlob.class)));
+        when(photoRepository.save(any(ScoutingPhoto.class))).thenAnswer(invocation -> {
+            ScoutingPhoto photo = invocation.getArgument(0);
+            photo.setId(UUID.randomUUID());
+            return photo;
+        });
+
+        ScoutingPhotoDto result = scoutingPhotoService.registerMetadata(request);
+
+        assertThat(result.objectKey()).isEqualTo(hash);
+        assertThat(result.contentHash()).isEqualTo(hash);
+        assertThat(result.syncStatus()).isEqualTo(SyncStatus.SYNCED);
+        assertThat(result.duplicate()).isFalse();
+        verify(blobReferences).acquire(hash, 42L);
+        verify(derivativeService).schedule(any(ScoutingPhoto.class));
+    }
+
+    @Test
+    void uploadContent_WithNonImageContentType_ThrowsBadRequestException() throws Exception {
+        ScoutingPhoto photo = ScoutingPhoto.builder()
+                .id(UUID.randomUUID())
+                .session(session)
+                .farmId(session.getFarm().getId())
+                .localPhotoId("photo-1")
+                .build();
+
+        when(farmAccessService.getCurrentUserRole()).thenReturn(Role.SCOUT);
+        when(currentUserService.getCurrentUserId()).thenReturn(scout.getId());
+        when(photoRepository.findWithSessionByIdAndSessionId(photo.getId(), session.getId())).thenReturn(Optional.of(photo));
+
+        assertThatThrownBy(() -> scoutingPhotoService.uploadContent(
+                session.getId(), photo.getId(), "application/pdf", InputStream.nullInputStream()))
+                .isInstanceOf(BadRequestException.class);
+        verify(photoBlobStore, never()).stage(any());
+    }
+
+    private PhotoUpload resumableUpload(String checksum) {
+        return PhotoUpload.builder()
+                .id(UUID.randomUUID())
+                .farmId(session.getFarm().getId())
+                .sessionId(session.getId())
+                .photoId(UUID.randomUUID())
+                .localPhotoId("photo-1")
+                .contentType("image/jpeg")
+                .totalBytes(1000)
+                .contentSha256(checksum)
+                .status(PhotoUploadStatus.OPEN)
+                .expiresAt(LocalDateTime.now().plusHours(1))
+                .build();
+    }
 }
@@ -1,8 +1,12 @@
 package mofo.com.pestscout.scouting.service;
 
+import jakarta.persistence.EntityManager;
+import mofo.com.pestscout.auth.model.Role;
+import mofo.com.pestscout.common.exception.BadRequestException;
 import mofo.com.pestscout.common.model.SyncStatus;
 import mofo.com.pestscout.farm.model.Farm;
 import mofo.com.pestscout.farm.model.Greenhouse;
+import mofo.com.pestscout.farm.security.FarmAccessService;
 import mofo.com.pestscout.scouting.dto.*;
 import mofo.com.pestscout.scouting.model.*;
 import mofo.com.pestscout.scouting.repository.ScoutingSessionRepository;
@@ -12,6 +16,7 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.io.ByteArrayOutputStream;
 import java.math.BigDecimal;
 import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
@@ -20,9 +25,12 @@ import java.time.LocalTime;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 import static org.assertj.core.api.Assertions.assertThat;
-import static org.mockito.Mockito.when;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
 class ScoutingSessionReportExportServiceTest {
@@ -33,13 +41,133 @@ class ScoutingSessionReportExportServiceTest {
     @Mock
     private ScoutingSessionRepository sessionRepository;
 
+    @Mock
+    private EntityManager entityManager;
+
+    @Mock
+    private FarmAccessService farmAccessService;
+
+    @Mock
+    private ScoutingArchiveService archiveService;
+
     @InjectMocks
     private ScoutingSessionReportExportService reportExportService;
 
     @Test
-    void exportSessionCsv_buildsDownloadableCsv() {
+    void writeCsv_streamsSingleSessionReport() throws Exception {
+        UUID sessionId = UUID.randomUUID();
+        UUID farmId = UUID.randomUUID();
+        ExportFixture fixture = fixture(sessionId, farmId, LocalDate.of(2026, 3, 18), "=SUM(A1:A2)");
+
+        when(sessionRepository.existsById(sessionId)).thenReturn(true);
+        when(scoutingSessionService.loadSessionForExport(sessionId)).thenReturn(fixture.session());
+        when(scoutingSessionService.exportDetail(fixture.session())).thenReturn(Optional.of(fixture.report()));
+
+        ScoutingSessionReportExportService.CsvExport export = reportExportService.prepareSessionExport(sessionId);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        reportExportService.writeCsv(export, out);
+
+        String csv = out.toString(StandardCharsets.UTF_8);
+
+        assertThat(export.fileName()).isEqualTo("scouting-session-" + sessionId + "-2026-03-18.csv");
+        assertThat(export.mediaType()).isEqualTo("text/csv");
+        assertThat(csv).startsWith("\uFEFF");
+        assertThat(csv).contains("\"session_id\"");
+        assertThat(csv).contains("\"North Farm\"");
+        assertThat(csv).contains("\"GH-1\"");
+        assertThat(csv).contains("\"Thrips\"");
+        assertThat(csv).contains("\"CHEMICAL_SPRAYS: Apply targeted control\"");
+        assertThat(csv).contains("\"observation_timezone\"");
+        assertThat(csv).contains("\"Africa/Nairobi\"");
+        assertThat(csv).contains("\"'=SUM(A1:A2)\"");
+        verify(sessionRepository, never()).streamByFarmId(any());
+        verifyNoInteractions(archiveService);
+    }
+
+    @Test
+    void writeCsv_fallsBackToArchiveForArchivedSession() throws Exception {
         UUID sessionId = UUID.randomUUID();
         UUID farmId = UUID.randomUUID();
+        ExportFixture fixture = fixture(sessionId, farmId, LocalDate.of(2024, 5, 7), "archived observation");
+
+        when(sessionRepository.existsById(sessionId)).thenReturn(false);
+        when(archiveService.findArchivedSession(sessionId)).thenReturn(Optional.of(archived(fixture)));
+
+        ScoutingSessionReportExportService.CsvExport export = reportExportService.prepareSessionExport(sessionId);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        reportExportService.writeCsv(export, out);
+
+        String csv = out.toString(StandardCharsets.UTF_8);
+
+        assertThat(export.fileName()).isEqualTo("scouting-session-" + sessionId + "-2024-05-07.csv");
+        assertThat(csv).contains("\"North Farm\"");
+        assertThat(csv).contains("\"GH-1\"");
+        assertThat(csv).contains("\"archived observation\"");
+        verify(scoutingSessionService, times(2)).requireFarmExportAccess(farmId);
+        verify(scoutingSessionService, never()).loadSessionForExport(any());
+    }
+
+    @Test
+    void writeCsv_appendsArchivedSessionsToFarmExportOnRequest() throws Exception {
+        UUID farmId = UUID.randomUUID();
+        ExportFixture hot = fixture(UUID.randomUUID(), farmId, LocalDate.of(2026, 2, 1), "hot session");
+        ExportFixture cold = fixture(UUID.randomUUID(), farmId, LocalDate.of(2024, 2, 1), "archived session");
+
+        when(sessionRepository.streamByFarmId(farmId)).thenReturn(Stream.of(hot.session()));
+        when(farmAccessService.getCurrentUserRole()).thenReturn(Role.FARM_ADMIN);
+        when(scoutingSessionService.exportDetail(hot.session(), Role.FARM_ADMIN)).thenReturn(Optional.of(hot.report()));
+        when(archiveService.streamArchivedSessions(farmId, null, null)).thenReturn(Stream.of(archived(cold)));
+
+        ScoutingSessionReportExportService.CsvExport export =
+                reportExportService.prepareFarmExport(farmId, null, null, true);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        reportExportService.writeCsv(export, out);
+
+        String csv = out.toString(StandardCharsets.UTF_8);
+
+        assertThat(csv.lines()).hasSize(3);
+        assertThat(csv.indexOf("hot session")).isLessThan(csv.indexOf("archived session"));
+    }
+
+    @Test
+    void writeCsv_streamsFarmDateRangeAndSkipsSessionsTheCallerCannotOpen() throws Exception {
+        UUID farmId = UUID.randomUUID();
+        LocalDate start = LocalDate.of(2026, 1, 1);
+        LocalDate end = LocalDate.of(2026, 12, 31);
+        ExportFixture first = fixture(UUID.randomUUID(), farmId, LocalDate.of(2026, 2, 1), "first session");
+        ExportFixture hidden = fixture(UUID.randomUUID(), farmId, LocalDate.of(2026, 3, 1), "hidden session");
+        ExportFixture second = fixture(UUID.randomUUID(), farmId, LocalDate.of(2026, 4, 1), "second session");
+
+        when(sessionRepository.streamByFarmIdAndSessionDateBetween(farmId, start, end))
+                .thenReturn(Stream.of(first.session(), hidden.session(), second.session()));
+        when(farmAccessService.getCurrentUserRole()).thenReturn(Role.MANAGER);
+        when(scoutingSessionService.exportDetail(first.session(), Role.MANAGER)).thenReturn(Optional.of(first.report()));
+        when(scoutingSessionService.exportDetail(hidden.session(), Role.MANAGER)).thenReturn(Optional.empty());
+        when(scoutingSessionService.exportDetail(second.session(), Role.MANAGER)).thenReturn(Optional.of(second.report()));
+
+        ScoutingSessionReportExportService.CsvExport export = reportExportService.prepareFarmExport(farmId, start, end);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        reportExportService.writeCsv(export, out);
+
+        String csv = out.toString(StandardCharsets.UTF_8);
+
+        assertThat(export.fileName()).isEqualTo("scouting-sessions-" + farmId + "-2026-01-01-to-2026-12-31.csv");
+        assertThat(csv.lines()).hasSize(3);
+        assertThat(csv.indexOf("first session")).isLessThan(csv.indexOf("second session"));
+        assertThat(csv).doesNotContain("hidden session");
+        verify(scoutingSessionService, times(2)).requireFarmExportAccess(farmId);
+    }
+
+    @Test
+    void prepareFarmExport_rejectsHalfOpenRange() {
+        UUID farmId = UUID.randomUUID();
+
+        assertThatThrownBy(() -> reportExportService.prepareFarmExport(farmId, LocalDate.of(2026, 1, 1), null))
+                .isInstanceOf(BadRequestException.class);
+        verify(scoutingSessionService, never()).requireFarmExportAccess(any());
+    }
+
+    private ExportFixture fixture(UUID sessionId, UUID farmId, LocalDate sessionDate, String observationNotes) {
         UUID targetId = UUID.randomUUID();
         UUID greenhouseId = UUID.randomUUID();
 
@@ -58,7 +186,7 @@ class ScoutingSessionReportExportServiceTest {
                 "Bed-02",
                 1,
                 7,
-                "=SUM(A1:A2)",
+                observationNotes,
                 LocalDateTime.of(2026, 3, 18, 12, 30),
                 SyncStatus.SYNCED,
                 false,
@@ -83,7 +211,7 @@ class ScoutingSessionReportExportServiceTest {
                 sessionId,
                 3L,
                 farmId,
-                LocalDate.of(2026, 3, 18),
+                sessionDate,
                 12,
                 SessionStatus.COMPLETED,
                 SyncStatus.SYNCED,
@@ -134,23 +262,19 @@ class ScoutingSessionReportExportServiceTest {
                 .includeAllBenches(true)
                 .build());
 
-        when(scoutingSessionService.getSession(sessionId)).thenReturn(report);
-        when(sessionRepository.findById(sessionId)).thenReturn(Optional.of(session));
-
-        ScoutingSessionReportExportService.GeneratedCsvDocument document = reportExportService.exportSessionCsv(sessionId);
+        return new ExportFixture(session, report);
+    }
 
-        String csv = new String(document.content(), StandardCharsets.UTF_8);
+    private ArchivedSessionReport archived(ExportFixture fixture) {
+        return new ArchivedSessionReport(
+                fixture.report(),
+                fixture.session().getFarm().getName(),
+                ScoutingSessionReportExportService.sectionsOf(fixture.session()),
+                List.of(),
+                List.of()
+        );
+    }
 
-        assertThat(document.fileName()).isEqualTo("scouting-session-" + sessionId + "-2026-03-18.csv");
-        assertThat(document.mediaType()).isEqualTo("text/csv");
-        assertThat(csv).startsWith("\uFEFF");
-        assertThat(csv).contains("\"session_id\"");
-        assertThat(csv).contains("\"North Farm\"");
-        assertThat(csv).contains("\"GH-1\"");
-        assertThat(csv).contains("\"Thrips\"");
-        assertThat(csv).contains("\"CHEMICAL_SPRAYS: Apply targeted control\"");
-        assertThat(csv).contains("\"observation_timezone\"");
-        assertThat(csv).contains("\"Africa/Nairobi\"");
-        assertThat(csv).contains("\"'=SUM(A1:A2)\"");
+    private record ExportFixture(ScoutingSession session, ScoutingSessionDetailDto report) {
     }
 }
@@ -1,14 +1,18 @@
 package mofo.com.pestscout.scouting.service;
 
 import mofo.com.pestscout.analytics.dto.SessionTargetRequest;
+import mofo.com.pestscout.analytics.service.FarmComparisonStatsService;
+import mofo.com.pestscout.analytics.service.WeeklyAnalyticsService;
 import mofo.com.pestscout.auth.model.Role;
 import mofo.com.pestscout.auth.model.User;
 import mofo.com.pestscout.auth.model.UserFarmMembership;
 import mofo.com.pestscout.auth.repository.UserFarmMembershipRepository;
 import mofo.com.pestscout.auth.repository.UserRepository;
+import mofo.com.pestscout.common.dto.CursorPageResponse;
 import mofo.com.pestscout.common.exception.BadRequestException;
 import mofo.com.pestscout.common.exception.ConflictException;
 import mofo.com.pestscout.common.exception.ForbiddenException;
+import mofo.com.pestscout.common.exception.GoneException;
 import mofo.com.pestscout.common.exception.ResourceNotFoundException;
 import mofo.com.pestscout.common.model.SyncStatus;
 import mofo.com.pestscout.common.service.CacheService;
@@ -19,6 +23,7 @@ import mofo.com.pestscout.farm.repository.GreenhouseRepository;
 import mofo.com.pestscout.farm.security.CurrentUserService;
 import mofo.com.pestscout.farm.security.FarmAccessService;
 import mofo.com.pestscout.farm.service.LicenseService;
+import mofo.com.pestscout.scouting.config.ScoutingArchiveProperties;
 import mofo.com.pestscout.scouting.dto.*;
 import mofo.com.pestscout.scouting.model.*;
 import mofo.com.pestscout.scouting.repository.*;
@@ -29,6 +34,7 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
@@ -38,7 +44,7 @@ import java.util.*;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
-import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -90,9 +96,18 @@ class ScoutingSessionServiceTest {
     @Mock
     private SessionAuditService sessionAuditService;
 
+    @Mock
+    private FarmComparisonStatsService farmComparisonStatsService;
+
+    @Mock
+    private WeeklyAnalyticsService weeklyAnalyticsService;
+
     @Mock
     private CustomSpeciesDefinitionRepository customSpeciesDefinitionRepository;
 
+    @Mock
+    private ScoutingArchiveProperties archiveProperties;
+
     @InjectMocks
     private ScoutingSessionService scoutingSessionService;
 
@@ -1389,6 +1404,8 @@ class ScoutingSessionServiceTest {
                         && session.isConfirmationAcknowledged()
         ));
         verify(farmAccessService).requireAdminOrSuperAdmin(testSession.getFarm());
+        verify(farmComparisonStatsService).recordCompleted(testSession);
+        verify(weeklyAnalyticsService).record(any(), eq(testSession));
     }
 
     @Test
@@ -1471,6 +1488,7 @@ class ScoutingSessionServiceTest {
                         session.getCompletedAt() == null &&
                         "Reopen for edits".equals(session.getReopenComment())
         ));
+        verify(farmComparisonStatsService).recordReopened(testSession);
     }
 
     @Test
@@ -2356,9 +2374,7 @@ class ScoutingSessionServiceTest {
         when(farmAccessService.getCurrentUserRole()).thenReturn(Role.SUPER_ADMIN);
         when(sessionRepository.findByFarmIdAndUpdatedAtAfter(testFarm.getId(), since))
                 .thenReturn(List.of(updatedSession));
-        when(sessionRepository.findByFarmId(testFarm.getId()))
-                .thenReturn(List.of(testSession));
-        when(observationRepository.findBySessionIdInAndUpdatedAtAfter(anyList(), eq(since)))
+        when(observationRepository.findByFarmIdAndUpdatedAtAfter(testFarm.getId(), since))
                 .thenReturn(List.of(changedObs));
         when(sessionRepository.findAllById(anyIterable())).thenReturn(List.of(updatedSession));
 
@@ -2371,6 +2387,18 @@ class ScoutingSessionServiceTest {
         assertThat(response.observations().getFirst().deleted()).isFalse();
     }
 
+    @Test
+    @DisplayName("Should require a full resync when since predates the archival cutoff")
+    void syncChanges_SinceBeforeArchiveCutoff_ThrowsGone() {
+        LocalDateTime now = LocalDateTime.now();
+        when(archiveProperties.deletedCutoff(any(LocalDateTime.class))).thenReturn(Optional.of(now.minusDays(30)));
+
+        assertThatThrownBy(() -> scoutingSessionService.syncChanges(testFarm.getId(), now.minusDays(31), true))
+                .isInstanceOf(GoneException.class)
+                .hasMessageContaining("full resync");
+        verifyNoInteractions(sessionRepository, observationRepository);
+    }
+
     @Test
     @DisplayName("Should include soft-deleted observations when requested")
     void syncChanges_WithIncludeDeleted_ReturnsDeletedObservations() {
@@ -2393,9 +2421,7 @@ class ScoutingSessionServiceTest {
         when(farmAccessService.getCurrentUserRole()).thenReturn(Role.SUPER_ADMIN);
         when(sessionRepository.findByFarmIdAndUpdatedAtAfter(testFarm.getId(), since))
                 .thenReturn(List.of());
-        when(sessionRepository.findByFarmId(testFarm.getId()))
-                .thenReturn(List.of(testSession));
-        when(observationRepository.findBySessionIdInAndUpdatedAtAfter(anyList(), eq(since)))
+        when(observationRepository.findByFarmIdAndUpdatedAtAfter(testFarm.getId(), since))
                 .thenReturn(List.of(deletedObs));
         when(sessionRepository.findAllById(anyIterable())).thenReturn(List.of(testSession));
 
@@ -2407,6 +2433,34 @@ class ScoutingSessionServiceTest {
         assertThat(response.observations().getFirst().deleted()).isTrue();
     }
 
+    @Test
+    @DisplayName("Should read a scout's changed drafts through the farm column")
+    void syncChanges_AsScout_ReadsDraftsByFarmAndScout() {
+        LocalDateTime since = LocalDateTime.now().minusDays(1);
+        ScoutingObservationDraft draft = ScoutingObservationDraft.builder()
+                .id(UUID.randomUUID())
+                .session(testSession)
+                .sessionTarget(ScoutingSessionTarget.builder().id(UUID.randomUUID()).session(testSession).build())
+                .speciesCode(SpeciesCode.WHITEFLIES)
+                .bayIndex(0)
+                .benchIndex(0)
+                .spotIndex(0)
+                .count(2)
+                .build();
+
+        when(farmRepository.findById(testFarm.getId())).thenReturn(Optional.of(testFarm));
+        when(sessionRepository.findByFarmIdAndUpdatedAtAfter(testFarm.getId(), since)).thenReturn(List.of());
+        when(observationDraftRepository.findByFarmIdAndScoutIdAndUpdatedAtAfter(testFarm.getId(), scout.getId(), since))
+                .thenReturn(List.of(draft));
+        when(sessionRepository.findAllById(anyIterable())).thenReturn(List.of(testSession));
+
+        ScoutingSyncResponse response = scoutingSessionService.syncChanges(testFarm.getId(), since, false);
+
+        assertThat(response.sessions()).hasSize(1);
+        assertThat(response.observations()).hasSize(1);
+        verify(sessionRepository, never()).findByFarmId(any(UUID.class));
+    }
+
     @Test
     @DisplayName("Should get session successfully")
     void getSession_WithValidId_ReturnsSession() {
@@ -2604,137 +2658,151 @@ class ScoutingSessionServiceTest {
     }
 
     @Test
-    @DisplayName("Should list sessions for farm")
-    void listSessions_WithValidFarm_ReturnsSessions() {
-        // Arrange
-        when(farmAccessService.getCurrentUserRole())
-                .thenReturn(Role.SUPER_ADMIN);
-        when(farmRepository.findById(testFarm.getId()))
-                .thenReturn(Optional.of(testFarm));
-        when(sessionRepository.findByFarmId(testFarm.getId()))
-                .thenReturn(Arrays.asList(testSession));
+    @DisplayName("Should list one page of session summaries for farm")
+    void listSessions_WithValidFarm_ReturnsSummaryPage() {
+        ScoutingSessionSummaryDto summary = summaryOf(testSession);
+        when(farmAccessService.getCurrentUserRole()).thenReturn(Role.FARM_ADMIN);
+        when(currentUserService.getCurrentUserId()).thenReturn(manager.getId());
+        when(farmRepository.findById(testFarm.getId())).thenReturn(Optional.of(testFarm));
+        when(sessionRepository.findSummaries(eq(testFarm.getId()), isNull(), eq(EnumSet.allOf(SessionStatus.class)),
+                isNull(), isNull(), eq(false), isNull(), isNull(), eq(Limit.of(51))))
+                .thenReturn(List.of(summary));
 
-        // Act
-        List<ScoutingSessionDetailDto> result = scoutingSessionService.listSessions(testFarm.getId());
+        CursorPageResponse<ScoutingSessionSummaryDto> result =
+                scoutingSessionService.listSessions(listQuery(testFarm.getId(), null, null));
 
-        // Assert
-        assertThat(result).isNotEmpty();
-        assertThat(result).hasSize(1);
-        verify(sessionRepository).findByFarmId(testFarm.getId());
+        assertThat(result.content()).containsExactly(summary);
+        assertThat(result.last()).isTrue();
+        assertThat(result.nextCursor()).isNull();
+        verify(sessionRepository, never()).findByFarmId(any(UUID.class));
+        verify(observationRepository, never()).findBySessionId(any(UUID.class));
     }
 
     @Test
-    @DisplayName("Should keep live sessions visible but redacted for super admin list")
-    void listSessions_WithSuperAdmin_RedactsLiveSessions() {
-        ScoutingSession inProgressSession = ScoutingSession.builder()
+    @DisplayName("Should return a cursor that resumes after the last row of a full page")
+    void listSessions_WithMoreRows_ReturnsCursorForNextPage() {
+        ScoutingSessionSummaryDto newest = summaryOf(testSession);
+        ScoutingSessionSummaryDto older = summaryOf(ScoutingSession.builder()
                 .id(UUID.randomUUID())
                 .farm(testFarm)
-                .manager(manager)
-                .scout(scout)
-                .sessionDate(LocalDate.now())
-                .weekNumber(2)
-                .cropType("Tomato")
-                .cropVariety("Roma")
-                .status(SessionStatus.IN_PROGRESS)
-                .observations(new ArrayList<>())
-                .targets(new ArrayList<>())
-                .recommendations(new EnumMap<>(RecommendationType.class))
-                .build();
+                .sessionDate(LocalDate.of(2024, 3, 1))
+                .status(SessionStatus.COMPLETED)
+                .build());
+        when(farmAccessService.getCurrentUserRole()).thenReturn(Role.MANAGER);
+        when(currentUserService.getCurrentUserId()).thenReturn(manager.getId());
+        when(farmRepository.findById(testFarm.getId())).thenReturn(Optional.of(testFarm));
+        when(sessionRepository.findSummaries(eq(testFarm.getId()), isNull(), any(), isNull(), isNull(), eq(false),
+                isNull(), isNull(), eq(Limit.of(2))))
+                .thenReturn(List.of(newest, older));
 
-        when(farmAccessService.getCurrentUserRole())
-                .thenReturn(Role.SUPER_ADMIN);
-        when(farmRepository.findById(testFarm.getId()))
-                .thenReturn(Optional.of(testFarm));
-        when(sessionRepository.findByFarmId(testFarm.getId()))
-                .thenReturn(List.of(testSession, inProgressSession));
+        CursorPageResponse<ScoutingSessionSummaryDto> first =
+                scoutingSessionService.listSessions(listQuery(testFarm.getId(), null, 1));
+
+        assertThat(first.content()).containsExactly(newest);
+        assertThat(first.last()).isFalse();
+        assertThat(first.nextCursor()).isNotBlank();
 
-        List<ScoutingSessionDetailDto> result = scoutingSessionService.listSessions(testFarm.getId());
+        when(sessionRepository.findSummaries(eq(testFarm.getId()), isNull(), any(), isNull(), isNull(), eq(false),
+                eq(newest.sessionDate()), eq(newest.id()), eq(Limit.of(2))))
+                .thenReturn(List.of(older));
 
-        assertThat(result).hasSize(2);
-        ScoutingSessionDetailDto redacted = result.stream()
-                .filter(session -> session.id().equals(inProgressSession.getId()))
-                .findFirst()
-                .orElseThrow();
-        assertThat(redacted.status()).isEqualTo(SessionStatus.IN_PROGRESS);
-        assertThat(redacted.notes()).isNull();
-        assertThat(redacted.sections()).isEmpty();
-        assertThat(redacted.openRestricted()).isTrue();
+        CursorPageResponse<ScoutingSessionSummaryDto> second =
+                scoutingSessionService.listSessions(listQuery(testFarm.getId(), first.nextCursor(), 1));
+
+        assertThat(second.content()).containsExactly(older);
+        assertThat(second.last()).isTrue();
     }
 
     @Test
-    @DisplayName("Should keep in-progress sessions visible but redacted for manager list")
-    void listSessions_WithManager_RedactsInProgressSessions() {
-        ScoutingSession inProgressSession = ScoutingSession.builder()
-                .id(UUID.randomUUID())
-                .farm(testFarm)
-                .manager(manager)
-                .scout(scout)
-                .sessionDate(LocalDate.now())
-                .weekNumber(2)
-                .cropType("Tomato")
-                .cropVariety("Roma")
-                .notes("Scout only notes")
-                .status(SessionStatus.IN_PROGRESS)
-                .observations(new ArrayList<>())
-                .targets(new ArrayList<>())
-                .recommendations(new EnumMap<>(RecommendationType.class))
-                .build();
+    @DisplayName("Should flag in-progress summaries as restricted for manager list")
+    void listSessions_WithManager_FlagsInProgressSessionsAsRestricted() {
+        testSession.setStatus(SessionStatus.IN_PROGRESS);
+        when(farmAccessService.getCurrentUserRole()).thenReturn(Role.MANAGER);
+        when(currentUserService.getCurrentUserId()).thenReturn(manager.getId());
+        when(farmRepository.findById(testFarm.getId())).thenReturn(Optional.of(testFarm));
+        when(sessionRepository.findSummaries(any(), any(), any(), any(), any(), anyBoolean(), any(), any(), any()))
+                .thenReturn(List.of(summaryOf(testSession)));
 
-        when(farmAccessService.getCurrentUserRole())
-                .thenReturn(Role.MANAGER);
-        when(currentUserService.getCurrentUserId())
-                .thenReturn(manager.getId());
-        when(farmRepository.findById(testFarm.getId()))
-                .thenReturn(Optional.of(testFarm));
-        when(sessionRepository.findByFarmId(testFarm.getId()))
-                .thenReturn(List.of(testSession, inProgressSession));
+        CursorPageResponse<ScoutingSessionSummaryDto> result =
+                scoutingSessionService.listSessions(listQuery(testFarm.getId(), null, null));
+
+        assertThat(result.content()).singleElement()
+                .satisfies(summary -> assertThat(summary.openRestricted()).isTrue());
+    }
+
+    @Test
+    @DisplayName("Should limit scouts to their own visible sessions")
+    void listSessions_WithScout_FiltersToCurrentScout() {
+        when(farmAccessService.getCurrentUserRole()).thenReturn(Role.SCOUT);
+        when(currentUserService.getCurrentUserId()).thenReturn(scout.getId());
+        when(farmRepository.findById(testFarm.getId())).thenReturn(Optional.of(testFarm));
+        when(sessionRepository.findSummaries(eq(testFarm.getId()), eq(scout.getId()), any(), isNull(), isNull(),
+                eq(true), isNull(), isNull(), any()))
+                .thenReturn(List.of());
 
-        List<ScoutingSessionDetailDto> result = scoutingSessionService.listSessions(testFarm.getId());
+        ScoutingSessionListQuery query = new ScoutingSessionListQuery(
+                testFarm.getId(), null, UUID.randomUUID(), null, null, null, null);
 
-        assertThat(result).hasSize(2);
-        ScoutingSessionDetailDto redacted = result.stream()
-                .filter(session -> session.id().equals(inProgressSession.getId()))
-                .findFirst()
-                .orElseThrow();
-        assertThat(redacted.status()).isEqualTo(SessionStatus.IN_PROGRESS);
-        assertThat(redacted.notes()).isNull();
-        assertThat(redacted.sections()).isEmpty();
-        assertThat(redacted.recommendations()).isEmpty();
-        assertThat(redacted.openRestricted()).isTrue();
+        assertThat(scoutingSessionService.listSessions(query).content()).isEmpty();
     }
 
     @Test
     @DisplayName("Should list sessions across all farms for super admin when farmId is omitted")
     void listSessions_WithNullFarmIdAndSuperAdmin_ReturnsAllFarmSessions() {
-        Farm otherFarm = Farm.builder()
-                .id(UUID.randomUUID())
-                .name("Other Farm")
-                .subscriptionStatus(SubscriptionStatus.ACTIVE)
-                .subscriptionTier(SubscriptionTier.STANDARD)
-                .licensedAreaHectares(new BigDecimal("2.00"))
-                .structureType(FarmStructureType.GREENHOUSE)
-                .build();
+        when(farmAccessService.getCurrentUserRole()).thenReturn(Role.SUPER_ADMIN);
+        when(sessionRepository.findSummaries(isNull(), isNull(), any(), isNull(), isNull(), eq(false), isNull(),
+                isNull(), any()))
+                .thenReturn(List.of(summaryOf(testSession)));
 
-        ScoutingSession otherSession = ScoutingSession.builder()
-                .id(UUID.randomUUID())
-                .farm(otherFarm)
-                .manager(manager)
-                .sessionDate(LocalDate.now().minusDays(1))
-                .weekNumber(2)
-                .status(SessionStatus.COMPLETED)
-                .observations(new ArrayList<>())
-                .targets(new ArrayList<>())
-                .recommendations(new EnumMap<>(RecommendationType.class))
-                .build();
+        CursorPageResponse<ScoutingSessionSummaryDto> result = scoutingSessionService.listSessions(listQuery(null, null, null));
+
+        assertThat(result.content()).extracting(ScoutingSessionSummaryDto::farmName).containsExactly("Test Farm");
+        verify(farmRepository, never()).findById(any(UUID.class));
+    }
+
+    @Test
+    @DisplayName("Should require farmId for non super admin list")
+    void listSessions_WithNullFarmIdAndManager_ThrowsBadRequest() {
+        when(farmAccessService.getCurrentUserRole()).thenReturn(Role.MANAGER);
+
+        assertThatThrownBy(() -> scoutingSessionService.listSessions(listQuery(null, null, null)))
+                .isInstanceOf(BadRequestException.class);
+        verifyNoInteractions(sessionRepository);
+    }
 
+    @Test
+    @DisplayName("Should reject a malformed list cursor")
+    void listSessions_WithInvalidCursor_ThrowsBadRequest() {
         when(farmAccessService.getCurrentUserRole()).thenReturn(Role.SUPER_ADMIN);
-        when(sessionRepository.findAll()).thenReturn(List.of(testSession, otherSession));
 
-        List<ScoutingSessionDetailDto> result = scoutingSessionService.listSessions(null);
+        assertThatThrownBy(() -> scoutingSessionService.listSessions(listQuery(null, "not-a-cursor", null)))
+                .isInstanceOf(BadRequestException.class);
+    }
+
+    private ScoutingSessionListQuery listQuery(UUID farmId, String cursor, Integer size) {
+        return new ScoutingSessionListQuery(farmId, null, null, null, null, cursor, size);
+    }
 
-        assertThat(result).hasSize(2);
-        assertThat(result).extracting(ScoutingSessionDetailDto::farmName)
-                .contains("Test Farm", "Other Farm");
+    private ScoutingSessionSummaryDto summaryOf(ScoutingSession session) {
+        return new ScoutingSessionSummaryDto(
+                session.getId(),
+                session.getVersion(),
+                session.getFarm().getId(),
+                session.getFarm().getName(),
+                null,
+                null,
+                session.getSessionDate(),
+                session.getWeekNumber(),
+                session.getStatus(),
+                session.getSyncStatus(),
+                null,
+                null,
+                session.getCropType(),
+                session.getCropVariety(),
+                false,
+                null,
+                false
+        );
     }
 
     @Test
@@ -2760,8 +2828,7 @@ class ScoutingSessionServiceTest {
         when(farmAccessService.getCurrentUserRole()).thenReturn(Role.MANAGER);
         when(currentUserService.getCurrentUserId()).thenReturn(manager.getId());
         when(sessionRepository.findByFarmIdAndUpdatedAtAfter(testFarm.getId(), since)).thenReturn(List.of(testSession));
-        when(sessionRepository.findByFarmId(testFarm.getId())).thenReturn(List.of(testSession));
-        when(observationRepository.findBySessionIdInAndUpdatedAtAfter(anyList(), eq(since))).thenReturn(List.of(changedObs));
+        when(observationRepository.findByFarmIdAndUpdatedAtAfter(testFarm.getId(), since)).thenReturn(List.of(changedObs));
         when(sessionRepository.findAllById(anyIterable())).thenReturn(List.of(testSession));
 
         ScoutingSyncResponse response = scoutingSessionService.syncChanges(testFarm.getId(), since, false);
@@ -0,0 +1,183 @@
+package mofo.com.pestscout.scouting.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import mofo.com.pestscout.common.model.SyncStatus;
+import mofo.com.pestscout.scouting.config.SessionAuditProperties;
+import mofo.com.pestscout.scouting.model.SessionAuditAction;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+class SessionAuditQueueTest {
+
+    private SessionAuditWriter writer;
+    private SessionAuditProperties properties;
+    private SimpleMeterRegistry meterRegistry;
+    private SessionAuditQueue queue;
+
+    @TempDir
+    Path spillDir;
+
+    private final CountDownLatch firstWriteStarted = new CountDownLatch(1);
+    private final CountDownLatch releaseFirstWrite = new CountDownLatch(1);
+
+    @BeforeEach
+    void setUp() {
+        writer = mock(SessionAuditWriter.class);
+        properties = new SessionAuditProperties();
+        properties.setQueueCapacity(10);
+        properties.setBatchSize(50);
+        properties.setShutdownTimeoutMs(5000);
+        properties.setSpillDir(spillDir.toString());
+        meterRegistry = new SimpleMeterRegistry();
+
+        AtomicBoolean first = new AtomicBoolean(true);
+        doAnswer(invocation -> {
+            if (first.compareAndSet(true, false)) {
+                firstWriteStarted.countDown();
+                releaseFirstWrite.await(5, TimeUnit.SECONDS);
+            }
+            return null;
+        }).when(writer).write(anyList());
+    }
+
+    @AfterEach
+    void tearDown() {
+        releaseFirstWrite.countDown();
+        if (queue != null) {
+            queue.shutdown();
+        }
+    }
+
+    @Test
+    void enqueue_writesEventsThatQueuedUpBehindAWriteAsOneBatch() throws Exception {
+        queue = newQueue();
+        SessionAuditService.PendingAuditEvent blocking = event();
+        List<SessionAuditService.PendingAuditEvent> waiting = List.of(event(), event(), event());
+
+        queue.enqueue(blocking);
+        assertThat(firstWriteStarted.await(5, TimeUnit.SECONDS)).isTrue();
+        waiting.forEach(queue::enqueue);
+        assertThat(queue.depth()).isEqualTo(3);
+
+        releaseFirstWrite.countDown();
+        queue.shutdown();
+
+        verify(writer).write(List.of(blocking));
+        verify(writer).write(waiting);
+        assertThat(meterRegistry.timer("session.audit.write.lag").count()).isEqualTo(4);
+        assertThat(meterRegistry.counter("session.audit.overflow").count()).isZero();
+    }
+
+    @Test
+    void enqueue_spillsWhenTheQueueIsFullAndReplaysOnceCaughtUp() throws Exception {
+        properties.setQueueCapacity(1);
+        queue = newQueue();
+        queue.enqueue(event());
+        assertThat(firstWriteStarted.await(5, TimeUnit.SECONDS)).isTrue();
+        queue.enqueue(event());
+
+        SessionAuditService.PendingAuditEvent overflowing = event();
+        queue.enqueue(overflowing);
+
+        verify(writer, never()).write(List.of(overflowing));
+        assertThat(queue.depth()).isEqualTo(1);
+        assertThat(meterRegistry.counter("session.audit.overflow").count()).isEqualTo(1);
+
+        releaseFirstWrite.countDown();
+        verify(writer, timeout(5000)).write(List.of(overflowing));
+        assertThat(spillFiles()).isEmpty();
+    }
+
+    @Test
+    void enqueue_retriesAFailedBatchOneEventAtATimeAndCountsDrops() throws Exception {
+        SessionAuditService.PendingAuditEvent bad = event();
+        queue = newQueue();
+        queue.enqueue(event());
+        assertThat(firstWriteStarted.await(5, TimeUnit.SECONDS)).isTrue();
+        SessionAuditService.PendingAuditEvent good = event();
+        queue.enqueue(good);
+        queue.enqueue(bad);
+        doThrow(new IllegalStateException("archived")).when(writer).write(List.of(good, bad));
+        doThrow(new IllegalStateException("archived")).when(writer).write(List.of(bad));
+
+        releaseFirstWrite.countDown();
+        queue.shutdown();
+
+        verify(writer).write(List.of(good));
+        assertThat(meterRegistry.counter("session.audit.dropped").count()).isEqualTo(1);
+    }
+
+    @Test
+    void shutdown_spillsQueuedEventsAndTheNextWriterWritesThem() throws Exception {
+        releaseFirstWrite.countDown();
+        properties.setAsyncEnabled(false);
+        queue = newQueue();
+        List<SessionAuditService.PendingAuditEvent> queued = List.of(event(), event());
+        queued.forEach(queue::enqueue);
+
+        queue.shutdown();
+        SessionAuditService.PendingAuditEvent late = event();
+        queue.enqueue(late);
+
+        verify(writer, never()).write(anyList());
+        assertThat(spillFiles()).isNotEmpty();
+        assertThat(meterRegistry.counter("session.audit.dropped").count()).isZero();
+
+        properties.setAsyncEnabled(true);
+        queue = newQueue();
+        verify(writer, timeout(5000)).write(List.of(queued.get(0), queued.get(1), late));
+        assertThat(spillFiles()).isEmpty();
+    }
+
+    @Test
+    void replay_skipsLinesCutShortByACrash() throws Exception {
+        releaseFirstWrite.countDown();
+        SessionAuditService.PendingAuditEvent intact = event();
+        SessionAuditSpill spill = new SessionAuditSpill(spillDir, objectMapper());
+        spill.append(List.of(intact));
+        Files.writeString(spillDir.resolve("current.jsonl"), "{\"sessionId\":", StandardOpenOption.APPEND);
+
+        queue = newQueue();
+
+        verify(writer, timeout(5000)).write(List.of(intact));
+        queue.shutdown();
+        assertThat(meterRegistry.counter("session.audit.dropped").count()).isEqualTo(1);
+    }
+
+    private SessionAuditQueue newQueue() {
+        return new SessionAuditQueue(writer, properties, objectMapper(), meterRegistry);
+    }
+
+    private List<Path> spillFiles() throws Exception {
+        try (var files = Files.list(spillDir)) {
+            return files.toList();
+        }
+    }
+
+    private static ObjectMapper objectMapper() {
+        return new ObjectMapper().findAndRegisterModules();
+    }
+
+    private static SessionAuditService.PendingAuditEvent event() {
+        return new SessionAuditService.PendingAuditEvent(UUID.randomUUID(), UUID.randomUUID(),
+                SessionAuditAction.SESSION_VIEWED, "Scout", UUID.randomUUID(), "scout@example.com", null,
+                null, null, null, null, LocalDateTime.now(), SyncStatus.PENDING_UPLOAD);
+    }
+}
@@ -0,0 +1,107 @@
+package mofo.com.pestscout.scouting.service;
+
+import mofo.com.pestscout.auth.model.Role;
+import mofo.com.pestscout.auth.model.User;
+import mofo.com.pestscout.farm.model.Farm;
+import mofo.com.pestscout.farm.security.CurrentUserService;
+import mofo.com.pestscout.scouting.config.SessionAuditProperties;
+import mofo.com.pestscout.scouting.model.ScoutingSession;
+import mofo.com.pestscout.scouting.model.SessionAuditAction;
+import mofo.com.pestscout.scouting.model.SessionAuditEvent;
+import mofo.com.pestscout.scouting.repository.SessionAuditEventRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class SessionAuditServiceTest {
+
+    private SessionAuditEventRepository auditRepository;
+    private SessionAuditQueue auditQueue;
+    private SessionAuditProperties properties;
+    private SessionAuditService service;
+    private ScoutingSession session;
+
+    @BeforeEach
+    void setUp() {
+        auditRepository = mock(SessionAuditEventRepository.class);
+        auditQueue = mock(SessionAuditQueue.class);
+        properties = new SessionAuditProperties();
+        CurrentUserService currentUserService = mock(CurrentUserService.class);
+        when(currentUserService.getCurrentUser()).thenReturn(User.builder()
+                .id(UUID.randomUUID())
+                .email("scout@example.com")
+                .firstName("Sam")
+                .lastName("Scout")
+                .role(Role.SCOUT)
+                .build());
+        service = new SessionAuditService(auditRepository, currentUserService, auditQueue, properties);
+        session = ScoutingSession.builder()
+                .id(UUID.randomUUID())
+                .farm(Farm.builder().id(UUID.randomUUID()).build())
+                .build();
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        TransactionSynchronizationManager.setActualTransactionActive(false);
+    }
+
+    @Test
+    void record_queuesEventOnlyOnceTheTransactionCommits() {
+        TransactionSynchronizationManager.initSynchronization();
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+
+        service.record(session, SessionAuditAction.SESSION_STARTED, "go", "device-1", "TABLET", null, null);
+
+        verifyNoInteractions(auditQueue);
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+
+        ArgumentCaptor<SessionAuditService.PendingAuditEvent> captor =
+                ArgumentCaptor.forClass(SessionAuditService.PendingAuditEvent.class);
+        verify(auditQueue).enqueue(captor.capture());
+        SessionAuditService.PendingAuditEvent event = captor.getValue();
+        assertThat(event.sessionId()).isEqualTo(session.getId());
+        assertThat(event.farmId()).isEqualTo(session.getFarm().getId());
+        assertThat(event.actorName()).isEqualTo("Sam Scout");
+        assertThat(event.actorRole()).isEqualTo(Role.SCOUT);
+        assertThat(event.deviceId()).isEqualTo("device-1");
+        verifyNoInteractions(auditRepository);
+    }
+
+    @Test
+    void record_dropsEventWhenTheTransactionRollsBack() {
+        TransactionSynchronizationManager.initSynchronization();
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+
+        service.record(session, SessionAuditAction.SESSION_VIEWED, null, null, null, null, "Viewer");
+        TransactionSynchronizationManager.getSynchronizations()
+                .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+
+        verifyNoInteractions(auditQueue, auditRepository);
+    }
+
+    @Test
+    void record_savesInTheCallersTransactionWhenAsyncIsDisabled() {
+        properties.setAsyncEnabled(false);
+
+        service.record(session, SessionAuditAction.SESSION_VIEWED, null, null, null, null, "Viewer");
+
+        ArgumentCaptor<SessionAuditEvent> captor = ArgumentCaptor.forClass(SessionAuditEvent.class);
+        verify(auditRepository).save(captor.capture());
+        assertThat(captor.getValue().getSession()).isSameAs(session);
+        assertThat(captor.getValue().getActorName()).isEqualTo("Viewer");
+        verify(auditQueue, never()).enqueue(any());
+    }
+}
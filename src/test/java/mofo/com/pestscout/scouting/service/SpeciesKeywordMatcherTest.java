@@ -0,0 +1,66 @@
+package mofo.com.pestscout.scouting.service;
+
+import mofo.com.pestscout.farm.model.Farm;
+import mofo.com.pestscout.scouting.model.CustomSpeciesDefinition;
+import mofo.com.pestscout.scouting.model.ObservationCategory;
+import mofo.com.pestscout.scouting.model.SpeciesCode;
+import org.junit.jupiter.api.Test;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SpeciesKeywordMatcherTest {
+
+    @Test
+    void match_findsEarliestDeclaredKeywordPerSpecies() {
+        Map<SpeciesCode, String> matches = collect(SpeciesKeywordMatcher.builtIn()
+                .match("  Honeydew and WHITEFLY on leaves ", null, "mite-webbing"));
+
+        assertThat(matches).containsOnlyKeys(SpeciesCode.WHITEFLIES, SpeciesCode.RED_SPIDER_MITE);
+        assertThat(matches.get(SpeciesCode.WHITEFLIES)).contains("'whitefly'");
+        assertThat(matches.get(SpeciesCode.RED_SPIDER_MITE)).contains("'mite'");
+    }
+
+    @Test
+    void match_findsOverlappingKeywordsAndSpansFieldBoundaries() {
+        SpeciesKeywordMatcher.KeywordMatches result = SpeciesKeywordMatcher.builtIn()
+                .match("leaf with grey", "mold near wilting stems");
+
+        assertThat(collect(result)).containsOnlyKeys(SpeciesCode.BOTRYTIS, SpeciesCode.BACTERIAL_WILT);
+        assertThat(result.hasDiseaseHint()).isTrue();
+    }
+
+    @Test
+    void match_includesFarmCustomSpeciesNames() {
+        CustomSpeciesDefinition aphid = CustomSpeciesDefinition.builder()
+                .farm(Farm.builder().name("Farm").build())
+                .category(ObservationCategory.PEST)
+                .name("Green Peach Aphid")
+                .code("GREEN_PEACH_APHID")
+                .normalizedName("green peach aphid")
+                .build();
+
+        Map<SpeciesCode, String> matches = collect(SpeciesKeywordMatcher.forFarm(List.of(aphid))
+                .match("Green peach aphid colony", "DRONE"));
+
+        assertThat(matches).containsOnlyKeys(SpeciesCode.PEST_OTHER);
+        assertThat(matches.get(SpeciesCode.PEST_OTHER)).contains("Green Peach Aphid");
+    }
+
+    @Test
+    void match_reportsNothingForUnrelatedText() {
+        SpeciesKeywordMatcher.KeywordMatches result = SpeciesKeywordMatcher.builtIn().match("bench 4 overview", "PHONE");
+
+        assertThat(collect(result)).isEmpty();
+        assertThat(result.hasDiseaseHint()).isFalse();
+    }
+
+    private static Map<SpeciesCode, String> collect(SpeciesKeywordMatcher.KeywordMatches result) {
+        Map<SpeciesCode, String> matches = new LinkedHashMap<>();
+        result.forEachSpecies(matches::put);
+        return matches;
+    }
+}
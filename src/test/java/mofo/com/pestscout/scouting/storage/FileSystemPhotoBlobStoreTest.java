@@ -0,0 +1,183 @@
+package mofo.com.pestscout.scouting.storage;
+
+import mofo.com.pestscout.common.exception.BadRequestException;
+import mofo.com.pestscout.scouting.config.PhotoStorageProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.util.HexFormat;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class FileSystemPhotoBlobStoreTest {
+
+    @TempDir
+    Path root;
+
+    private FileSystemPhotoBlobStore store;
+
+    @BeforeEach
+    void setUp() {
+        PhotoStorageProperties properties = new PhotoStorageProperties();
+        properties.setRoot(root.toString());
+        properties.setMaxUploadBytes(64);
+        store = new FileSystemPhotoBlobStore(properties);
+    }
+
+    @Test
+    void store_shardsBlobByContentHashAndCollapsesDuplicates() throws Exception {
+        byte[] bytes = "leaf-with-thrips".getBytes(StandardCharsets.UTF_8);
+
+        StoredPhotoBlob first = store.store(new ByteArrayInputStream(bytes));
+        StoredPhotoBlob second = store.store(new ByteArrayInputStream(bytes));
+
+        assertThat(first).isEqualTo(second);
+        assertThat(first.key()).hasSize(64);
+        assertThat(first.sizeBytes()).isEqualTo(bytes.length);
+        Path expected = root.resolve(first.key().substring(0, 2)).resolve(first.key().substring(2, 4)).resolve(first.key());
+        assertThat(expected).hasBinaryContent(bytes);
+        try (Stream<Path> leftovers = Files.list(root.resolve("incoming"))) {
+            assertThat(leftovers).isEmpty();
+        }
+    }
+
+    @Test
+    void stage_keepsBytesOutOfTheStoreUntilCommitted() throws Exception {
+        byte[] bytes = "leaf-with-mites".getBytes(StandardCharsets.UTF_8);
+        StoredPhotoBlob earlier = store.store(new ByteArrayInputStream(bytes));
+
+        StagedPhotoBlob staged = store.stage(new ByteArrayInputStream(bytes));
+        // An orphan sweep collects the earlier copy while the upload is staged.
+        store.delete(earlier.key());
+        assertThat(store.open(staged.key())).isEmpty();
+
+        StoredPhotoBlob committed = store.commit(staged);
+
+        assertThat(committed.key()).isEqualTo(earlier.key());
+        assertThat(store.open(committed.key())).isPresent();
+        assertThat(staged.file()).doesNotExist();
+    }
+
+    @Test
+    void store_rejectsOversizedUploadAndDiscardsPartialFile() throws Exception {
+        assertThatThrownBy(() -> store.store(new ByteArrayInputStream(new byte[65])))
+                .isInstanceOf(BadRequestException.class);
+
+        try (Stream<Path> leftovers = Files.list(root.resolve("incoming"))) {
+            assertThat(leftovers).isEmpty();
+        }
+    }
+
+    @Test
+    void open_transfersRequestedRange() throws Exception {
+        StoredPhotoBlob stored = store.store(new ByteArrayInputStream("0123456789".getBytes(StandardCharsets.UTF_8)));
+
+        PhotoBlob blob = store.open(stored.key()).orElseThrow();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        blob.transferTo(3, 4, Channels.newChannel(out));
+
+        assertThat(blob.size()).isEqualTo(10);
+        assertThat(out.toString(StandardCharsets.UTF_8)).isEqualTo("3456");
+    }
+
+    @Test
+    void open_copiesRemainingRangeWhenTransferMovesNothing() throws Exception {
+        StoredPhotoBlob stored = store.store(new ByteArrayInputStream("0123456789".getBytes(StandardCharsets.UTF_8)));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        WritableByteChannel delegate = Channels.newChannel(out);
+        AtomicBoolean refused = new AtomicBoolean();
+
+        store.open(stored.key()).orElseThrow().transferTo(2, 6, new WritableByteChannel() {
+            @Override
+            public int write(ByteBuffer source) throws IOException {
+                return refused.getAndSet(true) ? delegate.write(source) : 0;
+            }
+
+            @Override
+            public boolean isOpen() {
+                return true;
+            }
+
+            @Override
+            public void close() {
+            }
+        });
+
+        assertThat(out.toString(StandardCharsets.UTF_8)).isEqualTo("234567");
+    }
+
+    @Test
+    void open_failsInsteadOfSpinningWhenTargetAcceptsNothing() throws Exception {
+        StoredPhotoBlob stored = store.store(new ByteArrayInputStream("0123456789".getBytes(StandardCharsets.UTF_8)));
+        PhotoBlob blob = store.open(stored.key()).orElseThrow();
+
+        assertThatThrownBy(() -> blob.transferTo(0, 10, new WritableByteChannel() {
+            @Override
+            public int write(ByteBuffer source) {
+                return 0;
+            }
+
+            @Override
+            public boolean isOpen() {
+                return true;
+            }
+
+            @Override
+            public void close() {
+            }
+        })).isInstanceOf(IOException.class);
+    }
+
+    @Test
+    void adopt_movesStagedFileWhenChecksumMatches() throws Exception {
+        byte[] bytes = "staged-leaf".getBytes(StandardCharsets.UTF_8);
+        String key = HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(bytes));
+        Path staged = Files.write(root.resolve("staged.part"), bytes);
+
+        StoredPhotoBlob stored = store.adopt(staged, key);
+
+        assertThat(stored).isEqualTo(new StoredPhotoBlob(key, bytes.length));
+        assertThat(staged).doesNotExist();
+        assertThat(store.open(key)).isPresent();
+    }
+
+    @Test
+    void adopt_rejectsStagedFileWithWrongChecksum() throws Exception {
+        Path staged = Files.write(root.resolve("staged.part"), "tampered".getBytes(StandardCharsets.UTF_8));
+
+        assertThatThrownBy(() -> store.adopt(staged, "0".repeat(64)))
+                .isInstanceOf(BadRequestException.class);
+        assertThat(store.open("0".repeat(64))).isEmpty();
+    }
+
+    @Test
+    void delete_removesStoredBlobOnce() throws Exception {
+        StoredPhotoBlob stored = store.store(new ByteArrayInputStream("orphan".getBytes(StandardCharsets.UTF_8)));
+
+        assertThat(store.delete(stored.key())).isTrue();
+        assertThat(store.delete(stored.key())).isFalse();
+        assertThat(store.open(stored.key())).isEmpty();
+        assertThat(store.delete("photos/session/photo-1.jpg")).isFalse();
+    }
+
+    @Test
+    void open_ignoresKeysThatAreNotContentHashes() throws Exception {
+        assertThat(store.open("../../etc/passwd")).isEmpty();
+        assertThat(store.open("photos/session/photo-1.jpg")).isEmpty();
+        assertThat(store.open(null)).isEmpty();
+    }
+}
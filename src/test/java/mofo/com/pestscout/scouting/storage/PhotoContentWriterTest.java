@@ -0,0 +1,145 @@
+package mofo.com.pestscout.scouting.storage;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PhotoContentWriterTest {
+
+    private static final byte[] BYTES = "0123456789".getBytes(StandardCharsets.UTF_8);
+    private static final String KEY = "a".repeat(64);
+
+    @Test
+    void write_servesFullBodyWithStrongEtag() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        PhotoContentWriter.write(content(null), new MockHttpServletRequest("GET", "/content"), response);
+
+        assertThat(response.getStatus()).isEqualTo(200);
+        assertThat(response.getHeader(HttpHeaders.ETAG)).isEqualTo("\"" + KEY + "\"");
+        assertThat(response.getHeader(HttpHeaders.ACCEPT_RANGES)).isEqualTo("bytes");
+        assertThat(response.getContentType()).isEqualTo("image/jpeg");
+        assertThat(response.getContentAsString()).isEqualTo("0123456789");
+    }
+
+    @Test
+    void write_servesSingleRangeAsPartialContent() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/content");
+        request.addHeader(HttpHeaders.RANGE, "bytes=2-5");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        PhotoContentWriter.write(content(null), request, response);
+
+        assertThat(response.getStatus()).isEqualTo(206);
+        assertThat(response.getHeader(HttpHeaders.CONTENT_RANGE)).isEqualTo("bytes 2-5/10");
+        assertThat(response.getContentLengthLong()).isEqualTo(4);
+        assertThat(response.getContentAsString()).isEqualTo("2345");
+    }
+
+    @Test
+    void write_servesSuffixRange() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/content");
+        request.addHeader(HttpHeaders.RANGE, "bytes=-3");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        PhotoContentWriter.write(content(null), request, response);
+
+        assertThat(response.getStatus()).isEqualTo(206);
+        assertThat(response.getContentAsString()).isEqualTo("789");
+    }
+
+    @Test
+    void write_rejectsRangeBeyondEndOfBlob() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/content");
+        request.addHeader(HttpHeaders.RANGE, "bytes=10-");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        PhotoContentWriter.write(content(null), request, response);
+
+        assertThat(response.getStatus()).isEqualTo(416);
+        assertThat(response.getHeader(HttpHeaders.CONTENT_RANGE)).isEqualTo("bytes */10");
+    }
+
+    @Test
+    void write_ignoresRangeWhenIfRangeDoesNotMatch() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/content");
+        request.addHeader(HttpHeaders.RANGE, "bytes=2-5");
+        request.addHeader(HttpHeaders.IF_RANGE, "\"stale\"");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        PhotoContentWriter.write(content(null), request, response);
+
+        assertThat(response.getStatus()).isEqualTo(200);
+        assertThat(response.getContentAsString()).isEqualTo("0123456789");
+    }
+
+    @Test
+    void write_returnsNotModifiedForMatchingEtag() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/content");
+        request.addHeader(HttpHeaders.IF_NONE_MATCH, "\"other\", \"" + KEY + "\"");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        PhotoContentWriter.write(content(null), request, response);
+
+        assertThat(response.getStatus()).isEqualTo(304);
+        assertThat(response.getContentAsByteArray()).isEmpty();
+    }
+
+    @Test
+    void write_handsLocalFileToContainerSendfile() throws Exception {
+        Path file = Path.of("/photos/aa/aa", KEY);
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/content");
+        request.setAttribute(PhotoContentWriter.SENDFILE_SUPPORT, Boolean.TRUE);
+        request.addHeader(HttpHeaders.RANGE, "bytes=4-");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        PhotoContentWriter.write(content(file), request, response);
+
+        assertThat(response.getStatus()).isEqualTo(206);
+        assertThat(request.getAttribute(PhotoContentWriter.SENDFILE_FILENAME)).isEqualTo(file.toString());
+        assertThat(request.getAttribute(PhotoContentWriter.SENDFILE_START)).isEqualTo(4L);
+        assertThat(request.getAttribute(PhotoContentWriter.SENDFILE_END)).isEqualTo(10L);
+        assertThat(response.getContentAsByteArray()).isEmpty();
+    }
+
+    private static PhotoContent content(Path localPath) {
+        return new PhotoContent(new PhotoBlob() {
+            @Override
+            public String key() {
+                return KEY;
+            }
+
+            @Override
+            public long size() {
+                return BYTES.length;
+            }
+
+            @Override
+            public Optional<Path> localPath() {
+                return Optional.ofNullable(localPath);
+            }
+
+            @Override
+            public InputStream openStream() {
+                return new ByteArrayInputStream(BYTES);
+            }
+
+            @Override
+            public void transferTo(long position, long count, WritableByteChannel target) throws IOException {
+                Channels.newOutputStream(target).write(BYTES, (int) position, (int) count);
+            }
+        }, "image/jpeg");
+    }
+}
@@ -0,0 +1,74 @@
+package mofo.com.pestscout.scouting.storage;
+
+import mofo.com.pestscout.common.exception.BadRequestException;
+import mofo.com.pestscout.common.exception.ConflictException;
+import mofo.com.pestscout.scouting.config.PhotoStorageProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class PhotoUploadStagingTest {
+
+    @TempDir
+    Path root;
+
+    private PhotoUploadStaging staging;
+    private final UUID uploadId = UUID.randomUUID();
+
+    @BeforeEach
+    void setUp() {
+        PhotoStorageProperties properties = new PhotoStorageProperties();
+        properties.setRoot(root.toString());
+        staging = new PhotoUploadStaging(properties);
+    }
+
+    @Test
+    void append_resumesFromReceivedOffsetAndReplacesResentBytes() throws Exception {
+        assertThat(staging.append(uploadId, 0, 10, chunk("01234"))).isEqualTo(5);
+        // The acknowledgement for bytes 3-4 was lost, so the client resends from offset 3.
+        assertThat(staging.append(uploadId, 3, 10, chunk("3456789"))).isEqualTo(10);
+
+        assertThat(staging.size(uploadId)).isEqualTo(10);
+        assertThat(staging.path(uploadId)).hasContent("0123456789");
+    }
+
+    @Test
+    void append_rejectsOffsetThatWouldLeaveGap() throws Exception {
+        staging.append(uploadId, 0, 10, chunk("012"));
+
+        assertThatThrownBy(() -> staging.append(uploadId, 5, 10, chunk("56")))
+                .isInstanceOf(ConflictException.class);
+        assertThat(staging.size(uploadId)).isEqualTo(3);
+    }
+
+    @Test
+    void append_rejectsChunkPastDeclaredSizeAndKeepsEarlierBytes() throws Exception {
+        staging.append(uploadId, 0, 4, chunk("01"));
+
+        assertThatThrownBy(() -> staging.append(uploadId, 2, 4, chunk("2345")))
+                .isInstanceOf(BadRequestException.class);
+        assertThat(staging.size(uploadId)).isEqualTo(2);
+    }
+
+    @Test
+    void discard_removesPartialFile() throws Exception {
+        staging.append(uploadId, 0, 4, chunk("01"));
+
+        staging.discard(uploadId);
+
+        assertThat(staging.size(uploadId)).isZero();
+        assertThat(staging.path(uploadId)).doesNotExist();
+    }
+
+    private static ByteArrayInputStream chunk(String text) {
+        return new ByteArrayInputStream(text.getBytes(StandardCharsets.UTF_8));
+    }
+}